@@ -164,6 +164,7 @@ public class WsMasterModule extends AbstractModule {
         install(new org.eclipse.che.plugin.machine.ssh.SshMachineModule());
         install(new org.eclipse.che.plugin.docker.machine.proxy.DockerProxyModule());
         install(new org.eclipse.che.commons.schedule.executor.ScheduleModule());
+        bind(org.eclipse.che.commons.schedule.executor.CronJobStore.class).to(org.eclipse.che.api.system.server.jpa.JpaCronJobStore.class);
 
         final Multibinder<MessageBodyAdapter> adaptersMultibinder = Multibinder.newSetBinder(binder(), MessageBodyAdapter.class);
         adaptersMultibinder.addBinding().to(WorkspaceConfigMessageBodyAdapter.class);
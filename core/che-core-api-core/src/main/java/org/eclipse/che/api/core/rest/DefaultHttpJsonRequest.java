@@ -12,6 +12,7 @@ package org.eclipse.che.api.core.rest;
 
 import com.google.common.io.CharStreams;
 
+import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
@@ -159,6 +160,20 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
         return doRequest(timeout, url, method, body, queryParams, authorizationHeaderValue);
     }
 
+    @Override
+    public HttpJsonStreamResponse requestStream() throws IOException,
+                                                         ServerException,
+                                                         UnauthorizedException,
+                                                         ForbiddenException,
+                                                         NotFoundException,
+                                                         ConflictException,
+                                                         BadRequestException {
+        if (method == null) {
+            throw new IllegalStateException("Could not perform request, request method wasn't set");
+        }
+        return doStreamRequest(timeout, url, method, body, queryParams, authorizationHeaderValue);
+    }
+
     /**
      * Makes this request using {@link HttpURLConnection}.
      *
@@ -206,6 +221,56 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                                                                               UnauthorizedException,
                                                                               ConflictException,
                                                                               BadRequestException {
+        final HttpURLConnection conn = connect(timeout, url, method, body, parameters, authorizationHeaderValue);
+        try (Reader reader = new InputStreamReader(conn.getInputStream())) {
+            return new DefaultHttpJsonResponse(CharStreams.toString(reader), conn.getResponseCode());
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    /**
+     * Makes this request the same way as {@link #doRequest(int, String, String, Object, List, String)} does,
+     * but leaves reading of the response body to the returned response.
+     * The connection is released when the response is closed.
+     */
+    protected DefaultHttpJsonStreamResponse doStreamRequest(int timeout,
+                                                            String url,
+                                                            String method,
+                                                            Object body,
+                                                            List<Pair<String, ?>> parameters,
+                                                            String authorizationHeaderValue) throws IOException,
+                                                                                                    ServerException,
+                                                                                                    ForbiddenException,
+                                                                                                    NotFoundException,
+                                                                                                    UnauthorizedException,
+                                                                                                    ConflictException,
+                                                                                                    BadRequestException {
+        final HttpURLConnection conn = connect(timeout, url, method, body, parameters, authorizationHeaderValue);
+        try {
+            return new DefaultHttpJsonStreamResponse(new InputStreamReader(conn.getInputStream()), conn.getResponseCode());
+        } catch (IOException | RuntimeException x) {
+            conn.disconnect();
+            throw x;
+        }
+    }
+
+    /**
+     * Opens connection, sends the request and checks the response code and content type.
+     * The connection is disconnected if the response is not successful.
+     */
+    private HttpURLConnection connect(int timeout,
+                                      String url,
+                                      String method,
+                                      Object body,
+                                      List<Pair<String, ?>> parameters,
+                                      String authorizationHeaderValue) throws IOException,
+                                                                              ServerException,
+                                                                              ForbiddenException,
+                                                                              NotFoundException,
+                                                                              UnauthorizedException,
+                                                                              ConflictException,
+                                                                              BadRequestException {
         final String authToken = EnvironmentContext.getCurrent().getSubject().getToken();
         final boolean hasQueryParams = parameters != null && !parameters.isEmpty();
         if (hasQueryParams || authToken != null) {
@@ -284,12 +349,10 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
             if (contentType != null && !contentType.startsWith(MediaType.APPLICATION_JSON)) {
                 throw new IOException(conn.getResponseMessage());
             }
-
-            try (Reader reader = new InputStreamReader(conn.getInputStream())) {
-                return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
-            }
-        } finally {
+            return conn;
+        } catch (IOException | ApiException | RuntimeException x) {
             conn.disconnect();
+            throw x;
         }
     }
 
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+import org.eclipse.che.dto.server.DtoFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation of {@link HttpJsonStreamResponse}, reads DTOs from the body reader with
+ * {@link DtoFactory#getGson() DTO aware gson}, one element of the JSON array at a time.
+ */
+public class DefaultHttpJsonStreamResponse implements HttpJsonStreamResponse {
+
+    private final Reader body;
+    private final int    responseCode;
+
+    private boolean consumed;
+
+    protected DefaultHttpJsonStreamResponse(Reader body, int responseCode) {
+        this.body = body;
+        this.responseCode = responseCode;
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public <T> T asDto(Class<T> dtoInterface) throws IOException {
+        requireNonNull(dtoInterface, "Required non-null dto interface");
+        final JsonReader reader = consume(dtoInterface);
+        try {
+            return DtoFactory.getInstance().getGson().fromJson(reader, dtoInterface);
+        } catch (JsonParseException x) {
+            throw new IOException(x.getLocalizedMessage(), x);
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public <T> Stream<T> asDtoStream(Class<T> dtoInterface) throws IOException {
+        requireNonNull(dtoInterface, "Required non-null dto interface");
+        final JsonReader reader = consume(dtoInterface);
+        try {
+            reader.beginArray();
+        } catch (IOException | IllegalStateException x) {
+            close();
+            throw new IOException("Response body is not a JSON array: " + x.getLocalizedMessage(), x);
+        }
+        return StreamSupport.stream(new ElementSpliterator<>(reader, dtoInterface), false)
+                            .onClose(this::closeQuietly);
+    }
+
+    @Override
+    public <T> Stream<List<T>> asListStream(Class<T> dtoInterface, int batchSize) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+        }
+        final Spliterator<T> elements = asDtoStream(dtoInterface).spliterator();
+        final Spliterator<List<T>> batches = new Spliterators.AbstractSpliterator<List<T>>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super List<T>> action) {
+                final List<T> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && elements.tryAdvance(batch::add)) {
+                    // collects elements of the batch
+                }
+                if (batch.isEmpty()) {
+                    return false;
+                }
+                action.accept(batch);
+                return true;
+            }
+        };
+        return StreamSupport.stream(batches, false).onClose(this::closeQuietly);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        consumed = true;
+        body.close();
+    }
+
+    private synchronized JsonReader consume(Class<?> dtoInterface) {
+        if (consumed) {
+            throw new IllegalStateException("Response body is already consumed");
+        }
+        if (!DtoFactory.getInstance().hasProvider(dtoInterface)) {
+            throw new IllegalArgumentException("Unknown DTO type " + dtoInterface);
+        }
+        consumed = true;
+        return new JsonReader(body);
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Reads elements of the JSON array one by one, closes the response after the last one or on the first failure. */
+    private class ElementSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final JsonReader reader;
+        private final Class<T>   dtoInterface;
+
+        private boolean done;
+
+        ElementSpliterator(JsonReader reader, Class<T> dtoInterface) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.reader = reader;
+            this.dtoInterface = dtoInterface;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (done) {
+                return false;
+            }
+            try {
+                if (!reader.hasNext()) {
+                    done = true;
+                    reader.endArray();
+                    close();
+                    return false;
+                }
+                action.accept(DtoFactory.getInstance().getGson().fromJson(reader, dtoInterface));
+                return true;
+            } catch (IOException x) {
+                throw failed(x);
+            } catch (JsonParseException | IllegalStateException x) {
+                throw failed(new IOException(x.getLocalizedMessage(), x));
+            }
+        }
+
+        private UncheckedIOException failed(IOException x) {
+            done = true;
+            closeQuietly();
+            return new UncheckedIOException(x);
+        }
+    }
+}
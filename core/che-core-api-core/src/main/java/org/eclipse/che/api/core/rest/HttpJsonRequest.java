@@ -24,6 +24,7 @@ import org.eclipse.che.dto.server.JsonSerializable;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.HttpMethod;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -177,6 +178,53 @@ public interface HttpJsonRequest {
                                       ConflictException,
                                       BadRequestException;
 
+    /**
+     * Makes the same request as {@link #request()} does, but doesn't read the response body. The body is read
+     * from the connection while it is consumed, so large responses, e.g. long JSON arrays, are not kept in memory.
+     * Returned response must be closed.
+     *
+     * <p>Implementations which can't stream the body fall back to {@link #request()}, so the body is
+     * read into memory but the response can still be consumed as a stream.
+     *
+     * <p>Example:
+     * <pre>{@code
+     *      try (HttpJsonStreamResponse response = requestFactory.fromUri(apiEndpoint + "/workspace")
+     *                                                           .useGetMethod()
+     *                                                           .requestStream();
+     *           Stream<WorkspaceDto> workspaces = response.asDtoStream(WorkspaceDto.class)) {
+     *          workspaces.forEach(this::index);
+     *      }
+     * }</pre>
+     *
+     * @return {@link HttpJsonStreamResponse} instance which represents response of this request
+     * @throws IOException
+     *          when server response content type is different from "application/json"(Not acceptable)
+     * @throws IOException
+     *          when any io error occurs
+     * @throws ServerException
+     *          when response code is 500 or it is different from 400, 401, 403, 404, 409
+     * @throws ForbiddenException
+     *          when response code is 403
+     * @throws NotFoundException
+     *          when response code is 404
+     * @throws UnauthorizedException
+     *          when response code is 401
+     * @throws ConflictException
+     *          when response code is 409
+     * @throws BadRequestException
+     *          when response code is 400
+     */
+    default HttpJsonStreamResponse requestStream() throws IOException,
+                                                          ServerException,
+                                                          UnauthorizedException,
+                                                          ForbiddenException,
+                                                          NotFoundException,
+                                                          ConflictException,
+                                                          BadRequestException {
+        final HttpJsonResponse response = request();
+        return new DefaultHttpJsonStreamResponse(new StringReader(response.asString()), response.getResponseCode());
+    }
+
     /**
      * Uses {@link HttpMethod#GET} as a request method.
      *
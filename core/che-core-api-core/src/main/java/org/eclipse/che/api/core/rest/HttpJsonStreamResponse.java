@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.common.annotations.Beta;
+
+import org.eclipse.che.dto.shared.DTO;
+
+import javax.validation.constraints.NotNull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Defines response of {@link HttpJsonRequest#requestStream()}, which body is read while it is consumed.
+ * The body can be consumed only once and response must be closed when it is not needed anymore.
+ */
+@Beta
+public interface HttpJsonStreamResponse extends Closeable {
+
+    /**
+     * Returns a response code.
+     */
+    int getResponseCode();
+
+    /**
+     * Reads response body as instance of {@link DTO} object without keeping of the body text in memory.
+     *
+     * @param dtoInterface
+     *         dto interface class
+     * @return response as a dto instance
+     * @throws IOException
+     *         when response body can't be read or it is not valid json
+     */
+    <T> T asDto(@NotNull Class<T> dtoInterface) throws IOException;
+
+    /**
+     * Returns elements of the response body JSON array as a stream of {@link DTO} objects, each element is read
+     * when the stream requests it, so the whole array is never kept in memory. The response is closed
+     * when the stream is closed.
+     *
+     * <p>Example:
+     * <pre>{@code
+     *      try (Stream<WorkspaceDto> workspaces = response.asDtoStream(WorkspaceDto.class)) {
+     *          workspaces.filter(ws -> ws.getStatus() == RUNNING).forEach(this::stop);
+     *      }
+     * }</pre>
+     *
+     * @param dtoInterface
+     *         dto interface class
+     * @return stream of dto instances, {@link java.io.UncheckedIOException} is thrown when the body can't be read
+     * @throws IOException
+     *         when response body is not a JSON array
+     */
+    <T> Stream<T> asDtoStream(@NotNull Class<T> dtoInterface) throws IOException;
+
+    /**
+     * Same as {@link #asDtoStream(Class)} but groups the elements into lists of the given size, e.g. to process
+     * them in batches. The last list may be shorter.
+     *
+     * @param dtoInterface
+     *         dto interface class
+     * @param batchSize
+     *         maximum number of elements in the list
+     * @return stream of lists of dto instances
+     * @throws IOException
+     *         when response body is not a JSON array
+     */
+    <T> Stream<List<T>> asListStream(@NotNull Class<T> dtoInterface, int batchSize) throws IOException;
+}
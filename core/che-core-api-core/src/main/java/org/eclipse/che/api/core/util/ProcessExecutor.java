@@ -0,0 +1,506 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains stdout and stderr of the child processes and enforces their timeouts
+ * without starting threads per process.
+ *
+ * <p>Output of all the registered processes is read by a single polling thread which reads only
+ * bytes available in the pipes, so it never blocks on a process and both streams of a process
+ * are drained concurrently, i.e. a process can't stall on a full stderr pipe while stdout is read.
+ * Lines are split in a reusable byte buffer of each stream and decoded into a string once.
+ *
+ * <p>Lines are passed to the consumers by a growable pool of threads, lines of a process are passed
+ * one at a time in the order they are read, so a slow consumer delays only its own process.
+ * When too many lines of a process are waiting for its consumers the output of the process
+ * is not read until they catch up.
+ * Timeouts are scheduled on a separate scheduler, so they fire even when all the consumers are busy,
+ * processes are killed on timeout by a growable pool, so a slow kill doesn't delay the other timeouts.
+ */
+public final class ProcessExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessExecutor.class);
+
+    private static final int  READ_BUFFER_SIZE      = 8192;
+    /** Maximum number of reads from a stream per poll, so a chatty process doesn't delay the others. */
+    private static final int  MAX_READS_PER_POLL    = 8;
+    private static final int  MAX_LINE_LENGTH       = 64 * 1024;
+    private static final long MAX_POLL_DELAY_MILLIS = 50;
+    /** Maximum number of lines of a process waiting for its consumers, reading of the process is paused above it. */
+    private static final int  MAX_PENDING_LINES     = 1024;
+
+    private static final ScheduledExecutorService POLLER     = Executors.newSingleThreadScheduledExecutor(
+            threadFactory("ProcessExecutorPoller-%d"));
+    private static final ExecutorService          CONSUMERS  = Executors.newCachedThreadPool(
+            threadFactory("ProcessExecutorConsumer-%d"));
+    private static final ScheduledExecutorService WATCHDOG   = Executors.newSingleThreadScheduledExecutor(
+            threadFactory("ProcessWatchdog-%d"));
+    private static final ExecutorService          CANCELLERS = Executors.newCachedThreadPool(
+            threadFactory("ProcessCanceller-%d"));
+
+    private static final Set<Execution>           EXECUTIONS  = ConcurrentHashMap.newKeySet();
+    private static final Map<String, Statistics>  STATISTICS  = new ConcurrentHashMap<>();
+    private static final AtomicBoolean            POLLING     = new AtomicBoolean();
+    private static final byte[]                   POLL_BUFFER = new byte[READ_BUFFER_SIZE];
+
+    private static long pollDelayMillis;
+
+    /**
+     * Starts draining output of the process.
+     *
+     * @param process
+     *         process to read output from
+     * @param command
+     *         name of the command used to collect statistics, e.g. {@code svn}
+     * @param stdout
+     *         a consumer where stdout will be redirected, if {@code null} stdout is not read
+     * @param stderr
+     *         a consumer where stderr will be redirected, if {@code null} stderr is not read
+     * @param timeout
+     *         timeout after which process is killed, zero or negative value means no timeout
+     * @param timeUnit
+     *         unit of the {@code timeout}
+     * @return execution which allows to wait for the end of process output
+     */
+    public static Execution execute(Process process,
+                                    String command,
+                                    LineConsumer stdout,
+                                    LineConsumer stderr,
+                                    long timeout,
+                                    TimeUnit timeUnit) {
+        Execution execution = new Execution(process, command, stdout, stderr);
+        if (timeout > 0) {
+            execution.timeoutTask = WATCHDOG.schedule(() -> cancel(execution::timeout), timeout, timeUnit);
+        }
+        EXECUTIONS.add(execution);
+        startPolling();
+        return execution;
+    }
+
+    /** Same as {@link #execute(Process, String, LineConsumer, LineConsumer, long, TimeUnit)} without timeout. */
+    public static Execution execute(Process process, String command, LineConsumer stdout, LineConsumer stderr) {
+        return execute(process, command, stdout, stderr, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns number of executions, summary duration, timeouts and output volume per command
+     * and number of processes which output is drained at the moment.
+     */
+    public static Map<String, Long> getStatistics() {
+        Map<String, Long> result = new TreeMap<>();
+        result.put("active", (long)EXECUTIONS.size());
+        for (Map.Entry<String, Statistics> entry : STATISTICS.entrySet()) {
+            Statistics statistics = entry.getValue();
+            result.put(entry.getKey() + ".executions", statistics.executions.sum());
+            result.put(entry.getKey() + ".timeouts", statistics.timeouts.sum());
+            result.put(entry.getKey() + ".duration_ms", statistics.durationMillis.sum());
+            result.put(entry.getKey() + ".output_bytes", statistics.outputBytes.sum());
+        }
+        return result;
+    }
+
+    /** Schedules the task on the scheduler which enforces timeouts of the processes, the task must not block. */
+    static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit timeUnit) {
+        return WATCHDOG.schedule(task, delay, timeUnit);
+    }
+
+    /** Runs cancellation of the timed out task, which may block, outside of the scheduler of the timeouts. */
+    static void cancel(Runnable cancellation) {
+        CANCELLERS.execute(cancellation);
+    }
+
+    private static ThreadFactory threadFactory(String nameFormat) {
+        return new ThreadFactoryBuilder().setNameFormat(nameFormat)
+                                         .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                         .setDaemon(true)
+                                         .build();
+    }
+
+    private static void startPolling() {
+        if (POLLING.compareAndSet(false, true)) {
+            pollDelayMillis = 0;
+            POLLER.execute(ProcessExecutor::poll);
+        }
+    }
+
+    /** Polls all the executions, only one poll runs at a time. */
+    private static void poll() {
+        boolean read = false;
+        for (Execution execution : EXECUTIONS) {
+            try {
+                read |= execution.drain(POLL_BUFFER);
+            } catch (RuntimeException e) {
+                LOG.error(e.getLocalizedMessage(), e);
+                execution.outputFinished = true;
+                execution.scheduleDelivery();
+            }
+        }
+        if (EXECUTIONS.isEmpty()) {
+            POLLING.set(false);
+            // execution might be added after the check
+            if (!EXECUTIONS.isEmpty()) {
+                startPolling();
+            }
+            return;
+        }
+        // poll again at once while there is output, otherwise back off
+        pollDelayMillis = read ? 0 : Math.min(MAX_POLL_DELAY_MILLIS, pollDelayMillis * 2 + 1);
+        POLLER.schedule(ProcessExecutor::poll, pollDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Output draining of the single process. */
+    public static final class Execution {
+        private final Process        process;
+        private final String         command;
+        private final OutputPump     stdout;
+        private final OutputPump     stderr;
+        private final long           startTime;
+        private final CountDownLatch done;
+
+        /** Lines read by the poller which are not passed to the consumers yet. */
+        private final ConcurrentLinkedQueue<PendingLine> pendingLines;
+        private final AtomicInteger                      pendingCount;
+        private final AtomicBoolean                      delivering;
+
+        private volatile ScheduledFuture<?> timeoutTask;
+        private volatile boolean            timedOut;
+        private volatile boolean            outputFinished;
+        private volatile long               durationMillis;
+
+        private Execution(Process process, String command, LineConsumer stdout, LineConsumer stderr) {
+            this.process = process;
+            this.command = command;
+            this.pendingLines = new ConcurrentLinkedQueue<>();
+            this.pendingCount = new AtomicInteger();
+            this.delivering = new AtomicBoolean();
+            this.stdout = new OutputPump(this, stdout == null ? null : process.getInputStream(), stdout);
+            this.stderr = new OutputPump(this, stderr == null ? null : process.getErrorStream(), stderr);
+            this.startTime = System.nanoTime();
+            this.done = new CountDownLatch(1);
+            this.durationMillis = -1;
+        }
+
+        /** Waits until the whole output of the process is drained. */
+        public void await() throws InterruptedException {
+            done.await();
+        }
+
+        /**
+         * Waits until the whole output of the process is drained at most given time.
+         *
+         * @return true if output is drained, false otherwise
+         */
+        public boolean await(long timeout, TimeUnit timeUnit) throws InterruptedException {
+            return done.await(timeout, timeUnit);
+        }
+
+        /** Waits until the whole output of the process is drained and process ends and returns its exit code. */
+        public int waitFor() throws InterruptedException {
+            await();
+            return process.waitFor();
+        }
+
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        /** Returns true if process has been killed because of timeout. */
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        /** Returns time from the start of output draining till the end of output or -1 if output is not drained yet. */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public long getStdoutBytes() {
+            return stdout.bytes;
+        }
+
+        public long getStderrBytes() {
+            return stderr.bytes;
+        }
+
+        /** Returns the first error occurred on output reading or writing to consumers or null if there were no errors. */
+        public IOException getError() {
+            return stdout.error != null ? stdout.error : stderr.error;
+        }
+
+        /** Stops output draining, rest of the output is discarded. */
+        public void stop() {
+            stdout.stop();
+            stderr.stop();
+        }
+
+        public Process getProcess() {
+            return process;
+        }
+
+        private void timeout() {
+            if (!isDone() && ProcessUtil.isAlive(process)) {
+                timedOut = true;
+                statistics().timeouts.increment();
+                LOG.debug("Process '{}' is killed by timeout", command);
+                try {
+                    ProcessUtil.kill(process);
+                } catch (RuntimeException e) {
+                    LOG.error("An error occurred while killing process '{}'", command);
+                }
+            }
+        }
+
+        /** Reads available output, returns true if anything is read. */
+        private boolean drain(byte[] buffer) {
+            if (outputFinished || pendingCount.get() >= MAX_PENDING_LINES) {
+                // consumers are behind, the process waits on the full pipe until they catch up
+                return false;
+            }
+            // liveness is checked before reading, since when process is gone all its output is already in pipes
+            boolean alive = process.isAlive();
+            boolean read = stdout.pump(buffer, alive) | stderr.pump(buffer, alive);
+            if (stdout.finished && stderr.finished) {
+                outputFinished = true;
+            }
+            if (read || outputFinished) {
+                scheduleDelivery();
+            }
+            return read;
+        }
+
+        private void addLine(OutputPump pump, String line) {
+            pendingCount.incrementAndGet();
+            pendingLines.add(new PendingLine(pump, line));
+        }
+
+        private void scheduleDelivery() {
+            if (delivering.compareAndSet(false, true)) {
+                CONSUMERS.execute(this::deliver);
+            }
+        }
+
+        /** Passes pending lines to the consumers, at most one delivery of the execution runs at a time. */
+        private void deliver() {
+            while (true) {
+                PendingLine line;
+                while ((line = pendingLines.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    line.pump.write(line.text);
+                }
+                delivering.set(false);
+                if (pendingLines.isEmpty()) {
+                    // output is finished before the last lines are added, so they are delivered at this point
+                    if (outputFinished) {
+                        complete();
+                    }
+                    return;
+                }
+                if (!delivering.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        private void complete() {
+            if (EXECUTIONS.remove(this)) {
+                durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                ScheduledFuture<?> task = timeoutTask;
+                if (task != null) {
+                    task.cancel(false);
+                }
+                Statistics statistics = statistics();
+                statistics.executions.increment();
+                statistics.durationMillis.add(durationMillis);
+                statistics.outputBytes.add(stdout.bytes + stderr.bytes);
+                done.countDown();
+            }
+        }
+
+        private Statistics statistics() {
+            return STATISTICS.computeIfAbsent(command == null ? "unknown" : command, c -> new Statistics());
+        }
+    }
+
+    private static final class PendingLine {
+        private final OutputPump pump;
+        private final String     text;
+
+        private PendingLine(OutputPump pump, String text) {
+            this.pump = pump;
+            this.text = text;
+        }
+    }
+
+    /** Reads a stream of the process and splits it into lines. */
+    private static final class OutputPump {
+        private final Execution   execution;
+        private final InputStream input;
+
+        private byte[]  line;
+        private int     lineLength;
+        private boolean carriageReturn;
+
+        private volatile LineConsumer consumer;
+        private volatile long         bytes;
+        private volatile boolean      finished;
+        private volatile boolean      stopped;
+        private volatile IOException  error;
+
+        private OutputPump(Execution execution, InputStream input, LineConsumer consumer) {
+            this.execution = execution;
+            this.input = input;
+            this.consumer = consumer;
+            this.line = new byte[256];
+            this.finished = input == null;
+        }
+
+        private boolean pump(byte[] buffer, boolean processAlive) {
+            if (finished) {
+                return false;
+            }
+            boolean read = false;
+            try {
+                for (int i = 0; i < MAX_READS_PER_POLL; i++) {
+                    int available = input.available();
+                    if (available <= 0) {
+                        if (!processAlive) {
+                            finish();
+                        }
+                        break;
+                    }
+                    int r = input.read(buffer, 0, Math.min(available, buffer.length));
+                    if (r < 0) {
+                        finish();
+                        break;
+                    }
+                    read = true;
+                    bytes += r;
+                    split(buffer, r);
+                }
+            } catch (IOException e) {
+                // stream is closed when process is killed or draining is stopped
+                if (processAlive && !stopped && error == null) {
+                    error = e;
+                }
+                finish();
+            }
+            return read;
+        }
+
+        private void split(byte[] buffer, int length) {
+            for (int i = 0; i < length; i++) {
+                byte b = buffer[i];
+                if (carriageReturn) {
+                    carriageReturn = false;
+                    if (b == '\n') {
+                        continue;
+                    }
+                }
+                if (b == '\n' || b == '\r') {
+                    carriageReturn = b == '\r';
+                    emitLine();
+                } else {
+                    if (lineLength == line.length) {
+                        if (line.length >= MAX_LINE_LENGTH) {
+                            emitLine();
+                        } else {
+                            line = Arrays.copyOf(line, line.length * 2);
+                        }
+                    }
+                    line[lineLength++] = b;
+                }
+            }
+        }
+
+        private void emitLine() {
+            if (consumer != null && !stopped) {
+                execution.addLine(this, new String(line, 0, lineLength, Charset.defaultCharset()));
+            }
+            lineLength = 0;
+        }
+
+        /** Passes the line to the consumer, called by the consumers pool. */
+        private void write(String text) {
+            LineConsumer target = consumer;
+            if (target == null || stopped) {
+                return;
+            }
+            try {
+                target.writeLine(text);
+            } catch (IOException e) {
+                // keep draining the stream, so the process doesn't stall, but discard the rest of output
+                error = e;
+                consumer = null;
+            } catch (RuntimeException e) {
+                LOG.error(e.getLocalizedMessage(), e);
+                consumer = null;
+            }
+        }
+
+        private void finish() {
+            if (lineLength > 0) {
+                emitLine();
+            }
+            finished = true;
+            close();
+        }
+
+        private void stop() {
+            stopped = true;
+            close();
+        }
+
+        private void close() {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static final class Statistics {
+        private final LongAdder executions     = new LongAdder();
+        private final LongAdder timeouts       = new LongAdder();
+        private final LongAdder durationMillis = new LongAdder();
+        private final LongAdder outputBytes    = new LongAdder();
+    }
+
+    private ProcessExecutor() {
+    }
+}
@@ -15,10 +15,8 @@ import com.google.common.base.Joiner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.concurrent.CompletableFuture;
+import java.io.InterruptedIOException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -37,7 +35,7 @@ public final class ProcessUtil {
 
     /**
      * Writes stdout and stderr of the process to consumers.<br>
-     * Supposes that stderr of the process is redirected to stdout.
+     * Both streams are drained concurrently by {@link ProcessExecutor}, method returns when the whole output is read.
      *
      * @param p
      *         process to read output from
@@ -46,37 +44,25 @@ public final class ProcessUtil {
      * @param stderr
      *         a consumer where stderr will be redirected
      * @throws IOException
+     *         if error occurs on output reading or writing to consumers
      */
     public static void process(Process p, LineConsumer stdout, LineConsumer stderr) throws IOException {
-        try (BufferedReader inputReader = new BufferedReader(new InputStreamReader(p.getInputStream()));
-             BufferedReader errorReader = new BufferedReader(new InputStreamReader(p.getErrorStream()))) {
-            String line;
-            while ((line = inputReader.readLine()) != null) {
-                stdout.writeLine(line);
-            }
-            while ((line = errorReader.readLine()) != null) {
-                stderr.writeLine(line);
-            }
-        }
+        await(ProcessExecutor.execute(p, "process", stdout, stderr));
     }
 
     /**
      * Writes stdout of the process to consumer.<br>
-     * Supposes that stderr of the process is redirected to stdout.
+     * Supposes that stderr of the process is redirected to stdout, otherwise stderr is discarded.
      *
      * @param p
      *         process to read output from
      * @param stdout
      *         a consumer where stdout will be redirected
      * @throws IOException
+     *         if error occurs on output reading or writing to consumer
      */
     public static void process(Process p, LineConsumer stdout) throws IOException {
-        try (BufferedReader inputReader = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
-            String line;
-            while ((line = inputReader.readLine()) != null) {
-                stdout.writeLine(line);
-            }
-        }
+        await(ProcessExecutor.execute(p, "process", stdout, LineConsumer.DEV_NULL));
     }
 
     /**
@@ -104,25 +90,21 @@ public final class ProcessUtil {
 
         Process process = pb.start();
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                // consume logs until process ends
-                process(process, outputConsumer);
-            } catch (IOException e) {
-                LOG.error(format("Failed to complete reading of the process '%s' output due to occurred error",
-                                 Joiner.on(" ").join(commandLine)), e);
-            }
-        });
-
-        if (!process.waitFor(timeout, timeUnit)) {
-            try {
-                ProcessUtil.kill(process);
-            } catch (RuntimeException x) {
-                LOG.error("An error occurred while killing process '{}'", Joiner.on(" ").join(commandLine));
-            }
+        ProcessExecutor.Execution execution = ProcessExecutor.execute(process,
+                                                                      commandLine[0],
+                                                                      outputConsumer,
+                                                                      LineConsumer.DEV_NULL,
+                                                                      timeout,
+                                                                      timeUnit);
+        execution.waitFor();
+        if (execution.isTimedOut()) {
             throw new TimeoutException(format("Process '%s' was terminated by timeout %s %s.",
                                               Joiner.on(" ").join(commandLine), timeout, timeUnit.name().toLowerCase()));
         }
+        if (execution.getError() != null) {
+            LOG.error(format("Failed to complete reading of the process '%s' output due to occurred error",
+                             Joiner.on(" ").join(commandLine)), execution.getError());
+        }
 
         return process;
     }
@@ -159,6 +141,19 @@ public final class ProcessUtil {
         return PROCESS_MANAGER.system(command);
     }
 
+    private static void await(ProcessExecutor.Execution execution) throws IOException {
+        try {
+            execution.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            execution.stop();
+            throw new InterruptedIOException("Interrupted while reading output of the process");
+        }
+        if (execution.getError() != null) {
+            throw execution.getError();
+        }
+    }
+
     private ProcessUtil() {
     }
 }
@@ -10,67 +10,37 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.util;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-
-/** @author andrew00x */
-public final class StreamPump implements Runnable {
-
-    private BufferedReader bufferedReader;
-    private LineConsumer   lineConsumer;
+/**
+ * Redirects stdout of the process to the consumer.
+ * Output is drained by {@link ProcessExecutor} so no thread is started per process.
+ *
+ * @author andrew00x
+ */
+public final class StreamPump {
 
-    private Exception exception;
-    private boolean   done;
+    private ProcessExecutor.Execution execution;
 
     public synchronized void start(Process process, LineConsumer lineConsumer) {
-        this.lineConsumer = lineConsumer;
-        bufferedReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        final Thread t = new Thread(this, "StreamPump");
-        t.setDaemon(true);
-        t.start();
+        execution = ProcessExecutor.execute(process, "StreamPump", lineConsumer, null);
     }
 
     public synchronized void stop() {
-        // Not clear do we need close original stream, but since it was wrapped by BufferedReader close it anyway.
-        try {
-            bufferedReader.close();
-        } catch (IOException ignored) {
-        }
+        execution.stop();
     }
 
-    public synchronized void await() throws InterruptedException {
-        while (!done) {
-            wait();
-        }
+    public void await() throws InterruptedException {
+        execution.await();
     }
 
-    public synchronized boolean isDone() {
-        return done;
+    public boolean isDone() {
+        return execution.isDone();
     }
 
     public boolean hasError() {
-        return null != exception;
+        return null != getException();
     }
 
     public Exception getException() {
-        return exception;
-    }
-
-    @Override
-    public void run() {
-        String line;
-        try {
-            while ((line = bufferedReader.readLine()) != null) {
-                lineConsumer.writeLine(line);
-            }
-        } catch (IOException e) {
-            exception = e;
-        } finally {
-            synchronized (this) {
-                done = true;
-                notifyAll();
-            }
-        }
+        return execution.getError();
     }
 }
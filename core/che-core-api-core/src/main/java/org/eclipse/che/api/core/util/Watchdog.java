@@ -13,10 +13,13 @@ package org.eclipse.che.api.core.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
  * It controls the time of {@code Cancellable} invocation and if time if greater than timeout it terminates such {@code Cancellable}.
+ * Timeouts of all the watchdogs are controlled by the scheduler shared with {@link ProcessExecutor},
+ * {@code Cancellable} is cancelled by the pool of {@link ProcessExecutor} which kills the timed out processes.
  *
  * @author <a href="mailto:andrew00x@gmail.com">Andrey Parfonov</a>
  */
@@ -26,14 +29,15 @@ public final class Watchdog implements Runnable {
     private final String name;
     private final long   timeout;
 
-    private boolean     watch;
-    private Cancellable cancellable;
+    private boolean            watch;
+    private Cancellable        cancellable;
+    private ScheduledFuture<?> future;
 
     /**
      * Create new {@code Watchdog}.
      *
      * @param name
-     *         name for background {@code Thread}. It helps to identify out threads. This parameter is optional and may be {@code null}.
+     *         name of the watchdog used in logs. It helps to identify what is cancelled. This parameter is optional and may be {@code null}.
      * @param timeout
      *         timeout
      * @param unit
@@ -60,35 +64,31 @@ public final class Watchdog implements Runnable {
     public synchronized void start(Cancellable cancellable) {
         this.cancellable = cancellable;
         this.watch = true;
-        final Thread t = name == null ? new Thread(this) : new Thread(this, name);
-        t.setDaemon(true);
-        t.start();
+        this.future = ProcessExecutor.schedule(this, timeout, TimeUnit.MILLISECONDS);
     }
 
     /** Stop watching. */
     public synchronized void stop() {
         watch = false;
-        notify();
+        if (future != null) {
+            future.cancel(false);
+        }
     }
 
     /** NOTE: Not expected to call directly by regular users of this class. */
     public synchronized void run() {
-        final long end = System.currentTimeMillis() + timeout;
-        long now;
-        while (watch && (end > (now = System.currentTimeMillis()))) {
-            try {
-                wait(end - now);
-            } catch (InterruptedException ignored) {
-                // Not expected to be thrown
-            }
-        }
         if (watch) {
-            try {
-                cancellable.cancel();
-            } catch (Exception e) {
-                LOG.error(e.getMessage(), e);
-            }
+            LOG.debug("Timeout {} ms of watchdog {} is reached", timeout, name);
             watch = false;
+            // cancellation may block, so it must not hold the scheduler shared by all the watchdogs
+            final Cancellable target = cancellable;
+            ProcessExecutor.cancel(() -> {
+                try {
+                    target.cancel();
+                } catch (Exception e) {
+                    LOG.error(e.getMessage(), e);
+                }
+            });
         }
     }
 }
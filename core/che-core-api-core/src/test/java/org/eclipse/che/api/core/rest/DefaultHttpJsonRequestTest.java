@@ -45,6 +45,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.ws.rs.HttpMethod;
 
@@ -288,6 +289,21 @@ public class DefaultHttpJsonRequestTest {
         assertEquals(links, Collections.singletonList(link));
     }
 
+    @Test
+    public void shouldStreamJsonArrayBody(ITestContext ctx) throws Exception {
+        final DefaultHttpJsonRequest request = new DefaultHttpJsonRequest(getUrl(ctx) + "/application-json");
+
+        final Link link = LinksHelper.createLink("GET", "localhost:8080/application-json", "rel");
+        final List<Link> links;
+        try (HttpJsonStreamResponse response = request.usePostMethod()
+                                                      .setBody(Collections.singletonList(link))
+                                                      .requestStream()) {
+            links = response.asDtoStream(Link.class).collect(Collectors.toList());
+        }
+
+        assertEquals(links, Collections.singletonList(link));
+    }
+
     @Test
     public void shouldSendQueryParameters(ITestContext ctx) throws Exception {
         final DefaultHttpJsonRequest request = new DefaultHttpJsonRequest(getUrl(ctx) + "/query-parameters");
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonArrayImpl;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.eclipse.che.api.core.util.LinksHelper.createLink;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests of {@link DefaultHttpJsonStreamResponse}.
+ */
+public class DefaultHttpJsonStreamResponseTest {
+
+    @Test
+    public void shouldReadDtoFromBody() throws Exception {
+        final Link link = createLink("POST", "http://localhost:8080", "rel");
+
+        assertEquals(response(DtoFactory.getInstance().toJson(link)).asDto(Link.class), link);
+    }
+
+    @Test
+    public void shouldStreamElementsOfJsonArray() throws Exception {
+        final List<Link> links = links(3);
+
+        try (Stream<Link> stream = response(DtoFactory.getInstance().toJson(new JsonArrayImpl<>(links))).asDtoStream(Link.class)) {
+            assertEquals(stream.collect(toList()), links);
+        }
+    }
+
+    @Test
+    public void shouldReadElementsOnlyWhenStreamRequestsThem() throws Exception {
+        final String json = DtoFactory.getInstance().toJson(new JsonArrayImpl<>(links(1)));
+        // the second element is broken, so it fails only when it is read
+        final String broken = json.substring(0, json.length() - 1) + ",not json";
+
+        try (Stream<Link> stream = response(broken).asDtoStream(Link.class)) {
+            assertEquals(stream.findFirst().get(), links(1).get(0));
+        }
+    }
+
+    @Test
+    public void shouldStreamElementsInBatches() throws Exception {
+        final List<Link> links = links(5);
+
+        final List<List<Link>> batches;
+        try (Stream<List<Link>> stream = response(DtoFactory.getInstance().toJson(new JsonArrayImpl<>(links))).asListStream(Link.class, 2)) {
+            batches = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(batches, Arrays.asList(links.subList(0, 2), links.subList(2, 4), links.subList(4, 5)));
+    }
+
+    @Test
+    public void shouldReturnEmptyStreamForEmptyArray() throws Exception {
+        assertEquals(response("[]").asDtoStream(Link.class).count(), 0L);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldThrowIOExceptionWhenBodyIsNotJsonArray() throws Exception {
+        response("{}").asDtoStream(Link.class);
+    }
+
+    @Test(expectedExceptions = UncheckedIOException.class)
+    public void shouldThrowUncheckedIOExceptionWhenElementIsNotValidJson() throws Exception {
+        response("[{\"href\":\"a\"},not json]").asDtoStream(Link.class).count();
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldNotAllowToConsumeBodyTwice() throws Exception {
+        final DefaultHttpJsonStreamResponse response = response(DtoFactory.getInstance().toJson(new JsonArrayImpl<>(singletonList("a"))));
+        response.asDtoStream(Link.class).close();
+
+        response.asDtoStream(Link.class);
+    }
+
+    @Test
+    public void shouldCloseBodyWhenStreamIsClosed() throws Exception {
+        final ClosingReader body = new ClosingReader("[]");
+
+        new DefaultHttpJsonStreamResponse(body, 200).asDtoStream(Link.class).close();
+
+        assertTrue(body.closed);
+    }
+
+    @Test
+    public void shouldCloseBodyWhenElementIsNotValidJson() throws Exception {
+        final ClosingReader body = new ClosingReader("[{\"href\":\"a\"},not json]");
+        final Stream<Link> stream = new DefaultHttpJsonStreamResponse(body, 200).asDtoStream(Link.class);
+
+        try {
+            stream.count();
+            fail("Broken element must not be read");
+        } catch (UncheckedIOException expected) {
+        }
+
+        assertTrue(body.closed);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void shouldThrowNullPointerExceptionWhenDtoInterfaceIsNull() throws Exception {
+        response("[]").asDtoStream(null);
+    }
+
+    private static DefaultHttpJsonStreamResponse response(String body) {
+        return new DefaultHttpJsonStreamResponse(new StringReader(body), 200);
+    }
+
+    private static List<Link> links(int count) {
+        return Stream.iterate(0, i -> i + 1)
+                     .limit(count)
+                     .map(i -> createLink("GET", "http://localhost:8080/" + i, "rel" + i))
+                     .collect(toList());
+    }
+
+    private static class ClosingReader extends StringReader {
+        boolean closed;
+
+        ClosingReader(String s) {
+            super(s);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link ProcessExecutor}.
+ */
+public class ProcessExecutorTest {
+
+    @Test(timeOut = 10_000)
+    public void shouldDrainStdoutAndStderrConcurrently() throws Exception {
+        // writes to stderr more than pipe buffer can hold before writing to stdout
+        Process process = new ProcessBuilder("/bin/sh", "-c", "i=0; while [ $i -lt 5000 ]; do echo error line $i >&2; " +
+                                                              "i=$((i+1)); done; echo output line; printf last")
+                .start();
+        ListLineConsumer stdout = new ListLineConsumer();
+        ListLineConsumer stderr = new ListLineConsumer();
+
+        ProcessExecutor.Execution execution = ProcessExecutor.execute(process, "sh", stdout, stderr);
+
+        assertEquals(execution.waitFor(), 0);
+        assertEquals(stdout.getLines().size(), 2);
+        assertEquals(stdout.getLines().get(0), "output line");
+        assertEquals(stdout.getLines().get(1), "last");
+        assertEquals(stderr.getLines().size(), 5000);
+        assertEquals(stderr.getLines().get(4999), "error line 4999");
+        assertEquals(execution.getStdoutBytes(), "output line\nlast".length());
+        assertFalse(execution.isTimedOut());
+        assertTrue(execution.getDurationMillis() >= 0);
+        assertTrue(ProcessExecutor.getStatistics().get("sh.executions") >= 1);
+    }
+
+    @Test(timeOut = 10_000)
+    public void shouldKillProcessByTimeout() throws Exception {
+        Process process = new ProcessBuilder("sleep", "30").start();
+
+        ProcessExecutor.Execution execution = ProcessExecutor.execute(process,
+                                                                      "sleep",
+                                                                      LineConsumer.DEV_NULL,
+                                                                      LineConsumer.DEV_NULL,
+                                                                      200,
+                                                                      TimeUnit.MILLISECONDS);
+
+        execution.await();
+        assertTrue(execution.isTimedOut());
+        assertFalse(ProcessUtil.isAlive(process));
+        assertEquals((long)ProcessExecutor.getStatistics().get("sleep.timeouts"), 1);
+    }
+
+    @Test(timeOut = 10_000)
+    public void shouldSplitLinesByCarriageReturnAndLineFeed() throws Exception {
+        Process process = new ProcessBuilder("printf", "a\\r\\nb\\rc\\n\\nd").start();
+        ListLineConsumer stdout = new ListLineConsumer();
+
+        ProcessExecutor.execute(process, "printf", stdout, LineConsumer.DEV_NULL).await();
+
+        assertEquals(stdout.getText(), "a\nb\nc\n\nd");
+    }
+
+    @Test(timeOut = 10_000)
+    public void shouldNotDelayOutputOfProcessWhileConsumerOfAnotherProcessIsBlocked() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LineConsumer blocked = new AbstractLineConsumer() {
+            @Override
+            public void writeLine(String line) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ProcessExecutor.Execution slow = ProcessExecutor.execute(new ProcessBuilder("printf", "a\\nb\\n").start(),
+                                                                 "printf",
+                                                                 blocked,
+                                                                 LineConsumer.DEV_NULL);
+        try {
+            ListLineConsumer stdout = new ListLineConsumer();
+
+            ProcessExecutor.execute(new ProcessBuilder("printf", "c").start(), "printf", stdout, LineConsumer.DEV_NULL).await();
+
+            assertEquals(stdout.getText(), "c");
+            assertFalse(slow.isDone());
+        } finally {
+            release.countDown();
+        }
+        slow.await();
+    }
+
+    @Test(timeOut = 10_000)
+    public void shouldKillProcessByTimeoutWhileItsConsumerIsBlocked() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LineConsumer blocked = new AbstractLineConsumer() {
+            @Override
+            public void writeLine(String line) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        Process process = new ProcessBuilder("/bin/sh", "-c", "echo started; sleep 30").start();
+        try {
+            ProcessExecutor.Execution execution = ProcessExecutor.execute(process,
+                                                                          "sh",
+                                                                          blocked,
+                                                                          LineConsumer.DEV_NULL,
+                                                                          200,
+                                                                          TimeUnit.MILLISECONDS);
+
+            assertTrue(process.waitFor(5, TimeUnit.SECONDS));
+            assertTrue(execution.isTimedOut());
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -35,4 +35,26 @@ public class WatchdogTest {
         latch.await(2, TimeUnit.SECONDS); // wait 2 sec
         Assert.assertTrue(cancel[0], "cancellation failed"); // should be cancelled
     }
+
+    @Test
+    public void shouldCancelWhileCancellationOfAnotherWatchdogIsBlocked() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Watchdog blocking = new Watchdog(10, TimeUnit.MILLISECONDS);
+        final Watchdog watchdog = new Watchdog(100, TimeUnit.MILLISECONDS);
+
+        try {
+            blocking.start(() -> {
+                blocked.countDown();
+                release.await();
+            });
+            Assert.assertTrue(blocked.await(2, TimeUnit.SECONDS), "blocking cancellation is not started");
+            watchdog.start(cancelled::countDown);
+
+            Assert.assertTrue(cancelled.await(2, TimeUnit.SECONDS), "cancellation is delayed by another watchdog");
+        } finally {
+            release.countDown();
+        }
+    }
 }
@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.json;
+
+import org.everrest.core.impl.provider.json.JsonTransient;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Accessors of the bean properties of a class, are computed once per class and are shared by all the
+ * serializations and deserializations of its instances.
+ *
+ * <p>Properties are found with the same rules as {@code org.everrest.core.impl.provider.json.JsonGenerator} and
+ * {@code ObjectBuilder} use: public {@code getX}/{@code isX} methods without parameters are read, except
+ * {@code getClass}, public {@code setX} methods with single parameter are written, properties which have
+ * {@code transient} field or accessor annotated with {@link JsonTransient} are skipped. Order of the read properties
+ * is the order of {@link Class#getMethods()}, so the output is the same as the one of everrest generator.
+ */
+final class JsonBinding {
+    private static final ConcurrentMap<Class<?>, JsonBinding> BINDINGS = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup                  LOOKUP   = MethodHandles.lookup();
+    private static final MethodType                            GETTER   = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType                            SETTER   = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** Returns binding of the class, creates it on the first request. */
+    static JsonBinding of(Class<?> type) {
+        return BINDINGS.computeIfAbsent(type, JsonBinding::new);
+    }
+
+    /**
+     * Checks whether JSON can be read into the type without any help of everrest, i.e. all the involved collections
+     * and maps have known element types and all the involved beans can be instantiated.
+     */
+    static boolean isReadable(Type type) {
+        return isReadable(type, new HashSet<>());
+    }
+
+    private final Class<?>                                                 type;
+    private final MethodHandle                                             constructor;
+    private final Property[]                                               getters;
+    private final Map<String, Property>                                    setters;
+    private final ConcurrentMap<JsonNameConvention, String[]>              keys;
+    private final ConcurrentMap<JsonNameConvention, Map<String, Property>> settersByKey;
+
+    private volatile Boolean readable;
+
+    private JsonBinding(Class<?> type) {
+        this.type = type;
+        this.constructor = findConstructor(type);
+        this.keys = new ConcurrentHashMap<>();
+        this.settersByKey = new ConcurrentHashMap<>();
+
+        final Set<String> transientFields = transientFields(type);
+        final List<Property> getters = new ArrayList<>();
+        final Map<String, Property> setters = new LinkedHashMap<>();
+        for (Method method : type.getMethods()) {
+            final String name = method.getName();
+            final int parameters = method.getParameterTypes().length;
+            String property = null;
+            boolean getter = false;
+            if (parameters == 0 && !"getClass".equals(name)) {
+                if (name.startsWith("get") && name.length() > 3) {
+                    property = name.substring(3);
+                    getter = true;
+                } else if (name.startsWith("is") && name.length() > 2
+                           && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                    property = name.substring(2);
+                    getter = true;
+                }
+            } else if (parameters == 1 && name.startsWith("set") && name.length() > 3) {
+                property = name.substring(3);
+            }
+            if (property == null || method.isAnnotationPresent(JsonTransient.class)) {
+                continue;
+            }
+            property = property.length() > 1 ? Character.toLowerCase(property.charAt(0)) + property.substring(1)
+                                             : property.toLowerCase();
+            if (transientFields.contains(property)) {
+                continue;
+            }
+            if (getter) {
+                getters.add(new Property(property, method.getGenericReturnType(), unreflect(method, GETTER)));
+            } else if (!setters.containsKey(property)) {
+                setters.put(property, new Property(property, method.getGenericParameterTypes()[0], unreflect(method, SETTER)));
+            }
+        }
+        this.getters = getters.toArray(new Property[getters.size()]);
+        this.setters = setters;
+    }
+
+    /** Returns readable properties in the order they are serialized. */
+    Property[] getters() {
+        return getters;
+    }
+
+    /** Returns JSON keys of the readable properties, in the order of {@link #getters()}, quoted and followed by colon. */
+    String[] keys(JsonNameConvention nameConvention) {
+        return keys.computeIfAbsent(nameConvention, convention -> {
+            final String[] keys = new String[getters.length];
+            for (int i = 0; i < getters.length; i++) {
+                keys[i] = JsonStreamWriter.quote(convention.toJsonName(getters[i].name)) + ':';
+            }
+            return keys;
+        });
+    }
+
+    /** Returns writable property by its JSON key or {@code null} if there is no such property. */
+    Property setter(String key, JsonNameConvention nameConvention) {
+        return settersByKey.computeIfAbsent(nameConvention, convention -> {
+            final Map<String, Property> byKey = new HashMap<>();
+            for (Property setter : setters.values()) {
+                byKey.put(convention.toJsonName(setter.name), setter);
+            }
+            return byKey;
+        }).get(key);
+    }
+
+    /** Creates new instance of the bound class. */
+    Object newInstance() {
+        if (constructor == null) {
+            throw new IllegalStateException("Class " + type.getName() + " doesn't have public no-args constructor");
+        }
+        try {
+            return constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private boolean isReadable(Set<Class<?>> visiting) {
+        Boolean readable = this.readable;
+        if (readable == null) {
+            // only the type which started the check sees all the reachable types, the nested results may rely on
+            // the assumption made for a recursive reference and must not be cached
+            final boolean root = visiting.isEmpty();
+            if (!visiting.add(type)) {
+                // recursive structure, is readable when the rest of the properties are
+                return true;
+            }
+            readable = constructor != null;
+            for (Property setter : setters.values()) {
+                readable = readable && isReadable(setter.type, visiting);
+            }
+            if (root) {
+                this.readable = readable;
+            }
+        }
+        return readable;
+    }
+
+    private static boolean isReadable(Type type, Set<Class<?>> visiting) {
+        if (type instanceof GenericArrayType) {
+            return isReadable(((GenericArrayType)type).getGenericComponentType(), visiting);
+        }
+        final Class<?> raw = rawType(type);
+        if (raw == null || raw == Object.class || raw == Class.class) {
+            return false;
+        }
+        if (raw.isPrimitive() || raw == String.class || raw == Boolean.class || raw == Character.class || raw.isEnum()
+            || isNumber(raw)) {
+            return true;
+        }
+        if (raw.isArray()) {
+            return isReadable(raw.getComponentType(), visiting);
+        }
+        if (Collection.class.isAssignableFrom(raw) || Map.class.isAssignableFrom(raw)) {
+            if (!(type instanceof ParameterizedType) || instantiableContainer(raw) == null) {
+                return false;
+            }
+            final Type[] arguments = ((ParameterizedType)type).getActualTypeArguments();
+            final Type element = arguments[arguments.length - 1];
+            return (arguments.length == 1 || arguments[0] == String.class) && isReadable(element, visiting);
+        }
+        if (raw.isInterface() || Modifier.isAbstract(raw.getModifiers())) {
+            return false;
+        }
+        return of(raw).isReadable(visiting);
+    }
+
+    /** Returns class of the type or {@code null} for type variables and wildcards. */
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>)type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>)((ParameterizedType)type).getRawType();
+        }
+        return null;
+    }
+
+    static boolean isNumber(Class<?> type) {
+        return type == Integer.class || type == Long.class || type == Double.class || type == Float.class
+               || type == Short.class || type == Byte.class;
+    }
+
+    /** Returns class which instances may be created for collection or map of the given type. */
+    static Class<?> instantiableContainer(Class<?> type) {
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            return findConstructor(type) == null ? null : type;
+        }
+        if (type == Collection.class || type == List.class) {
+            return ArrayList.class;
+        }
+        if (type == Set.class) {
+            return HashSet.class;
+        }
+        if (type == SortedSet.class || type == NavigableSet.class) {
+            return TreeSet.class;
+        }
+        if (type == Queue.class || type == Deque.class) {
+            return LinkedList.class;
+        }
+        if (type == Map.class) {
+            return HashMap.class;
+        }
+        if (type == SortedMap.class || type == NavigableMap.class) {
+            return TreeMap.class;
+        }
+        if (type == ConcurrentMap.class) {
+            return ConcurrentHashMap.class;
+        }
+        return null;
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || !Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup()
+                                .findConstructor(type, MethodType.methodType(void.class))
+                                .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflect(Method method, MethodType type) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // public method declared in non-public class, e.g. inherited from package-private base class
+            method.setAccessible(true);
+            try {
+                handle = LOOKUP.unreflect(method);
+            } catch (IllegalAccessException again) {
+                throw new IllegalStateException(again.getMessage(), again);
+            }
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(type);
+    }
+
+    private static Set<String> transientFields(Class<?> type) {
+        final Set<String> fields = new HashSet<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isTransient(field.getModifiers())) {
+                    fields.add(field.getName());
+                }
+            }
+        }
+        return fields;
+    }
+
+    /** Bean property with precomputed accessor. */
+    static final class Property {
+        final String       name;
+        final Type         type;
+        final MethodHandle accessor;
+
+        private Property(String name, Type type, MethodHandle accessor) {
+            this.name = name;
+            this.type = type;
+            this.accessor = accessor;
+        }
+
+        /** Returns value of the property of the bean. */
+        Object get(Object bean) {
+            try {
+                return accessor.invokeExact(bean);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        /** Sets value of the property of the bean, value must be of exact wrapper type for primitive properties. */
+        void set(Object bean, Object value) {
+            try {
+                accessor.invokeExact(bean, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+    }
+}
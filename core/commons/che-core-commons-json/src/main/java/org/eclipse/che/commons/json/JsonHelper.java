@@ -18,59 +18,69 @@ import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Map;
 
-/** Tool to serialize/deserialize Java objects to/from JSON representation. */
+/**
+ * Tool to serialize/deserialize Java objects to/from JSON representation.
+ *
+ * <p>Accessors of the bean properties are computed once per class, so objects are written and read straight
+ * to/from the character streams without building of the {@link JsonValue} tree.
+ */
 public class JsonHelper {
-    @SuppressWarnings("unchecked")
     public static <O> String toJson(O instance) {
         return toJson(instance, JsonNameConventions.DEFAULT);
     }
 
-    @SuppressWarnings("unchecked")
     public static <O> String toJson(O instance, JsonNameConvention nameConvention) {
+        final Writer w = new StringWriter();
         try {
-            JsonValue json;
+            final JsonStreamWriter writer = new JsonStreamWriter(w, nameConvention);
             if (instance.getClass().isArray()) {
-                json = JsonGenerator.createJsonArray(instance);
+                writer.writeArray(instance);
             } else if (instance instanceof Collection) {
-                json = JsonGenerator.createJsonArray((Collection<?>)instance);
+                writer.writeArray((Collection<?>)instance);
             } else if (instance instanceof Map) {
-                json = JsonGenerator.createJsonObjectFromMap((Map<String, ?>)instance);
+                writer.writeMap((Map<?, ?>)instance);
             } else {
-                json = JsonGenerator.createJsonObject(instance);
+                writer.writeBean(instance);
             }
-
-            Writer w = new StringWriter();
-            json.writeTo(new NameConventionJsonWriter(w, nameConvention));
-            return w.toString();
-        } catch (JsonException jsone) {
+        } catch (IOException | RuntimeException e) {
             // Must not happen since serialize well known object.
-            throw new RuntimeException(jsone.getMessage(), jsone);
+            throw new RuntimeException(e.getMessage(), e);
         }
+        return w.toString();
     }
 
     public static <O> O fromJson(String json, Class<O> klass, Type type) throws JsonParseException {
-        return fromJson(parseJson(json), klass, type);
+        return fromJson(new StringReader(json), klass, type);
     }
 
     public static <O> O fromJson(String json, Class<O> klass, Type type, JsonNameConvention nameConvention) throws JsonParseException {
-        return fromJson(parseJson(json, nameConvention), klass, type);
+        return fromJson(new StringReader(json), klass, type, nameConvention);
     }
 
 
     public static <O> O fromJson(InputStream json, Class<O> klass, Type type) throws JsonParseException {
-        return fromJson(parseJson(json), klass, type);
+        return fromJson(new InputStreamReader(json, Charset.forName("UTF-8")), klass, type);
     }
 
     public static <O> O fromJson(InputStream json, Class<O> klass, Type type, JsonNameConvention nameConvention) throws JsonParseException {
-        return fromJson(parseJson(json, nameConvention), klass, type);
+        return fromJson(new InputStreamReader(json, Charset.forName("UTF-8")), klass, type, nameConvention);
     }
 
 
     public static <O> O fromJson(Reader json, Class<O> klass, Type type) throws JsonParseException {
-        return fromJson(parseJson(json), klass, type);
+        return fromJson(json, klass, type, JsonNameConventions.DEFAULT);
     }
 
+    /**
+     * Reads JSON straight into the instance of the class when all the involved types can be instantiated without
+     * help of everrest, otherwise parses JSON to the {@link JsonValue} tree and builds instance from it.
+     */
+    @SuppressWarnings("unchecked")
     public static <O> O fromJson(Reader json, Class<O> klass, Type type, JsonNameConvention nameConvention) throws JsonParseException {
+        final Type target = type != null && (Collection.class.isAssignableFrom(klass) || Map.class.isAssignableFrom(klass)) ? type : klass;
+        if (JsonBinding.isReadable(target)) {
+            return (O)new JsonStreamReader(json, nameConvention).read(target);
+        }
         return fromJson(parseJson(json, nameConvention), klass, type);
     }
 
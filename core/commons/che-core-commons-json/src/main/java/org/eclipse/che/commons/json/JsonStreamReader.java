@@ -0,0 +1,411 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deserializes Java objects straight from the reader, without building of the intermediate JSON tree. Types must be
+ * checked with {@link JsonBinding#isReadable(Type)} before reading. Properties of the beans are found by JSON keys
+ * converted according to the name convention once per class, keys of the maps are converted for each entry as
+ * {@link NameConventionJsonParser} does. Unknown properties are skipped.
+ */
+class JsonStreamReader {
+    private final Reader             reader;
+    private final JsonNameConvention nameConvention;
+    private final char[]             buffer;
+    private final StringBuilder      text;
+
+    private int position;
+    private int limit;
+
+    JsonStreamReader(Reader reader, JsonNameConvention nameConvention) {
+        this.reader = reader;
+        this.nameConvention = nameConvention;
+        this.buffer = new char[8192];
+        this.text = new StringBuilder();
+    }
+
+    /** Reads whole JSON document as instance of the given type. */
+    Object read(Type type) throws JsonParseException {
+        try {
+            final Object value = readValue(type);
+            if (peek() != -1) {
+                throw error("end of document");
+            }
+            return value;
+        } catch (IOException | RuntimeException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+
+    private Object readValue(Type type) throws IOException, JsonParseException {
+        if (peek() == 'n') {
+            expectLiteral("null");
+            return null;
+        }
+        if (type instanceof GenericArrayType) {
+            return readArray(((GenericArrayType)type).getGenericComponentType());
+        }
+        final Class<?> raw = JsonBinding.rawType(type);
+        if (raw == String.class) {
+            return readScalar();
+        }
+        if (raw == boolean.class || raw == Boolean.class) {
+            return toBoolean(readScalar());
+        }
+        if (raw == char.class || raw == Character.class) {
+            final String value = readScalar();
+            return value.isEmpty() ? null : value.charAt(0);
+        }
+        if ((raw.isPrimitive() && raw != void.class) || JsonBinding.isNumber(raw)) {
+            return toNumber(readScalar(), raw);
+        }
+        if (raw.isEnum()) {
+            return toEnum(raw, readScalar());
+        }
+        if (raw.isArray()) {
+            return readArray(raw.getComponentType());
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            return readCollection(raw, ((ParameterizedType)type).getActualTypeArguments()[0]);
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            return readMap(raw, ((ParameterizedType)type).getActualTypeArguments()[1]);
+        }
+        return readBean(raw);
+    }
+
+    private Object readBean(Class<?> type) throws IOException, JsonParseException {
+        final JsonBinding binding = JsonBinding.of(type);
+        final Object bean = binding.newInstance();
+        expect('{');
+        if (peek() == '}') {
+            position++;
+            return bean;
+        }
+        do {
+            final String key = readKey();
+            final JsonBinding.Property setter = binding.setter(key, nameConvention);
+            if (setter == null) {
+                skipValue();
+                continue;
+            }
+            final Object value = readValue(setter.type);
+            if (value != null || !(setter.type instanceof Class && ((Class<?>)setter.type).isPrimitive())) {
+                setter.set(bean, value);
+            }
+        } while (next(','));
+        expect('}');
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readCollection(Class<?> type, Type elementType) throws IOException, JsonParseException {
+        final Collection<Object> collection = (Collection<Object>)JsonBinding.of(JsonBinding.instantiableContainer(type)).newInstance();
+        expect('[');
+        if (peek() == ']') {
+            position++;
+            return collection;
+        }
+        do {
+            collection.add(readValue(elementType));
+        } while (next(','));
+        expect(']');
+        return collection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readMap(Class<?> type, Type valueType) throws IOException, JsonParseException {
+        final Map<String, Object> map = (Map<String, Object>)JsonBinding.of(JsonBinding.instantiableContainer(type)).newInstance();
+        expect('{');
+        if (peek() == '}') {
+            position++;
+            return map;
+        }
+        do {
+            final String key = nameConvention.toJavaName(readKey());
+            map.put(key, readValue(valueType));
+        } while (next(','));
+        expect('}');
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readArray(Type componentType) throws IOException, JsonParseException {
+        final List<Object> elements = (List<Object>)readCollection(List.class, componentType);
+        final Object array = Array.newInstance(JsonBinding.rawType(componentType), elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Array.set(array, i, elements.get(i));
+        }
+        return array;
+    }
+
+    private void skipValue() throws IOException, JsonParseException {
+        final int c = peek();
+        if (c == '{' || c == '[') {
+            final char end = c == '{' ? '}' : ']';
+            position++;
+            if (peek() == end) {
+                position++;
+                return;
+            }
+            do {
+                if (c == '{') {
+                    readKey();
+                }
+                skipValue();
+            } while (next(','));
+            expect(end);
+        } else if (c == 'n') {
+            expectLiteral("null");
+        } else {
+            readScalar();
+        }
+    }
+
+    private String readKey() throws IOException, JsonParseException {
+        if (peek() != '"') {
+            throw error("key");
+        }
+        final String key = readString();
+        expect(':');
+        return key;
+    }
+
+    /** Reads string, number or literal and returns its text, bare tokens must match the JSON grammar. */
+    private String readScalar() throws IOException, JsonParseException {
+        final int c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == -1 || c == '{' || c == '[' || c == '}' || c == ']' || c == ',' || c == ':') {
+            throw error("value");
+        }
+        text.setLength(0);
+        while (fill()) {
+            final char next = buffer[position];
+            if (next == ',' || next == '}' || next == ']' || next == ':' || Character.isWhitespace(next)) {
+                break;
+            }
+            text.append(next);
+            position++;
+        }
+        final String token = text.toString();
+        if (!"true".equals(token) && !"false".equals(token) && !"null".equals(token) && !isNumber(token)) {
+            throw new JsonParseException("Unexpected token '" + token + "'");
+        }
+        return token;
+    }
+
+    private String readString() throws IOException, JsonParseException {
+        position++;
+        text.setLength(0);
+        while (true) {
+            if (!fill()) {
+                throw error("end of string");
+            }
+            final int start = position;
+            while (position < limit && buffer[position] != '"' && buffer[position] != '\\') {
+                position++;
+            }
+            text.append(buffer, start, position - start);
+            if (position == limit) {
+                continue;
+            }
+            if (buffer[position++] == '"') {
+                return text.toString();
+            }
+            text.append(readEscaped());
+        }
+    }
+
+    private char readEscaped() throws IOException, JsonParseException {
+        if (!fill()) {
+            throw error("escape sequence");
+        }
+        final char c = buffer[position++];
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    if (!fill()) {
+                        throw error("unicode escape sequence");
+                    }
+                    final int digit = Character.digit(buffer[position++], 16);
+                    if (digit < 0) {
+                        throw error("hexadecimal digit");
+                    }
+                    code = (code << 4) | digit;
+                }
+                return (char)code;
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw new JsonParseException("Invalid escape sequence '\\" + c + "'");
+        }
+    }
+
+    private void expectLiteral(String literal) throws IOException, JsonParseException {
+        if (!literal.equals(readScalar())) {
+            throw error(literal);
+        }
+    }
+
+    private void expect(char expected) throws IOException, JsonParseException {
+        if (peek() != expected) {
+            throw error("'" + expected + "'");
+        }
+        position++;
+    }
+
+    /** Consumes the next character if it is the expected one. */
+    private boolean next(char expected) throws IOException {
+        if (peek() == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /** Skips whitespaces and returns the next character without consuming of it, or {@code -1} at the end. */
+    private int peek() throws IOException {
+        while (fill()) {
+            final char c = buffer[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /** Makes sure that buffer has at least one character to read, returns {@code false} at the end of stream. */
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private JsonParseException error(String expected) throws IOException {
+        final int c = peek();
+        return new JsonParseException("Expected " + expected + " but found "
+                                      + (c == -1 ? "end of document" : "'" + (char)c + "'"));
+    }
+
+    /** Checks the number grammar: {@code -?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?}. */
+    private static boolean isNumber(String text) {
+        final int length = text.length();
+        int i = 0;
+        if (i < length && text.charAt(i) == '-') {
+            i++;
+        }
+        if (i < length && text.charAt(i) == '0') {
+            i++;
+        } else {
+            final int start = i;
+            i = skipDigits(text, i);
+            if (i == start) {
+                return false;
+            }
+        }
+        if (i < length && text.charAt(i) == '.') {
+            final int start = ++i;
+            i = skipDigits(text, i);
+            if (i == start) {
+                return false;
+            }
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                i++;
+            }
+            final int start = i;
+            i = skipDigits(text, i);
+            if (i == start) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static int skipDigits(String text, int i) {
+        while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    private static Boolean toBoolean(String text) throws JsonParseException {
+        if ("true".equals(text)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equals(text)) {
+            return Boolean.FALSE;
+        }
+        throw new JsonParseException("Expected boolean but found '" + text + "'");
+    }
+
+    private static Object toNumber(String text, Class<?> type) {
+        if (type == double.class || type == Double.class) {
+            return Double.valueOf(text);
+        }
+        if (type == float.class || type == Float.class) {
+            return Float.valueOf(text);
+        }
+        final long value = text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0
+                           ? Long.parseLong(text)
+                           : (long)Double.parseDouble(text);
+        if (type == int.class || type == Integer.class) {
+            return (int)value;
+        }
+        if (type == short.class || type == Short.class) {
+            return (short)value;
+        }
+        if (type == byte.class || type == Byte.class) {
+            return (byte)value;
+        }
+        return value;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object toEnum(Class<?> type, String name) {
+        return Enum.valueOf((Class<? extends Enum>)type, name);
+    }
+}
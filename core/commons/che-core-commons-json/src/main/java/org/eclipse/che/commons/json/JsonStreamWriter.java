@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.json;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Serializes Java objects straight to the writer, without building of the intermediate JSON tree. Beans are
+ * serialized with help of {@link JsonBinding}, so names of the properties are converted according to the name
+ * convention once per class, keys of the maps are converted for each entry as {@link NameConventionJsonWriter} does.
+ */
+class JsonStreamWriter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer             writer;
+    private final JsonNameConvention nameConvention;
+
+    JsonStreamWriter(Writer writer, JsonNameConvention nameConvention) {
+        this.writer = writer;
+        this.nameConvention = nameConvention;
+    }
+
+    /** Writes value of any type, arrays and collections as JSON arrays, maps and beans as JSON objects. */
+    void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof String) {
+            writeString((String)value);
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                   || value instanceof Short || value instanceof Byte || value instanceof Double) {
+            writer.write(value.toString());
+        } else if (value instanceof Float) {
+            // everrest keeps floats as doubles
+            writer.write(Double.toString((Float)value));
+        } else if (value instanceof Character) {
+            writeString(value.toString());
+        } else if (value instanceof Enum) {
+            writeString(((Enum<?>)value).name());
+        } else if (value instanceof Class) {
+            writeString(((Class<?>)value).getName());
+        } else if (value instanceof Collection) {
+            writeArray((Collection<?>)value);
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>)value);
+        } else if (value.getClass().isArray()) {
+            writeArray(value);
+        } else {
+            writeBean(value);
+        }
+    }
+
+    /** Writes bean as JSON object, all the properties are written, including the ones which values are {@code null}. */
+    void writeBean(Object bean) throws IOException {
+        final JsonBinding binding = JsonBinding.of(bean.getClass());
+        final JsonBinding.Property[] getters = binding.getters();
+        final String[] keys = binding.keys(nameConvention);
+        writer.write('{');
+        for (int i = 0; i < getters.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(keys[i]);
+            writeValue(getters[i].get(bean));
+        }
+        writer.write('}');
+    }
+
+    void writeArray(Collection<?> collection) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        for (Object element : collection) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writeValue(element);
+        }
+        writer.write(']');
+    }
+
+    void writeArray(Object array) throws IOException {
+        writer.write('[');
+        for (int i = 0, length = Array.getLength(array); i < length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(Array.get(array, i));
+        }
+        writer.write(']');
+    }
+
+    void writeMap(Map<?, ?> map) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writeString(nameConvention.toJsonName(String.valueOf(entry.getKey())));
+            writer.write(':');
+            writeValue(entry.getValue());
+        }
+        writer.write('}');
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        int start = 0;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x7F && c != '"' && c != '\\') {
+                continue;
+            }
+            final String escape = escape(c);
+            if (escape != null || needsUnicodeEscape(c)) {
+                writer.write(value, start, i - start);
+                if (escape != null) {
+                    writer.write(escape);
+                } else {
+                    writer.write(new char[] {'\\', 'u', HEX[c >> 12], HEX[(c >> 8) & 0xF], HEX[(c >> 4) & 0xF], HEX[c & 0xF]});
+                }
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    /** Returns quoted and escaped string. */
+    static String quote(String value) {
+        final StringWriter quoted = new StringWriter(value.length() + 2);
+        try {
+            new JsonStreamWriter(quoted, JsonNameConventions.DEFAULT).writeString(value);
+        } catch (IOException e) {
+            // StringWriter doesn't throw it
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return quoted.toString();
+    }
+
+    private static String escape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            default:
+                return null;
+        }
+    }
+
+    /** Same set of characters as everrest escapes with unicode sequences. */
+    private static boolean needsUnicodeEscape(char c) {
+        return c < 0x20 || (c > 0x7F && c < 0xA0) || (c >= 0x2000 && c < 0x2100);
+    }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.json;
+
+import org.eclipse.che.commons.json.JsonHelperCompatibilityTest.Project;
+import org.everrest.core.impl.provider.json.JsonGenerator;
+import org.everrest.core.impl.provider.json.ObjectBuilder;
+
+import java.io.StringWriter;
+
+/**
+ * Compares serialization and deserialization of the bean of {@link JsonHelperCompatibilityTest} through everrest
+ * {@code JsonValue} tree with the streaming ones of {@link JsonHelper}. Both use the same name convention,
+ * so the difference is the cost of the intermediate tree.
+ */
+public class JsonHelperBenchmark {
+    private static final JsonNameConvention CONVENTION = JsonNameConventions.CAMEL_UNDERSCORE;
+    private static final int                WARMUP     = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        final Project project = JsonHelperCompatibilityTest.project();
+        final String json = JsonHelper.toJson(project, CONVENTION);
+
+        final Operation treeWrite = () -> {
+            final StringWriter writer = new StringWriter();
+            JsonGenerator.createJsonObject(project).writeTo(new NameConventionJsonWriter(writer, CONVENTION));
+            return writer.toString().length();
+        };
+        final Operation streamWrite = () -> JsonHelper.toJson(project, CONVENTION).length();
+        final Operation treeRead = () -> ObjectBuilder.createObject(Project.class, JsonHelper.parseJson(json, CONVENTION)).getSize();
+        final Operation streamRead = () -> JsonHelper.fromJson(json, Project.class, null, CONVENTION).getSize();
+
+        for (int i = 0; i < WARMUP; i++) {
+            treeWrite.run();
+            streamWrite.run();
+            treeRead.run();
+            streamRead.run();
+        }
+        report("tree write", iterations, treeWrite);
+        report("stream write", iterations, streamWrite);
+        report("tree read", iterations, treeRead);
+        report("stream read", iterations, streamRead);
+    }
+
+    private static void report(String name, int iterations, Operation operation) throws Exception {
+        long result = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            result += operation.run();
+        }
+        final double micros = (System.nanoTime() - start) / 1e3 / iterations;
+        System.out.printf("%-14s %8.3f us/op (%d)%n", name, micros, result);
+    }
+
+    private interface Operation {
+        int run() throws Exception;
+    }
+}
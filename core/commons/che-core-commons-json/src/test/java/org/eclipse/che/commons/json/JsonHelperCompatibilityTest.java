@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.json;
+
+import org.everrest.core.impl.provider.json.JsonGenerator;
+import org.everrest.core.impl.provider.json.JsonTransient;
+import org.everrest.core.impl.provider.json.JsonValue;
+import org.everrest.core.impl.provider.json.ObjectBuilder;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Checks that {@link JsonHelper} writes and reads JSON the same way as everrest {@link JsonGenerator} and
+ * {@link ObjectBuilder} do.
+ */
+public class JsonHelperCompatibilityTest {
+    @DataProvider(name = "conventions")
+    public Object[][] conventions() {
+        return new Object[][] {{JsonNameConventions.DEFAULT}, {JsonNameConventions.CAMEL_UNDERSCORE}, {JsonNameConventions.CAMEL_DASH}};
+    }
+
+    @Test(dataProvider = "conventions")
+    public void shouldWriteBeanAsEverrest(JsonNameConvention nameConvention) throws Exception {
+        final Project project = project();
+
+        assertEquals(JsonHelper.toJson(project, nameConvention), everrest(JsonGenerator.createJsonObject(project), nameConvention));
+    }
+
+    @Test(dataProvider = "conventions")
+    public void shouldWriteCollectionsAndMapsAsEverrest(JsonNameConvention nameConvention) throws Exception {
+        final List<Project> projects = Arrays.asList(project(), new Project());
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("mainProject", project());
+        map.put("projectNames", Arrays.asList("a", "b"));
+
+        assertEquals(JsonHelper.toJson(projects, nameConvention), everrest(JsonGenerator.createJsonArray(projects), nameConvention));
+        assertEquals(JsonHelper.toJson(new int[] {1, 2, 3}, nameConvention),
+                     everrest(JsonGenerator.createJsonArray(new int[] {1, 2, 3}), nameConvention));
+        assertEquals(JsonHelper.toJson(map, nameConvention), everrest(JsonGenerator.createJsonObjectFromMap(map), nameConvention));
+    }
+
+    @Test(dataProvider = "conventions")
+    public void shouldReadBeanAsEverrest(JsonNameConvention nameConvention) throws Exception {
+        final String json = JsonHelper.toJson(project(), nameConvention);
+
+        final Project streamed = JsonHelper.fromJson(json, Project.class, null, nameConvention);
+        final Project built = ObjectBuilder.createObject(Project.class, JsonHelper.parseJson(json, nameConvention));
+
+        assertEquals(JsonHelper.toJson(streamed), JsonHelper.toJson(built));
+        assertEquals(streamed.getModules().get(0).getName(), "core");
+        assertNull(streamed.getSecret());
+    }
+
+    @Test
+    public void shouldReadCollectionWithGenericType() throws Exception {
+        final String json = JsonHelper.toJson(Arrays.asList(project(), project()));
+
+        final List<Module> modules = JsonHelper.fromJson(json, List.class, Project.class.getMethod("getModules").getGenericReturnType());
+
+        assertEquals(modules.size(), 2);
+        assertEquals(modules.get(1).getSize(), 42);
+    }
+
+    @Test
+    public void shouldSkipUnknownPropertiesAndReadEscapedStrings() throws Exception {
+        final String json = "{\"unknown\":{\"a\":[1,{\"b\":null}]},\"name\":\"q\\\"uote\\\\ \\u0041\\n\",\"size\":7}";
+
+        final Project project = JsonHelper.fromJson(json, Project.class, null);
+
+        assertEquals(project.getName(), "q\"uote\\ A\n");
+        assertEquals(project.getSize(), 7);
+        assertEquals(JsonHelper.fromJson(JsonHelper.toJson(project), Project.class, null).getName(), project.getName());
+    }
+
+    @Test
+    public void shouldNotStreamTypesWhichNeedEverrest() throws Exception {
+        assertTrue(JsonBinding.isReadable(Project.class));
+        assertFalse(JsonBinding.isReadable(List.class));
+        assertFalse(JsonBinding.isReadable(Raw.class));
+    }
+
+    @Test(expectedExceptions = JsonParseException.class)
+    public void shouldFailOnMalformedJson() throws Exception {
+        JsonHelper.fromJson("{\"name\":\"a\"", Project.class, null);
+    }
+
+    @DataProvider(name = "malformed")
+    public Object[][] malformed() {
+        return new Object[][] {
+                {"{\"public\":tru}"},
+                {"{\"public\":\"yes\"}"},
+                {"{\"description\":null1}"},
+                {"{\"size\":01}"},
+                {"{\"size\":1.}"},
+                {"{\"size\":-}"},
+                {"{\"size\":1e}"},
+                {"{\"size\":0x10}"},
+                {"{\"name\":abc}"},
+                {"{\"unknown\":abc,\"name\":\"a\"}"},
+                {"{\"name\":\"a\\xb\"}"},
+                {"{\"name\":\"a\"} garbage"}
+        };
+    }
+
+    @Test(dataProvider = "malformed", expectedExceptions = JsonParseException.class)
+    public void shouldRejectMalformedTokens(String json) throws Exception {
+        JsonHelper.fromJson(json, Project.class, null);
+    }
+
+    @Test
+    public void shouldReadValidNumbersAndLiterals() throws Exception {
+        final String json = "{\"size\":-0,\"lastModified\":12,\"ratio\":-1.5E+2,\"public\":true,\"description\":null,"
+                            + "\"name\":\"\\/\"}";
+
+        final Project project = JsonHelper.fromJson(json, Project.class, null);
+
+        assertEquals(project.getSize(), 0);
+        assertEquals(project.getLastModified(), 12L);
+        assertEquals(project.getRatio(), Double.valueOf(-150));
+        assertTrue(project.isPublic());
+        assertNull(project.getDescription());
+        assertEquals(project.getName(), "/");
+    }
+
+    @Test
+    public void shouldNotCacheReadabilityOfTypesCheckedInsideCycle() throws Exception {
+        assertFalse(JsonBinding.isReadable(CycleParent.class));
+        assertFalse(JsonBinding.isReadable(CycleChild.class));
+    }
+
+    private static String everrest(JsonValue json, JsonNameConvention nameConvention) throws Exception {
+        final StringWriter writer = new StringWriter();
+        json.writeTo(new NameConventionJsonWriter(writer, nameConvention));
+        return writer.toString();
+    }
+
+    static Project project() {
+        final Module module = new Module();
+        module.setName("core");
+        module.setSize(1);
+        final Project project = new Project();
+        project.setName("che \"workspace\"\t\\ \u00e9");
+        project.setSize(42);
+        project.setLastModified(1490000000000L);
+        project.setPublic(true);
+        project.setRatio(0.25);
+        project.setVisibility(Visibility.SHARED);
+        project.setModules(new ArrayList<>(Collections.singletonList(module)));
+        project.setTags(new String[] {"java", "maven"});
+        final Map<String, List<String>> attributes = new LinkedHashMap<>();
+        attributes.put("languageVersion", Collections.singletonList("1.8"));
+        project.setAttributes(attributes);
+        project.setSecret("password");
+        project.setCache("cache");
+        return project;
+    }
+
+    public enum Visibility {
+        PRIVATE, SHARED
+    }
+
+    public static class Module {
+        private String name;
+        private int    size;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+    }
+
+    public static class Project extends Module {
+        private long                      lastModified;
+        private boolean                   isPublic;
+        private Double                    ratio;
+        private Visibility                visibility;
+        private List<Module>              modules;
+        private String[]                  tags;
+        private Map<String, List<String>> attributes;
+        private String                    description;
+        private transient String          secret;
+        private String                    cache;
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        public boolean isPublic() {
+            return isPublic;
+        }
+
+        public void setPublic(boolean isPublic) {
+            this.isPublic = isPublic;
+        }
+
+        public Double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(Double ratio) {
+            this.ratio = ratio;
+        }
+
+        public Visibility getVisibility() {
+            return visibility;
+        }
+
+        public void setVisibility(Visibility visibility) {
+            this.visibility = visibility;
+        }
+
+        public List<Module> getModules() {
+            return modules;
+        }
+
+        public void setModules(List<Module> modules) {
+            this.modules = modules;
+        }
+
+        public String[] getTags() {
+            return tags;
+        }
+
+        public void setTags(String[] tags) {
+            this.tags = tags;
+        }
+
+        public Map<String, List<String>> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(Map<String, List<String>> attributes) {
+            this.attributes = attributes;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        @JsonTransient
+        public String getCache() {
+            return cache;
+        }
+
+        public void setCache(String cache) {
+            this.cache = cache;
+        }
+    }
+
+    public static class CycleParent {
+        private CycleChild child;
+        private List       values;
+
+        public CycleChild getChild() {
+            return child;
+        }
+
+        public void setChild(CycleChild child) {
+            this.child = child;
+        }
+
+        public List getValues() {
+            return values;
+        }
+
+        public void setValues(List values) {
+            this.values = values;
+        }
+    }
+
+    public static class CycleChild {
+        private CycleParent parent;
+
+        public CycleParent getParent() {
+            return parent;
+        }
+
+        public void setParent(CycleParent parent) {
+            this.parent = parent;
+        }
+    }
+
+    public static class Raw {
+        private List values;
+
+        public List getValues() {
+            return values;
+        }
+
+        public void setValues(List values) {
+            this.values = values;
+        }
+    }
+}
@@ -20,9 +20,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 /**
  * @author andrew00x
@@ -30,6 +33,8 @@ import java.util.LinkedList;
 public class TarUtils {
     private static final int BUF_SIZE = 4096;
 
+    private static final Predicate<String> ANY_ENTRY = entryName -> true;
+
     /**
      * Add content of directory {@code dir} to tar archive {@code tar}.
      *
@@ -71,7 +76,7 @@ public class TarUtils {
         }
         try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(new BufferedOutputStream(new FileOutputStream(tar)))) {
             tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
-            addDirectoryRecursively(tarOut, parentPath, dir, modTime, filter);
+            addDirectoryRecursively(tarOut, parentPath, dir, modTime, filter, ANY_ENTRY);
         }
     }
 
@@ -80,18 +85,45 @@ public class TarUtils {
     }
 
     public static void tarFiles(File tar, long modTime, File... files) throws IOException {
-        try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(new BufferedOutputStream(new FileOutputStream(tar)))) {
-            tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
-            for (File f : files) {
-                if (f.isDirectory()) {
-                    addDirectoryEntry(tarOut, f.getName(), f, modTime);
-                    final String parentPath = f.getParentFile().getAbsolutePath();
-                    addDirectoryRecursively(tarOut, parentPath, f, modTime, IoUtil.ANY_FILTER);
-                } else if (f.isFile()) {
-                    addFileEntry(tarOut, f.getName(), f, modTime);
-                }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tar))) {
+            tarFiles(out, modTime, ANY_ENTRY, files);
+        }
+    }
+
+    /**
+     * Writes tar archive of the files to the stream while walking through the files,
+     * so archive doesn't have to be stored before it is sent somewhere.
+     * Files are added to the root of the archive, directories are added recursively.
+     *
+     * @param output
+     *         stream to write archive to, it is not closed by this method
+     * @param modTime
+     *         modification time that applied to all entries in archive instead modification time provided by method {@link
+     *         File#lastModified()}. This parameter should be {@code -1} if don't need to set any specified time
+     * @param entryFilter
+     *         accepts names of the archive entries which should be added, if directory isn't accepted its content isn't added too
+     * @param files
+     *         files to add
+     * @throws IOException
+     *         if i/o error occurs
+     */
+    public static void tarFiles(OutputStream output, long modTime, Predicate<String> entryFilter, File... files) throws IOException {
+        final TarArchiveOutputStream tarOut = new TarArchiveOutputStream(new NonClosingOutputStream(output));
+        tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+        for (File f : files) {
+            if (!entryFilter.test(f.getName())) {
+                continue;
+            }
+            if (f.isDirectory()) {
+                addDirectoryEntry(tarOut, f.getName(), f, modTime);
+                final String parentPath = f.getParentFile().getAbsolutePath();
+                addDirectoryRecursively(tarOut, parentPath, f, modTime, IoUtil.ANY_FILTER, entryFilter);
+            } else if (f.isFile()) {
+                addFileEntry(tarOut, f.getName(), f, modTime);
             }
         }
+        tarOut.finish();
+        tarOut.flush();
     }
 
     public static void tarFiles(File tar, File... files) throws IOException {
@@ -102,7 +134,8 @@ public class TarUtils {
                                                 String parentPath,
                                                 File dir,
                                                 long modTime,
-                                                FilenameFilter filter) throws IOException {
+                                                FilenameFilter filter,
+                                                Predicate<String> entryFilter) throws IOException {
         final int parentPathLength = parentPath.length() + 1;
         final LinkedList<File> q = new LinkedList<>();
         q.add(dir);
@@ -113,6 +146,9 @@ public class TarUtils {
                 for (File f : list) {
                     if (filter.accept(current, f.getName())) {
                         final String entryName = f.getAbsolutePath().substring(parentPathLength).replace('\\', '/');
+                        if (!entryFilter.test(entryName)) {
+                            continue;
+                        }
                         if (f.isDirectory()) {
                             addDirectoryEntry(tarOut, entryName, f, modTime);
                             q.push(f);
@@ -198,6 +234,23 @@ public class TarUtils {
         return TarArchiveInputStream.matches(header, header.length);
     }
 
+    /** Prevents closing of the target stream by the archive stream. */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
     private TarUtils() {
     }
 }
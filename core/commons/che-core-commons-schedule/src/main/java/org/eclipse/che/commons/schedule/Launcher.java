@@ -24,6 +24,18 @@ public interface Launcher {
      */
     void scheduleCron(Runnable runnable, String cron);
 
+    /**
+     * Execute periodic action according to the cron expression, keeping state of the job between restarts.
+     * Job runs on a single node at a time, runs missed while the job wasn't running are handled according to the
+     * given policy. Launchers which can't keep state of the jobs schedule them as {@link #scheduleCron(Runnable, String)}.
+     *
+     * @param jobId
+     *         identifier of the job which is the same on all the nodes and after restarts
+     */
+    default void scheduleCron(String jobId, Runnable runnable, String cron, MissedRunPolicy missedRunPolicy) {
+        scheduleCron(runnable, cron);
+    }
+
     /**
      * Execute periodic action that becomes enabled first after the given initial delay, and subsequently
      * with the given delay between the termination of one execution and the commencement of the next.
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule;
+
+/**
+ * Defines what to do with the runs of a cron job which should have happened while no node was running it,
+ * e.g. during downtime, or while the previous run of the job was still in progress.
+ */
+public enum MissedRunPolicy {
+    /** Missed runs are dropped, the job runs next time according to the cron expression. */
+    SKIP,
+
+    /** All missed runs are replaced with single run which happens as soon as possible. */
+    RUN_ONCE,
+
+    /** Each missed run happens, one after another, until the job catches up with its cron expression. */
+    RUN_ALL
+}
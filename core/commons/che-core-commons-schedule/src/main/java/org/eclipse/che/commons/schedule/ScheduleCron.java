@@ -34,4 +34,9 @@ public @interface ScheduleCron {
      */
     String cronParameterName() default "";
 
+    /**
+     * @return what to do with the runs missed while the job wasn't running, e.g. during downtime.
+     */
+    MissedRunPolicy missedRunPolicy() default MissedRunPolicy.SKIP;
+
 }
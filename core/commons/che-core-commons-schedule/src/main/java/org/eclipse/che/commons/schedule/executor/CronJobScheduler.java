@@ -0,0 +1,389 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+import org.eclipse.che.commons.schedule.MissedRunPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Runs cron jobs keeping their states in the {@link CronJobStore}.
+ *
+ * <p>Each fire of a job is a one-shot task of the executor, the next one is scheduled when the run is over, so runs
+ * of a job never overlap. Before the run node acquires lease of the job for the fire time, so a job runs on one node
+ * at a time, and only once per fire time even when it is scheduled by several nodes. Lease is prolonged while the job
+ * is running, node which fails to acquire the lease waits for the next fire time or for the lease expiration. When
+ * lease of the running job can't be prolonged, because it expired and was taken over by another node, thread which
+ * runs the job is interrupted, so the job should stop as soon as it sees the interruption.
+ *
+ * <p>Runs which should have happened while the job wasn't running, during downtime or a long previous run, are
+ * handled according to the {@link MissedRunPolicy} of the job.
+ *
+ * <p>Latency of the runs, delay between the fire time and the start of the run, duration, failures, overruns and
+ * missed runs and lost leases of each job are exposed with {@link #getStatistics()}.
+ */
+public class CronJobScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(CronJobScheduler.class);
+
+    /** Fire time of the jobs which cron expressions don't have any time in future. */
+    static final long NEVER = Long.MAX_VALUE;
+
+    /** Lease duration, lease of a running job is prolonged each third of it. */
+    static final long LEASE_DURATION = TimeUnit.MINUTES.toMillis(1);
+
+    /** Delay before the next attempt when store of the jobs fails. */
+    static final long RETRY_DELAY = TimeUnit.SECONDS.toMillis(30);
+
+    /** Limits the number of missed runs counted, e.g. for jobs which fire each second after a long downtime. */
+    private static final int MAX_COUNTED_MISSED_RUNS = 10_000;
+
+    private final ScheduledExecutorService  executor;
+    private final CronJobStore              store;
+    private final Clock                     clock;
+    private final String                    owner;
+    private final ConcurrentMap<String, Job> jobs;
+
+    public CronJobScheduler(ScheduledExecutorService executor, CronJobStore store) {
+        this(executor, store, Clock.systemUTC(), UUID.randomUUID().toString());
+    }
+
+    CronJobScheduler(ScheduledExecutorService executor, CronJobStore store, Clock clock, String owner) {
+        this.executor = executor;
+        this.store = store;
+        this.clock = clock;
+        this.owner = owner;
+        this.jobs = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Schedules the job according to the cron expression.
+     *
+     * @param jobId
+     *         identifier of the job which is the same on all the nodes and after restarts
+     * @param task
+     *         the job
+     * @param expression
+     *         cron expression of the job
+     * @param missedRunPolicy
+     *         defines what to do with the runs missed while the job wasn't running
+     * @throws IllegalStateException
+     *         when job with the same identifier is already scheduled by this scheduler
+     */
+    public void schedule(String jobId, Runnable task, CronExpression expression, MissedRunPolicy missedRunPolicy) {
+        final Job job = new Job(jobId, task, expression, missedRunPolicy);
+        if (jobs.putIfAbsent(jobId, job) != null) {
+            throw new IllegalStateException("Cron job " + jobId + " is already scheduled");
+        }
+        start(job);
+    }
+
+    /** Cancels the future runs of all the jobs, runs in progress are not interrupted. */
+    public void cancelAll() {
+        for (Job job : jobs.values()) {
+            job.cancelled = true;
+            final ScheduledFuture<?> future = job.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+        jobs.clear();
+    }
+
+    /** Returns statistics of each job, keys are prefixed with the job identifier. */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new TreeMap<>();
+        for (Job job : jobs.values()) {
+            statistics.put(job.id + ".runs", job.runs.sum());
+            statistics.put(job.id + ".failures", job.failures.sum());
+            statistics.put(job.id + ".overruns", job.overruns.sum());
+            statistics.put(job.id + ".missedRuns", job.missedRuns.sum());
+            statistics.put(job.id + ".lostLeases", job.lostLeases.sum());
+            statistics.put(job.id + ".latency.total", job.totalLatency.sum());
+            statistics.put(job.id + ".latency.max", job.maxLatency.get());
+            statistics.put(job.id + ".latency.last", job.lastLatency);
+            statistics.put(job.id + ".duration.total", job.totalDuration.sum());
+            statistics.put(job.id + ".duration.max", job.maxDuration.get());
+            statistics.put(job.id + ".duration.last", job.lastDuration);
+        }
+        return statistics;
+    }
+
+    /** Schedules first fire of the job, applies missed run policy to the fire time which is already in the past. */
+    void start(Job job) {
+        final long now = clock.millis();
+        final CronJobState state;
+        try {
+            state = store.create(job.id, job.cron(), nextFireTime(job, now));
+        } catch (RuntimeException e) {
+            LOG.error("Can't read state of cron job {}, next attempt in {}ms. {}", job.id, RETRY_DELAY, e.getMessage(), e);
+            schedule(job, now + RETRY_DELAY, () -> start(job));
+            return;
+        }
+
+        long fireTime = state.getNextFireTime();
+        if (!job.cron().equals(state.getCron())) {
+            // job was rescheduled with another cron expression, time computed with the old one is not valid anymore
+            fireTime = reschedule(job, state, nextFireTime(job, now), now);
+        } else if (fireTime < now && job.missedRunPolicy == MissedRunPolicy.SKIP && !state.isLeasedByOther(owner, now)) {
+            final long next = nextFireTime(job, now);
+            final long missed = countFires(job, fireTime, now);
+            fireTime = reschedule(job, state, next, now);
+            if (fireTime == next) {
+                job.missedRuns.add(missed);
+                LOG.info("Skipped {} run(s) of cron job {} missed while it wasn't running", missed, job.id);
+            }
+        } else if (fireTime < now && job.missedRunPolicy == MissedRunPolicy.RUN_ONCE && !state.isLeasedByOther(owner, now)) {
+            // single run right now covers all the runs missed since the stored fire time
+            final long missed = countFires(job, fireTime, now) - 1;
+            fireTime = reschedule(job, state, now, now);
+            if (fireTime == now) {
+                job.missedRuns.add(missed);
+            }
+        }
+        scheduleFire(job, fireTime);
+    }
+
+    /** Runs the job if lease for the fire time is acquired, then schedules the next fire. */
+    void fire(Job job, long fireTime) {
+        if (job.cancelled) {
+            return;
+        }
+        final long startTime = clock.millis();
+        try {
+            if (!store.acquire(job.id, fireTime, owner, startTime, startTime + LEASE_DURATION)) {
+                // another node runs the job or has already run it for this fire time
+                scheduleFire(job, waitFor(store.get(job.id), fireTime, startTime));
+                return;
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Can't acquire lease of cron job {}, next attempt in {}ms. {}", job.id, RETRY_DELAY, e.getMessage(), e);
+            schedule(job, startTime + RETRY_DELAY, () -> fire(job, fireTime));
+            return;
+        }
+
+        final long latency = startTime - fireTime;
+        job.lastLatency = latency;
+        job.totalLatency.add(latency);
+        job.maxLatency.accumulate(latency);
+        final Run run = new Run(Thread.currentThread());
+        final ScheduledFuture<?> renewal = executor.scheduleWithFixedDelay(() -> renew(job, run),
+                                                                           LEASE_DURATION / 3,
+                                                                           LEASE_DURATION / 3,
+                                                                           MILLISECONDS);
+        try {
+            job.task.run();
+        } catch (RuntimeException e) {
+            job.failures.increment();
+            LOG.error("Cron job {} failed. {}", job.id, e.getMessage(), e);
+        } finally {
+            renewal.cancel(false);
+            run.finish();
+        }
+        final long endTime = clock.millis();
+        job.runs.increment();
+        job.lastDuration = endTime - startTime;
+        job.totalDuration.add(endTime - startTime);
+        job.maxDuration.accumulate(endTime - startTime);
+
+        final long following = nextFireTime(job, fireTime);
+        long nextFireTime = following;
+        if (following <= endTime) {
+            // run took longer than the period of the job, or started too late
+            job.overruns.increment();
+            LOG.warn("Cron job {} which fired at {} finished at {} after the next fire time {}",
+                     job.id, new Date(fireTime), new Date(endTime), new Date(following));
+            switch (job.missedRunPolicy) {
+                case SKIP:
+                    job.missedRuns.add(countFires(job, following, endTime));
+                    nextFireTime = nextFireTime(job, endTime);
+                    break;
+                case RUN_ONCE:
+                    job.missedRuns.add(countFires(job, following, endTime) - 1);
+                    nextFireTime = endTime;
+                    break;
+                default:
+                    // runs one after another until the job catches up with its cron expression
+            }
+        }
+        release(job, run, startTime, endTime, nextFireTime);
+    }
+
+    private void release(Job job, Run run, long startTime, long endTime, long nextFireTime) {
+        try {
+            if (!store.release(job.id, owner, startTime, endTime, nextFireTime)) {
+                // lease expired and the job was taken over by another node
+                if (!run.isLeaseLost()) {
+                    job.lostLeases.increment();
+                    LOG.warn("Lease of cron job {} was lost while it was running", job.id);
+                }
+                scheduleFire(job, waitFor(store.get(job.id), nextFireTime, clock.millis()));
+                return;
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Can't save state of cron job {}. {}", job.id, e.getMessage(), e);
+            // lease expires and the job is run again by any node
+        }
+        scheduleFire(job, nextFireTime);
+    }
+
+    private void renew(Job job, Run run) {
+        if (run.isLeaseLost()) {
+            return;
+        }
+        try {
+            if (!store.renew(job.id, owner, clock.millis() + LEASE_DURATION)) {
+                job.lostLeases.increment();
+                LOG.warn("Lease of cron job {} was lost while it was running, interrupting it", job.id);
+                run.leaseLost();
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Can't prolong lease of cron job {}. {}", job.id, e.getMessage(), e);
+        }
+    }
+
+    /** Changes the next fire time of the job, returns the fire time stored by another node if it is changed concurrently. */
+    private long reschedule(Job job, CronJobState state, long nextFireTime, long now) {
+        try {
+            if (store.reschedule(job.id, state.getNextFireTime(), job.cron(), nextFireTime, now)) {
+                return nextFireTime;
+            }
+            return waitFor(store.get(job.id), state.getNextFireTime(), now);
+        } catch (RuntimeException e) {
+            LOG.error("Can't reschedule cron job {}. {}", job.id, e.getMessage(), e);
+            return now + RETRY_DELAY;
+        }
+    }
+
+    /** Returns time when the node should try to run the job after it failed to acquire the lease. */
+    private long waitFor(CronJobState state, long fireTime, long now) {
+        if (state == null) {
+            return now + RETRY_DELAY;
+        }
+        if (state.getNextFireTime() == fireTime && state.isLeasedByOther(owner, now)) {
+            // job is running on another node, check it again when its lease expires
+            return state.getLeaseExpiration() + 1;
+        }
+        return state.getNextFireTime();
+    }
+
+    private void scheduleFire(Job job, long fireTime) {
+        if (fireTime == NEVER) {
+            LOG.info("Cron job {} won't fire anymore", job.id);
+            return;
+        }
+        schedule(job, fireTime, () -> fire(job, fireTime));
+    }
+
+    private void schedule(Job job, long time, Runnable action) {
+        if (job.cancelled) {
+            return;
+        }
+        try {
+            job.future = executor.schedule(action, Math.max(0, time - clock.millis()), MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Cron job {} is not scheduled, executor is shut down", job.id);
+        }
+    }
+
+    private static long nextFireTime(Job job, long after) {
+        final Date next = job.expression.getNextValidTimeAfter(new Date(after));
+        return next == null ? NEVER : next.getTime();
+    }
+
+    /** Counts fire times in the range [from, to). */
+    private static long countFires(Job job, long from, long to) {
+        long count = 0;
+        for (long time = from; time < to && count < MAX_COUNTED_MISSED_RUNS; time = nextFireTime(job, time)) {
+            count++;
+        }
+        return count;
+    }
+
+    /** Scheduled job with its metrics. */
+    static class Job {
+        final String          id;
+        final Runnable        task;
+        final CronExpression  expression;
+        final MissedRunPolicy missedRunPolicy;
+
+        final LongAdder       runs          = new LongAdder();
+        final LongAdder       failures      = new LongAdder();
+        final LongAdder       overruns      = new LongAdder();
+        final LongAdder       missedRuns    = new LongAdder();
+        final LongAdder       lostLeases    = new LongAdder();
+        final LongAdder       totalLatency  = new LongAdder();
+        final LongAccumulator maxLatency    = new LongAccumulator(Math::max, 0);
+        final LongAdder       totalDuration = new LongAdder();
+        final LongAccumulator maxDuration   = new LongAccumulator(Math::max, 0);
+
+        volatile long               lastLatency;
+        volatile long               lastDuration;
+        volatile ScheduledFuture<?> future;
+        volatile boolean            cancelled;
+
+        Job(String id, Runnable task, CronExpression expression, MissedRunPolicy missedRunPolicy) {
+            this.id = id;
+            this.task = task;
+            this.expression = expression;
+            this.missedRunPolicy = missedRunPolicy;
+        }
+
+        String cron() {
+            return expression.getCronExpression();
+        }
+    }
+
+    /** Run of the job in progress, interrupted when its lease is lost. */
+    private static class Run {
+        private Thread  runner;
+        private boolean leaseLost;
+
+        Run(Thread runner) {
+            this.runner = runner;
+        }
+
+        synchronized boolean isLeaseLost() {
+            return leaseLost;
+        }
+
+        /** Interrupts the job unless it is already finished. */
+        synchronized void leaseLost() {
+            leaseLost = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+
+        /** Called by the thread which ran the job, clears interruption caused by the lost lease. */
+        synchronized void finish() {
+            runner = null;
+            if (leaseLost) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+import java.util.Objects;
+
+/**
+ * State of a cron job which is shared by all the nodes running the job and is kept between restarts.
+ */
+public class CronJobState {
+    private final String id;
+    private final String cron;
+    private final long   nextFireTime;
+    private final Long   lastStartTime;
+    private final Long   lastEndTime;
+    private final String leaseOwner;
+    private final Long   leaseExpiration;
+
+    public CronJobState(String id,
+                        String cron,
+                        long nextFireTime,
+                        Long lastStartTime,
+                        Long lastEndTime,
+                        String leaseOwner,
+                        Long leaseExpiration) {
+        this.id = id;
+        this.cron = cron;
+        this.nextFireTime = nextFireTime;
+        this.lastStartTime = lastStartTime;
+        this.lastEndTime = lastEndTime;
+        this.leaseOwner = leaseOwner;
+        this.leaseExpiration = leaseExpiration;
+    }
+
+    /** Returns identifier of the job. */
+    public String getId() {
+        return id;
+    }
+
+    /** Returns cron expression the next fire time was computed with. */
+    public String getCron() {
+        return cron;
+    }
+
+    /** Returns time in milliseconds when the job should run next time. */
+    public long getNextFireTime() {
+        return nextFireTime;
+    }
+
+    /** Returns start time in milliseconds of the last run of the job or {@code null} if the job has never run. */
+    public Long getLastStartTime() {
+        return lastStartTime;
+    }
+
+    /** Returns end time in milliseconds of the last run of the job or {@code null} if the job has never run. */
+    public Long getLastEndTime() {
+        return lastEndTime;
+    }
+
+    /** Returns identifier of the node which runs the job now or {@code null} if the job is not running. */
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    /** Returns time in milliseconds until which the lease owner is allowed to run the job. */
+    public Long getLeaseExpiration() {
+        return leaseExpiration;
+    }
+
+    /** Checks whether another node than the given one runs the job at the given time. */
+    public boolean isLeasedByOther(String owner, long now) {
+        return leaseOwner != null && !leaseOwner.equals(owner) && leaseExpiration != null && leaseExpiration >= now;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CronJobState)) {
+            return false;
+        }
+        final CronJobState that = (CronJobState)obj;
+        return nextFireTime == that.nextFireTime
+               && Objects.equals(id, that.id)
+               && Objects.equals(cron, that.cron)
+               && Objects.equals(lastStartTime, that.lastStartTime)
+               && Objects.equals(lastEndTime, that.lastEndTime)
+               && Objects.equals(leaseOwner, that.leaseOwner)
+               && Objects.equals(leaseExpiration, that.leaseExpiration);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, cron, nextFireTime, lastStartTime, lastEndTime, leaseOwner, leaseExpiration);
+    }
+
+    @Override
+    public String toString() {
+        return "CronJobState{" +
+               "id='" + id + '\'' +
+               ", cron='" + cron + '\'' +
+               ", nextFireTime=" + nextFireTime +
+               ", lastStartTime=" + lastStartTime +
+               ", lastEndTime=" + lastEndTime +
+               ", leaseOwner='" + leaseOwner + '\'' +
+               ", leaseExpiration=" + leaseExpiration +
+               '}';
+    }
+}
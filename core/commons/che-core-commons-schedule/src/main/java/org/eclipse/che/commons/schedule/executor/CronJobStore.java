@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+import com.google.inject.ImplementedBy;
+
+/**
+ * Keeps state of the cron jobs, shared by all the nodes which run the jobs.
+ *
+ * <p>Only the node which holds the lease of a job runs it. Lease is acquired for the particular fire time of the
+ * job, so a node which comes late, when another one has already run the job, can't run it again. All the
+ * modifications must be atomic, e.g. conditional updates of a database.
+ *
+ * <p>Unless another implementation is bound, states are kept in memory of a single node.
+ */
+@ImplementedBy(InMemoryCronJobStore.class)
+public interface CronJobStore {
+    /**
+     * Returns state of the job.
+     *
+     * @param jobId
+     *         identifier of the job
+     * @return state of the job or {@code null} if the job has never been scheduled
+     */
+    CronJobState get(String jobId);
+
+    /**
+     * Creates state of the job unless it already exists.
+     *
+     * @param jobId
+     *         identifier of the job
+     * @param cron
+     *         cron expression of the job
+     * @param nextFireTime
+     *         time in milliseconds when the job should run first time
+     * @return state of the job, either created or existing one
+     */
+    CronJobState create(String jobId, String cron, long nextFireTime);
+
+    /**
+     * Changes next fire time of the job if it is still the expected one and the job isn't leased by another node.
+     *
+     * @param jobId
+     *         identifier of the job
+     * @param expectedFireTime
+     *         next fire time of the job known to the caller
+     * @param cron
+     *         cron expression the new next fire time is computed with
+     * @param nextFireTime
+     *         new next fire time of the job in milliseconds
+     * @param now
+     *         current time in milliseconds
+     * @return {@code true} when next fire time is changed
+     */
+    boolean reschedule(String jobId, long expectedFireTime, String cron, long nextFireTime, long now);
+
+    /**
+     * Acquires lease of the job for the given fire time. Lease is acquired only when next fire time of the job is the
+     * given one and the job is not leased by another node or its lease is expired.
+     *
+     * @param jobId
+     *         identifier of the job
+     * @param fireTime
+     *         fire time of the job which is going to be run
+     * @param owner
+     *         identifier of the node
+     * @param now
+     *         current time in milliseconds
+     * @param leaseExpiration
+     *         time in milliseconds until which the node is allowed to run the job
+     * @return {@code true} when lease is acquired
+     */
+    boolean acquire(String jobId, long fireTime, String owner, long now, long leaseExpiration);
+
+    /**
+     * Prolongs lease of the job held by the node.
+     *
+     * @return {@code true} when the node still holds the lease
+     */
+    boolean renew(String jobId, String owner, long leaseExpiration);
+
+    /**
+     * Records the run of the job, sets its next fire time and releases its lease.
+     *
+     * @param jobId
+     *         identifier of the job
+     * @param owner
+     *         identifier of the node which holds the lease
+     * @param startTime
+     *         start time of the run in milliseconds
+     * @param endTime
+     *         end time of the run in milliseconds
+     * @param nextFireTime
+     *         next fire time of the job in milliseconds
+     * @return {@code true} when the node still held the lease and state is updated
+     */
+    boolean release(String jobId, String owner, long startTime, long endTime, long nextFireTime);
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+import javax.inject.Singleton;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps states of the cron jobs in memory, is suitable for a single node which doesn't need states of the jobs
+ * after restart.
+ */
+@Singleton
+public class InMemoryCronJobStore implements CronJobStore {
+    private final Map<String, CronJobState> states = new HashMap<>();
+
+    @Override
+    public synchronized CronJobState get(String jobId) {
+        return states.get(jobId);
+    }
+
+    @Override
+    public synchronized CronJobState create(String jobId, String cron, long nextFireTime) {
+        return states.computeIfAbsent(jobId, id -> new CronJobState(id, cron, nextFireTime, null, null, null, null));
+    }
+
+    @Override
+    public synchronized boolean reschedule(String jobId, long expectedFireTime, String cron, long nextFireTime, long now) {
+        final CronJobState state = states.get(jobId);
+        if (state == null || state.getNextFireTime() != expectedFireTime || state.isLeasedByOther(null, now)) {
+            return false;
+        }
+        states.put(jobId, new CronJobState(jobId,
+                                           cron,
+                                           nextFireTime,
+                                           state.getLastStartTime(),
+                                           state.getLastEndTime(),
+                                           null,
+                                           null));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean acquire(String jobId, long fireTime, String owner, long now, long leaseExpiration) {
+        final CronJobState state = states.get(jobId);
+        if (state == null || state.getNextFireTime() != fireTime || state.isLeasedByOther(owner, now)) {
+            return false;
+        }
+        states.put(jobId, new CronJobState(jobId,
+                                           state.getCron(),
+                                           fireTime,
+                                           state.getLastStartTime(),
+                                           state.getLastEndTime(),
+                                           owner,
+                                           leaseExpiration));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean renew(String jobId, String owner, long leaseExpiration) {
+        final CronJobState state = states.get(jobId);
+        if (state == null || !owner.equals(state.getLeaseOwner())) {
+            return false;
+        }
+        states.put(jobId, new CronJobState(jobId,
+                                           state.getCron(),
+                                           state.getNextFireTime(),
+                                           state.getLastStartTime(),
+                                           state.getLastEndTime(),
+                                           owner,
+                                           leaseExpiration));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean release(String jobId, String owner, long startTime, long endTime, long nextFireTime) {
+        final CronJobState state = states.get(jobId);
+        if (state == null || !owner.equals(state.getLeaseOwner())) {
+            return false;
+        }
+        states.put(jobId, new CronJobState(jobId, state.getCron(), nextFireTime, startTime, endTime, null, null));
+        return true;
+    }
+}
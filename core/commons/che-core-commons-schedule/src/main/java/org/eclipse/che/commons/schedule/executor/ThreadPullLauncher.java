@@ -12,6 +12,7 @@ package org.eclipse.che.commons.schedule.executor;
 
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.schedule.Launcher;
+import org.eclipse.che.commons.schedule.MissedRunPolicy;
 import org.eclipse.che.inject.ConfigurationException;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -24,6 +25,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import java.text.ParseException;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -36,25 +38,44 @@ import java.util.concurrent.TimeUnit;
 public class ThreadPullLauncher implements Launcher {
     private static final Logger LOG = LoggerFactory.getLogger(CronThreadPoolExecutor.class);
     private final CronThreadPoolExecutor service;
+    private final CronJobScheduler       cronJobScheduler;
 
     /**
      * @param corePoolSize
      *         the number of threads to keep in the pool, even
      *         if they are idle, unless {@code allowCoreThreadTimeOut} is set
      */
+    public ThreadPullLauncher(Integer corePoolSize) {
+        this(corePoolSize, new InMemoryCronJobStore());
+    }
+
+    /**
+     * @param corePoolSize
+     *         the number of threads to keep in the pool, even
+     *         if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param cronJobStore
+     *         store of the states of the cron jobs scheduled with identifiers
+     */
     @Inject
-    public ThreadPullLauncher(@Named("schedule.core_pool_size") Integer corePoolSize) {
+    public ThreadPullLauncher(@Named("schedule.core_pool_size") Integer corePoolSize, CronJobStore cronJobStore) {
         this.service = new CronThreadPoolExecutor(corePoolSize,
                                                   new ThreadFactoryBuilder().setNameFormat("Annotated-scheduler-%d")
                                                                             .setUncaughtExceptionHandler(
                                                                                     LoggingUncaughtExceptionHandler.getInstance())
                                                                             .setDaemon(false)
                                                                             .build());
+        this.cronJobScheduler = new CronJobScheduler(service, cronJobStore);
+    }
+
+    /** Returns statistics of the cron jobs scheduled with identifiers, see {@link CronJobScheduler#getStatistics()}. */
+    public Map<String, Long> getCronJobStatistics() {
+        return cronJobScheduler.getStatistics();
     }
 
 
     @PreDestroy
     public void shutdown() throws InterruptedException {
+        cronJobScheduler.cancelAll();
         // Tell threads to finish off.
         service.shutdown(); // Disable new tasks from being submitted
         try {
@@ -89,6 +110,22 @@ public class ThreadPullLauncher implements Launcher {
         }
     }
 
+    @Override
+    public void scheduleCron(String jobId, Runnable runnable, String cron, MissedRunPolicy missedRunPolicy) {
+        if (cron == null || cron.isEmpty()) {
+            throw new ConfigurationException("Cron parameter can't be null");
+        }
+        try {
+            // one more thread keeps leases of the running jobs, as the watch dog thread of not persistent cron jobs
+            service.setCorePoolSize(service.getCorePoolSize() + 1);
+            cronJobScheduler.schedule(jobId, runnable, new CronExpression(cron), missedRunPolicy);
+            LOG.debug("Schedule job {} with cron {} and missed run policy {}", jobId, cron, missedRunPolicy);
+        } catch (ParseException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            throw new ConfigurationException(e.getLocalizedMessage());
+        }
+    }
+
     @Override
     public void scheduleWithFixedDelay(Runnable runnable, long initialDelay, long delay, TimeUnit unit) {
         service.scheduleWithFixedDelay(runnable, initialDelay, delay, unit);
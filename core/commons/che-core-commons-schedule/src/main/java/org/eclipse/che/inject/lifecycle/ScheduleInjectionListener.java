@@ -90,12 +90,12 @@ public class ScheduleInjectionListener<T> extends LifecycleModule implements Inj
 
     private void launch(Object object, Method method, ScheduleCron annotation) {
         Launcher launcher = launcherProvider.get();
-        launcher.scheduleCron(new LoggedRunnable(object,
-                                                 method), annotation.cronParameterName().isEmpty() ? annotation.cron()
-                                                                                                   : getValue(String.class,
-                                                                                                              annotation
-                                                                                                                      .cronParameterName
-                                                                                                                              ()));
+        // declaring class is used since class of the object may be generated by guice
+        launcher.scheduleCron(method.getDeclaringClass().getName() + '#' + method.getName(),
+                              new LoggedRunnable(object, method),
+                              annotation.cronParameterName().isEmpty() ? annotation.cron()
+                                                                       : getValue(String.class, annotation.cronParameterName()),
+                              annotation.missedRunPolicy());
     }
 
     private void launch(Object object, Method method, ScheduleDelay annotation) {
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+import java.util.Date;
+
+/**
+ * Measures {@link CronExpression#getNextValidTimeAfter(Date)} on simple and complex expressions, e.g. with
+ * last days, nearest weekdays and nth days of week, which make evaluation search through many months.
+ * Start time is shifted by a minute on each call, so the search doesn't begin from the same point.
+ */
+public class CronExpressionBenchmark {
+    private static final String[] EXPRESSIONS = {"0 * * * * ?",
+                                                 "0 0/15 8-18 ? * MON-FRI",
+                                                 "0 30 1 L * ?",
+                                                 "0 0 12 LW * ?",
+                                                 "0 15 10 ? * 6#3",
+                                                 "0 0 0 29 2 ?",
+                                                 "5/7 3,17,41 1-5,20-23 ? JAN,MAR,NOV 2L"};
+    private static final int      WARMUP      = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        final Date start = new Date();
+        for (String cron : EXPRESSIONS) {
+            final CronExpression expression = new CronExpression(cron);
+            for (int i = 0; i < WARMUP; i++) {
+                next(expression, start, i);
+            }
+            long result = 0;
+            final long begin = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                result += next(expression, start, i);
+            }
+            final double micros = (System.nanoTime() - begin) / 1e3 / iterations;
+            System.out.printf("%-44s %8.3f us/op (%d)%n", cron, micros, result / 1000 % 1000);
+        }
+    }
+
+    /** Computes next fire time after the start shifted by the given number of minutes, to vary the search. */
+    private static long next(CronExpression expression, Date start, int minutes) {
+        final Date next = expression.getNextValidTimeAfter(new Date(start.getTime() + minutes * 60_000L));
+        return next == null ? 0 : next.getTime();
+    }
+}
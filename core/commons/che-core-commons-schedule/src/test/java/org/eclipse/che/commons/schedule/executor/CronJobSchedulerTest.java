@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+import org.eclipse.che.commons.schedule.MissedRunPolicy;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.eclipse.che.commons.schedule.MissedRunPolicy.RUN_ALL;
+import static org.eclipse.che.commons.schedule.MissedRunPolicy.RUN_ONCE;
+import static org.eclipse.che.commons.schedule.MissedRunPolicy.SKIP;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link CronJobScheduler}.
+ */
+public class CronJobSchedulerTest {
+    private static final String JOB       = "job";
+    private static final String EACH_MIN  = "0 * * * * ?";
+    /** 10:00:30, half a minute after the fire time of the job. */
+    private static final long   NOW       = LocalDateTime.of(2017, 3, 1, 10, 0, 30)
+                                                         .atZone(ZoneId.systemDefault())
+                                                         .toInstant()
+                                                         .toEpochMilli();
+    private static final long   FIRE_TIME = NOW - SECONDS.toMillis(30);
+
+    private MutableClock         clock;
+    private RecordingExecutor    executor;
+    private InMemoryCronJobStore store;
+    private CronJobScheduler     scheduler;
+    private AtomicInteger        runs;
+
+    @BeforeMethod
+    public void setUp() {
+        clock = new MutableClock(NOW);
+        executor = new RecordingExecutor();
+        store = new InMemoryCronJobStore();
+        scheduler = new CronJobScheduler(executor, store, clock, "node");
+        runs = new AtomicInteger();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldScheduleFirstFireAtNextCronTime() throws Exception {
+        scheduler.schedule(JOB, runs::incrementAndGet, new CronExpression(EACH_MIN), SKIP);
+
+        assertEquals(executor.lastDelay(), SECONDS.toMillis(30));
+        assertEquals(store.get(JOB).getNextFireTime(), FIRE_TIME + MINUTES.toMillis(1));
+    }
+
+    @Test
+    public void shouldRunJobAndScheduleNextFire() throws Exception {
+        scheduler.schedule(JOB, runs::incrementAndGet, new CronExpression(EACH_MIN), SKIP);
+        clock.set(FIRE_TIME + MINUTES.toMillis(1) + 200);
+
+        executor.runLast();
+
+        assertEquals(runs.get(), 1);
+        assertEquals(store.get(JOB).getNextFireTime(), FIRE_TIME + MINUTES.toMillis(2));
+        assertEquals(store.get(JOB).getLastStartTime().longValue(), clock.millis());
+        assertEquals(scheduler.getStatistics().get(JOB + ".latency.last").longValue(), 200L);
+        assertEquals(scheduler.getStatistics().get(JOB + ".runs").longValue(), 1L);
+    }
+
+    @Test
+    public void shouldSkipRunsMissedDuringDowntime() throws Exception {
+        store.create(JOB, EACH_MIN, FIRE_TIME - MINUTES.toMillis(5));
+
+        scheduler.schedule(JOB, runs::incrementAndGet, new CronExpression(EACH_MIN), SKIP);
+
+        assertEquals(store.get(JOB).getNextFireTime(), FIRE_TIME + MINUTES.toMillis(1));
+        assertEquals(executor.lastDelay(), SECONDS.toMillis(30));
+        assertEquals(scheduler.getStatistics().get(JOB + ".missedRuns").longValue(), 6L);
+    }
+
+    @Test
+    public void shouldRunOnceInsteadOfRunsMissedDuringDowntime() throws Exception {
+        store.create(JOB, EACH_MIN, FIRE_TIME - MINUTES.toMillis(5));
+
+        scheduler.schedule(JOB, runs::incrementAndGet, new CronExpression(EACH_MIN), RUN_ONCE);
+        assertEquals(executor.lastDelay(), 0L);
+        executor.runLast();
+
+        assertEquals(runs.get(), 1);
+        assertEquals(executor.lastDelay(), SECONDS.toMillis(30));
+        assertEquals(scheduler.getStatistics().get(JOB + ".missedRuns").longValue(), 5L);
+    }
+
+    @Test
+    public void shouldRunAllRunsMissedDuringDowntime() throws Exception {
+        store.create(JOB, EACH_MIN, FIRE_TIME - MINUTES.toMillis(5));
+        scheduler.schedule(JOB, runs::incrementAndGet, new CronExpression(EACH_MIN), RUN_ALL);
+
+        while (executor.lastDelay() == 0) {
+            executor.runLast();
+        }
+
+        assertEquals(runs.get(), 6);
+        assertEquals(store.get(JOB).getNextFireTime(), FIRE_TIME + MINUTES.toMillis(1));
+        assertEquals(scheduler.getStatistics().get(JOB + ".missedRuns").longValue(), 0L);
+    }
+
+    @Test
+    public void shouldNotRunJobLeasedByAnotherNode() throws Exception {
+        store.create(JOB, EACH_MIN, FIRE_TIME);
+        assertTrue(store.acquire(JOB, FIRE_TIME, "other", NOW, NOW + SECONDS.toMillis(10)));
+
+        scheduler.schedule(JOB, runs::incrementAndGet, new CronExpression(EACH_MIN), SKIP);
+        executor.runLast();
+
+        assertEquals(runs.get(), 0);
+        assertEquals(executor.lastDelay(), SECONDS.toMillis(10) + 1);
+    }
+
+    @Test
+    public void shouldNotRunJobTwiceForTheSameFireTime() throws Exception {
+        final RecordingExecutor otherExecutor = new RecordingExecutor();
+        final CronJobScheduler other = new CronJobScheduler(otherExecutor, store, clock, "other");
+        scheduler.schedule(JOB, runs::incrementAndGet, new CronExpression(EACH_MIN), SKIP);
+        other.schedule(JOB, runs::incrementAndGet, new CronExpression(EACH_MIN), SKIP);
+        clock.set(FIRE_TIME + MINUTES.toMillis(1));
+
+        try {
+            executor.runLast();
+            otherExecutor.runLast();
+        } finally {
+            otherExecutor.shutdownNow();
+        }
+
+        assertEquals(runs.get(), 1);
+        assertEquals(otherExecutor.lastDelay(), MINUTES.toMillis(1));
+    }
+
+    @Test
+    public void shouldCountOverrunAndSkipRunsMissedWhileJobWasRunning() throws Exception {
+        scheduler.schedule(JOB, () -> clock.set(clock.millis() + SECONDS.toMillis(150)), new CronExpression(EACH_MIN), SKIP);
+        clock.set(FIRE_TIME + MINUTES.toMillis(1));
+
+        executor.runLast();
+
+        assertEquals(scheduler.getStatistics().get(JOB + ".overruns").longValue(), 1L);
+        assertEquals(scheduler.getStatistics().get(JOB + ".missedRuns").longValue(), 2L);
+        assertEquals(scheduler.getStatistics().get(JOB + ".duration.last").longValue(), SECONDS.toMillis(150));
+        assertEquals(store.get(JOB).getNextFireTime(), FIRE_TIME + MINUTES.toMillis(4));
+    }
+
+    @Test
+    public void shouldScheduleNextFireWhenJobFails() throws Exception {
+        scheduler.schedule(JOB, () -> {
+            throw new IllegalStateException("failure");
+        }, new CronExpression(EACH_MIN), SKIP);
+        clock.set(FIRE_TIME + MINUTES.toMillis(1));
+
+        executor.runLast();
+
+        assertEquals(scheduler.getStatistics().get(JOB + ".failures").longValue(), 1L);
+        assertEquals(store.get(JOB).getNextFireTime(), FIRE_TIME + MINUTES.toMillis(2));
+        assertEquals(store.get(JOB).getLeaseOwner(), null);
+    }
+
+    @Test
+    public void shouldRescheduleJobWhenCronExpressionIsChanged() throws Exception {
+        store.create(JOB, "0 0 * * * ?", FIRE_TIME + MINUTES.toMillis(59));
+
+        scheduler.schedule(JOB, runs::incrementAndGet, new CronExpression(EACH_MIN), SKIP);
+
+        assertEquals(store.get(JOB).getNextFireTime(), FIRE_TIME + MINUTES.toMillis(1));
+        assertEquals(store.get(JOB).getCron(), EACH_MIN);
+    }
+
+    @Test
+    public void shouldInterruptJobWhichLeaseIsLost() throws Exception {
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        scheduler.schedule(JOB, () -> {
+            // lease expires and another node takes the job over before it is renewed
+            clock.set(clock.millis() + MINUTES.toMillis(2));
+            assertTrue(store.acquire(JOB, FIRE_TIME + MINUTES.toMillis(1), "other", clock.millis(), clock.millis() + MINUTES.toMillis(1)));
+            executor.renewLease();
+            interrupted.set(Thread.currentThread().isInterrupted());
+        }, new CronExpression(EACH_MIN), SKIP);
+        clock.set(FIRE_TIME + MINUTES.toMillis(1));
+
+        executor.runLast();
+
+        assertTrue(interrupted.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(scheduler.getStatistics().get(JOB + ".lostLeases").longValue(), 1L);
+        assertEquals(store.get(JOB).getLeaseOwner(), "other");
+    }
+
+    @Test
+    public void shouldCountLeaseLostWithoutRenewal() throws Exception {
+        scheduler.schedule(JOB, () -> {
+            clock.set(clock.millis() + MINUTES.toMillis(2));
+            assertTrue(store.acquire(JOB, FIRE_TIME + MINUTES.toMillis(1), "other", clock.millis(), clock.millis() + MINUTES.toMillis(1)));
+        }, new CronExpression(EACH_MIN), RUN_ALL);
+        clock.set(FIRE_TIME + MINUTES.toMillis(1));
+
+        executor.runLast();
+
+        assertEquals(scheduler.getStatistics().get(JOB + ".lostLeases").longValue(), 1L);
+        assertEquals(store.get(JOB).getNextFireTime(), FIRE_TIME + MINUTES.toMillis(1));
+    }
+
+    /** Records one-shot tasks and lease renewals instead of running them, they are run by the test. */
+    private static class RecordingExecutor extends ScheduledThreadPoolExecutor {
+        private final List<Runnable> tasks    = new ArrayList<>();
+        private final List<Long>     delays   = new ArrayList<>();
+        private final List<Runnable> renewals = new ArrayList<>();
+
+        RecordingExecutor() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            tasks.add(command);
+            delays.add(unit.toMillis(delay));
+            return super.schedule(() -> {}, 1, TimeUnit.DAYS);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            renewals.add(command);
+            return super.schedule(() -> {}, 1, TimeUnit.DAYS);
+        }
+
+        long lastDelay() {
+            return delays.get(delays.size() - 1);
+        }
+
+        void runLast() {
+            tasks.get(tasks.size() - 1).run();
+        }
+
+        void renewLease() {
+            renewals.get(renewals.size() - 1).run();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -13,6 +13,7 @@ package org.eclipse.che.commons.xml;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.w3c.dom.Text;
 
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
@@ -21,7 +22,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
-import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import javax.xml.xpath.XPathFactoryConfigurationException;
@@ -34,9 +35,12 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING;
 import static javax.xml.stream.XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES;
@@ -52,26 +56,25 @@ import static org.eclipse.che.commons.xml.XMLTreeUtil.replaceAll;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.rootStart;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.single;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.level;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertBetween;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertInto;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.lastIndexOf;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.openTagLength;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.tabulate;
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import static com.google.common.io.ByteStreams.toByteArray;
 import static java.nio.file.Files.readAllBytes;
 import static java.util.Objects.requireNonNull;
 import static javax.xml.XMLConstants.XML_NS_URI;
+import static javax.xml.stream.XMLStreamConstants.CDATA;
 import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
 import static javax.xml.stream.XMLStreamConstants.COMMENT;
+import static javax.xml.stream.XMLStreamConstants.DTD;
 import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
 import static javax.xml.stream.XMLStreamConstants.PROCESSING_INSTRUCTION;
 import static javax.xml.stream.XMLStreamConstants.SPACE;
-import static javax.xml.stream.XMLStreamConstants.START_DOCUMENT;
 import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
 import static javax.xml.xpath.XPathConstants.NODESET;
 import static javax.xml.xpath.XPathConstants.STRING;
-import static org.w3c.dom.Node.CDATA_SECTION_NODE;
 import static org.w3c.dom.Node.TEXT_NODE;
 
 /**
@@ -98,6 +101,8 @@ import static org.w3c.dom.Node.TEXT_NODE;
  * is xpath query. You will be able to select/update
  * content provided with XMLTree elements or attributes
  * without working with xpath directly.
+ * Compiled expressions are cached, so repeated queries
+ * are not compiled again.
  * <p>
  * XMLTree provides methods which do the same
  * as model methods but sometimes they are more convenient,
@@ -172,8 +177,20 @@ public final class XMLTree {
     private static final XMLInputFactory        XML_INPUT_FACTORY        = XMLInputFactory.newFactory();
     private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
     private static final XPathFactory           XPATH_FACTORY            = XPathFactory.newInstance();
+    private static final String                 REPORT_CDATA             = "http://java.sun.com/xml/stream/properties/report-cdata-event";
     private static final String                 ROOT_TEMPLATE            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<%s>\n</%s>";
     private static final int                    EXPECTED_NAMESPACES_SIZE = 2;
+    private static final int                    XPATH_CACHE_SIZE         = 256;
+    private static final int                    EDITS_LOG_SIZE           = 256;
+
+    /** Most recently used compiled xpath expressions, tree queries are mostly the same for all the documents. */
+    private static final ThreadLocal<Map<String, XPathExpression>> XPATH_CACHE =
+            ThreadLocal.withInitial(() -> new LinkedHashMap<String, XPathExpression>(XPATH_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                    return size() > XPATH_CACHE_SIZE;
+                }
+            });
 
     /** Factories configuration. */
     static {
@@ -194,6 +211,10 @@ public final class XMLTree {
             XML_INPUT_FACTORY.setProperty(SUPPORT_DTD, false);
             // Disable usage of external entities to avoid: XML External Entity Injection
             XML_INPUT_FACTORY.setProperty(IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            // Some implementations report CDATA as CHARACTERS by default, document needs CDATA sections
+            if (XML_INPUT_FACTORY.isPropertySupported(REPORT_CDATA)) {
+                XML_INPUT_FACTORY.setProperty(REPORT_CDATA, true);
+            }
         } catch (ParserConfigurationException | XPathFactoryConfigurationException confEx) {
             throw XMLTreeException.wrap(confEx);
         }
@@ -201,20 +222,27 @@ public final class XMLTree {
 
     private Document            document;
     private Map<String, String> namespaces;
-    private List<Element>       elements;
+    private Set<Element>        elements;
     private byte[]              xml;
+    private int                 length;
+    private int[]               editPositions;
+    private int[]               editOffsets;
+    private int                 editsCount;
 
     private XMLTree(byte[] xml) {
         if (xml.length == 0) {
             throw new XMLTreeException("Source content is empty");
         }
-        elements = new LinkedList<>();
+        elements = new LinkedHashSet<>();
         namespaces = newHashMapWithExpectedSize(EXPECTED_NAMESPACES_SIZE);
         this.xml = normalizeLineEndings(xml);
         //reason: parser is going to replace all '\r\n' sequences with single '\n'
         //which will affect elements position in source xml and produce incorrect XMLTree behaviour
         //it comes from spec http://www.w3.org/TR/2004/REC-xml11-20040204/
-        document = parseQuietly(this.xml);
+        this.length = this.xml.length;
+        this.editPositions = new int[EDITS_LOG_SIZE];
+        this.editOffsets = new int[EDITS_LOG_SIZE];
+        document = newDocument();
         constructTreeQuietly();
     }
 
@@ -381,9 +409,9 @@ public final class XMLTree {
     public byte[] getBytes() {
         final String separator = System.getProperty("line.separator");
         if (!"\n".equals(separator)) {
-            return replaceAll(xml, "\n".getBytes(), separator.getBytes());
+            return replaceAll(Arrays.copyOf(xml, length), "\n".getBytes(), separator.getBytes());
         }
-        return Arrays.copyOf(xml, xml.length);
+        return Arrays.copyOf(xml, length);
     }
 
     /**
@@ -414,22 +442,34 @@ public final class XMLTree {
      */
     @SuppressWarnings("unchecked")
     private Object evaluateXPath(String expression, QName returnType) {
-        final XPath xpath = XPATH_FACTORY.newXPath();
         try {
-            return xpath.evaluate(expression, document, returnType);
+            return compileXPath(expression).evaluate(document, returnType);
         } catch (XPathExpressionException xpathEx) {
             throw XMLTreeException.wrap(xpathEx);
         }
     }
 
     /**
-     * Parses document using {@link DocumentBuilder}
+     * Returns compiled xpath expression from the cache of the current thread,
+     * compiled expressions are neither thread-safe nor reentrant, so the cache can't be shared between threads.
+     */
+    private static XPathExpression compileXPath(String expression) throws XPathExpressionException {
+        final Map<String, XPathExpression> cache = XPATH_CACHE.get();
+        XPathExpression compiled = cache.get(expression);
+        if (compiled == null) {
+            compiled = XPATH_FACTORY.newXPath().compile(expression);
+            cache.put(expression, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Creates empty document using {@link DocumentBuilder}, it is filled while tree is constructed.
      * Rethrows all exceptions as {@link XMLTreeException}
      */
-    private Document parseQuietly(byte[] xml) {
+    private Document newDocument() {
         try {
-            final DocumentBuilder db = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
-            return db.parse(new ByteArrayInputStream(xml));
+            return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder().newDocument();
         } catch (Exception ex) {
             throw XMLTreeException.wrap(ex);
         }
@@ -449,8 +489,7 @@ public final class XMLTree {
     }
 
     /**
-     * Constructs tree based on segments which are supplied by {@link XMLStreamReader}.
-     * Before this method is invoked {@link #document} should be initialized first.
+     * Constructs tree and delegated document in a single pass over events supplied by {@link XMLStreamReader}.
      * For START_ELEMENT, END_ELEMENT, CHARACTERS reader provides offset from
      * start of source array bytes, so we can fetch position of elements and text.
      * Each created element associated with related {@link Node} and vise-versa.
@@ -460,125 +499,84 @@ public final class XMLTree {
         final LinkedList<Element> stack = new LinkedList<>();
         //before element open tag index
         int beforeStart = rootStart(xml) - 1;
-        //used to associate each element with document node
-        Node node = document.getDocumentElement();
-        //used to hold previous reader event
-        int prevEvent = START_DOCUMENT;
+        //node which receives nodes created for the reader events
+        Node parent = document;
+        //reader may split element text into several CHARACTERS and CDATA events
+        //but related text segment is single, so it is closed by the next event of other type
+        Segment text = null;
+        int textLength = 0;
         while (reader.hasNext()) {
-            switch (reader.next()) {
+            final int event = reader.next();
+            if (text != null && event != CHARACTERS && event != CDATA) {
+                text.setRight(text.left() + textLength - 1);
+                beforeStart = text.right();
+                text = null;
+            }
+            switch (event) {
                 case START_ELEMENT:
                     final Element newElement = new Element(this);
                     newElement.start = new Segment(beforeStart + 1, elementRight(beforeStart + 1, reader));
-                    //if new node is not xml root - set up relationships
-                    if (!stack.isEmpty()) {
-                        node = deepNext(node, true);
-                    }
+                    newElement.delegate = createNode(reader);
+                    parent.appendChild(newElement.delegate);
                     //connect node with element
-                    node.setUserData("element", newElement, null);
-
-                    newElement.delegate = safeCast(node);
+                    newElement.delegate.setUserData("element", newElement, null);
                     //let next event know about its start
-                    beforeStart = newElement.start.right;
+                    beforeStart = newElement.start.right();
                     //if element has declared namespaces register it
                     putNamespaces(reader);
                     stack.push(newElement);
+                    parent = newElement.delegate;
                     break;
                 case END_ELEMENT:
                     final Element element = stack.pop();
                     element.end = new Segment(beforeStart + 1, elementRight(beforeStart + 1, reader));
                     elements.add(element);
-                    beforeStart = element.end.right;
+                    beforeStart = element.end.right();
+                    parent = parent.getParentNode();
                     break;
                 case CHARACTERS:
-                    //characters event may be invoked 2 or more times
-                    //on the element text, but related node is single text node
-                    //so the only segment should be created for it
-                    if (prevEvent == CHARACTERS) continue;
-
-                    final Element current = stack.peek();
-                    if (current.text == null) {
-                        //TODO replace with array list as we know current node 'text nodes' count
-                        current.text = new LinkedList<>();
+                case CDATA:
+                    if (text == null) {
+                        final Element current = stack.peek();
+                        if (current.text == null) {
+                            current.text = new LinkedList<>();
+                        }
+                        text = new Segment(beforeStart + 1, beforeStart);
+                        textLength = 0;
+                        current.text.add(text);
+                    }
+                    textLength += reader.getTextLength();
+                    if (event == CDATA) {
+                        textLength += 12; //<![CDATA[]]> - 12
+                        parent.appendChild(document.createCDATASection(reader.getText()));
+                    } else if (parent.getLastChild() != null && parent.getLastChild().getNodeType() == TEXT_NODE) {
+                        ((Text)parent.getLastChild()).appendData(reader.getText());
+                    } else {
+                        parent.appendChild(document.createTextNode(reader.getText()));
                     }
-
-                    final Node nextNode = deepNext(node, true);
-
-                    final int left = beforeStart + 1;
-                    final int right = left + textLength(nextNode) - 1;
-
-                    current.text.add(new Segment(left, right));
-                    beforeStart = right;
-                    node = skipTextNodes(nextNode);
                     break;
                 case COMMENT:
                 case SPACE:
                 case PROCESSING_INSTRUCTION:
                     if (!stack.isEmpty()) {
-                        node = deepNext(node, true);
                         beforeStart = lastIndexOf(xml, '>', reader.getLocation().getCharacterOffset());
                     }
+                    if (event == COMMENT) {
+                        parent.appendChild(document.createComment(reader.getText()));
+                    } else if (event == PROCESSING_INSTRUCTION) {
+                        parent.appendChild(document.createProcessingInstruction(reader.getPITarget(), reader.getPIData()));
+                    } else if (!stack.isEmpty()) {
+                        parent.appendChild(document.createTextNode(reader.getText()));
+                    }
                     break;
+                case DTD:
+                    //the same as disallowed doctype declaration for document builder
+                    //avoids XML Entity Expansion injection, XML External Entity Injection
+                    throw new XMLTreeException("DOCTYPE declaration is not allowed");
                 default:
                     //DO NOTHING
             }
-            prevEvent = reader.getEventType();
-        }
-    }
-
-    /**
-     * Returns length of cdata and text nodes chain.
-     */
-    private int textLength(Node node) {
-        int length = node.getTextContent().length();
-        node = node.getNextSibling();
-        while (node != null && (node.getNodeType() == TEXT_NODE || node.getNodeType() == CDATA_SECTION_NODE)) {
-            length += node.getTextContent().length();
-            if (node.getNodeType() == CDATA_SECTION_NODE) {
-                length += 12; //<![CDATA[]]> - 12
-            }
-            node = node.getNextSibling();
         }
-        return length;
-    }
-
-    /**
-     * Returns safe Element instance for node or throws exception
-     * if it is not possible to cast {@code node} to {@link org.w3c.dom.Element}.
-     */
-    private org.w3c.dom.Element safeCast(Node node) {
-        if (!(node instanceof org.w3c.dom.Element)) {
-            throw new XMLTreeException("It is not possible to associate xml elements");
-        }
-        return (org.w3c.dom.Element)node;
-    }
-
-    /**
-     * Returns last text or cdata node in the chain of cdata and text nodes.
-     * <p>
-     * i.e. node1 is text <i>node</i> and <i>node1</i> has next sibling <i>node2</i> as cdata node and
-     * <i>node2</i> has next sibling <i>node3</i> as text node and node3 has next sibling <i>node4</i> as element
-     * node, then <i>node3</i> will be returned as last text node in the chain. Consider following examples:
-     * <pre>
-     * 1.
-     * node3 - last text node
-     *
-     * text     cdata    text     element
-     * node1 -> node2 -> node3 -> node4
-     *
-     * 2.
-     * node2 - last text result
-     *
-     * text     cdata
-     * node1 -> node2 -> null
-     *
-     * </pre>
-     */
-    private Node skipTextNodes(Node node) {
-        final Node next = node.getNextSibling();
-        if (next != null && (next.getNodeType() == CDATA_SECTION_NODE || next.getNodeType() == TEXT_NODE)) {
-            return skipTextNodes(next);
-        }
-        return node;
     }
 
     /**
@@ -595,17 +593,26 @@ public final class XMLTree {
         return rightIdx;
     }
 
-    private Node deepNext(Node node, boolean deep) {
-        if (deep && node.getChildNodes().getLength() != 0) {
-            return node.getFirstChild();
+    /**
+     * Creates node for the element which START_ELEMENT event is current for the reader.
+     * Document is not namespace aware, as if it was parsed by {@link DocumentBuilder},
+     * so namespace declarations become regular attributes.
+     */
+    private org.w3c.dom.Element createNode(XMLStreamReader reader) {
+        final org.w3c.dom.Element node = document.createElement(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            final String prefix = reader.getNamespacePrefix(i);
+            node.setAttribute(qualifiedName(isNullOrEmpty(prefix) ? null : "xmlns", isNullOrEmpty(prefix) ? "xmlns" : prefix),
+                              reader.getNamespaceURI(i));
         }
-        final Node next = node.getNextSibling();
-        if (next != null) {
-            return next;
-        } else if (node == document.getDocumentElement()) {
-            return node;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            node.setAttribute(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
         }
-        return deepNext(node.getParentNode(), false);
+        return node;
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return isNullOrEmpty(prefix) ? localName : prefix + ':' + localName;
     }
 
     /**
@@ -637,7 +644,7 @@ public final class XMLTree {
      */
     private XMLStreamReader newXMLStreamReader() {
         try {
-            return XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml), "UTF-8");
+            return XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml, 0, length), "UTF-8");
         } catch (Exception xmlEx) {
             throw XMLTreeException.wrap(xmlEx);
         }
@@ -656,7 +663,7 @@ public final class XMLTree {
         if (target.text == null) {
             target.text = new LinkedList<>();
             //updateSegmentContent will set up right bound
-            target.text.add(new Segment(target.start.right + 1, target.start.right));
+            target.text.add(new Segment(target.start.right() + 1, target.start.right()));
         }
         final Iterator<Segment> segIt = target.text.iterator();
         final Segment first = segIt.next();
@@ -679,14 +686,11 @@ public final class XMLTree {
      */
     void appendChild(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
-        final int insertHere = lastIndexOf(xml, '>', parent.end.left) + 1;
+        final int insertHere = lastIndexOf(xml, '>', parent.end.left()) + 1;
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         insertHere,
-                         '\n' + tabulate(newElement.asString(), level));
+        final int offset = insert(insertHere, '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(insertHere, xml.length - lengthBefore);
+        shiftSegments(insertHere, offset);
         //create and set up start, end, text segments to created element
         applySegments(newElement, relatedToNew, insertHere - 1, level);
         //let tree know about added element
@@ -698,16 +702,13 @@ public final class XMLTree {
      */
     void insertAfter(NewElement newElement, Element relatedToNew, Element refElement) {
         final int level = level(refElement);
-        final int lengthBefore = xml.length;
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         refElement.end.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        final int offset = insert(refElement.end.right() + 1, '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(refElement.end.right, xml.length - lengthBefore);
+        shiftSegments(refElement.end.right(), offset);
         //create and set up start, end, text segments to created element
         //+1 because of \n
-        applySegments(newElement, relatedToNew, refElement.end.right, level);
+        applySegments(newElement, relatedToNew, refElement.end.right(), level);
         //let tree know about inserted element
         registerElement(relatedToNew);
     }
@@ -722,15 +723,12 @@ public final class XMLTree {
      */
     void insertAfterParent(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
         //inserting after parent
-        xml = insertInto(xml,
-                         parent.start.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        final int offset = insert(parent.start.right() + 1, '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(parent.start.right, xml.length - lengthBefore);
+        shiftSegments(parent.start.right(), offset);
         //create and set up start, end, text segments to created element
-        applySegments(newElement, relatedToNew, parent.start.right, level);
+        applySegments(newElement, relatedToNew, parent.start.right(), level);
         //let tree know about inserted element
         registerElement(relatedToNew);
     }
@@ -760,20 +758,16 @@ public final class XMLTree {
      * good and pretty formatted before document.
      */
     void removeElement(Element element) {
-        final int leftBound = lastIndexOf(xml, '>', element.start.left) + 1;
-        final int lengthBefore = xml.length;
+        final int leftBound = lastIndexOf(xml, '>', element.start.left()) + 1;
         //if text segment before removal element
         //exists it should go to hell with removal
-        if (leftBound != element.start.left - 1) {
+        if (leftBound != element.start.left() - 1) {
             removeSegmentFromElement(element.getParent(), leftBound);
         }
         //replacing content with nothing
-        xml = insertBetween(xml,
-                            leftBound,
-                            element.end.right,
-                            "");
+        final int offset = replace(leftBound, element.end.right(), "");
         //shift all elements which are right from removed element
-        shiftSegments(element.end.right, xml.length - lengthBefore);
+        shiftSegments(element.end.right(), offset);
         //let tree know that element is not a family member
         unregisterElement(element);
     }
@@ -782,13 +776,10 @@ public final class XMLTree {
      * Inserts new attribute value content to tree bytes
      */
     void insertAttribute(NewAttribute attribute, Element owner) {
-        final int len = xml.length;
         //inserting new attribute content
-        xml = insertInto(xml,
-                         owner.start.right,
-                         ' ' + attribute.asString());
+        final int offset = insert(owner.start.right(), ' ' + attribute.asString());
         //shift all elements which are right from removed element
-        shiftSegments(owner.start.left - 1, xml.length - len);
+        shiftSegments(owner.start.left() - 1, offset);
     }
 
     /**
@@ -796,15 +787,11 @@ public final class XMLTree {
      */
     void removeAttribute(Attribute attribute) {
         final Element element = attribute.getElement();
-        final int lengthBefore = xml.length;
         final Segment segment = attributeSegment(attribute);
         //replacing attribute segment with nothing
-        xml = insertBetween(xml,
-                            segment.left - 1,
-                            segment.right,
-                            "");
+        final int offset = replace(segment.left() - 1, segment.right(), "");
         //shift all elements which are left from owner left
-        shiftSegments(element.start.left, xml.length - lengthBefore);
+        shiftSegments(element.start.left(), offset);
     }
 
     //TODO should it be public?
@@ -818,29 +805,12 @@ public final class XMLTree {
         return uri == null ? XML_NS_URI : uri;
     }
 
-    /**
-     * Shift given segment on offset if it is righter then idx
-     *
-     * @param segment
-     *         segment to shift
-     * @param leftBound
-     *         left bound
-     * @param offset
-     *         offset to shift on, it can be negative
-     */
-    private void shiftSegment(Segment segment, int leftBound, int offset) {
-        if (segment.left > leftBound) {
-            segment.left += offset;
-            segment.right += offset;
-        }
-    }
-
     /**
      * Removes segment which left bound equal to {@param left} from element
      */
     private void removeSegmentFromElement(Element element, int left) {
         for (Iterator<Segment> segIt = element.text.iterator(); segIt.hasNext(); ) {
-            if (segIt.next().left == left) {
+            if (segIt.next().left() == left) {
                 segIt.remove();
                 break;
             }
@@ -848,20 +818,38 @@ public final class XMLTree {
     }
 
     /**
-     * Iterates all existed elements and shifts their segments if needed
+     * Shifts on offset all the segments which are righter then given index.
+     * Segments are shifted lazily, edit is only logged and applied to a segment when the segment is accessed,
+     * so cost of the edit doesn't depend on count of the tree elements.
      */
     private void shiftSegments(int fromIdx, int offset) {
+        if (editsCount == editPositions.length) {
+            compactEdits();
+        }
+        editPositions[editsCount] = fromIdx;
+        editOffsets[editsCount] = offset;
+        editsCount++;
+    }
+
+    /**
+     * Applies all logged edits to the segments of existed elements and clears the log.
+     */
+    private void compactEdits() {
         for (Element element : elements) {
-            if (element.end.left > fromIdx) {
-                shiftSegment(element.start, fromIdx, offset);
-                shiftSegment(element.end, fromIdx, offset);
-                if (element.text != null) {
-                    for (Segment textSegment : element.text) {
-                        shiftSegment(textSegment, fromIdx, offset);
-                    }
-                }
+            element.start.shift();
+            element.end.shift();
+            if (element.text != null) {
+                element.text.forEach(Segment::shift);
             }
         }
+        for (Element element : elements) {
+            element.start.shifted = 0;
+            element.end.shifted = 0;
+            if (element.text != null) {
+                element.text.forEach(segment -> segment.shifted = 0);
+            }
+        }
+        editsCount = 0;
     }
 
     /**
@@ -869,9 +857,7 @@ public final class XMLTree {
      * on offset equal to removal segment length
      */
     private void removeSegment(Segment segment) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, "");
-        shiftSegments(segment.left, xml.length - lengthBefore);
+        shiftSegments(segment.left(), replace(segment.left(), segment.right(), ""));
     }
 
     /**
@@ -880,10 +866,40 @@ public final class XMLTree {
      * source bytes length
      */
     private void updateSegmentContent(Segment segment, String content) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, content);
-        shiftSegments(segment.left, xml.length - lengthBefore);
-        segment.right = segment.left + content.length() - 1;
+        shiftSegments(segment.left(), replace(segment.left(), segment.right(), content));
+        segment.setRight(segment.left() + content.length() - 1);
+    }
+
+    /**
+     * Inserts content bytes before given position.
+     *
+     * @return difference between new and old source bytes length
+     */
+    private int insert(int pos, String content) {
+        return replace(pos, pos - 1, content);
+    }
+
+    /**
+     * Replaces source bytes between left and right inclusive bounds with content bytes.
+     * Bytes are moved in place, so only the tail after the replaced bytes is copied,
+     * source array grows with spare capacity to make subsequent insertions cheap.
+     *
+     * @return difference between new and old source bytes length
+     */
+    private int replace(int left, int right, String content) {
+        final byte[] contentSrc = content.getBytes(UTF_8);
+        final int offset = contentSrc.length - (right - left + 1);
+        if (length + offset > xml.length) {
+            xml = Arrays.copyOf(xml, Math.max(length + offset, length + (length >> 1)));
+        }
+        System.arraycopy(xml, right + 1, xml, right + 1 + offset, length - right - 1);
+        System.arraycopy(contentSrc, 0, xml, left, contentSrc.length);
+        if (offset < 0) {
+            //free space must not be matched while searching source bytes
+            Arrays.fill(xml, length + offset, length, (byte)0);
+        }
+        length += offset;
+        return offset;
     }
 
     /**
@@ -915,7 +931,7 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = attribute.getValue().getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
+        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left() + owner.getName().length());
         final int valueLeft = indexOf(xml, value, attrLeft + name.length);
 
         return new Segment(attrLeft, valueLeft + value.length);
@@ -930,7 +946,7 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = oldValue.getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
+        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left() + owner.getName().length());
         final int valueLeft = indexOf(xml, value, attrLeft + name.length);
 
         return new Segment(valueLeft, valueLeft + value.length - 1);
@@ -1007,7 +1023,7 @@ public final class XMLTree {
         }
         relatedToNew.text.add(new Segment(childRight + 1, beforeCloseLeft));
         relatedToNew.end = new Segment(beforeCloseLeft + 1, beforeCloseLeft + closeTagLength(newElement));
-        return relatedToNew.end.right;
+        return relatedToNew.end.right();
     }
 
     private byte[] normalizeLineEndings(byte[] src) {
@@ -1024,14 +1040,42 @@ public final class XMLTree {
     /**
      * Describes element, attribute or text position in
      * the source array of bytes.
+     * Position is shifted by the tree edits which were made after the last access to the segment.
      */
-    static class Segment {
-        int left;
-        int right;
+    class Segment {
+        private int left;
+        private int right;
+        //count of the logged edits which are already applied to the segment
+        private int shifted;
 
         Segment(int left, int right) {
             this.left = left;
             this.right = right;
+            this.shifted = editsCount;
+        }
+
+        int left() {
+            shift();
+            return left;
+        }
+
+        int right() {
+            shift();
+            return right;
+        }
+
+        void setRight(int right) {
+            shift();
+            this.right = right;
+        }
+
+        private void shift() {
+            for (; shifted < editsCount; shifted++) {
+                if (left > editPositions[shifted]) {
+                    left += editOffsets[shifted];
+                    right += editOffsets[shifted];
+                }
+            }
         }
 
         @Override
@@ -1043,17 +1087,17 @@ public final class XMLTree {
                 return false;
             }
             final Segment other = (Segment)obj;
-            return other.left == left && other.right == right;
+            return other.left() == left() && other.right() == right();
         }
 
         @Override
         public int hashCode() {
-            return 31 * left ^ 31 * right;
+            return 31 * left() ^ 31 * right();
         }
 
         @Override
         public String toString() {
-            return "left: " + left + ", right: " + right;
+            return "left: " + left() + ", right: " + right();
         }
     }
 
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.xml;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+import static org.eclipse.che.commons.xml.NewElement.createElement;
+
+/**
+ * Measures parsing, querying and editing of the poms from the test resources the way maven model does it.
+ * Tree for the queries is parsed once, edits are applied to the freshly parsed tree on each iteration.
+ */
+public class XMLTreeBenchmark {
+    private static final String[] POMS   = {"petclinic-pom.xml", "nuxeo-pom.xml"};
+    private static final int      WARMUP = 50;
+
+    public static void main(String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        for (String pom : POMS) {
+            final byte[] xml = read(pom);
+            for (int i = 0; i < WARMUP; i++) {
+                parse(xml);
+                query(XMLTree.from(xml));
+                edit(XMLTree.from(xml));
+            }
+            report(pom, "parse", iterations, () -> parse(xml));
+            final XMLTree tree = XMLTree.from(xml);
+            report(pom, "query", iterations, () -> query(tree));
+            report(pom, "parse and edit", iterations, () -> edit(XMLTree.from(xml)));
+        }
+    }
+
+    private static int parse(byte[] xml) {
+        return XMLTree.from(xml).getRoot().getChildren().size();
+    }
+
+    /** Queries which are done by maven model when it is read. */
+    private static int query(XMLTree tree) {
+        int found = tree.getText("/project/modelVersion").size();
+        found += tree.getText("/project/groupId").size();
+        found += tree.getText("/project/artifactId").size();
+        found += tree.getText("/project/version").size();
+        found += tree.getText("/project/packaging").size();
+        found += tree.getElements("/project/parent").size();
+        found += tree.getElements("/project/modules/module").size();
+        found += tree.getElements("/project/properties/*").size();
+        found += tree.getElements("/project/dependencyManagement/dependencies/dependency").size();
+        found += tree.getElements("/project/dependencies/dependency").size();
+        found += tree.getElements("/project/build/plugins/plugin").size();
+        return found;
+    }
+
+    /** Edits which are done by maven model when dependencies are updated. */
+    private static int edit(XMLTree tree) {
+        final List<Element> versions = tree.getElements("//dependency/version");
+        for (Element version : versions) {
+            version.setText(version.getText() + "-SNAPSHOT");
+        }
+        final Element dependencies = tree.getElements("/project/dependencies").stream()
+                                         .findFirst()
+                                         .orElseGet(() -> tree.getRoot().appendChild(createElement("dependencies"))
+                                                              .getSingleChild("dependencies"));
+        for (int i = 0; i < 20; i++) {
+            dependencies.appendChild(createElement("dependency",
+                                                   createElement("groupId", "org.eclipse.che"),
+                                                   createElement("artifactId", "artifact-" + i),
+                                                   createElement("version", "1.0.0")));
+        }
+        return tree.getBytes().length + versions.size();
+    }
+
+    private static void report(String pom, String name, int iterations, Operation operation) {
+        long result = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            result += operation.run();
+        }
+        final double micros = (System.nanoTime() - start) / 1e3 / iterations;
+        System.out.printf("%-20s %-15s %10.1f us/op (%d)%n", pom, name, micros, result);
+    }
+
+    private static byte[] read(String name) throws Exception {
+        try (InputStream in = XMLTreeBenchmark.class.getClassLoader().getResourceAsStream("test-xml-files/" + name)) {
+            return toByteArray(in);
+        }
+    }
+
+    private interface Operation {
+        int run();
+    }
+}
@@ -1518,6 +1518,27 @@ public class XMLTreeTest {
                                       "</project>");
     }
 
+    @Test
+    public void shouldBeAbleToUpdateTreeWhenElementTextStartsWithCDATA() {
+        final XMLTree tree = XMLTree.from("<project>\n" +
+                                          "    <replace>\n" +
+                                          "        <token><![CDATA[<base href=\"/\">]]></token>\n" +
+                                          "        <value><![CDATA[<base>]]>text</value>\n" +
+                                          "    </replace>\n" +
+                                          "    <name>old</name>\n" +
+                                          "</project>");
+
+        tree.updateText("/project/name", "new");
+        tree.removeElement("/project/replace/value");
+
+        assertEquals(tree.toString(), "<project>\n" +
+                                      "    <replace>\n" +
+                                      "        <token><![CDATA[<base href=\"/\">]]></token>\n" +
+                                      "    </replace>\n" +
+                                      "    <name>new</name>\n" +
+                                      "</project>");
+    }
+
     @Test(expectedExceptions = XMLTreeException.class,
             expectedExceptionsMessageRegExp = "Operation not permitted for element which has been removed from XMLTree")
     public void shouldNotBeAbleToUseElementWhenParentWasRemovedFromTree() {
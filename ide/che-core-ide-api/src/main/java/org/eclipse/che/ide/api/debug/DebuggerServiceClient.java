@@ -12,6 +12,7 @@ package org.eclipse.che.ide.api.debug;
 
 import org.eclipse.che.api.debug.shared.dto.BreakpointDto;
 import org.eclipse.che.api.debug.shared.dto.DebugSessionDto;
+import org.eclipse.che.api.debug.shared.dto.EvaluationResultDto;
 import org.eclipse.che.api.debug.shared.dto.LocationDto;
 import org.eclipse.che.api.debug.shared.dto.StackFrameDumpDto;
 import org.eclipse.che.api.debug.shared.dto.SimpleValueDto;
@@ -142,6 +143,18 @@ public interface DebuggerServiceClient {
      */
     Promise<SimpleValueDto> getValue(String id, VariableDto variableDto);
 
+    /**
+     * Returns a value of the variable with only the requested range of its nested variables.
+     *
+     * @param id
+     *      debug session id
+     * @param skipCount
+     *      the number of nested variables to skip
+     * @param maxItems
+     *      the maximum number of nested variables to return, negative value means all of them
+     */
+    Promise<SimpleValueDto> getValue(String id, VariableDto variableDto, int skipCount, int maxItems);
+
     /**
      * Sets the new value of the variable.
      *
@@ -189,4 +202,16 @@ public interface DebuggerServiceClient {
      *      the expression to evaluate
      */
     Promise<String> evaluate(String id, String expression);
+
+    /**
+     * Evaluate the expressions, e.g. watch expressions, with a single request.
+     *
+     * @param id
+     *      debug session id
+     * @param expressions
+     *      the expressions to evaluate
+     * @return results in the same order as the expressions, the result of an expression which can't be evaluated
+     * holds the error message instead of the value
+     */
+    Promise<List<EvaluationResultDto>> evaluateAll(String id, List<String> expressions);
 }
@@ -11,11 +11,14 @@
 package org.eclipse.che.ide.api.debug;
 
 import com.google.gwt.http.client.URL;
+import com.google.gwt.json.client.JSONArray;
+import com.google.gwt.json.client.JSONString;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import org.eclipse.che.api.debug.shared.dto.BreakpointDto;
 import org.eclipse.che.api.debug.shared.dto.DebugSessionDto;
+import org.eclipse.che.api.debug.shared.dto.EvaluationResultDto;
 import org.eclipse.che.api.debug.shared.dto.LocationDto;
 import org.eclipse.che.api.debug.shared.dto.SimpleValueDto;
 import org.eclipse.che.api.debug.shared.dto.StackFrameDumpDto;
@@ -139,6 +142,11 @@ public class DebuggerServiceClientImpl implements DebuggerServiceClient {
 
     @Override
     public Promise<SimpleValueDto> getValue(String id, VariableDto variableDto) {
+        return getValue(id, variableDto, 0, -1);
+    }
+
+    @Override
+    public Promise<SimpleValueDto> getValue(String id, VariableDto variableDto, int skipCount, int maxItems) {
         final String requestUrl = getBaseUrl(id) + "/value";
         List<String> path = variableDto.getVariablePath().getPath();
 
@@ -150,6 +158,11 @@ public class DebuggerServiceClientImpl implements DebuggerServiceClient {
             params.append("=");
             params.append(path.get(i));
         }
+        if (skipCount != 0 || maxItems >= 0) {
+            params.append(params.length() == 0 ? "?" : "&");
+            params.append("skipCount=").append(skipCount);
+            params.append("&maxItems=").append(maxItems);
+        }
 
         return asyncRequestFactory.createGetRequest(requestUrl + params)
                                   .send(dtoUnmarshallerFactory.newUnmarshaller(SimpleValueDto.class));
@@ -186,6 +199,19 @@ public class DebuggerServiceClientImpl implements DebuggerServiceClient {
                                   .send(new StringUnmarshaller());
     }
 
+    @Override
+    public Promise<List<EvaluationResultDto>> evaluateAll(String id, List<String> expressions) {
+        String requestUrl = getBaseUrl(id) + "/evaluation";
+        JSONArray body = new JSONArray();
+        for (int i = 0; i < expressions.size(); i++) {
+            body.set(i, new JSONString(expressions.get(i)));
+        }
+        return asyncRequestFactory.createPostRequest(requestUrl, null)
+                                  .header(CONTENT_TYPE, APPLICATION_JSON)
+                                  .data(body.toString())
+                                  .send(dtoUnmarshallerFactory.newListUnmarshaller(EvaluationResultDto.class));
+    }
+
     private String getBaseUrl(String id) {
         final String url = appContext.getDevMachine().getWsAgentBaseUrl() + "/debugger";
         if (id != null) {
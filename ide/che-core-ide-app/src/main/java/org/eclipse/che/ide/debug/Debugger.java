@@ -10,12 +10,14 @@
  *******************************************************************************/
 package org.eclipse.che.ide.debug;
 
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
 import org.eclipse.che.api.debug.shared.model.StackFrameDump;
 import org.eclipse.che.api.debug.shared.model.SimpleValue;
 import org.eclipse.che.api.debug.shared.model.Variable;
 import org.eclipse.che.api.promises.client.Promise;
 import org.eclipse.che.ide.api.resources.VirtualFile;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -98,11 +100,27 @@ public interface Debugger extends DebuggerObservable {
      */
     Promise<String> evaluate(String expression);
 
+    /**
+     * Evaluates the given expressions at once, e.g. watch expressions.
+     * The result of an expression which can't be evaluated holds the error message instead of the value.
+     */
+    Promise<List<EvaluationResult>> evaluateAll(List<String> expressions);
+
     /**
      * Gets the value of the given variable.
      */
     Promise<SimpleValue> getValue(Variable variable);
 
+    /**
+     * Gets the value of the given variable with only the requested range of its nested variables.
+     *
+     * @param skipCount
+     *         the number of nested variables to skip
+     * @param maxItems
+     *         the maximum number of nested variables to return, negative value means all of them
+     */
+    Promise<SimpleValue> getValue(Variable variable, int skipCount, int maxItems);
+
     /**
      * Gets dump the current frame.
      */
@@ -157,9 +157,15 @@ public interface DebuggerLocalizationConstant extends com.google.gwt.i18n.client
     @Key("view.evaluateExpression.closeButton.title")
     String evaluateExpressionViewCloseButtonTitle();
 
+    @Key("view.evaluateExpression.watchButton.title")
+    String evaluateExpressionViewWatchButtonTitle();
+
     @Key("evaluateExpressionFailed")
     String evaluateExpressionFailed(String reason);
 
+    @Key("watchExpressionFailed")
+    String watchExpressionFailed(String reason);
+
     @Key("connect.to.remote")
     String connectToRemote();
 
@@ -16,6 +16,7 @@ import com.google.web.bindery.event.shared.EventBus;
 
 import org.eclipse.che.api.debug.shared.dto.BreakpointDto;
 import org.eclipse.che.api.debug.shared.dto.DebugSessionDto;
+import org.eclipse.che.api.debug.shared.dto.EvaluationResultDto;
 import org.eclipse.che.api.debug.shared.dto.LocationDto;
 import org.eclipse.che.api.debug.shared.dto.SimpleValueDto;
 import org.eclipse.che.api.debug.shared.dto.StackFrameDumpDto;
@@ -31,12 +32,14 @@ import org.eclipse.che.api.debug.shared.dto.event.BreakpointActivatedEventDto;
 import org.eclipse.che.api.debug.shared.dto.event.DebuggerEventDto;
 import org.eclipse.che.api.debug.shared.dto.event.SuspendEventDto;
 import org.eclipse.che.api.debug.shared.model.DebuggerInfo;
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
 import org.eclipse.che.api.debug.shared.model.Location;
 import org.eclipse.che.api.debug.shared.model.SimpleValue;
 import org.eclipse.che.api.debug.shared.model.StackFrameDump;
 import org.eclipse.che.api.debug.shared.model.Variable;
 import org.eclipse.che.api.debug.shared.model.VariablePath;
 import org.eclipse.che.api.debug.shared.model.action.Action;
+import org.eclipse.che.api.debug.shared.model.impl.EvaluationResultImpl;
 import org.eclipse.che.api.debug.shared.model.impl.SimpleValueImpl;
 import org.eclipse.che.api.debug.shared.model.impl.StackFrameDumpImpl;
 import org.eclipse.che.api.promises.client.Function;
@@ -298,11 +301,16 @@ public abstract class AbstractDebugger implements Debugger, DebuggerObservable {
 
     @Override
     public Promise<SimpleValue> getValue(Variable variable) {
+        return getValue(variable, 0, -1);
+    }
+
+    @Override
+    public Promise<SimpleValue> getValue(Variable variable, int skipCount, int maxItems) {
         if (!isConnected()) {
             return Promises.reject(JsPromiseError.create("Debugger is not connected"));
         }
 
-        Promise<SimpleValueDto> promise = service.getValue(debugSessionDto.getId(), asDto(variable));
+        Promise<SimpleValueDto> promise = service.getValue(debugSessionDto.getId(), asDto(variable), skipCount, maxItems);
         return promise.then(new Function<SimpleValueDto, SimpleValue>() {
             @Override
             public SimpleValue apply(SimpleValueDto arg) throws FunctionException {
@@ -630,6 +638,25 @@ public abstract class AbstractDebugger implements Debugger, DebuggerObservable {
         return Promises.reject(JsPromiseError.create("Debugger is not connected"));
     }
 
+    @Override
+    public Promise<List<EvaluationResult>> evaluateAll(List<String> expressions) {
+        if (isConnected()) {
+            return service.evaluateAll(debugSessionDto.getId(), expressions)
+                          .then(new Function<List<EvaluationResultDto>, List<EvaluationResult>>() {
+                              @Override
+                              public List<EvaluationResult> apply(List<EvaluationResultDto> arg) throws FunctionException {
+                                  List<EvaluationResult> results = new ArrayList<>(arg.size());
+                                  for (EvaluationResultDto result : arg) {
+                                      results.add(new EvaluationResultImpl(result));
+                                  }
+                                  return results;
+                              }
+                          });
+        }
+
+        return Promises.reject(JsPromiseError.create("Debugger is not connected"));
+    }
+
     @Override
     public void setValue(final Variable variable) {
         if (isConnected()) {
@@ -15,12 +15,16 @@ import com.google.gwt.user.client.ui.IsWidget;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
 import org.eclipse.che.api.debug.shared.model.Location;
 import org.eclipse.che.api.debug.shared.model.MutableVariable;
 import org.eclipse.che.api.debug.shared.model.SimpleValue;
 import org.eclipse.che.api.debug.shared.model.StackFrameDump;
 import org.eclipse.che.api.debug.shared.model.Variable;
 import org.eclipse.che.api.debug.shared.model.impl.LocationImpl;
+import org.eclipse.che.api.debug.shared.model.impl.MutableVariableImpl;
+import org.eclipse.che.api.debug.shared.model.impl.VariableImpl;
+import org.eclipse.che.api.debug.shared.model.impl.VariablePathImpl;
 import org.eclipse.che.api.promises.client.Operation;
 import org.eclipse.che.api.promises.client.OperationException;
 import org.eclipse.che.api.promises.client.Promise;
@@ -47,7 +51,10 @@ import org.vectomatic.dom.svg.ui.SVGResource;
 
 import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.eclipse.che.ide.api.notification.StatusNotification.DisplayMode.FLOAT_MODE;
 import static org.eclipse.che.ide.api.notification.StatusNotification.DisplayMode.NOT_EMERGE_MODE;
@@ -69,7 +76,10 @@ import static org.eclipse.che.ide.api.notification.StatusNotification.Status.SUC
 public class DebuggerPresenter extends BasePresenter implements DebuggerView.ActionDelegate,
                                                                 DebuggerManagerObserver,
                                                                 BreakpointManagerObserver {
-    private static final String TITLE = "Debug";
+    private static final String TITLE                 = "Debug";
+    /** The number of nested variables loaded at once when a variable is expanded. */
+    static final         int    VARIABLES_PAGE_SIZE   = 100;
+    static final         String MORE_VARIABLES_NAME   = "...";
 
     private final DebuggerResources            debuggerResources;
     private final ToolbarPresenter             debuggerToolbar;
@@ -85,6 +95,11 @@ public class DebuggerPresenter extends BasePresenter implements DebuggerView.Act
     private DebuggerDescriptor debuggerDescriptor;
     private Location           executionPoint;
 
+    /** "..." nodes which load the rest of nested variables, mapped to the number of variables loaded before them. */
+    private final Map<MutableVariable, Integer> moreVariables    = new IdentityHashMap<>();
+    /** Expressions which are evaluated each time the debugger suspends, results are shown above the variables. */
+    private final List<String>                  watchExpressions = new ArrayList<>();
+
     @Inject
     public DebuggerPresenter(final DebuggerView view,
                              final DebuggerLocalizationConstant constant,
@@ -149,13 +164,35 @@ public class DebuggerPresenter extends BasePresenter implements DebuggerView.Act
         if (rootVariables.isEmpty()) {
             Debugger debugger = debuggerManager.getActiveDebugger();
             if (debugger != null) {
-                Promise<SimpleValue> promise = debugger.getValue(selectedVariable);
+                final MutableVariable expanded = selectedVariable;
+                final Integer loaded = moreVariables.get(expanded);
+                final int skipCount = loaded == null ? 0 : loaded;
+                // one extra item tells whether there is anything beyond the page
+                Promise<SimpleValue> promise = debugger.getValue(expanded, skipCount, VARIABLES_PAGE_SIZE + 1);
 
                 promise.then(new Operation<SimpleValue>() {
                     @Override
                     public void apply(SimpleValue arg) throws OperationException {
-                        selectedVariable.setValue(arg.getValue());
-                        view.setVariablesIntoSelectedVariable(arg.getVariables());
+                        List<Variable> page = new ArrayList<>(arg.getVariables());
+                        boolean hasMore = page.size() > VARIABLES_PAGE_SIZE;
+                        if (hasMore) {
+                            page = new ArrayList<>(page.subList(0, VARIABLES_PAGE_SIZE));
+                            page.add(new MutableVariableImpl(expanded.getType(),
+                                                             MORE_VARIABLES_NAME,
+                                                             "",
+                                                             expanded.getVariablePath(),
+                                                             false,
+                                                             null,
+                                                             true));
+                        }
+                        if (loaded == null) {
+                            expanded.setValue(arg.getValue());
+                        }
+                        view.setVariablesIntoSelectedVariable(page);
+                        if (hasMore) {
+                            List<MutableVariable> children = expanded.getVariables();
+                            moreVariables.put(children.get(children.size() - 1), skipCount + VARIABLES_PAGE_SIZE);
+                        }
                         view.updateSelectedVariable();
                     }
                 }).catchError(new Operation<PromiseError>() {
@@ -189,8 +226,59 @@ public class DebuggerPresenter extends BasePresenter implements DebuggerView.Act
         return partStack != null && partStack.containsPart(this);
     }
 
+    /**
+     * Adds expression to evaluate each time the debugger suspends. Watch expressions are kept
+     * until the debugger is disconnected.
+     */
+    public void addWatchExpression(String expression) {
+        if (!watchExpressions.contains(expression)) {
+            watchExpressions.add(expression);
+        }
+        updateStackFrameDump();
+    }
+
+    /** Evaluates all the watch expressions with a single request and shows the results above the variables of the frame. */
+    private void evaluateWatchExpressions(Debugger debugger) {
+        if (watchExpressions.isEmpty()) {
+            return;
+        }
+        final List<String> expressions = new ArrayList<>(watchExpressions);
+        final List<Variable> frameVariables = variables;
+        debugger.evaluateAll(expressions).then(new Operation<List<EvaluationResult>>() {
+            @Override
+            public void apply(List<EvaluationResult> results) throws OperationException {
+                if (frameVariables != variables || executionPoint == null) {
+                    // frame is already changed
+                    return;
+                }
+                List<Variable> watches = new ArrayList<>(expressions.size());
+                for (int i = 0; i < expressions.size(); i++) {
+                    String expression = expressions.get(i);
+                    EvaluationResult result = results.get(i);
+                    String value = result.getError() == null ? result.getValue()
+                                                             : constant.watchExpressionFailed(result.getError());
+                    watches.add(new VariableImpl("",
+                                                 expression,
+                                                 value,
+                                                 true,
+                                                 new VariablePathImpl(expression),
+                                                 Collections.<Variable>emptyList(),
+                                                 true));
+                }
+                variables.addAll(0, watches);
+                view.setVariables(variables);
+            }
+        }).catchError(new Operation<PromiseError>() {
+            @Override
+            public void apply(PromiseError arg) throws OperationException {
+                Log.error(DebuggerPresenter.class, arg.getCause());
+            }
+        });
+    }
+
     private void resetStates() {
         variables.clear();
+        moreVariables.clear();
         view.setVariables(variables);
         view.setVMName("");
         view.setExecutionPoint(null);
@@ -229,17 +317,19 @@ public class DebuggerPresenter extends BasePresenter implements DebuggerView.Act
     }
 
     private void updateStackFrameDump() {
-        Debugger debugger = debuggerManager.getActiveDebugger();
+        final Debugger debugger = debuggerManager.getActiveDebugger();
         if (debugger != null && executionPoint != null) {
             Promise<StackFrameDump> promise = debugger.dumpStackFrame();
             promise.then(new Operation<StackFrameDump>() {
                 @Override
                 public void apply(StackFrameDump arg) throws OperationException {
                     variables = new ArrayList<>();
+                    moreVariables.clear();
                     variables.addAll(arg.getFields());
                     variables.addAll(arg.getVariables());
 
                     view.setVariables(variables);
+                    evaluateWatchExpressions(debugger);
                 }
             }).catchError(new Operation<PromiseError>() {
                 @Override
@@ -296,6 +386,7 @@ public class DebuggerPresenter extends BasePresenter implements DebuggerView.Act
 
         executionPoint = null;
         debuggerDescriptor = null;
+        watchExpressions.clear();
 
         resetStates();
         showAndUpdateView();
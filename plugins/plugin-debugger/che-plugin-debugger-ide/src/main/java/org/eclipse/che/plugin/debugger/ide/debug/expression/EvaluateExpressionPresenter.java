@@ -19,6 +19,7 @@ import org.eclipse.che.api.promises.client.PromiseError;
 import org.eclipse.che.ide.debug.Debugger;
 import org.eclipse.che.ide.debug.DebuggerManager;
 import org.eclipse.che.plugin.debugger.ide.DebuggerLocalizationConstant;
+import org.eclipse.che.plugin.debugger.ide.debug.DebuggerPresenter;
 
 /**
  * Presenter for evaluating an expression.
@@ -30,13 +31,16 @@ public class EvaluateExpressionPresenter implements EvaluateExpressionView.Actio
     private DebuggerManager              debuggerManager;
     private EvaluateExpressionView       view;
     private DebuggerLocalizationConstant constant;
+    private DebuggerPresenter            debuggerPresenter;
 
     @Inject
     public EvaluateExpressionPresenter(EvaluateExpressionView view,
                                        DebuggerLocalizationConstant constant,
-                                       DebuggerManager debuggerManager) {
+                                       DebuggerManager debuggerManager,
+                                       DebuggerPresenter debuggerPresenter) {
         this.view = view;
         this.debuggerManager = debuggerManager;
+        this.debuggerPresenter = debuggerPresenter;
         this.view.setDelegate(this);
         this.constant = constant;
     }
@@ -44,6 +48,7 @@ public class EvaluateExpressionPresenter implements EvaluateExpressionView.Actio
     public void showDialog() {
         view.setResult("");
         view.setEnableEvaluateButton(false);
+        view.setEnableWatchButton(false);
         view.showDialog();
         view.focusInExpressionField();
     }
@@ -82,11 +87,22 @@ public class EvaluateExpressionPresenter implements EvaluateExpressionView.Actio
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void onWatchClicked() {
+        final String expression = view.getExpression().trim();
+        if (!expression.isEmpty()) {
+            debuggerPresenter.addWatchExpression(expression);
+        }
+        view.close();
+    }
+
     /** {@inheritDoc} */
     @Override
     public void onExpressionValueChanged() {
         final String expression = view.getExpression();
         boolean isExpressionFieldNotEmpty = !expression.trim().isEmpty();
         view.setEnableEvaluateButton(isExpressionFieldNotEmpty);
+        view.setEnableWatchButton(isExpressionFieldNotEmpty);
     }
 }
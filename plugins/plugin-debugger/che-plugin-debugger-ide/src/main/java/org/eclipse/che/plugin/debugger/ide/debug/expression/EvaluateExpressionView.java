@@ -29,6 +29,9 @@ public interface EvaluateExpressionView extends View<EvaluateExpressionView.Acti
         /** Performs any actions appropriate in response to the user having pressed the Evaluate button. */
         void onEvaluateClicked();
 
+        /** Performs any actions appropriate in response to the user having pressed the Watch button. */
+        void onWatchClicked();
+
         /** Performs any actions appropriate in response to the user having changed expression. */
         void onExpressionValueChanged();
     }
@@ -64,6 +67,14 @@ public interface EvaluateExpressionView extends View<EvaluateExpressionView.Acti
      */
     void setEnableEvaluateButton(boolean enabled);
 
+    /**
+     * Change the enable state of the watch button.
+     *
+     * @param enabled
+     *         <code>true</code> to enable the button, <code>false</code> to disable it
+     */
+    void setEnableWatchButton(boolean enabled);
+
     /** Give focus to expression field. */
     void focusInExpressionField();
 
@@ -53,6 +53,7 @@ public class EvaluateExpressionViewImpl extends Window implements EvaluateExpres
     DebuggerLocalizationConstant locale;
 
     private Button         evaluateButton;
+    private Button         watchButton;
     private ActionDelegate delegate;
 
     /**
@@ -81,6 +82,13 @@ public class EvaluateExpressionViewImpl extends Window implements EvaluateExpres
             }
         });
 
+        watchButton = createButton(locale.evaluateExpressionViewWatchButtonTitle(), "debugger-watch-btn", new ClickHandler() {
+            @Override
+            public void onClick(ClickEvent clickEvent) {
+                delegate.onWatchClicked();
+            }
+        });
+
         expression.addKeyUpHandler(new KeyUpHandler() {
             @Override
             public void onKeyUp(KeyUpEvent event) {
@@ -92,6 +100,7 @@ public class EvaluateExpressionViewImpl extends Window implements EvaluateExpres
 
         addButtonToFooter(closeButton);
         addButtonToFooter(evaluateButton);
+        addButtonToFooter(watchButton);
     }
 
     /** {@inheritDoc} */
@@ -119,6 +128,12 @@ public class EvaluateExpressionViewImpl extends Window implements EvaluateExpres
         evaluateButton.setEnabled(enabled);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void setEnableWatchButton(boolean enabled) {
+        watchButton.setEnabled(enabled);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void focusInExpressionField() {
@@ -143,6 +158,7 @@ public class EvaluateExpressionViewImpl extends Window implements EvaluateExpres
         if (!expression.getText().isEmpty()) {
             expression.selectAll();
             evaluateButton.setEnabled(true);
+            watchButton.setEnabled(true);
         }
     }
 
@@ -15,6 +15,7 @@ import org.eclipse.che.api.promises.client.Promise;
 import org.eclipse.che.api.promises.client.PromiseError;
 import org.eclipse.che.ide.debug.Debugger;
 import org.eclipse.che.ide.debug.DebuggerManager;
+import org.eclipse.che.plugin.debugger.ide.debug.DebuggerPresenter;
 import org.eclipse.che.plugin.debugger.ide.debug.expression.EvaluateExpressionPresenter;
 import org.eclipse.che.plugin.debugger.ide.debug.expression.EvaluateExpressionView;
 import org.junit.Test;
@@ -52,6 +53,8 @@ public class EvaluateExpressionTest extends BaseTest {
     private Promise<String>        promise;
     @Mock
     private PromiseError           promiseError;
+    @Mock
+    private DebuggerPresenter      debuggerPresenter;
 
     @Captor
     private ArgumentCaptor<Operation<PromiseError>> errorCaptor;
@@ -64,6 +67,7 @@ public class EvaluateExpressionTest extends BaseTest {
 
         verify(view).setResult(eq(EMPTY_EXPRESSION));
         verify(view).setEnableEvaluateButton(eq(DISABLE_BUTTON));
+        verify(view).setEnableWatchButton(eq(DISABLE_BUTTON));
         verify(view).showDialog();
         verify(view).focusInExpressionField();
     }
@@ -98,6 +102,17 @@ public class EvaluateExpressionTest extends BaseTest {
         presenter.onExpressionValueChanged();
 
         verify(view).setEnableEvaluateButton(eq(!DISABLE_BUTTON));
+        verify(view).setEnableWatchButton(eq(!DISABLE_BUTTON));
+    }
+
+    @Test
+    public void shouldAddWatchExpressionOnWatchClicked() throws Exception {
+        when(view.getExpression()).thenReturn(" " + EXPRESSION + " ");
+
+        presenter.onWatchClicked();
+
+        verify(debuggerPresenter).addWatchExpression(eq(EXPRESSION));
+        verify(view).close();
     }
 
     @Test
@@ -14,8 +14,13 @@ import com.google.gwt.user.client.ui.AcceptsOneWidget;
 
 import org.eclipse.che.api.debug.shared.dto.LocationDto;
 import org.eclipse.che.api.debug.shared.dto.SimpleValueDto;
+import org.eclipse.che.api.debug.shared.dto.VariableDto;
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
 import org.eclipse.che.api.debug.shared.model.Location;
 import org.eclipse.che.api.debug.shared.model.MutableVariable;
+import org.eclipse.che.api.debug.shared.model.StackFrameDump;
+import org.eclipse.che.api.debug.shared.model.Variable;
+import org.eclipse.che.api.debug.shared.model.impl.EvaluationResultImpl;
 import org.eclipse.che.api.promises.client.Operation;
 import org.eclipse.che.api.promises.client.OperationException;
 import org.eclipse.che.api.promises.client.Promise;
@@ -42,6 +47,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.eclipse.che.ide.api.notification.StatusNotification.DisplayMode.FLOAT_MODE;
@@ -49,8 +56,10 @@ import static org.eclipse.che.ide.api.notification.StatusNotification.DisplayMod
 import static org.eclipse.che.ide.api.notification.StatusNotification.Status.FAIL;
 import static org.eclipse.che.ide.api.notification.StatusNotification.Status.PROGRESS;
 import static org.eclipse.che.ide.api.notification.StatusNotification.Status.SUCCESS;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -106,13 +115,19 @@ public class DebuggerPresenterTest extends BaseTest {
 
 
     @Captor
-    private ArgumentCaptor<Operation<PromiseError>>   operationPromiseErrorCaptor;
+    private ArgumentCaptor<Operation<PromiseError>>           operationPromiseErrorCaptor;
     @Captor
-    private ArgumentCaptor<Operation<Void>>           operationVoidCaptor;
+    private ArgumentCaptor<Operation<Void>>                   operationVoidCaptor;
     @Captor
-    private ArgumentCaptor<Operation<String>>         operationStringCaptor;
+    private ArgumentCaptor<Operation<String>>                 operationStringCaptor;
     @Captor
-    private ArgumentCaptor<Operation<SimpleValueDto>> operationValueCaptor;
+    private ArgumentCaptor<Operation<SimpleValueDto>>         operationValueCaptor;
+    @Captor
+    private ArgumentCaptor<List<Variable>>                    variablesCaptor;
+    @Captor
+    private ArgumentCaptor<Operation<StackFrameDump>>         operationDumpCaptor;
+    @Captor
+    private ArgumentCaptor<Operation<List<EvaluationResult>>> operationResultsCaptor;
 
     private DebuggerPresenter presenter;
 
@@ -156,7 +171,7 @@ public class DebuggerPresenterTest extends BaseTest {
         doReturn(true).when(rootVariables).isEmpty();
         doReturn(rootVariables).when(selectedVariable).getVariables();
 
-        doReturn(promiseValue).when(debugger).getValue(selectedVariable);
+        doReturn(promiseValue).when(debugger).getValue(selectedVariable, 0, DebuggerPresenter.VARIABLES_PAGE_SIZE + 1);
         doReturn(promiseValue).when(promiseValue).then((Operation<SimpleValueDto>)any());
 
         presenter.onExpandVariablesTree();
@@ -172,6 +187,40 @@ public class DebuggerPresenterTest extends BaseTest {
         verify(constant).failedToGetVariableValueTitle();
     }
 
+    @Test
+    public void testOnExpandVariablesTreeLoadsNextPageFromMoreNode() throws OperationException {
+        SimpleValueDto valueDto = mock(SimpleValueDto.class);
+        List<VariableDto> page = new ArrayList<>();
+        for (int i = 0; i <= DebuggerPresenter.VARIABLES_PAGE_SIZE; i++) {
+            page.add(mock(VariableDto.class));
+        }
+        doReturn(page).when(valueDto).getVariables();
+
+        MutableVariable moreNode = mock(MutableVariable.class);
+        doReturn(Collections.emptyList()).when(moreNode).getVariables();
+        doReturn(Collections.emptyList()).doReturn(Collections.singletonList(moreNode)).when(selectedVariable).getVariables();
+
+        doReturn(promiseValue).when(debugger).getValue(selectedVariable, 0, DebuggerPresenter.VARIABLES_PAGE_SIZE + 1);
+        doReturn(promiseValue).when(debugger).getValue(moreNode,
+                                                       DebuggerPresenter.VARIABLES_PAGE_SIZE,
+                                                       DebuggerPresenter.VARIABLES_PAGE_SIZE + 1);
+        doReturn(promiseValue).when(promiseValue).then((Operation<SimpleValueDto>)any());
+
+        presenter.onExpandVariablesTree();
+
+        verify(promiseValue).then(operationValueCaptor.capture());
+        operationValueCaptor.getValue().apply(valueDto);
+        verify(view).setVariablesIntoSelectedVariable(variablesCaptor.capture());
+        List<Variable> shown = variablesCaptor.getValue();
+        assertEquals(DebuggerPresenter.VARIABLES_PAGE_SIZE + 1, shown.size());
+        assertEquals(DebuggerPresenter.MORE_VARIABLES_NAME, shown.get(DebuggerPresenter.VARIABLES_PAGE_SIZE).getName());
+
+        presenter.onSelectedVariableElement(moreNode);
+        presenter.onExpandVariablesTree();
+
+        verify(debugger).getValue(moreNode, DebuggerPresenter.VARIABLES_PAGE_SIZE, DebuggerPresenter.VARIABLES_PAGE_SIZE + 1);
+    }
+
     @Test
     public void testShowAndUpdateView() {
         presenter.showAndUpdateView();
@@ -294,6 +343,37 @@ public class DebuggerPresenterTest extends BaseTest {
         verify(view).setExecutionPoint(any(Location.class));
     }
 
+    @Test
+    public void testWatchExpressionsAreEvaluatedWithSingleRequest() throws OperationException {
+        Promise<StackFrameDump> promiseDump = mock(Promise.class);
+        Promise<List<EvaluationResult>> promiseResults = mock(Promise.class);
+        doReturn(promiseDump).when(debugger).dumpStackFrame();
+        doReturn(promiseDump).when(promiseDump).then((Operation<StackFrameDump>)any());
+        doReturn(promiseResults).when(debugger).evaluateAll(Arrays.asList("a", "b"));
+        doReturn(promiseResults).when(promiseResults).then((Operation<List<EvaluationResult>>)any());
+        doReturn("<error: unknown b>").when(constant).watchExpressionFailed("unknown b");
+
+        presenter.addWatchExpression("a");
+        presenter.addWatchExpression("b");
+        presenter.addWatchExpression("a");
+        presenter.onBreakpointStopped("filePath", "className", 40);
+
+        verify(promiseDump).then(operationDumpCaptor.capture());
+        operationDumpCaptor.getValue().apply(mock(StackFrameDump.class));
+        verify(debugger).evaluateAll(Arrays.asList("a", "b"));
+        verify(promiseResults).then(operationResultsCaptor.capture());
+        operationResultsCaptor.getValue().apply(Arrays.<EvaluationResult>asList(EvaluationResultImpl.value("1"),
+                                                                                EvaluationResultImpl.error("unknown b")));
+
+        verify(view, atLeastOnce()).setVariables(variablesCaptor.capture());
+        List<Variable> shown = variablesCaptor.getValue();
+        assertEquals(2, shown.size());
+        assertEquals("a", shown.get(0).getName());
+        assertEquals("1", shown.get(0).getValue());
+        assertEquals("b", shown.get(1).getName());
+        assertEquals("<error: unknown b>", shown.get(1).getValue());
+    }
+
     @Test
     public void testOnValueChanged() {
         doReturn(promiseString).when(debugger).dumpStackFrame();
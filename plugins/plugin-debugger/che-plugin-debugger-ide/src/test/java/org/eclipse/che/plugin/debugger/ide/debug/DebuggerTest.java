@@ -16,6 +16,7 @@ import com.google.web.bindery.event.shared.EventBus;
 
 import org.eclipse.che.api.debug.shared.dto.BreakpointDto;
 import org.eclipse.che.api.debug.shared.dto.DebugSessionDto;
+import org.eclipse.che.api.debug.shared.dto.EvaluationResultDto;
 import org.eclipse.che.api.debug.shared.dto.LocationDto;
 import org.eclipse.che.api.debug.shared.dto.SimpleValueDto;
 import org.eclipse.che.api.debug.shared.dto.StackFrameDumpDto;
@@ -27,11 +28,13 @@ import org.eclipse.che.api.debug.shared.dto.action.StepIntoActionDto;
 import org.eclipse.che.api.debug.shared.dto.action.StepOutActionDto;
 import org.eclipse.che.api.debug.shared.dto.action.StepOverActionDto;
 import org.eclipse.che.api.debug.shared.model.DebuggerInfo;
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
 import org.eclipse.che.api.debug.shared.model.Location;
 import org.eclipse.che.api.debug.shared.model.SimpleValue;
 import org.eclipse.che.api.debug.shared.model.StackFrameDump;
 import org.eclipse.che.api.debug.shared.model.Variable;
 import org.eclipse.che.api.debug.shared.model.VariablePath;
+import org.eclipse.che.api.debug.shared.model.impl.EvaluationResultImpl;
 import org.eclipse.che.api.promises.client.Function;
 import org.eclipse.che.api.promises.client.Operation;
 import org.eclipse.che.api.promises.client.OperationException;
@@ -68,6 +71,7 @@ import org.mockito.MockSettings;
 import org.mockito.MockitoAnnotations;
 import org.mockito.internal.creation.MockSettingsImpl;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -77,6 +81,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.RETURNS_SMART_NULLS;
@@ -143,17 +148,19 @@ public class DebuggerTest extends BaseTest {
     private Optional<Project> optional;
 
     @Captor
-    private ArgumentCaptor<WsAgentStateHandler>             extServerStateHandlerCaptor;
+    private ArgumentCaptor<WsAgentStateHandler>                                         extServerStateHandlerCaptor;
     @Captor
-    private ArgumentCaptor<Operation<PromiseError>>         operationPromiseErrorCaptor;
+    private ArgumentCaptor<Operation<PromiseError>>                                     operationPromiseErrorCaptor;
     @Captor
-    private ArgumentCaptor<Operation<Void>>                 operationVoidCaptor;
+    private ArgumentCaptor<Operation<Void>>                                             operationVoidCaptor;
     @Captor
-    private ArgumentCaptor<Breakpoint>                      breakpointCaptor;
+    private ArgumentCaptor<Breakpoint>                                                  breakpointCaptor;
     @Captor
-    private ArgumentCaptor<Function<DebugSessionDto, Void>> argumentCaptorFunctionJavaDebugSessionVoid;
+    private ArgumentCaptor<Function<DebugSessionDto, Void>>                             argumentCaptorFunctionJavaDebugSessionVoid;
     @Captor
-    private ArgumentCaptor<Operation<DebuggerInfo>>         argumentCaptorOperationJavaDebuggerInfo;
+    private ArgumentCaptor<Operation<DebuggerInfo>>                                     argumentCaptorOperationJavaDebuggerInfo;
+    @Captor
+    private ArgumentCaptor<Function<List<EvaluationResultDto>, List<EvaluationResult>>> argumentCaptorFunctionEvaluationResults;
 
 
     public final Breakpoint TEST_BREAKPOINT = new Breakpoint(Breakpoint.Type.BREAKPOINT, LINE_NUMBER, PATH, file, true);
@@ -491,7 +498,7 @@ public class DebuggerTest extends BaseTest {
         doReturn(mock(VariablePathDto.class)).when(dtoFactory).createDto(VariablePathDto.class);
         doReturn(mock(VariablePathDto.class)).when(variable).getVariablePath();
         doReturn(Collections.emptyList()).when(variable).getVariables();
-        doReturn(promiseValue).when(service).getValue(SESSION_ID, variableDto);
+        doReturn(promiseValue).when(service).getValue(SESSION_ID, variableDto, 0, -1);
         doReturn(promiseValue).when(promiseValue).then((Function<SimpleValueDto, Object>)any());
         doReturn(promiseValue).when(promiseValue).catchError((Operation<PromiseError>)any());
 
@@ -499,13 +506,31 @@ public class DebuggerTest extends BaseTest {
         assertEquals(promiseValue, result);
     }
 
+    @Test
+    public void testGetValuePage() throws Exception {
+        final VariableDto variableDto = mock(VariableDto.class);
+        final Variable variable = mock(Variable.class);
+        final Promise<SimpleValueDto> promiseValue = mock(Promise.class);
+
+        doReturn(variableDto).when(dtoFactory).createDto(VariableDto.class);
+        doReturn(mock(VariablePathDto.class)).when(dtoFactory).createDto(VariablePathDto.class);
+        doReturn(mock(VariablePathDto.class)).when(variable).getVariablePath();
+        doReturn(Collections.emptyList()).when(variable).getVariables();
+        doReturn(promiseValue).when(service).getValue(SESSION_ID, variableDto, 100, 101);
+        doReturn(promiseValue).when(promiseValue).then((Function<SimpleValueDto, Object>)any());
+
+        Promise<SimpleValue> result = debugger.getValue(variable, 100, 101);
+        assertEquals(promiseValue, result);
+        verify(service).getValue(SESSION_ID, variableDto, 100, 101);
+    }
+
     @Test
     public void testGetValueWithoutConnection() throws Exception {
         debugger.setDebugSession(null);
 
         debugger.getValue(null);
 
-        verify(service, never()).getValue(any(), any());
+        verify(service, never()).getValue(any(), any(), anyInt(), anyInt());
     }
 
     @Test
@@ -549,6 +574,33 @@ public class DebuggerTest extends BaseTest {
         verify(service, never()).evaluate(any(), any());
     }
 
+    @Test
+    public void testEvaluateAllExpressions() throws Exception {
+        final List<String> expressions = Arrays.asList("a", "b");
+        Promise<List<EvaluationResultDto>> promiseDtos = mock(Promise.class);
+        Promise<List<EvaluationResult>> promiseResults = mock(Promise.class);
+        doReturn(promiseDtos).when(service).evaluateAll(SESSION_ID, expressions);
+        doReturn(promiseResults).when(promiseDtos).then((Function<List<EvaluationResultDto>, List<EvaluationResult>>)any());
+        EvaluationResultDto value = mock(EvaluationResultDto.class);
+        doReturn("1").when(value).getValue();
+        EvaluationResultDto error = mock(EvaluationResultDto.class);
+        doReturn("unknown variable b").when(error).getError();
+
+        Promise<List<EvaluationResult>> result = debugger.evaluateAll(expressions);
+        assertEquals(promiseResults, result);
+
+        verify(promiseDtos).then(argumentCaptorFunctionEvaluationResults.capture());
+        assertEquals(Arrays.asList(EvaluationResultImpl.value("1"), EvaluationResultImpl.error("unknown variable b")),
+                     argumentCaptorFunctionEvaluationResults.getValue().apply(Arrays.asList(value, error)));
+    }
+
+    @Test
+    public void testEvaluateAllExpressionsWithoutConnection() throws Exception {
+        debugger.setDebugSession(null);
+        debugger.evaluateAll(Arrays.asList("a", "b"));
+        verify(service, never()).evaluateAll(any(), any());
+    }
+
     @Test
     public void testChangeVariableValue() throws Exception {
         final List<String> path = mock(List.class);
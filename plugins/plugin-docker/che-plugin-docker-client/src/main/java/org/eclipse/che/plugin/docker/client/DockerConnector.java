@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
 import com.google.common.reflect.TypeToken;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -18,7 +19,6 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
 
-import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.lang.TarUtils;
@@ -52,12 +52,14 @@ import org.eclipse.che.plugin.docker.client.json.Version;
 import org.eclipse.che.plugin.docker.client.json.network.ConnectContainer;
 import org.eclipse.che.plugin.docker.client.json.network.DisconnectContainer;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
+import org.eclipse.che.plugin.docker.client.json.stats.ContainerStats;
 import org.eclipse.che.plugin.docker.client.params.AttachContainerParams;
 import org.eclipse.che.plugin.docker.client.params.BuildImageParams;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
 import org.eclipse.che.plugin.docker.client.params.GetContainerLogsParams;
+import org.eclipse.che.plugin.docker.client.params.GetContainerStatsParams;
 import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
 import org.eclipse.che.plugin.docker.client.params.GetExecInfoParams;
 import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
@@ -71,6 +73,7 @@ import org.eclipse.che.plugin.docker.client.params.PutResourceParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveNetworkParams;
+import org.eclipse.che.plugin.docker.client.params.RenameContainerParams;
 import org.eclipse.che.plugin.docker.client.params.StartContainerParams;
 import org.eclipse.che.plugin.docker.client.params.StartExecParams;
 import org.eclipse.che.plugin.docker.client.params.StopContainerParams;
@@ -88,23 +91,22 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.core.MediaType;
-import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.net.UrlEscapers.urlPathSegmentEscaper;
@@ -131,6 +133,8 @@ public class DockerConnector {
                                                         .setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE)
                                                         .create();
 
+    private static final int BUILD_CONTEXT_BUFFER_SIZE = 64 * 1024;
+
     private final URI                        dockerDaemonUri;
     private final DockerRegistryAuthResolver authResolver;
     private final ExecutorService            executor;
@@ -649,35 +653,20 @@ public class DockerConnector {
      * @apiNote this method implements 1.20 docker API and requires docker not less than 1.8 version
      */
     public void putResource(final PutResourceParams params) throws IOException {
-        File tarFile;
-        long length;
-        try (InputStream sourceData = params.getSourceStream()) {
-            // TODO according to http spec http://www.w3.org/Protocols/rfc2616/rfc2616-sec4.html#sec4.4,
-            // it is possible to send request without specifying content length if chunked encoding header is set
-            // Investigate is it possible to write the stream to request directly
-
-            // we save stream to file, because we have to know its length
-            Path tarFilePath = Files.createTempFile("compressed-resources", ".tar");
-            tarFile = tarFilePath.toFile();
-            length = Files.copy(sourceData, tarFilePath, StandardCopyOption.REPLACE_EXISTING);
-        }
-
-        try (InputStream tarStream = new BufferedInputStream(new FileInputStream(tarFile));
+        // stream is sent with chunked transfer encoding, so it doesn't have to be stored to know its length
+        try (InputStream sourceData = params.getSourceStream();
              DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
                                                             .method("PUT")
                                                             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
                                                                   "/archive")
                                                             .query("path", params.getTargetPath())
                                                             .header("Content-Type", ExtMediaType.APPLICATION_X_TAR)
-                                                            .header("Content-Length", length)
-                                                            .entity(tarStream)) {
+                                                            .chunkedEntity(output -> ByteStreams.copy(sourceData, output))) {
             addQueryParamIfNotNull(connection, "noOverwriteDirNonDir", params.isNoOverwriteDirNonDir());
             final DockerResponse response = connection.request();
             if (response.getStatus() != OK.getStatusCode()) {
                 throw getDockerException(response);
             }
-        } finally {
-            FileCleaner.addFile(tarFile);
         }
     }
 
@@ -738,26 +727,57 @@ public class DockerConnector {
                               progressMonitor);
         }
 
-        // build context is set of files
-        final File tar = Files.createTempFile(null, ".tar").toFile();
-        try {
-            File[] files = new File[params.getFiles().size()];
-            files = params.getFiles().toArray(files);
-            createTarArchive(tar, files);
-            try (InputStream tarInput = new FileInputStream(tar)) {
-                DockerConnection dockerConnection = connectionFactory.openConnection(dockerDaemonUri)
-                                                                     .header("Content-Type", "application/x-compressed-tar")
-                                                                     .header("Content-Length", tar.length())
-                                                                     .entity(tarInput);
-                return buildImage(dockerConnection,
-                                  params,
-                                  progressMonitor);
-            }
-        } finally {
-            FileCleaner.addFile(tar);
+        // build context is set of files, archive is created while it is sent to docker
+        final File[] files = params.getFiles().toArray(new File[params.getFiles().size()]);
+        final Predicate<String> contextFilter = contextFilter(params);
+        final boolean compress = Boolean.TRUE.equals(params.isCompressContext());
+        DockerConnection dockerConnection = connectionFactory.openConnection(dockerDaemonUri)
+                                                             .header("Content-Type", "application/x-compressed-tar")
+                                                             .chunkedEntity(output -> writeBuildContext(output, files, contextFilter, compress));
+        return buildImage(dockerConnection,
+                          params,
+                          progressMonitor);
+    }
+
+    /**
+     * Writes tar archive of the build context to the stream.
+     *
+     * @param output
+     *         stream to write archive to
+     * @param files
+     *         files which are added to the root of the build context
+     * @param contextFilter
+     *         accepts paths of the files which should be sent, relative to the root of the build context
+     * @param compress
+     *         whether archive should be compressed with gzip
+     * @throws IOException
+     *         when files can't be read or archive can't be written
+     */
+    static void writeBuildContext(OutputStream output,
+                                  File[] files,
+                                  Predicate<String> contextFilter,
+                                  boolean compress) throws IOException {
+        if (compress) {
+            GZIPOutputStream gzipOutput = new GZIPOutputStream(output, BUILD_CONTEXT_BUFFER_SIZE);
+            TarUtils.tarFiles(gzipOutput, 0, contextFilter, files);
+            gzipOutput.finish();
+        } else {
+            BufferedOutputStream bufferedOutput = new BufferedOutputStream(output, BUILD_CONTEXT_BUFFER_SIZE);
+            TarUtils.tarFiles(bufferedOutput, 0, contextFilter, files);
+            bufferedOutput.flush();
         }
     }
 
+    /**
+     * Returns filter of the build context files which applies rules of {@code .dockerignore} file of the context.
+     * Dockerfile is never excluded from the context.
+     */
+    private static Predicate<String> contextFilter(BuildImageParams params) throws IOException {
+        DockerIgnore dockerIgnore = DockerIgnore.fromContext(params.getFiles());
+        String dockerfile = params.getDockerfile();
+        return dockerfile == null ? dockerIgnore : path -> dockerfile.equals(path) || dockerIgnore.test(path);
+    }
+
     private String buildImage(final DockerConnection dockerConnection,
                               final BuildImageParams params,
                               final ProgressMonitor progressMonitor) throws IOException {
@@ -1109,6 +1129,58 @@ public class DockerConnector {
         }
     }
 
+    /**
+     * Renames docker container.
+     *
+     * @throws ContainerNotFoundException
+     *         when container is not found
+     * @throws IOException
+     *          when a problem occurs with docker api calls
+     */
+    public void renameContainer(final RenameContainerParams params) throws IOException {
+        try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .method("POST")
+                                                            .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
+                                                                  "/rename")
+                                                            .query("name", params.getName())) {
+            final DockerResponse response = connection.request();
+            final int status = response.getStatus();
+            if (status == 404) {
+                throw new ContainerNotFoundException(readAndCloseQuietly(response.getInputStream()));
+            }
+            if (status / 100 != 2) {
+                throw getDockerException(response);
+            }
+        }
+    }
+
+    /**
+     * Gets single sample of resources usage of the running container.
+     *
+     * @return resources usage statistics of the container
+     * @throws ContainerNotFoundException
+     *         when container is not found
+     * @throws IOException
+     *          when a problem occurs with docker api calls
+     */
+    public ContainerStats getContainerStats(final GetContainerStatsParams params) throws IOException {
+        try (DockerConnection connection = connectionFactory.openConnection(dockerDaemonUri)
+                                                            .method("GET")
+                                                            .path(apiVersionPathPrefix + "/containers/" + params.getContainer() +
+                                                                  "/stats")
+                                                            .query("stream", 0)) {
+            final DockerResponse response = connection.request();
+            final int status = response.getStatus();
+            if (status == 404) {
+                throw new ContainerNotFoundException(readAndCloseQuietly(response.getInputStream()));
+            }
+            if (status / 100 != 2) {
+                throw getDockerException(response);
+            }
+            return parseResponseStreamAndClose(response.getInputStream(), ContainerStats.class);
+        }
+    }
+
     /**
      * Returns list of docker networks
      *
@@ -1331,10 +1403,6 @@ public class DockerConnector {
         }
     }
 
-    private void createTarArchive(File tar, File... files) throws IOException {
-        TarUtils.tarFiles(tar, 0, files);
-    }
-
     /**
      * Adds given parameter to query if it set (not null).
      *
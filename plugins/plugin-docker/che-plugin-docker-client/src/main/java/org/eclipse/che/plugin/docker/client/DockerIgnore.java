@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Rules of the {@code .dockerignore} file which exclude files from the build context.
+ * <p/>
+ * Supports syntax of the docker CLI: glob patterns with {@code *}, {@code ?} and {@code **},
+ * exceptions which start with {@code !} and comments which start with {@code #}. The last matching rule wins.
+ * {@code Dockerfile} and {@code .dockerignore} are never excluded, since docker needs them to perform the build.
+ */
+public class DockerIgnore implements Predicate<String> {
+    public static final String DOCKERIGNORE = ".dockerignore";
+
+    private static final DockerIgnore EMPTY = new DockerIgnore(Collections.emptyList());
+
+    private final List<Rule> rules;
+    private final boolean    hasExceptions;
+
+    private DockerIgnore(List<Rule> rules) {
+        this.rules = rules;
+        this.hasExceptions = rules.stream().anyMatch(rule -> rule.exception);
+    }
+
+    /**
+     * Reads rules from {@code .dockerignore} file which is located in the root of the build context,
+     * i.e. is one of the given files. Returns rules which exclude nothing if there is no such file.
+     *
+     * @param contextFiles
+     *         files which are added to the root of the build context
+     */
+    public static DockerIgnore fromContext(List<File> contextFiles) throws IOException {
+        for (File file : contextFiles) {
+            if (DOCKERIGNORE.equals(file.getName()) && file.isFile()) {
+                return parse(new String(Files.readAllBytes(file.toPath()), UTF_8));
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Parses content of the {@code .dockerignore} file.
+     */
+    public static DockerIgnore parse(String content) {
+        List<Rule> rules = new ArrayList<>();
+        for (String line : content.split("\r?\n")) {
+            String pattern = line.trim();
+            if (pattern.isEmpty() || pattern.startsWith("#")) {
+                continue;
+            }
+            boolean exception = pattern.startsWith("!");
+            if (exception) {
+                pattern = pattern.substring(1).trim();
+            }
+            pattern = normalize(pattern);
+            if (!pattern.isEmpty()) {
+                rules.add(new Rule(pattern, exception));
+            }
+        }
+        return new DockerIgnore(rules);
+    }
+
+    /**
+     * Returns {@code true} if the entry of the build context with the given path should be sent to the docker daemon.
+     * Directory which is excluded but may contain files matched by exceptions is accepted, so its content is checked too.
+     *
+     * @param path
+     *         path of the entry relative to the root of the build context
+     */
+    @Override
+    public boolean test(String path) {
+        if (rules.isEmpty()) {
+            return true;
+        }
+        path = normalize(path);
+        if (path.equals("Dockerfile") || path.equals(DOCKERIGNORE)) {
+            return true;
+        }
+        boolean excluded = false;
+        for (Rule rule : rules) {
+            if (rule.matches(path)) {
+                excluded = !rule.exception;
+            }
+        }
+        return !excluded || hasExceptions && mayContainException(path);
+    }
+
+    private boolean mayContainException(String path) {
+        String prefix = path + '/';
+        for (Rule rule : rules) {
+            if (rule.exception && (rule.literalPrefix.startsWith(prefix) || prefix.startsWith(rule.literalPrefix))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String path) {
+        String normalized = path.replace('\\', '/');
+        while (normalized.startsWith("./")) {
+            normalized = normalized.substring(2);
+        }
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    private static class Rule {
+        final Pattern regex;
+        final boolean exception;
+        /** Part of the pattern before the first wildcard. */
+        final String  literalPrefix;
+
+        Rule(String pattern, boolean exception) {
+            this.exception = exception;
+            this.regex = Pattern.compile(toRegex(pattern));
+            int wildcard = indexOfWildcard(pattern);
+            this.literalPrefix = wildcard == -1 ? pattern : pattern.substring(0, wildcard);
+        }
+
+        /**
+         * Path matches the rule if it or one of its parent directories matches the pattern.
+         */
+        boolean matches(String path) {
+            return regex.matcher(path).matches();
+        }
+
+        private static int indexOfWildcard(String pattern) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '*' || c == '?' || c == '[' || c == '\\') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static String toRegex(String pattern) {
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                switch (c) {
+                    case '*':
+                        if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                            i++;
+                            if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '/') {
+                                // '**/' matches any number of directories including none
+                                i++;
+                                regex.append("(?:.*/)?");
+                            } else {
+                                regex.append(".*");
+                            }
+                        } else {
+                            regex.append("[^/]*");
+                        }
+                        break;
+                    case '?':
+                        regex.append("[^/]");
+                        break;
+                    case '[':
+                        int end = pattern.indexOf(']', i + 1);
+                        if (end == -1) {
+                            regex.append("\\[");
+                        } else {
+                            String range = pattern.substring(i + 1, end);
+                            if (range.startsWith("^") || range.startsWith("!")) {
+                                range = '^' + range.substring(1);
+                            }
+                            regex.append('[').append(range.replace("\\", "\\\\")).append(']');
+                            i = end;
+                        }
+                        break;
+                    case '\\':
+                        if (i + 1 < pattern.length()) {
+                            regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+                        }
+                        break;
+                    default:
+                        regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            // content of the matched directory is matched as well
+            return regex.append("(?:/.*)?").toString();
+        }
+    }
+}
@@ -17,8 +17,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
+ * Decodes docker multiplexed stream of stdout and stderr frames into lines.
+ *
+ * <p>Frames are read into reusable buffers and bytes of a line are accumulated in a single
+ * reusable buffer, so the only allocation per line is the string of the resulting {@link LogMessage}.
+ * Lines longer than {@link #MAX_LINE_LENGTH} bytes are split, but never inside of a UTF-8 character.
+ *
  * @author andrew00x
  */
 class LogMessagePumper extends MessagePumper<LogMessage> {
@@ -26,85 +34,112 @@ class LogMessagePumper extends MessagePumper<LogMessage> {
 
     private static final int STREAM_HEADER_LENGTH = 8;
     private static final int MAX_LINE_LENGTH      = 1024;
+    private static final int READ_BUFFER_SIZE     = 8192;
 
     private final InputStream                  source;
     private final MessageProcessor<LogMessage> target;
+    private final ByteBuffer                   header;
+    private final ByteBuffer                   payload;
+    private final ByteBuffer                   line;
+
+    private LogMessage.Type type;
+    private boolean         carriageReturn;
 
     LogMessagePumper(InputStream source, MessageProcessor<LogMessage> target) {
         super(null, null);
         this.source = source;
         this.target = target;
+        this.header = ByteBuffer.allocate(STREAM_HEADER_LENGTH);
+        this.payload = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        this.line = ByteBuffer.allocate(MAX_LINE_LENGTH);
+        this.type = LogMessage.Type.DOCKER;
     }
 
     @Override
     void start() throws IOException {
-        final byte[] buf = new byte[MAX_LINE_LENGTH];
-        StringBuilder lineBuf = null;
-        boolean endOfLine = false;
-        LogMessage.Type logMessageType = LogMessage.Type.DOCKER;
         for (; ; ) {
-            int r = ByteStreams.read(source, buf, 0, STREAM_HEADER_LENGTH);
-            if (r != 8) {
-                if (r != -1) {
+            int r = ByteStreams.read(source, header.array(), 0, STREAM_HEADER_LENGTH);
+            if (r != STREAM_HEADER_LENGTH) {
+                if (r != 0) {
                     LOG.debug("Invalid stream, can't read header. Header of each frame must contain 8 bytes but got {}", r);
                 }
-                if (lineBuf != null && lineBuf.length() > 0) {
-                    target.process(new LogMessage(logMessageType, lineBuf.toString()));
-                    lineBuf.setLength(0);
+                if (carriageReturn) {
+                    carriageReturn = false;
+                    appendToLine((byte)'\r');
+                }
+                if (line.position() > 0) {
+                    emitLine();
                 }
                 break;
             }
-            logMessageType = getLogMessageType(buf);
-            int remaining = getPayloadLength(buf);
+            type = getLogMessageType(header.get(0));
+            long remaining = header.getInt(4) & 0xFFFFFFFFL;
             while (remaining > 0) {
-                r = source.read(buf, 0, Math.min(remaining, buf.length));
-                int offset = 0;
-                int lineLength = lineBuf != null ? lineBuf.length() : 0;
-                for (int i = 0; i < r; i++, lineLength++) {
-                    endOfLine = false;
-                    if (buf[i] == '\n' || buf[i] == '\r' || lineLength > MAX_LINE_LENGTH) {
-                        int length = i - offset;
-                        boolean isLineFeedFollowed = false;
-                        if (buf[i] == '\r') {
-                            int nextIndex = i + 1;
-                            isLineFeedFollowed = nextIndex < MAX_LINE_LENGTH && nextIndex < r && buf[nextIndex] == '\n';
-                            if (!isLineFeedFollowed) {
-                                length += 1; // include <CR> char in log message
-                            }
-                        }
-                        if (lineBuf != null && lineBuf.length() > 0) {
-                            lineBuf.append(new String(buf, offset, length));
-                            target.process(new LogMessage(logMessageType, lineBuf.toString()));
-                            lineBuf.setLength(0);
-                        } else {
-                            target.process(new LogMessage(logMessageType, new String(buf, offset, length)));
-                        }
-
-                        if (isLineFeedFollowed) {
-                            i++;
-                        }
-                        offset = i + 1;
-                        lineLength = 0;
-                        endOfLine = true;
-                    }
+                int read = source.read(payload.array(), 0, (int)Math.min(remaining, payload.capacity()));
+                if (read < 0) {
+                    break;
                 }
-                if (!endOfLine) {
-                    if (lineBuf == null) {
-                        lineBuf = new StringBuilder(MAX_LINE_LENGTH);
-                    }
-                    lineBuf.append(new String(buf, offset, r - offset));
+                payload.limit(read);
+                payload.position(0);
+                decode();
+                remaining -= read;
+            }
+        }
+    }
+
+    private void decode() {
+        while (payload.hasRemaining()) {
+            byte b = payload.get();
+            if (carriageReturn) {
+                carriageReturn = false;
+                if (b == '\n') {
+                    emitLine();
+                    continue;
                 }
-                remaining -= r;
+                // single carriage return is a part of the log message
+                appendToLine((byte)'\r');
+                emitLine();
+            }
+            if (b == '\n') {
+                emitLine();
+            } else if (b == '\r') {
+                carriageReturn = true;
+            } else {
+                appendToLine(b);
             }
         }
     }
 
-    private int getPayloadLength(byte[] header) {
-        return (header[7] & 0xFF) + ((header[6] & 0xFF) << 8) + ((header[5] & 0xFF) << 16) + ((header[4] & 0xFF) << 24);
+    private void appendToLine(byte b) {
+        if (!line.hasRemaining()) {
+            emitTooLongLine();
+        }
+        line.put(b);
+    }
+
+    private void emitLine() {
+        target.process(new LogMessage(type, new String(line.array(), 0, line.position(), StandardCharsets.UTF_8)));
+        line.clear();
+    }
+
+    /** Emits content of the full line buffer up to the last complete UTF-8 character. */
+    private void emitTooLongLine() {
+        byte[] bytes = line.array();
+        int length = line.position();
+        int lead = length - 1;
+        while (lead > 0 && (bytes[lead] & 0xC0) == 0x80) {
+            lead--;
+        }
+        int charLength = (bytes[lead] & 0xE0) == 0xC0 ? 2 : (bytes[lead] & 0xF0) == 0xE0 ? 3 : (bytes[lead] & 0xF8) == 0xF0 ? 4 : 1;
+        int cut = lead > 0 && lead + charLength > length ? lead : length;
+        target.process(new LogMessage(type, new String(bytes, 0, cut, StandardCharsets.UTF_8)));
+        line.position(cut);
+        line.limit(length);
+        line.compact();
     }
 
-    private LogMessage.Type getLogMessageType(byte[] header) {
-        switch (header[0]) {
+    private LogMessage.Type getLogMessageType(byte type) {
+        switch (type) {
             case 0:
                 return LogMessage.Type.STDIN;
             case 1:
@@ -112,7 +147,7 @@ class LogMessagePumper extends MessagePumper<LogMessage> {
             case 2:
                 return LogMessage.Type.STDERR;
             default:
-                throw new IllegalArgumentException(String.format("Invalid docker stream type %d", header[0]));
+                throw new IllegalArgumentException(String.format("Invalid docker stream type %d", type));
         }
     }
 }
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Writes data to the underlying stream using HTTP chunked transfer encoding.
+ * Data is buffered and sent by chunks of fixed size, {@link #finish()} sends the rest of the data and the last chunk.
+ * Underlying stream is not closed by this stream.
+ */
+public class ChunkedOutputStream extends OutputStream {
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private static final byte[] CRLF       = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+
+    private final OutputStream output;
+    private final byte[]       buffer;
+
+    private int     count;
+    private boolean finished;
+
+    ChunkedOutputStream(OutputStream output) {
+        this(output, DEFAULT_CHUNK_SIZE);
+    }
+
+    ChunkedOutputStream(OutputStream output, int chunkSize) {
+        this.output = output;
+        this.buffer = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureNotFinished();
+        if (count == buffer.length) {
+            writeChunk();
+        }
+        buffer[count++] = (byte)b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureNotFinished();
+        while (len > 0) {
+            if (count == buffer.length) {
+                writeChunk();
+            }
+            int toCopy = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, toCopy);
+            count += toCopy;
+            off += toCopy;
+            len -= toCopy;
+        }
+    }
+
+    /**
+     * Sends buffered data as a chunk, empty chunk isn't sent since it marks the end of the entity.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!finished) {
+            writeChunk();
+        }
+        output.flush();
+    }
+
+    /**
+     * Sends buffered data and the last chunk which marks the end of the entity.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        writeChunk();
+        output.write(LAST_CHUNK);
+        output.flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private void writeChunk() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        output.write(Integer.toHexString(count).getBytes(US_ASCII));
+        output.write(CRLF);
+        output.write(buffer, 0, count);
+        output.write(CRLF);
+        count = 0;
+    }
+
+    private void ensureNotFinished() throws IOException {
+        if (finished) {
+            throw new IOException("Stream is finished");
+        }
+    }
+}
@@ -91,6 +91,16 @@ public abstract class DockerConnection implements Closeable {
         return this;
     }
 
+    /**
+     * Sets entity which is produced by the writer while request is sent.
+     * Entity is sent with chunked transfer encoding, so its length doesn't have to be known in advance
+     * and {@code Content-Length} header must not be set.
+     */
+    public DockerConnection chunkedEntity(EntityWriter entityWriter) {
+        this.entity = new ChunkedEntity(entityWriter);
+        return this;
+    }
+
     public DockerResponse request() throws IOException {
         return request(method, path, query.toString(), headers, entity);
     }
@@ -103,6 +113,13 @@ public abstract class DockerConnection implements Closeable {
 
     public abstract void close();
 
+    /**
+     * Writes entity of the request.
+     */
+    public interface EntityWriter {
+        void writeTo(OutputStream output) throws IOException;
+    }
+
     static abstract class Entity<T> {
         final T entity;
 
@@ -141,6 +158,18 @@ public abstract class DockerConnection implements Closeable {
         }
     }
 
+    static class ChunkedEntity extends Entity<EntityWriter> {
+        ChunkedEntity(EntityWriter entity) {
+            super(entity);
+        }
+
+        @Override
+        public void writeTo(OutputStream output) throws IOException {
+            entity.writeTo(output);
+            output.flush();
+        }
+    }
+
     static class BytesEntity extends Entity<byte[]> {
         BytesEntity(byte[] entity) {
             super(entity);
@@ -75,6 +75,9 @@ public class TcpConnection extends DockerConnection {
         connection.setRequestProperty("Host", host);
         if (entity != null) {
             connection.setDoOutput(true);
+            if (entity instanceof ChunkedEntity) {
+                connection.setChunkedStreamingMode(ChunkedOutputStream.DEFAULT_CHUNK_SIZE);
+            }
             try (OutputStream output = connection.getOutputStream()) {
                 entity.writeTo(output);
             }
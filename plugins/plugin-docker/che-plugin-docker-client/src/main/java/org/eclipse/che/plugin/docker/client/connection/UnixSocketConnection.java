@@ -23,6 +23,7 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.net.ConnectException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.eclipse.che.plugin.docker.client.CLibrary.AF_UNIX;
@@ -48,9 +49,18 @@ public class UnixSocketConnection extends DockerConnection {
             throws IOException {
         fd = connect();
         final OutputStream output = new BufferedOutputStream(openOutputStream(fd));
-        writeHttpHeaders(output, method, path, query, headers);
-        if (entity != null) {
-            entity.writeTo(output);
+        if (entity instanceof ChunkedEntity) {
+            List<Pair<String, ?>> chunkedHeaders = new ArrayList<>(headers);
+            chunkedHeaders.add(Pair.of("Transfer-Encoding", "chunked"));
+            writeHttpHeaders(output, method, path, query, chunkedHeaders);
+            ChunkedOutputStream chunkedOutput = new ChunkedOutputStream(output);
+            entity.writeTo(chunkedOutput);
+            chunkedOutput.finish();
+        } else {
+            writeHttpHeaders(output, method, path, query, headers);
+            if (entity != null) {
+                entity.writeTo(output);
+            }
         }
         return new UnixSocketDockerResponse(new BufferedInputStream(openInputStream(fd)));
     }
@@ -15,6 +15,7 @@ import com.sun.jna.LastErrorException;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
 
@@ -23,10 +24,15 @@ import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
 */
 public class UnixSocketOutputStream extends OutputStream {
     private final int fd;
-    private final CLibrary cLib = getCLibrary();
+    private final CLibrary cLib;
 
     UnixSocketOutputStream(int fd) {
+        this(fd, getCLibrary());
+    }
+
+    UnixSocketOutputStream(int fd, CLibrary cLib) {
         this.fd = fd;
+        this.cLib = cLib;
     }
 
     @Override
@@ -40,14 +46,24 @@ public class UnixSocketOutputStream extends OutputStream {
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
-        int n;
-        try {
-            n = cLib.send(fd, b, len, 0);
-        } catch (LastErrorException e) {
-            throw new IOException("error: " + cLib.strerror(e.getErrorCode()));
-        }
-        if (n != len) {
-            throw new IOException(String.format("Failed writing %d bytes", len));
+        int sent = 0;
+        while (sent < len) {
+            byte[] buffer = b;
+            if (off + sent != 0) {
+                // native call sends bytes from the beginning of the array
+                buffer = Arrays.copyOfRange(b, off + sent, off + len);
+            }
+            int n;
+            try {
+                // send may write only a part of the buffer when socket buffer is full
+                n = cLib.send(fd, buffer, len - sent, 0);
+            } catch (LastErrorException e) {
+                throw new IOException("error: " + cLib.strerror(e.getErrorCode()));
+            }
+            if (n <= 0) {
+                throw new IOException(String.format("Failed writing %d bytes", len - sent));
+            }
+            sent += n;
         }
     }
 }
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.json.stats;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Represents single I/O counter of the block device, see {@link BlkioStats}.
+ */
+public class BlkioStatEntry {
+    @SerializedName("major")
+    private long   major;
+    @SerializedName("minor")
+    private long   minor;
+    @SerializedName("op")
+    private String op;
+    @SerializedName("value")
+    private long   value;
+
+    public long getMajor() {
+        return major;
+    }
+
+    public void setMajor(long major) {
+        this.major = major;
+    }
+
+    public BlkioStatEntry withMajor(long major) {
+        this.major = major;
+        return this;
+    }
+
+    public long getMinor() {
+        return minor;
+    }
+
+    public void setMinor(long minor) {
+        this.minor = minor;
+    }
+
+    public BlkioStatEntry withMinor(long minor) {
+        this.minor = minor;
+        return this;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public BlkioStatEntry withOp(String op) {
+        this.op = op;
+        return this;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public void setValue(long value) {
+        this.value = value;
+    }
+
+    public BlkioStatEntry withValue(long value) {
+        this.value = value;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "BlkioStatEntry{" +
+               "major=" + major +
+               ", minor=" + minor +
+               ", op='" + op + '\'' +
+               ", value=" + value +
+               '}';
+    }
+}
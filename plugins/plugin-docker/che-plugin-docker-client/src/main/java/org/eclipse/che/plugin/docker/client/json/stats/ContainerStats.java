@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.json.stats;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Map;
+
+/**
+ * Represents resources usage statistics of the container returned by docker stats API.
+ */
+public class ContainerStats {
+    @SerializedName("read")
+    private String                    read;
+    @SerializedName("cpu_stats")
+    private CpuStats                  cpuStats;
+    @SerializedName("precpu_stats")
+    private CpuStats                  precpuStats;
+    @SerializedName("memory_stats")
+    private MemoryStats               memoryStats;
+    @SerializedName("networks")
+    private Map<String, NetworkStats> networks;
+    @SerializedName("blkio_stats")
+    private BlkioStats                blkioStats;
+
+    public String getRead() {
+        return read;
+    }
+
+    public void setRead(String read) {
+        this.read = read;
+    }
+
+    public ContainerStats withRead(String read) {
+        this.read = read;
+        return this;
+    }
+
+    public CpuStats getCpuStats() {
+        return cpuStats;
+    }
+
+    public void setCpuStats(CpuStats cpuStats) {
+        this.cpuStats = cpuStats;
+    }
+
+    public ContainerStats withCpuStats(CpuStats cpuStats) {
+        this.cpuStats = cpuStats;
+        return this;
+    }
+
+    public CpuStats getPrecpuStats() {
+        return precpuStats;
+    }
+
+    public void setPrecpuStats(CpuStats precpuStats) {
+        this.precpuStats = precpuStats;
+    }
+
+    public ContainerStats withPrecpuStats(CpuStats precpuStats) {
+        this.precpuStats = precpuStats;
+        return this;
+    }
+
+    public MemoryStats getMemoryStats() {
+        return memoryStats;
+    }
+
+    public void setMemoryStats(MemoryStats memoryStats) {
+        this.memoryStats = memoryStats;
+    }
+
+    public ContainerStats withMemoryStats(MemoryStats memoryStats) {
+        this.memoryStats = memoryStats;
+        return this;
+    }
+
+    public Map<String, NetworkStats> getNetworks() {
+        return networks;
+    }
+
+    public void setNetworks(Map<String, NetworkStats> networks) {
+        this.networks = networks;
+    }
+
+    public ContainerStats withNetworks(Map<String, NetworkStats> networks) {
+        this.networks = networks;
+        return this;
+    }
+
+    public BlkioStats getBlkioStats() {
+        return blkioStats;
+    }
+
+    public void setBlkioStats(BlkioStats blkioStats) {
+        this.blkioStats = blkioStats;
+    }
+
+    public ContainerStats withBlkioStats(BlkioStats blkioStats) {
+        this.blkioStats = blkioStats;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ContainerStats{" +
+               "read='" + read + '\'' +
+               ", cpuStats=" + cpuStats +
+               ", precpuStats=" + precpuStats +
+               ", memoryStats=" + memoryStats +
+               ", networks=" + networks +
+               ", blkioStats=" + blkioStats +
+               '}';
+    }
+}
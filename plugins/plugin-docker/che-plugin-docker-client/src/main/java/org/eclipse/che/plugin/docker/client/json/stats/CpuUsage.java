@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.json.stats;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Represents CPU time consumed by the container in nanoseconds, see {@link CpuStats}.
+ */
+public class CpuUsage {
+    @SerializedName("total_usage")
+    private long       totalUsage;
+    @SerializedName("percpu_usage")
+    private List<Long> percpuUsage;
+
+    public long getTotalUsage() {
+        return totalUsage;
+    }
+
+    public void setTotalUsage(long totalUsage) {
+        this.totalUsage = totalUsage;
+    }
+
+    public CpuUsage withTotalUsage(long totalUsage) {
+        this.totalUsage = totalUsage;
+        return this;
+    }
+
+    public List<Long> getPercpuUsage() {
+        return percpuUsage;
+    }
+
+    public void setPercpuUsage(List<Long> percpuUsage) {
+        this.percpuUsage = percpuUsage;
+    }
+
+    public CpuUsage withPercpuUsage(List<Long> percpuUsage) {
+        this.percpuUsage = percpuUsage;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "CpuUsage{" +
+               "totalUsage=" + totalUsage +
+               ", percpuUsage=" + percpuUsage +
+               '}';
+    }
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.json.stats;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Represents traffic of the network interface of the container in bytes, see {@link ContainerStats}.
+ */
+public class NetworkStats {
+    @SerializedName("rx_bytes")
+    private long rxBytes;
+    @SerializedName("tx_bytes")
+    private long txBytes;
+
+    public long getRxBytes() {
+        return rxBytes;
+    }
+
+    public void setRxBytes(long rxBytes) {
+        this.rxBytes = rxBytes;
+    }
+
+    public NetworkStats withRxBytes(long rxBytes) {
+        this.rxBytes = rxBytes;
+        return this;
+    }
+
+    public long getTxBytes() {
+        return txBytes;
+    }
+
+    public void setTxBytes(long txBytes) {
+        this.txBytes = txBytes;
+    }
+
+    public NetworkStats withTxBytes(long txBytes) {
+        this.txBytes = txBytes;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkStats{" +
+               "rxBytes=" + rxBytes +
+               ", txBytes=" + txBytes +
+               '}';
+    }
+}
@@ -49,6 +49,7 @@ public class BuildImageParams {
     private String              cpusetCpus;
     private Long                cpuPeriod;
     private Long                cpuQuota;
+    private Boolean             compressContext;
 
     /**
      * Creates arguments holder with required parameters.
@@ -354,6 +355,19 @@ public class BuildImageParams {
         return this;
     }
 
+    /**
+     * Compress build context with gzip before sending it to docker daemon.
+     * Reduces amount of transferred data when docker daemon is remote, ignored if context is provided by remote URL.
+     *
+     * @param compressContext
+     *         compress context flag
+     * @return this params instance
+     */
+    public BuildImageParams withCompressContext(boolean compressContext) {
+        this.compressContext = compressContext;
+        return this;
+    }
+
     public String getRepository() {
         return repository;
     }
@@ -422,6 +436,10 @@ public class BuildImageParams {
         return cpuQuota;
     }
 
+    public Boolean isCompressContext() {
+        return compressContext;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -443,7 +461,8 @@ public class BuildImageParams {
                Objects.equals(cpusetCpus, that.cpusetCpus) &&
                Objects.equals(cpuPeriod, that.cpuPeriod) &&
                Objects.equals(cpuQuota, that.cpuQuota) &&
-               Objects.equals(buildArgs, that.buildArgs);
+               Objects.equals(buildArgs, that.buildArgs) &&
+               Objects.equals(compressContext, that.compressContext);
     }
 
     @Override
@@ -464,7 +483,8 @@ public class BuildImageParams {
                             cpusetCpus,
                             cpuPeriod,
                             cpuQuota,
-                            buildArgs);
+                            buildArgs,
+                            compressContext);
     }
 
     @Override
@@ -487,6 +507,7 @@ public class BuildImageParams {
                ", cpuPeriod='" + cpuPeriod + '\'' +
                ", cpuQuota='" + cpuQuota + '\'' +
                ", buildArgs='" + buildArgs + '\'' +
+               ", compressContext='" + compressContext + '\'' +
                '}';
     }
 
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.TarUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of writing build context in {@link DockerConnector}.
+ */
+public class BuildContextTest {
+
+    private File root;
+    private File context;
+    private File target;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("build-context").toFile();
+        context = new File(root, "context");
+        target = new File(root, "target");
+        createFile("Dockerfile", "FROM codenvy/ubuntu_jdk8");
+        createFile(".dockerignore", "target\n*.log\n!important.log");
+        createFile("src/Main.java", "class Main {}");
+        createFile("target/app.jar", "jar");
+        createFile("build.log", "log");
+        createFile("important.log", "important");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void shouldExcludeFilesMatchedByDockerignore() throws Exception {
+        File[] files = context.listFiles();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        DockerConnector.writeBuildContext(output, files, DockerIgnore.fromContext(asList(files)), false);
+        TarUtils.untar(new ByteArrayInputStream(output.toByteArray()), target);
+
+        assertTrue(new File(target, "Dockerfile").isFile());
+        assertTrue(new File(target, "src/Main.java").isFile());
+        assertTrue(new File(target, "important.log").isFile());
+        assertFalse(new File(target, "target").exists());
+        assertFalse(new File(target, "build.log").exists());
+    }
+
+    @Test
+    public void shouldCompressBuildContext() throws Exception {
+        File[] files = context.listFiles();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        DockerConnector.writeBuildContext(output, files, DockerIgnore.fromContext(asList(files)), true);
+        TarUtils.untar(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())), target);
+
+        assertTrue(new File(target, "Dockerfile").isFile());
+        assertTrue(new File(target, "src/Main.java").isFile());
+    }
+
+    private void createFile(String path, String content) throws Exception {
+        File file = new File(context, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes());
+    }
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.TarUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Compares sending of the build context through temporary tar file, as it was done before,
+ * with streaming of the archive while it is created.
+ * Measures time until the whole context is written to the connection and time until the first byte is written,
+ * i.e. when docker may start the build. Context is generated in a temporary directory, 2000 files of 64 KB
+ * by default, the first half of each file is compressible, so compressed streaming is measured as well.
+ */
+public class BuildContextUploadBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS        = 10;
+
+    public static void main(String[] args) throws Exception {
+        int filesCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int fileSizeKb = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        File context = createContext(filesCount, fileSizeKb);
+        try {
+            File[] files = context.listFiles();
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                viaTempFile(files, new Connection());
+                streaming(files, new Connection(), false);
+            }
+            report("temp file", () -> viaTempFile(files, new Connection()));
+            report("streaming", () -> streaming(files, new Connection(), false));
+            report("streaming gzip", () -> streaming(files, new Connection(), true));
+        } finally {
+            IoUtil.deleteRecursive(context);
+        }
+    }
+
+    private static Connection viaTempFile(File[] files, Connection connection) throws IOException {
+        File tar = Files.createTempFile(null, ".tar").toFile();
+        try {
+            TarUtils.tarFiles(tar, 0, files);
+            Files.copy(tar.toPath(), connection);
+            return connection;
+        } finally {
+            Files.delete(tar.toPath());
+        }
+    }
+
+    private static Connection streaming(File[] files, Connection connection, boolean compress) throws IOException {
+        DockerConnector.writeBuildContext(connection, files, path -> true, compress);
+        return connection;
+    }
+
+    private static void report(String name, Upload upload) throws IOException {
+        long total = 0;
+        long firstByte = 0;
+        long bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            Connection connection = upload.run();
+            total += System.nanoTime() - start;
+            firstByte += connection.firstByteTime - start;
+            bytes = connection.bytes;
+        }
+        System.out.printf("%-15s total %8.1f ms, first byte %8.1f ms, sent %d bytes%n",
+                          name,
+                          total / ITERATIONS / 1e6,
+                          firstByte / ITERATIONS / 1e6,
+                          bytes);
+    }
+
+    private static File createContext(int filesCount, int fileSizeKb) throws IOException {
+        File context = Files.createTempDirectory("build-context").toFile();
+        Random random = new Random(42);
+        byte[] content = new byte[fileSizeKb * 1024];
+        for (int i = 0; i < filesCount; i++) {
+            // half of the content is compressible
+            random.nextBytes(content);
+            for (int j = 0; j < content.length / 2; j++) {
+                content[j] = 'a';
+            }
+            File file = new File(context, "dir" + i % 20 + "/file" + i);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), content);
+        }
+        Files.write(new File(context, "Dockerfile").toPath(), "FROM scratch\nCOPY . /".getBytes());
+        return context;
+    }
+
+    private interface Upload {
+        Connection run() throws IOException;
+    }
+
+    /** Discards sent data, remembers when the first byte was sent. */
+    private static class Connection extends OutputStream {
+        long firstByteTime;
+        long bytes;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (bytes == 0 && len > 0) {
+                firstByteTime = System.nanoTime();
+            }
+            bytes += len;
+        }
+    }
+}
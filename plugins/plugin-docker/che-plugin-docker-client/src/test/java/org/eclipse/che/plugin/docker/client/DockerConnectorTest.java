@@ -52,6 +52,7 @@ import org.eclipse.che.plugin.docker.client.json.network.EndpointConfig;
 import org.eclipse.che.plugin.docker.client.json.network.Ipam;
 import org.eclipse.che.plugin.docker.client.json.network.IpamConfig;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
+import org.eclipse.che.plugin.docker.client.json.stats.ContainerStats;
 import org.eclipse.che.plugin.docker.client.json.network.NewIpamConfig;
 import org.eclipse.che.plugin.docker.client.json.network.NewNetwork;
 import org.eclipse.che.plugin.docker.client.params.AttachContainerParams;
@@ -60,6 +61,7 @@ import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
 import org.eclipse.che.plugin.docker.client.params.GetContainerLogsParams;
+import org.eclipse.che.plugin.docker.client.params.GetContainerStatsParams;
 import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
 import org.eclipse.che.plugin.docker.client.params.GetExecInfoParams;
 import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
@@ -73,6 +75,7 @@ import org.eclipse.che.plugin.docker.client.params.PutResourceParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveNetworkParams;
+import org.eclipse.che.plugin.docker.client.params.RenameContainerParams;
 import org.eclipse.che.plugin.docker.client.params.StartContainerParams;
 import org.eclipse.che.plugin.docker.client.params.StartExecParams;
 import org.eclipse.che.plugin.docker.client.params.StopContainerParams;
@@ -909,8 +912,8 @@ public class DockerConnectorTest {
         verify(dockerConnection).path("/containers/" + putResourceParams.getContainer() + "/archive");
         verify(dockerConnection).query(eq("path"), eq(PATH_TO_FILE));
         verify(dockerConnection).header("Content-Type", ExtMediaType.APPLICATION_X_TAR);
-        verify(dockerConnection).header(eq("Content-Length"), anyInt());
-        verify(dockerConnection).entity(any(InputStream.class));
+        verify(dockerConnection, never()).header(eq("Content-Length"), anyInt());
+        verify(dockerConnection).chunkedEntity(any(DockerConnection.EntityWriter.class));
         verify(dockerConnection).request();
         verify(dockerResponse).getStatus();
     }
@@ -980,8 +983,8 @@ public class DockerConnectorTest {
         verify(dockerConnection).path("/build");
 
         verify(dockerConnection).header("Content-Type", "application/x-compressed-tar");
-        verify(dockerConnection).header(eq("Content-Length"), anyInt());
-        verify(dockerConnection).entity(any(InputStream.class));
+        verify(dockerConnection, never()).header(eq("Content-Length"), anyInt());
+        verify(dockerConnection).chunkedEntity(any(DockerConnection.EntityWriter.class));
         verify(dockerConnection, never()).header(eq("remote"), anyString());
 
         verify(dockerConnection).header(eq("X-Registry-Config"), any(byte[].class));
@@ -1082,8 +1085,8 @@ public class DockerConnectorTest {
         verify(dockerConnection).path("/build");
 
         verify(dockerConnection).header("Content-Type", "application/x-compressed-tar");
-        verify(dockerConnection).header(eq("Content-Length"), anyInt());
-        verify(dockerConnection).entity(any(InputStream.class));
+        verify(dockerConnection, never()).header(eq("Content-Length"), anyInt());
+        verify(dockerConnection).chunkedEntity(any(DockerConnection.EntityWriter.class));
 
         verify(dockerConnection).header(eq("X-Registry-Config"), any(byte[].class));
         verify(dockerConnection).request();
@@ -1446,6 +1449,57 @@ public class DockerConnectorTest {
         verify(dockerResponse).getStatus();
     }
 
+    @Test
+    public void shouldBeAbleToRenameContainer() throws IOException {
+        RenameContainerParams renameContainerParams = RenameContainerParams.create(CONTAINER, "new_name");
+        when(dockerResponse.getStatus()).thenReturn(RESPONSE_NO_CONTENT_CODE);
+
+        dockerConnector.renameContainer(renameContainerParams);
+
+        verify(dockerConnectionFactory).openConnection(any(URI.class));
+        verify(dockerConnection).method(REQUEST_METHOD_POST);
+        verify(dockerConnection).path("/containers/" + CONTAINER + "/rename");
+        verify(dockerConnection).query("name", "new_name");
+        verify(dockerConnection).request();
+    }
+
+    @Test(expectedExceptions = ContainerNotFoundException.class)
+    public void shouldThrowContainerNotFoundExceptionWhileRenamingContainerIfResponseCodeIs404() throws IOException {
+        when(dockerResponse.getInputStream()).thenReturn(new ByteArrayInputStream("container not found".getBytes()));
+        when(dockerResponse.getStatus()).thenReturn(RESPONSE_NOT_FOUND_CODE);
+
+        dockerConnector.renameContainer(RenameContainerParams.create(CONTAINER, "new_name"));
+    }
+
+    @Test
+    public void shouldBeAbleToGetContainerStats() throws IOException {
+        String stats = "{\"read\":\"2017-01-20T10:00:00.000000000Z\"," +
+                       "\"cpu_stats\":{\"cpu_usage\":{\"total_usage\":200},\"system_cpu_usage\":1000,\"online_cpus\":2}," +
+                       "\"memory_stats\":{\"usage\":2048,\"limit\":4096,\"stats\":{\"cache\":1024}}," +
+                       "\"networks\":{\"eth0\":{\"rx_bytes\":10,\"tx_bytes\":20}}}";
+        when(dockerResponse.getInputStream()).thenReturn(new ByteArrayInputStream(stats.getBytes()));
+
+        ContainerStats containerStats = dockerConnector.getContainerStats(GetContainerStatsParams.create(CONTAINER));
+
+        verify(dockerConnection).method(REQUEST_METHOD_GET);
+        verify(dockerConnection).path("/containers/" + CONTAINER + "/stats");
+        verify(dockerConnection).query("stream", 0);
+        assertEquals(containerStats.getCpuStats().getCpuUsage().getTotalUsage(), 200);
+        assertEquals(containerStats.getCpuStats().getSystemCpuUsage(), 1000);
+        assertEquals(containerStats.getCpuStats().getOnlineCpus(), 2);
+        assertEquals(containerStats.getMemoryStats().getUsage(), 2048);
+        assertEquals(containerStats.getMemoryStats().getStats().get("cache"), Long.valueOf(1024));
+        assertEquals(containerStats.getNetworks().get("eth0").getTxBytes(), 20);
+    }
+
+    @Test(expectedExceptions = ContainerNotFoundException.class)
+    public void shouldThrowContainerNotFoundExceptionWhileGettingContainerStatsIfResponseCodeIs404() throws IOException {
+        when(dockerResponse.getInputStream()).thenReturn(new ByteArrayInputStream("container not found".getBytes()));
+        when(dockerResponse.getStatus()).thenReturn(RESPONSE_NOT_FOUND_CODE);
+
+        dockerConnector.getContainerStats(GetContainerStatsParams.create(CONTAINER));
+    }
+
     @Test
     public void shouldUseFirstLetterLowercaseWhenParseResponseStreamAndClose() throws IOException, JsonParseException {
         String response = "{\n" +
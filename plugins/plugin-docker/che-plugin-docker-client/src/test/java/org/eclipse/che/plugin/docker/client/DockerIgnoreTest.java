@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link DockerIgnore}.
+ */
+public class DockerIgnoreTest {
+
+    @Test(dataProvider = "rules")
+    public void shouldApplyRules(String content, String path, boolean accepted) {
+        assertEquals(DockerIgnore.parse(content).test(path), accepted);
+    }
+
+    @DataProvider(name = "rules")
+    public Object[][] rules() {
+        return new Object[][] {
+                {"", "src/Main.java", true},
+                {"# comment\n\n", "src/Main.java", true},
+                {"target", "target", false},
+                {"target", "target/classes/Main.class", false},
+                {"target", "src/target", true},
+                {"/target/", "target/app.jar", false},
+                {"*.log", "build.log", false},
+                {"*.log", "logs/build.log", true},
+                {"*/*.log", "logs/build.log", false},
+                {"**/*.log", "logs/2017/build.log", false},
+                {"**/*.log", "build.log", false},
+                {"build?.txt", "build1.txt", false},
+                {"build?.txt", "build10.txt", true},
+                {"build[0-9].txt", "build5.txt", false},
+                {"*.md\n!README.md", "README.md", true},
+                {"*.md\n!README.md", "CHANGES.md", false},
+                {"!README.md\n*.md", "README.md", false},
+                {"docs\n!docs/index.html", "docs", true},
+                {"docs\n!docs/index.html", "docs/index.html", true},
+                {"docs\n!docs/index.html", "docs/other.html", false},
+                {"*", "Dockerfile", true},
+                {"*", ".dockerignore", true},
+                {"*", "src", false}
+        };
+    }
+}
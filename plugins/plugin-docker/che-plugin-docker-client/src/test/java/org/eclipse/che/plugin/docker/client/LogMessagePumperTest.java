@@ -10,12 +10,18 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client;
 
+import com.google.common.base.Strings;
+
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -61,6 +67,48 @@ public class LogMessagePumperTest {
         logMessagePumper.start();
     }
 
+    @Test
+    public void shouldJoinLinesSplitBetweenFrames() throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeFrame(stream, 1, "line1\nli");
+        writeFrame(stream, 2, "ne2\nline3\nline4");
+        List<LogMessage> messages = new ArrayList<>();
+
+        new LogMessagePumper(new ByteArrayInputStream(stream.toByteArray()), messages::add).start();
+
+        assertEquals(messages.size(), 4);
+        assertEquals(messages.get(0).getContent(), "line1");
+        assertEquals(messages.get(1).getContent(), "line2");
+        assertEquals(messages.get(1).getType(), LogMessage.Type.STDERR);
+        assertEquals(messages.get(2).getContent(), "line3");
+        assertEquals(messages.get(3).getContent(), "line4");
+    }
+
+    @Test
+    public void shouldNotSplitMultiByteCharacterOfLongLine() throws Exception {
+        // 1023 ASCII chars followed by 2 bytes char exceed maximum line length of 1024 bytes
+        String src = Strings.repeat("a", 1023) + "\u00e9b";
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeFrame(stream, 1, src);
+        List<String> lines = new ArrayList<>();
+
+        new LogMessagePumper(new ByteArrayInputStream(stream.toByteArray()), message -> lines.add(message.getContent()))
+                .start();
+
+        assertEquals(lines.size(), 2);
+        assertEquals(lines.get(0), Strings.repeat("a", 1023));
+        assertEquals(lines.get(1), "\u00e9b");
+    }
+
+    private void writeFrame(ByteArrayOutputStream stream, int type, String content) {
+        byte[] payload = content.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(8);
+        header.put(0, (byte)type);
+        header.putInt(4, payload.length);
+        stream.write(header.array(), 0, 8);
+        stream.write(payload, 0, payload.length);
+    }
+
     private InputStream getTestInputStream(String src) throws UnsupportedEncodingException {
         final byte remaining = (byte)src.getBytes("UTF-8").length;
         final byte[] stdoutHeader = {1, 0, 0, 0, 0, 0, 0, remaining};
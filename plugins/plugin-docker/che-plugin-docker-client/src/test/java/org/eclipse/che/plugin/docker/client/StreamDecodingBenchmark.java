@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client;
+
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Measures decoding of typical docker streams: multiplexed container logs with lines of different length
+ * and JSON progress records of an image build, 16 MB of each by default.
+ * Allocated bytes are read from the HotSpot thread bean, so allocation per message is {@code NaN} on other JVMs.
+ */
+public class StreamDecodingBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS        = 20;
+
+    public static void main(String[] args) throws Exception {
+        int sizeMb = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        byte[] logs = createLogStream(sizeMb * 1024 * 1024);
+        byte[] build = createBuildStream(sizeMb * 1024 * 1024);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            decodeLogs(logs);
+            decodeBuild(build);
+        }
+        report("container logs", logs.length, () -> decodeLogs(logs));
+        report("build progress", build.length, () -> decodeBuild(build));
+    }
+
+    private static long decodeLogs(byte[] stream) throws IOException {
+        long[] messages = new long[1];
+        new LogMessagePumper(new ByteArrayInputStream(stream), message -> messages[0]++).start();
+        return messages[0];
+    }
+
+    private static long decodeBuild(byte[] stream) throws IOException {
+        JsonMessageReader<ProgressStatus> reader = new JsonMessageReader<>(new ByteArrayInputStream(stream),
+                                                                           ProgressStatus.class);
+        long messages = 0;
+        while (reader.next() != null) {
+            messages++;
+        }
+        return messages;
+    }
+
+    private static void report(String name, long bytes, Decoding decoding) throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        long messages = 0;
+        long allocated = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long allocatedBefore = allocatedBytes(threads);
+            long start = System.nanoTime();
+            messages = decoding.run();
+            total += System.nanoTime() - start;
+            allocated += allocatedBytes(threads) - allocatedBefore;
+        }
+        double seconds = total / 1e9 / ITERATIONS;
+        System.out.printf("%-15s %8.1f MB/s %10.0f messages/s %8.1f bytes allocated per message%n",
+                          name,
+                          bytes / 1024.0 / 1024.0 / seconds,
+                          messages / seconds,
+                          allocated < 0 ? Double.NaN : (double)allocated / ITERATIONS / messages);
+    }
+
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /** Frames of random size, as docker splits output by writes of the process, with lines up to 200 chars. */
+    private static byte[] createLogStream(int size) {
+        Random random = new Random(1);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(size + size / 10);
+        StringBuilder frame = new StringBuilder();
+        while (stream.size() < size) {
+            frame.setLength(0);
+            int lines = 1 + random.nextInt(20);
+            for (int i = 0; i < lines; i++) {
+                int length = random.nextInt(200);
+                for (int j = 0; j < length; j++) {
+                    frame.append((char)('a' + random.nextInt(26)));
+                }
+                frame.append('\n');
+            }
+            byte[] payload = frame.toString().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer header = ByteBuffer.allocate(8);
+            header.put(0, (byte)(1 + random.nextInt(2)));
+            header.putInt(4, payload.length);
+            stream.write(header.array(), 0, 8);
+            stream.write(payload, 0, payload.length);
+        }
+        return stream.toByteArray();
+    }
+
+    /** Mix of build steps output and layers download progress records. */
+    private static byte[] createBuildStream(int size) {
+        Random random = new Random(1);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(size + size / 10);
+        int step = 0;
+        while (stream.size() < size) {
+            String record;
+            if (random.nextInt(4) == 0) {
+                record = "{\"stream\":\"Step " + step++ + " : RUN apt-get install -y package" + random.nextInt(1000) + "\\n\"}\r\n";
+            } else {
+                int current = random.nextInt(1000000);
+                record = "{\"status\":\"Downloading\",\"progressDetail\":{\"current\":" + current + ",\"total\":1000000}," +
+                         "\"progress\":\"[=====>      ] " + current / 1000 + " kB/1 MB\",\"id\":\"" +
+                         Integer.toHexString(random.nextInt()) + "\"}\r\n";
+            }
+            byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+            stream.write(bytes, 0, bytes.length);
+        }
+        return stream.toByteArray();
+    }
+
+    private interface Decoding {
+        long run() throws IOException;
+    }
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link ChunkedOutputStream}.
+ */
+public class ChunkedOutputStreamTest {
+
+    @Test
+    public void shouldWriteDataByChunks() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ChunkedOutputStream chunkedOutput = new ChunkedOutputStream(output, 4);
+
+        chunkedOutput.write("hello world".getBytes(US_ASCII));
+        chunkedOutput.finish();
+
+        assertEquals(output.toString("US-ASCII"), "4\r\nhell\r\n4\r\no wo\r\n3\r\nrld\r\n0\r\n\r\n");
+    }
+
+    @Test
+    public void shouldNotWriteEmptyChunkOnFlush() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ChunkedOutputStream chunkedOutput = new ChunkedOutputStream(output, 16);
+
+        chunkedOutput.write('a');
+        chunkedOutput.flush();
+        chunkedOutput.flush();
+        chunkedOutput.close();
+
+        assertEquals(output.toString("US-ASCII"), "1\r\na\r\n0\r\n\r\n");
+    }
+
+    @Test
+    public void shouldBeReadableByChunkedInputStream() throws Exception {
+        byte[] data = new byte[200_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte)i;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ChunkedOutputStream chunkedOutput = new ChunkedOutputStream(output);
+
+        chunkedOutput.write(data, 0, data.length);
+        chunkedOutput.finish();
+
+        ChunkedInputStream input = new ChunkedInputStream(new ByteArrayInputStream(output.toByteArray()));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = input.read(buffer)) != -1) {
+            read.write(buffer, 0, n);
+        }
+        assertEquals(read.toByteArray(), data);
+    }
+}
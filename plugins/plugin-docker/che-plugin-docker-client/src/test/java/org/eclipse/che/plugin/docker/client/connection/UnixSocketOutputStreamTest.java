@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.eclipse.che.plugin.docker.client.CLibrary;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link UnixSocketOutputStream}.
+ */
+public class UnixSocketOutputStreamTest {
+    private static final int FD = 7;
+
+    @Test
+    public void shouldSendRestOfBufferAfterPartialSend() throws Exception {
+        ByteArrayOutputStream socket = new ByteArrayOutputStream();
+        UnixSocketOutputStream output = new UnixSocketOutputStream(FD, socketAcceptingAtMost(socket, 4));
+
+        output.write("hello world".getBytes(US_ASCII));
+
+        assertEquals(socket.toString("US-ASCII"), "hello world");
+    }
+
+    @Test
+    public void shouldSendPartOfArrayStartingAtOffset() throws Exception {
+        ByteArrayOutputStream socket = new ByteArrayOutputStream();
+        UnixSocketOutputStream output = new UnixSocketOutputStream(FD, socketAcceptingAtMost(socket, 3));
+
+        output.write("hello world".getBytes(US_ASCII), 2, 7);
+
+        assertEquals(socket.toString("US-ASCII"), "llo wor");
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldThrowExceptionWhenNothingIsSent() throws Exception {
+        CLibrary cLib = mock(CLibrary.class);
+        when(cLib.send(eq(FD), any(byte[].class), anyInt(), anyInt())).thenReturn(0);
+
+        new UnixSocketOutputStream(FD, cLib).write("hello".getBytes(US_ASCII));
+    }
+
+    private static CLibrary socketAcceptingAtMost(ByteArrayOutputStream socket, int maxBytes) {
+        CLibrary cLib = mock(CLibrary.class);
+        when(cLib.send(eq(FD), any(byte[].class), anyInt(), anyInt())).thenAnswer(invocation -> {
+            byte[] buffer = (byte[])invocation.getArguments()[1];
+            int sent = Math.min((int)invocation.getArguments()[2], maxBytes);
+            socket.write(buffer, 0, sent);
+            return sent;
+        });
+        return cLib;
+    }
+}
@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.json.ContainerConfig;
+import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.Filters;
+import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
+import org.eclipse.che.plugin.docker.client.params.ListContainersParams;
+import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
+import org.slf4j.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Pool of the containers which are created in advance, so start of a machine doesn't wait for container creation.
+ * <p/>
+ * Pool learns configurations of the containers from the machines being started: each configuration which is
+ * claimed from the pool is remembered and the pool is refilled with containers which have exactly the same
+ * configuration. Configurations must not contain anything specific to a workspace, e.g. name of the container
+ * or network, since docker doesn't allow to change most of the container configuration after creation.
+ * Such things are applied by the caller when container is claimed. Configurations are compared by their JSON
+ * representation, since the docker client model doesn't implement equality.
+ * <p/>
+ * Pooled containers are removed when they are not claimed during configured TTL,
+ * configurations which are not claimed during TTL are forgotten.
+ * Memory limits of all the pooled containers can't exceed configured capacity.
+ */
+@Singleton
+public class DockerContainerPool {
+    private static final Logger LOG = getLogger(DockerContainerPool.class);
+
+    /**
+     * Prefix of the names of pooled containers, containers left by previous run of the server are found by it.
+     */
+    public static final String POOLED_CONTAINER_NAME_PREFIX = "che_warm_pool_";
+
+    private static final long MIN_EVICTION_PERIOD_MS = 10_000;
+    private static final Gson GSON                   = new Gson();
+
+    private final DockerConnector               docker;
+    private final int                           size;
+    private final long                          ttlMillis;
+    private final long                          capacityBytes;
+    private final long                          defaultMemoryBytes;
+    private final Map<String, Template>         templates;
+    private final ScheduledExecutorService      executor;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong missed  = new AtomicLong();
+
+    private long reservedBytes;
+
+    /**
+     * Creates pool of the containers.
+     *
+     * @param size
+     *         number of the containers which are kept for each configuration, 0 disables pool
+     * @param ttlSec
+     *         time in seconds during which not claimed containers and configurations are kept
+     * @param maxMemoryMb
+     *         total memory limit of all the pooled containers in megabytes, if not positive then it is
+     *         pool size multiplied by default memory size of the workspace machine
+     * @param defaultMemoryMb
+     *         default memory size of the workspace machine, used for containers without memory limit
+     */
+    @Inject
+    public DockerContainerPool(DockerConnectorProvider dockerProvider,
+                               @Named("che.docker.warm_pool.size") int size,
+                               @Named("che.docker.warm_pool.ttl_sec") long ttlSec,
+                               @Named("che.docker.warm_pool.max_memory_mb") long maxMemoryMb,
+                               @Named("che.workspace.default_memory_mb") long defaultMemoryMb) {
+        this.docker = dockerProvider.get();
+        this.size = Math.max(size, 0);
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSec);
+        this.defaultMemoryBytes = defaultMemoryMb * 1024 * 1024;
+        this.capacityBytes = maxMemoryMb > 0 ? maxMemoryMb * 1024 * 1024 : this.size * defaultMemoryBytes;
+        this.templates = new ConcurrentHashMap<>();
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("DockerContainerPool-%d")
+                                          .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                          .setDaemon(true)
+                                          .build());
+    }
+
+    /**
+     * Returns {@code true} if containers are pooled.
+     */
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * Claims container with the given configuration from the pool and schedules refill of the pool.
+     * Claimed container is not tracked by the pool anymore, it is up to the caller to rename it,
+     * connect it to networks and start it.
+     *
+     * @param config
+     *         configuration of the container, must not be modified after it is passed to the pool
+     * @return id of the created but not started container or {@code null} if there is no such container in the pool
+     */
+    public String claim(ContainerConfig config) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Template template = templates.computeIfAbsent(GSON.toJson(config), key -> new Template(key, config));
+        template.lastClaimed = System.currentTimeMillis();
+        PooledContainer container;
+        while ((container = template.containers.poll()) != null) {
+            release(template);
+            if (!container.isExpired()) {
+                break;
+            }
+            remove(container.id);
+        }
+        executor.execute(() -> refill(template));
+        if (container == null) {
+            missed.incrementAndGet();
+            return null;
+        }
+        claimed.incrementAndGet();
+        LOG.debug("Claimed pooled container {} created from image {}", container.id, config.getImage());
+        return container.id;
+    }
+
+    /**
+     * Returns statistics of the pool, values are accumulated since server start.
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new TreeMap<>();
+        statistics.put("claimed", claimed.get());
+        statistics.put("missed", missed.get());
+        statistics.put("pooled", templates.values()
+                                          .stream()
+                                          .mapToLong(template -> template.containers.size())
+                                          .sum());
+        return statistics;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        executor.execute(this::removeLeftovers);
+        long period = Math.max(ttlMillis / 2, MIN_EVICTION_PERIOD_MS);
+        executor.scheduleWithFixedDelay(this::evictExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+        for (Template template : templates.values()) {
+            PooledContainer container;
+            while ((container = template.containers.poll()) != null) {
+                remove(container.id);
+            }
+        }
+        templates.clear();
+    }
+
+    /**
+     * Creates containers until there are {@link #size} containers of the template or capacity is reached.
+     */
+    void refill(Template template) {
+        if (!template.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (templates.get(template.key) == template && template.containers.size() < size && reserve(template)) {
+                try {
+                    String id = docker.createContainer(CreateContainerParams.create(template.config)
+                                                                            .withContainerName(NameGenerator.generate(
+                                                                                    POOLED_CONTAINER_NAME_PREFIX, 16)))
+                                      .getId();
+                    template.containers.add(new PooledContainer(id));
+                } catch (IOException e) {
+                    release(template);
+                    LOG.warn("Failed to create pooled container from image {}. Cause: {}",
+                             template.config.getImage(), e.getLocalizedMessage());
+                    return;
+                }
+            }
+        } finally {
+            template.refilling.set(false);
+        }
+    }
+
+    /**
+     * Removes containers which were not claimed during TTL, forgets configurations which were not claimed during TTL.
+     */
+    void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Template> it = templates.values().iterator(); it.hasNext(); ) {
+            Template template = it.next();
+            boolean forget = template.lastClaimed + ttlMillis < now;
+            if (forget) {
+                it.remove();
+            }
+            List<PooledContainer> expired = new ArrayList<>();
+            for (PooledContainer container : template.containers) {
+                if (forget || container.isExpired()) {
+                    expired.add(container);
+                }
+            }
+            for (PooledContainer container : expired) {
+                if (template.containers.remove(container)) {
+                    release(template);
+                    remove(container.id);
+                }
+            }
+            if (!forget && !expired.isEmpty()) {
+                refill(template);
+            }
+        }
+    }
+
+    private void removeLeftovers() {
+        try {
+            List<ContainerListEntry> containers =
+                    docker.listContainers(ListContainersParams.create()
+                                                              .withAll(true)
+                                                              .withFilters(new Filters().withFilter("name",
+                                                                                                    POOLED_CONTAINER_NAME_PREFIX)));
+            for (ContainerListEntry container : containers) {
+                // names of the containers start with slash
+                if (container.getNames() != null && container.getNames().length > 0 &&
+                    container.getNames()[0].startsWith('/' + POOLED_CONTAINER_NAME_PREFIX)) {
+                    remove(container.getId());
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to remove pooled containers left by previous run. Cause: {}", e.getLocalizedMessage());
+        }
+    }
+
+    private synchronized boolean reserve(Template template) {
+        if (reservedBytes + template.memoryBytes > capacityBytes) {
+            return false;
+        }
+        reservedBytes += template.memoryBytes;
+        return true;
+    }
+
+    private synchronized void release(Template template) {
+        reservedBytes -= template.memoryBytes;
+    }
+
+    private void remove(String container) {
+        try {
+            docker.removeContainer(RemoveContainerParams.create(container)
+                                                        .withRemoveVolumes(true)
+                                                        .withForce(true));
+        } catch (IOException e) {
+            LOG.warn("Failed to remove pooled container {}. Cause: {}", container, e.getLocalizedMessage());
+        }
+    }
+
+    class Template {
+        final String                 key;
+        final ContainerConfig        config;
+        final long                   memoryBytes;
+        final Queue<PooledContainer> containers = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean          refilling  = new AtomicBoolean();
+
+        volatile long lastClaimed;
+
+        Template(String key, ContainerConfig config) {
+            this.key = key;
+            this.config = config;
+            long memory = config.getHostConfig() != null ? config.getHostConfig().getMemory() : 0;
+            this.memoryBytes = memory > 0 ? memory : defaultMemoryBytes;
+        }
+    }
+
+    private class PooledContainer {
+        final String id;
+        final long   created;
+
+        PooledContainer(String id) {
+            this.id = id;
+            this.created = System.currentTimeMillis();
+        }
+
+        boolean isExpired() {
+            return created + ttlMillis < System.currentTimeMillis();
+        }
+    }
+}
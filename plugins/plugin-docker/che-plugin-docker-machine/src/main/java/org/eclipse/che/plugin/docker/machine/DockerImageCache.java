@@ -0,0 +1,328 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.dto.AuthConfigs;
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
+import org.eclipse.che.plugin.docker.client.json.Image;
+import org.eclipse.che.plugin.docker.client.json.ImageInfo;
+import org.slf4j.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Prepares images of the machines.
+ * <ul>
+ * <li>Images built from Dockerfile content are tagged with hash of the Dockerfile content and build arguments,
+ * so subsequent start of a machine with the same build reuses previously built image instead of building it again.
+ * Reused image must not be older than configured max age, which limits staleness of base images
+ * when builds are configured to always pull them. Images which are older than max age are periodically untagged,
+ * so docker can remove them when they aren't used by machines.</li>
+ * <li>Concurrent builds or pulls of the same image are collapsed into single operation,
+ * its progress is sent to every caller which waits for it. Pulls are shared only by callers with the same
+ * registry credentials, so an image is never provided to a user who isn't authorized to pull it.</li>
+ * </ul>
+ */
+@Singleton
+public class DockerImageCache {
+    private static final Logger LOG = getLogger(DockerImageCache.class);
+
+    /**
+     * Repository of the images built from Dockerfiles, tag of the image is the hash of the build.
+     */
+    public static final String BUILD_CACHE_REPOSITORY = "eclipse-che/build_cache";
+
+    private final DockerConnector docker;
+    private final boolean         buildCacheEnabled;
+    private final long            maxAgeMillis;
+
+    private final Map<String, InFlightOperation> inFlight       = new ConcurrentHashMap<>();
+    /** Durations of the builds which were performed by this server, used to estimate time saved by cache hits. */
+    private final Map<String, Long>              buildDurations = new ConcurrentHashMap<>();
+
+    private final AtomicLong cacheHits        = new AtomicLong();
+    private final AtomicLong cacheMisses      = new AtomicLong();
+    private final AtomicLong sharedOperations = new AtomicLong();
+    private final AtomicLong savedTimeMillis  = new AtomicLong();
+    private final AtomicLong buildsCount      = new AtomicLong();
+    private final AtomicLong buildsTimeMillis = new AtomicLong();
+
+    @Inject
+    public DockerImageCache(DockerConnectorProvider dockerProvider,
+                            @Named("che.docker.build_cache") boolean buildCacheEnabled,
+                            @Named("che.docker.build_cache.max_age_sec") long maxAgeSec) {
+        this.docker = dockerProvider.get();
+        this.buildCacheEnabled = buildCacheEnabled;
+        this.maxAgeMillis = maxAgeSec * 1000;
+    }
+
+    /**
+     * Returns {@code true} if images built from Dockerfiles are reused between machine starts.
+     */
+    public boolean isBuildCacheEnabled() {
+        return buildCacheEnabled;
+    }
+
+    /**
+     * Computes key of the build from Dockerfile content, builds with equal keys produce equal images.
+     * Builds from remote build context have no key, as content of the context is unknown until it is fetched by docker.
+     *
+     * @param dockerfileContent
+     *         content of the Dockerfile
+     * @param buildArgs
+     *         build arguments, may be {@code null}
+     */
+    public static String buildKey(String dockerfileContent, Map<String, String> buildArgs) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        putNullable(hasher, dockerfileContent);
+        if (buildArgs != null) {
+            new TreeMap<>(buildArgs).forEach((name, value) -> {
+                putNullable(hasher, name);
+                putNullable(hasher, value);
+            });
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Computes key of the registry credentials, pulls with equal keys are performed with the same credentials.
+     *
+     * @param authConfigs
+     *         credentials of the registries, may be {@code null}
+     */
+    public static String credentialsKey(AuthConfigs authConfigs) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        if (authConfigs != null && authConfigs.getConfigs() != null) {
+            new TreeMap<>(authConfigs.getConfigs()).forEach((registry, config) -> {
+                putNullable(hasher, registry);
+                putNullable(hasher, config == null ? null : config.getUsername());
+                putNullable(hasher, config == null ? null : config.getPassword());
+            });
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Returns image built with the given key, if there is no such image or it is too old the image is built.
+     *
+     * @param buildKey
+     *         key of the build, see {@link #buildKey(String, Map)}
+     * @param progressMonitor
+     *         receives progress of the build
+     * @param build
+     *         builds image with the given repository and tag
+     * @return name of the image including its tag
+     * @throws IOException
+     *         when image can't be built
+     */
+    public String build(String buildKey, ProgressMonitor progressMonitor, BuildOperation build) throws IOException {
+        String image = BUILD_CACHE_REPOSITORY + ':' + buildKey;
+        runShared("build:" + image, progressMonitor, monitor -> {
+            if (isFresh(image)) {
+                cacheHits.incrementAndGet();
+                long saved = estimateBuildDuration(buildKey);
+                savedTimeMillis.addAndGet(saved);
+                LOG.info("Reusing previously built image {}, estimated build time saved {} ms", image, saved);
+                return;
+            }
+            cacheMisses.incrementAndGet();
+            long start = System.currentTimeMillis();
+            build.build(BUILD_CACHE_REPOSITORY, buildKey, monitor);
+            long duration = System.currentTimeMillis() - start;
+            buildDurations.put(buildKey, duration);
+            buildsCount.incrementAndGet();
+            buildsTimeMillis.addAndGet(duration);
+        });
+        return image;
+    }
+
+    /**
+     * Pulls image, concurrent pulls of the same image with the same credentials are performed once.
+     *
+     * @param image
+     *         full name of the image including registry and tag
+     * @param authConfigs
+     *         credentials which are used by the pull, may be {@code null}
+     * @param progressMonitor
+     *         receives progress of the pull
+     * @param pull
+     *         pulls the image
+     * @throws IOException
+     *         when image can't be pulled
+     */
+    public void pull(String image,
+                     AuthConfigs authConfigs,
+                     ProgressMonitor progressMonitor,
+                     Operation pull) throws IOException {
+        runShared("pull:" + image + '@' + credentialsKey(authConfigs), progressMonitor, pull);
+    }
+
+    /**
+     * Returns statistics of the image preparation, values are accumulated since server start.
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new TreeMap<>();
+        statistics.put("build_cache_hits", cacheHits.get());
+        statistics.put("build_cache_misses", cacheMisses.get());
+        statistics.put("shared_operations", sharedOperations.get());
+        statistics.put("saved_time_ms", savedTimeMillis.get());
+        return statistics;
+    }
+
+    /**
+     * Removes tags of the images built from Dockerfiles which are older than max age and won't be reused,
+     * docker keeps the image while it is used by machines or tagged with machine image name.
+     */
+    @ScheduleDelay(initialDelay = 1, delay = 1, unit = TimeUnit.HOURS)
+    public void removeExpiredImages() {
+        if (!buildCacheEnabled || maxAgeMillis <= 0) {
+            return;
+        }
+        List<Image> images;
+        try {
+            images = docker.listImages();
+        } catch (IOException e) {
+            LOG.warn("Can't list images to remove expired images of build cache", e);
+            return;
+        }
+        long expiredBefore = System.currentTimeMillis() - maxAgeMillis;
+        for (Image image : images) {
+            if (image.getRepoTags() == null || TimeUnit.SECONDS.toMillis(image.getCreated()) >= expiredBefore) {
+                continue;
+            }
+            for (String repoTag : image.getRepoTags()) {
+                if (repoTag.startsWith(BUILD_CACHE_REPOSITORY + ':') && !inFlight.containsKey("build:" + repoTag)) {
+                    try {
+                        docker.removeImage(repoTag);
+                        LOG.debug("Removed expired image {} of build cache", repoTag);
+                    } catch (IOException e) {
+                        LOG.debug("Can't remove expired image {} of build cache", repoTag, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void runShared(String key, ProgressMonitor progressMonitor, Operation operation) throws IOException {
+        InFlightOperation created = new InFlightOperation();
+        InFlightOperation existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            existing.monitors.add(progressMonitor);
+            sharedOperations.incrementAndGet();
+            try {
+                existing.result.get();
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + key);
+            } catch (ExecutionException e) {
+                // operation may fail because of the credentials of the user who started it, so try again with own ones
+                LOG.debug("Shared operation {} failed, performing it again", key, e.getCause());
+            } finally {
+                existing.monitors.remove(progressMonitor);
+            }
+            operation.run(progressMonitor);
+            return;
+        }
+
+        created.monitors.add(progressMonitor);
+        try {
+            operation.run(status -> created.monitors.forEach(monitor -> monitor.updateProgress(status)));
+            created.result.complete(null);
+        } catch (IOException | RuntimeException e) {
+            created.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    private boolean isFresh(String image) throws IOException {
+        ImageInfo info;
+        try {
+            info = docker.inspectImage(image);
+        } catch (DockerException e) {
+            if (e.getStatus() == 404) {
+                return false;
+            }
+            throw e;
+        }
+        if (info == null) {
+            return false;
+        }
+        if (maxAgeMillis <= 0 || info.getCreated() == null) {
+            return true;
+        }
+        try {
+            return Instant.parse(info.getCreated()).toEpochMilli() + maxAgeMillis > System.currentTimeMillis();
+        } catch (DateTimeParseException e) {
+            LOG.debug("Can't parse creation date {} of image {}", info.getCreated(), image);
+            return false;
+        }
+    }
+
+    private long estimateBuildDuration(String buildKey) {
+        Long duration = buildDurations.get(buildKey);
+        if (duration != null) {
+            return duration;
+        }
+        long count = buildsCount.get();
+        return count == 0 ? 0 : buildsTimeMillis.get() / count;
+    }
+
+    private static void putNullable(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length()).putString(value, UTF_8);
+        }
+    }
+
+    private static class InFlightOperation {
+        private final CompletableFuture<Void> result   = new CompletableFuture<>();
+        private final List<ProgressMonitor>   monitors = new CopyOnWriteArrayList<>();
+    }
+
+    /** Operation on an image which reports its progress. */
+    public interface Operation {
+        void run(ProgressMonitor progressMonitor) throws IOException;
+    }
+
+    /** Builds image with the given repository and tag. */
+    public interface BuildOperation {
+        void build(String repository, String tag, ProgressMonitor progressMonitor) throws IOException;
+    }
+}
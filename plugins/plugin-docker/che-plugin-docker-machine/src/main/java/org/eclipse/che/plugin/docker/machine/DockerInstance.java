@@ -19,7 +19,6 @@ import org.eclipse.che.api.core.model.machine.Command;
 import org.eclipse.che.api.core.model.machine.Machine;
 import org.eclipse.che.api.core.model.machine.MachineSource;
 import org.eclipse.che.api.core.util.LineConsumer;
-import org.eclipse.che.api.core.util.ListLineConsumer;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.model.impl.MachineRuntimeInfoImpl;
 import org.eclipse.che.api.machine.server.spi.Instance;
@@ -30,8 +29,6 @@ import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
 import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
 import org.eclipse.che.plugin.docker.client.Exec;
-import org.eclipse.che.plugin.docker.client.LogMessage;
-import org.eclipse.che.plugin.docker.client.ProgressLineFormatterImpl;
 import org.eclipse.che.plugin.docker.client.params.CommitParams;
 import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
 import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
@@ -40,22 +37,27 @@ import org.eclipse.che.plugin.docker.client.params.PutResourceParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
 import org.eclipse.che.plugin.docker.client.params.StartExecParams;
+import org.eclipse.che.plugin.docker.machine.local.LocalDockerNode;
 import org.eclipse.che.plugin.docker.machine.node.DockerNode;
+import org.eclipse.che.plugin.docker.machine.stats.MachineStatsSampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.plugin.docker.machine.DockerInstanceProvider.MACHINE_SNAPSHOT_PREFIX;
 
 /**
@@ -100,9 +102,16 @@ public class DockerInstance extends AbstractInstance {
     private final DockerNode                                  node;
     private final DockerInstanceStopDetector                  dockerInstanceStopDetector;
     private final DockerInstanceProcessesCleaner              processesCleaner;
+    private final DockerSnapshotPusher                        snapshotPusher;
+    private final MachineStatsSampler                         statsSampler;
+    private final DockerMachineFiles                          files;
     private final ConcurrentHashMap<Integer, InstanceProcess> machineProcesses;
     private final boolean                                     snapshotUseRegistry;
     private final MachineRuntimeInfoImpl                      machineRuntime;
+    private final long                                        reconcilePeriodMillis;
+    private final Object                                      reconcileLock;
+
+    private volatile long lastReconcileTime;
 
     @Inject
     public DockerInstance(DockerConnectorProvider dockerProvider,
@@ -116,7 +125,10 @@ public class DockerInstance extends AbstractInstance {
                           @Assisted LineConsumer outputConsumer,
                           DockerInstanceStopDetector dockerInstanceStopDetector,
                           DockerInstanceProcessesCleaner processesCleaner,
-                          @Named("che.docker.registry_for_snapshots") boolean snapshotUseRegistry) throws MachineException {
+                          DockerSnapshotPusher snapshotPusher,
+                          MachineStatsSampler statsSampler,
+                          @Named("che.docker.registry_for_snapshots") boolean snapshotUseRegistry,
+                          @Named("che.docker.process_reconcile_period_sec") long reconcilePeriodSec) throws MachineException {
         super(machine);
         this.dockerMachineFactory = dockerMachineFactory;
         this.container = container;
@@ -128,10 +140,16 @@ public class DockerInstance extends AbstractInstance {
         this.node = node;
         this.dockerInstanceStopDetector = dockerInstanceStopDetector;
         this.processesCleaner = processesCleaner;
+        this.snapshotPusher = snapshotPusher;
+        this.statsSampler = statsSampler;
+        this.files = new DockerMachineFiles(docker, container, node instanceof LocalDockerNode);
         this.machineProcesses = new ConcurrentHashMap<>();
         processesCleaner.trackProcesses(this);
         this.snapshotUseRegistry = snapshotUseRegistry;
+        this.reconcilePeriodMillis = TimeUnit.SECONDS.toMillis(reconcilePeriodSec);
+        this.reconcileLock = new Object();
         this.machineRuntime = doGetRuntime();
+        statsSampler.startSampling(getId(), getWorkspaceId(), container);
     }
 
     @Override
@@ -148,6 +166,7 @@ public class DockerInstance extends AbstractInstance {
     public InstanceProcess getProcess(final int pid) throws NotFoundException, MachineException {
         final InstanceProcess machineProcess = machineProcesses.get(pid);
         if (machineProcess != null) {
+            reconcileProcessesIfStale();
             try {
                 machineProcess.checkAlive();
                 return machineProcess;
@@ -159,9 +178,44 @@ public class DockerInstance extends AbstractInstance {
         throw new NotFoundException(format("Process with pid %s not found", pid));
     }
 
+    /**
+     * Returns processes which are running in the machine.
+     * <p/>
+     * State of the processes is tracked in memory, see {@link DockerProcess}.
+     * Processes which ends can't be detected from docker events are found by reconciliation with processes running
+     * in the container, it is performed not more often than once per configured period.
+     */
     @Override
     public List<InstanceProcess> getProcesses() throws MachineException {
-        List<InstanceProcess> processes = new LinkedList<>();
+        reconcileProcessesIfStale();
+        return machineProcesses.values()
+                               .stream()
+                               .filter(InstanceProcess::isAlive)
+                               .collect(toList());
+    }
+
+    private void reconcileProcessesIfStale() throws MachineException {
+        if (System.currentTimeMillis() - lastReconcileTime < reconcilePeriodMillis) {
+            return;
+        }
+        synchronized (reconcileLock) {
+            // other thread might reconcile processes while this one was waiting for the lock
+            long reconcileStartTime = System.currentTimeMillis();
+            if (reconcileStartTime - lastReconcileTime < reconcilePeriodMillis) {
+                return;
+            }
+            final Set<Integer> runningPids = getRunningPids();
+            for (InstanceProcess process : machineProcesses.values()) {
+                if (process instanceof DockerProcess) {
+                    ((DockerProcess)process).reconcile(runningPids.contains(process.getPid()), reconcileStartTime);
+                }
+            }
+            lastReconcileTime = reconcileStartTime;
+        }
+    }
+
+    private Set<Integer> getRunningPids() throws MachineException {
+        final Set<Integer> pids = new HashSet<>();
         try {
             final Exec exec = docker.createExec(CreateExecParams.create(container,
                                                                         new String[] {"/bin/sh",
@@ -173,15 +227,13 @@ public class DockerInstance extends AbstractInstance {
                 final Matcher matcher = PID_FILE_PATH_PATTERN.matcher(pidFilePath);
                 if (matcher.matches()) {
                     final int virtualPid = Integer.parseInt(matcher.group(1));
-                    final InstanceProcess dockerProcess = machineProcesses.get(virtualPid);
-                    if (dockerProcess != null) {
-                        processes.add(dockerProcess);
-                    } else {
+                    if (!machineProcesses.containsKey(virtualPid)) {
                         LOG.warn("Machine process {} exists in container but missing in processes map", virtualPid);
                     }
+                    pids.add(virtualPid);
                 }
             });
-            return processes;
+            return pids;
         } catch (IOException e) {
             throw new MachineException(e);
         }
@@ -212,20 +264,17 @@ public class DockerInstance extends AbstractInstance {
                                               .withRegistry(registry)
                                               .withTag(LATEST_TAG);
 
-            final String fullRepo = pushParams.getFullRepo();
-            commitContainer(fullRepo, LATEST_TAG);
-            //TODO fix this workaround. Docker image is not visible after commit when using swarm
-            Thread.sleep(2000);
-            final ProgressLineFormatterImpl lineFormatter = new ProgressLineFormatterImpl();
-            final String digest = docker.push(pushParams,
-                                              progressMonitor -> {
-                                                  try {
-                                                      outputConsumer.writeLine(lineFormatter.format(progressMonitor));
-                                                  } catch (IOException ignored) {
-                                                  }
-                                              });
-            docker.removeImage(RemoveImageParams.create(fullRepo).withForce(false));
-            return new DockerMachineSource(image).withRegistry(registry).withDigest(digest).withTag(LATEST_TAG);
+            commitContainer(pushParams.getFullRepo(), LATEST_TAG);
+            final DockerMachineSource machineSource = new DockerMachineSource(image).withRegistry(registry)
+                                                                                    .withTag(LATEST_TAG);
+            if (snapshotPusher.isAsync()) {
+                // digest is not known until push is finished, snapshot is restored by the tag
+                snapshotPusher.pushAsync(pushParams,
+                                         DockerSnapshotPusher.machineKey(getWorkspaceId(), getEnvName(), getConfig().getName()),
+                                         outputConsumer);
+                return machineSource;
+            }
+            return machineSource.withDigest(snapshotPusher.push(pushParams, outputConsumer));
         } catch (IOException ioEx) {
             throw new MachineException(ioEx);
         } catch (InterruptedException e) {
@@ -263,6 +312,7 @@ public class DockerInstance extends AbstractInstance {
 
         machineProcesses.clear();
         processesCleaner.untrackProcesses(getId());
+        statsSampler.stopSampling(getId());
         dockerInstanceStopDetector.stopDetection(container);
         try {
             if (getConfig().isDev()) {
@@ -317,26 +367,22 @@ public class DockerInstance extends AbstractInstance {
             throw new MachineException("Impossible to read file " + limit + " lines from " + startFrom + " line");
         }
 
-        // command sed getting file content from startFrom line to (startFrom + limit)
-        String shCommand = format("sed -n \'%1$2s, %2$2sp\' %3$2s", startFrom, startFrom + limit, filePath);
-
-        final String[] command = {"/bin/sh", "-c", shCommand};
-
-        ListLineConsumer lines = new ListLineConsumer();
         try {
-            Exec exec = docker.createExec(CreateExecParams.create(container, command).withDetach(false));
-            docker.startExec(StartExecParams.create(exec.getId()), new LogMessagePrinter(lines, LogMessage::getContent));
+            return files.readLines(filePath, startFrom, limit);
+        } catch (FileNotFoundException e) {
+            throw new MachineException(e.getLocalizedMessage(), e);
         } catch (IOException e) {
-            throw new MachineException(format("Error occurs while initializing command %s in docker container %s: %s",
-                                              Arrays.toString(command), container, e.getLocalizedMessage()), e);
+            throw new MachineException(format("Error occurs while reading file %s in docker container %s: %s",
+                                              filePath, container, e.getLocalizedMessage()), e);
         }
+    }
 
-        String content = lines.getText();
-        if (content.contains("sed: can't read " + filePath + ": No such file or directory") ||
-            content.contains("cat: " + filePath + ": No such file or directory")) {
-            throw new MachineException("File with path " + filePath + " not found");
-        }
-        return content;
+    /**
+     * Returns accessor of the machine files which allows to read
+     * byte ranges of the files and follow them without buffering the whole content.
+     */
+    public DockerMachineFiles getFiles() {
+        return files;
     }
 
     @Override
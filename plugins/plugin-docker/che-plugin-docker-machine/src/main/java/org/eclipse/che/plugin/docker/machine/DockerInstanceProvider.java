@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.machine;
 
+import com.google.common.base.MoreObjects;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -22,6 +23,7 @@ import org.eclipse.che.api.machine.server.exception.InvalidRecipeException;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.exception.SnapshotException;
 import org.eclipse.che.api.machine.server.exception.UnsupportedRecipeException;
+import org.eclipse.che.api.machine.server.model.impl.SnapshotImpl;
 import org.eclipse.che.api.machine.server.spi.Instance;
 import org.eclipse.che.api.machine.server.spi.InstanceProvider;
 import org.eclipse.che.commons.lang.IoUtil;
@@ -40,6 +42,8 @@ import java.net.URL;
 import java.util.Collections;
 import java.util.Set;
 
+import static org.eclipse.che.plugin.docker.machine.DockerInstance.LATEST_TAG;
+
 /**
  * Docker implementation of {@link InstanceProvider}
  *
@@ -71,12 +75,15 @@ public class DockerInstanceProvider implements InstanceProvider {
     public static final String MACHINE_SNAPSHOT_PREFIX = "machine_snapshot_";
 
     private final DockerConnector                               docker;
+    private final DockerSnapshotPusher                          snapshotPusher;
     private final boolean                                       snapshotUseRegistry;
 
     @Inject
     public DockerInstanceProvider(DockerConnectorProvider dockerProvider,
+                                  DockerSnapshotPusher snapshotPusher,
                                   @Named("che.docker.registry_for_snapshots") boolean snapshotUseRegistry) throws IOException {
         this.docker = dockerProvider.get();
+        this.snapshotPusher = snapshotPusher;
         this.snapshotUseRegistry = snapshotUseRegistry;
     }
 
@@ -125,6 +132,27 @@ public class DockerInstanceProvider implements InstanceProvider {
      */
     @Override
     public void removeInstanceSnapshot(final MachineSource machineSource) throws SnapshotException {
+        removeInstanceSnapshot(machineSource, null);
+    }
+
+    /**
+     * Removes snapshot of the instance, removal of the snapshot from the registry is deferred until the snapshot
+     * of the same machine which replaces it is pushed.
+     *
+     * @param snapshot
+     *         snapshot that should be removed
+     * @throws SnapshotException
+     *         if exception occurs on instance snapshot removal
+     */
+    @Override
+    public void removeInstanceSnapshot(SnapshotImpl snapshot) throws SnapshotException {
+        removeInstanceSnapshot(snapshot.getMachineSource(),
+                               DockerSnapshotPusher.machineKey(snapshot.getWorkspaceId(),
+                                                               snapshot.getEnvName(),
+                                                               snapshot.getMachineName()));
+    }
+
+    private void removeInstanceSnapshot(MachineSource machineSource, String machine) throws SnapshotException {
         // use registry API directly because docker doesn't have such API yet
         // https://github.com/docker/docker-registry/issues/45
         final DockerMachineSource dockerMachineSource;
@@ -149,10 +177,49 @@ public class DockerInstanceProvider implements InstanceProvider {
             throw new SnapshotException("Snapshot removing failed. Snapshot attributes are not valid");
         }
 
+        final String tag = MoreObjects.firstNonNull(dockerMachineSource.getTag(), LATEST_TAG);
+        // snapshot is replaced by the one which may be pushed in background yet,
+        // so it is kept until the new snapshot is in the registry
+        final boolean deferred = machine != null
+                                 && snapshotPusher.deferUntilPushed(registry, repository, tag, machine, () -> {
+                                     try {
+                                         removeFromRegistry(dockerMachineSource, registry, repository, tag);
+                                     } catch (SnapshotException e) {
+                                         LOG.error(e.getLocalizedMessage(), e);
+                                     }
+                                 });
+        if (!deferred) {
+            removeFromRegistry(dockerMachineSource, registry, repository, tag);
+        }
+    }
+
+    private void removeFromRegistry(DockerMachineSource dockerMachineSource,
+                                    String registry,
+                                    String repository,
+                                    String tag) throws SnapshotException {
+        String digest = dockerMachineSource.getDigest();
         try {
+            if (digest == null) {
+                // snapshot is pushed in background, so its digest is not stored
+                try {
+                    digest = snapshotPusher.awaitPush(registry, repository, tag);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SnapshotException("Snapshot removing was interrupted");
+                } catch (IOException e) {
+                    // snapshot wasn't pushed, so it is available only locally
+                    snapshotPusher.forget(registry, repository, tag);
+                    docker.removeImage(RemoveImageParams.create(dockerMachineSource.getLocation(false)));
+                    return;
+                }
+                if (digest == null) {
+                    digest = getManifestDigest(registry, repository, tag);
+                }
+            }
+
             URL url = UriBuilder.fromUri("http://" + registry) // TODO make possible to use https here
                                 .path("/v2/{repository}/manifests/{digest}")
-                                .build(repository, dockerMachineSource.getDigest())
+                                .build(repository, digest)
                                 .toURL();
             final HttpURLConnection conn = (HttpURLConnection)url.openConnection();
             try {
@@ -179,4 +246,29 @@ public class DockerInstanceProvider implements InstanceProvider {
         }
     }
 
+    /**
+     * Returns digest of the manifest of the image with the given tag, registry API requires digest to remove the image.
+     */
+    private String getManifestDigest(String registry, String repository, String tag) throws IOException {
+        URL url = UriBuilder.fromUri("http://" + registry) // TODO make possible to use https here
+                            .path("/v2/{repository}/manifests/{tag}")
+                            .build(repository, tag)
+                            .toURL();
+        final HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+        try {
+            conn.setConnectTimeout(30 * 1000);
+            conn.setRequestMethod("HEAD");
+            // digest of the schema 2 manifest is used by registry to identify the image
+            conn.setRequestProperty("Accept", "application/vnd.docker.distribution.manifest.v2+json");
+            final int responseCode = conn.getResponseCode();
+            final String digest = conn.getHeaderField("Docker-Content-Digest");
+            if ((responseCode / 100) != 2 || digest == null) {
+                throw new IOException(String.format("Can't get digest of snapshot %s/%s:%s, response code %s",
+                                                    registry, repository, tag, responseCode));
+            }
+            return digest;
+        } finally {
+            conn.disconnect();
+        }
+    }
 }
@@ -21,24 +21,34 @@ import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
 import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
 import org.eclipse.che.plugin.docker.client.MessageProcessor;
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
 import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.json.ExecInfo;
 import org.eclipse.che.plugin.docker.client.json.Filters;
 import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 /**
  * Track docker containers events to detect containers stop or failure.
+ * Also detects ends of the processes executed in containers, see {@link #startExecDetection(String, String, Runnable)}.
  *
  * @author Alexander Garagatyi
  */
@@ -46,10 +56,21 @@ import java.util.concurrent.TimeUnit;
 public class DockerInstanceStopDetector {
     private static final Logger LOG = LoggerFactory.getLogger(DockerInstanceStopDetector.class);
 
-    private final EventService                      eventService;
-    private final DockerConnector                   dockerConnector;
-    private final ExecutorService                   executorService;
-    private final Map<String, Pair<String, String>> instances;
+    /** Period of inspection of the execs when docker events don't identify ended execs. */
+    static final long EXEC_POLL_PERIOD_SEC = 5;
+    /** Delay of inspection of the execs after docker reports end of some exec, coalesces bursts of such events. */
+    static final long EXEC_EVENT_POLL_DELAY_MS = 500;
+
+    private final EventService                        eventService;
+    private final DockerConnector                     dockerConnector;
+    private final ExecutorService                     executorService;
+    private final ScheduledExecutorService            execPollExecutor;
+    private final Map<String, Pair<String, String>>   instances;
+    /** Exec id to the pair of id of its container and exit callback. */
+    private final Map<String, Pair<String, Runnable>> execs;
+    /** Containers whose execs have to be inspected by the scheduled poll. */
+    private final Set<String>                         containersToPoll;
+    private final AtomicBoolean                       containersPollScheduled;
     /*
        Helps differentiate container main process OOM from other processes OOM
        Algorithm:
@@ -62,15 +83,20 @@ public class DockerInstanceStopDetector {
        That's why cache expires in X seconds.
        X was set as 10 empirically.
     */
-    private final Cache<String, String>             containersOomTimestamps;
+    private final Cache<String, String>               containersOomTimestamps;
 
     private long lastProcessedEventDate = 0;
+    /** Whether docker events identify ended execs, it is so since API version 1.25. */
+    private volatile boolean execEventsIdentifyExec;
 
     @Inject
     public DockerInstanceStopDetector(EventService eventService, DockerConnectorProvider dockerConnectorProvider) {
         this.eventService = eventService;
         this.dockerConnector = dockerConnectorProvider.get();
         this.instances = new ConcurrentHashMap<>();
+        this.execs = new ConcurrentHashMap<>();
+        this.containersToPoll = ConcurrentHashMap.newKeySet();
+        this.containersPollScheduled = new AtomicBoolean();
         this.containersOomTimestamps = CacheBuilder.newBuilder()
                                                    .expireAfterWrite(10, TimeUnit.SECONDS)
                                                    .build();
@@ -80,6 +106,12 @@ public class DockerInstanceStopDetector {
                                                   LoggingUncaughtExceptionHandler.getInstance())
                                           .setDaemon(true)
                                           .build());
+        this.execPollExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("DockerExecPoller-%d")
+                                          .setUncaughtExceptionHandler(
+                                                  LoggingUncaughtExceptionHandler.getInstance())
+                                          .setDaemon(true)
+                                          .build());
     }
 
     /**
@@ -108,6 +140,34 @@ public class DockerInstanceStopDetector {
         instances.remove(containerId);
     }
 
+    /**
+     * Start detection of the end of the process executed in a container.
+     * <p/>
+     * Docker events identify ended execs since API version 1.25. With older event format execs are inspected
+     * periodically, and the execs of the container are inspected when docker reports end of some exec in it,
+     * so end of the process is detected with a delay.
+     *
+     * @param containerId
+     *         id of the container where exec runs
+     * @param execId
+     *         id of the exec
+     * @param onExit
+     *         invoked once when exec is finished
+     */
+    public void startExecDetection(String containerId, String execId, Runnable onExit) {
+        execs.put(execId, Pair.of(containerId, onExit));
+    }
+
+    /**
+     * Stop detection of the end of the process executed in a container.
+     *
+     * @param execId
+     *         id of the exec
+     */
+    public void stopExecDetection(String execId) {
+        execs.remove(execId);
+    }
+
     @PostConstruct
     private void detectContainersEvents() {
         executorService.execute(() -> {
@@ -116,7 +176,7 @@ public class DockerInstanceStopDetector {
                 try {
                     dockerConnector.getEvents(GetEventsParams.create()
                                                              .withSinceSecond(lastProcessedEventDate)
-                                                             .withFilters(new Filters().withFilter("event", "die", "oom")),
+                                                             .withFilters(new Filters().withFilter("event", "die", "oom", "exec_die")),
                                               new EventsProcessor());
                 } catch (IOException e) {
                     // usually connection timeout
@@ -124,9 +184,79 @@ public class DockerInstanceStopDetector {
                 }
             }
         });
+        execPollExecutor.scheduleWithFixedDelay(() -> {
+            if (!execEventsIdentifyExec) {
+                pollExecs();
+            }
+        }, EXEC_POLL_PERIOD_SEC, EXEC_POLL_PERIOD_SEC, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    private void stopExecPolling() {
+        execPollExecutor.shutdownNow();
+    }
+
+    /**
+     * Inspects execs which are being detected and notifies about the ended ones.
+     */
+    void pollExecs() {
+        pollExecs(containerId -> true);
     }
 
-    private class EventsProcessor implements MessageProcessor<Event> {
+    /**
+     * Inspects execs of the containers reported by the exec events since the previous call.
+     */
+    void pollEventContainersExecs() {
+        containersPollScheduled.set(false);
+        final Set<String> containers = new HashSet<>();
+        for (Iterator<String> it = containersToPoll.iterator(); it.hasNext(); ) {
+            containers.add(it.next());
+            it.remove();
+        }
+        if (!containers.isEmpty()) {
+            pollExecs(containers::contains);
+        }
+    }
+
+    private void pollExecs(Predicate<String> containerFilter) {
+        for (Map.Entry<String, Pair<String, Runnable>> entry : execs.entrySet()) {
+            if (!containerFilter.test(entry.getValue().first)) {
+                continue;
+            }
+            boolean ended;
+            try {
+                ExecInfo execInfo = dockerConnector.getExecInfo(entry.getKey());
+                ended = !execInfo.isRunning();
+            } catch (DockerException e) {
+                // exec is removed along with its container
+                ended = e.getStatus() == 404;
+                if (!ended) {
+                    LOG.debug("Can't inspect exec {}", entry.getKey(), e);
+                }
+            } catch (IOException e) {
+                LOG.debug("Can't inspect exec {}", entry.getKey(), e);
+                continue;
+            }
+            if (ended && execs.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().second.run();
+            }
+        }
+    }
+
+    /**
+     * Schedules inspection of the execs of the given container unless it has no detected execs.
+     * Events which come before the scheduled inspection starts are served by it.
+     */
+    private void scheduleContainerPoll(String containerId) {
+        if (containerId == null || execs.values().stream().noneMatch(exec -> containerId.equals(exec.first))) {
+            return;
+        }
+        if (containersToPoll.add(containerId) && containersPollScheduled.compareAndSet(false, true)) {
+            execPollExecutor.schedule(this::pollEventContainersExecs, EXEC_EVENT_POLL_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    class EventsProcessor implements MessageProcessor<Event> {
         @Override
         public void process(Event message) {
             if (message.getType() != null && !"container".equals(message.getType())) {
@@ -135,6 +265,23 @@ public class DockerInstanceStopDetector {
                 return;
             }
 
+            if ("exec_die".equals(message.getStatus()) || "exec_die".equals(message.getAction())) {
+                String execId = message.getActor() != null && message.getActor().getAttributes() != null ?
+                                message.getActor().getAttributes().get("execID") :
+                                null;
+                if (execId == null) {
+                    // event of the old format doesn't tell which exec ended, only the container
+                    scheduleContainerPoll(message.getId());
+                    return;
+                }
+                execEventsIdentifyExec = true;
+                Pair<String, Runnable> exec = execs.remove(execId);
+                if (exec != null) {
+                    exec.second.run();
+                }
+                return;
+            }
+
             switch (message.getStatus()) {
                 case "oom":
                     containersOomTimestamps.put(message.getId(), message.getId());
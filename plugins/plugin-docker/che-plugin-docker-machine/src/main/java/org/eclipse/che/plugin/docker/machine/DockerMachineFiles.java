@@ -0,0 +1,491 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.api.core.util.ListLineConsumer;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.Exec;
+import org.eclipse.che.plugin.docker.client.LogMessage;
+import org.eclipse.che.plugin.docker.client.json.HostConfig;
+import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
+import org.eclipse.che.plugin.docker.client.params.StartExecParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads files of a docker machine without buffering them in memory.
+ *
+ * <p>When the machine runs on the local node and the file is located in a volume mounted from the host
+ * the file is read directly with a {@link FileChannel}, so byte ranges are served with
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+ * Otherwise the file is streamed from the docker daemon with the archive API
+ * and the requested range is cut from the stream.
+ */
+public class DockerMachineFiles {
+    private static final Logger LOG = LoggerFactory.getLogger(DockerMachineFiles.class);
+
+    private static final int TAR_BLOCK_SIZE = 512;
+
+    /** Maximum number of bytes of the remote file read by one poll while following it. */
+    static final int FOLLOW_CHUNK_SIZE = 256 * 1024;
+
+    private final DockerConnector docker;
+    private final String          container;
+    private final boolean         localNode;
+
+    /** Pairs of host and container paths of the container volumes, resolved lazily. */
+    private volatile List<String[]> mounts;
+
+    public DockerMachineFiles(DockerConnector docker, String container, boolean localNode) {
+        this.docker = docker;
+        this.container = container;
+        this.localNode = localNode;
+    }
+
+    /**
+     * Returns size of the file in bytes.
+     *
+     * @throws FileNotFoundException
+     *         if file doesn't exist or is not a regular file
+     * @throws IOException
+     *         if any other error occurs
+     */
+    public long size(String path) throws IOException {
+        Path local = resolveLocalPath(path);
+        if (local != null) {
+            return Files.size(local);
+        }
+        try (TarEntryInputStream entry = openRemote(path)) {
+            return entry.size();
+        }
+    }
+
+    /**
+     * Opens stream of the file content starting from {@code offset} byte.
+     *
+     * @param length
+     *         maximum number of bytes to read, negative value means read up to the end of the file
+     * @throws FileNotFoundException
+     *         if file doesn't exist or is not a regular file
+     * @throws IOException
+     *         if any other error occurs
+     */
+    public InputStream read(String path, long offset, long length) throws IOException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        InputStream content;
+        Path local = resolveLocalPath(path);
+        if (local != null) {
+            FileChannel channel = FileChannel.open(local, READ);
+            channel.position(offset);
+            content = Channels.newInputStream(channel);
+        } else {
+            TarEntryInputStream entry = openRemote(path);
+            try {
+                ByteStreams.skipFully(entry, Math.min(offset, entry.size()));
+            } catch (IOException e) {
+                entry.close();
+                throw e;
+            }
+            content = entry;
+        }
+        return length < 0 ? content : ByteStreams.limit(content, length);
+    }
+
+    /**
+     * Writes content of the file starting from {@code offset} byte to the given stream.
+     *
+     * @param length
+     *         maximum number of bytes to write, negative value means write up to the end of the file
+     * @return number of written bytes
+     * @throws FileNotFoundException
+     *         if file doesn't exist or is not a regular file
+     * @throws IOException
+     *         if any other error occurs
+     */
+    public long transferTo(String path, long offset, long length, OutputStream output) throws IOException {
+        Path local = resolveLocalPath(path);
+        if (local == null) {
+            try (InputStream content = read(path, offset, length)) {
+                return ByteStreams.copy(content, output);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(local, READ)) {
+            long end = length < 0 ? channel.size() : Math.min(channel.size(), offset + length);
+            WritableByteChannel target = Channels.newChannel(output);
+            long position = offset;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+            return Math.max(position - offset, 0);
+        }
+    }
+
+    /**
+     * Reads lines of the file from {@code startFrom} line to {@code startFrom + limit} line inclusively,
+     * lines are counted from 1 and joined with '\n' without trailing line separator.
+     *
+     * @return content of the lines or empty string if file contains less lines than {@code startFrom}
+     * @throws FileNotFoundException
+     *         if file doesn't exist or is not a regular file
+     * @throws IOException
+     *         if any other error occurs
+     */
+    public String readLines(String path, int startFrom, int limit) throws IOException {
+        Path local = resolveLocalPath(path);
+        if (local == null) {
+            return readRemoteLines(path, startFrom, limit);
+        }
+        StringBuilder content = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(local),
+                                                                              StandardCharsets.UTF_8))) {
+            int last = startFrom + limit;
+            String line;
+            for (int number = 1; number <= last && (line = reader.readLine()) != null; number++) {
+                if (number >= startFrom) {
+                    if (number > startFrom) {
+                        content.append('\n');
+                    }
+                    content.append(line);
+                }
+            }
+        }
+        return content.toString();
+    }
+
+    /**
+     * Writes content appended to the file after {@code offset} byte to the given stream
+     * until the timeout expires, current thread is interrupted or the stream is closed, like {@code tail -f} does.
+     * If the file is truncated content is written from its beginning.
+     *
+     * @param pollPeriodMs
+     *         period of the file size checks
+     * @param timeoutMs
+     *         maximum duration of the following, method returns normally when it expires
+     * @throws FileNotFoundException
+     *         if file doesn't exist or is not a regular file
+     * @throws IOException
+     *         if the stream is closed or any other error occurs
+     * @throws InterruptedException
+     *         if current thread is interrupted
+     */
+    public void follow(String path, long offset, OutputStream output, long pollPeriodMs, long timeoutMs) throws IOException,
+                                                                                                                 InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        long position = offset;
+        while (!Thread.currentThread().isInterrupted()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return;
+            }
+            long size = resolveLocalPath(path) != null ? size(path) : -1;
+            if (size >= 0 && size < position) {
+                position = 0;
+            }
+            long written = size < 0 ? followRemote(path, position, output) - position
+                                    : transferTo(path, position, size - position, output);
+            if (written > 0) {
+                position += written;
+                output.flush();
+            } else {
+                if (written < 0) {
+                    position = 0;
+                }
+                Thread.sleep(pollPeriodMs);
+            }
+        }
+        throw new InterruptedException();
+    }
+
+    /**
+     * Returns path of the file on the host if machine runs on the local node and file is a readable regular file
+     * located in the volume mounted from the host, otherwise returns null and the file should be read
+     * from the container. Host path may be not visible locally, e.g. when server runs in a container itself,
+     * so missing host files are not reported as not found.
+     */
+    Path resolveLocalPath(String path) throws IOException {
+        if (!localNode || path == null || !path.startsWith("/")) {
+            return null;
+        }
+        String normalized = Paths.get(path).normalize().toString();
+        for (String[] mount : getMounts()) {
+            String containerPath = mount[1];
+            if (normalized.equals(containerPath) || normalized.startsWith(containerPath + '/')) {
+                Path hostRoot;
+                Path hostPath;
+                try {
+                    hostRoot = Paths.get(mount[0]);
+                    hostPath = Paths.get(mount[0] + normalized.substring(containerPath.length()));
+                } catch (InvalidPathException e) {
+                    return null;
+                }
+                if (!Files.isRegularFile(hostPath) || !Files.isReadable(hostPath)) {
+                    return null;
+                }
+                try {
+                    // do not follow links which lead out of the volume
+                    if (!hostPath.toRealPath().startsWith(hostRoot.toRealPath())) {
+                        return null;
+                    }
+                } catch (IOException e) {
+                    return null;
+                }
+                return hostPath;
+            }
+        }
+        return null;
+    }
+
+    private List<String[]> getMounts() throws IOException {
+        List<String[]> result = mounts;
+        if (result == null) {
+            result = new ArrayList<>();
+            HostConfig hostConfig = docker.inspectContainer(container).getHostConfig();
+            if (hostConfig != null && hostConfig.getBinds() != null) {
+                for (String bind : hostConfig.getBinds()) {
+                    // bind format is host_path:container_path[:options]
+                    String[] parts = bind.split(":");
+                    if (parts.length >= 2 && parts[0].startsWith("/") && parts[1].startsWith("/")) {
+                        result.add(new String[] {Paths.get(parts[0]).normalize().toString(),
+                                                 Paths.get(parts[1]).normalize().toString()});
+                    }
+                }
+            }
+            // longest container path first, so nested volumes win
+            result.sort((m1, m2) -> m2[1].length() - m1[1].length());
+            mounts = result = Collections.unmodifiableList(result);
+        }
+        return result;
+    }
+
+    private TarEntryInputStream openRemote(String path) throws IOException {
+        InputStream archive = docker.getResource(GetResourceParams.create(container, path));
+        try {
+            return new TarEntryInputStream(archive, path);
+        } catch (IOException e) {
+            try {
+                archive.close();
+            } catch (IOException closeEx) {
+                LOG.debug(closeEx.getLocalizedMessage(), closeEx);
+            }
+            throw e;
+        }
+    }
+
+    private String readRemoteLines(String path, int startFrom, int limit) throws IOException {
+        // command sed getting file content from startFrom line to (startFrom + limit),
+        // the file path is passed as a positional parameter to avoid escaping it
+        String shCommand = format("sed -n '%d, %dp' \"$1\"", startFrom, startFrom + limit);
+        ListLineConsumer output = new ListLineConsumer();
+        exec(output, output, shCommand, "-", path);
+        String content = output.getText();
+        if (content.contains("sed: can't read " + path + ": No such file or directory") ||
+            content.contains("cat: " + path + ": No such file or directory")) {
+            throw new FileNotFoundException("File with path " + path + " not found");
+        }
+        return content;
+    }
+
+    /**
+     * Writes at most {@link #FOLLOW_CHUNK_SIZE} bytes appended to the remote file after {@code position} byte
+     * and returns position of the end of written content or {@code -1} if the file is truncated.
+     */
+    private long followRemote(String path, long position, OutputStream output) throws IOException {
+        // first line is the size of the file, the rest is base64 encoded appended content
+        // which survives splitting of the exec output into lines,
+        // the file path is passed as a positional parameter to avoid escaping it
+        String shCommand = "size=$(stat -c %s \"$1\") || exit 1; echo $size; " +
+                           "if [ $size -gt " + position + " ]; then " +
+                           "n=$((size - " + position + ")); [ $n -gt " + FOLLOW_CHUNK_SIZE + " ] && n=" + FOLLOW_CHUNK_SIZE + "; " +
+                           "tail -c +" + (position + 1) + " \"$1\" | head -c $n | base64; fi";
+        ListLineConsumer stdout = new ListLineConsumer();
+        ListLineConsumer stderr = new ListLineConsumer();
+        exec(stdout, stderr, shCommand, "-", path);
+        List<String> lines = stdout.getLines();
+        long size;
+        try {
+            size = lines.isEmpty() ? -1 : Long.parseLong(lines.get(0).trim());
+        } catch (NumberFormatException e) {
+            size = -1;
+        }
+        if (size < 0) {
+            LOG.debug("Can't follow file {} of container {}: {}", path, container, stderr.getText());
+            throw new FileNotFoundException(format("File with path %s not found", path));
+        }
+        if (size < position) {
+            return -1;
+        }
+        StringBuilder encoded = new StringBuilder();
+        for (int i = 1; i < lines.size(); i++) {
+            encoded.append(lines.get(i).trim());
+        }
+        byte[] appended = Base64.getDecoder().decode(encoded.toString());
+        output.write(appended);
+        return position + appended.length;
+    }
+
+    /**
+     * Executes shell command in the container, lines of the standard output and error are written
+     * to the given consumers, which may be the same consumer.
+     */
+    private void exec(LineConsumer stdout, LineConsumer stderr, String shCommand, String... args) throws IOException {
+        String[] command = new String[3 + args.length];
+        command[0] = "/bin/sh";
+        command[1] = "-c";
+        command[2] = shCommand;
+        System.arraycopy(args, 0, command, 3, args.length);
+        Exec exec = docker.createExec(CreateExecParams.create(container, command).withDetach(false));
+        LogMessagePrinter stdoutPrinter = new LogMessagePrinter(stdout, LogMessage::getContent);
+        LogMessagePrinter stderrPrinter = new LogMessagePrinter(stderr, LogMessage::getContent);
+        docker.startExec(StartExecParams.create(exec.getId()), message -> {
+            if (message.getType() == LogMessage.Type.STDERR) {
+                stderrPrinter.process(message);
+            } else {
+                stdoutPrinter.process(message);
+            }
+        });
+    }
+
+    /**
+     * Exposes content of the single regular file entry of the tar archive
+     * returned by docker archive API.
+     */
+    static class TarEntryInputStream extends InputStream {
+        private final InputStream archive;
+        private final long        size;
+
+        private long remaining;
+
+        TarEntryInputStream(InputStream archive, String path) throws IOException {
+            this.archive = archive;
+            byte[] header = new byte[TAR_BLOCK_SIZE];
+            while (true) {
+                if (ByteStreams.read(archive, header, 0, TAR_BLOCK_SIZE) < TAR_BLOCK_SIZE || header[0] == 0) {
+                    throw new FileNotFoundException(format("File with path %s not found", path));
+                }
+                long entrySize = parseSize(header);
+                byte type = header[156];
+                if (type == '0' || type == 0) {
+                    this.size = entrySize;
+                    this.remaining = entrySize;
+                    return;
+                }
+                if (type == 'x' || type == 'g' || type == 'L' || type == 'K') {
+                    // extended headers precede the entry they describe, skip them
+                    ByteStreams.skipFully(archive, (entrySize + TAR_BLOCK_SIZE - 1) / TAR_BLOCK_SIZE * TAR_BLOCK_SIZE);
+                } else {
+                    throw new FileNotFoundException(format("File with path %s is not a regular file", path));
+                }
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = archive.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = archive.read(b, off, (int)Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = archive.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int)Math.min(archive.available(), remaining);
+        }
+
+        @Override
+        public void close() throws IOException {
+            archive.close();
+        }
+
+        private static long parseSize(byte[] header) throws IOException {
+            if ((header[124] & 0x80) != 0) {
+                // base-256 encoding used for entries larger than 8GB
+                long size = 0;
+                for (int i = 125; i < 136; i++) {
+                    size = (size << 8) | (header[i] & 0xff);
+                }
+                return size;
+            }
+            long size = 0;
+            for (int i = 124; i < 136; i++) {
+                byte b = header[i];
+                if (b == 0 || b == ' ') {
+                    if (size > 0) {
+                        break;
+                    }
+                    continue;
+                }
+                if (b < '0' || b > '7') {
+                    throw new IOException("Invalid size in tar entry header");
+                }
+                size = (size << 3) + (b - '0');
+            }
+            return size;
+        }
+    }
+}
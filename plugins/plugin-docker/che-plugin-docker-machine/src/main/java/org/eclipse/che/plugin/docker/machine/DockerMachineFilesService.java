@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.rest.Service;
+import org.eclipse.che.api.environment.server.CheEnvironmentEngine;
+import org.eclipse.che.api.machine.server.spi.Instance;
+import org.eclipse.che.api.workspace.server.WorkspaceManager;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.subject.Subject;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * Streams files of the docker machines via REST.
+ *
+ * <p>Supports single byte range requests with {@code Range} header,
+ * reading of the lines range and following of the growing files.
+ * Files are available only to the owner of the workspace of the machine.
+ */
+@Path("/docker/machine/{workspaceId}/{machineId}/file")
+public class DockerMachineFilesService extends Service {
+    private static final Pattern BYTES_RANGE           = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final long    FOLLOW_POLL_PERIOD_MS = 1000;
+
+    private final CheEnvironmentEngine environmentEngine;
+    private final WorkspaceManager     workspaceManager;
+    private final long                 followTimeoutMs;
+
+    /**
+     * Creates service.
+     *
+     * @param followTimeoutMin
+     *         maximum duration of the following of the file in minutes, response is finished when it expires
+     */
+    @Inject
+    public DockerMachineFilesService(CheEnvironmentEngine environmentEngine,
+                                     WorkspaceManager workspaceManager,
+                                     @Named("che.docker.files.follow_timeout_min") long followTimeoutMin) {
+        this.environmentEngine = environmentEngine;
+        this.workspaceManager = workspaceManager;
+        this.followTimeoutMs = TimeUnit.MINUTES.toMillis(followTimeoutMin);
+    }
+
+    /**
+     * Writes content of the file to the response.
+     * If {@code follow} is true content appended to the file is written until client disconnects
+     * or the follow timeout expires.
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public void getContent(@PathParam("workspaceId") String workspaceId,
+                           @PathParam("machineId") String machineId,
+                           @QueryParam("path") String path,
+                           @QueryParam("follow") @DefaultValue("false") boolean follow,
+                           @HeaderParam("Range") String range,
+                           @Context HttpServletResponse response) throws NotFoundException,
+                                                                         BadRequestException,
+                                                                         ForbiddenException,
+                                                                         ServerException,
+                                                                         IOException {
+        DockerMachineFiles files = getFiles(workspaceId, machineId, path);
+        long size = size(files, path);
+        long start = 0;
+        long end = size - 1;
+        Matcher matcher = range == null ? null : BYTES_RANGE.matcher(range.trim());
+        if (matcher != null && matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            boolean satisfiable = true;
+            try {
+                if (matcher.group(1).isEmpty()) {
+                    // suffix range, last N bytes
+                    start = Math.max(size - Long.parseLong(matcher.group(2)), 0);
+                } else {
+                    start = Long.parseLong(matcher.group(1));
+                    if (!matcher.group(2).isEmpty()) {
+                        end = Math.min(Long.parseLong(matcher.group(2)), size - 1);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // bounds don't fit into long, so they are out of the file anyway
+                satisfiable = false;
+            }
+            if (!satisfiable || start >= size || start > end) {
+                response.setStatus(416);
+                response.setHeader("Content-Range", "bytes */" + size);
+                return;
+            }
+            if (!follow) {
+                response.setStatus(206);
+                response.setHeader("Content-Range", format("bytes %d-%d/%d", start, end, size));
+            }
+        }
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+
+        OutputStream output = response.getOutputStream();
+        if (follow) {
+            response.flushBuffer();
+            try {
+                files.follow(path, start, output, FOLLOW_POLL_PERIOD_MS, followTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException ignored) {
+                // client disconnected
+            }
+            return;
+        }
+        response.setHeader("Content-Length", Long.toString(end - start + 1));
+        try {
+            files.transferTo(path, start, end - start + 1, output);
+        } catch (FileNotFoundException e) {
+            throw new NotFoundException(e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Returns lines of the file from {@code startFrom} line to {@code startFrom + limit} line.
+     */
+    @GET
+    @Path("/lines")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String getLines(@PathParam("workspaceId") String workspaceId,
+                           @PathParam("machineId") String machineId,
+                           @QueryParam("path") String path,
+                           @QueryParam("startFrom") @DefaultValue("1") int startFrom,
+                           @QueryParam("limit") @DefaultValue("100") int limit) throws NotFoundException,
+                                                                                       BadRequestException,
+                                                                                       ForbiddenException,
+                                                                                       ServerException {
+        if (startFrom <= 0 || limit <= 0) {
+            throw new BadRequestException("Parameters startFrom and limit must be positive");
+        }
+        DockerMachineFiles files = getFiles(workspaceId, machineId, path);
+        try {
+            return files.readLines(path, startFrom, limit);
+        } catch (FileNotFoundException e) {
+            throw new NotFoundException(e.getLocalizedMessage());
+        } catch (IOException e) {
+            throw new ServerException(e.getLocalizedMessage(), e);
+        }
+    }
+
+    private DockerMachineFiles getFiles(String workspaceId, String machineId, String path) throws NotFoundException,
+                                                                                                  BadRequestException,
+                                                                                                  ForbiddenException,
+                                                                                                  ServerException {
+        if (path == null || !path.startsWith("/")) {
+            throw new BadRequestException("Absolute path of the file required");
+        }
+        final Subject subject = EnvironmentContext.getCurrent().getSubject();
+        if (!workspaceManager.getWorkspace(workspaceId).getNamespace().equals(subject.getUserName())) {
+            throw new ForbiddenException(format("You are not authorized to read files of the workspace '%s'", workspaceId));
+        }
+        Instance machine = environmentEngine.getMachine(workspaceId, machineId);
+        if (!(machine instanceof DockerInstance)) {
+            throw new BadRequestException(format("Machine %s is not a docker machine", machineId));
+        }
+        return ((DockerInstance)machine).getFiles();
+    }
+
+    private long size(DockerMachineFiles files, String path) throws NotFoundException, ServerException {
+        try {
+            return files.size(path);
+        } catch (FileNotFoundException e) {
+            throw new NotFoundException(e.getLocalizedMessage());
+        } catch (IOException e) {
+            throw new ServerException(e.getLocalizedMessage(), e);
+        }
+    }
+}
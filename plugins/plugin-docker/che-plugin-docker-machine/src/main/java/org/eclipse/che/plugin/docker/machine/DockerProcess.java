@@ -16,7 +16,6 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.model.machine.Command;
 import org.eclipse.che.api.core.util.LineConsumer;
-import org.eclipse.che.api.core.util.ListLineConsumer;
 import org.eclipse.che.api.core.util.ValueHolder;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.spi.InstanceProcess;
@@ -40,21 +39,37 @@ import static java.lang.String.format;
 
 /**
  * Docker implementation of {@link InstanceProcess}
+ * <p/>
+ * State of the process is tracked in memory, so checks of the process state don't execute commands in the container.
+ * Process executed with output is finished when its exec returns. Finish of the process executed without output
+ * is detected from docker events by {@link DockerInstanceStopDetector} or by reconciliation with processes
+ * which are running in the container, see {@link DockerInstance#getProcesses()}.
  *
  * @author andrew00x
  * @author Alexander Garagatyi
  */
 public class DockerProcess extends AbstractMachineProcess implements InstanceProcess {
-    private final DockerConnector     docker;
-    private final String              container;
-    private final String              pidFilePath;
-    private final String              commandLine;
-    private final String              shellInvoker;
+    /**
+     * Process which is not found in the container by reconciliation is considered finished
+     * only if it was started earlier than this time before reconciliation, so its PID file had time to appear.
+     */
+    static final long START_GRACE_PERIOD_MS = 5_000;
+
+    private final DockerConnector            docker;
+    private final DockerInstanceStopDetector stopDetector;
+    private final String                     container;
+    private final String                     pidFilePath;
+    private final String                     commandLine;
+    private final String                     shellInvoker;
 
     private volatile boolean started;
+    private volatile boolean finished;
+    private volatile long    startTime;
+    private volatile String  execId;
 
     @Inject
     public DockerProcess(DockerConnectorProvider dockerProvider,
+                         DockerInstanceStopDetector stopDetector,
                          @Assisted Command command,
                          @Assisted("container") String container,
                          @Nullable @Assisted("outputChannel") String outputChannel,
@@ -62,6 +77,7 @@ public class DockerProcess extends AbstractMachineProcess implements InstancePro
                          @Assisted int pid) {
         super(command, pid, outputChannel);
         this.docker = dockerProvider.get();
+        this.stopDetector = stopDetector;
         this.container = container;
         this.commandLine = command.getCommandLine();
         this.shellInvoker = firstNonNull(command.getAttributes().get("shell"), "/bin/sh");
@@ -71,18 +87,7 @@ public class DockerProcess extends AbstractMachineProcess implements InstancePro
 
     @Override
     public boolean isAlive() {
-        if (!started) {
-            return false;
-        }
-        try {
-            checkAlive();
-            return true;
-        } catch (MachineException | NotFoundException e) {
-            // when process is not found (may be finished or killed)
-            // when process is not running yet
-            // when docker is not accessible or responds in an unexpected way - should never happen
-            return false;
-        }
+        return started && !finished;
     }
 
     @Override
@@ -96,6 +101,7 @@ public class DockerProcess extends AbstractMachineProcess implements InstancePro
             throw new ConflictException("Process already started.");
         }
         started = true;
+        startTime = System.currentTimeMillis();
         // Trap is invoked when bash session ends. Here we kill all sub-processes of shell and remove pid-file.
         final String trap = format("trap '[ -z \"$(jobs -p)\" ] || kill $(jobs -p); [ -e %1$s ] && rm %1$s' EXIT", pidFilePath);
         // 'echo' saves shell pid in file, then run command
@@ -105,15 +111,26 @@ public class DockerProcess extends AbstractMachineProcess implements InstancePro
         try {
             exec = docker.createExec(CreateExecParams.create(container, command).withDetach(output == null));
         } catch (IOException e) {
+            markFinished();
             throw new MachineException(format("Error occurs while initializing command %s in docker container %s: %s",
                                               Arrays.toString(command), container, e.getMessage()), e);
         }
+        execId = exec.getId();
+        if (output == null) {
+            stopDetector.startExecDetection(container, execId, this::markFinished);
+        }
         try {
             docker.startExec(StartExecParams.create(exec.getId()), output == null ? null : new LogMessagePrinter(output));
+            if (output != null) {
+                // exec with output returns when process ends
+                markFinished();
+            }
         } catch (IOException e) {
             if (output != null && e instanceof SocketTimeoutException) {
+                // process may be still running, its state is left to reconciliation
                 throw new MachineException(getErrorMessage());
             } else {
+                markFinished();
                 throw new MachineException(format("Error occurs while executing command %s: %s",
                                                   Arrays.toString(exec.getCommand()), e.getMessage()), e);
             }
@@ -122,29 +139,25 @@ public class DockerProcess extends AbstractMachineProcess implements InstancePro
 
     @Override
     public void checkAlive() throws MachineException, NotFoundException {
-        // Read pid from file and run 'kill -0 [pid]' command.
-        final String isAliveCmd = format("[ -r %1$s ] && kill -0 $(cat %1$s) || echo 'Unable read PID file'", pidFilePath);
-        final ListLineConsumer output = new ListLineConsumer();
-        final String[] command = {"/bin/sh", "-c", isAliveCmd};
-        Exec exec;
-        try {
-            exec = docker.createExec(CreateExecParams.create(container, command).withDetach(false));
-        } catch (IOException e) {
-            throw new MachineException(format("Error occurs while initializing command %s in docker container %s: %s",
-                                              Arrays.toString(command), container, e.getMessage()), e);
-        }
-        try {
-            docker.startExec(StartExecParams.create(exec.getId()), new LogMessagePrinter(output));
-        } catch (IOException e) {
-            throw new MachineException(format("Error occurs while executing command %s in docker container %s: %s",
-                                              Arrays.toString(exec.getCommand()), container, e.getMessage()), e);
-        }
-        // 'kill -0 [pid]' is silent if process is running or print "No such process" message otherwise
-        if (!output.getText().isEmpty()) {
+        if (!isAlive()) {
             throw new NotFoundException(format("Process with pid %s not found", getPid()));
         }
     }
 
+    /**
+     * Updates state of the process with result of the check of the processes running in the container.
+     *
+     * @param runningInContainer
+     *         whether PID file of the process refers to the running process
+     * @param checkStartTime
+     *         time when the check was started
+     */
+    void reconcile(boolean runningInContainer, long checkStartTime) {
+        if (isAlive() && !runningInContainer && startTime + START_GRACE_PERIOD_MS < checkStartTime) {
+            markFinished();
+        }
+    }
+
     @Override
     public void kill() throws MachineException {
         if (started) {
@@ -164,6 +177,14 @@ public class DockerProcess extends AbstractMachineProcess implements InstancePro
                 throw new MachineException(format("Error occurs while executing command %s in docker container %s: %s",
                                                   Arrays.toString(exec.getCommand()), container, e.getMessage()), e);
             }
+            markFinished();
+        }
+    }
+
+    private void markFinished() {
+        finished = true;
+        if (execId != null) {
+            stopDetector.stopExecDetection(execId);
         }
     }
 
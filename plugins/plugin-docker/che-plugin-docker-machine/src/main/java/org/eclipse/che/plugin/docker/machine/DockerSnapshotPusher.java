@@ -0,0 +1,400 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.ProgressLineFormatterImpl;
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+import org.eclipse.che.plugin.docker.client.params.PushParams;
+import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
+import org.slf4j.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Pushes images of the machine snapshots to the registry.
+ * <p/>
+ * When push threads are configured snapshot is pushed in background, so the workspace
+ * is released right after the container is committed. Number of concurrent pushes is bounded by the number
+ * of threads, other pushes wait in the queue. Until the push is finished the snapshot image is kept locally,
+ * callers which need the image in the registry should wait for the push with {@link #awaitPush(String, String, String)}.
+ * <p/>
+ * Committed container contains only the layer with changes made since its image was created, so snapshot of
+ * the machine restored from a snapshot is a chain of the layers of the previous snapshots. Registry receives only
+ * the layers it doesn't have yet, the number of the reused and uploaded layers and upload throughput are reported
+ * to the machine output when push is finished.
+ * <p/>
+ * Snapshot returned before its push is finished has no digest and can be restored only from the local image
+ * until the push succeeds, so removal of the snapshot replaced by the new snapshot of the same machine is deferred
+ * with {@link #deferUntilPushed(String, String, String, String, Runnable)} and skipped if that push fails.
+ * <p/>
+ * Successfully pushed image is removed locally, so snapshot image which is still present locally under its
+ * registry name marks the snapshot whose push failed or was interrupted, e.g. by the server restart.
+ * {@link #awaitPush(String, String, String)} reports such snapshot as not pushed.
+ */
+@Singleton
+public class DockerSnapshotPusher {
+    private static final Logger LOG = getLogger(DockerSnapshotPusher.class);
+
+    /** Docker swarm may not show image on all the nodes right after commit. */
+    private static final long IMAGE_VISIBILITY_TIMEOUT_MS = 10_000;
+    private static final long IMAGE_VISIBILITY_CHECK_MS   = 100;
+    private static final long SHUTDOWN_TIMEOUT_MS         = 120_000;
+
+    private final DockerConnector             docker;
+    private final ExecutorService             executor;
+    /** Runs actions deferred until pending pushes are finished, so they never occupy push threads. */
+    private final ExecutorService             deferredExecutor;
+    /** Background pushes by image, failed pushes are kept until the snapshot is forgotten. */
+    private final Map<String, BackgroundPush> pending;
+
+    private final AtomicLong pushes         = new AtomicLong();
+    private final AtomicLong failedPushes   = new AtomicLong();
+    private final AtomicLong uploadedLayers = new AtomicLong();
+    private final AtomicLong reusedLayers   = new AtomicLong();
+    private final AtomicLong uploadedBytes  = new AtomicLong();
+    private final AtomicLong pushTimeMillis = new AtomicLong();
+
+    /**
+     * Creates snapshot pusher.
+     *
+     * @param pushThreads
+     *         number of concurrent background pushes, if not positive then snapshots are pushed synchronously
+     */
+    @Inject
+    public DockerSnapshotPusher(DockerConnectorProvider dockerProvider,
+                                @Named("che.docker.snapshot.push_threads") int pushThreads) {
+        this.docker = dockerProvider.get();
+        this.pending = new ConcurrentHashMap<>();
+        if (pushThreads > 0) {
+            this.executor = Executors.newFixedThreadPool(pushThreads,
+                                                         new ThreadFactoryBuilder().setNameFormat("DockerSnapshotPusher-%d")
+                                                                                   .setUncaughtExceptionHandler(
+                                                                                           LoggingUncaughtExceptionHandler.getInstance())
+                                                                                   .setDaemon(true)
+                                                                                   .build());
+            this.deferredExecutor = Executors.newSingleThreadExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("DockerSnapshotPusherDeferred-%d")
+                                              .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                              .setDaemon(true)
+                                              .build());
+        } else {
+            this.executor = null;
+            this.deferredExecutor = null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if snapshots are pushed in background.
+     */
+    public boolean isAsync() {
+        return executor != null;
+    }
+
+    /**
+     * Pushes committed snapshot image to the registry and removes it locally.
+     *
+     * @param params
+     *         parameters of the push, tag is required
+     * @param output
+     *         receives progress of the push
+     * @return digest of the pushed image
+     * @throws IOException
+     *         when push fails
+     * @throws InterruptedException
+     *         when thread is interrupted while waiting for the committed image
+     */
+    public String push(PushParams params, LineConsumer output) throws IOException, InterruptedException {
+        waitUntilVisible(params);
+        PushProgress progress = new PushProgress(output);
+        long start = System.currentTimeMillis();
+        String digest;
+        try {
+            digest = docker.push(params, progress);
+        } catch (IOException e) {
+            failedPushes.incrementAndGet();
+            throw e;
+        }
+        progress.report(params, System.currentTimeMillis() - start);
+        try {
+            docker.removeImage(RemoveImageParams.create(params.getFullRepo() + ':' + params.getTag()).withForce(false));
+        } catch (IOException e) {
+            LOG.warn("Failed to remove pushed snapshot {}:{} locally. Cause: {}",
+                     params.getFullRepo(), params.getTag(), e.getLocalizedMessage());
+        }
+        return digest;
+    }
+
+    /**
+     * Schedules push of the committed snapshot image, see {@link #push(PushParams, LineConsumer)}.
+     * If push fails the image is kept locally and the failure is remembered until the snapshot
+     * is {@link #forget(String, String, String) forgotten}.
+     *
+     * @param machine
+     *         key of the machine whose snapshot is pushed, see {@link #machineKey(String, String, String)}
+     */
+    public void pushAsync(PushParams params, String machine, LineConsumer output) {
+        if (!isAsync()) {
+            throw new IllegalStateException("Background push of snapshots is disabled");
+        }
+        String image = params.getFullRepo() + ':' + params.getTag();
+        BackgroundPush backgroundPush = new BackgroundPush(machine);
+        CompletableFuture<String> result = backgroundPush.result;
+        pending.put(image, backgroundPush);
+        executor.execute(() -> {
+            try {
+                result.complete(push(params, output));
+                pending.remove(image, backgroundPush);
+            } catch (IOException | RuntimeException e) {
+                LOG.error(format("Failed to push snapshot %s, it is available only on the node where it was created", image), e);
+                writeLine(output, "[DOCKER] [ERROR] Failed to push snapshot to the registry. Cause: " + e.getLocalizedMessage());
+                result.completeExceptionally(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Waits until background push of the image is finished, returns immediately if there is no such push.
+     * Must be called only for snapshots without digest.
+     *
+     * @return digest of the pushed image or {@code null} if it was not pushed by this server in background
+     * @throws IOException
+     *         when push of the image failed, so the image is available only locally
+     * @throws InterruptedException
+     *         when thread is interrupted while waiting for the push
+     */
+    public String awaitPush(String registry, String repository, String tag) throws IOException, InterruptedException {
+        PushParams params = PushParams.create(repository).withRegistry(registry).withTag(tag);
+        String image = params.getFullRepo() + ':' + tag;
+        BackgroundPush backgroundPush = pending.get(image);
+        if (backgroundPush == null) {
+            if (isLocal(image)) {
+                throw new IOException(format("Snapshot %s was not pushed to the registry", image));
+            }
+            return null;
+        }
+        LOG.info("Waiting for push of snapshot {}", image);
+        try {
+            return backgroundPush.result.get();
+        } catch (ExecutionException e) {
+            throw new IOException(format("Push of snapshot %s:%s failed", params.getFullRepo(), tag), e.getCause());
+        }
+    }
+
+    /**
+     * Schedules the action to run when the background pushes of the other snapshots of the same machine
+     * which are in progress now are finished successfully. If any of them fails the action is not run.
+     * <p/>
+     * Used to keep the replaced snapshot until the snapshot which replaces it is in the registry.
+     *
+     * @param machine
+     *         key of the machine whose snapshot is given, see {@link #machineKey(String, String, String)}
+     * @return {@code false} if there are no such pushes, so the action is not scheduled and should be run by the caller
+     */
+    public boolean deferUntilPushed(String registry, String repository, String tag, String machine, Runnable action) {
+        String image = PushParams.create(repository).withRegistry(registry).withTag(tag).getFullRepo() + ':' + tag;
+        CompletableFuture<?>[] awaited = pending.entrySet()
+                                                .stream()
+                                                .filter(entry -> !entry.getKey().equals(image)
+                                                                 && entry.getValue().machine.equals(machine)
+                                                                 && !entry.getValue().result.isDone())
+                                                .map(entry -> entry.getValue().result)
+                                                .toArray(CompletableFuture[]::new);
+        if (awaited.length == 0) {
+            return false;
+        }
+        LOG.info("Removal of snapshot {} is deferred until {} pending pushes are finished", image, awaited.length);
+        CompletableFuture.allOf(awaited).whenCompleteAsync((ignored, error) -> {
+            if (error == null) {
+                action.run();
+            } else {
+                LOG.warn("Snapshot {} is kept because push of the snapshot which replaces it failed. Cause: {}",
+                         image, error.getLocalizedMessage());
+            }
+        }, deferredExecutor);
+        return true;
+    }
+
+    /**
+     * Forgets background push of the image, must be called when the snapshot is removed.
+     */
+    public void forget(String registry, String repository, String tag) {
+        pending.remove(PushParams.create(repository).withRegistry(registry).withTag(tag).getFullRepo() + ':' + tag);
+    }
+
+    /**
+     * Returns key which identifies snapshots of the machine, so the new snapshot of the machine is known
+     * to replace the previous one.
+     */
+    public static String machineKey(String workspaceId, String envName, String machineName) {
+        return workspaceId + '/' + envName + '/' + machineName;
+    }
+
+    /**
+     * Returns statistics of the snapshot pushes, values are accumulated since server start.
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new TreeMap<>();
+        statistics.put("pushes", pushes.get());
+        statistics.put("failed_pushes", failedPushes.get());
+        statistics.put("pending_pushes", pending.values()
+                                                .stream()
+                                                .filter(backgroundPush -> !backgroundPush.result.isDone())
+                                                .count());
+        statistics.put("uploaded_layers", uploadedLayers.get());
+        statistics.put("reused_layers", reusedLayers.get());
+        statistics.put("uploaded_bytes", uploadedBytes.get());
+        statistics.put("push_time_ms", pushTimeMillis.get());
+        return statistics;
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            LOG.warn("Not all the pushes of snapshots are finished, such snapshots are available only locally");
+            executor.shutdownNow();
+        }
+        deferredExecutor.shutdown();
+        if (!deferredExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            deferredExecutor.shutdownNow();
+        }
+    }
+
+    private void waitUntilVisible(PushParams params) throws IOException, InterruptedException {
+        String image = params.getFullRepo() + ':' + params.getTag();
+        long deadline = System.currentTimeMillis() + IMAGE_VISIBILITY_TIMEOUT_MS;
+        while (true) {
+            try {
+                docker.inspectImage(image);
+                return;
+            } catch (DockerException e) {
+                if (e.getStatus() != 404 || System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+            }
+            Thread.sleep(IMAGE_VISIBILITY_CHECK_MS);
+        }
+    }
+
+    private boolean isLocal(String image) throws IOException {
+        try {
+            docker.inspectImage(image);
+            return true;
+        } catch (DockerException e) {
+            if (e.getStatus() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private static void writeLine(LineConsumer output, String line) {
+        try {
+            output.writeLine(line);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static class BackgroundPush {
+        final String                    machine;
+        final CompletableFuture<String> result;
+
+        BackgroundPush(String machine) {
+            this.machine = machine;
+            this.result = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Forwards progress of the push to the machine output and collects sizes of the uploaded layers.
+     */
+    private class PushProgress implements ProgressMonitor {
+        private final LineConsumer              output;
+        private final ProgressLineFormatterImpl formatter;
+        private final Map<String, Long>         layerSizes;
+
+        private int reused;
+        private int uploaded;
+
+        PushProgress(LineConsumer output) {
+            this.output = output;
+            this.formatter = new ProgressLineFormatterImpl();
+            this.layerSizes = new HashMap<>();
+        }
+
+        @Override
+        public void updateProgress(ProgressStatus status) {
+            writeLine(output, formatter.format(status));
+            String id = status.getId();
+            if (id == null || status.getStatus() == null) {
+                return;
+            }
+            if (status.getProgressDetail() != null && status.getProgressDetail().getTotal() > 0) {
+                layerSizes.put(id, status.getProgressDetail().getTotal());
+            }
+            if (status.getStatus().startsWith("Layer already exists")) {
+                reused++;
+            } else if (status.getStatus().startsWith("Pushed")) {
+                uploaded++;
+            }
+        }
+
+        void report(PushParams params, long durationMillis) {
+            long bytes = layerSizes.values().stream().mapToLong(Long::longValue).sum();
+            pushes.incrementAndGet();
+            uploadedLayers.addAndGet(uploaded);
+            reusedLayers.addAndGet(reused);
+            uploadedBytes.addAndGet(bytes);
+            pushTimeMillis.addAndGet(durationMillis);
+            double seconds = Math.max(durationMillis, 1) / 1000.0;
+            String summary = format("Snapshot %s pushed in %.1f s: %d layers uploaded (%.1f MB, %.1f MB/s), %d layers already in registry",
+                                    params.getFullRepo(),
+                                    seconds,
+                                    uploaded,
+                                    bytes / 1048576.0,
+                                    bytes / 1048576.0 / seconds,
+                                    reused);
+            LOG.info(summary);
+            writeLine(output, "[DOCKER] " + summary);
+        }
+    }
+}
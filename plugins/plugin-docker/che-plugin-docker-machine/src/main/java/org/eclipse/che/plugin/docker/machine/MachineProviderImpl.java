@@ -39,6 +39,7 @@ import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
 import org.eclipse.che.plugin.docker.client.ProgressLineFormatterImpl;
 import org.eclipse.che.plugin.docker.client.ProgressMonitor;
 import org.eclipse.che.plugin.docker.client.UserSpecificDockerRegistryCredentialsProvider;
+import org.eclipse.che.plugin.docker.client.dto.AuthConfigs;
 import org.eclipse.che.plugin.docker.client.exception.ContainerNotFoundException;
 import org.eclipse.che.plugin.docker.client.exception.ImageNotFoundException;
 import org.eclipse.che.plugin.docker.client.exception.NetworkNotFoundException;
@@ -48,6 +49,7 @@ import org.eclipse.che.plugin.docker.client.json.PortBinding;
 import org.eclipse.che.plugin.docker.client.json.Volume;
 import org.eclipse.che.plugin.docker.client.json.container.NetworkingConfig;
 import org.eclipse.che.plugin.docker.client.json.network.ConnectContainer;
+import org.eclipse.che.plugin.docker.client.json.network.DisconnectContainer;
 import org.eclipse.che.plugin.docker.client.json.network.EndpointConfig;
 import org.eclipse.che.plugin.docker.client.json.network.NewNetwork;
 import org.eclipse.che.plugin.docker.client.params.BuildImageParams;
@@ -57,10 +59,12 @@ import org.eclipse.che.plugin.docker.client.params.PullParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveNetworkParams;
+import org.eclipse.che.plugin.docker.client.params.RenameContainerParams;
 import org.eclipse.che.plugin.docker.client.params.StartContainerParams;
 import org.eclipse.che.plugin.docker.client.params.TagParams;
 import org.eclipse.che.plugin.docker.client.params.network.ConnectContainerToNetworkParams;
 import org.eclipse.che.plugin.docker.client.params.network.CreateNetworkParams;
+import org.eclipse.che.plugin.docker.client.params.network.DisconnectContainerFromNetworkParams;
 import org.eclipse.che.plugin.docker.machine.node.DockerNode;
 import org.slf4j.Logger;
 
@@ -69,6 +73,7 @@ import javax.inject.Named;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.SocketTimeoutException;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -104,12 +109,25 @@ public class MachineProviderImpl implements MachineInstanceProvider {
      */
     public static final String MACHINE_SNAPSHOT_PREFIX = "machine_snapshot_";
 
+    /**
+     * Label of the containers created by Che, allows to find such containers without listing all the containers.
+     */
+    public static final String CHE_CONTAINER_LABEL = "che:container";
+
     public static final Pattern SNAPSHOT_LOCATION_PATTERN = Pattern.compile("(.+/)?" + MACHINE_SNAPSHOT_PREFIX + ".+");
 
+    /**
+     * Network of the containers which are created without network, e.g. pooled containers.
+     */
+    private static final String DEFAULT_NETWORK = "bridge";
+
     private final DockerConnector                               docker;
     private final UserSpecificDockerRegistryCredentialsProvider dockerCredentials;
     private final ExecutorService                               executor;
     private final DockerInstanceStopDetector                    dockerInstanceStopDetector;
+    private final DockerImageCache                              imageCache;
+    private final DockerContainerPool                           containerPool;
+    private final DockerSnapshotPusher                          snapshotPusher;
     private final boolean                                       doForcePullOnBuild;
     private final boolean                                       privilegedMode;
     private final int                                           pidsLimit;
@@ -137,6 +155,9 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                UserSpecificDockerRegistryCredentialsProvider dockerCredentials,
                                DockerMachineFactory dockerMachineFactory,
                                DockerInstanceStopDetector dockerInstanceStopDetector,
+                               DockerImageCache imageCache,
+                               DockerContainerPool containerPool,
+                               DockerSnapshotPusher snapshotPusher,
                                @Named("machine.docker.dev_machine.machine_servers") Set<ServerConf> devMachineServers,
                                @Named("machine.docker.machine_servers") Set<ServerConf> allMachinesServers,
                                @Named("machine.docker.dev_machine.machine_volumes") Set<String> devMachineSystemVolumes,
@@ -162,6 +183,9 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         this.dockerCredentials = dockerCredentials;
         this.dockerMachineFactory = dockerMachineFactory;
         this.dockerInstanceStopDetector = dockerInstanceStopDetector;
+        this.imageCache = imageCache;
+        this.containerPool = containerPool;
+        this.snapshotPusher = snapshotPusher;
         this.doForcePullOnBuild = doForcePullOnBuild;
         this.privilegedMode = privilegedMode;
         this.snapshotUseRegistry = snapshotUseRegistry;
@@ -388,6 +412,27 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                               ProgressMonitor progressMonitor)
             throws MachineException {
 
+        try {
+            // content of remote build context is unknown, so only builds from Dockerfile content are cached
+            if (imageCache.isBuildCacheEnabled() && service.getBuild().getDockerfileContent() != null) {
+                String buildKey = DockerImageCache.buildKey(service.getBuild().getDockerfileContent(),
+                                                            service.getBuild().getArgs());
+                String cachedImage = imageCache.build(buildKey, progressMonitor, (repository, tag, monitor) ->
+                        doBuildImage(service, repository, tag, doForcePullOnBuild, monitor));
+                docker.tag(TagParams.create(cachedImage, machineImageName));
+            } else {
+                doBuildImage(service, machineImageName, null, doForcePullOnBuild, progressMonitor);
+            }
+        } catch (IOException e) {
+            throw new MachineException(e.getLocalizedMessage(), e);
+        }
+    }
+
+    private void doBuildImage(CheServiceImpl service,
+                              String repository,
+                              String tag,
+                              boolean doForcePullOnBuild,
+                              ProgressMonitor progressMonitor) throws IOException {
         File workDir = null;
         try {
             BuildImageParams buildImageParams;
@@ -406,7 +451,8 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                                    .withDockerfile(service.getBuild().getDockerfilePath());
             }
             buildImageParams.withForceRemoveIntermediateContainers(true)
-                            .withRepository(machineImageName)
+                            .withRepository(repository)
+                            .withTag(tag)
                             .withAuthConfigs(dockerCredentials.getCredentials())
                             .withDoForcePull(doForcePullOnBuild)
                             .withMemoryLimit(service.getMemLimit())
@@ -417,8 +463,6 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                             .withBuildArgs(service.getBuild().getArgs());
 
             docker.buildImage(buildImageParams, progressMonitor);
-        } catch (IOException e) {
-            throw new MachineException(e.getLocalizedMessage(), e);
         } finally {
             if (workDir != null) {
                 FileCleaner.addFile(workDir);
@@ -453,13 +497,20 @@ public class MachineProviderImpl implements MachineInstanceProvider {
 
         try {
             boolean isSnapshot = SNAPSHOT_LOCATION_PATTERN.matcher(dockerMachineSource.getLocation()).matches();
-            if (!isSnapshot || snapshotUseRegistry) {
+            boolean pushed = true;
+            if (isSnapshot && snapshotUseRegistry && dockerMachineSource.getDigest() == null) {
+                // snapshot without digest is pushed in background
+                pushed = awaitSnapshotPush(dockerMachineSource);
+            }
+            if (!isSnapshot || snapshotUseRegistry && pushed) {
+                AuthConfigs authConfigs = dockerCredentials.getCredentials();
                 PullParams pullParams = PullParams.create(dockerMachineSource.getRepository())
                                                   .withTag(MoreObjects.firstNonNull(dockerMachineSource.getTag(),
                                                                                     LATEST_TAG))
                                                   .withRegistry(dockerMachineSource.getRegistry())
-                                                  .withAuthConfigs(dockerCredentials.getCredentials());
-                docker.pull(pullParams, progressMonitor);
+                                                  .withAuthConfigs(authConfigs);
+                imageCache.pull(dockerMachineSource.getLocation(), authConfigs, progressMonitor,
+                                monitor -> docker.pull(pullParams, monitor));
             }
 
             String fullNameOfPulledImage = dockerMachineSource.getLocation(false);
@@ -471,7 +522,7 @@ public class MachineProviderImpl implements MachineInstanceProvider {
             }
 
             // remove unneeded tag if restoring snapshot from registry
-            if (isSnapshot && snapshotUseRegistry) {
+            if (isSnapshot && snapshotUseRegistry && pushed) {
                 docker.removeImage(RemoveImageParams.create(fullNameOfPulledImage).withForce(false));
             }
         } catch (IOException e) {
@@ -479,6 +530,26 @@ public class MachineProviderImpl implements MachineInstanceProvider {
         }
     }
 
+    /**
+     * Waits for the snapshot which is pushed to the registry in background.
+     *
+     * @return {@code false} if push of the snapshot failed, so it is available only locally
+     */
+    private boolean awaitSnapshotPush(DockerMachineSource snapshot) throws IOException {
+        try {
+            snapshotPusher.awaitPush(snapshot.getRegistry(),
+                                     snapshot.getRepository(),
+                                     MoreObjects.firstNonNull(snapshot.getTag(), LATEST_TAG));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for push of snapshot " + snapshot.getLocation());
+        } catch (IOException e) {
+            LOG.warn("{}, using local image", e.getLocalizedMessage());
+            return false;
+        }
+    }
+
     private String createContainer(String workspaceId,
                                    String machineName,
                                    boolean isDev,
@@ -486,23 +557,99 @@ public class MachineProviderImpl implements MachineInstanceProvider {
                                    String networkName,
                                    CheServiceImpl service) throws IOException {
 
-        long machineMemorySwap = memorySwapMultiplier == -1 ?
-                                 -1 :
-                                 (long)(service.getMemLimit() * memorySwapMultiplier);
-
         addSystemWideContainerSettings(workspaceId,
                                        isDev,
                                        service);
 
-        EndpointConfig endpointConfig = new EndpointConfig().withAliases(machineName)
-                                                            .withLinks(toArrayIfNotNull(service.getLinks()));
-        NetworkingConfig networkingConfig = new NetworkingConfig().withEndpointsConfig(singletonMap(networkName,
-                                                                                                    endpointConfig));
+        if (containerPool.isEnabled() && isPoolable(isDev, service)) {
+            String pooledContainer = claimPooledContainer(machineName,
+                                                          image,
+                                                          networkName,
+                                                          service);
+            if (pooledContainer != null) {
+                return pooledContainer;
+            }
+        }
+
+        ContainerConfig config = createContainerConfig(image,
+                                                       machineName,
+                                                       networkName,
+                                                       service);
+
+        return docker.createContainer(CreateContainerParams.create(config)
+                                                           .withContainerName(service.getContainerName()))
+                     .getId();
+    }
+
+    /**
+     * Pooled containers are created before workspace is known, so their configuration
+     * must not depend on the workspace. Environment variables of the dev machine contain workspace ID and user token,
+     * links and shared volumes refer to other containers of the workspace, so such machines are not pooled.
+     */
+    private boolean isPoolable(boolean isDev, CheServiceImpl service) {
+        return !isDev && service.getLinks().isEmpty() && service.getVolumesFrom().isEmpty();
+    }
+
+    /**
+     * Claims container with the same configuration from the pool, renames it and moves it to the workspace network.
+     *
+     * @return ID of the claimed container or {@code null} if there is no such container in the pool
+     */
+    private String claimPooledContainer(String machineName,
+                                        String image,
+                                        String networkName,
+                                        CheServiceImpl service) throws IOException {
+        // image name is unique for each machine, so pooled containers are created from image ID
+        String imageId = docker.inspectImage(image).getId();
+        String container = containerPool.claim(createContainerConfig(imageId,
+                                                                     null,
+                                                                     null,
+                                                                     service));
+        if (container == null) {
+            return null;
+        }
+        try {
+            docker.renameContainer(RenameContainerParams.create(container, service.getContainerName()));
+            docker.disconnectContainerFromNetwork(
+                    DisconnectContainerFromNetworkParams.create(DEFAULT_NETWORK,
+                                                                new DisconnectContainer().withContainer(container)));
+            docker.connectContainerToNetwork(
+                    ConnectContainerToNetworkParams.create(networkName,
+                                                           new ConnectContainer().withContainer(container)
+                                                                                 .withEndpointConfig(
+                                                                                         new EndpointConfig().withAliases(
+                                                                                                 machineName))));
+            return container;
+        } catch (IOException e) {
+            LOG.warn("Failed to claim pooled container {} for machine {}. Cause: {}",
+                     container,
+                     machineName,
+                     e.getLocalizedMessage());
+            cleanUpContainer(container);
+            return null;
+        }
+    }
+
+    /**
+     * Creates configuration of the container.
+     *
+     * @param machineName
+     *         name of the machine, used as network alias of the container, may be {@code null} if network is not set
+     * @param networkName
+     *         name of the network of the workspace, if {@code null} container is created in the default network
+     */
+    private ContainerConfig createContainerConfig(String image,
+                                                  @Nullable String machineName,
+                                                  @Nullable String networkName,
+                                                  CheServiceImpl service) {
+
+        long machineMemorySwap = memorySwapMultiplier == -1 ?
+                                 -1 :
+                                 (long)(service.getMemLimit() * memorySwapMultiplier);
 
         HostConfig hostConfig = new HostConfig();
         hostConfig.withMemorySwap(machineMemorySwap)
                   .withMemory(service.getMemLimit())
-                  .withNetworkMode(networkName)
                   .withLinks(toArrayIfNotNull(service.getLinks()))
                   .withPortBindings(service.getPorts()
                                            .stream()
@@ -519,13 +666,21 @@ public class MachineProviderImpl implements MachineInstanceProvider {
               .withCmd(toArrayIfNotNull(service.getCommand()))
               .withEntrypoint(toArrayIfNotNull(service.getEntrypoint()))
               .withLabels(service.getLabels())
-              .withNetworkingConfig(networkingConfig)
               .withEnv(service.getEnvironment()
                               .entrySet()
                               .stream()
                               .map(entry -> entry.getKey() + "=" + entry.getValue())
                               .toArray(String[]::new));
 
+        if (networkName != null) {
+            EndpointConfig endpointConfig = new EndpointConfig().withAliases(machineName)
+                                                                .withLinks(toArrayIfNotNull(service.getLinks()));
+            NetworkingConfig networkingConfig = new NetworkingConfig().withEndpointsConfig(singletonMap(networkName,
+                                                                                                        endpointConfig));
+            hostConfig.withNetworkMode(networkName);
+            config.withNetworkingConfig(networkingConfig);
+        }
+
         List<String> bindMountVolumes = new ArrayList<>();
         Map<String, Volume> nonBindMountVolumes = new HashMap<>();
         for (String volume : service.getVolumes()) {
@@ -541,9 +696,7 @@ public class MachineProviderImpl implements MachineInstanceProvider {
 
         addStaticDockerConfiguration(config);
 
-        return docker.createContainer(CreateContainerParams.create(config)
-                                                           .withContainerName(service.getContainerName()))
-                     .getId();
+        return config;
     }
 
     private void addStaticDockerConfiguration(ContainerConfig config) {
@@ -580,6 +733,9 @@ public class MachineProviderImpl implements MachineInstanceProvider {
             env = commonMachineEnvVariables;
             volumes = commonMachineSystemVolumes;
         }
+        Map<String, String> labels = new HashMap<>(composeService.getLabels());
+        labels.put(CHE_CONTAINER_LABEL, "true");
+        composeService.setLabels(labels);
         composeService.getExpose().addAll(portsToExpose);
         composeService.getEnvironment().putAll(env);
         composeService.getVolumes().addAll(volumes);
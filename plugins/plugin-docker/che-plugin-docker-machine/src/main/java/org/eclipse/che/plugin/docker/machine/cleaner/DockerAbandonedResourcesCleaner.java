@@ -11,41 +11,73 @@
 package org.eclipse.che.plugin.docker.machine.cleaner;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.environment.server.CheEnvironmentEngine;
 import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
 import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
 import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.Event;
 import org.eclipse.che.plugin.docker.client.json.Filters;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
+import org.eclipse.che.plugin.docker.client.params.GetEventsParams;
+import org.eclipse.che.plugin.docker.client.params.ListContainersParams;
 import org.eclipse.che.plugin.docker.client.params.network.GetNetworksParams;
 import org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator;
+import org.eclipse.che.plugin.docker.machine.MachineProviderImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toSet;
 import static org.eclipse.che.plugin.docker.client.params.RemoveContainerParams.create;
 import static org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator.ContainerNameInfo;
+import static org.eclipse.che.plugin.docker.machine.MachineProviderImpl.CHE_CONTAINER_LABEL;
 
 /**
  * Job for periodically clean up abandoned docker containers and networks created by CHE.
  * Also, logs active containers list.
+ * <p/>
+ * Between the periodic sweeps containers are reconciled incrementally: deaths of the containers labeled with
+ * {@link MachineProviderImpl#CHE_CONTAINER_LABEL} are received from the docker events and checked after a grace
+ * period, so containers of machines which are being stopped by API are not touched. Time of the last reconciled event
+ * is persisted, so events which happened while the server was down are reconciled after the restart.
+ * The first sweep checks all the containers, since containers created by older versions are not labeled,
+ * subsequent sweeps list labeled containers only. Abandoned containers are cleaned up in parallel.
  *
  * @author Alexander Andrienko
  * @author Mykola Morhun
@@ -61,19 +93,49 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     private static final String            CHE_NETWORK_REGEX        = "^(?<" + WORKSPACE_ID_REGEX_GROUP + ">workspace[a-z\\d]{16})_[a-z\\d]{16}$";
     private static final Pattern           CHE_NETWORK_PATTERN      = Pattern.compile(CHE_NETWORK_REGEX);
 
+    private static final ListContainersParams LIST_CHE_CONTAINERS_PARAMS =
+            ListContainersParams.create()
+                                .withAll(true)
+                                .withFilters(new Filters().withFilter("label", CHE_CONTAINER_LABEL));
+
+    /** Name of the file in the storage folder which contains time of the last reconciled event. */
+    static final String WATERMARK_FILE = "docker_cleaner_watermark";
+
+    private static final long EVENT_GRACE_PERIOD_SEC    = 30;
+    private static final long EVENTS_RECONNECT_DELAY_MS = 1_000;
+
     // TODO replace with WorkspaceManager
     private final CheEnvironmentEngine         environmentEngine;
     private final DockerConnector              dockerConnector;
     private final DockerContainerNameGenerator nameGenerator;
     private final WorkspaceRuntimes            runtimes;
     private final Set<String>                  additionalNetworks;
+    private final ScheduledThreadPoolExecutor  cleanupExecutor;
+    private final ExecutorService              eventsExecutor;
+    private final Path                         watermarkFile;
+
+    private final AtomicLong processedEvents   = new AtomicLong();
+    private final AtomicLong eventLagMillis    = new AtomicLong();
+    private final AtomicLong cleanedContainers = new AtomicLong();
+    private final AtomicLong removedNetworks   = new AtomicLong();
+    private final AtomicLong sweepMillis       = new AtomicLong();
+    private final AtomicLong watermark         = new AtomicLong();
+
+    /** Number of the checks scheduled for each time of the received events, guarded by {@code this}. */
+    private final TreeMap<Long, Integer> pendingEventTimes = new TreeMap<>();
+    /** Time of the latest reconciled event, guarded by {@code this}. */
+    private long lastReconciledEventTime;
+
+    private volatile boolean allContainersChecked;
 
     @Inject
     public DockerAbandonedResourcesCleaner(CheEnvironmentEngine environmentEngine,
                                            DockerConnectorProvider dockerConnectorProvider,
                                            DockerContainerNameGenerator nameGenerator,
                                            WorkspaceRuntimes workspaceRuntimes,
-                                           @Named("machine.docker.networks") Set<Set<String>> additionalNetworks) {
+                                           @Named("machine.docker.networks") Set<Set<String>> additionalNetworks,
+                                           @Named("che.docker.cleanup_threads") int cleanupThreads,
+                                           @Nullable @Named("che.database") String storageFolder) {
         this.environmentEngine = environmentEngine;
         this.dockerConnector = dockerConnectorProvider.get();
         this.nameGenerator = nameGenerator;
@@ -81,6 +143,18 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
         this.additionalNetworks = additionalNetworks.stream()
                                                     .flatMap(Set::stream)
                                                     .collect(toSet());
+        this.watermarkFile = storageFolder != null ? Paths.get(storageFolder, WATERMARK_FILE) : null;
+        this.cleanupExecutor = new ScheduledThreadPoolExecutor(Math.max(cleanupThreads, 1),
+                                                               new ThreadFactoryBuilder().setNameFormat("DockerResourcesCleaner-%d")
+                                                                                         .setUncaughtExceptionHandler(
+                                                                                                 LoggingUncaughtExceptionHandler.getInstance())
+                                                                                         .setDaemon(true)
+                                                                                         .build());
+        this.eventsExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("DockerResourcesCleanerEvents-%d")
+                                          .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                                          .setDaemon(true)
+                                          .build());
     }
 
     @ScheduleRate(periodParameterName = "che.docker.cleanup_period_min",
@@ -88,8 +162,42 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
                   unit = TimeUnit.MINUTES)
     @Override
     public void run() {
+        long start = System.currentTimeMillis();
         cleanContainers();
         cleanNetworks();
+        sweepMillis.set(System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns statistics of the cleaner.
+     * <ul>
+     * <li>event_lag_ms - delay between the last received event and its receiving</li>
+     * <li>backlog - number of the containers which are waiting for the check or clean up</li>
+     * <li>last_sweep_duration_ms - duration of the last periodic sweep</li>
+     * <li>processed_events, cleaned_containers, removed_networks - accumulated since server start</li>
+     * </ul>
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new TreeMap<>();
+        statistics.put("processed_events", processedEvents.get());
+        statistics.put("event_lag_ms", eventLagMillis.get());
+        statistics.put("backlog", (long)cleanupExecutor.getQueue().size() + cleanupExecutor.getActiveCount());
+        statistics.put("cleaned_containers", cleanedContainers.get());
+        statistics.put("removed_networks", removedNetworks.get());
+        statistics.put("last_sweep_duration_ms", sweepMillis.get());
+        return statistics;
+    }
+
+    @PostConstruct
+    void start() {
+        watermark.set(readWatermark());
+        eventsExecutor.execute(this::receiveEvents);
+    }
+
+    @PreDestroy
+    void stop() {
+        eventsExecutor.shutdownNow();
+        cleanupExecutor.shutdownNow();
     }
 
     /**
@@ -98,8 +206,9 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
     @VisibleForTesting
     void cleanContainers() {
         List<String> activeContainers = new ArrayList<>();
+        List<Future<?>> cleanups = new ArrayList<>();
         try {
-            for (ContainerListEntry container : dockerConnector.listContainers()) {
+            for (ContainerListEntry container : listContainers()) {
                 String containerName = container.getNames()[0];
                 Optional<ContainerNameInfo> optional = nameGenerator.parse(containerName);
                 if (optional.isPresent()) {
@@ -109,7 +218,9 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
                                                      optional.get().getMachineId());
                         activeContainers.add(containerName);
                     } catch (NotFoundException e) {
-                        cleanUpContainer(container);
+                        cleanups.add(cleanupExecutor.submit(() -> cleanUpContainer(container.getId(),
+                                                                                   containerName,
+                                                                                   container.getStatus().startsWith("Up"))));
                     } catch (Exception e) {
                         LOG.error(format("Failed to check activity for container with name '%s'. Cause: %s",
                                          containerName, e.getLocalizedMessage()), e);
@@ -121,23 +232,44 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
         } catch (Exception e) {
             LOG.error("Failed to clean up inactive containers", e);
         }
+        awaitAll(cleanups);
         LOG.info("List containers registered in the api: " + activeContainers);
     }
 
-    private void cleanUpContainer(ContainerListEntry container) {
-        String containerId = container.getId();
-        String containerName = container.getNames()[0];
+    private List<ContainerListEntry> listContainers() throws IOException {
+        if (allContainersChecked) {
+            return dockerConnector.listContainers(LIST_CHE_CONTAINERS_PARAMS);
+        }
+        List<ContainerListEntry> containers = dockerConnector.listContainers();
+        allContainersChecked = true;
+        return containers;
+    }
 
-        killContainer(containerId, containerName, container.getStatus());
+    private void awaitAll(List<Future<?>> cleanups) {
+        for (Future<?> cleanup : cleanups) {
+            try {
+                cleanup.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                LOG.error("Failed to clean up inactive container", e.getCause());
+            }
+        }
+    }
+
+    private void cleanUpContainer(String containerId, String containerName, boolean running) {
+        if (running) {
+            killContainer(containerId, containerName);
+        }
         removeContainer(containerId, containerName);
+        cleanedContainers.incrementAndGet();
     }
 
-    private void killContainer(String containerId, String containerName, String containerStatus) {
+    private void killContainer(String containerId, String containerName) {
         try {
-            if (containerStatus.startsWith("Up")) {
-                dockerConnector.killContainer(containerId);
-                LOG.warn("Unused container with 'id': '{}' and 'name': '{}' was killed ", containerId, containerName);
-            }
+            dockerConnector.killContainer(containerId);
+            LOG.warn("Unused container with 'id': '{}' and 'name': '{}' was killed ", containerId, containerName);
         } catch (IOException e) {
             LOG.error(format("Failed to kill unused container with 'id': '%s' and 'name': '%s'", containerId, containerName), e);
         }
@@ -161,8 +293,12 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
      */
     @VisibleForTesting
     void cleanNetworks() {
+        cleanNetworks(GET_NETWORKS_PARAMS);
+    }
+
+    private void cleanNetworks(GetNetworksParams params) {
         try {
-            List<Network> customNetworks = dockerConnector.getNetworks(GET_NETWORKS_PARAMS);
+            List<Network> customNetworks = dockerConnector.getNetworks(params);
             // This workaround is added because of docker bug which returns null instead of empty list
             // See https://github.com/docker/docker/issues/29946
             if (customNetworks == null) {
@@ -175,6 +311,7 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
                     !runtimes.hasRuntime(cheNetworkMatcher.group(WORKSPACE_ID_REGEX_GROUP))) {
                     try {
                         dockerConnector.removeNetwork(network.getId());
+                        removedNetworks.incrementAndGet();
                     } catch (IOException e) {
                         LOG.warn("Failed to remove abandoned network: " + network.getName(), e);
                     }
@@ -185,4 +322,122 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
         }
     }
 
+    private void receiveEvents() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                dockerConnector.getEvents(GetEventsParams.create()
+                                                         .withSinceSecond(watermark.get())
+                                                         .withFilters(new Filters().withFilter("event", "die")
+                                                                                   .withFilter("label", CHE_CONTAINER_LABEL)),
+                                          this::onEvent);
+            } catch (IOException e) {
+                // usually connection timeout
+                LOG.debug(e.getLocalizedMessage(), e);
+                try {
+                    Thread.sleep(EVENTS_RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules check of the container which died, events are received again after reconnection,
+     * so the same container may be checked more than once.
+     */
+    @VisibleForTesting
+    void onEvent(Event event) {
+        if (event.getType() != null && !"container".equals(event.getType())) {
+            // swarm doesn't filter events
+            return;
+        }
+        processedEvents.incrementAndGet();
+        long eventTimeMillis = event.getTimeNano() > 0 ? event.getTimeNano() / 1_000_000 : event.getTime() * 1000;
+        eventLagMillis.set(Math.max(System.currentTimeMillis() - eventTimeMillis, 0));
+        String containerId = event.getId() != null ? event.getId() : event.getActor().getId();
+        addPendingEvent(event.getTime());
+        cleanupExecutor.schedule(() -> reconcileContainer(containerId, event.getTime()),
+                                 EVENT_GRACE_PERIOD_SEC,
+                                 TimeUnit.SECONDS);
+    }
+
+    /**
+     * Cleans up the container and networks of its workspace if the container is not tracked by API.
+     *
+     * @param eventTime
+     *         time of the event in seconds which caused the check, it is persisted after the check
+     *         unless checks of earlier events are still pending
+     */
+    @VisibleForTesting
+    void reconcileContainer(String containerId, long eventTime) {
+        try {
+            ContainerInfo container = dockerConnector.inspectContainer(containerId);
+            Optional<ContainerNameInfo> nameInfo = nameGenerator.parse(container.getName());
+            if (nameInfo.isPresent()) {
+                try {
+                    environmentEngine.getMachine(nameInfo.get().getWorkspaceId(), nameInfo.get().getMachineId());
+                } catch (NotFoundException e) {
+                    cleanUpContainer(containerId, container.getName(), container.getState().isRunning());
+                    cleanNetworks(GetNetworksParams.create()
+                                                   .withFilters(new Filters().withFilter("type", "custom")
+                                                                             .withFilter("name",
+                                                                                         nameInfo.get().getWorkspaceId())));
+                }
+            }
+        } catch (DockerException e) {
+            if (e.getStatus() != 404) {
+                LOG.error(format("Failed to check activity for container '%s'. Cause: %s", containerId, e.getLocalizedMessage()), e);
+            }
+            // otherwise container is already removed
+        } catch (Exception e) {
+            LOG.error(format("Failed to check activity for container '%s'. Cause: %s", containerId, e.getLocalizedMessage()), e);
+        }
+        updateWatermark(eventTime);
+    }
+
+    private long readWatermark() {
+        long now = System.currentTimeMillis() / 1000;
+        if (watermarkFile == null || !Files.exists(watermarkFile)) {
+            return now;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(watermarkFile), UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            LOG.warn("Failed to read time of the last reconciled docker event from {}. Cause: {}",
+                     watermarkFile, e.getLocalizedMessage());
+            return now;
+        }
+    }
+
+    private synchronized void addPendingEvent(long eventTime) {
+        pendingEventTimes.merge(eventTime, 1, Integer::sum);
+    }
+
+    /**
+     * Advances the watermark to the time of the reconciled event but not beyond the earliest event which
+     * is not reconciled yet, so the events which are waiting for the check are received again after restart.
+     */
+    private synchronized void updateWatermark(long eventTime) {
+        pendingEventTimes.computeIfPresent(eventTime, (time, count) -> count > 1 ? count - 1 : null);
+        lastReconciledEventTime = Math.max(lastReconciledEventTime, eventTime);
+        long newWatermark = pendingEventTimes.isEmpty() ? lastReconciledEventTime
+                                                        : Math.min(pendingEventTimes.firstKey(), lastReconciledEventTime);
+        if (newWatermark <= watermark.get()) {
+            return;
+        }
+        watermark.set(newWatermark);
+        if (watermarkFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(watermarkFile.getParent());
+            Path tmp = watermarkFile.resolveSibling(WATERMARK_FILE + ".tmp");
+            Files.write(tmp, Long.toString(newWatermark).getBytes(UTF_8));
+            Files.move(tmp, watermarkFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Failed to persist time of the last reconciled docker event to {}. Cause: {}",
+                     watermarkFile, e.getLocalizedMessage());
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine.stats;
+
+/**
+ * Describes crossing of the configured threshold of resource usage by a machine.
+ * Event is published once when usage goes above the threshold and once when it returns below it.
+ */
+public class MachineResourceThresholdEvent {
+    /**
+     * Resource of the machine which usage is watched.
+     */
+    public enum Resource {
+        CPU,
+        MEMORY
+    }
+
+    private String   machineId;
+    private String   workspaceId;
+    private Resource resource;
+    private boolean  exceeded;
+    private double   percent;
+    private double   thresholdPercent;
+
+    public MachineResourceThresholdEvent(String machineId,
+                                         String workspaceId,
+                                         Resource resource,
+                                         boolean exceeded,
+                                         double percent,
+                                         double thresholdPercent) {
+        this.machineId = machineId;
+        this.workspaceId = workspaceId;
+        this.resource = resource;
+        this.exceeded = exceeded;
+        this.percent = percent;
+        this.thresholdPercent = thresholdPercent;
+    }
+
+    public String getMachineId() {
+        return machineId;
+    }
+
+    public String getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    /**
+     * Returns {@code true} if usage went above the threshold, {@code false} if it returned below the threshold.
+     */
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    public double getPercent() {
+        return percent;
+    }
+
+    public double getThresholdPercent() {
+        return thresholdPercent;
+    }
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps fixed number of the latest samples of the machine, the oldest sample is overwritten when ring is full.
+ */
+class MachineStatsRing {
+    private final MachineStatsSample[] samples;
+
+    private int next;
+    private int size;
+
+    MachineStatsRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of the ring must be positive");
+        }
+        this.samples = new MachineStatsSample[capacity];
+    }
+
+    synchronized void add(MachineStatsSample sample) {
+        samples[next] = sample;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Returns copy of the kept samples, the oldest sample goes first.
+     */
+    synchronized List<MachineStatsSample> getSamples() {
+        List<MachineStatsSample> result = new ArrayList<>(size);
+        int first = (next - size + samples.length) % samples.length;
+        for (int i = 0; i < size; i++) {
+            result.add(samples[(first + i) % samples.length]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine.stats;
+
+/**
+ * Resources usage of the machine at the moment of sampling.
+ * <p/>
+ * Network and block I/O values are counters accumulated since the start of the container.
+ */
+public class MachineStatsSample {
+    private final long   timestamp;
+    private final double cpuPercent;
+    private final long   memoryBytes;
+    private final long   memoryLimitBytes;
+    private final long   networkRxBytes;
+    private final long   networkTxBytes;
+    private final long   blockReadBytes;
+    private final long   blockWriteBytes;
+
+    public MachineStatsSample(long timestamp,
+                              double cpuPercent,
+                              long memoryBytes,
+                              long memoryLimitBytes,
+                              long networkRxBytes,
+                              long networkTxBytes,
+                              long blockReadBytes,
+                              long blockWriteBytes) {
+        this.timestamp = timestamp;
+        this.cpuPercent = cpuPercent;
+        this.memoryBytes = memoryBytes;
+        this.memoryLimitBytes = memoryLimitBytes;
+        this.networkRxBytes = networkRxBytes;
+        this.networkTxBytes = networkTxBytes;
+        this.blockReadBytes = blockReadBytes;
+        this.blockWriteBytes = blockWriteBytes;
+    }
+
+    /** Time of sampling in milliseconds since epoch. */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /** CPU usage since the previous sample, 100 percents per each CPU core. */
+    public double getCpuPercent() {
+        return cpuPercent;
+    }
+
+    /** Memory used by the machine processes, excluding page cache. */
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public long getMemoryLimitBytes() {
+        return memoryLimitBytes;
+    }
+
+    /** Memory usage in percents of the memory limit. */
+    public double getMemoryPercent() {
+        return memoryLimitBytes > 0 ? memoryBytes * 100.0 / memoryLimitBytes : 0;
+    }
+
+    public long getNetworkRxBytes() {
+        return networkRxBytes;
+    }
+
+    public long getNetworkTxBytes() {
+        return networkTxBytes;
+    }
+
+    public long getBlockReadBytes() {
+        return blockReadBytes;
+    }
+
+    public long getBlockWriteBytes() {
+        return blockWriteBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "MachineStatsSample{" +
+               "timestamp=" + timestamp +
+               ", cpuPercent=" + cpuPercent +
+               ", memoryBytes=" + memoryBytes +
+               ", memoryLimitBytes=" + memoryLimitBytes +
+               ", networkRxBytes=" + networkRxBytes +
+               ", networkTxBytes=" + networkTxBytes +
+               ", blockReadBytes=" + blockReadBytes +
+               ", blockWriteBytes=" + blockWriteBytes +
+               '}';
+    }
+}
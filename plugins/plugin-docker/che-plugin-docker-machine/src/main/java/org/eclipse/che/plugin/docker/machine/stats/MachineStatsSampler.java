@@ -0,0 +1,376 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine.stats;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.exception.ContainerNotFoundException;
+import org.eclipse.che.plugin.docker.client.json.stats.BlkioStatEntry;
+import org.eclipse.che.plugin.docker.client.json.stats.ContainerStats;
+import org.eclipse.che.plugin.docker.client.json.stats.CpuStats;
+import org.eclipse.che.plugin.docker.client.json.stats.MemoryStats;
+import org.eclipse.che.plugin.docker.client.json.stats.NetworkStats;
+import org.eclipse.che.plugin.docker.client.params.GetContainerStatsParams;
+import org.eclipse.che.plugin.docker.machine.stats.MachineResourceThresholdEvent.Resource;
+import org.slf4j.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Periodically samples resources usage of the running docker machines.
+ * <p/>
+ * Each machine is sampled with a single call of docker stats API, so the same way works for local and
+ * swarm nodes and no connection is kept open between the samples. Fixed number of the latest samples is kept
+ * in memory for each machine, samples are forgotten when the machine is destroyed.
+ * When CPU or memory usage of the machine crosses configured threshold {@link MachineResourceThresholdEvent}
+ * is published.
+ * <p/>
+ * Stats call of docker blocks until the container is measured, so when sampling threads can't keep up with
+ * the number of machines samples are taken later than scheduled. This delay is reported as sample lag
+ * in {@link #getStatistics()}, number of threads should be increased when it is close to the sample period.
+ */
+@Singleton
+public class MachineStatsSampler {
+    private static final Logger LOG = getLogger(MachineStatsSampler.class);
+
+    private final DockerConnector             docker;
+    private final EventService                eventService;
+    private final long                        samplePeriodMillis;
+    private final int                         historySize;
+    private final double                      cpuThresholdPercent;
+    private final double                      memoryThresholdPercent;
+    private final Map<String, SampledMachine> machines;
+    private final ScheduledExecutorService    executor;
+
+    private final AtomicLong samples         = new AtomicLong();
+    private final AtomicLong failedSamples   = new AtomicLong();
+    private final AtomicLong thresholdEvents = new AtomicLong();
+    private final AtomicLong sampleLagMillis = new AtomicLong();
+    private final AtomicLong maxSampleLag    = new AtomicLong();
+
+    /**
+     * Creates sampler of the machines resources usage.
+     *
+     * @param samplePeriodSec
+     *         period of sampling in seconds, if not positive then machines are not sampled
+     * @param samplingThreads
+     *         number of machines which are sampled concurrently
+     * @param historySize
+     *         number of the latest samples kept for each machine
+     * @param cpuThresholdPercent
+     *         CPU usage in percents of the available CPU cores which causes threshold event, not positive disables events
+     * @param memoryThresholdPercent
+     *         memory usage in percents of the memory limit which causes threshold event, not positive disables events
+     */
+    @Inject
+    public MachineStatsSampler(DockerConnectorProvider dockerProvider,
+                               EventService eventService,
+                               @Named("che.docker.stats.sample_period_sec") long samplePeriodSec,
+                               @Named("che.docker.stats.sampling_threads") int samplingThreads,
+                               @Named("che.docker.stats.history_size") int historySize,
+                               @Named("che.docker.stats.cpu_threshold_percent") int cpuThresholdPercent,
+                               @Named("che.docker.stats.memory_threshold_percent") int memoryThresholdPercent) {
+        this.docker = dockerProvider.get();
+        this.eventService = eventService;
+        this.samplePeriodMillis = TimeUnit.SECONDS.toMillis(samplePeriodSec);
+        this.historySize = Math.max(historySize, 1);
+        this.cpuThresholdPercent = cpuThresholdPercent;
+        this.memoryThresholdPercent = memoryThresholdPercent;
+        this.machines = new ConcurrentHashMap<>();
+        if (samplePeriodMillis > 0) {
+            this.executor = Executors.newScheduledThreadPool(Math.max(samplingThreads, 1),
+                                                             new ThreadFactoryBuilder().setNameFormat("MachineStatsSampler-%d")
+                                                                                       .setUncaughtExceptionHandler(
+                                                                                               LoggingUncaughtExceptionHandler
+                                                                                                       .getInstance())
+                                                                                       .setDaemon(true)
+                                                                                       .build());
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if machines are sampled.
+     */
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * Starts periodic sampling of the machine, does nothing if sampling is disabled.
+     *
+     * @param machineId
+     *         ID of the machine
+     * @param workspaceId
+     *         ID of the workspace the machine belongs to
+     * @param container
+     *         ID of the container of the machine
+     */
+    public void startSampling(String machineId, String workspaceId, String container) {
+        if (!isEnabled()) {
+            return;
+        }
+        SampledMachine machine = new SampledMachine(machineId, workspaceId, container);
+        SampledMachine previous = machines.put(machineId, machine);
+        if (previous != null) {
+            previous.cancel();
+        }
+        machine.scheduledTime = System.currentTimeMillis() + samplePeriodMillis;
+        machine.future = executor.scheduleWithFixedDelay(() -> sample(machine),
+                                                         samplePeriodMillis,
+                                                         samplePeriodMillis,
+                                                         TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sampling of the machine and forgets its samples.
+     */
+    public void stopSampling(String machineId) {
+        SampledMachine machine = machines.remove(machineId);
+        if (machine != null) {
+            machine.cancel();
+        }
+    }
+
+    /**
+     * Returns the latest samples of the machine, the oldest sample goes first.
+     *
+     * @throws NotFoundException
+     *         when the machine is not sampled
+     */
+    public List<MachineStatsSample> getSamples(String machineId) throws NotFoundException {
+        SampledMachine machine = machines.get(machineId);
+        if (machine == null) {
+            throw new NotFoundException(format("Resources usage of machine '%s' is not sampled", machineId));
+        }
+        return machine.ring.getSamples();
+    }
+
+    /**
+     * Returns statistics of the sampler.
+     * <ul>
+     * <li>sample_lag_ms - delay of the latest sample after the time it was scheduled for</li>
+     * <li>max_sample_lag_ms, samples, failed_samples, threshold_events - accumulated since server start</li>
+     * </ul>
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new TreeMap<>();
+        statistics.put("sampled_machines", (long)machines.size());
+        statistics.put("samples", samples.get());
+        statistics.put("failed_samples", failedSamples.get());
+        statistics.put("threshold_events", thresholdEvents.get());
+        statistics.put("sample_lag_ms", sampleLagMillis.get());
+        statistics.put("max_sample_lag_ms", maxSampleLag.get());
+        return statistics;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        machines.clear();
+    }
+
+    /**
+     * Takes sample of the machine if it is sampled, exposed for testing.
+     */
+    void sample(String machineId) {
+        SampledMachine machine = machines.get(machineId);
+        if (machine != null) {
+            sample(machine);
+        }
+    }
+
+    private void sample(SampledMachine machine) {
+        long start = System.currentTimeMillis();
+        if (machine.scheduledTime > 0) {
+            long lag = Math.max(start - machine.scheduledTime, 0);
+            sampleLagMillis.set(lag);
+            maxSampleLag.accumulateAndGet(lag, Math::max);
+        }
+        try {
+            doSample(machine);
+        } finally {
+            // samples are scheduled with fixed delay after the end of the previous one
+            machine.scheduledTime = System.currentTimeMillis() + samplePeriodMillis;
+        }
+    }
+
+    private void doSample(SampledMachine machine) {
+        ContainerStats stats;
+        try {
+            stats = docker.getContainerStats(GetContainerStatsParams.create(machine.container));
+        } catch (ContainerNotFoundException e) {
+            LOG.debug("Container {} of machine {} is not found, sampling is stopped", machine.container, machine.machineId);
+            machines.remove(machine.machineId, machine);
+            machine.cancel();
+            return;
+        } catch (IOException e) {
+            failedSamples.incrementAndGet();
+            LOG.debug("Failed to sample container {} of machine {}. Cause: {}",
+                      machine.container, machine.machineId, e.getLocalizedMessage());
+            return;
+        }
+        MachineStatsSample sample = machine.toSample(stats);
+        machine.ring.add(sample);
+        samples.incrementAndGet();
+        if (cpuThresholdPercent > 0) {
+            double cpuCapacity = 100.0 * Math.max(onlineCpus(stats.getCpuStats()), 1);
+            double cpuPercent = sample.getCpuPercent() * 100 / cpuCapacity;
+            boolean exceeded = cpuPercent >= cpuThresholdPercent;
+            if (exceeded != machine.cpuExceeded) {
+                machine.cpuExceeded = exceeded;
+                publish(machine, Resource.CPU, exceeded, cpuPercent, cpuThresholdPercent);
+            }
+        }
+        if (memoryThresholdPercent > 0 && sample.getMemoryLimitBytes() > 0) {
+            boolean exceeded = sample.getMemoryPercent() >= memoryThresholdPercent;
+            if (exceeded != machine.memoryExceeded) {
+                machine.memoryExceeded = exceeded;
+                publish(machine, Resource.MEMORY, exceeded, sample.getMemoryPercent(), memoryThresholdPercent);
+            }
+        }
+    }
+
+    private void publish(SampledMachine machine, Resource resource, boolean exceeded, double percent, double threshold) {
+        thresholdEvents.incrementAndGet();
+        eventService.publish(new MachineResourceThresholdEvent(machine.machineId,
+                                                               machine.workspaceId,
+                                                               resource,
+                                                               exceeded,
+                                                               percent,
+                                                               threshold));
+    }
+
+    private static int onlineCpus(CpuStats cpuStats) {
+        if (cpuStats == null) {
+            return 0;
+        }
+        if (cpuStats.getOnlineCpus() > 0) {
+            return cpuStats.getOnlineCpus();
+        }
+        // older docker API versions don't report number of online CPUs
+        if (cpuStats.getCpuUsage() != null && cpuStats.getCpuUsage().getPercpuUsage() != null) {
+            return cpuStats.getCpuUsage().getPercpuUsage().size();
+        }
+        return 0;
+    }
+
+    private static long totalUsage(CpuStats cpuStats) {
+        return cpuStats != null && cpuStats.getCpuUsage() != null ? cpuStats.getCpuUsage().getTotalUsage() : 0;
+    }
+
+    private static long systemUsage(CpuStats cpuStats) {
+        return cpuStats != null ? cpuStats.getSystemCpuUsage() : 0;
+    }
+
+    private class SampledMachine {
+        final String           machineId;
+        final String           workspaceId;
+        final String           container;
+        final MachineStatsRing ring;
+
+        volatile ScheduledFuture<?> future;
+        volatile long               scheduledTime;
+
+        // samples of the machine are never taken concurrently, so the fields below are not synchronized
+        long    previousCpuUsage;
+        long    previousSystemUsage;
+        boolean cpuExceeded;
+        boolean memoryExceeded;
+
+        SampledMachine(String machineId, String workspaceId, String container) {
+            this.machineId = machineId;
+            this.workspaceId = workspaceId;
+            this.container = container;
+            this.ring = new MachineStatsRing(historySize);
+        }
+
+        void cancel() {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        MachineStatsSample toSample(ContainerStats stats) {
+            CpuStats cpuStats = stats.getCpuStats();
+            long cpuUsage = totalUsage(cpuStats);
+            long systemUsage = systemUsage(cpuStats);
+            if (previousSystemUsage == 0) {
+                // first sample, use the previous reading made by docker if any
+                previousCpuUsage = totalUsage(stats.getPrecpuStats());
+                previousSystemUsage = systemUsage(stats.getPrecpuStats());
+            }
+            long cpuDelta = cpuUsage - previousCpuUsage;
+            long systemDelta = systemUsage - previousSystemUsage;
+            double cpuPercent = 0;
+            if (previousSystemUsage > 0 && cpuDelta > 0 && systemDelta > 0) {
+                cpuPercent = (double)cpuDelta / systemDelta * Math.max(onlineCpus(cpuStats), 1) * 100;
+            }
+            previousCpuUsage = cpuUsage;
+            previousSystemUsage = systemUsage;
+
+            long memory = 0;
+            long memoryLimit = 0;
+            MemoryStats memoryStats = stats.getMemoryStats();
+            if (memoryStats != null) {
+                Long cache = memoryStats.getStats() != null ? memoryStats.getStats().get("cache") : null;
+                memory = memoryStats.getUsage() - (cache != null ? cache : 0);
+                memoryLimit = memoryStats.getLimit();
+            }
+
+            long rx = 0;
+            long tx = 0;
+            if (stats.getNetworks() != null) {
+                for (NetworkStats network : stats.getNetworks().values()) {
+                    rx += network.getRxBytes();
+                    tx += network.getTxBytes();
+                }
+            }
+
+            long read = 0;
+            long write = 0;
+            if (stats.getBlkioStats() != null && stats.getBlkioStats().getIoServiceBytesRecursive() != null) {
+                for (BlkioStatEntry entry : stats.getBlkioStats().getIoServiceBytesRecursive()) {
+                    if ("Read".equalsIgnoreCase(entry.getOp())) {
+                        read += entry.getValue();
+                    } else if ("Write".equalsIgnoreCase(entry.getOp())) {
+                        write += entry.getValue();
+                    }
+                }
+            }
+            return new MachineStatsSample(System.currentTimeMillis(), cpuPercent, memory, memoryLimit, rx, tx, read, write);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine.stats;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.rest.Service;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides resources usage of the docker machines via REST.
+ */
+@Path("/docker/stats")
+public class MachineStatsService extends Service {
+    private final MachineStatsSampler sampler;
+
+    @Inject
+    public MachineStatsService(MachineStatsSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Long> getStatistics() {
+        return sampler.getStatistics();
+    }
+
+    @GET
+    @Path("/{machineId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<MachineStatsSample> getSamples(@PathParam("machineId") String machineId) throws NotFoundException {
+        return sampler.getSamples(machineId);
+    }
+}
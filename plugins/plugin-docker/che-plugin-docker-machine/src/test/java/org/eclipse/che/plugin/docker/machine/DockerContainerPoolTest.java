@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.json.ContainerConfig;
+import org.eclipse.che.plugin.docker.client.json.ContainerCreated;
+import org.eclipse.che.plugin.docker.client.json.HostConfig;
+import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
+import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link DockerContainerPool}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerContainerPoolTest {
+    private static final long MEMORY_MB = 512;
+
+    @Mock
+    private DockerConnectorProvider dockerProvider;
+    @Mock
+    private DockerConnector         docker;
+
+    private DockerContainerPool pool;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(dockerProvider.get()).thenReturn(docker);
+        AtomicInteger counter = new AtomicInteger();
+        when(docker.createContainer(any(CreateContainerParams.class)))
+                .thenAnswer(invocation -> new ContainerCreated("container" + counter.incrementAndGet(), new String[0]));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        if (pool != null) {
+            pool.stop();
+        }
+    }
+
+    @Test
+    public void shouldNotClaimAnythingWhenPoolIsDisabled() throws Exception {
+        pool = new DockerContainerPool(dockerProvider, 0, 3600, 0, MEMORY_MB);
+
+        assertNull(pool.claim(config("image")));
+        verify(docker, never()).createContainer(any(CreateContainerParams.class));
+    }
+
+    @Test
+    public void shouldRefillPoolWithContainersOfClaimedConfiguration() throws Exception {
+        pool = new DockerContainerPool(dockerProvider, 2, 3600, 0, MEMORY_MB);
+
+        assertNull(pool.claim(config("image")));
+
+        verify(docker, timeout(1000).times(2)).createContainer(any(CreateContainerParams.class));
+        waitForPooled(2);
+        String claimed = pool.claim(config("image"));
+        assertTrue(claimed.startsWith("container"));
+        assertEquals(pool.getStatistics().get("claimed"), Long.valueOf(1));
+        assertEquals(pool.getStatistics().get("missed"), Long.valueOf(1));
+    }
+
+    @Test
+    public void shouldClaimContainerOfEqualConfigurationInstance() throws Exception {
+        pool = new DockerContainerPool(dockerProvider, 1, 3600, 0, MEMORY_MB);
+        pool.claim(config("image"));
+        waitForPooled(1);
+
+        assertNotNull(pool.claim(config("image")));
+
+        waitForPooled(1);
+        verify(docker, times(2)).createContainer(any(CreateContainerParams.class));
+    }
+
+    @Test
+    public void shouldNotClaimContainerOfDifferentConfiguration() throws Exception {
+        pool = new DockerContainerPool(dockerProvider, 1, 3600, 0, MEMORY_MB);
+        pool.claim(config("image"));
+        waitForPooled(1);
+
+        assertNull(pool.claim(config("another_image")));
+    }
+
+    @Test
+    public void shouldNotExceedMemoryCapacity() throws Exception {
+        pool = new DockerContainerPool(dockerProvider, 2, 3600, MEMORY_MB, MEMORY_MB);
+
+        pool.claim(config("image"));
+        pool.claim(config("another_image"));
+
+        waitForPooled(1);
+        verify(docker, timeout(1000)).createContainer(any(CreateContainerParams.class));
+        Thread.sleep(100);
+        verify(docker, times(1)).createContainer(any(CreateContainerParams.class));
+    }
+
+    @Test
+    public void shouldRemoveExpiredContainers() throws Exception {
+        pool = new DockerContainerPool(dockerProvider, 1, 0, 0, MEMORY_MB);
+        pool.claim(config("image"));
+        verify(docker, timeout(1000)).createContainer(any(CreateContainerParams.class));
+        Thread.sleep(10);
+
+        pool.evictExpired();
+
+        verify(docker).removeContainer(any(RemoveContainerParams.class));
+        assertEquals(pool.getStatistics().get("pooled"), Long.valueOf(0));
+    }
+
+    private void waitForPooled(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (pool.getStatistics().get("pooled") < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(pool.getStatistics().get("pooled"), Long.valueOf(expected));
+    }
+
+    private static ContainerConfig config(String image) {
+        return new ContainerConfig().withImage(image)
+                                    .withHostConfig(new HostConfig().withMemory(MEMORY_MB * 1024 * 1024));
+    }
+}
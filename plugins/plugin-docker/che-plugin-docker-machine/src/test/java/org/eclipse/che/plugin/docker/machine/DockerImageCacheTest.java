@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.dto.AuthConfig;
+import org.eclipse.che.plugin.docker.client.dto.AuthConfigs;
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
+import org.eclipse.che.plugin.docker.client.json.Image;
+import org.eclipse.che.plugin.docker.client.json.ImageInfo;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.eclipse.che.plugin.docker.machine.DockerImageCache.BUILD_CACHE_REPOSITORY;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+/**
+ * Tests for {@link DockerImageCache}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerImageCacheTest {
+    private static final String BUILD_KEY = DockerImageCache.buildKey("FROM codenvy/ubuntu_jdk8", null);
+
+    @Mock
+    private DockerConnectorProvider dockerProvider;
+    @Mock
+    private DockerConnector         docker;
+
+    private DockerImageCache imageCache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(dockerProvider.get()).thenReturn(docker);
+        imageCache = new DockerImageCache(dockerProvider, true, 3600);
+    }
+
+    @Test
+    public void shouldBuildImageWhenThereIsNoImageWithSameKey() throws Exception {
+        when(docker.inspectImage(anyString())).thenThrow(new DockerException("not found", 404));
+        AtomicInteger builds = new AtomicInteger();
+
+        String image = imageCache.build(BUILD_KEY, ProgressMonitor.DEV_NULL, (repository, tag, monitor) -> {
+            assertEquals(repository, BUILD_CACHE_REPOSITORY);
+            assertEquals(tag, BUILD_KEY);
+            builds.incrementAndGet();
+        });
+
+        assertEquals(image, BUILD_CACHE_REPOSITORY + ':' + BUILD_KEY);
+        assertEquals(builds.get(), 1);
+        assertEquals(imageCache.getStatistics().get("build_cache_misses"), Long.valueOf(1));
+    }
+
+    @Test
+    public void shouldReuseImageBuiltWithSameKey() throws Exception {
+        when(docker.inspectImage(anyString())).thenReturn(imageCreatedAt(Instant.now().minus(10, ChronoUnit.MINUTES)));
+        AtomicInteger builds = new AtomicInteger();
+
+        String image = imageCache.build(BUILD_KEY, ProgressMonitor.DEV_NULL, (repository, tag, monitor) -> builds.incrementAndGet());
+
+        assertEquals(image, BUILD_CACHE_REPOSITORY + ':' + BUILD_KEY);
+        assertEquals(builds.get(), 0);
+        assertEquals(imageCache.getStatistics().get("build_cache_hits"), Long.valueOf(1));
+        verify(docker).inspectImage(BUILD_CACHE_REPOSITORY + ':' + BUILD_KEY);
+    }
+
+    @Test
+    public void shouldRebuildImageWhichIsTooOld() throws Exception {
+        when(docker.inspectImage(anyString())).thenReturn(imageCreatedAt(Instant.now().minus(2, ChronoUnit.HOURS)));
+        AtomicInteger builds = new AtomicInteger();
+
+        imageCache.build(BUILD_KEY, ProgressMonitor.DEV_NULL, (repository, tag, monitor) -> builds.incrementAndGet());
+
+        assertEquals(builds.get(), 1);
+    }
+
+    @Test
+    public void shouldNotDependOnOrderOfBuildArguments() throws Exception {
+        String first = DockerImageCache.buildKey("FROM ubuntu", ImmutableMap.of("a", "1", "b", "2"));
+        String second = DockerImageCache.buildKey("FROM ubuntu", ImmutableMap.of("b", "2", "a", "1"));
+        String third = DockerImageCache.buildKey("FROM ubuntu", ImmutableMap.of("a", "2", "b", "1"));
+
+        assertEquals(first, second);
+        assertNotEquals(first, third);
+    }
+
+    @Test(timeOut = 10_000)
+    public void shouldPerformConcurrentPullsOfSameImageOnce() throws Exception {
+        CountDownLatch pullStarted = new CountDownLatch(1);
+        CountDownLatch releasePull = new CountDownLatch(1);
+        AtomicInteger pulls = new AtomicInteger();
+        ProgressMonitor firstMonitor = mock(ProgressMonitor.class);
+        ProgressMonitor secondMonitor = mock(ProgressMonitor.class);
+        ProgressStatus status = new ProgressStatus();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> {
+                imageCache.pull("codenvy/ubuntu_jdk8:latest", null, firstMonitor, monitor -> {
+                    pulls.incrementAndGet();
+                    pullStarted.countDown();
+                    try {
+                        releasePull.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    monitor.updateProgress(status);
+                });
+                return null;
+            });
+            pullStarted.await();
+            Future<?> second = executor.submit(() -> {
+                imageCache.pull("codenvy/ubuntu_jdk8:latest", null, secondMonitor, monitor -> pulls.incrementAndGet());
+                return null;
+            });
+            while (imageCache.getStatistics().get("shared_operations") == 0) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            releasePull.countDown();
+            first.get();
+            second.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(pulls.get(), 1);
+        verify(firstMonitor).updateProgress(status);
+        verify(secondMonitor).updateProgress(status);
+    }
+
+    @Test(timeOut = 10_000)
+    public void shouldNotSharePullOfSameImageWithDifferentCredentials() throws Exception {
+        CountDownLatch pullStarted = new CountDownLatch(1);
+        CountDownLatch releasePull = new CountDownLatch(1);
+        AtomicInteger pulls = new AtomicInteger();
+        AuthConfigs firstCredentials = credentials("user1", "secret1");
+        AuthConfigs secondCredentials = credentials("user2", "secret2");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> {
+                imageCache.pull("registry.com/private:latest", firstCredentials, ProgressMonitor.DEV_NULL, monitor -> {
+                    pulls.incrementAndGet();
+                    pullStarted.countDown();
+                    try {
+                        releasePull.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return null;
+            });
+            pullStarted.await();
+            imageCache.pull("registry.com/private:latest", secondCredentials, ProgressMonitor.DEV_NULL,
+                            monitor -> pulls.incrementAndGet());
+            releasePull.countDown();
+            first.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(pulls.get(), 2);
+        assertEquals(imageCache.getStatistics().get("shared_operations"), Long.valueOf(0));
+    }
+
+    @Test
+    public void shouldComputeCredentialsKeyIndependentlyOfRegistriesOrder() throws Exception {
+        AuthConfigs first = credentials(ImmutableMap.of("a.com", authConfig("user", "1"),
+                                                         "b.com", authConfig("user", "2")));
+        AuthConfigs second = credentials(ImmutableMap.of("b.com", authConfig("user", "2"),
+                                                          "a.com", authConfig("user", "1")));
+
+        assertEquals(DockerImageCache.credentialsKey(first), DockerImageCache.credentialsKey(second));
+        assertNotEquals(DockerImageCache.credentialsKey(first), DockerImageCache.credentialsKey(null));
+        assertNotEquals(DockerImageCache.credentialsKey(first), DockerImageCache.credentialsKey(credentials("user", "1")));
+    }
+
+    @Test
+    public void shouldRemoveExpiredImagesOfBuildCache() throws Exception {
+        String expired = BUILD_CACHE_REPOSITORY + ":expired";
+        String fresh = BUILD_CACHE_REPOSITORY + ":fresh";
+        String other = "codenvy/ubuntu_jdk8:latest";
+        when(docker.listImages()).thenReturn(Arrays.asList(image(Instant.now().minus(2, ChronoUnit.HOURS), expired, "machine_image"),
+                                                           image(Instant.now().minus(10, ChronoUnit.MINUTES), fresh),
+                                                           image(Instant.now().minus(2, ChronoUnit.HOURS), other)));
+
+        imageCache.removeExpiredImages();
+
+        verify(docker).removeImage(expired);
+        verify(docker, never()).removeImage(fresh);
+        verify(docker, never()).removeImage(other);
+        verify(docker, never()).removeImage("machine_image");
+    }
+
+    @Test
+    public void shouldNotRemoveImagesOfBuildCacheWhenMaxAgeIsUnlimited() throws Exception {
+        imageCache = new DockerImageCache(dockerProvider, true, 0);
+
+        imageCache.removeExpiredImages();
+
+        verify(docker, never()).listImages();
+    }
+
+    private static Image image(Instant created, String... repoTags) {
+        Image image = new Image();
+        image.setCreated(created.getEpochSecond());
+        image.setRepoTags(repoTags);
+        return image;
+    }
+
+    private static ImageInfo imageCreatedAt(Instant created) {
+        ImageInfo info = new ImageInfo();
+        info.setCreated(created.toString());
+        return info;
+    }
+
+    private static AuthConfigs credentials(String username, String password) {
+        return credentials(ImmutableMap.of("registry.com", authConfig(username, password)));
+    }
+
+    private static AuthConfigs credentials(Map<String, AuthConfig> configs) {
+        AuthConfigs authConfigs = mock(AuthConfigs.class);
+        when(authConfigs.getConfigs()).thenReturn(configs);
+        return authConfigs;
+    }
+
+    private static AuthConfig authConfig(String username, String password) {
+        AuthConfig authConfig = mock(AuthConfig.class);
+        when(authConfig.getUsername()).thenReturn(username);
+        when(authConfig.getPassword()).thenReturn(password);
+        return authConfig;
+    }
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
+import org.eclipse.che.plugin.docker.client.json.Event;
+import org.eclipse.che.plugin.docker.client.json.ExecInfo;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests detection of the ends of execs by {@link DockerInstanceStopDetector} when docker events don't identify execs.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerInstanceStopDetectorTest {
+    @Mock
+    private EventService            eventService;
+    @Mock
+    private DockerConnectorProvider dockerProvider;
+    @Mock
+    private DockerConnector         docker;
+    @Mock
+    private Runnable                onRunningExit;
+    @Mock
+    private Runnable                onEndedExit;
+
+    private DockerInstanceStopDetector detector;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(dockerProvider.get()).thenReturn(docker);
+        detector = new DockerInstanceStopDetector(eventService, dockerProvider);
+    }
+
+    @Test
+    public void shouldNotifyOnlyAboutEndedExecs() throws Exception {
+        when(docker.getExecInfo("running")).thenReturn(execInfo(true));
+        when(docker.getExecInfo("ended")).thenReturn(execInfo(false));
+        detector.startExecDetection("container", "running", onRunningExit);
+        detector.startExecDetection("container", "ended", onEndedExit);
+
+        detector.pollExecs();
+        detector.pollExecs();
+
+        verify(onEndedExit, times(1)).run();
+        verify(onRunningExit, never()).run();
+        verify(docker, times(1)).getExecInfo("ended");
+    }
+
+    @Test
+    public void shouldNotifyAboutExecWhichIsNotFound() throws Exception {
+        when(docker.getExecInfo("ended")).thenThrow(new DockerException("no such exec", 404));
+        detector.startExecDetection("container", "ended", onEndedExit);
+
+        detector.pollExecs();
+
+        verify(onEndedExit).run();
+    }
+
+    @Test
+    public void shouldKeepDetectingExecWhichCantBeInspected() throws Exception {
+        when(docker.getExecInfo("running")).thenThrow(new IOException("connection refused"));
+        detector.startExecDetection("container", "running", onRunningExit);
+
+        detector.pollExecs();
+        detector.pollExecs();
+
+        verify(onRunningExit, never()).run();
+        verify(docker, times(2)).getExecInfo("running");
+    }
+
+    @Test
+    public void shouldNotInspectExecWhoseDetectionIsStopped() throws Exception {
+        detector.startExecDetection("container", "ended", onEndedExit);
+        detector.stopExecDetection("ended");
+
+        detector.pollExecs();
+
+        verify(docker, never()).getExecInfo("ended");
+    }
+
+    @Test
+    public void shouldInspectOnlyExecsOfContainerReportedByEvents() throws Exception {
+        when(docker.getExecInfo("running")).thenReturn(execInfo(true));
+        detector.startExecDetection("container", "running", onRunningExit);
+        detector.startExecDetection("other", "ended", onEndedExit);
+        DockerInstanceStopDetector.EventsProcessor processor = detector.new EventsProcessor();
+
+        processor.process(execDieEvent("container"));
+        processor.process(execDieEvent("container"));
+        processor.process(execDieEvent("unknown"));
+        detector.pollEventContainersExecs();
+
+        verify(docker, times(1)).getExecInfo("running");
+        verify(docker, never()).getExecInfo("ended");
+    }
+
+    @Test
+    public void shouldNotInspectExecsOnEventOfContainerWithoutDetectedExecs() throws Exception {
+        detector.startExecDetection("container", "running", onRunningExit);
+
+        detector.new EventsProcessor().process(execDieEvent("unknown"));
+        detector.pollEventContainersExecs();
+
+        verify(docker, never()).getExecInfo("running");
+    }
+
+    private static Event execDieEvent(String containerId) {
+        return new Event().withStatus("exec_die").withId(containerId);
+    }
+
+    private static ExecInfo execInfo(boolean running) {
+        ExecInfo execInfo = new ExecInfo();
+        execInfo.setRunning(running);
+        return execInfo;
+    }
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.machine;
 
+import org.eclipse.che.api.core.model.machine.Command;
 import org.eclipse.che.api.core.model.machine.Machine;
 import org.eclipse.che.api.core.model.machine.MachineConfig;
 import org.eclipse.che.api.core.model.machine.MachineSource;
@@ -20,6 +21,8 @@ import org.eclipse.che.api.machine.server.model.impl.MachineLimitsImpl;
 import org.eclipse.che.api.machine.server.model.impl.MachineConfigImpl;
 import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
 import org.eclipse.che.api.machine.server.model.impl.MachineSourceImpl;
+import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
+import org.eclipse.che.api.machine.server.spi.InstanceProcess;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
 import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
 import org.eclipse.che.plugin.docker.client.Exec;
@@ -31,6 +34,7 @@ import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
 import org.eclipse.che.plugin.docker.client.params.PushParams;
 import org.eclipse.che.plugin.docker.client.params.StartExecParams;
 import org.eclipse.che.plugin.docker.machine.node.DockerNode;
+import org.eclipse.che.plugin.docker.machine.stats.MachineStatsSampler;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -38,16 +42,24 @@ import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.List;
 
 import static java.lang.String.format;
+import static java.util.Collections.singletonList;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -71,6 +83,7 @@ public class DockerInstanceTest {
     private static final String        REPOSITORY   = "eclipse-che";
     private static final String        TAG          = "latest";
     private static final MachineStatus STATUS       = MachineStatus.RUNNING;
+    private static final long          RECONCILE_PERIOD_SEC = 60;
 
     @Mock
     private LogMessage                 logMessageMock;
@@ -84,12 +97,18 @@ public class DockerInstanceTest {
     private DockerInstanceStopDetector dockerInstanceStopDetectorMock;
     @Mock
     private LineConsumer               outputConsumer;
+    @Mock
+    private DockerMachineFactory       machineFactory;
+    @Mock
+    private MachineStatsSampler        statsSampler;
 
-    private DockerInstance dockerInstance;
+    private DockerSnapshotPusher snapshotPusher;
+    private DockerInstance       dockerInstance;
 
     @BeforeMethod
     public void setUp() throws IOException, MachineException {
         when(dockerConnectorProviderMock.get()).thenReturn(dockerConnectorMock);
+        snapshotPusher = new DockerSnapshotPusher(dockerConnectorProviderMock, 0);
         dockerInstance = getDockerInstance();
         when(dockerConnectorMock.createExec(any(CreateExecParams.class))).thenReturn(execMock);
         when(execMock.getId()).thenReturn(EXEC_ID);
@@ -171,6 +190,15 @@ public class DockerInstanceTest {
         verify(outputConsumer).close();
     }
 
+    @Test
+    public void shouldSampleResourcesUsageUntilDestroy() throws Exception {
+        verify(statsSampler).startSampling(MACHINE_ID, WORKSPACE_ID, CONTAINER);
+
+        dockerInstance.destroy();
+
+        verify(statsSampler).stopSampling(MACHINE_ID);
+    }
+
     @Test
     public void shouldSaveDockerInstanceStateIntoRepository() throws Exception {
         final String digest = "image12";
@@ -186,6 +214,23 @@ public class DockerInstanceTest {
         assertEquals(dockerMachineSource.getRegistry(), REGISTRY);
     }
 
+    @Test
+    public void shouldReturnSnapshotRightAfterCommitWhenPushIsPerformedInBackground() throws Exception {
+        snapshotPusher = mock(DockerSnapshotPusher.class);
+        when(snapshotPusher.isAsync()).thenReturn(true);
+        dockerInstance = getDockerInstance(getMachine(), REGISTRY, CONTAINER, IMAGE, true);
+
+        final MachineSource result = dockerInstance.saveToSnapshot();
+
+        DockerMachineSource dockerMachineSource = (DockerMachineSource)result;
+        assertEquals(dockerMachineSource.getTag(), TAG);
+        assertEquals(dockerMachineSource.getRegistry(), REGISTRY);
+        assertNull(dockerMachineSource.getDigest());
+        verify(dockerConnectorMock).commit(any(CommitParams.class));
+        verify(snapshotPusher).pushAsync(any(PushParams.class), anyString(), eq(outputConsumer));
+        verify(snapshotPusher, never()).push(any(PushParams.class), any(LineConsumer.class));
+    }
+
     @Test(expectedExceptions = MachineException.class)
     public void shouldThrowMachineExceptionWhenDockerCommitFailed() throws Exception{
         when(dockerConnectorMock.commit(any(CommitParams.class))).thenThrow(new IOException("err"));
@@ -202,6 +247,44 @@ public class DockerInstanceTest {
         dockerInstance.saveToSnapshot();
     }
 
+    @Test
+    public void shouldReturnAliveProcessesFromMemory() throws Exception {
+        InstanceProcess alive = mock(InstanceProcess.class);
+        when(alive.isAlive()).thenReturn(true);
+        InstanceProcess finished = mock(InstanceProcess.class);
+        when(machineFactory.createProcess(any(), any(), any(), any(), anyInt())).thenReturn(alive, finished);
+        when(logMessageMock.getContent()).thenReturn("");
+        dockerInstance.createProcess(mock(Command.class), null);
+        dockerInstance.createProcess(mock(Command.class), null);
+
+        List<InstanceProcess> first = dockerInstance.getProcesses();
+        List<InstanceProcess> second = dockerInstance.getProcesses();
+
+        assertEquals(first, singletonList(alive));
+        assertEquals(second, singletonList(alive));
+        // processes are reconciled with the container once per period
+        verify(dockerConnectorMock, times(1)).createExec(any(CreateExecParams.class));
+    }
+
+    @Test
+    public void shouldMarkProcessWhichIsNotRunningInContainerAsFinishedOnReconciliation() throws Exception {
+        DockerProcess process = new DockerProcess(dockerConnectorProviderMock,
+                                                  dockerInstanceStopDetectorMock,
+                                                  new CommandImpl("tail", "tail -f /dev/null", "custom"),
+                                                  CONTAINER,
+                                                  null,
+                                                  "/tmp/docker-exec-1.pid",
+                                                  1);
+        when(machineFactory.createProcess(any(), any(), any(), any(), anyInt())).thenReturn(process);
+        doNothing().when(dockerConnectorMock).startExec(any(StartExecParams.class), any());
+        dockerInstance.createProcess(mock(Command.class), null);
+        process.start();
+        // process was started long before reconciliation, but it's pid file is not reported as alive
+        process.reconcile(false, System.currentTimeMillis() + DockerProcess.START_GRACE_PERIOD_MS + 1);
+
+        assertTrue(dockerInstance.getProcesses().isEmpty());
+    }
+
     private DockerInstance getDockerInstance() throws MachineException {
         return getDockerInstance(getMachine(), REGISTRY, CONTAINER, IMAGE, false);
     }
@@ -211,7 +294,6 @@ public class DockerInstanceTest {
                                              String container,
                                              String image,
                                              boolean snapshotUseRegistry) throws MachineException {
-        DockerMachineFactory machineFactory = mock(DockerMachineFactory.class);
         when(machineFactory.createMetadata(any(), any(), any())).thenReturn(mock(DockerInstanceRuntimeInfo.class));
         return new DockerInstance(dockerConnectorProviderMock,
                                   registry,
@@ -224,7 +306,10 @@ public class DockerInstanceTest {
                                   outputConsumer,
                                   dockerInstanceStopDetectorMock,
                                   mock(DockerInstanceProcessesCleaner.class),
-                                  snapshotUseRegistry);
+                                  snapshotPusher,
+                                  statsSampler,
+                                  snapshotUseRegistry,
+                                  RECONCILE_PERIOD_SEC);
     }
 
     private Machine getMachine() {
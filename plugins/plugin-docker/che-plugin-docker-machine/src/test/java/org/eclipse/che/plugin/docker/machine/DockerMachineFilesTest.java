@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.Exec;
+import org.eclipse.che.plugin.docker.client.LogMessage;
+import org.eclipse.che.plugin.docker.client.MessageProcessor;
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
+import org.eclipse.che.plugin.docker.client.json.HostConfig;
+import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.eclipse.che.plugin.docker.client.params.GetResourceParams;
+import org.eclipse.che.plugin.docker.client.params.StartExecParams;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link DockerMachineFiles}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerMachineFilesTest {
+    private static final String CONTAINER = "container1";
+    private static final String CONTENT   = "line1\nline2\nline3\nline4\n";
+
+    @Mock
+    private DockerConnector docker;
+
+    private Path hostDir;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        hostDir = Files.createTempDirectory("machine-files");
+        Files.write(hostDir.resolve("file.txt"), CONTENT.getBytes(StandardCharsets.UTF_8));
+        ContainerInfo containerInfo = new ContainerInfo();
+        containerInfo.setHostConfig(new HostConfig().withBinds(hostDir + ":/projects:Z"));
+        when(docker.inspectContainer(CONTAINER)).thenReturn(containerInfo);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(hostDir.toFile());
+    }
+
+    @Test
+    public void shouldReadRangeOfRemoteFileFromArchive() throws Exception {
+        when(docker.getResource(GetResourceParams.create(CONTAINER, "/etc/file.txt"))).thenReturn(tar(CONTENT));
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, false);
+
+        try (InputStream content = files.read("/etc/file.txt", 6, 5)) {
+            assertEquals(new String(ByteStreams.toByteArray(content), StandardCharsets.UTF_8), "line2");
+        }
+    }
+
+    @Test
+    public void shouldReturnSizeOfRemoteFileFromArchiveHeader() throws Exception {
+        when(docker.getResource(GetResourceParams.create(CONTAINER, "/etc/file.txt"))).thenReturn(tar(CONTENT));
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, false);
+
+        assertEquals(files.size("/etc/file.txt"), CONTENT.length());
+    }
+
+    @Test(expectedExceptions = FileNotFoundException.class)
+    public void shouldThrowFileNotFoundExceptionWhenArchiveIsEmpty() throws Exception {
+        when(docker.getResource(any())).thenReturn(new ByteArrayInputStream(new byte[1024]));
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, false);
+
+        files.size("/etc/file.txt");
+    }
+
+    @Test
+    public void shouldTransferRangeOfFileFromMountedVolumeWithoutDockerApiCalls() throws Exception {
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, true);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long transferred = files.transferTo("/projects/file.txt", 12, 100, output);
+
+        assertEquals(transferred, 12);
+        assertEquals(output.toString("UTF-8"), "line3\nline4\n");
+        verify(docker, never()).getResource(any());
+    }
+
+    @Test
+    public void shouldReadLinesOfFileFromMountedVolumeLikeSed() throws Exception {
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, true);
+
+        assertEquals(files.readLines("/projects/file.txt", 2, 1), "line2\nline3");
+        assertEquals(files.readLines("/projects/file.txt", 3, 10), "line3\nline4");
+        assertEquals(files.readLines("/projects/file.txt", 10, 10), "");
+    }
+
+    @Test
+    public void shouldNotResolveLocalPathOutsideOfMountedVolume() throws Exception {
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, true);
+
+        assertEquals(files.resolveLocalPath("/projects/../etc/passwd"), null);
+        assertEquals(files.resolveLocalPath("/projects/file.txt"), hostDir.resolve("file.txt"));
+    }
+
+    @Test
+    public void shouldReadFileFromContainerWhenHostPathOfVolumeIsNotVisibleLocally() throws Exception {
+        ContainerInfo containerInfo = new ContainerInfo();
+        containerInfo.setHostConfig(new HostConfig().withBinds(hostDir.resolve("missing") + ":/data"));
+        when(docker.inspectContainer(CONTAINER)).thenReturn(containerInfo);
+        when(docker.getResource(GetResourceParams.create(CONTAINER, "/data/file.txt"))).thenReturn(tar(CONTENT));
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, true);
+
+        assertEquals(files.resolveLocalPath("/data/file.txt"), null);
+        assertEquals(files.size("/data/file.txt"), CONTENT.length());
+    }
+
+    @Test
+    public void shouldPassPathOfRemoteFileToSedAsPositionalParameter() throws Exception {
+        when(docker.createExec(any(CreateExecParams.class))).thenReturn(mock(Exec.class));
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, false);
+
+        files.readLines("/etc/my file.txt; rm -rf /", 2, 3);
+
+        ArgumentCaptor<CreateExecParams> captor = ArgumentCaptor.forClass(CreateExecParams.class);
+        verify(docker).createExec(captor.capture());
+        assertEquals(captor.getValue().getCmd(), new String[] {"/bin/sh", "-c", "sed -n '2, 5p' \"$1\"", "-",
+                                                               "/etc/my file.txt; rm -rf /"});
+    }
+
+    @Test(timeOut = 5000)
+    public void shouldStopFollowingFileWhenTimeoutExpires() throws Exception {
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, true);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        files.follow("/projects/file.txt", 6, output, 50, 300);
+
+        assertEquals(output.toString("UTF-8"), "line2\nline3\nline4\n");
+    }
+
+    @Test(timeOut = 5000)
+    public void shouldFollowRemoteFileByChunksIgnoringStandardError() throws Exception {
+        when(docker.createExec(any(CreateExecParams.class))).thenAnswer(invocation -> {
+            String command = ((CreateExecParams)invocation.getArguments()[0]).getCmd()[2];
+            Exec exec = mock(Exec.class);
+            when(exec.getId()).thenReturn(command);
+            return exec;
+        });
+        doAnswer(invocation -> {
+            String command = ((StartExecParams)invocation.getArguments()[0]).getExecId();
+            @SuppressWarnings("unchecked")
+            MessageProcessor<LogMessage> processor = (MessageProcessor<LogMessage>)invocation.getArguments()[1];
+            processor.process(new LogMessage(LogMessage.Type.STDOUT, Integer.toString(CONTENT.length())));
+            processor.process(new LogMessage(LogMessage.Type.STDERR, "tail: warning"));
+            if (command.contains("tail -c +7 ")) {
+                String appended = CONTENT.substring(6);
+                processor.process(new LogMessage(LogMessage.Type.STDOUT,
+                                                 Base64.getEncoder().encodeToString(appended.getBytes(StandardCharsets.UTF_8))));
+            }
+            return null;
+        }).when(docker).startExec(any(StartExecParams.class), any());
+        DockerMachineFiles files = new DockerMachineFiles(docker, CONTAINER, false);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        files.follow("/etc/file.txt", 6, output, 50, 300);
+
+        assertEquals(output.toString("UTF-8"), "line2\nline3\nline4\n");
+        ArgumentCaptor<CreateExecParams> captor = ArgumentCaptor.forClass(CreateExecParams.class);
+        verify(docker, atLeastOnce()).createExec(captor.capture());
+        assertTrue(captor.getAllValues().get(0).getCmd()[2].contains("-gt " + DockerMachineFiles.FOLLOW_CHUNK_SIZE));
+    }
+
+    private static InputStream tar(String content) {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        byte[] archive = new byte[512 + (data.length + 511) / 512 * 512 + 1024];
+        byte[] name = "file.txt".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(name, 0, archive, 0, name.length);
+        byte[] size = String.format("%011o", data.length).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(size, 0, archive, 124, size.length);
+        archive[156] = '0';
+        System.arraycopy(data, 0, archive, 512, data.length);
+        return new ByteArrayInputStream(archive);
+    }
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.Exec;
+import org.eclipse.che.plugin.docker.client.params.CreateExecParams;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests tracking of the {@link DockerProcess} state without executing commands in the container.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerProcessStateTest {
+    private static final String EXEC_ID = "exec1";
+
+    @Mock
+    private DockerConnectorProvider    dockerProvider;
+    @Mock
+    private DockerConnector            docker;
+    @Mock
+    private DockerInstanceStopDetector stopDetector;
+    @Mock
+    private Exec                       exec;
+
+    private DockerProcess process;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(dockerProvider.get()).thenReturn(docker);
+        when(docker.createExec(any(CreateExecParams.class))).thenReturn(exec);
+        when(exec.getId()).thenReturn(EXEC_ID);
+        process = new DockerProcess(dockerProvider,
+                                    stopDetector,
+                                    new CommandImpl("tail", "tail -f /dev/null", "custom"),
+                                    "container",
+                                    null,
+                                    "/tmp/docker-exec-1.pid",
+                                    1);
+    }
+
+    @Test
+    public void shouldNotBeAliveBeforeStart() throws Exception {
+        assertFalse(process.isAlive());
+    }
+
+    @Test
+    public void shouldBeFinishedWhenExecWithOutputReturns() throws Exception {
+        process.start(LineConsumer.DEV_NULL);
+
+        assertFalse(process.isAlive());
+    }
+
+    @Test
+    public void shouldBeAliveUntilDetachedExecIsReportedFinished() throws Exception {
+        process.start();
+
+        assertTrue(process.isAlive());
+        process.checkAlive();
+        // state is checked without executing commands in the container
+        verify(docker, times(1)).createExec(any(CreateExecParams.class));
+
+        ArgumentCaptor<Runnable> onExit = ArgumentCaptor.forClass(Runnable.class);
+        verify(stopDetector).startExecDetection(eq("container"), eq(EXEC_ID), onExit.capture());
+        onExit.getValue().run();
+
+        assertFalse(process.isAlive());
+        verify(stopDetector).stopExecDetection(EXEC_ID);
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void shouldThrowNotFoundExceptionOnCheckOfFinishedProcess() throws Exception {
+        process.start(LineConsumer.DEV_NULL);
+
+        process.checkAlive();
+    }
+
+    @Test
+    public void shouldBeFinishedAfterKill() throws Exception {
+        process.start();
+
+        process.kill();
+
+        assertFalse(process.isAlive());
+        verify(stopDetector).stopExecDetection(EXEC_ID);
+    }
+
+    @Test
+    public void shouldNotBeFinishedByReconciliationRightAfterStart() throws Exception {
+        process.start();
+
+        process.reconcile(false, System.currentTimeMillis());
+
+        assertTrue(process.isAlive());
+    }
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine;
+
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.ProgressMonitor;
+import org.eclipse.che.plugin.docker.client.exception.ImageNotFoundException;
+import org.eclipse.che.plugin.docker.client.json.ImageInfo;
+import org.eclipse.che.plugin.docker.client.json.ProgressDetail;
+import org.eclipse.che.plugin.docker.client.json.ProgressStatus;
+import org.eclipse.che.plugin.docker.client.params.PushParams;
+import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link DockerSnapshotPusher}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class DockerSnapshotPusherTest {
+    private static final String REGISTRY   = "localhost:5000";
+    private static final String REPOSITORY = "machine_snapshot_abc";
+    private static final String TAG        = "latest";
+    private static final String IMAGE      = REGISTRY + '/' + REPOSITORY + ':' + TAG;
+    private static final String DIGEST     = "sha256:123";
+    private static final String MACHINE    = DockerSnapshotPusher.machineKey("workspace123", "default", "dev-machine");
+
+    @Mock
+    private DockerConnectorProvider dockerProvider;
+    @Mock
+    private DockerConnector         docker;
+    @Mock
+    private LineConsumer            output;
+
+    private DockerSnapshotPusher pusher;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(dockerProvider.get()).thenReturn(docker);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        pusher.stop();
+    }
+
+    @Test
+    public void shouldPushSnapshotAndRemoveItLocally() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 0);
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenReturn(DIGEST);
+
+        String digest = pusher.push(pushParams(), output);
+
+        assertEquals(digest, DIGEST);
+        verify(docker).removeImage(RemoveImageParams.create(IMAGE).withForce(false));
+    }
+
+    @Test
+    public void shouldWaitUntilCommittedImageIsVisible() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 0);
+        when(docker.inspectImage(IMAGE)).thenThrow(new ImageNotFoundException("not found"))
+                                        .thenReturn(new ImageInfo());
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenReturn(DIGEST);
+
+        assertEquals(pusher.push(pushParams(), output), DIGEST);
+    }
+
+    @Test
+    public void shouldReportReusedAndUploadedLayers() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 0);
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenAnswer(invocation -> {
+            ProgressMonitor monitor = (ProgressMonitor)invocation.getArguments()[1];
+            monitor.updateProgress(status("base", "Layer already exists", 0));
+            monitor.updateProgress(status("diff", "Pushing", 2048));
+            monitor.updateProgress(status("diff", "Pushed", 0));
+            return DIGEST;
+        });
+
+        pusher.push(pushParams(), output);
+
+        assertEquals(pusher.getStatistics().get("reused_layers"), Long.valueOf(1));
+        assertEquals(pusher.getStatistics().get("uploaded_layers"), Long.valueOf(1));
+        assertEquals(pusher.getStatistics().get("uploaded_bytes"), Long.valueOf(2048));
+        verify(output).writeLine(contains("1 layers uploaded"));
+    }
+
+    @Test
+    public void shouldWaitForBackgroundPush() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 1);
+        CountDownLatch pushStarted = new CountDownLatch(1);
+        CountDownLatch pushAllowed = new CountDownLatch(1);
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenAnswer(invocation -> {
+            pushStarted.countDown();
+            pushAllowed.await();
+            return DIGEST;
+        });
+
+        pusher.pushAsync(pushParams(), MACHINE, output);
+
+        assertTrue(pushStarted.await(1, TimeUnit.SECONDS));
+        assertEquals(pusher.getStatistics().get("pending_pushes"), Long.valueOf(1));
+        when(docker.inspectImage(REGISTRY + "/another:" + TAG)).thenThrow(new ImageNotFoundException("not found"));
+        assertNull(pusher.awaitPush(REGISTRY, "another", TAG));
+        ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> awaited = waiter.submit(() -> pusher.awaitPush(REGISTRY, REPOSITORY, TAG));
+            Thread.sleep(100);
+            assertFalse(awaited.isDone());
+
+            pushAllowed.countDown();
+
+            assertEquals(awaited.get(1, TimeUnit.SECONDS), DIGEST);
+        } finally {
+            waiter.shutdownNow();
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldKeepSnapshotLocallyIfBackgroundPushFailed() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 1);
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenThrow(new IOException("err"));
+
+        pusher.pushAsync(pushParams(), MACHINE, output);
+
+        verify(output, timeout(1000)).writeLine(contains("Failed to push snapshot"));
+        verify(docker, never()).removeImage(any(RemoveImageParams.class));
+        pusher.awaitPush(REGISTRY, REPOSITORY, TAG);
+    }
+
+    @Test
+    public void shouldForgetFailedPush() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 1);
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenThrow(new IOException("err"));
+        pusher.pushAsync(pushParams(), MACHINE, output);
+        verify(output, timeout(1000)).writeLine(contains("Failed to push snapshot"));
+
+        pusher.forget(REGISTRY, REPOSITORY, TAG);
+        when(docker.inspectImage(IMAGE)).thenThrow(new ImageNotFoundException("removed"));
+
+        assertNull(pusher.awaitPush(REGISTRY, REPOSITORY, TAG));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldReportSnapshotLeftLocallyAsNotPushed() throws Exception {
+        // e.g. push was interrupted by the restart of the server
+        pusher = new DockerSnapshotPusher(dockerProvider, 1);
+        when(docker.inspectImage(IMAGE)).thenReturn(new ImageInfo());
+
+        pusher.awaitPush(REGISTRY, REPOSITORY, TAG);
+    }
+
+    @Test
+    public void shouldNotDeferActionWithoutPendingPushes() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 1);
+        Runnable action = mock(Runnable.class);
+
+        assertFalse(pusher.deferUntilPushed(REGISTRY, "old_snapshot", TAG, MACHINE, action));
+
+        verify(action, never()).run();
+    }
+
+    @Test
+    public void shouldRunDeferredActionWhenPendingPushIsFinished() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 1);
+        CountDownLatch pushAllowed = new CountDownLatch(1);
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenAnswer(invocation -> {
+            pushAllowed.await();
+            return DIGEST;
+        });
+        Runnable action = mock(Runnable.class);
+        pusher.pushAsync(pushParams(), MACHINE, output);
+
+        assertTrue(pusher.deferUntilPushed(REGISTRY, "old_snapshot", TAG, MACHINE, action));
+        Thread.sleep(100);
+        verify(action, never()).run();
+
+        pushAllowed.countDown();
+
+        verify(action, timeout(1000)).run();
+    }
+
+    @Test
+    public void shouldNotRunDeferredActionIfPendingPushFailed() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 1);
+        CountDownLatch pushAllowed = new CountDownLatch(1);
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenAnswer(invocation -> {
+            pushAllowed.await();
+            throw new IOException("err");
+        });
+        Runnable action = mock(Runnable.class);
+        pusher.pushAsync(pushParams(), MACHINE, output);
+        assertTrue(pusher.deferUntilPushed(REGISTRY, "old_snapshot", TAG, MACHINE, action));
+
+        pushAllowed.countDown();
+
+        verify(output, timeout(1000)).writeLine(contains("Failed to push snapshot"));
+        pusher.stop();
+        verify(action, never()).run();
+    }
+
+    @Test
+    public void shouldNotWaitForPushOfSnapshotOfAnotherMachine() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 1);
+        CountDownLatch pushAllowed = new CountDownLatch(1);
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenAnswer(invocation -> {
+            pushAllowed.await();
+            return DIGEST;
+        });
+        pusher.pushAsync(pushParams(), MACHINE, output);
+
+        try {
+            assertFalse(pusher.deferUntilPushed(REGISTRY,
+                                                "old_snapshot",
+                                                TAG,
+                                                DockerSnapshotPusher.machineKey("workspace123", "default", "db"),
+                                                mock(Runnable.class)));
+        } finally {
+            pushAllowed.countDown();
+        }
+    }
+
+    @Test
+    public void shouldNotWaitForPushOfSnapshotWhichIsRemoved() throws Exception {
+        pusher = new DockerSnapshotPusher(dockerProvider, 1);
+        CountDownLatch pushAllowed = new CountDownLatch(1);
+        when(docker.push(any(PushParams.class), any(ProgressMonitor.class))).thenAnswer(invocation -> {
+            pushAllowed.await();
+            return DIGEST;
+        });
+        pusher.pushAsync(pushParams(), MACHINE, output);
+
+        try {
+            assertFalse(pusher.deferUntilPushed(REGISTRY, REPOSITORY, TAG, MACHINE, mock(Runnable.class)));
+        } finally {
+            pushAllowed.countDown();
+        }
+    }
+
+    private static PushParams pushParams() {
+        return PushParams.create(REPOSITORY).withRegistry(REGISTRY).withTag(TAG);
+    }
+
+    private static ProgressStatus status(String id, String status, long total) {
+        ProgressStatus progressStatus = new ProgressStatus();
+        progressStatus.setId(id);
+        progressStatus.setStatus(status);
+        if (total > 0) {
+            ProgressDetail detail = new ProgressDetail();
+            detail.setCurrent(total);
+            detail.setTotal(total);
+            progressStatus.setProgressDetail(detail);
+        }
+        return progressStatus;
+    }
+}
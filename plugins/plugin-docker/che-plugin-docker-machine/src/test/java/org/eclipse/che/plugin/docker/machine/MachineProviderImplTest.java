@@ -31,16 +31,20 @@ import org.eclipse.che.plugin.docker.client.json.ContainerConfig;
 import org.eclipse.che.plugin.docker.client.json.ContainerCreated;
 import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
 import org.eclipse.che.plugin.docker.client.json.ContainerState;
+import org.eclipse.che.plugin.docker.client.json.ImageInfo;
 import org.eclipse.che.plugin.docker.client.json.Volume;
 import org.eclipse.che.plugin.docker.client.params.CreateContainerParams;
 import org.eclipse.che.plugin.docker.client.params.InspectContainerParams;
 import org.eclipse.che.plugin.docker.client.params.PullParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveImageParams;
+import org.eclipse.che.plugin.docker.client.params.RenameContainerParams;
 import org.eclipse.che.plugin.docker.client.params.StartContainerParams;
 import org.eclipse.che.plugin.docker.client.params.TagParams;
+import org.eclipse.che.plugin.docker.client.params.network.ConnectContainerToNetworkParams;
 import org.eclipse.che.plugin.docker.machine.node.DockerNode;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.AfterMethod;
@@ -73,6 +77,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -124,6 +129,12 @@ public class MachineProviderImplTest {
     @Mock
     private WindowsPathEscaper pathEscaper;
 
+    @Mock
+    private DockerContainerPool containerPool;
+
+    @Mock
+    private DockerSnapshotPusher snapshotPusher;
+
     private MachineProviderImpl provider;
 
     private class MockConnectorProvider extends DockerConnectorProvider {
@@ -178,6 +189,38 @@ public class MachineProviderImplTest {
         verify(dockerConnector).pull(eq(pullParams), any(ProgressMonitor.class));
     }
 
+    @Test
+    public void shouldWaitForBackgroundPushBeforePullOfSnapshotFromRegistry() throws Exception {
+        String repo = MACHINE_SNAPSHOT_PREFIX + "repo";
+        String tag = "latest";
+        String registry = "localhost:1234";
+        provider = spy(new MachineProviderBuilder().setSnapshotPusher(snapshotPusher)
+                                                   .build());
+
+        createInstanceFromSnapshot(repo, tag, registry);
+
+        InOrder inOrder = inOrder(snapshotPusher, dockerConnector);
+        inOrder.verify(snapshotPusher).awaitPush(registry, repo, tag);
+        inOrder.verify(dockerConnector).pull(eq(PullParams.create(repo).withRegistry(registry).withTag(tag)),
+                                             any(ProgressMonitor.class));
+    }
+
+    @Test
+    public void shouldUseLocalSnapshotImageIfBackgroundPushFailed() throws Exception {
+        String repo = MACHINE_SNAPSHOT_PREFIX + "repo";
+        String tag = "latest";
+        String registry = "localhost:1234";
+        when(snapshotPusher.awaitPush(registry, repo, tag)).thenThrow(new IOException("push failed"));
+        provider = spy(new MachineProviderBuilder().setSnapshotPusher(snapshotPusher)
+                                                   .build());
+
+        createInstanceFromSnapshot(repo, tag, registry);
+
+        verify(dockerConnector, never()).pull(any(PullParams.class), any(ProgressMonitor.class));
+        verify(dockerConnector).tag(any(TagParams.class));
+        verify(dockerConnector, never()).removeImage(any(RemoveImageParams.class));
+    }
+
     @Test
     public void shouldNotPullDockerImageOnInstanceCreationFromLocalSnapshot() throws Exception {
         String repo = MACHINE_SNAPSHOT_PREFIX + "repo";
@@ -293,6 +336,16 @@ public class MachineProviderImplTest {
         assertTrue(argumentCaptor.getValue().getContainerConfig().getHostConfig().isPublishAllPorts());
     }
 
+    @Test
+    public void shouldLabelContainerAsCreatedByChe() throws Exception {
+        createInstanceFromRecipe();
+
+        ArgumentCaptor<CreateContainerParams> argumentCaptor = ArgumentCaptor.forClass(CreateContainerParams.class);
+        verify(dockerConnector).createContainer(argumentCaptor.capture());
+        assertEquals(argumentCaptor.getValue().getContainerConfig().getLabels().get(MachineProviderImpl.CHE_CONTAINER_LABEL),
+                     "true");
+    }
+
     @Test
     public void shouldStartContainerOnCreateInstanceFromRecipe() throws Exception {
         createInstanceFromRecipe();
@@ -1427,6 +1480,68 @@ public class MachineProviderImplTest {
                               LineConsumer.DEV_NULL);
     }
 
+    @Test
+    public void shouldClaimPooledContainerForNonDevMachine() throws Exception {
+        String pooledContainer = "pooled";
+        when(containerPool.isEnabled()).thenReturn(true);
+        when(containerPool.claim(any(ContainerConfig.class))).thenReturn(pooledContainer);
+        ImageInfo imageInfo = new ImageInfo();
+        imageInfo.setId("imageId");
+        when(dockerConnector.inspectImage(anyString())).thenReturn(imageInfo);
+        provider = spy(new MachineProviderBuilder().setContainerPool(containerPool)
+                                                   .build());
+        CheServiceImpl service = createService();
+        service.setLinks(null);
+        service.setVolumesFrom(null);
+
+        createInstanceFromRecipe(service, false);
+
+        ArgumentCaptor<ContainerConfig> configCaptor = ArgumentCaptor.forClass(ContainerConfig.class);
+        verify(containerPool).claim(configCaptor.capture());
+        assertEquals(configCaptor.getValue().getImage(), "imageId");
+        assertEquals(configCaptor.getValue().getNetworkingConfig(), null);
+        verify(dockerConnector).renameContainer(RenameContainerParams.create(pooledContainer, service.getContainerName()));
+        ArgumentCaptor<ConnectContainerToNetworkParams> connectCaptor = ArgumentCaptor.forClass(ConnectContainerToNetworkParams.class);
+        verify(dockerConnector).connectContainerToNetwork(connectCaptor.capture());
+        assertEquals(connectCaptor.getValue().getNetworkId(), NETWORK_NAME);
+        assertEquals(connectCaptor.getValue().getConnectContainer().getEndpointConfig().getAliases(), new String[] {MACHINE_NAME});
+        verify(dockerConnector, never()).createContainer(any(CreateContainerParams.class));
+        verify(dockerConnector).startContainer(StartContainerParams.create(pooledContainer));
+    }
+
+    @Test
+    public void shouldCreateContainerWhenPoolHasNoContainerWithSameConfig() throws Exception {
+        when(containerPool.isEnabled()).thenReturn(true);
+        ImageInfo imageInfo = new ImageInfo();
+        imageInfo.setId("imageId");
+        when(dockerConnector.inspectImage(anyString())).thenReturn(imageInfo);
+        provider = spy(new MachineProviderBuilder().setContainerPool(containerPool)
+                                                   .build());
+        CheServiceImpl service = createService();
+        service.setLinks(null);
+        service.setVolumesFrom(null);
+
+        createInstanceFromRecipe(service, false);
+
+        verify(containerPool).claim(any(ContainerConfig.class));
+        verify(dockerConnector).createContainer(any(CreateContainerParams.class));
+    }
+
+    @Test
+    public void shouldNotClaimPooledContainerForDevMachine() throws Exception {
+        when(containerPool.isEnabled()).thenReturn(true);
+        provider = spy(new MachineProviderBuilder().setContainerPool(containerPool)
+                                                   .build());
+        CheServiceImpl service = createService();
+        service.setLinks(null);
+        service.setVolumesFrom(null);
+
+        createInstanceFromRecipe(service, true);
+
+        verify(containerPool, never()).claim(any(ContainerConfig.class));
+        verify(dockerConnector).createContainer(any(CreateContainerParams.class));
+    }
+
     private CheServiceImpl createService() {
         CheServiceImpl service = new CheServiceImpl();
         service.setId("testId");
@@ -1465,7 +1580,9 @@ public class MachineProviderImplTest {
         private String           cpuSet;
         private long             cpuPeriod;
         private long             cpuQuota;
-        private String[]         dnsResolvers;
+        private String[]             dnsResolvers;
+        private DockerContainerPool  containerPool;
+        private DockerSnapshotPusher snapshotPusher;
 
         public MachineProviderBuilder() {
             devMachineEnvVars = emptySet();
@@ -1568,12 +1685,29 @@ public class MachineProviderImplTest {
             return this;
         }
 
+        public MachineProviderBuilder setContainerPool(DockerContainerPool containerPool) {
+            this.containerPool = containerPool;
+            return this;
+        }
+
+        public MachineProviderBuilder setSnapshotPusher(DockerSnapshotPusher snapshotPusher) {
+            this.snapshotPusher = snapshotPusher;
+            return this;
+        }
+
 
         MachineProviderImpl build() throws IOException {
             return new MachineProviderImpl(new MockConnectorProvider(),
                                            credentialsReader,
                                            dockerMachineFactory,
                                            dockerInstanceStopDetector,
+                                           new DockerImageCache(new MockConnectorProvider(), false, 0),
+                                           containerPool != null ?
+                                           containerPool :
+                                           new DockerContainerPool(new MockConnectorProvider(), 0, 0, 0, 1024),
+                                           snapshotPusher != null ?
+                                           snapshotPusher :
+                                           new DockerSnapshotPusher(new MockConnectorProvider(), 0),
                                            devMachineServers,
                                            allMachineServers,
                                            devMachineVolumes,
@@ -15,21 +15,32 @@ import org.eclipse.che.api.environment.server.CheEnvironmentEngine;
 import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
 import org.eclipse.che.api.machine.server.spi.Instance;
 import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
+import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
 import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.exception.DockerException;
+import org.eclipse.che.plugin.docker.client.json.ContainerInfo;
 import org.eclipse.che.plugin.docker.client.json.ContainerListEntry;
+import org.eclipse.che.plugin.docker.client.json.ContainerState;
+import org.eclipse.che.plugin.docker.client.json.Event;
 import org.eclipse.che.plugin.docker.client.json.network.ContainerInNetwork;
 import org.eclipse.che.plugin.docker.client.json.network.Network;
+import org.eclipse.che.plugin.docker.client.params.ListContainersParams;
 import org.eclipse.che.plugin.docker.client.params.RemoveContainerParams;
+import org.eclipse.che.plugin.docker.client.params.network.GetNetworksParams;
 import org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -39,9 +50,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static java.util.Optional.of;
 import static org.eclipse.che.plugin.docker.machine.DockerContainerNameGenerator.ContainerNameInfo;
+import static org.eclipse.che.plugin.docker.machine.MachineProviderImpl.CHE_CONTAINER_LABEL;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
@@ -52,6 +66,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
 /**
  * Test for {@link DockerAbandonedResourcesCleaner}
@@ -150,7 +165,9 @@ public class DockerAbandonedResourcesCleanerTest {
                                                           dockerConnectorProvider,
                                                           nameGenerator,
                                                           workspaceRuntimes,
-                                                          additionalNetworks));
+                                                          additionalNetworks,
+                                                          2,
+                                                          null));
 
         when(environmentEngine.getMachine(workspaceId1, machineId1)).thenReturn(instance);
         when(environmentEngine.getMachine(workspaceId2, machineId2)).thenThrow(new NotFoundException("test"));
@@ -199,6 +216,11 @@ public class DockerAbandonedResourcesCleanerTest {
         when(additionalNetwork.getContainers()).thenReturn(additionalNetworkContainers);
     }
 
+    @AfterMethod
+    public void tearDown() throws Exception {
+        cleaner.stop();
+    }
+
     @Test
     public void cleanerShouldRunCleanOfContainerAndThenCleanOfNetworks() {
         // when
@@ -347,7 +369,9 @@ public class DockerAbandonedResourcesCleanerTest {
                                                           dockerConnectorProvider,
                                                           nameGenerator,
                                                           workspaceRuntimes,
-                                                          additionalNetworks));
+                                                          additionalNetworks,
+                                                          2,
+                                                          null));
         networks.add(additionalNetwork);
 
         // when
@@ -367,7 +391,9 @@ public class DockerAbandonedResourcesCleanerTest {
                                                           dockerConnectorProvider,
                                                           nameGenerator,
                                                           workspaceRuntimes,
-                                                          additionalNetworks));
+                                                          additionalNetworks,
+                                                          2,
+                                                          null));
 
         when(additionalNetwork.getName()).thenReturn(additionalNetworkName);
         networks.add(additionalNetwork);
@@ -427,4 +453,120 @@ public class DockerAbandonedResourcesCleanerTest {
         verify(dockerConnector).removeNetwork(abandonedNetworkId);
     }
 
+    @Test
+    public void shouldListOnlyLabeledContainersAfterFirstCleanUp() throws Exception {
+        when(dockerConnector.listContainers(any(ListContainersParams.class))).thenReturn(singletonList(container2));
+
+        cleaner.cleanContainers();
+        cleaner.cleanContainers();
+
+        verify(dockerConnector).listContainers();
+        ArgumentCaptor<ListContainersParams> captor = ArgumentCaptor.forClass(ListContainersParams.class);
+        verify(dockerConnector).listContainers(captor.capture());
+        assertEquals(captor.getValue().getFilters().getFilters().get("label"), singletonList(CHE_CONTAINER_LABEL));
+    }
+
+    @Test
+    public void shouldCleanUpDiedContainerWhichIsNotTrackedByApi() throws Exception {
+        ContainerInfo containerInfo = mock(ContainerInfo.class);
+        ContainerState state = mock(ContainerState.class);
+        when(dockerConnector.inspectContainer(containerId2)).thenReturn(containerInfo);
+        when(containerInfo.getName()).thenReturn(containerName2);
+        when(containerInfo.getState()).thenReturn(state);
+        networks.add(abandonedNetwork);
+
+        cleaner.reconcileContainer(containerId2, 100);
+
+        verify(dockerConnector, never()).killContainer(containerId2);
+        verify(dockerConnector).removeContainer(RemoveContainerParams.create(containerId2).withForce(true).withRemoveVolumes(true));
+        ArgumentCaptor<GetNetworksParams> captor = ArgumentCaptor.forClass(GetNetworksParams.class);
+        verify(dockerConnector).getNetworks(captor.capture());
+        assertEquals(captor.getValue().getFilters().getFilters().get("name"), singletonList(workspaceId2));
+        verify(dockerConnector).removeNetwork(abandonedNetworkId);
+        assertEquals(cleaner.getStatistics().get("cleaned_containers"), Long.valueOf(1));
+    }
+
+    @Test
+    public void shouldNotCleanUpDiedContainerWhichIsTrackedByApi() throws Exception {
+        ContainerInfo containerInfo = mock(ContainerInfo.class);
+        when(dockerConnector.inspectContainer(containerId1)).thenReturn(containerInfo);
+        when(containerInfo.getName()).thenReturn(containerName1);
+
+        cleaner.reconcileContainer(containerId1, 100);
+
+        verify(dockerConnector, never()).removeContainer(any(RemoveContainerParams.class));
+    }
+
+    @Test
+    public void shouldIgnoreDiedContainerWhichIsAlreadyRemoved() throws Exception {
+        when(dockerConnector.inspectContainer(containerId2)).thenThrow(new DockerException("not found", 404));
+
+        cleaner.reconcileContainer(containerId2, 100);
+
+        verify(dockerConnector, never()).removeContainer(any(RemoveContainerParams.class));
+    }
+
+    @Test
+    public void shouldScheduleCheckOfDiedContainer() throws Exception {
+        Event event = new Event().withStatus("die")
+                                 .withId(containerId2)
+                                 .withTime(System.currentTimeMillis() / 1000);
+
+        cleaner.onEvent(event);
+
+        assertEquals(cleaner.getStatistics().get("processed_events"), Long.valueOf(1));
+        assertEquals(cleaner.getStatistics().get("backlog"), Long.valueOf(1));
+    }
+
+    @Test
+    public void shouldPersistTimeOfTheLastReconciledEvent() throws Exception {
+        Path storage = Files.createTempDirectory("cleaner");
+        try {
+            cleaner = new DockerAbandonedResourcesCleaner(environmentEngine,
+                                                          dockerConnectorProvider,
+                                                          nameGenerator,
+                                                          workspaceRuntimes,
+                                                          additionalNetworks,
+                                                          1,
+                                                          storage.toString());
+            when(dockerConnector.inspectContainer(anyString())).thenThrow(new DockerException("not found", 404));
+
+            cleaner.reconcileContainer(containerId2, 100);
+            cleaner.reconcileContainer(containerId3, 50);
+
+            Path watermark = storage.resolve(DockerAbandonedResourcesCleaner.WATERMARK_FILE);
+            assertEquals(new String(Files.readAllBytes(watermark), UTF_8), "100");
+        } finally {
+            IoUtil.deleteRecursive(storage.toFile());
+        }
+    }
+
+    @Test
+    public void shouldNotPersistTimeAfterEventWhichIsNotReconciledYet() throws Exception {
+        Path storage = Files.createTempDirectory("cleaner");
+        try {
+            cleaner = new DockerAbandonedResourcesCleaner(environmentEngine,
+                                                          dockerConnectorProvider,
+                                                          nameGenerator,
+                                                          workspaceRuntimes,
+                                                          additionalNetworks,
+                                                          1,
+                                                          storage.toString());
+            when(dockerConnector.inspectContainer(anyString())).thenThrow(new DockerException("not found", 404));
+            Path watermark = storage.resolve(DockerAbandonedResourcesCleaner.WATERMARK_FILE);
+
+            cleaner.onEvent(new Event().withStatus("die").withId(containerId2).withTime(50));
+            cleaner.onEvent(new Event().withStatus("die").withId(containerId3).withTime(100));
+            cleaner.reconcileContainer(containerId3, 100);
+
+            assertEquals(new String(Files.readAllBytes(watermark), UTF_8), "50");
+
+            cleaner.reconcileContainer(containerId2, 50);
+
+            assertEquals(new String(Files.readAllBytes(watermark), UTF_8), "100");
+        } finally {
+            cleaner.stop();
+            IoUtil.deleteRecursive(storage.toFile());
+        }
+    }
 }
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.machine.stats;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.plugin.docker.client.DockerConnector;
+import org.eclipse.che.plugin.docker.client.DockerConnectorProvider;
+import org.eclipse.che.plugin.docker.client.exception.ContainerNotFoundException;
+import org.eclipse.che.plugin.docker.client.json.stats.ContainerStats;
+import org.eclipse.che.plugin.docker.client.json.stats.CpuStats;
+import org.eclipse.che.plugin.docker.client.json.stats.CpuUsage;
+import org.eclipse.che.plugin.docker.client.json.stats.MemoryStats;
+import org.eclipse.che.plugin.docker.client.json.stats.NetworkStats;
+import org.eclipse.che.plugin.docker.client.params.GetContainerStatsParams;
+import org.eclipse.che.plugin.docker.machine.stats.MachineResourceThresholdEvent.Resource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link MachineStatsSampler}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class MachineStatsSamplerTest {
+    private static final String MACHINE_ID   = "machine1";
+    private static final String WORKSPACE_ID = "workspace1";
+    private static final String CONTAINER    = "container1";
+    private static final long   GB           = 1024 * 1024 * 1024;
+
+    @Mock
+    private DockerConnectorProvider dockerProvider;
+    @Mock
+    private DockerConnector         docker;
+    @Mock
+    private EventService            eventService;
+
+    private MachineStatsSampler sampler;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(dockerProvider.get()).thenReturn(docker);
+        // period is long enough to not interfere with the samples taken by tests
+        sampler = new MachineStatsSampler(dockerProvider, eventService, 3600, 2, 2, 90, 90);
+        sampler.startSampling(MACHINE_ID, WORKSPACE_ID, CONTAINER);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        sampler.stop();
+    }
+
+    @Test
+    public void shouldComputeUsageFromStats() throws Exception {
+        when(docker.getContainerStats(GetContainerStatsParams.create(CONTAINER))).thenReturn(stats(1000, 1000, GB / 2))
+                                                                               .thenReturn(stats(1500, 2000, GB / 2));
+
+        sampler.sample(MACHINE_ID);
+        sampler.sample(MACHINE_ID);
+
+        List<MachineStatsSample> samples = sampler.getSamples(MACHINE_ID);
+        assertEquals(samples.size(), 2);
+        MachineStatsSample sample = samples.get(1);
+        // half of the system CPU time on 2 cores
+        assertEquals(sample.getCpuPercent(), 100.0);
+        assertEquals(sample.getMemoryBytes(), GB / 2 - 1024);
+        assertEquals(sample.getNetworkRxBytes(), 10);
+        assertEquals(sample.getNetworkTxBytes(), 20);
+    }
+
+    @Test
+    public void shouldKeepOnlyConfiguredNumberOfLatestSamples() throws Exception {
+        when(docker.getContainerStats(GetContainerStatsParams.create(CONTAINER))).thenReturn(stats(0, 0, 1024 + 1))
+                                                                               .thenReturn(stats(0, 0, 1024 + 2))
+                                                                               .thenReturn(stats(0, 0, 1024 + 3));
+
+        sampler.sample(MACHINE_ID);
+        sampler.sample(MACHINE_ID);
+        sampler.sample(MACHINE_ID);
+
+        List<MachineStatsSample> samples = sampler.getSamples(MACHINE_ID);
+        assertEquals(samples.size(), 2);
+        assertEquals(samples.get(0).getMemoryBytes(), 2);
+        assertEquals(samples.get(1).getMemoryBytes(), 3);
+    }
+
+    @Test
+    public void shouldPublishEventOnlyWhenThresholdIsCrossed() throws Exception {
+        when(docker.getContainerStats(GetContainerStatsParams.create(CONTAINER))).thenReturn(stats(0, 0, GB - 1024))
+                                                                               .thenReturn(stats(0, 0, GB - 1024))
+                                                                               .thenReturn(stats(0, 0, GB / 2));
+
+        sampler.sample(MACHINE_ID);
+        sampler.sample(MACHINE_ID);
+        sampler.sample(MACHINE_ID);
+
+        ArgumentCaptor<MachineResourceThresholdEvent> captor = ArgumentCaptor.forClass(MachineResourceThresholdEvent.class);
+        verify(eventService, times(2)).publish(captor.capture());
+        List<MachineResourceThresholdEvent> events = captor.getAllValues();
+        assertEquals(events.get(0).getResource(), Resource.MEMORY);
+        assertEquals(events.get(0).getMachineId(), MACHINE_ID);
+        assertTrue(events.get(0).isExceeded());
+        assertFalse(events.get(1).isExceeded());
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void shouldStopSamplingWhenContainerIsRemoved() throws Exception {
+        when(docker.getContainerStats(GetContainerStatsParams.create(CONTAINER)))
+                .thenThrow(new ContainerNotFoundException("not found"));
+
+        sampler.sample(MACHINE_ID);
+
+        verify(eventService, never()).publish(any());
+        sampler.getSamples(MACHINE_ID);
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void shouldForgetSamplesOfStoppedMachine() throws Exception {
+        sampler.stopSampling(MACHINE_ID);
+
+        sampler.getSamples(MACHINE_ID);
+    }
+
+    @Test
+    public void shouldReportLagOfSamplesWhenThreadsAreBusy() throws Exception {
+        sampler.stop();
+        sampler = new MachineStatsSampler(dockerProvider, eventService, 1, 1, 2, 90, 90);
+        when(docker.getContainerStats(GetContainerStatsParams.create(CONTAINER))).thenAnswer(invocation -> {
+            Thread.sleep(1500);
+            return stats(0, 0, 1024);
+        });
+        when(docker.getContainerStats(GetContainerStatsParams.create("another"))).thenReturn(stats(0, 0, 1024));
+
+        sampler.startSampling(MACHINE_ID, WORKSPACE_ID, CONTAINER);
+        sampler.startSampling("another", WORKSPACE_ID, "another");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sampler.getStatistics().get("max_sample_lag_ms") < 400 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(sampler.getStatistics().get("max_sample_lag_ms") >= 400);
+    }
+
+    private static ContainerStats stats(long cpuUsage, long systemUsage, long memoryUsage) {
+        return new ContainerStats().withCpuStats(new CpuStats().withCpuUsage(new CpuUsage().withTotalUsage(cpuUsage))
+                                                               .withSystemCpuUsage(systemUsage)
+                                                               .withOnlineCpus(2))
+                                   .withPrecpuStats(new CpuStats())
+                                   .withMemoryStats(new MemoryStats().withUsage(memoryUsage)
+                                                                     .withLimit(GB)
+                                                                     .withStats(ImmutableMap.of("cache", 1024L)))
+                                   .withNetworks(ImmutableMap.of("eth0", new NetworkStats().withRxBytes(10)
+                                                                                           .withTxBytes(20)));
+    }
+}
@@ -21,9 +21,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -79,13 +82,11 @@ import org.slf4j.LoggerFactory;
 import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.ContainerBuilder;
 import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.api.model.PodSpec;
 import io.fabric8.kubernetes.api.model.PodSpecBuilder;
 import io.fabric8.kubernetes.api.model.Probe;
 import io.fabric8.kubernetes.api.model.ProbeBuilder;
 import io.fabric8.kubernetes.api.model.Service;
-import io.fabric8.kubernetes.api.model.ServiceList;
 import io.fabric8.kubernetes.api.model.ServicePort;
 import io.fabric8.kubernetes.api.model.Volume;
 import io.fabric8.kubernetes.api.model.VolumeBuilder;
@@ -131,11 +132,12 @@ public class OpenShiftConnector extends DockerConnector {
     private static final Long UID_ROOT                                   = Long.valueOf(0);
     private static final Long UID_USER                                   = Long.valueOf(1000);
 
-    private final OpenShiftClient openShiftClient;
-    private final String          openShiftCheProjectName;
-    private final String          openShiftCheServiceAccount;
-    private final int             openShiftLivenessProbeDelay;
-    private final int             openShiftLivenessProbeTimeout;
+    private final OpenShiftClient        openShiftClient;
+    private final OpenShiftResourceCache resourceCache;
+    private final String                 openShiftCheProjectName;
+    private final String                 openShiftCheServiceAccount;
+    private final int                    openShiftLivenessProbeDelay;
+    private final int                    openShiftLivenessProbeTimeout;
 
     @Inject
     public OpenShiftConnector(ConfigBuilder configBuilder,
@@ -164,6 +166,21 @@ public class OpenShiftConnector extends DockerConnector {
                                            openShiftUserName,
                                            openShiftUserPassword);
         this.openShiftClient = new DefaultOpenShiftClient(config);
+        this.resourceCache = new OpenShiftResourceCache(openShiftClient, openShiftCheProjectName);
+    }
+
+    /**
+     * Starts watching Pods, Services and ImageStreams of the Che project, so they
+     * are looked up without API calls.
+     */
+    @PostConstruct
+    void start() {
+        resourceCache.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        resourceCache.stop();
     }
 
     private Config getOpenShiftConfig(ConfigBuilder configBuilder,
@@ -211,10 +228,7 @@ public class OpenShiftConnector extends DockerConnector {
         // Next we need to get the address of the registry where the ImageStreamTag is stored
         String imageStreamName = KubernetesStringUtils.getImageStreamNameFromPullSpec(imageStreamTagPullSpec);
 
-        ImageStream imageStream = openShiftClient.imageStreams()
-                                                 .inNamespace(openShiftCheProjectName)
-                                                 .withName(imageStreamName)
-                                                 .get();
+        ImageStream imageStream = resourceCache.getImageStream(imageStreamName);
         if (imageStream == null) {
             throw new OpenShiftException("ImageStream not found");
         }
@@ -404,22 +418,15 @@ public class OpenShiftConnector extends DockerConnector {
     public Network inspectNetwork(InspectNetworkParams params) throws IOException {
         String netId = params.getNetworkId();
 
-        ServiceList services = openShiftClient.services()
-                                              .inNamespace(this.openShiftCheProjectName)
-                                              .list();
         Map<String, ContainerInNetwork> containers = new HashMap<>();
-        for (Service svc : services.getItems()) {
-            String selector = svc.getSpec().getSelector().get(OPENSHIFT_DEPLOYMENT_LABEL);
+        for (Service svc : resourceCache.getServices()) {
+            String selector = svc.getSpec().getSelector() != null ? svc.getSpec().getSelector().get(OPENSHIFT_DEPLOYMENT_LABEL)
+                                                                  : null;
             if (selector == null || !selector.startsWith(CHE_OPENSHIFT_RESOURCES_PREFIX)) {
                 continue;
             }
 
-            PodList pods = openShiftClient.pods()
-                                          .inNamespace(openShiftCheProjectName)
-                                          .withLabel(OPENSHIFT_DEPLOYMENT_LABEL, selector)
-                                          .list();
-
-            for (Pod pod : pods.getItems()) {
+            for (Pod pod : resourceCache.getPods(OPENSHIFT_DEPLOYMENT_LABEL, selector)) {
                 String podName = pod.getMetadata()
                                     .getName();
                 ContainerInNetwork container = new ContainerInNetwork().withName(podName)
@@ -469,10 +476,7 @@ public class OpenShiftConnector extends DockerConnector {
 
         String imageStreamName = KubernetesStringUtils.convertPullSpecToImageStreamName(repo);
 
-        ImageStream existingImageStream = openShiftClient.imageStreams()
-                                                         .inNamespace(openShiftCheProjectName)
-                                                         .withName(imageStreamName)
-                                                         .get();
+        ImageStream existingImageStream = resourceCache.getImageStream(imageStreamName);
         if (existingImageStream == null) {
             openShiftClient.imageStreams()
                            .inNamespace(openShiftCheProjectName)
@@ -494,23 +498,20 @@ public class OpenShiftConnector extends DockerConnector {
 
         // Wait for Image metadata to be obtained.
         ImageStream createdImageStream;
-        for (int waitCount = 0; waitCount < OPENSHIFT_IMAGESTREAM_MAX_WAIT; waitCount++) {
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-
-            createdImageStream = openShiftClient.imageStreams()
-                                                .inNamespace(openShiftCheProjectName)
-                                                .withName(imageStreamName)
-                                                .get();
+        try {
+            createdImageStream = resourceCache.waitFor(() -> {
+                ImageStream imageStream = resourceCache.getImageStream(imageStreamName);
+                return imageStream != null && imageStream.getStatus().getDockerImageRepository() != null ? imageStream
+                                                                                                          : null;
+            }, TimeUnit.SECONDS.toMillis(OPENSHIFT_IMAGESTREAM_MAX_WAIT));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e.getLocalizedMessage(), e);
+        }
 
-            if (createdImageStream != null
-                    && createdImageStream.getStatus().getDockerImageRepository() != null) {
-                LOG.info(String.format("Created ImageStream %s.", imageStreamName));
-                return;
-            }
+        if (createdImageStream != null) {
+            LOG.info(String.format("Created ImageStream %s.", imageStreamName));
+            return;
         }
 
         throw new OpenShiftException(String.format("Failed to create ImageStream %s.",
@@ -584,6 +585,7 @@ public class OpenShiftConnector extends DockerConnector {
         ImageStreamTag imageStreamTag = getImageStreamTagFromRepo(imageStreamTagName);
 
         openShiftClient.resource(imageStreamTag).delete();
+        resourceCache.forgetImageStreamTag(imageStreamTag.getMetadata().getName());
     }
 
     /**
@@ -630,19 +632,12 @@ public class OpenShiftConnector extends DockerConnector {
 
         // Note: ideally, ImageStreamTags could be identified with a label, but it seems like
         // ImageStreamTags do not support labels.
-        List<ImageStreamTag> imageStreams = openShiftClient.imageStreamTags()
-                                                           .inNamespace(openShiftCheProjectName)
-                                                           .list()
-                                                           .getItems();
-
-        // We only get ImageStreamTag names here, since these ImageStreamTags do not include
+        // We only get ImageStreamTag names here, since listed ImageStreamTags do not include
         // Docker metadata, for some reason.
-        List<String> imageStreamTags = imageStreams.stream()
-                                                   .filter(e -> e.getMetadata()
-                                                                 .getName()
-                                                                 .contains(imageTagTrimmed))
-                                                   .map(e -> e.getMetadata().getName())
-                                                   .collect(Collectors.toList());
+        List<String> imageStreamTags = resourceCache.getImageStreamTagNames()
+                                                    .stream()
+                                                    .filter(name -> name.contains(imageTagTrimmed))
+                                                    .collect(Collectors.toList());
 
         if (imageStreamTags.size() < 1) {
             throw new OpenShiftException(String.format("ImageStreamTag %s not found!", imageStreamTagName));
@@ -654,18 +649,16 @@ public class OpenShiftConnector extends DockerConnector {
         String imageStreamTag = imageStreamTags.get(0);
 
         // Finally, get the ImageStreamTag, with Docker metadata.
-        return openShiftClient.imageStreamTags()
-                              .inNamespace(openShiftCheProjectName)
-                              .withName(imageStreamTag)
-                              .get();
+        ImageStreamTag tag = resourceCache.getImageStreamTag(imageStreamTag);
+        if (tag == null) {
+            throw new OpenShiftException(String.format("ImageStreamTag %s not found!", imageStreamTagName));
+        }
+        return tag;
     }
 
     private Service getCheServiceBySelector(String selectorKey, String selectorValue) {
-        ServiceList svcs = openShiftClient.services()
-                                .inNamespace(this.openShiftCheProjectName)
-                                .list();
-
-        Service svc = svcs.getItems().stream()
+        Service svc = resourceCache.getServices().stream()
+                .filter(s->s.getSpec().getSelector() != null)
                 .filter(s->s.getSpec().getSelector().containsKey(selectorKey))
                 .filter(s->s.getSpec().getSelector().get(selectorKey).equals(selectorValue)).findAny().orElse(null);
 
@@ -711,13 +704,8 @@ public class OpenShiftConnector extends DockerConnector {
     }
 
     private Pod getChePodByContainerId(String containerId) throws IOException {
-        PodList pods = openShiftClient.pods()
-                                    .inNamespace(this.openShiftCheProjectName)
-                                    .withLabel(CHE_CONTAINER_IDENTIFIER_LABEL_KEY,
-                                               KubernetesStringUtils.getLabelFromContainerID(containerId))
-                                    .list();
-
-        List<Pod> items = pods.getItems();
+        List<Pod> items = resourceCache.getPods(CHE_CONTAINER_IDENTIFIER_LABEL_KEY,
+                                                KubernetesStringUtils.getLabelFromContainerID(containerId));
 
         if (items.isEmpty()) {
             LOG.error("An OpenShift Pod with label {}={} could not be found", CHE_CONTAINER_IDENTIFIER_LABEL_KEY, containerId);
@@ -861,6 +849,7 @@ public class OpenShiftConnector extends DockerConnector {
     private ImageStreamTag createImageStreamTag(String sourceImageWithTag,
                                                 String imageStreamTagName) throws IOException {
         try {
+            resourceCache.forgetImageStreamTag(imageStreamTagName);
             ImageStreamTag imageStreamTag = openShiftClient.imageStreamTags()
                                                            .inNamespace(openShiftCheProjectName)
                                                            .createOrReplaceWithNew()
@@ -876,19 +865,13 @@ public class OpenShiftConnector extends DockerConnector {
                                                            .done();
 
             // Wait for image metadata to be pulled
-            for (int waitCount = 0; waitCount < OPENSHIFT_IMAGESTREAM_MAX_WAIT; waitCount++) {
-                Thread.sleep(1000);
-
-                ImageStreamTag createdTag = openShiftClient.imageStreamTags()
-                                                           .inNamespace(openShiftCheProjectName)
-                                                           .withName(imageStreamTagName)
-                                                           .get();
-                if (createdTag != null) {
-                    LOG.info(String.format("Created ImageStreamTag %s in namespace %s",
-                                           imageStreamTag.getMetadata().getName(),
-                                           openShiftCheProjectName));
-                    return createdTag;
-                }
+            ImageStreamTag createdTag = resourceCache.waitFor(() -> resourceCache.findImageStreamTag(imageStreamTagName),
+                                                              TimeUnit.SECONDS.toMillis(OPENSHIFT_IMAGESTREAM_MAX_WAIT));
+            if (createdTag != null) {
+                LOG.info(String.format("Created ImageStreamTag %s in namespace %s",
+                                       imageStreamTag.getMetadata().getName(),
+                                       openShiftCheProjectName));
+                return createdTag;
             }
 
             throw new ImageNotFoundException(String.format("Image %s not found.", sourceImageWithTag));
@@ -1016,46 +999,50 @@ public class OpenShiftConnector extends DockerConnector {
         return "unknown-volume";
     }
 
+    /**
+     * Waits until the pod of the deployment is running. Pod is created by the deployment
+     * asynchronously, so changes of the pods are watched until the pod appears and runs.
+     */
     private String waitAndRetrieveContainerID(String deploymentName) throws IOException {
-        for (int i = 0; i < OPENSHIFT_WAIT_POD_TIMEOUT; i++) {
-            try {
-                Thread.sleep(OPENSHIFT_WAIT_POD_DELAY);
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-            }
-
-            List<Pod> pods = openShiftClient.pods()
-                                .inNamespace(this.openShiftCheProjectName)
-                                .withLabel(OPENSHIFT_DEPLOYMENT_LABEL, deploymentName)
-                                .list()
-                                .getItems();
-
-            if (pods.size() < 1) {
-                throw new OpenShiftException(String.format("Pod with deployment name %s not found",
-                                                           deploymentName));
-            } else if (pods.size() > 1) {
-                throw new OpenShiftException(String.format("Multiple pods with deployment name %s found",
-                                                           deploymentName));
-            }
+        List<Pod> pods;
+        try {
+            pods = resourceCache.waitFor(() -> {
+                List<Pod> deploymentPods = resourceCache.getPods(OPENSHIFT_DEPLOYMENT_LABEL, deploymentName);
+                if (deploymentPods.size() > 1
+                    || (deploymentPods.size() == 1
+                        && OPENSHIFT_POD_STATUS_RUNNING.equals(deploymentPods.get(0).getStatus().getPhase()))) {
+                    return deploymentPods;
+                }
+                return null;
+            }, (long)OPENSHIFT_WAIT_POD_TIMEOUT * OPENSHIFT_WAIT_POD_DELAY);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OpenShiftException(ex);
+        }
 
-            Pod pod = pods.get(0);
-            String status = pod.getStatus().getPhase();
-            if (OPENSHIFT_POD_STATUS_RUNNING.equals(status)) {
-                String containerID = pod.getStatus().getContainerStatuses().get(0).getContainerID();
-                String normalizedID = KubernetesStringUtils.normalizeContainerID(containerID);
-                openShiftClient.pods()
-                               .inNamespace(openShiftCheProjectName)
-                               .withName(pod.getMetadata().getName())
-                               .edit()
-                               .editMetadata()
-                                   .addToLabels(CHE_CONTAINER_IDENTIFIER_LABEL_KEY,
-                                                KubernetesStringUtils.getLabelFromContainerID(normalizedID))
-                               .endMetadata()
-                               .done();
-                return normalizedID;
-            }
+        if (pods == null) {
+            LOG.error("Pod with deployment name {} is not running", deploymentName);
+            return null;
+        } else if (pods.size() > 1) {
+            throw new OpenShiftException(String.format("Multiple pods with deployment name %s found",
+                                                       deploymentName));
         }
-        return null;
+
+        Pod pod = pods.get(0);
+        String containerID = pod.getStatus().getContainerStatuses().get(0).getContainerID();
+        String normalizedID = KubernetesStringUtils.normalizeContainerID(containerID);
+        Pod labeledPod = openShiftClient.pods()
+                                        .inNamespace(openShiftCheProjectName)
+                                        .withName(pod.getMetadata().getName())
+                                        .edit()
+                                        .editMetadata()
+                                            .addToLabels(CHE_CONTAINER_IDENTIFIER_LABEL_KEY,
+                                                         KubernetesStringUtils.getLabelFromContainerID(normalizedID))
+                                        .endMetadata()
+                                        .done();
+        // container is looked up by the label right after creation, don't wait for the watch event
+        resourceCache.update(labeledPod);
+        return normalizedID;
     }
 
     /**
@@ -0,0 +1,450 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.che.plugin.openshift.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.ImageStream;
+import io.fabric8.openshift.api.model.ImageStreamList;
+import io.fabric8.openshift.api.model.ImageStreamTag;
+import io.fabric8.openshift.api.model.NamedTagEventList;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * Local copy of the Pods, Services and ImageStreams of the Che project, kept up to date by watches.
+ *
+ * <p>Resources are listed once when the cache is started and then updated from the watch events, so
+ * lookups don't make API calls. When a watch is closed with an error the resources are listed
+ * again and watches are reopened. Until the cache is synchronized all the lookups are made
+ * against the API, so the cache can be used before it is started.
+ *
+ * <p>ImageStreamTags can't be watched, so they are fetched on demand and kept until the
+ * ImageStream they belong to is changed.
+ *
+ * <p>Waiting for a resource state is done with {@link #waitFor(Supplier, long)}, which is woken
+ * up by watch events instead of polling the API.
+ */
+public class OpenShiftResourceCache {
+    private static final Logger LOG             = LoggerFactory.getLogger(OpenShiftResourceCache.class);
+    private static final long   RESYNC_DELAY_MS = 1000;
+    private static final long   POLL_PERIOD_MS  = 1000;
+
+    private final OpenShiftClient             openShiftClient;
+    private final String                      namespace;
+    private final Map<String, Pod>            pods;
+    private final Map<String, Service>        services;
+    private final Map<String, ImageStream>    imageStreams;
+    private final Map<String, ImageStreamTag> imageStreamTags;
+    private final List<Watch>                 watches;
+    private final Object                      lock;
+    private final AtomicBoolean               resyncScheduled;
+    private final AtomicLong                  version;
+    private final AtomicLong                  events;
+    private final AtomicLong                  resyncs;
+
+    private volatile ScheduledExecutorService executor;
+    private volatile boolean                  synced;
+    private volatile boolean                  stopped;
+
+    public OpenShiftResourceCache(OpenShiftClient openShiftClient, String namespace) {
+        this.openShiftClient = openShiftClient;
+        this.namespace = namespace;
+        this.pods = new ConcurrentHashMap<>();
+        this.services = new ConcurrentHashMap<>();
+        this.imageStreams = new ConcurrentHashMap<>();
+        this.imageStreamTags = new ConcurrentHashMap<>();
+        this.watches = new ArrayList<>();
+        this.lock = new Object();
+        this.resyncScheduled = new AtomicBoolean();
+        this.version = new AtomicLong();
+        this.events = new AtomicLong();
+        this.resyncs = new AtomicLong();
+    }
+
+    /**
+     * Lists resources of the project and starts watching them.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        stopped = false;
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("OpenShiftResourceCache-%d")
+                                                                                        .setUncaughtExceptionHandler(
+                                                                                                LoggingUncaughtExceptionHandler
+                                                                                                        .getInstance())
+                                                                                        .setDaemon(true)
+                                                                                        .build());
+        executor.execute(this::resync);
+    }
+
+    /**
+     * Closes watches, after that all the lookups are made against the API.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        synced = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        closeWatches();
+    }
+
+    /**
+     * Returns {@code true} if lookups are answered from memory.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * Returns Pods of the project which have the given label.
+     */
+    public List<Pod> getPods(String labelKey, String labelValue) {
+        if (!synced) {
+            return openShiftClient.pods()
+                                  .inNamespace(namespace)
+                                  .withLabel(labelKey, labelValue)
+                                  .list()
+                                  .getItems();
+        }
+        return pods.values()
+                   .stream()
+                   .filter(pod -> pod.getMetadata().getLabels() != null
+                                  && labelValue.equals(pod.getMetadata().getLabels().get(labelKey)))
+                   .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns all the Services of the project.
+     */
+    public Collection<Service> getServices() {
+        if (!synced) {
+            return openShiftClient.services()
+                                  .inNamespace(namespace)
+                                  .list()
+                                  .getItems();
+        }
+        return new ArrayList<>(services.values());
+    }
+
+    /**
+     * Returns ImageStream with the given name or {@code null} if there is no such ImageStream.
+     */
+    public ImageStream getImageStream(String name) {
+        if (!synced) {
+            return openShiftClient.imageStreams()
+                                  .inNamespace(namespace)
+                                  .withName(name)
+                                  .get();
+        }
+        return imageStreams.get(name);
+    }
+
+    /**
+     * Returns names of the ImageStreamTags of the project which point to an image.
+     */
+    public List<String> getImageStreamTagNames() {
+        if (!synced) {
+            return openShiftClient.imageStreamTags()
+                                  .inNamespace(namespace)
+                                  .list()
+                                  .getItems()
+                                  .stream()
+                                  .map(tag -> tag.getMetadata().getName())
+                                  .collect(Collectors.toList());
+        }
+        List<String> names = new ArrayList<>();
+        for (ImageStream imageStream : imageStreams.values()) {
+            if (imageStream.getStatus() == null || imageStream.getStatus().getTags() == null) {
+                continue;
+            }
+            for (NamedTagEventList tag : imageStream.getStatus().getTags()) {
+                if (tag.getItems() != null && !tag.getItems().isEmpty()) {
+                    names.add(imageStream.getMetadata().getName() + ':' + tag.getTag());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns ImageStreamTag with Docker metadata or {@code null} if there is no such ImageStreamTag.
+     */
+    public ImageStreamTag getImageStreamTag(String name) {
+        ImageStreamTag tag = imageStreamTags.get(name);
+        if (tag != null) {
+            return tag;
+        }
+        tag = openShiftClient.imageStreamTags()
+                             .inNamespace(namespace)
+                             .withName(name)
+                             .get();
+        if (tag != null && synced) {
+            imageStreamTags.put(name, tag);
+        }
+        return tag;
+    }
+
+    /**
+     * Returns ImageStreamTag with Docker metadata if it points to an image, otherwise returns {@code null}.
+     * Unlike {@link #getImageStreamTag(String)} makes no API calls for the tags which are not imported yet.
+     */
+    public ImageStreamTag findImageStreamTag(String name) {
+        if (synced && !getImageStreamTagNames().contains(name)) {
+            return null;
+        }
+        return getImageStreamTag(name);
+    }
+
+    /**
+     * Forgets ImageStreamTag, must be called when the tag is changed or removed.
+     */
+    public void forgetImageStreamTag(String name) {
+        imageStreamTags.remove(name);
+    }
+
+    /**
+     * Updates cached Pod with the state returned by the API after modification,
+     * so the modification is visible before the watch event is received.
+     */
+    public void update(Pod pod) {
+        if (synced) {
+            onEvent(pods, Watcher.Action.MODIFIED, pod);
+        }
+    }
+
+    /**
+     * Waits until the condition returns not {@code null} value. Condition is checked on each
+     * change of the cached resources, or periodically if the cache is not synchronized.
+     *
+     * @param condition
+     *         condition to check, should look up resources with this cache
+     * @param timeoutMs
+     *         maximum time to wait in milliseconds
+     * @return value returned by the condition or {@code null} if timeout is reached
+     * @throws InterruptedException
+     *         if thread is interrupted while waiting
+     */
+    public <T> T waitFor(Supplier<T> condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            long seenVersion = version.get();
+            T result = condition.get();
+            if (result != null) {
+                return result;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return null;
+            }
+            synchronized (lock) {
+                if (seenVersion == version.get()) {
+                    lock.wait(synced ? remaining : Math.min(remaining, POLL_PERIOD_MS));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns statistics of the cache, values are accumulated since server start.
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new TreeMap<>();
+        statistics.put("events", events.get());
+        statistics.put("resyncs", resyncs.get());
+        statistics.put("pods", (long)pods.size());
+        statistics.put("services", (long)services.size());
+        statistics.put("image_streams", (long)imageStreams.size());
+        statistics.put("image_stream_tags", (long)imageStreamTags.size());
+        return statistics;
+    }
+
+    void onPodEvent(Watcher.Action action, Pod pod) {
+        onEvent(pods, action, pod);
+    }
+
+    void onServiceEvent(Watcher.Action action, Service service) {
+        onEvent(services, action, service);
+    }
+
+    void onImageStreamEvent(Watcher.Action action, ImageStream imageStream) {
+        String prefix = imageStream.getMetadata().getName() + ':';
+        imageStreamTags.keySet().removeIf(name -> name.startsWith(prefix));
+        onEvent(imageStreams, action, imageStream);
+    }
+
+    /**
+     * Replaces cached resources with the listed ones, after that lookups are answered from memory.
+     */
+    void sync(List<Pod> podItems, List<Service> serviceItems, List<ImageStream> imageStreamItems) {
+        replace(pods, podItems);
+        replace(services, serviceItems);
+        replace(imageStreams, imageStreamItems);
+        imageStreamTags.clear();
+        synced = true;
+    }
+
+    private synchronized void resync() {
+        resyncScheduled.set(false);
+        if (stopped) {
+            return;
+        }
+        synced = false;
+        closeWatches();
+        try {
+            PodList podList = openShiftClient.pods().inNamespace(namespace).list();
+            ServiceList serviceList = openShiftClient.services().inNamespace(namespace).list();
+            ImageStreamList imageStreamList = openShiftClient.imageStreams().inNamespace(namespace).list();
+
+            // watches are opened from the listed versions, so no change is missed
+            sync(podList.getItems(), serviceList.getItems(), imageStreamList.getItems());
+
+            watches.add(openShiftClient.pods()
+                                       .inNamespace(namespace)
+                                       .watch(podList.getMetadata().getResourceVersion(),
+                                              new CacheWatcher<>(this::onPodEvent)));
+            watches.add(openShiftClient.services()
+                                       .inNamespace(namespace)
+                                       .watch(serviceList.getMetadata().getResourceVersion(),
+                                              new CacheWatcher<>(this::onServiceEvent)));
+            watches.add(openShiftClient.imageStreams()
+                                       .inNamespace(namespace)
+                                       .watch(imageStreamList.getMetadata().getResourceVersion(),
+                                              new CacheWatcher<>(this::onImageStreamEvent)));
+            resyncs.incrementAndGet();
+            LOG.debug("OpenShift resources of project {} are cached", namespace);
+        } catch (KubernetesClientException e) {
+            synced = false;
+            LOG.warn("Failed to watch OpenShift resources of project {}, lookups are made without cache. Cause: {}",
+                     namespace, e.getLocalizedMessage());
+            closeWatches();
+            scheduleResync();
+        }
+        notifyWaiters();
+    }
+
+    private void scheduleResync() {
+        synced = false;
+        ScheduledExecutorService executor = this.executor;
+        if (!stopped && executor != null && resyncScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::resync, RESYNC_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void closeWatches() {
+        for (Watch watch : watches) {
+            try {
+                watch.close();
+            } catch (RuntimeException e) {
+                LOG.debug("Failed to close watch. Cause: {}", e.getLocalizedMessage());
+            }
+        }
+        watches.clear();
+    }
+
+    private <T extends HasMetadata> void onEvent(Map<String, T> resources, Watcher.Action action, T resource) {
+        String name = resource.getMetadata().getName();
+        if (action == Watcher.Action.DELETED) {
+            resources.remove(name);
+        } else {
+            resources.merge(name, resource, (current, updated) -> isNewer(updated, current) ? updated : current);
+        }
+        events.incrementAndGet();
+        notifyWaiters();
+    }
+
+    private void notifyWaiters() {
+        version.incrementAndGet();
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    private static <T extends HasMetadata> void replace(Map<String, T> resources, List<T> items) {
+        resources.clear();
+        for (T item : items) {
+            resources.put(item.getMetadata().getName(), item);
+        }
+    }
+
+    /**
+     * Resource versions are opaque, but OpenShift uses increasing numbers for them.
+     * Events may arrive after the state returned by the modification call, so older versions are ignored.
+     */
+    private static boolean isNewer(HasMetadata updated, HasMetadata current) {
+        try {
+            return Long.parseLong(updated.getMetadata().getResourceVersion())
+                   >= Long.parseLong(current.getMetadata().getResourceVersion());
+        } catch (NumberFormatException | NullPointerException e) {
+            return true;
+        }
+    }
+
+    private interface EventHandler<T> {
+        void onEvent(Watcher.Action action, T resource);
+    }
+
+    private class CacheWatcher<T> implements Watcher<T> {
+        private final EventHandler<T> handler;
+
+        CacheWatcher(EventHandler<T> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void eventReceived(Action action, T resource) {
+            if (action == Action.ERROR) {
+                LOG.warn("Error event received from OpenShift watch of project {}", namespace);
+                scheduleResync();
+                return;
+            }
+            handler.onEvent(action, resource);
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            if (cause != null) {
+                LOG.warn("OpenShift watch of project {} is closed, resources are listed again. Cause: {}",
+                         namespace, cause.getLocalizedMessage());
+                scheduleResync();
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Red Hat, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.openshift.client;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.ImageStream;
+import io.fabric8.openshift.api.model.ImageStreamBuilder;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+@Listeners(MockitoTestNGListener.class)
+public class OpenShiftResourceCacheTest {
+    private static final String NAMESPACE        = "eclipse-che";
+    private static final String DEPLOYMENT_LABEL = "deployment";
+    private static final String DEPLOYMENT       = "che-ws-abcd1234";
+
+    @Mock
+    private OpenShiftClient openShiftClient;
+
+    private OpenShiftResourceCache cache;
+
+    @BeforeMethod
+    public void setUp() {
+        cache = new OpenShiftResourceCache(openShiftClient, NAMESPACE);
+        cache.sync(singletonList(pod("pod1", "1", "Pending")), emptyList(), emptyList());
+    }
+
+    @Test
+    public void shouldLookUpPodsWithoutApiCalls() {
+        List<Pod> pods = cache.getPods(DEPLOYMENT_LABEL, DEPLOYMENT);
+
+        assertEquals(pods.size(), 1);
+        assertEquals(pods.get(0).getMetadata().getName(), "pod1");
+        assertTrue(cache.getPods(DEPLOYMENT_LABEL, "che-ws-another").isEmpty());
+        verifyZeroInteractions(openShiftClient);
+    }
+
+    @Test
+    public void shouldApplyWatchEvents() {
+        cache.onPodEvent(Watcher.Action.MODIFIED, pod("pod1", "2", "Running"));
+        assertEquals(cache.getPods(DEPLOYMENT_LABEL, DEPLOYMENT).get(0).getStatus().getPhase(), "Running");
+
+        cache.onPodEvent(Watcher.Action.DELETED, pod("pod1", "3", "Running"));
+        assertTrue(cache.getPods(DEPLOYMENT_LABEL, DEPLOYMENT).isEmpty());
+    }
+
+    @Test
+    public void shouldIgnoreEventsOlderThanUpdatedState() {
+        cache.update(pod("pod1", "5", "Running"));
+
+        cache.onPodEvent(Watcher.Action.MODIFIED, pod("pod1", "4", "Pending"));
+
+        assertEquals(cache.getPods(DEPLOYMENT_LABEL, DEPLOYMENT).get(0).getStatus().getPhase(), "Running");
+    }
+
+    @Test
+    public void shouldWakeUpWaiterOnEvent() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Pod> running = executor.submit(() -> cache.waitFor(() -> cache.getPods(DEPLOYMENT_LABEL, DEPLOYMENT)
+                                                                                  .stream()
+                                                                                  .filter(p -> "Running".equals(p.getStatus()
+                                                                                                                 .getPhase()))
+                                                                                  .findAny()
+                                                                                  .orElse(null),
+                                                                         TimeUnit.MINUTES.toMillis(1)));
+            Thread.sleep(100);
+
+            cache.onPodEvent(Watcher.Action.MODIFIED, pod("pod1", "2", "Running"));
+
+            assertEquals(running.get(1, TimeUnit.SECONDS).getMetadata().getResourceVersion(), "2");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReturnNullWhenWaitingTimeoutIsReached() throws Exception {
+        assertNull(cache.waitFor(() -> null, 10));
+    }
+
+    @Test
+    public void shouldListNamesOfImportedImageStreamTags() {
+        cache.onImageStreamEvent(Watcher.Action.ADDED, imageStream("eclipse-ubuntu_jdk8", "latest"));
+
+        assertEquals(cache.getImageStreamTagNames(), singletonList("eclipse-ubuntu_jdk8:latest"));
+        assertNull(cache.findImageStreamTag("eclipse-ubuntu_jdk8:another"));
+        verifyZeroInteractions(openShiftClient);
+    }
+
+    private static Pod pod(String name, String resourceVersion, String phase) {
+        return new PodBuilder().withNewMetadata()
+                                   .withName(name)
+                                   .withResourceVersion(resourceVersion)
+                                   .addToLabels(DEPLOYMENT_LABEL, DEPLOYMENT)
+                               .endMetadata()
+                               .withNewStatus()
+                                   .withPhase(phase)
+                               .endStatus()
+                               .build();
+    }
+
+    private static ImageStream imageStream(String name, String tag) {
+        return new ImageStreamBuilder().withNewMetadata()
+                                           .withName(name)
+                                       .endMetadata()
+                                       .withNewStatus()
+                                           .addNewTag()
+                                               .withTag(tag)
+                                               .addNewItem()
+                                                   .withImage("sha256:123")
+                                               .endItem()
+                                           .endTag()
+                                       .endStatus()
+                                       .build();
+    }
+}
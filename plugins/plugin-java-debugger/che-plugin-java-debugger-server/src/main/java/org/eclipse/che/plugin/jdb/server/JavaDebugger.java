@@ -38,6 +38,7 @@ import org.eclipse.che.api.debug.shared.dto.VariablePathDto;
 import org.eclipse.che.api.debug.shared.dto.action.ResumeActionDto;
 import org.eclipse.che.api.debug.shared.model.Breakpoint;
 import org.eclipse.che.api.debug.shared.model.DebuggerInfo;
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
 import org.eclipse.che.api.debug.shared.model.Location;
 import org.eclipse.che.api.debug.shared.model.SimpleValue;
 import org.eclipse.che.api.debug.shared.model.Variable;
@@ -49,6 +50,7 @@ import org.eclipse.che.api.debug.shared.model.action.StepOutAction;
 import org.eclipse.che.api.debug.shared.model.action.StepOverAction;
 import org.eclipse.che.api.debug.shared.model.impl.BreakpointImpl;
 import org.eclipse.che.api.debug.shared.model.impl.DebuggerInfoImpl;
+import org.eclipse.che.api.debug.shared.model.impl.EvaluationResultImpl;
 import org.eclipse.che.api.debug.shared.model.impl.FieldImpl;
 import org.eclipse.che.api.debug.shared.model.impl.LocationImpl;
 import org.eclipse.che.api.debug.shared.model.impl.SimpleValueImpl;
@@ -71,6 +73,7 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -115,7 +118,14 @@ public class JavaDebugger implements EventsHandler, Debugger {
     /** Current thread. Not <code>null</code> is thread suspended, e.g breakpoint reached. */
     private ThreadReference thread;
     /** Current stack frame. Not <code>null</code> is thread suspended, e.g breakpoint reached. */
-    private JdiStackFrame   stackFrame;
+    private JdiStackFrame     stackFrame;
+    /** Dump of the current stack frame, is dropped together with the frame. */
+    private StackFrameDumpDto stackFrameDump;
+    /**
+     * Variables of the current stack frame resolved by their paths, are dropped together with the frame.
+     * Values and nested variables of the cached variables are read from the target JVM only once per suspend.
+     */
+    private final Map<List<String>, JdiVariable> variables = new HashMap<>();
     /** Lock for synchronization debug processes. */
     private Lock lock = new ReentrantLock();
 
@@ -136,6 +146,14 @@ public class JavaDebugger implements EventsHandler, Debugger {
         connect();
     }
 
+    /** Creates debugger for already connected Java VM, events of the VM are expected to be passed to {@link #handleEvents}. */
+    JavaDebugger(VirtualMachine vm, DebuggerCallback debuggerCallback) {
+        this.host = null;
+        this.port = -1;
+        this.debuggerCallback = debuggerCallback;
+        this.vm = vm;
+    }
+
     /**
      * Attach to a JVM that is already running at specified host.
      *
@@ -364,6 +382,9 @@ public class JavaDebugger implements EventsHandler, Debugger {
     public StackFrameDumpDto dumpStackFrame() throws DebuggerException {
         lock.lock();
         try {
+            if (stackFrameDump != null) {
+                return stackFrameDump;
+            }
             final JdiStackFrame currentFrame = getCurrentFrame();
             StackFrameDumpDto dump = newDto(StackFrameDumpDto.class);
             boolean existInformation = true;
@@ -397,6 +418,7 @@ public class JavaDebugger implements EventsHandler, Debugger {
                                                                  )
                                                                  .withPrimitive(var.isPrimitive()));
             }
+            stackFrameDump = dump;
             return dump;
         } finally {
             lock.unlock();
@@ -448,64 +470,107 @@ public class JavaDebugger implements EventsHandler, Debugger {
      */
     @Override
     public SimpleValue getValue(VariablePath variablePath) throws DebuggerException {
+        return getValue(variablePath, 0, -1);
+    }
+
+    /**
+     * Get value of variable with specified path and a page of its nested variables, only requested elements of
+     * arrays are read from the target JVM. See {@link #getValue(VariablePath)} for the rules of the path.
+     *
+     * @param variablePath
+     *         path to variable
+     * @param skipCount
+     *         number of nested variables to skip
+     * @param maxItems
+     *         max number of nested variables to return, negative value means no limit
+     * @return variable or <code>null</code> if variable not found
+     * @throws DebuggerException
+     *         when any other errors occur when try to access the variable
+     */
+    @Override
+    public SimpleValue getValue(VariablePath variablePath, int skipCount, int maxItems) throws DebuggerException {
         List<String> path = variablePath.getPath();
         if (path.size() == 0) {
             throw new IllegalArgumentException("Path to value may not be empty. ");
         }
-        JdiVariable variable;
-        int offset;
-        if ("this".equals(path.get(0)) || "static".equals(path.get(0))) {
+        lock.lock();
+        try {
+            JdiVariable variable = findVariable(path);
+            if (variable == null) {
+                return null;
+            }
+
+            List<Variable> variables = new ArrayList<>();
+            for (JdiVariable ch : variable.getValue().getVariables(skipCount, maxItems)) {
+                VariablePathDto chPath = newDto(VariablePathDto.class).withPath(new ArrayList<>(path));
+                chPath.getPath().add(ch.getName());
+                if (ch instanceof JdiField) {
+                    JdiField f = (JdiField)ch;
+                    variables.add(new FieldImpl(f.getName(),
+                                                true,
+                                                f.getValue().getAsString(),
+                                                f.getTypeName(),
+                                                f.isPrimitive(),
+                                                Collections.<Variable>emptyList(),
+                                                chPath,
+                                                f.isFinal(),
+                                                f.isStatic(),
+                                                f.isTransient(),
+                                                f.isVolatile()));
+                } else {
+                    // Array element.
+                    variables.add(new VariableImpl(ch.getTypeName(),
+                                                   ch.getName(),
+                                                   ch.getValue().getAsString(),
+                                                   ch.isPrimitive(),
+                                                   chPath,
+                                                   Collections.emptyList(),
+                                                   true));
+                }
+            }
+            return new SimpleValueImpl(variables, variable.getValue().getAsString());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Resolves variable by its path starting from the longest already resolved part of the path,
+     * so expanding of nested variables doesn't walk the path from the frame each time.
+     */
+    private JdiVariable findVariable(List<String> path) throws DebuggerException {
+        JdiVariable variable = null;
+        int resolved = path.size();
+        for (; resolved > 0 && variable == null; resolved--) {
+            variable = variables.get(path.subList(0, resolved));
+        }
+        if (variable != null) {
+            resolved++;
+        } else if ("this".equals(path.get(0)) || "static".equals(path.get(0))) {
             if (path.size() < 2) {
                 throw new IllegalArgumentException("Name of field required. ");
             }
             variable = getCurrentFrame().getFieldByName(path.get(1));
-            offset = 2;
+            resolved = 2;
         } else {
             try {
                 variable = getCurrentFrame().getLocalVariableByName(path.get(0));
             } catch (DebuggerAbsentInformationException e) {
                 return null;
             }
-            offset = 1;
-        }
-
-        for (int i = offset; variable != null && i < path.size(); i++) {
-            variable = variable.getValue().getVariableByName(path.get(i));
-        }
-
-        if (variable == null) {
-            return null;
-        }
-
-        List<Variable> variables = new ArrayList<>();
-        for (JdiVariable ch : variable.getValue().getVariables()) {
-            VariablePathDto chPath = newDto(VariablePathDto.class).withPath(new ArrayList<>(path));
-            chPath.getPath().add(ch.getName());
-            if (ch instanceof JdiField) {
-                JdiField f = (JdiField)ch;
-                variables.add(new FieldImpl(f.getName(),
-                                            true,
-                                            f.getValue().getAsString(),
-                                            f.getTypeName(),
-                                            f.isPrimitive(),
-                                            Collections.<Variable>emptyList(),
-                                            chPath,
-                                            f.isFinal(),
-                                            f.isStatic(),
-                                            f.isTransient(),
-                                            f.isVolatile()));
-            } else {
-                // Array element.
-                variables.add(new VariableImpl(ch.getTypeName(),
-                                               ch.getName(),
-                                               ch.getValue().getAsString(),
-                                               ch.isPrimitive(),
-                                               chPath,
-                                               Collections.emptyList(),
-                                               true));
+            resolved = 1;
+        }
+
+        for (; ; resolved++) {
+            if (variable == null) {
+                return null;
+            }
+            variables.putIfAbsent(new ArrayList<>(path.subList(0, resolved)), variable);
+            if (resolved == path.size()) {
+                return variable;
             }
+            variable = variable.getValue().getVariableByName(path.get(resolved));
         }
-        return new SimpleValueImpl(variables, variable.getValue().getAsString());
     }
 
     @Override
@@ -675,17 +740,51 @@ public class JavaDebugger implements EventsHandler, Debugger {
         return result == null ? "null" : result.toString();
     }
 
+    /**
+     * Evaluates all the expressions with the same evaluator while the current thread is locked,
+     * state of the frame is refreshed once after all the evaluations and only if any of them
+     * might change it, so evaluation of the watch expressions keeps the cached variables.
+     */
+    @Override
+    public List<EvaluationResult> evaluateAll(List<String> expressions) throws DebuggerException {
+        lock.lock();
+        Evaluator evaluator = null;
+        try {
+            final long startTime = System.currentTimeMillis();
+            evaluator = new Evaluator(vm, getCurrentThread());
+            final List<EvaluationResult> results = new ArrayList<>(expressions.size());
+            for (String expression : expressions) {
+                try {
+                    com.sun.jdi.Value result = ExpressionParser.newInstance(expression).evaluate(evaluator);
+                    results.add(EvaluationResultImpl.value(result == null ? "null" : result.toString()));
+                } catch (ExpressionException e) {
+                    results.add(EvaluationResultImpl.error(e.getMessage()));
+                }
+            }
+            LOG.debug("==>> Evaluate {} expressions time: {} ms", expressions.size(), (System.currentTimeMillis() - startTime));
+            return results;
+        } finally {
+            if (evaluator != null && evaluator.hasSideEffects()) {
+                invalidateCurrentFrame();
+            }
+            lock.unlock();
+        }
+    }
+
     private com.sun.jdi.Value evaluate(ExpressionParser parser) throws DebuggerException {
         final long startTime = System.currentTimeMillis();
+        final Evaluator evaluator = new Evaluator(vm, getCurrentThread());
         try {
-            return parser.evaluate(new Evaluator(vm, getCurrentThread()));
+            return parser.evaluate(evaluator);
         } catch (ExpressionException e) {
             throw new DebuggerException(e.getMessage(), e);
         } finally {
             final long endTime = System.currentTimeMillis();
             LOG.debug("==>> Evaluate time: {} ms", (endTime - startTime));
             // Evaluation of expression may update state of frame.
-            invalidateCurrentFrame();
+            if (evaluator.hasSideEffects()) {
+                invalidateCurrentFrame();
+            }
         }
     }
 
@@ -709,12 +808,14 @@ public class JavaDebugger implements EventsHandler, Debugger {
     }
 
     private void setCurrentThread(ThreadReference t) {
-        stackFrame = null;
+        invalidateCurrentFrame();
         thread = t;
     }
 
     private void invalidateCurrentFrame() {
         stackFrame = null;
+        stackFrameDump = null;
+        variables.clear();
     }
 
     private void invalidateCurrentThread() {
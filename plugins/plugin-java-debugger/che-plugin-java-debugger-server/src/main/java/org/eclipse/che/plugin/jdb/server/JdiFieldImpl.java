@@ -22,6 +22,7 @@ public class JdiFieldImpl implements JdiField, Comparable<JdiFieldImpl> {
     private final Field           field;
     private final ReferenceType   type;
     private final ObjectReference object;
+    private       JdiValue        value;
 
     public JdiFieldImpl(Field field, ObjectReference object) {
         this.field = field;
@@ -35,6 +36,18 @@ public class JdiFieldImpl implements JdiField, Comparable<JdiFieldImpl> {
         this.object = null;
     }
 
+    /** Creates field which value is already read from the target JVM, e.g. together with values of other fields. */
+    public JdiFieldImpl(Field field, ObjectReference object, Value value) {
+        this(field, object);
+        this.value = toJdiValue(value);
+    }
+
+    /** Creates static field which value is already read from the target JVM. */
+    public JdiFieldImpl(Field field, ReferenceType type, Value value) {
+        this(field, type);
+        this.value = toJdiValue(value);
+    }
+
     @Override
     public String getName() {
         return field.name();
@@ -72,11 +85,14 @@ public class JdiFieldImpl implements JdiField, Comparable<JdiFieldImpl> {
 
     @Override
     public JdiValue getValue() {
-        Value value = object == null ? type.getValue(field) : object.getValue(field);
         if (value == null) {
-            return new JdiNullValue();
+            value = toJdiValue(object == null ? type.getValue(field) : object.getValue(field));
         }
-        return new JdiValueImpl(value);
+        return value;
+    }
+
+    private static JdiValue toJdiValue(Value value) {
+        return value == null ? new JdiNullValue() : new JdiValueImpl(value);
     }
 
     @Override
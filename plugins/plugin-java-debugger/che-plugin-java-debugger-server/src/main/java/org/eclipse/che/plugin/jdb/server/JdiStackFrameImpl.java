@@ -18,12 +18,16 @@ import com.sun.jdi.NativeMethodException;
 import com.sun.jdi.ObjectReference;
 import com.sun.jdi.ReferenceType;
 import com.sun.jdi.StackFrame;
+import com.sun.jdi.Value;
 
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 import org.eclipse.che.plugin.jdb.server.exceptions.DebuggerAbsentInformationException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toList;
 
 /** @author andrew00x */
 public class JdiStackFrameImpl implements JdiStackFrame {
@@ -39,21 +43,25 @@ public class JdiStackFrameImpl implements JdiStackFrame {
     public JdiField[] getFields() throws DebuggerException {
         if (fields == null) {
             try {
+                // values of all the fields are read with a single request to the target JVM
                 ObjectReference object = stackFrame.thisObject();
                 if (object == null) {
                     ReferenceType type = stackFrame.location().declaringType();
-                    List<Field> fs = stackFrame.location().declaringType().allFields();
+                    List<Field> fs = type.allFields();
+                    // type may provide values of static fields only
+                    Map<Field, Value> values = type.getValues(fs.stream().filter(Field::isStatic).collect(toList()));
                     fields = new JdiField[fs.size()];
                     int i = 0;
                     for (Field f : fs) {
-                        fields[i++] = new JdiFieldImpl(f, type);
+                        fields[i++] = f.isStatic() ? new JdiFieldImpl(f, type, values.get(f)) : new JdiFieldImpl(f, type);
                     }
                 } else {
                     List<Field> fs = object.referenceType().allFields();
+                    Map<Field, Value> values = object.getValues(fs);
                     fields = new JdiField[fs.size()];
                     int i = 0;
                     for (Field f : fs) {
-                        fields[i++] = new JdiFieldImpl(f, object);
+                        fields[i++] = new JdiFieldImpl(f, object, values.get(f));
                     }
                 }
 
@@ -83,10 +91,11 @@ public class JdiStackFrameImpl implements JdiStackFrame {
         if (localVariables == null) {
             try {
                 List<LocalVariable> targetVariables = stackFrame.visibleVariables();
+                Map<LocalVariable, Value> values = stackFrame.getValues(targetVariables);
                 localVariables = new JdiLocalVariable[targetVariables.size()];
                 int i = 0;
                 for (LocalVariable var : targetVariables) {
-                    localVariables[i++] = new JdiLocalVariableImpl(stackFrame, var);
+                    localVariables[i++] = new JdiLocalVariableImpl(stackFrame, var, values.get(var));
                 }
             } catch (AbsentInformationException e) {
                 throw new DebuggerAbsentInformationException(e.getMessage(), e);
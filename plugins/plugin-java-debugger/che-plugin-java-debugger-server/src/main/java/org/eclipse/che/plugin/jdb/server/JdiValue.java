@@ -12,6 +12,8 @@ package org.eclipse.che.plugin.jdb.server;
 
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 
+import java.util.Arrays;
+
 /**
  * Value of JdiVariable.
  *
@@ -37,6 +39,25 @@ public interface JdiValue {
      */
     JdiVariable[] getVariables() throws DebuggerException;
 
+    /**
+     * Get range of nested variables. Is used to expand values with lots of nested variables, e.g. arrays, page by page.
+     *
+     * @param skipCount
+     *         number of nested variables to skip
+     * @param maxItems
+     *         max number of nested variables to return, negative value means no limit
+     * @return nested variables in the requested range
+     * @throws DebuggerException
+     *         if an error occurs
+     * @see #getVariables()
+     */
+    default JdiVariable[] getVariables(int skipCount, int maxItems) throws DebuggerException {
+        final JdiVariable[] variables = getVariables();
+        final int from = Math.min(skipCount, variables.length);
+        final int to = maxItems < 0 ? variables.length : (int)Math.min((long)from + maxItems, variables.length);
+        return Arrays.copyOfRange(variables, from, to);
+    }
+
     /**
      * Get nested variable by name.
      *
@@ -20,7 +20,9 @@ import com.sun.jdi.Value;
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /** @author andrew00x */
 public class JdiValueImpl implements JdiValue {
@@ -46,20 +48,17 @@ public class JdiValueImpl implements JdiValue {
                 variables = new JdiVariable[0];
             } else {
                 if (isArray()) {
-                    ArrayReference array = (ArrayReference)value;
-                    int length = array.length();
-                    variables = new JdiVariable[length];
-                    for (int i = 0; i < length; i++) {
-                        variables[i] = new JdiArrayElementImpl(i, array.getValue(i));
-                    }
+                    variables = getElements(0, ((ArrayReference)value).length());
                 } else {
                     ObjectReference object = (ObjectReference)value;
                     ReferenceType type = object.referenceType();
                     List<Field> fields = type.allFields();
+                    // values of all the fields are read with a single request to the target JVM
+                    Map<Field, Value> values = object.getValues(fields);
                     variables = new JdiVariable[fields.size()];
                     int i = 0;
                     for (Field f : fields) {
-                        variables[i++] = new JdiFieldImpl(f, object);
+                        variables[i++] = new JdiFieldImpl(f, object, values.get(f));
                     }
                     // See JdiFieldImpl#compareTo(JdiFieldImpl).
                     Arrays.sort(variables);
@@ -69,11 +68,26 @@ public class JdiValueImpl implements JdiValue {
         return variables;
     }
 
+    @Override
+    public JdiVariable[] getVariables(int skipCount, int maxItems) throws DebuggerException {
+        if (variables != null || !isArray()) {
+            return JdiValue.super.getVariables(skipCount, maxItems);
+        }
+        // read only requested elements, array may be too big to be read at once
+        final int length = ((ArrayReference)value).length();
+        final int from = Math.min(skipCount, length);
+        final int to = maxItems < 0 ? length : (int)Math.min((long)from + maxItems, length);
+        return getElements(from, to - from);
+    }
+
     @Override
     public JdiVariable getVariableByName(String name) throws DebuggerException {
         if (name == null) {
             throw new IllegalArgumentException("Variable name may not be null. ");
         }
+        if (variables == null && isArray()) {
+            return getElementByName(name);
+        }
         for (JdiVariable variable : getVariables()) {
             if (name.equals(variable.getName())) {
                 return variable;
@@ -82,6 +96,34 @@ public class JdiValueImpl implements JdiValue {
         return null;
     }
 
+    private JdiVariable[] getElements(int from, int length) {
+        ArrayReference array = (ArrayReference)value;
+        List<Value> values = length == 0 ? Collections.emptyList() : array.getValues(from, length);
+        JdiVariable[] elements = new JdiVariable[values.size()];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = new JdiArrayElementImpl(from + i, values.get(i));
+        }
+        return elements;
+    }
+
+    /** Reads single element of array, name of element is expected in form <i>[i]</i>. */
+    private JdiVariable getElementByName(String name) {
+        if (name.length() < 3 || name.charAt(0) != '[' || name.charAt(name.length() - 1) != ']') {
+            return null;
+        }
+        final int index;
+        try {
+            index = Integer.parseInt(name.substring(1, name.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        ArrayReference array = (ArrayReference)value;
+        if (index < 0 || index >= array.length()) {
+            return null;
+        }
+        return new JdiArrayElementImpl(index, array.getValue(index));
+    }
+
     private boolean isArray() {
         return value instanceof ArrayReference;
     }
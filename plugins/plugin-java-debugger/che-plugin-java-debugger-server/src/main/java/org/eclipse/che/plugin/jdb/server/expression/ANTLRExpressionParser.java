@@ -18,12 +18,13 @@ import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.tree.CommonTreeNodeStream;
 
 /**
- * ANTLR based implementation of ExpressionParser.
+ * ANTLR based implementation of ExpressionParser. Expression is parsed once, on the first evaluation,
+ * the syntax tree is shared by the next evaluations which may be performed concurrently.
  *
  * @author andrew00x
  */
 public final class ANTLRExpressionParser extends ExpressionParser {
-    private CommonTreeNodeStream nodes;
+    private volatile Object tree;
 
     public ANTLRExpressionParser(String expression) {
         super(expression);
@@ -32,22 +33,22 @@ public final class ANTLRExpressionParser extends ExpressionParser {
     @Override
     public Value evaluate(Evaluator ev) {
         try {
-            if (nodes == null) {
-                parse();
-            } else {
-                nodes.reset();
+            Object ast = tree;
+            if (ast == null) {
+                tree = ast = parse();
             }
-            JavaTreeParser walker = new JavaTreeParser(nodes, ev);
+            // tree walker doesn't modify the tree, but the node stream keeps position of the walker
+            JavaTreeParser walker = new JavaTreeParser(new CommonTreeNodeStream(ast), ev);
             return walker.evaluate();
         } catch (RecognitionException e) {
             throw new ExpressionException(e.getMessage(), e);
         }
     }
 
-    private void parse() throws RecognitionException {
+    private Object parse() throws RecognitionException {
         JavaLexer lexer = new JavaLexer(new ANTLRStringStream(getExpression()));
         CommonTokenStream tokens = new CommonTokenStream(lexer);
         JavaParser parser = new JavaParser(tokens);
-        nodes = new CommonTreeNodeStream(parser.expression().getTree());
+        return parser.expression().getTree();
     }
 }
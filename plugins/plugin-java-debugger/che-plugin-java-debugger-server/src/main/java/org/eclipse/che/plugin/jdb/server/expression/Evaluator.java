@@ -70,11 +70,41 @@ public class Evaluator {
     private final VirtualMachine  vm;
     private final ThreadReference thread;
 
+    private boolean sideEffects;
+
     public Evaluator(VirtualMachine vm, ThreadReference thread) {
         this.vm = vm;
         this.thread = thread;
     }
 
+    /**
+     * Returns {@code true} if evaluated expressions might change state of the target JVM,
+     * i.e. assigned a value or invoked a method.
+     */
+    public boolean hasSideEffects() {
+        return sideEffects;
+    }
+
+    private static boolean isAssignment(int op) {
+        switch (op) {
+            case JavaParser.ASSIGN:
+            case JavaParser.PLUS_ASSIGN:
+            case JavaParser.MINUS_ASSIGN:
+            case JavaParser.STAR_ASSIGN:
+            case JavaParser.DIV_ASSIGN:
+            case JavaParser.MOD_ASSIGN:
+            case JavaParser.AND_ASSIGN:
+            case JavaParser.OR_ASSIGN:
+            case JavaParser.XOR_ASSIGN:
+            case JavaParser.SHIFT_LEFT_ASSIGN:
+            case JavaParser.SHIFT_RIGHT_ASSIGN:
+            case JavaParser.BIT_SHIFT_RIGHT_ASSIGN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private static boolean isPrimitive(Type type) {
         return PRIMITIVE_TYPES.contains(type.name());
     }
@@ -396,6 +426,7 @@ public class Evaluator {
         if (method == null) {
             throw new ExpressionException("No method with name " + name + " matched to specified arguments for " + type.name());
         }
+        sideEffects = true;
         try {
             return new ReadOnlyValue(object.invokeMethod(thread, method, arguments, 0));
         } catch (InvalidTypeException | ClassNotLoadedException | IncompatibleThreadStateException | InvocationException e) {
@@ -466,6 +497,9 @@ public class Evaluator {
     }
 
     public ExpressionValue operation(ExpressionValue leftExpression, ExpressionValue rightExpression, int op) {
+        if (isAssignment(op)) {
+            sideEffects = true;
+        }
         if (JavaParser.ASSIGN == op) {
             leftExpression.setValue(rightExpression.getValue());
             return leftExpression;
@@ -10,8 +10,21 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.jdb.server.expression;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
 /** @author andrew00x */
 public abstract class ExpressionParser {
+    /**
+     * Parsers of the recently used expressions. Parser keeps syntax tree of its expression, so watch expressions
+     * and breakpoint conditions which are evaluated on each suspend are parsed only once.
+     */
+    private static final LoadingCache<String, ExpressionParser> PARSERS =
+            CacheBuilder.newBuilder()
+                        .maximumSize(500)
+                        .build(CacheLoader.from(ANTLRExpressionParser::new));
+
     private final String expression;
 
     protected ExpressionParser(String expression) {
@@ -19,15 +32,16 @@ public abstract class ExpressionParser {
     }
 
     /**
-     * Create new instance of parser for specified Java expression.
+     * Get parser for specified Java expression. Parsers are cached by expression, so the same instance
+     * may be returned for the same expression and used concurrently.
      *
      * @param expression
      *         Java language expression
      * @return concrete implementation of ExpressionParser
      */
     public static ExpressionParser newInstance(String expression) {
-        // At the moment create instance of ANTLRExpressionParser directly.
-        return new ANTLRExpressionParser(expression);
+        // At the moment use ANTLRExpressionParser directly.
+        return PARSERS.getUnchecked(expression);
     }
 
     /**
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import com.sun.jdi.IntegerValue;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.StackFrame;
+import com.sun.jdi.ThreadReference;
+import com.sun.jdi.VirtualMachine;
+import com.sun.jdi.event.ClassPrepareEvent;
+import com.sun.jdi.event.Event;
+import com.sun.jdi.event.EventSet;
+
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
+import org.eclipse.che.api.debug.shared.model.impl.EvaluationResultImpl;
+import org.eclipse.che.api.debugger.server.Debugger.DebuggerCallback;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link JavaDebugger#evaluateAll(List)}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class JavaDebuggerEvaluateAllTest {
+    @Mock
+    private VirtualMachine   vm;
+    @Mock
+    private ThreadReference  thread;
+    @Mock
+    private StackFrame       frame;
+    @Mock
+    private IntegerValue     one;
+    @Mock
+    private IntegerValue     two;
+    @Mock
+    private DebuggerCallback callback;
+
+    private JavaDebugger debugger;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(thread.frame(0)).thenReturn(frame);
+        when(vm.mirrorOf(1)).thenReturn(one);
+        when(vm.mirrorOf(2)).thenReturn(two);
+
+        debugger = new JavaDebugger(vm, callback);
+
+        ReferenceType prepared = mock(ReferenceType.class);
+        when(prepared.name()).thenReturn("com.Obj");
+        ClassPrepareEvent event = mock(ClassPrepareEvent.class);
+        when(event.thread()).thenReturn(thread);
+        when(event.referenceType()).thenReturn(prepared);
+        EventSet eventSet = mock(EventSet.class);
+        when(eventSet.iterator()).thenReturn(Collections.<Event>singletonList(event).iterator());
+        debugger.handleEvents(eventSet);
+    }
+
+    @Test
+    public void shouldReturnResultsInOrderOfExpressions() throws Exception {
+        List<EvaluationResult> results = debugger.evaluateAll(Arrays.asList("2", "1", "2"));
+
+        assertEquals(results, Arrays.asList(EvaluationResultImpl.value(two.toString()),
+                                            EvaluationResultImpl.value(one.toString()),
+                                            EvaluationResultImpl.value(two.toString())));
+    }
+
+    @Test
+    public void shouldReturnErrorForExpressionWhichCannotBeEvaluated() throws Exception {
+        List<EvaluationResult> results = debugger.evaluateAll(Arrays.asList("1", "unknown", "2"));
+
+        assertEquals(results, Arrays.asList(EvaluationResultImpl.value(one.toString()),
+                                            EvaluationResultImpl.error("Value is not object. Cannot invoke method unknown"),
+                                            EvaluationResultImpl.value(two.toString())));
+    }
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import com.sun.jdi.Field;
+import com.sun.jdi.IntegerValue;
+import com.sun.jdi.LocalVariable;
+import com.sun.jdi.ObjectReference;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.StackFrame;
+import com.sun.jdi.ThreadReference;
+import com.sun.jdi.Value;
+import com.sun.jdi.VirtualMachine;
+import com.sun.jdi.event.ClassPrepareEvent;
+import com.sun.jdi.event.Event;
+import com.sun.jdi.event.EventSet;
+import com.sun.jdi.request.EventRequestManager;
+import com.sun.jdi.request.StepRequest;
+
+import org.eclipse.che.api.debug.shared.model.SimpleValue;
+import org.eclipse.che.api.debug.shared.model.impl.VariablePathImpl;
+import org.eclipse.che.api.debugger.server.Debugger.DebuggerCallback;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for caching of variables resolved by path in {@link JavaDebugger}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class JavaDebuggerVariablesCacheTest {
+    @Mock
+    private VirtualMachine      vm;
+    @Mock
+    private ThreadReference     thread;
+    @Mock
+    private StackFrame          frame;
+    @Mock
+    private LocalVariable       local;
+    @Mock
+    private ObjectReference     object;
+    @Mock
+    private ReferenceType       type;
+    @Mock
+    private Field               field;
+    @Mock
+    private IntegerValue        fieldValue;
+    @Mock
+    private EventRequestManager eventRequestManager;
+    @Mock
+    private DebuggerCallback    callback;
+
+    private List<LocalVariable> locals;
+    private List<Field>         fields;
+    private JavaDebugger        debugger;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        locals = singletonList(local);
+        fields = singletonList(field);
+        when(thread.frame(0)).thenReturn(frame);
+        when(local.name()).thenReturn("obj");
+        when(local.signature()).thenReturn("Lcom/Obj;");
+        when(frame.visibleVariables()).thenReturn(locals);
+        when(frame.getValues(locals)).thenReturn(Collections.<LocalVariable, Value>singletonMap(local, object));
+        when(object.referenceType()).thenReturn(type);
+        when(type.allFields()).thenReturn(fields);
+        when(object.getValues(fields)).thenReturn(Collections.<Field, Value>singletonMap(field, fieldValue));
+        when(field.name()).thenReturn("count");
+        when(field.signature()).thenReturn("I");
+        when(field.typeName()).thenReturn("int");
+
+        debugger = new JavaDebugger(vm, callback);
+        suspend();
+    }
+
+    @Test
+    public void shouldResolveNestedVariableFromCachedParent() throws Exception {
+        SimpleValue obj = debugger.getValue(new VariablePathImpl("obj"));
+        SimpleValue count = debugger.getValue(new VariablePathImpl(Arrays.asList("obj", "count")));
+        debugger.getValue(new VariablePathImpl(Arrays.asList("obj", "count")));
+
+        assertEquals(obj.getVariables().size(), 1);
+        assertEquals(obj.getVariables().get(0).getName(), "count");
+        assertEquals(count.getValue(), fieldValue.toString());
+        verify(thread, times(1)).frame(0);
+        verify(frame, times(1)).getValues(locals);
+        verify(object, times(1)).getValues(fields);
+    }
+
+    @Test
+    public void shouldKeepCachedVariablesAfterEvaluationWithoutSideEffects() throws Exception {
+        debugger.getValue(new VariablePathImpl(Arrays.asList("obj", "count")));
+
+        debugger.evaluateAll(singletonList("1"));
+        debugger.getValue(new VariablePathImpl(Arrays.asList("obj", "count")));
+
+        verify(frame, times(1)).getValues(locals);
+        verify(object, times(1)).getValues(fields);
+    }
+
+    @Test
+    public void shouldReadVariablesAgainAfterResume() throws Exception {
+        debugger.getValue(new VariablePathImpl(Arrays.asList("obj", "count")));
+
+        debugger.resume(null);
+        suspend();
+        debugger.getValue(new VariablePathImpl(Arrays.asList("obj", "count")));
+
+        verify(vm).resume();
+        verify(thread, times(2)).frame(0);
+        verify(frame, times(2)).getValues(locals);
+        verify(object, times(2)).getValues(fields);
+    }
+
+    @Test
+    public void shouldReadVariablesAgainAfterStep() throws Exception {
+        when(vm.eventRequestManager()).thenReturn(eventRequestManager);
+        when(eventRequestManager.createStepRequest(thread, StepRequest.STEP_LINE, StepRequest.STEP_OVER))
+                .thenReturn(mock(StepRequest.class));
+        debugger.getValue(new VariablePathImpl(Arrays.asList("obj", "count")));
+
+        debugger.stepOver(null);
+        suspend();
+        debugger.getValue(new VariablePathImpl(Arrays.asList("obj", "count")));
+
+        verify(vm).resume();
+        verify(thread, times(2)).frame(0);
+        verify(frame, times(2)).getValues(locals);
+        verify(object, times(2)).getValues(fields);
+    }
+
+    /** Makes {@link #thread} current thread of the debugger as it happens when the target VM is suspended. */
+    private void suspend() throws Exception {
+        ReferenceType prepared = mock(ReferenceType.class);
+        when(prepared.name()).thenReturn("com.Obj");
+        ClassPrepareEvent event = mock(ClassPrepareEvent.class);
+        when(event.thread()).thenReturn(thread);
+        when(event.referenceType()).thenReturn(prepared);
+        EventSet eventSet = mock(EventSet.class);
+        when(eventSet.iterator()).thenReturn(Collections.<Event>singletonList(event).iterator());
+
+        debugger.handleEvents(eventSet);
+    }
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server;
+
+import com.sun.jdi.ArrayReference;
+import com.sun.jdi.Field;
+import com.sun.jdi.IntegerValue;
+import com.sun.jdi.ObjectReference;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.Value;
+
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests for {@link JdiValueImpl}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class JdiValueImplTest {
+    @Mock
+    private ArrayReference  array;
+    @Mock
+    private ObjectReference object;
+    @Mock
+    private ReferenceType   type;
+
+    @Test
+    public void shouldReadOnlyRequestedPageOfArray() throws Exception {
+        when(array.length()).thenReturn(1000);
+        when(array.getValues(10, 5)).thenReturn(values(5));
+
+        JdiVariable[] page = new JdiValueImpl(array).getVariables(10, 5);
+
+        assertEquals(page.length, 5);
+        assertEquals(page[0].getName(), "[10]");
+        assertEquals(page[4].getName(), "[14]");
+        verify(array, never()).getValues();
+        verify(array, never()).getValue(anyInt());
+    }
+
+    @Test
+    public void shouldLimitPageByArrayLength() throws Exception {
+        when(array.length()).thenReturn(12);
+        when(array.getValues(10, 2)).thenReturn(values(2));
+
+        assertEquals(new JdiValueImpl(array).getVariables(10, 5).length, 2);
+        assertEquals(new JdiValueImpl(array).getVariables(20, 5).length, 0);
+    }
+
+    @Test
+    public void shouldReadSingleElementOfArrayByName() throws Exception {
+        when(array.length()).thenReturn(1000);
+        Value element = mock(IntegerValue.class);
+        when(array.getValue(7)).thenReturn(element);
+
+        JdiValueImpl value = new JdiValueImpl(array);
+
+        assertEquals(value.getVariableByName("[7]").getName(), "[7]");
+        assertNull(value.getVariableByName("[1000]"));
+        assertNull(value.getVariableByName("length"));
+        verify(array, never()).getValues(anyInt(), anyInt());
+    }
+
+    @Test
+    public void shouldReadValuesOfAllFieldsWithSingleRequest() throws Exception {
+        Field first = field("first");
+        Field second = field("second");
+        List<Field> fields = Arrays.asList(second, first);
+        Map<Field, Value> values = new HashMap<>();
+        values.put(first, mock(IntegerValue.class));
+        values.put(second, null);
+        when(object.referenceType()).thenReturn(type);
+        when(type.allFields()).thenReturn(fields);
+        when(object.getValues(fields)).thenReturn(values);
+
+        JdiVariable[] variables = new JdiValueImpl(object).getVariables();
+
+        assertEquals(variables.length, 2);
+        assertEquals(variables[0].getName(), "first");
+        assertEquals(variables[1].getValue().getAsString(), "null");
+        verify(object, never()).getValue(any(Field.class));
+    }
+
+    private static Field field(String name) {
+        Field field = mock(Field.class);
+        when(field.name()).thenReturn(name);
+        return field;
+    }
+
+    private static List<Value> values(int size) {
+        List<Value> values = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            values.add(mock(IntegerValue.class));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server.expression;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.tree.CommonTreeNodeStream;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the full lexer and parser pipeline with the work which is left for each evaluation of the cached
+ * parser, i.e. lookup of the parser and walk over its tree. Evaluation itself needs target JVM, see JavaDebuggerTest.
+ */
+public class ExpressionParserBenchmark {
+    private static final String[] EXPRESSIONS = {"i",
+                                                 "this.name",
+                                                 "list.size() > 10 && !map.isEmpty()",
+                                                 "array[i + 1].value * 2 - offset",
+                                                 "\"prefix\" + object.toString().substring(0, 5)"};
+    private static final int      WARMUP      = 2_000;
+
+    /** Trees kept by the cached parsers. */
+    private static final Map<String, Object> TREES = new HashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        for (String expression : EXPRESSIONS) {
+            TREES.put(expression, parse(expression));
+        }
+        for (int i = 0; i < WARMUP; i++) {
+            parseAll();
+            cached();
+        }
+        report("parse", iterations, ExpressionParserBenchmark::parseAll);
+        report("cached", iterations, ExpressionParserBenchmark::cached);
+    }
+
+    /** Full lexer and parser pipeline, is done for each evaluation without cache. */
+    private static int parseAll() throws Exception {
+        int nodes = 0;
+        for (String expression : EXPRESSIONS) {
+            nodes += walk(parse(expression));
+        }
+        return nodes;
+    }
+
+    /** Lookup of the cached parser and creation of the node stream over its tree, is done for each evaluation with cache. */
+    private static int cached() throws Exception {
+        int nodes = 0;
+        for (String expression : EXPRESSIONS) {
+            nodes += ExpressionParser.newInstance(expression).getExpression().length();
+            nodes += walk(TREES.get(expression));
+        }
+        return nodes;
+    }
+
+    private static Object parse(String expression) throws Exception {
+        return new JavaParser(new CommonTokenStream(new JavaLexer(new ANTLRStringStream(expression)))).expression().getTree();
+    }
+
+    private static int walk(Object tree) {
+        CommonTreeNodeStream nodes = new CommonTreeNodeStream(tree);
+        int size = 0;
+        while (nodes.LA(1) != Token.EOF) {
+            nodes.consume();
+            size++;
+        }
+        return size;
+    }
+
+    private static void report(String name, int iterations, Operation operation) throws Exception {
+        long result = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            result += operation.run();
+        }
+        final double micros = (System.nanoTime() - start) / 1e3 / iterations;
+        System.out.printf("%-10s %10.2f us/op for %d expressions (%d)%n", name, micros, EXPRESSIONS.length, result);
+    }
+
+    private interface Operation {
+        int run() throws Exception;
+    }
+}
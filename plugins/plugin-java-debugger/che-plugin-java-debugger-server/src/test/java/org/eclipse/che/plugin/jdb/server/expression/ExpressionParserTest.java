@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.jdb.server.expression;
+
+import com.sun.jdi.Value;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Tests for caching of parsers in {@link ExpressionParser}.
+ */
+public class ExpressionParserTest {
+    private static final int THREADS     = 8;
+    private static final int EVALUATIONS = 200;
+
+    @Test
+    public void shouldReturnSameParserForSameExpression() throws Exception {
+        ExpressionParser parser = ExpressionParser.newInstance("a + b");
+
+        assertSame(ExpressionParser.newInstance("a + b"), parser);
+        assertNotSame(ExpressionParser.newInstance("a - b"), parser);
+    }
+
+    @Test
+    public void shouldEvaluateSameParserConcurrently() throws Exception {
+        final ExpressionParser parser = ExpressionParser.newInstance("x + y");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final Value expected = mock(Value.class);
+                final Evaluator evaluator = evaluator(expected);
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < EVALUATIONS; j++) {
+                            assertSame(parser.evaluate(evaluator), expected);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Creates evaluator which gives the specified value as the sum of local variables x and y. */
+    private static Evaluator evaluator(Value sum) {
+        Evaluator evaluator = mock(Evaluator.class);
+        ExpressionValue x = mock(ExpressionValue.class);
+        ExpressionValue y = mock(ExpressionValue.class);
+        ExpressionValue result = mock(ExpressionValue.class);
+        when(evaluator.getThisObject()).thenReturn(mock(ExpressionValue.class));
+        when(evaluator.getLocalVariable("x")).thenReturn(x);
+        when(evaluator.getLocalVariable("y")).thenReturn(y);
+        when(evaluator.operation(any(ExpressionValue.class), any(ExpressionValue.class), anyInt())).thenReturn(result);
+        when(result.getValue()).thenReturn(sum);
+        return evaluator;
+    }
+}
@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt.core.search;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.internal.compiler.util.Util;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Content-addressed store of prebuilt JDT indexes of jar files which is shared between workspaces.
+ * <p/>
+ * Index of a jar is stored under SHA-1 hash of the jar content, so the same jar (e.g. {@code rt.jar} or maven artifact)
+ * is indexed once and its index is reused by every workspace agent which has the store mounted, whatever the path to the jar is.
+ * The store is read-only for agents unless publishing is enabled, in this case indexes built by the agent
+ * for unknown jars are added to the store.
+ * <p/>
+ * Hashes of the jars are remembered in the local index directory together with size and modification time of the jar,
+ * so the jar content is read only when the jar is seen for the first time or when it was changed.
+ */
+@Singleton
+public class SharedIndexStore {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedIndexStore.class);
+
+    private static final String INDEX_EXTENSION = ".index";
+    private static final String HASHES_FILE     = "sharedIndexHashes.txt";
+
+    private final Path    storeDir;
+    private final boolean publish;
+    private final Path    hashesFile;
+
+    /** Hashes of the jars keyed by absolute path of the jar. */
+    private final Map<String, JarHash> hashes = new ConcurrentHashMap<>();
+
+    @Inject
+    public SharedIndexStore(@Named("che.jdt.shared.index.dir") String storeDir,
+                            @Named("che.jdt.shared.index.publish") boolean publish,
+                            @Named("che.jdt.workspace.index.dir") String indexDir) {
+        this.storeDir = Paths.get(storeDir);
+        this.publish = publish;
+        this.hashesFile = Paths.get(indexDir, HASHES_FILE);
+        loadHashes();
+    }
+
+    @Inject
+    public void register(ResourcesPlugin plugin) {
+        JavaModelManager.getIndexManager().setSharedIndexStore(this);
+    }
+
+    /**
+     * Finds prebuilt index of the jar.
+     *
+     * @param containerPath
+     *         path to the jar file
+     * @return URL of the prebuilt index or {@code null} if the store has no index for the jar
+     */
+    public URL find(IPath containerPath) {
+        if (!Files.isDirectory(storeDir)) {
+            return null;
+        }
+        File jar = containerPath.toFile();
+        if (!isArchive(jar)) {
+            return null;
+        }
+        String hash = hash(jar);
+        if (hash == null) {
+            return null;
+        }
+        Path indexFile = getIndexFile(hash);
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        try {
+            return indexFile.toUri().toURL();
+        } catch (MalformedURLException e) {
+            LOG.debug(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Adds index which was built by this agent to the store, does nothing if publishing is disabled
+     * or the store already has index of the jar.
+     *
+     * @param containerPath
+     *         path to the jar file
+     * @param indexFile
+     *         index of the jar
+     */
+    public void publish(IPath containerPath, File indexFile) {
+        if (!publish || !Files.isDirectory(storeDir) || !indexFile.isFile()) {
+            return;
+        }
+        File jar = containerPath.toFile();
+        if (!isArchive(jar)) {
+            return;
+        }
+        String hash = hash(jar);
+        if (hash == null) {
+            return;
+        }
+        Path target = getIndexFile(hash);
+        if (Files.exists(target)) {
+            return;
+        }
+        Path tmp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.copy(indexFile.toPath(), tmp, REPLACE_EXISTING);
+            Files.move(tmp, target, ATOMIC_MOVE);
+            LOG.debug("Published index of {} to {}", jar, target);
+        } catch (IOException e) {
+            LOG.warn("Can't publish index of {} to shared index store", jar, e);
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private Path getIndexFile(String hash) {
+        return storeDir.resolve(hash.substring(0, 2)).resolve(hash + INDEX_EXTENSION);
+    }
+
+    private String hash(File jar) {
+        String path = jar.getAbsolutePath();
+        long size = jar.length();
+        long modified = jar.lastModified();
+        JarHash known = hashes.get(path);
+        if (known != null && known.size == size && known.modified == modified) {
+            return known.hash;
+        }
+        String hash = computeHash(jar);
+        if (hash != null) {
+            JarHash computed = new JarHash(hash, size, modified);
+            hashes.put(path, computed);
+            saveHash(path, computed);
+        }
+        return hash;
+    }
+
+    private void loadHashes() {
+        if (!Files.isRegularFile(hashesFile)) {
+            return;
+        }
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(hashesFile, UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // hash size modified path, later lines override earlier ones
+                String[] parts = line.split(" ", 4);
+                if (parts.length == 4) {
+                    try {
+                        hashes.put(parts[3], new JarHash(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2])));
+                        lines++;
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Can't read hashes of jars from {}", hashesFile, e);
+            return;
+        }
+        if (lines > 2 * hashes.size()) {
+            compactHashes();
+        }
+    }
+
+    private synchronized void saveHash(String path, JarHash hash) {
+        try {
+            Files.createDirectories(hashesFile.getParent());
+            try (Writer writer = Files.newBufferedWriter(hashesFile, UTF_8, CREATE, APPEND)) {
+                writer.write(hash.toLine(path));
+            }
+        } catch (IOException e) {
+            LOG.debug("Can't save hash of {}", path, e);
+        }
+    }
+
+    private synchronized void compactHashes() {
+        List<String> lines = new ArrayList<>(hashes.size());
+        hashes.forEach((path, hash) -> lines.add(hash.toLine(path).trim()));
+        try {
+            Path tmp = Files.createTempFile(hashesFile.getParent(), HASHES_FILE, ".tmp");
+            Files.write(tmp, lines, UTF_8);
+            Files.move(tmp, hashesFile, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOG.debug("Can't compact hashes of jars in {}", hashesFile, e);
+        }
+    }
+
+    private static String computeHash(File jar) {
+        try (InputStream in = Files.newInputStream(jar.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder result = new StringBuilder();
+            for (byte b : digest.digest()) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            LOG.debug("Can't compute hash of {}", jar, e);
+            return null;
+        }
+    }
+
+    private static boolean isArchive(File file) {
+        return file.isFile() && Util.isArchiveFileName(file.getName());
+    }
+
+    private static class JarHash {
+        private final String hash;
+        private final long   size;
+        private final long   modified;
+
+        private JarHash(String hash, long size, long modified) {
+            this.hash = hash;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        private String toLine(String path) {
+            return hash + ' ' + size + ' ' + modified + ' ' + path + '\n';
+        }
+    }
+}
@@ -15,12 +15,18 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.ide.ext.java.shared.TextChanges;
+import org.eclipse.che.ide.ext.java.shared.dto.Change;
 import org.eclipse.che.ide.ext.java.shared.dto.HighlightedPosition;
 import org.eclipse.che.ide.ext.java.shared.dto.Problem;
 import org.eclipse.che.ide.ext.java.shared.dto.ReconcileResult;
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaModelStatusConstants;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IProblemRequestor;
 import org.eclipse.jdt.core.IType;
@@ -33,51 +39,98 @@ import org.eclipse.jdt.internal.core.ClassFileWorkingCopy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
+ * Reconciles java compilation units opened in the editor.
+ * <p/>
+ * When editor opens a file, working copy of the compilation unit is created and kept open while the editor is open.
+ * The editor sends its text changes, they are applied to the working copy and working copy is reconciled
+ * after short delay, so burst of changes causes single reconcile. Reconcile which is in progress is cancelled
+ * when new changes arrive. Problems and highlighted positions are sent as delta to the previously sent result,
+ * elements of the previous result are moved along with the changes, see {@link TextChanges}, so elements which are
+ * only moved aren't sent again.
+ * <p/>
+ * Operations on the working copy of a compilation unit are performed one at a time in order they are requested,
+ * working copies of different compilation units are reconciled concurrently.
+ *
  * @author Evgen Vidolob
  */
 @Singleton
 public class JavaReconciler {
     private static final Logger LOG = LoggerFactory.getLogger(JavaReconciler.class);
 
+    /** Delay between receiving changes and reconcile of the working copy. */
+    private static final long RECONCILE_DELAY_MS      = 300;
+    /** Working copies which weren't accessed during this time are discarded. */
+    private static final long SESSION_IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long RESULT_TIMEOUT_SEC      = 60;
+    /** Version of the content of the file which isn't opened in the editor. */
+    private static final int  FILE_CONTENT_VERSION    = 0;
 
-    private SemanticHighlightingReconciler semanticHighlighting;
+    private final SemanticHighlightingReconciler  semanticHighlighting;
+    private final Map<String, WorkingCopySession> sessions = new ConcurrentHashMap<>();
+    /** Only schedules delayed operations, which are performed by the workers. */
+    private final ScheduledExecutorService        scheduler;
+    private final ExecutorService                 workers;
 
     @Inject
     public JavaReconciler(SemanticHighlightingReconciler semanticHighlighting) {
         this.semanticHighlighting = semanticHighlighting;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("Java Reconciler Scheduler"));
+        this.workers = Executors.newCachedThreadPool(threadFactory("Java Reconciler"));
+        scheduler.scheduleWithFixedDelay(this::discardIdleSessions, 5, 5, TimeUnit.MINUTES);
     }
 
+    /**
+     * Reconciles compilation unit of the given type and returns all its problems and highlighted positions.
+     * If the compilation unit is opened in the editor its working copy is reconciled and result has version of the editor content,
+     * otherwise content of the file is used and result has version {@code 0}.
+     */
     public ReconcileResult reconcile(IJavaProject javaProject, String fqn) throws JavaModelException {
-        final ProblemRequestor requestor = new ProblemRequestor();
-        WorkingCopyOwner wcOwner = new WorkingCopyOwner() {
-            public IProblemRequestor getProblemRequestor(ICompilationUnit unit) {
-                return requestor;
-            }
+        WorkingCopySession session = sessions.get(sessionKey(javaProject, fqn));
+        if (session != null) {
+            return await(session.submit(() -> reconcileSession(session, false, new NullProgressMonitor())));
+        }
 
-            @Override
-            public IBuffer createBuffer(ICompilationUnit workingCopy) {
-//                return BufferManager.createBuffer(workingCopy);
-//                ?????
-                return new org.eclipse.jdt.internal.ui.javaeditor.DocumentAdapter(workingCopy, (IFile)workingCopy.getResource());
-            }
-        };
+        final ProblemRequestor requestor = new ProblemRequestor();
+        WorkingCopyOwner wcOwner = createOwner(requestor);
         List<HighlightedPosition> positions = null;
         ICompilationUnit compilationUnit = null;
         try {
-            IType type = javaProject.findType(fqn);
-            if (type == null) {
+            compilationUnit = getWorkingCopy(javaProject, fqn, wcOwner);
+            if (compilationUnit == null) {
                 return null;
             }
-            if (type.isBinary()) {
-                throw new IllegalArgumentException("Can't reconcile binary type: " + fqn);
-            } else {
-                compilationUnit = type.getCompilationUnit().getWorkingCopy(wcOwner, null);
-            }
             requestor.reset();
             CompilationUnit unit = compilationUnit.reconcile(AST.JLS8, true, wcOwner, null);
             positions = semanticHighlighting.reconcileSemanticHighlight(unit);
@@ -90,23 +143,275 @@ public class JavaReconciler {
             LOG.error("Can't reconcile class: " + fqn + " in project:" + javaProject.getPath().toOSString(), e);
             throw e;
         } finally {
-            if(compilationUnit!= null && compilationUnit.isWorkingCopy()){
-                try {
-                    //todo close buffer
-                    compilationUnit.getBuffer().close();
-                    compilationUnit.discardWorkingCopy();
-                } catch (JavaModelException e) {
-                    //ignore
-                }
-            }
+            discardWorkingCopy(compilationUnit);
         }
 
         ReconcileResult result = DtoFactory.getInstance().createDto(ReconcileResult.class);
+        result.setVersion(FILE_CONTENT_VERSION);
         result.setProblems(convertProblems(requestor.problems));
         result.setHighlightedPositions(positions);
         return result;
     }
 
+    /**
+     * Opens working copy of the compilation unit which is kept until {@link #close(IJavaProject, String)} is called
+     * and reconciles it. Working copy which is already opened is discarded, so the editor can open it again
+     * to get full result when it can't apply received delta.
+     *
+     * @param javaProject
+     *         project of the compilation unit
+     * @param fqn
+     *         fully qualified name of the type
+     * @param version
+     *         version of the editor content
+     * @param content
+     *         content of the editor, if {@code null} content of the file is used
+     * @return all problems and highlighted positions of the compilation unit or {@code null} if type can't be found
+     */
+    public ReconcileResult open(IJavaProject javaProject, String fqn, int version, String content) throws JavaModelException {
+        String key = sessionKey(javaProject, fqn);
+        // changes which come after the opening are queued after it
+        WorkingCopySession session = new WorkingCopySession(workers, version);
+        WorkingCopySession previous = sessions.put(key, session);
+        if (previous != null) {
+            previous.execute(previous::discard);
+        }
+        return await(session.submit(() -> {
+            ProblemRequestor requestor = new ProblemRequestor();
+            WorkingCopyOwner wcOwner = createOwner(requestor);
+            ICompilationUnit workingCopy = null;
+            try {
+                workingCopy = getWorkingCopy(javaProject, fqn, wcOwner);
+            } finally {
+                if (workingCopy == null) {
+                    // changes which were queued after the opening are answered with null
+                    sessions.remove(key, session);
+                    session.discard();
+                }
+            }
+            if (workingCopy == null) {
+                return null;
+            }
+            session.init(workingCopy, wcOwner, requestor);
+            if (content != null) {
+                workingCopy.getBuffer().setContents(content);
+            }
+            return reconcileSession(session, false, new NullProgressMonitor());
+        }));
+    }
+
+    /**
+     * Applies changes of the editor content to the opened working copy and returns result of its reconcile.
+     * <p/>
+     * Changes are applied in order of versions, so changes which came before the changes they are based on
+     * are postponed until the missing changes are received.
+     *
+     * @param javaProject
+     *         project of the compilation unit
+     * @param fqn
+     *         fully qualified name of the type
+     * @param fromVersion
+     *         version of the editor content the changes are based on
+     * @param toVersion
+     *         version of the editor content after the changes
+     * @param changes
+     *         text changes in order they were made in the editor
+     * @return result of reconcile which may be a delta to the previous result, or {@code null} if working copy isn't opened
+     */
+    public ReconcileResult applyChanges(IJavaProject javaProject,
+                                        String fqn,
+                                        int fromVersion,
+                                        int toVersion,
+                                        List<Change> changes) throws JavaModelException {
+        WorkingCopySession session = sessions.get(sessionKey(javaProject, fqn));
+        if (session == null) {
+            return null;
+        }
+        CompletableFuture<ReconcileResult> result = session.addChanges(fromVersion, toVersion, changes);
+        session.schedule(scheduler.schedule(() -> session.execute(() -> reconcileScheduled(session)),
+                                            RECONCILE_DELAY_MS,
+                                            MILLISECONDS));
+        return await(result);
+    }
+
+    /**
+     * Discards working copy of the compilation unit which was opened with {@link #open(IJavaProject, String, int, String)}.
+     */
+    public void close(IJavaProject javaProject, String fqn) {
+        WorkingCopySession session = sessions.remove(sessionKey(javaProject, fqn));
+        if (session != null) {
+            session.execute(session::discard);
+        }
+    }
+
+    /** Returns {@code true} if working copy of the compilation unit is opened. */
+    public boolean isOpened(IJavaProject javaProject, String fqn) {
+        return sessions.containsKey(sessionKey(javaProject, fqn));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+        sessions.values().forEach(WorkingCopySession::discard);
+        sessions.clear();
+    }
+
+    private void reconcileScheduled(WorkingCopySession session) {
+        IProgressMonitor monitor = new NullProgressMonitor();
+        CompletableFuture<ReconcileResult> result;
+        synchronized (session) {
+            if (session.discarded || session.result == null) {
+                return;
+            }
+            result = session.result;
+            session.running = monitor;
+        }
+        try {
+            ReconcileResult reconcileResult = reconcileSession(session, true, monitor);
+            if (reconcileResult != null) {
+                result.complete(reconcileResult);
+            }
+        } catch (OperationCanceledException e) {
+            // newer changes were received, result will be sent after their reconcile
+        } catch (Exception e) {
+            LOG.error("Can't reconcile working copy: " + session.workingCopy.getPath(), e);
+            synchronized (session) {
+                if (session.result == result) {
+                    session.result = null;
+                }
+            }
+            result.completeExceptionally(e);
+        } finally {
+            synchronized (session) {
+                if (session.running == monitor) {
+                    session.running = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies received changes to the working copy and reconciles it.
+     *
+     * @return reconcile result or {@code null} if reconcile was cancelled by newer changes
+     */
+    private ReconcileResult reconcileSession(WorkingCopySession session, boolean delta, IProgressMonitor monitor)
+            throws JavaModelException {
+        List<Change> changes;
+        int version;
+        synchronized (session) {
+            changes = new ArrayList<>(session.changes);
+            session.changes.clear();
+            session.appliedChanges.addAll(changes);
+            version = session.version;
+        }
+        IBuffer buffer = session.workingCopy.getBuffer();
+        for (Change change : changes) {
+            buffer.replace(change.getOffset(), change.getLength(), change.getText() == null ? "" : change.getText());
+        }
+
+        session.requestor.reset();
+        CompilationUnit unit = session.workingCopy.reconcile(AST.JLS8, true, session.owner, monitor);
+        List<HighlightedPosition> positions = unit == null ? session.positions
+                                                           : semanticHighlighting.reconcileSemanticHighlight(unit);
+        List<Problem> problems = convertProblems(session.requestor.problems);
+
+        synchronized (session) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            if (delta) {
+                // changes received after this point will be reconciled by the next scheduled reconcile
+                session.result = null;
+            }
+            return session.update(version, problems, positions, delta);
+        }
+    }
+
+    private void discardIdleSessions() {
+        long now = System.currentTimeMillis();
+        sessions.entrySet().removeIf(entry -> {
+            WorkingCopySession session = entry.getValue();
+            if (now - session.lastAccess > SESSION_IDLE_TIMEOUT_MS) {
+                session.execute(session::discard);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static ICompilationUnit getWorkingCopy(IJavaProject javaProject, String fqn, WorkingCopyOwner wcOwner)
+            throws JavaModelException {
+        IType type = javaProject.findType(fqn);
+        if (type == null) {
+            return null;
+        }
+        if (type.isBinary()) {
+            throw new IllegalArgumentException("Can't reconcile binary type: " + fqn);
+        }
+        return type.getCompilationUnit().getWorkingCopy(wcOwner, null);
+    }
+
+    private static WorkingCopyOwner createOwner(ProblemRequestor requestor) {
+        return new WorkingCopyOwner() {
+            public IProblemRequestor getProblemRequestor(ICompilationUnit unit) {
+                return requestor;
+            }
+
+            @Override
+            public IBuffer createBuffer(ICompilationUnit workingCopy) {
+//                return BufferManager.createBuffer(workingCopy);
+//                ?????
+                return new org.eclipse.jdt.internal.ui.javaeditor.DocumentAdapter(workingCopy, (IFile)workingCopy.getResource());
+            }
+        };
+    }
+
+    private static void discardWorkingCopy(ICompilationUnit compilationUnit) {
+        if (compilationUnit != null && compilationUnit.isWorkingCopy()) {
+            try {
+                //todo close buffer
+                compilationUnit.getBuffer().close();
+                compilationUnit.discardWorkingCopy();
+            } catch (JavaModelException e) {
+                //ignore
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws JavaModelException {
+        try {
+            return future.get(RESULT_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JavaModelException(e, IJavaModelStatusConstants.CORE_EXCEPTION);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JavaModelException) {
+                throw (JavaModelException)e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw new JavaModelException(e, IJavaModelStatusConstants.CORE_EXCEPTION);
+        } catch (TimeoutException e) {
+            throw new JavaModelException(e, IJavaModelStatusConstants.CORE_EXCEPTION);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + " " + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String sessionKey(IJavaProject javaProject, String fqn) {
+        return javaProject.getPath().toString() + ':' + fqn;
+    }
+
     private List<Problem> convertProblems(List<IProblem> problems) {
         List<Problem> result = new ArrayList<>(problems.size());
         for (IProblem problem : problems) {
@@ -131,6 +436,242 @@ public class JavaReconciler {
         return result;
     }
 
+    /**
+     * Identifies the problem by its kind and location, line number isn't a part of the key,
+     * since it is changed by the changes above the problem which don't affect it.
+     */
+    private static String problemKey(Problem problem) {
+        return problem.getID() + ":" + problem.getSourceStart() + ":" + problem.getSourceEnd() + ":" + problem.isError() +
+               ":" + problem.isWarning() + ":" + problem.getMessage() + ":" + problem.getArguments();
+    }
+
+    private static String positionKey(HighlightedPosition position) {
+        return position.getOffset() + ":" + position.getLength() + ":" + position.getType();
+    }
+
+    /**
+     * Computes difference between previous and current elements.
+     * Elements which are present in both lists are kept at their positions, new elements are appended to the end,
+     * so the client can get current state by removing elements at returned indexes and appending added elements.
+     *
+     * @param previous
+     *         previously sent elements, {@code null} elements are always removed
+     * @param current
+     *         current elements
+     * @param key
+     *         function which identifies equal elements
+     * @param added
+     *         list to which new elements are added
+     * @param merged
+     *         list which receives state of the elements after applying of the delta, kept elements are taken from
+     *         the current list
+     * @return indexes of the removed elements in the previous list
+     */
+    static <T> List<Integer> diff(List<T> previous, List<T> current, Function<T, String> key, List<T> added, List<T> merged) {
+        Map<String, Deque<T>> unmatched = new HashMap<>();
+        for (T element : current) {
+            unmatched.computeIfAbsent(key.apply(element), k -> new ArrayDeque<>()).add(element);
+        }
+        Set<T> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Integer> removed = new ArrayList<>();
+        for (int i = 0; i < previous.size(); i++) {
+            T element = previous.get(i);
+            Deque<T> same = element == null ? null : unmatched.get(key.apply(element));
+            if (same == null || same.isEmpty()) {
+                removed.add(i);
+            } else {
+                T match = same.poll();
+                kept.add(match);
+                merged.add(match);
+            }
+        }
+        for (T element : current) {
+            if (!kept.contains(element)) {
+                added.add(element);
+                merged.add(element);
+            }
+        }
+        return removed;
+    }
+
+    /** Returns elements moved along with the changes, elements touched by the changes are replaced with {@code null}. */
+    private static <T> List<T> shift(List<T> elements, List<Change> changes, BiPredicate<T, List<Change>> shift) {
+        List<T> result = new ArrayList<>(elements.size());
+        for (T element : elements) {
+            result.add(shift.test(element, changes) ? element : null);
+        }
+        return result;
+    }
+
+    /**
+     * Working copy of the compilation unit which is opened in the editor.
+     * Operations on the working copy are queued by {@link #execute(Runnable)} and performed one at a time by the workers.
+     */
+    private static class WorkingCopySession {
+        private final ExecutorService             workers;
+        private final Deque<Runnable>             tasks          = new ArrayDeque<>();
+        /** Changes which were received in order but weren't applied to the working copy yet. */
+        private final List<Change>                changes        = new ArrayList<>();
+        /** Changes which were received before the changes they are based on, keyed by their base version. */
+        private final TreeMap<Integer, Changes>   pendingChanges = new TreeMap<>();
+        /** Changes which were applied to the working copy after the last result. */
+        private final List<Change>                appliedChanges = new ArrayList<>();
+
+        private ICompilationUnit                   workingCopy;
+        private WorkingCopyOwner                   owner;
+        private ProblemRequestor                   requestor;
+        private boolean                            executing;
+
+        private int                                version;
+        private int                                resultVersion  = -1;
+        private List<Problem>                      problems       = Collections.emptyList();
+        private List<HighlightedPosition>          positions      = Collections.emptyList();
+        private CompletableFuture<ReconcileResult> result;
+        private IProgressMonitor                   running;
+        private ScheduledFuture<?>                 scheduled;
+        private volatile long                      lastAccess;
+        private boolean                            discarded;
+
+        private WorkingCopySession(ExecutorService workers, int version) {
+            this.workers = workers;
+            this.version = version;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        /** Sets opened working copy, called by the first task of the session. */
+        private void init(ICompilationUnit workingCopy, WorkingCopyOwner owner, ProblemRequestor requestor) {
+            this.workingCopy = workingCopy;
+            this.owner = owner;
+            this.requestor = requestor;
+        }
+
+        /** Performs the task after the previously queued tasks of this session. */
+        private void execute(Runnable task) {
+            synchronized (tasks) {
+                tasks.add(task);
+                if (executing) {
+                    return;
+                }
+                executing = true;
+            }
+            workers.execute(this::executeTasks);
+        }
+
+        private <T> Future<T> submit(Callable<T> task) {
+            FutureTask<T> future = new FutureTask<>(task);
+            execute(future);
+            return future;
+        }
+
+        private void executeTasks() {
+            while (true) {
+                Runnable task;
+                synchronized (tasks) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        executing = false;
+                        return;
+                    }
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOG.error(e.getMessage(), e);
+                }
+            }
+        }
+
+        private synchronized CompletableFuture<ReconcileResult> addChanges(int fromVersion, int toVersion, List<Change> newChanges) {
+            lastAccess = System.currentTimeMillis();
+            if (discarded) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (toVersion > version) {
+                pendingChanges.put(fromVersion, new Changes(toVersion, newChanges));
+                Changes next;
+                while ((next = pendingChanges.remove(version)) != null) {
+                    changes.addAll(next.changes);
+                    version = next.toVersion;
+                }
+                pendingChanges.headMap(version).clear();
+            }
+            if (running != null) {
+                running.setCanceled(true);
+            }
+            if (result == null) {
+                result = new CompletableFuture<>();
+            }
+            return result;
+        }
+
+        private synchronized void schedule(ScheduledFuture<?> next) {
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            scheduled = next;
+        }
+
+        private ReconcileResult update(int newVersion, List<Problem> newProblems, List<HighlightedPosition> newPositions, boolean delta) {
+            ReconcileResult reconcileResult = DtoFactory.getInstance().createDto(ReconcileResult.class);
+            reconcileResult.setVersion(newVersion);
+            if (delta && resultVersion >= 0) {
+                List<Problem> addedProblems = new ArrayList<>();
+                List<Problem> mergedProblems = new ArrayList<>();
+                List<HighlightedPosition> addedPositions = new ArrayList<>();
+                List<HighlightedPosition> mergedPositions = new ArrayList<>();
+                // the editor moves its elements of the previous result the same way
+                List<Problem> shiftedProblems = shift(problems, appliedChanges, TextChanges::shift);
+                List<HighlightedPosition> shiftedPositions = shift(positions, appliedChanges, TextChanges::shift);
+                reconcileResult.setDelta(true);
+                reconcileResult.setBaseVersion(resultVersion);
+                reconcileResult.setRemovedProblems(
+                        diff(shiftedProblems, newProblems, JavaReconciler::problemKey, addedProblems, mergedProblems));
+                reconcileResult.setProblems(addedProblems);
+                reconcileResult.setRemovedHighlightedPositions(
+                        diff(shiftedPositions, newPositions, JavaReconciler::positionKey, addedPositions, mergedPositions));
+                reconcileResult.setHighlightedPositions(addedPositions);
+                problems = mergedProblems;
+                positions = mergedPositions;
+            } else {
+                reconcileResult.setProblems(newProblems);
+                reconcileResult.setHighlightedPositions(newPositions);
+                problems = newProblems;
+                positions = newPositions;
+            }
+            appliedChanges.clear();
+            resultVersion = newVersion;
+            lastAccess = System.currentTimeMillis();
+            return reconcileResult;
+        }
+
+        private void discard() {
+            synchronized (this) {
+                discarded = true;
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                }
+                if (running != null) {
+                    running.setCanceled(true);
+                }
+                if (result != null) {
+                    result.complete(null);
+                    result = null;
+                }
+            }
+            discardWorkingCopy(workingCopy);
+        }
+    }
+
+    private static class Changes {
+        private final int          toVersion;
+        private final List<Change> changes;
+
+        private Changes(int toVersion, List<Change> changes) {
+            this.toVersion = toVersion;
+            this.changes = changes;
+        }
+    }
+
     private static class ProblemRequestor implements IProblemRequestor {
 
         private List<IProblem> problems = new ArrayList<>();
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core.search.indexing;
 
+import org.eclipse.che.jdt.core.search.SharedIndexStore;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
@@ -91,6 +92,8 @@ public class IndexManager extends JobManager implements IIndexConstants {
     private SimpleLookupTable participantsContainers = null;
     private boolean           participantUpdated     = false;
     private String indexLocation;
+    // store of prebuilt indexes of jars shared between workspaces, may be null
+    private SharedIndexStore sharedIndexStore;
 
     public IndexManager(String indexLocation) {
         this.indexLocation = indexLocation;
@@ -99,6 +102,10 @@ public class IndexManager extends JobManager implements IIndexConstants {
         participantIndexNamesFile = new File(getSavedIndexesDirectory(), "participantsIndexNames.txt");
     }
 
+    public void setSharedIndexStore(SharedIndexStore sharedIndexStore) {
+        this.sharedIndexStore = sharedIndexStore;
+    }
+
     public synchronized void aboutToUpdateIndex(IPath containerPath, Integer newIndexState) {
         // newIndexState is either UPDATING_STATE or REBUILDING_STATE
         // must tag the index as inconsistent, in case we exit before the update job is started
@@ -602,6 +609,10 @@ public class IndexManager extends JobManager implements IIndexConstants {
     public void indexLibrary(IPath path, IProject requestingProject, URL indexURL, final boolean updateIndex) {
         // requestingProject is no longer used to cancel jobs but leave it here just in case
         IndexLocation indexFile = null;
+        if (indexURL == null && this.sharedIndexStore != null) {
+            // reuse index of the same jar prebuilt by other workspace
+            indexURL = this.sharedIndexStore.find(path);
+        }
         if (indexURL != null) {
             if (IS_MANAGING_PRODUCT_INDEXES_PROPERTY) {
                 indexFile = computeIndexLocation(path, indexURL);
@@ -935,6 +946,9 @@ public class IndexManager extends JobManager implements IIndexConstants {
             if (JobManager.VERBOSE)
                 Util.verbose("-> saving index " + index.getIndexLocation()); //$NON-NLS-1$
             index.save();
+            if (this.sharedIndexStore != null) {
+                this.sharedIndexStore.publish(new Path(index.containerPath), index.getIndexLocation().getIndexFile());
+            }
         }
         synchronized (this) {
             IPath containerPath = new Path(index.containerPath);
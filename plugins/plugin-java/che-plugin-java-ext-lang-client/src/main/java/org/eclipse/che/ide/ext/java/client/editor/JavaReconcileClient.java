@@ -10,16 +10,23 @@
  *******************************************************************************/
 package org.eclipse.che.ide.ext.java.client.editor;
 
+import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import org.eclipse.che.ide.MimeType;
 import org.eclipse.che.ide.api.app.AppContext;
+import org.eclipse.che.ide.ext.java.shared.dto.Change;
 import org.eclipse.che.ide.ext.java.shared.dto.ReconcileResult;
 import org.eclipse.che.ide.rest.AsyncRequestCallback;
 import org.eclipse.che.ide.rest.AsyncRequestFactory;
 import org.eclipse.che.ide.rest.DtoUnmarshallerFactory;
 import org.eclipse.che.ide.util.loging.Log;
 
+import java.util.List;
+
+import static org.eclipse.che.ide.rest.HTTPHeader.CONTENT_TYPE;
+
 /**
  * @author Evgen Vidolob
  */
@@ -55,6 +62,76 @@ public class JavaReconcileClient {
                            });
     }
 
+    /**
+     * Opens working copy of the file on the server, working copy is kept until {@link #close(String, String)} is called.
+     *
+     * @param projectPath
+     *         path to the project
+     * @param fqn
+     *         fully qualified name of the type
+     * @param version
+     *         version of the editor content
+     * @param content
+     *         content of the editor
+     * @param callback
+     *         callback which receives full result of the reconcile
+     */
+    public void open(String projectPath, String fqn, int version, String content, final AsyncCallback<ReconcileResult> callback) {
+        String url = appContext.getDevMachine().getWsAgentBaseUrl() + "/java/reconcile/open?projectpath=" + projectPath + "&fqn=" + fqn +
+                     "&version=" + version;
+        asyncRequestFactory.createPostRequest(url, null)
+                           .header(CONTENT_TYPE, MimeType.TEXT_PLAIN)
+                           .data(content)
+                           .send(newCallback(callback));
+    }
+
+    /**
+     * Sends changes of the editor content to the working copy opened with {@link #open(String, String, int, String, AsyncCallback)}.
+     *
+     * @param projectPath
+     *         path to the project
+     * @param fqn
+     *         fully qualified name of the type
+     * @param fromVersion
+     *         version of the editor content the changes are based on
+     * @param toVersion
+     *         version of the editor content after the changes
+     * @param changes
+     *         changes of the editor content
+     * @param callback
+     *         callback which receives result of the reconcile, result may be a delta to the previous result
+     */
+    public void applyChanges(String projectPath,
+                             String fqn,
+                             int fromVersion,
+                             int toVersion,
+                             List<Change> changes,
+                             final AsyncCallback<ReconcileResult> callback) {
+        String url = appContext.getDevMachine().getWsAgentBaseUrl() + "/java/reconcile/changes?projectpath=" + projectPath + "&fqn=" +
+                     fqn + "&from=" + fromVersion + "&to=" + toVersion;
+        asyncRequestFactory.createPostRequest(url, changes).send(newCallback(callback));
+    }
+
+    /** Discards working copy of the file on the server. */
+    public void close(String projectPath, String fqn) {
+        String url = appContext.getDevMachine().getWsAgentBaseUrl() + "/java/reconcile?projectpath=" + projectPath + "&fqn=" + fqn;
+        asyncRequestFactory.createDeleteRequest(url).send();
+    }
+
+    private AsyncRequestCallback<ReconcileResult> newCallback(final AsyncCallback<ReconcileResult> callback) {
+        return new AsyncRequestCallback<ReconcileResult>(dtoUnmarshallerFactory.newUnmarshaller(ReconcileResult.class)) {
+            @Override
+            protected void onSuccess(ReconcileResult result) {
+                callback.onSuccess(result);
+            }
+
+            @Override
+            protected void onFailure(Throwable exception) {
+                callback.onFailure(exception);
+            }
+        };
+    }
+
     public interface ReconcileCallback {
         void onReconcile(ReconcileResult result);
     }
@@ -11,12 +11,17 @@
 package org.eclipse.che.ide.ext.java.client.editor;
 
 import com.google.common.base.Optional;
+import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import com.google.web.bindery.event.shared.HandlerRegistration;
 
 import org.eclipse.che.ide.api.editor.EditorWithErrors;
 import org.eclipse.che.ide.api.editor.annotation.AnnotationModel;
 import org.eclipse.che.ide.api.editor.document.Document;
+import org.eclipse.che.ide.api.editor.document.DocumentHandle;
+import org.eclipse.che.ide.api.editor.events.DocumentChangeEvent;
+import org.eclipse.che.ide.api.editor.events.DocumentChangeHandler;
 import org.eclipse.che.ide.api.editor.reconciler.DirtyRegion;
 import org.eclipse.che.ide.api.editor.reconciler.ReconcilingStrategy;
 import org.eclipse.che.ide.api.editor.text.Region;
@@ -24,8 +29,11 @@ import org.eclipse.che.ide.api.editor.texteditor.TextEditor;
 import org.eclipse.che.ide.api.resources.Project;
 import org.eclipse.che.ide.api.resources.Resource;
 import org.eclipse.che.ide.api.resources.VirtualFile;
+import org.eclipse.che.ide.dto.DtoFactory;
 import org.eclipse.che.ide.ext.java.client.JavaLocalizationConstant;
 import org.eclipse.che.ide.ext.java.client.util.JavaUtil;
+import org.eclipse.che.ide.ext.java.shared.TextChanges;
+import org.eclipse.che.ide.ext.java.shared.dto.Change;
 import org.eclipse.che.ide.ext.java.shared.dto.HighlightedPosition;
 import org.eclipse.che.ide.ext.java.shared.dto.Problem;
 import org.eclipse.che.ide.ext.java.shared.dto.ReconcileResult;
@@ -36,11 +44,19 @@ import org.eclipse.che.ide.project.ResolvingProjectStateHolderRegistry;
 import org.eclipse.che.ide.util.loging.Log;
 
 import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.TreeMap;
 
 import static org.eclipse.che.ide.project.ResolvingProjectStateHolder.ResolvingProjectState.IN_PROGRESS;
 
+/**
+ * Reconciling strategy for java files.
+ * <p/>
+ * After the first change of the editor content working copy of the file is opened on the server and receives
+ * only changes of the content, the server answers with delta to the previously received problems and highlighted positions.
+ */
 public class JavaReconcilerStrategy implements ReconcilingStrategy, ResolvingProjectStateListener {
 
     private final TextEditor                          editor;
@@ -50,9 +66,30 @@ public class JavaReconcilerStrategy implements ReconcilingStrategy, ResolvingPro
     private final ResolvingProjectStateHolderRegistry resolvingProjectStateHolderRegistry;
     private final JavaLocalizationConstant            localizationConstant;
     private final JavaReconcileClient                 client;
+    private final DtoFactory                          dtoFactory;
+
+    /** Changes of the editor content which weren't sent to the server. */
+    private final List<Change>                  changes     = new ArrayList<>();
+    /** Changes sent to the server by the version of the content after them, until the result of that version is applied. */
+    private final TreeMap<Integer, List<Change>> sentChanges = new TreeMap<>();
 
     private EditorWithErrors            editorWithErrors;
     private ResolvingProjectStateHolder resolvingProjectStateHolder;
+    private Document                    document;
+    private HandlerRegistration         documentChangeRegistration;
+
+    private boolean                   opened;
+    private boolean                   opening;
+    /** Incremented each time working copy is opened, so answers for the previous working copy can be ignored. */
+    private int                       session;
+    /** Version of the editor content. */
+    private int                       version;
+    /** Version of the editor content which is known by the server. */
+    private int                       sentVersion;
+    /** Version of the last applied reconcile result. */
+    private int                       resultVersion = -1;
+    private List<Problem>             problems      = new ArrayList<>();
+    private List<HighlightedPosition> positions     = new ArrayList<>();
 
     @AssistedInject
     public JavaReconcilerStrategy(@Assisted @NotNull final TextEditor editor,
@@ -61,9 +98,11 @@ public class JavaReconcilerStrategy implements ReconcilingStrategy, ResolvingPro
                                   final JavaReconcileClient client,
                                   final SemanticHighlightRenderer highlighter,
                                   final ResolvingProjectStateHolderRegistry resolvingProjectStateHolderRegistry,
-                                  final JavaLocalizationConstant localizationConstant) {
+                                  final JavaLocalizationConstant localizationConstant,
+                                  final DtoFactory dtoFactory) {
         this.editor = editor;
         this.client = client;
+        this.dtoFactory = dtoFactory;
         this.codeAssistProcessor = codeAssistProcessor;
         this.annotationModel = annotationModel;
         this.highlighter = highlighter;
@@ -76,8 +115,19 @@ public class JavaReconcilerStrategy implements ReconcilingStrategy, ResolvingPro
 
     @Override
     public void setDocument(final Document document) {
+        this.document = document;
         highlighter.init(editor.getEditorWidget(), document);
 
+        final DocumentHandle documentHandle = document.getDocumentHandle();
+        if (documentHandle != null) {
+            documentChangeRegistration = documentHandle.getDocEventBus().addHandler(DocumentChangeEvent.TYPE, new DocumentChangeHandler() {
+                @Override
+                public void onDocumentChange(DocumentChangeEvent event) {
+                    onContentChanged(event);
+                }
+            });
+        }
+
         if (getFile() instanceof Resource) {
             final Optional<Project> project = ((Resource)getFile()).getRelatedProject();
 
@@ -104,38 +154,199 @@ public class JavaReconcilerStrategy implements ReconcilingStrategy, ResolvingPro
     }
 
     void parse() {
-        if (getFile() instanceof Resource) {
-            final Optional<Project> project = ((Resource)getFile()).getRelatedProject();
+        final String projectPath = getProjectPath();
+        if (projectPath == null) {
+            return;
+        }
 
-            if (!project.isPresent()) {
-                return;
+        if (opened && !changes.isEmpty()) {
+            sendChanges(projectPath);
+            return;
+        }
+
+        try {
+            client.reconcile(projectPath, JavaUtil.resolveFQN(getFile()),
+                             new JavaReconcileClient.ReconcileCallback() {
+                                 @Override
+                                 public void onReconcile(ReconcileResult result) {
+                                     onResult(result);
+                                 }
+                             });
+        } catch (RuntimeException e) {
+            Log.info(getClass(), e.getMessage());
+        }
+    }
+
+    private void onContentChanged(DocumentChangeEvent event) {
+        version++;
+        changes.add(dtoFactory.createDto(Change.class)
+                              .withOffset(event.getOffset())
+                              .withLength(event.getRemoveCharCount())
+                              .withText(event.getText()));
+        if (!opened && !opening) {
+            openWorkingCopy();
+        }
+    }
+
+    private void openWorkingCopy() {
+        final String projectPath = getProjectPath();
+        if (projectPath == null) {
+            return;
+        }
+
+        changes.clear();
+        sentChanges.clear();
+        sentVersion = version;
+        opening = true;
+        final int openedSession = ++session;
+        client.open(projectPath, JavaUtil.resolveFQN(getFile()), version, document.getContents(), new AsyncCallback<ReconcileResult>() {
+            @Override
+            public void onSuccess(ReconcileResult result) {
+                if (openedSession != session) {
+                    return;
+                }
+                opening = false;
+                opened = true;
+                onResult(result);
+                if (!changes.isEmpty()) {
+                    sendChanges(projectPath);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable exception) {
+                if (openedSession != session) {
+                    return;
+                }
+                opening = false;
+                Log.info(getClass(), exception.getMessage());
             }
+        });
+    }
+
+    private void sendChanges(final String projectPath) {
+        final List<Change> toSend = new ArrayList<>(changes);
+        final int fromVersion = sentVersion;
+        changes.clear();
+        sentVersion = version;
+        sentChanges.put(version, toSend);
+        final int sentSession = session;
+        client.applyChanges(projectPath, JavaUtil.resolveFQN(getFile()), fromVersion, version, toSend, new AsyncCallback<ReconcileResult>() {
+            @Override
+            public void onSuccess(ReconcileResult result) {
+                if (sentSession == session) {
+                    onResult(result);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable exception) {
+                if (sentSession != session) {
+                    return;
+                }
+                Log.info(getClass(), exception.getMessage());
+                // working copy may be discarded on the server, open it again with the current content
+                if (opened) {
+                    opened = false;
+                    openWorkingCopy();
+                }
+            }
+        });
+    }
 
-            try {
-                client.reconcile(project.get().getLocation().toString(), JavaUtil.resolveFQN(getFile()),
-                                 new JavaReconcileClient.ReconcileCallback() {
-                                     @Override
-                                     public void onReconcile(ReconcileResult result) {
-                                         if (resolvingProjectStateHolder != null && resolvingProjectStateHolder.getState() == IN_PROGRESS) {
-                                             disableReconciler(localizationConstant.codeAssistErrorMessageResolvingProject());
-                                             return;
-                                         } else {
-                                             codeAssistProcessor.enableCodeAssistant();
-                                         }
+    /**
+     * Requests full result instead of the delta which can't be applied.
+     * Opened working copy is opened again with the current content, so the server starts a new session
+     * and sends full result, otherwise the next delta would be based on the same missed result.
+     */
+    private void requestFullResult() {
+        if (opening) {
+            // full result of the opened working copy is on the way
+            return;
+        }
+        if (opened) {
+            opened = false;
+            openWorkingCopy();
+        } else {
+            parse();
+        }
+    }
 
-                                         if (result == null) {
-                                             return;
-                                         }
-                                         doReconcile(result.getProblems());
-                                         highlighter.reconcile(result.getHighlightedPositions());
-                                     }
-                                 });
-            } catch (RuntimeException e) {
-                Log.info(getClass(), e.getMessage());
+    private void onResult(ReconcileResult result) {
+        if (resolvingProjectStateHolder != null && resolvingProjectStateHolder.getState() == IN_PROGRESS) {
+            disableReconciler(localizationConstant.codeAssistErrorMessageResolvingProject());
+            return;
+        } else {
+            codeAssistProcessor.enableCodeAssistant();
+        }
+
+        if (result == null) {
+            return;
+        }
+
+        if (result.isDelta()) {
+            if (result.getVersion() <= resultVersion) {
+                return;
+            }
+            if (result.getBaseVersion() != resultVersion) {
+                // some result was missed, so delta can't be applied
+                requestFullResult();
+                return;
+            }
+            // the server moved the previous elements along with the changes before computing of the delta
+            final List<Change> applied = new ArrayList<>();
+            for (List<Change> sent : sentChanges.headMap(result.getVersion(), true).values()) {
+                applied.addAll(sent);
+            }
+            for (Problem problem : problems) {
+                TextChanges.shift(problem, applied);
+            }
+            for (HighlightedPosition position : positions) {
+                TextChanges.shift(position, applied);
             }
+            removeAll(problems, result.getRemovedProblems());
+            addAll(problems, result.getProblems());
+            removeAll(positions, result.getRemovedHighlightedPositions());
+            addAll(positions, result.getHighlightedPositions());
+        } else {
+            if (result.getVersion() < resultVersion) {
+                return;
+            }
+            problems = new ArrayList<>();
+            addAll(problems, result.getProblems());
+            positions = new ArrayList<>();
+            addAll(positions, result.getHighlightedPositions());
         }
+        resultVersion = result.getVersion();
+        sentChanges.headMap(resultVersion, true).clear();
 
+        doReconcile(problems);
+        highlighter.reconcile(new ArrayList<>(positions));
+    }
 
+    private static <T> void removeAll(List<T> elements, List<Integer> indexes) {
+        if (indexes == null) {
+            return;
+        }
+        for (int i = indexes.size() - 1; i >= 0; i--) {
+            elements.remove((int)indexes.get(i));
+        }
+    }
+
+    private static <T> void addAll(List<T> elements, List<T> added) {
+        if (added != null) {
+            elements.addAll(added);
+        }
+    }
+
+    private String getProjectPath() {
+        if (getFile() instanceof Resource) {
+            final Optional<Project> project = ((Resource)getFile()).getRelatedProject();
+            if (project.isPresent()) {
+                return project.get().getLocation().toString();
+            }
+        }
+        return null;
     }
 
 
@@ -202,6 +413,16 @@ public class JavaReconcilerStrategy implements ReconcilingStrategy, ResolvingPro
         if (resolvingProjectStateHolder != null) {
             resolvingProjectStateHolder.removeResolvingProjectStateListener(this);
         }
+        if (documentChangeRegistration != null) {
+            documentChangeRegistration.removeHandler();
+        }
+        if (opened || opening) {
+            final String projectPath = getProjectPath();
+            if (projectPath != null) {
+                client.close(projectPath, JavaUtil.resolveFQN(getFile()));
+            }
+            opened = false;
+        }
     }
 
     @Override
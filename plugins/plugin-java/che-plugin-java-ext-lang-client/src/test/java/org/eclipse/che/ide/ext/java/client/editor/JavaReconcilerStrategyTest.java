@@ -11,18 +11,24 @@
 package org.eclipse.che.ide.ext.java.client.editor;
 
 import com.google.common.base.Optional;
+import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.web.bindery.event.shared.EventBus;
 import com.google.web.bindery.event.shared.HandlerRegistration;
 
 import org.eclipse.che.ide.api.editor.EditorInput;
 import org.eclipse.che.ide.api.editor.annotation.AnnotationModel;
 import org.eclipse.che.ide.api.editor.document.Document;
+import org.eclipse.che.ide.api.editor.document.DocumentEventBus;
+import org.eclipse.che.ide.api.editor.document.DocumentHandle;
+import org.eclipse.che.ide.api.editor.events.DocumentChangeEvent;
 import org.eclipse.che.ide.api.editor.texteditor.TextEditorPresenter;
 import org.eclipse.che.ide.api.resources.Container;
 import org.eclipse.che.ide.api.resources.File;
 import org.eclipse.che.ide.api.resources.Project;
 import org.eclipse.che.ide.api.resources.Resource;
+import org.eclipse.che.ide.dto.DtoFactory;
 import org.eclipse.che.ide.ext.java.client.JavaLocalizationConstant;
+import org.eclipse.che.ide.ext.java.shared.dto.Change;
 import org.eclipse.che.ide.ext.java.shared.dto.HighlightedPosition;
 import org.eclipse.che.ide.ext.java.shared.dto.ReconcileResult;
 import org.eclipse.che.ide.project.ResolvingProjectStateHolder;
@@ -38,16 +44,20 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.eclipse.che.ide.project.ResolvingProjectStateHolder.ResolvingProjectState.IN_PROGRESS;
 import static org.eclipse.che.ide.project.ResolvingProjectStateHolder.ResolvingProjectState.RESOLVED;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -82,9 +92,13 @@ public class JavaReconcilerStrategyTest {
     private ResolvingProjectStateHolderRegistry resolvingProjectStateHolderRegistry;
     @Mock
     private JavaLocalizationConstant            localizationConstant;
+    @Mock
+    private DtoFactory                          dtoFactory;
 
     @Captor
     private ArgumentCaptor<JavaReconcileClient.ReconcileCallback> reconcileCallbackCaptor;
+    @Captor
+    private ArgumentCaptor<AsyncCallback<ReconcileResult>>        openCallbackCaptor;
 
 
     @InjectMocks
@@ -155,4 +169,111 @@ public class JavaReconcilerStrategyTest {
         verify(codeAssistProcessor, never()).disableCodeAssistant(anyString());
         verify(highlighter).reconcile(eq(positions));
     }
+
+    @Test
+    public void shouldApplyDeltaToPreviousResult() throws Exception {
+        when(resolvingProjectStateHolder.getState()).thenReturn(RESOLVED);
+        HighlightedPosition removedPosition = mock(HighlightedPosition.class);
+        HighlightedPosition keptPosition = mock(HighlightedPosition.class);
+        HighlightedPosition addedPosition = mock(HighlightedPosition.class);
+        when(reconcileResult.getHighlightedPositions()).thenReturn(Arrays.asList(removedPosition, keptPosition));
+        ReconcileResult delta = mock(ReconcileResult.class);
+        when(delta.isDelta()).thenReturn(true);
+        when(delta.getVersion()).thenReturn(1);
+        when(delta.getBaseVersion()).thenReturn(0);
+        when(delta.getRemovedHighlightedPositions()).thenReturn(Collections.singletonList(0));
+        when(delta.getHighlightedPositions()).thenReturn(Collections.singletonList(addedPosition));
+
+        javaReconcilerStrategy.parse();
+        verify(client).reconcile(anyString(), anyString(), reconcileCallbackCaptor.capture());
+        JavaReconcileClient.ReconcileCallback reconcileCallback = reconcileCallbackCaptor.getValue();
+        reconcileCallback.onReconcile(reconcileResult);
+        reconcileCallback.onReconcile(delta);
+
+        verify(highlighter).reconcile(eq(Arrays.asList(keptPosition, addedPosition)));
+    }
+
+    @Test
+    public void shouldRequestFullResultWhenDeltaIsBasedOnMissedResult() throws Exception {
+        when(resolvingProjectStateHolder.getState()).thenReturn(RESOLVED);
+        ReconcileResult delta = mock(ReconcileResult.class);
+        when(delta.isDelta()).thenReturn(true);
+        when(delta.getVersion()).thenReturn(5);
+        when(delta.getBaseVersion()).thenReturn(3);
+
+        javaReconcilerStrategy.parse();
+        verify(client).reconcile(anyString(), anyString(), reconcileCallbackCaptor.capture());
+        JavaReconcileClient.ReconcileCallback reconcileCallback = reconcileCallbackCaptor.getValue();
+        reconcileCallback.onReconcile(reconcileResult);
+        reconcileCallback.onReconcile(delta);
+
+        verify(delta, never()).getHighlightedPositions();
+        verify(client, times(2)).reconcile(anyString(), anyString(), any(JavaReconcileClient.ReconcileCallback.class));
+    }
+
+    @Test
+    public void shouldOpenWorkingCopyAgainWhenDeltaOfOpenedWorkingCopyIsBasedOnMissedResult() throws Exception {
+        when(resolvingProjectStateHolder.getState()).thenReturn(RESOLVED);
+        DocumentEventBus documentEventBus = new DocumentEventBus();
+        DocumentHandle documentHandle = mock(DocumentHandle.class);
+        Document document = mock(Document.class);
+        when(document.getDocumentHandle()).thenReturn(documentHandle);
+        when(documentHandle.getDocEventBus()).thenReturn(documentEventBus);
+        Change change = mock(Change.class);
+        when(dtoFactory.createDto(Change.class)).thenReturn(change);
+        when(change.withOffset(anyInt())).thenReturn(change);
+        when(change.withLength(anyInt())).thenReturn(change);
+        when(change.withText(anyString())).thenReturn(change);
+        ReconcileResult delta = mock(ReconcileResult.class);
+        when(delta.isDelta()).thenReturn(true);
+        when(delta.getVersion()).thenReturn(5);
+        when(delta.getBaseVersion()).thenReturn(3);
+        javaReconcilerStrategy.setDocument(document);
+
+        documentEventBus.fireEvent(new DocumentChangeEvent(documentHandle, 0, 1, "a", 0));
+        verify(client).open(anyString(), anyString(), eq(1), anyString(), openCallbackCaptor.capture());
+        openCallbackCaptor.getValue().onSuccess(reconcileResult);
+        openCallbackCaptor.getValue().onSuccess(delta);
+
+        verify(delta, never()).getHighlightedPositions();
+        verify(client, times(2)).open(anyString(), anyString(), eq(1), anyString(), any(AsyncCallback.class));
+        verify(client, never()).applyChanges(anyString(), anyString(), anyInt(), anyInt(), anyListOf(Change.class), any(AsyncCallback.class));
+    }
+
+    @Test
+    public void shouldMoveKeptPositionsAlongWithSentChanges() throws Exception {
+        when(resolvingProjectStateHolder.getState()).thenReturn(RESOLVED);
+        DocumentEventBus documentEventBus = new DocumentEventBus();
+        DocumentHandle documentHandle = mock(DocumentHandle.class);
+        Document document = mock(Document.class);
+        when(document.getDocumentHandle()).thenReturn(documentHandle);
+        when(documentHandle.getDocEventBus()).thenReturn(documentEventBus);
+        Change change = mock(Change.class);
+        when(dtoFactory.createDto(Change.class)).thenReturn(change);
+        when(change.withOffset(anyInt())).thenReturn(change);
+        when(change.withLength(anyInt())).thenReturn(change);
+        when(change.withText(anyString())).thenReturn(change);
+        when(change.getText()).thenReturn("ab");
+        HighlightedPosition keptPosition = mock(HighlightedPosition.class);
+        when(keptPosition.getOffset()).thenReturn(10);
+        when(keptPosition.getLength()).thenReturn(3);
+        when(reconcileResult.getVersion()).thenReturn(1);
+        when(reconcileResult.getHighlightedPositions()).thenReturn(Collections.singletonList(keptPosition));
+        ReconcileResult delta = mock(ReconcileResult.class);
+        when(delta.isDelta()).thenReturn(true);
+        when(delta.getVersion()).thenReturn(2);
+        when(delta.getBaseVersion()).thenReturn(1);
+        javaReconcilerStrategy.setDocument(document);
+
+        documentEventBus.fireEvent(new DocumentChangeEvent(documentHandle, 0, 0, "ab", 0));
+        verify(client).open(anyString(), anyString(), eq(1), anyString(), openCallbackCaptor.capture());
+        openCallbackCaptor.getValue().onSuccess(reconcileResult);
+        documentEventBus.fireEvent(new DocumentChangeEvent(documentHandle, 0, 0, "ab", 0));
+        javaReconcilerStrategy.parse();
+        verify(client).applyChanges(anyString(), anyString(), eq(1), eq(2), anyListOf(Change.class), openCallbackCaptor.capture());
+        openCallbackCaptor.getValue().onSuccess(delta);
+
+        verify(keptPosition).setOffset(12);
+        verify(highlighter, times(2)).reconcile(eq(Collections.singletonList(keptPosition)));
+    }
 }
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.java.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.ide.ext.java.shared.JarEntry;
+import org.eclipse.jdt.core.JavaModelException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Cache of the content of the jars which is shown in the external libraries tree: generated sources of the classes
+ * without attached sources and listings of the jar entries.
+ * <p/>
+ * Content is keyed by SHA-1 hash of the jar, so it survives agent restarts and is shared by projects
+ * which depend on the same jar. Recently used values are kept in memory, the number of such values is bounded,
+ * every value is also written to the disk, so value evicted from memory is read back instead of being computed again.
+ */
+@Singleton
+public class JarContentCache {
+    private static final Logger LOG = LoggerFactory.getLogger(JarContentCache.class);
+
+    private static final String SOURCES_DIR = "sources";
+    private static final String ENTRIES_DIR = "entries";
+    private static final String ROOT_DIR    = "root";
+
+    private final Path                  cacheDir;
+    private final Cache<String, Object> memoryCache;
+
+    /** Hashes of the jars, key is path, size and modification time of the jar. */
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    @Inject
+    public JarContentCache(@Named("che.java.navigation.cache.dir") String cacheDir,
+                           @Named("che.java.navigation.cache.max_entries") long maxEntries) {
+        this.cacheDir = Paths.get(cacheDir);
+        this.memoryCache = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    /**
+     * Returns source of the class from the jar, source is generated by the loader only on first access.
+     *
+     * @param jar
+     *         jar file which contains the class
+     * @param fqn
+     *         fully qualified name of the class
+     * @param loader
+     *         generates source of the class
+     * @return source of the class
+     * @throws JavaModelException
+     *         when loader fails to generate the source
+     */
+    public String getSource(File jar, String fqn, Loader<String> loader) throws JavaModelException {
+        String hash = hash(jar);
+        if (hash == null) {
+            return loader.load();
+        }
+        String key = SOURCES_DIR + '/' + hash + '/' + fqn;
+        String source = (String)memoryCache.getIfPresent(key);
+        if (source != null) {
+            return source;
+        }
+        Path file = getFile(hash, SOURCES_DIR, fqn);
+        byte[] content = read(file);
+        if (content != null) {
+            source = new String(content, UTF_8);
+        } else {
+            source = loader.load();
+            if (source == null) {
+                return null;
+            }
+            write(file, source.getBytes(UTF_8));
+        }
+        memoryCache.put(key, source);
+        return source;
+    }
+
+    /**
+     * Returns top level entries of the jar, entries are listed by the loader only on first access.
+     *
+     * @param jar
+     *         jar file
+     * @param loader
+     *         lists the entries
+     * @return unmodifiable list of the entries
+     * @throws JavaModelException
+     *         when loader fails to list the entries
+     */
+    public List<JarEntry> getRootEntries(File jar, Loader<List<JarEntry>> loader) throws JavaModelException {
+        return getEntries(jar, ROOT_DIR, "", loader);
+    }
+
+    /**
+     * Returns entries of the jar which are children of the given path, entries are listed by the loader only on first access.
+     *
+     * @param jar
+     *         jar file
+     * @param path
+     *         path of the package or folder inside of the jar, empty string for the default package
+     * @param loader
+     *         lists the entries
+     * @return unmodifiable list of the entries
+     * @throws JavaModelException
+     *         when loader fails to list the entries
+     */
+    public List<JarEntry> getEntries(File jar, String path, Loader<List<JarEntry>> loader) throws JavaModelException {
+        return getEntries(jar, ENTRIES_DIR, path, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<JarEntry> getEntries(File jar, String kind, String path, Loader<List<JarEntry>> loader) throws JavaModelException {
+        String hash = hash(jar);
+        if (hash == null) {
+            return loader.load();
+        }
+        String key = kind + '/' + hash + '/' + path;
+        List<JarEntry> entries = (List<JarEntry>)memoryCache.getIfPresent(key);
+        if (entries != null) {
+            return entries;
+        }
+        Path file = getFile(hash, kind, path);
+        byte[] content = read(file);
+        if (content != null) {
+            try {
+                entries = new ArrayList<>(DtoFactory.getInstance().createListDtoFromJson(new String(content, UTF_8), JarEntry.class));
+            } catch (RuntimeException e) {
+                LOG.debug("Can't parse cached entries of {}", jar, e);
+            }
+        }
+        if (entries == null) {
+            entries = loader.load();
+            write(file, toJson(entries).getBytes(UTF_8));
+        }
+        entries = Collections.unmodifiableList(entries);
+        memoryCache.put(key, entries);
+        return entries;
+    }
+
+    private Path getFile(String hash, String kind, String name) {
+        return cacheDir.resolve(hash).resolve(kind).resolve(Hashing.sha1().hashString(name, UTF_8).toString());
+    }
+
+    private String hash(File jar) {
+        if (jar == null || !jar.isFile()) {
+            return null;
+        }
+        String key = jar.getAbsolutePath() + ':' + jar.length() + ':' + jar.lastModified();
+        String hash = hashes.get(key);
+        if (hash == null) {
+            try {
+                hash = com.google.common.io.Files.asByteSource(jar).hash(Hashing.sha1()).toString();
+            } catch (IOException e) {
+                LOG.debug("Can't compute hash of {}", jar, e);
+                return null;
+            }
+            hashes.put(key, hash);
+        }
+        return hash;
+    }
+
+    private static String toJson(List<JarEntry> entries) {
+        StringBuilder json = new StringBuilder("[");
+        for (JarEntry entry : entries) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(DtoFactory.getInstance().toJson(entry));
+        }
+        return json.append(']').toString();
+    }
+
+    private static byte[] read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            LOG.debug("Can't read cached content {}", file, e);
+            return null;
+        }
+    }
+
+    private static void write(Path file, byte[] content) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                out.write(content);
+            }
+            Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Can't write cached content {}", file, e);
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes value which is missing in the cache.
+     */
+    public interface Loader<T> {
+        T load() throws JavaModelException;
+    }
+}
@@ -64,6 +64,7 @@ import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -131,10 +132,12 @@ public class JavaNavigation {
     private              Gson                 gson          = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
     private              boolean              fFoldPackages = true;
     private SourcesFromBytecodeGenerator sourcesGenerator;
+    private JarContentCache              contentCache;
 
     @Inject
-    public JavaNavigation(SourcesFromBytecodeGenerator sourcesGenerator) {
+    public JavaNavigation(SourcesFromBytecodeGenerator sourcesGenerator, JarContentCache contentCache) {
         this.sourcesGenerator = sourcesGenerator;
+        this.contentCache = contentCache;
     }
 
     /**
@@ -244,9 +247,9 @@ public class JavaNavigation {
             return NO_ENTRIES;
         }
 
-        Object[] rootContent = getPackageFragmentRootContent(packageFragmentRoot);
-
-        return convertToJarEntry(rootContent, packageFragmentRoot);
+        return contentCache.getRootEntries(getJarFile(packageFragmentRoot),
+                                           () -> convertToJarEntry(getPackageFragmentRootContent(packageFragmentRoot),
+                                                                   packageFragmentRoot));
     }
 
     /**
@@ -647,6 +650,10 @@ public class JavaNavigation {
             return NO_ENTRIES;
         }
 
+        return contentCache.getEntries(getJarFile(root), path, () -> listChildren(root, path));
+    }
+
+    private List<JarEntry> listChildren(IPackageFragmentRoot root, String path) throws JavaModelException {
         if (path.startsWith("/")) {
             // jar file and folders
             Object[] resources = root.getNonJavaResources();
@@ -671,6 +678,18 @@ public class JavaNavigation {
         return NO_ENTRIES;
     }
 
+    /**
+     * Returns jar file of the package fragment root or {@code null} if the root isn't a jar,
+     * content of such roots isn't cached.
+     */
+    private File getJarFile(IJavaElement element) {
+        IPackageFragmentRoot root = (IPackageFragmentRoot)element.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+        if (root instanceof JarPackageFragmentRoot) {
+            return root.getPath().toFile();
+        }
+        return null;
+    }
+
     public ClassContent getContent(IJavaProject project, int rootId, String path) throws CoreException {
         IPackageFragmentRoot root = getPackageFragmentRoot(project, rootId);
         if (root == null) {
@@ -730,8 +749,11 @@ public class JavaNavigation {
                 if (classFile.getSourceRange() != null) {
                     return createContent(classFile.getSource(), false);
                 } else {
-
-                    return createContent(sourcesGenerator.generateSource(classFile.getType()), true);
+                    IType classType = classFile.getType();
+                    String source = contentCache.getSource(getJarFile(classFile),
+                                                           classType.getFullyQualifiedName(),
+                                                           () -> sourcesGenerator.generateSource(classType));
+                    return createContent(source, true);
                 }
             } else {
                 return createContent(type.getCompilationUnit().getSource(), false);
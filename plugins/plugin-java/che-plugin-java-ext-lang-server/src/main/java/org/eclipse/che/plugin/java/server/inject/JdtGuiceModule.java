@@ -16,6 +16,7 @@ import com.google.inject.Singleton;
 import com.google.inject.name.Named;
 
 import org.eclipse.che.inject.DynaModule;
+import org.eclipse.che.jdt.core.search.SharedIndexStore;
 import org.eclipse.che.plugin.java.server.ProjectListeners;
 import org.eclipse.che.plugin.java.server.refactoring.RefactoringManager;
 import org.eclipse.che.plugin.java.server.rest.CodeAssistService;
@@ -47,6 +48,7 @@ public class JdtGuiceModule extends AbstractModule {
         bind(JdtExceptionMapper.class);
         bind(CompilerSetupService.class);
         bind(ResourcesPlugin.class).asEagerSingleton();
+        bind(SharedIndexStore.class).asEagerSingleton();
         bind(JavaPlugin.class).asEagerSingleton();
         bind(FileBuffersPlugin.class).asEagerSingleton();
         bind(ProjectListeners.class).asEagerSingleton();
@@ -69,5 +71,12 @@ public class JdtGuiceModule extends AbstractModule {
         return Paths.get(System.getProperty("user.home"), wsMetadata, "index").toString();
     }
 
+    @Provides
+    @Named("che.java.navigation.cache.dir")
+    @Singleton
+    protected String provideNavigationCache(@Named("che.workspace.metadata") String wsMetadata) {
+        return Paths.get(System.getProperty("user.home"), wsMetadata, "navigation").toString();
+    }
+
 
 }
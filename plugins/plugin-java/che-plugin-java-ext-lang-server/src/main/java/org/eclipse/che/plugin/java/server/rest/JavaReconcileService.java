@@ -12,6 +12,8 @@ package org.eclipse.che.plugin.java.server.rest;
 
 import com.google.inject.Inject;
 
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.ide.ext.java.shared.dto.Change;
 import org.eclipse.che.ide.ext.java.shared.dto.ReconcileResult;
 import org.eclipse.che.jdt.javaeditor.JavaReconciler;
 import org.eclipse.jdt.core.IJavaProject;
@@ -19,10 +21,14 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.JavaModel;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import java.util.List;
 
 /**
  * @author Evgen Vidolob
@@ -42,4 +48,42 @@ public class JavaReconcileService {
         IJavaProject javaProject = model.getJavaProject(projectPath);
         return reconciler.reconcile(javaProject, fqn);
     }
+
+    @POST
+    @Path("open")
+    @Consumes("text/plain")
+    @Produces("application/json")
+    public ReconcileResult open(@QueryParam("projectpath") String projectPath,
+                                @QueryParam("fqn") String fqn,
+                                @QueryParam("version") int version,
+                                String content) throws JavaModelException, NotFoundException {
+        IJavaProject javaProject = model.getJavaProject(projectPath);
+        ReconcileResult result = reconciler.open(javaProject, fqn, version, content);
+        if (result == null) {
+            throw new NotFoundException("Type " + fqn + " not found in project " + projectPath);
+        }
+        return result;
+    }
+
+    @POST
+    @Path("changes")
+    @Consumes("application/json")
+    @Produces("application/json")
+    public ReconcileResult applyChanges(@QueryParam("projectpath") String projectPath,
+                                        @QueryParam("fqn") String fqn,
+                                        @QueryParam("from") int fromVersion,
+                                        @QueryParam("to") int toVersion,
+                                        List<Change> changes) throws JavaModelException, NotFoundException {
+        IJavaProject javaProject = model.getJavaProject(projectPath);
+        ReconcileResult result = reconciler.applyChanges(javaProject, fqn, fromVersion, toVersion, changes);
+        if (result == null) {
+            throw new NotFoundException("Working copy of " + fqn + " isn't opened in project " + projectPath);
+        }
+        return result;
+    }
+
+    @DELETE
+    public void close(@QueryParam("projectpath") String projectPath, @QueryParam("fqn") String fqn) {
+        reconciler.close(model.getJavaProject(projectPath), fqn);
+    }
 }
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.java.server;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.ide.ext.java.shared.JarEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * Tests for {@link JarContentCache}.
+ */
+public class JarContentCacheTest {
+
+    private File            root;
+    private File            jar;
+    private JarContentCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("navigation-cache").toFile();
+        jar = new File(root, "library.jar");
+        Files.write(jar.toPath(), "jar content".getBytes());
+        cache = new JarContentCache(new File(root, "cache").getAbsolutePath(), 1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void shouldGenerateSourceOnlyOnce() throws Exception {
+        AtomicInteger generated = new AtomicInteger();
+
+        cache.getSource(jar, "test.A", () -> "class A" + generated.incrementAndGet());
+        String source = cache.getSource(jar, "test.A", () -> "class A" + generated.incrementAndGet());
+
+        assertThat(source).isEqualTo("class A1");
+        assertThat(generated.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReadEvictedSourceFromDisk() throws Exception {
+        AtomicInteger generated = new AtomicInteger();
+
+        cache.getSource(jar, "test.A", () -> "class A" + generated.incrementAndGet());
+        cache.getSource(jar, "test.B", () -> "class B" + generated.incrementAndGet());
+        String source = new JarContentCache(new File(root, "cache").getAbsolutePath(), 1)
+                .getSource(jar, "test.A", () -> "class A" + generated.incrementAndGet());
+
+        assertThat(source).isEqualTo("class A1");
+        assertThat(generated.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldShareSourcesBetweenCopiesOfJar() throws Exception {
+        File copy = new File(root, "copy.jar");
+        Files.copy(jar.toPath(), copy.toPath());
+
+        cache.getSource(jar, "test.A", () -> "class A");
+        String source = cache.getSource(copy, "test.A", () -> "generated again");
+
+        assertThat(source).isEqualTo("class A");
+    }
+
+    @Test
+    public void shouldGenerateSourceAgainWhenJarChanged() throws Exception {
+        cache.getSource(jar, "test.A", () -> "class A");
+        Files.write(jar.toPath(), "new jar content".getBytes());
+
+        String source = cache.getSource(jar, "test.A", () -> "class A changed");
+
+        assertThat(source).isEqualTo("class A changed");
+    }
+
+    @Test
+    public void shouldNotCacheSourceOfClassOutsideOfJar() throws Exception {
+        AtomicInteger generated = new AtomicInteger();
+
+        cache.getSource(root, "test.A", () -> "class A" + generated.incrementAndGet());
+        cache.getSource(root, "test.A", () -> "class A" + generated.incrementAndGet());
+
+        assertThat(generated.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldExpandDefaultPackageAfterRootOfJar() throws Exception {
+        List<JarEntry> rootEntries = cache.getRootEntries(jar, () -> Collections.singletonList(entry("(default package)")));
+
+        List<JarEntry> defaultPackage = cache.getEntries(jar, "", () -> Collections.singletonList(entry("A.class")));
+
+        assertThat(rootEntries).onProperty("name").containsExactly("(default package)");
+        assertThat(defaultPackage).onProperty("name").containsExactly("A.class");
+    }
+
+    @Test
+    public void shouldReadRootAndDefaultPackageEntriesFromDiskSeparately() throws Exception {
+        cache.getRootEntries(jar, () -> Collections.singletonList(entry("(default package)")));
+        cache.getEntries(jar, "", () -> Collections.singletonList(entry("A.class")));
+        JarContentCache restarted = new JarContentCache(new File(root, "cache").getAbsolutePath(), 1);
+
+        assertThat(restarted.getEntries(jar, "", Collections::emptyList)).onProperty("name").containsExactly("A.class");
+        assertThat(restarted.getRootEntries(jar, Collections::emptyList)).onProperty("name").containsExactly("(default package)");
+    }
+
+    private static JarEntry entry(String name) {
+        JarEntry entry = DtoFactory.newDto(JarEntry.class);
+        entry.setName(name);
+        return entry;
+    }
+}
@@ -11,6 +11,7 @@
 package org.eclipse.che.plugin.java.server.che;
 
 import org.eclipse.che.ide.ext.java.shared.OpenDeclarationDescriptor;
+import org.eclipse.che.plugin.java.server.JarContentCache;
 import org.eclipse.che.plugin.java.server.JavaNavigation;
 import org.eclipse.che.plugin.java.server.SourcesFromBytecodeGenerator;
 import org.junit.Ignore;
@@ -25,7 +26,8 @@ import static org.fest.assertions.Assertions.assertThat;
 @Ignore
 public class FindDeclarationTest extends BaseTest {
 
-    private JavaNavigation navigation = new JavaNavigation(new SourcesFromBytecodeGenerator());
+    private JavaNavigation navigation = new JavaNavigation(new SourcesFromBytecodeGenerator(),
+                                                            new JarContentCache("target/navigation-cache", 100));
 
     @Test
     public void testFindClassIsNotNullOrEmpty() throws Exception {
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.java.server.che;
+
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.ide.ext.java.shared.dto.Change;
+import org.eclipse.che.ide.ext.java.shared.dto.HighlightedPosition;
+import org.eclipse.che.ide.ext.java.shared.dto.ReconcileResult;
+import org.eclipse.che.jdt.javaeditor.JavaReconciler;
+import org.eclipse.che.jdt.javaeditor.SemanticHighlightingReconciler;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for working copy sessions of {@link JavaReconciler}: versions of the applied changes and delta results.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class JavaReconcilerTest {
+    private static final String FQN = "p1.X";
+
+    @Mock
+    private SemanticHighlightingReconciler semanticHighlighting;
+    @Mock
+    private IJavaProject                   javaProject;
+    @Mock
+    private ICompilationUnit               workingCopy;
+    @Mock
+    private IBuffer                        buffer;
+
+    private JavaReconciler            reconciler;
+    private List<IProblem>            problems;
+    private List<HighlightedPosition> positions;
+
+    @Before
+    public void setUp() throws Exception {
+        IPath projectPath = mock(IPath.class);
+        IType type = mock(IType.class);
+        ICompilationUnit compilationUnit = mock(ICompilationUnit.class);
+        when(javaProject.getPath()).thenReturn(projectPath);
+        when(projectPath.toString()).thenReturn("/project");
+        when(javaProject.findType(FQN)).thenReturn(type);
+        when(type.getCompilationUnit()).thenReturn(compilationUnit);
+        when(compilationUnit.getWorkingCopy(any(WorkingCopyOwner.class), any(IProgressMonitor.class))).thenReturn(workingCopy);
+        when(workingCopy.getBuffer()).thenReturn(buffer);
+
+        problems = new ArrayList<>();
+        positions = new ArrayList<>();
+        when(workingCopy.reconcile(anyInt(), anyBoolean(), any(WorkingCopyOwner.class), any(IProgressMonitor.class)))
+                .thenAnswer(invocation -> {
+                    WorkingCopyOwner owner = (WorkingCopyOwner)invocation.getArguments()[2];
+                    for (IProblem problem : problems) {
+                        owner.getProblemRequestor(workingCopy).acceptProblem(problem);
+                    }
+                    return mock(CompilationUnit.class);
+                });
+        when(semanticHighlighting.reconcileSemanticHighlight(any(CompilationUnit.class))).thenAnswer(invocation -> new ArrayList<>(positions));
+
+        reconciler = new JavaReconciler(semanticHighlighting);
+    }
+
+    @After
+    public void tearDown() {
+        reconciler.shutdown();
+    }
+
+    @Test
+    public void shouldReturnFullResultOfFileContentWhenWorkingCopyIsNotOpened() throws Exception {
+        problems.add(problem("Duplicate method foo()", 10));
+
+        ReconcileResult result = reconciler.reconcile(javaProject, FQN);
+
+        assertThat(result.isDelta()).isFalse();
+        assertThat(result.getVersion()).isEqualTo(0);
+        assertThat(result.getProblems()).onProperty("message").containsExactly("Duplicate method foo()");
+        assertThat(reconciler.isOpened(javaProject, FQN)).isFalse();
+    }
+
+    @Test
+    public void shouldReturnFullResultWhenWorkingCopyIsOpened() throws Exception {
+        problems.add(problem("Duplicate method foo()", 10));
+
+        ReconcileResult result = reconciler.open(javaProject, FQN, 3, "class X {}");
+
+        verify(buffer).setContents("class X {}");
+        assertThat(result.isDelta()).isFalse();
+        assertThat(result.getVersion()).isEqualTo(3);
+        assertThat(result.getProblems()).hasSize(1);
+        assertThat(reconciler.isOpened(javaProject, FQN)).isTrue();
+    }
+
+    @Test
+    public void shouldReturnDeltaToPreviousResultAfterChanges() throws Exception {
+        HighlightedPosition keptPosition = position(0);
+        HighlightedPosition removedPosition = position(10);
+        problems.add(problem("kept", 1));
+        problems.add(problem("removed", 2));
+        positions.addAll(asList(removedPosition, keptPosition));
+        reconciler.open(javaProject, FQN, 0, null);
+
+        problems.remove(1);
+        problems.add(problem("added", 3));
+        positions.remove(removedPosition);
+        ReconcileResult result = reconciler.applyChanges(javaProject, FQN, 0, 1, singletonList(change(100, 0, "a")));
+
+        verify(buffer).replace(100, 0, "a");
+        assertThat(result.isDelta()).isTrue();
+        assertThat(result.getBaseVersion()).isEqualTo(0);
+        assertThat(result.getVersion()).isEqualTo(1);
+        assertThat(result.getRemovedProblems()).containsExactly(1);
+        assertThat(result.getProblems()).onProperty("message").containsExactly("added");
+        assertThat(result.getRemovedHighlightedPositions()).containsExactly(0);
+        assertThat(result.getHighlightedPositions()).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepProblemsAndPositionsMovedByChanges() throws Exception {
+        problems.add(problem("moved", 10, 14));
+        problems.add(problem("touched", 20, 24));
+        positions.add(position(30));
+        reconciler.open(javaProject, FQN, 0, null);
+
+        // "ab" moves all the elements, "cd" is inserted into the second problem
+        problems.clear();
+        problems.add(problem("moved", 12, 16));
+        problems.add(problem("touched", 22, 28));
+        positions.clear();
+        positions.add(position(34));
+        ReconcileResult result = reconciler.applyChanges(javaProject, FQN, 0, 1, asList(change(0, 0, "ab"), change(23, 0, "cd")));
+
+        assertThat(result.isDelta()).isTrue();
+        assertThat(result.getRemovedProblems()).containsExactly(1);
+        assertThat(result.getProblems()).onProperty("message").containsExactly("touched");
+        assertThat(result.getRemovedHighlightedPositions()).isEmpty();
+        assertThat(result.getHighlightedPositions()).isEmpty();
+    }
+
+    @Test(timeout = 10_000)
+    public void shouldNotWaitForReconcileOfAnotherWorkingCopy() throws Exception {
+        IType otherType = mock(IType.class);
+        ICompilationUnit otherUnit = mock(ICompilationUnit.class);
+        ICompilationUnit otherWorkingCopy = mock(ICompilationUnit.class);
+        when(javaProject.findType("p1.Y")).thenReturn(otherType);
+        when(otherType.getCompilationUnit()).thenReturn(otherUnit);
+        when(otherUnit.getWorkingCopy(any(WorkingCopyOwner.class), any(IProgressMonitor.class))).thenReturn(otherWorkingCopy);
+        when(otherWorkingCopy.getBuffer()).thenReturn(mock(IBuffer.class));
+        when(otherWorkingCopy.reconcile(anyInt(), anyBoolean(), any(WorkingCopyOwner.class), any(IProgressMonitor.class)))
+                .thenReturn(mock(CompilationUnit.class));
+        reconciler.open(javaProject, FQN, 0, null);
+
+        CountDownLatch reconcileStarted = new CountDownLatch(1);
+        CountDownLatch releaseReconcile = new CountDownLatch(1);
+        when(workingCopy.reconcile(anyInt(), anyBoolean(), any(WorkingCopyOwner.class), any(IProgressMonitor.class)))
+                .thenAnswer(invocation -> {
+                    reconcileStarted.countDown();
+                    releaseReconcile.await();
+                    return mock(CompilationUnit.class);
+                });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ReconcileResult> blocked =
+                    executor.submit(() -> reconciler.applyChanges(javaProject, FQN, 0, 1, singletonList(change(0, 0, "a"))));
+            reconcileStarted.await();
+
+            assertThat(reconciler.open(javaProject, "p1.Y", 0, null)).isNotNull();
+
+            releaseReconcile.countDown();
+            assertThat(blocked.get().getVersion()).isEqualTo(1);
+        } finally {
+            releaseReconcile.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldApplyChangesInOrderOfVersions() throws Exception {
+        reconciler.open(javaProject, FQN, 0, null);
+
+        ReconcileResult first = reconciler.applyChanges(javaProject, FQN, 1, 2, singletonList(change(1, 0, "b")));
+        verify(buffer, never()).replace(anyInt(), anyInt(), anyString());
+        assertThat(first.getVersion()).isEqualTo(0);
+
+        ReconcileResult second = reconciler.applyChanges(javaProject, FQN, 0, 1, singletonList(change(0, 0, "a")));
+
+        InOrder inOrder = inOrder(buffer);
+        inOrder.verify(buffer).replace(0, 0, "a");
+        inOrder.verify(buffer).replace(1, 0, "b");
+        assertThat(second.getVersion()).isEqualTo(2);
+        assertThat(second.getBaseVersion()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldIgnoreChangesWhichWereAlreadyApplied() throws Exception {
+        reconciler.open(javaProject, FQN, 0, null);
+        reconciler.applyChanges(javaProject, FQN, 0, 1, singletonList(change(0, 0, "a")));
+
+        ReconcileResult result = reconciler.applyChanges(javaProject, FQN, 0, 1, singletonList(change(0, 0, "a")));
+
+        verify(buffer).replace(0, 0, "a");
+        assertThat(result.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReturnFullResultWhenWorkingCopyIsOpenedAgain() throws Exception {
+        problems.add(problem("first", 1));
+        reconciler.open(javaProject, FQN, 0, null);
+        reconciler.applyChanges(javaProject, FQN, 0, 1, singletonList(change(0, 0, "a")));
+
+        problems.add(problem("second", 2));
+        ReconcileResult result = reconciler.open(javaProject, FQN, 5, "content");
+
+        assertThat(result.isDelta()).isFalse();
+        assertThat(result.getVersion()).isEqualTo(5);
+        assertThat(result.getProblems()).onProperty("message").containsExactly("first", "second");
+
+        ReconcileResult delta = reconciler.applyChanges(javaProject, FQN, 5, 6, singletonList(change(0, 1, null)));
+        assertThat(delta.isDelta()).isTrue();
+        assertThat(delta.getBaseVersion()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldReturnFullResultOfOpenedWorkingCopyWithItsVersion() throws Exception {
+        reconciler.open(javaProject, FQN, 0, null);
+        reconciler.applyChanges(javaProject, FQN, 0, 1, singletonList(change(0, 0, "a")));
+
+        ReconcileResult result = reconciler.reconcile(javaProject, FQN);
+
+        assertThat(result.isDelta()).isFalse();
+        assertThat(result.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotApplyChangesWhenWorkingCopyIsClosed() throws Exception {
+        reconciler.open(javaProject, FQN, 0, null);
+        reconciler.close(javaProject, FQN);
+
+        assertThat(reconciler.applyChanges(javaProject, FQN, 0, 1, Collections.<Change>emptyList())).isNull();
+        assertThat(reconciler.isOpened(javaProject, FQN)).isFalse();
+    }
+
+    private static IProblem problem(String message, int start) {
+        return problem(message, start, start);
+    }
+
+    private static IProblem problem(String message, int start, int end) {
+        IProblem problem = mock(IProblem.class);
+        when(problem.getMessage()).thenReturn(message);
+        when(problem.getSourceStart()).thenReturn(start);
+        when(problem.getSourceEnd()).thenReturn(end);
+        when(problem.getArguments()).thenReturn(new String[0]);
+        when(problem.getOriginatingFileName()).thenReturn("X.java".toCharArray());
+        return problem;
+    }
+
+    private static HighlightedPosition position(int offset) {
+        HighlightedPosition position = DtoFactory.newDto(HighlightedPosition.class);
+        position.setOffset(offset);
+        position.setLength(1);
+        position.setType("field");
+        return position;
+    }
+
+    private static Change change(int offset, int length, String text) {
+        return DtoFactory.newDto(Change.class).withOffset(offset).withLength(length).withText(text);
+    }
+}
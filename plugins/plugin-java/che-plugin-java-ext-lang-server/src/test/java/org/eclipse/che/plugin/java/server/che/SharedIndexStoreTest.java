@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.java.server.che;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.jdt.core.search.SharedIndexStore;
+import org.eclipse.core.runtime.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * Tests for {@link SharedIndexStore}.
+ */
+public class SharedIndexStoreTest {
+    private File root;
+    private File storeDir;
+    private File indexDir;
+    private File jar;
+
+    @Before
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("shared-index").toFile();
+        storeDir = new File(root, "store");
+        indexDir = new File(root, "index");
+        jar = new File(root, "lib.jar");
+        storeDir.mkdirs();
+        Files.write(jar.toPath(), "jar content".getBytes());
+    }
+
+    @After
+    public void tearDown() {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void shouldNotFindIndexOfUnknownJar() throws Exception {
+        SharedIndexStore store = new SharedIndexStore(storeDir.getPath(), true, indexDir.getPath());
+
+        assertThat(store.find(new Path(jar.getPath()))).isNull();
+    }
+
+    @Test
+    public void shouldFindPublishedIndexOfJar() throws Exception {
+        SharedIndexStore store = new SharedIndexStore(storeDir.getPath(), true, indexDir.getPath());
+
+        store.publish(new Path(jar.getPath()), createIndex("index content"));
+        URL found = store.find(new Path(jar.getPath()));
+
+        assertThat(found).isNotNull();
+        assertThat(new String(Files.readAllBytes(new File(found.toURI()).toPath()))).isEqualTo("index content");
+    }
+
+    @Test
+    public void shouldFindIndexOfJarWithSameContentAtOtherPath() throws Exception {
+        File copy = new File(root, "copy.jar");
+        Files.copy(jar.toPath(), copy.toPath());
+        SharedIndexStore store = new SharedIndexStore(storeDir.getPath(), true, indexDir.getPath());
+
+        store.publish(new Path(jar.getPath()), createIndex("index content"));
+
+        assertThat(store.find(new Path(copy.getPath()))).isEqualTo(store.find(new Path(jar.getPath())));
+    }
+
+    @Test
+    public void shouldNotPublishIndexWhenPublishingIsDisabled() throws Exception {
+        SharedIndexStore store = new SharedIndexStore(storeDir.getPath(), false, indexDir.getPath());
+
+        store.publish(new Path(jar.getPath()), createIndex("index content"));
+
+        assertThat(store.find(new Path(jar.getPath()))).isNull();
+    }
+
+    @Test
+    public void shouldReuseHashOfUnchangedJarAfterRestart() throws Exception {
+        new SharedIndexStore(storeDir.getPath(), true, indexDir.getPath()).publish(new Path(jar.getPath()), createIndex("index"));
+        long modified = jar.lastModified();
+        // same size and modification time, so the content isn't read again
+        Files.write(jar.toPath(), "JAR CONTENT".getBytes());
+        jar.setLastModified(modified);
+
+        SharedIndexStore store = new SharedIndexStore(storeDir.getPath(), true, indexDir.getPath());
+
+        assertThat(store.find(new Path(jar.getPath()))).isNotNull();
+    }
+
+    @Test
+    public void shouldHashJarAgainWhenItIsChanged() throws Exception {
+        SharedIndexStore store = new SharedIndexStore(storeDir.getPath(), true, indexDir.getPath());
+        store.publish(new Path(jar.getPath()), createIndex("index"));
+        URL previous = store.find(new Path(jar.getPath()));
+
+        Files.write(jar.toPath(), "changed jar content".getBytes());
+        jar.setLastModified(jar.lastModified() + 2000);
+
+        assertThat(store.find(new Path(jar.getPath()))).isNull();
+        store.publish(new Path(jar.getPath()), createIndex("new index"));
+        URL found = store.find(new Path(jar.getPath()));
+        assertThat(found).isNotNull().isNotEqualTo(previous);
+        assertThat(new SharedIndexStore(storeDir.getPath(), true, indexDir.getPath()).find(new Path(jar.getPath()))).isEqualTo(found);
+    }
+
+    private File createIndex(String content) throws Exception {
+        File index = File.createTempFile("lib", ".index", root);
+        Files.write(index.toPath(), content.getBytes());
+        return index;
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.shared;
+
+import org.eclipse.che.ide.ext.java.shared.dto.Change;
+import org.eclipse.che.ide.ext.java.shared.dto.HighlightedPosition;
+import org.eclipse.che.ide.ext.java.shared.dto.Problem;
+
+import java.util.List;
+
+/**
+ * Moves problems and highlighted positions along with the text changes of the editor.
+ * <p/>
+ * The server and the editor move the elements of the previous reconcile result the same way,
+ * so elements which are only moved by the changes are kept and don't have to be sent again.
+ * Line numbers of the problems are not changed.
+ */
+public final class TextChanges {
+
+    /**
+     * Moves the problem along with the changes.
+     *
+     * @param problem
+     *         problem located in the text before the changes
+     * @param changes
+     *         changes in order they were made
+     * @return {@code false} if the problem is touched by a change, so its location is unknown and problem is not moved
+     */
+    public static boolean shift(Problem problem, List<Change> changes) {
+        int start = problem.getSourceStart();
+        if (start < 0) {
+            return true;
+        }
+        int shifted = shift(start, Math.max(0, problem.getSourceEnd() - start + 1), changes);
+        if (shifted < 0) {
+            return false;
+        }
+        problem.setSourceStart(shifted);
+        problem.setSourceEnd(problem.getSourceEnd() + shifted - start);
+        return true;
+    }
+
+    /**
+     * Moves the highlighted position along with the changes.
+     *
+     * @param position
+     *         position located in the text before the changes
+     * @param changes
+     *         changes in order they were made
+     * @return {@code false} if the position is touched by a change, so its location is unknown and position is not moved
+     */
+    public static boolean shift(HighlightedPosition position, List<Change> changes) {
+        int shifted = shift(position.getOffset(), position.getLength(), changes);
+        if (shifted < 0) {
+            return false;
+        }
+        position.setOffset(shifted);
+        return true;
+    }
+
+    /** Returns offset of the range after the changes, or {@code -1} if the range is touched by any of them. */
+    private static int shift(int offset, int length, List<Change> changes) {
+        for (Change change : changes) {
+            if (offset + length <= change.getOffset()) {
+                continue;
+            }
+            if (offset < change.getOffset() + change.getLength()) {
+                return -1;
+            }
+            offset += (change.getText() == null ? 0 : change.getText().length()) - change.getLength();
+        }
+        return offset;
+    }
+
+    private TextChanges() {
+    }
+}
@@ -16,6 +16,11 @@ import org.eclipse.che.dto.shared.DTO;
 import java.util.List;
 
 /**
+ * Result of the reconcile of java compilation unit.
+ * <p/>
+ * Result may be a delta to the previous result, in this case {@link #getProblems()} and {@link #getHighlightedPositions()}
+ * contain only added elements, which should be appended after removing of elements at removed indexes of the previous result.
+ *
  * @author Evgen Vidolob
  */
 @DTO
@@ -29,4 +34,28 @@ public interface ReconcileResult {
 
     void setHighlightedPositions(List<HighlightedPosition> positions);
 
+    /** Returns version of the editor content which was reconciled, content of the file has version {@code 0}. */
+    int getVersion();
+
+    void setVersion(int version);
+
+    /** Returns {@code true} if this result is a delta to the result with {@link #getBaseVersion()} version. */
+    boolean isDelta();
+
+    void setDelta(boolean delta);
+
+    /** Returns version of the result this delta is based on. */
+    int getBaseVersion();
+
+    void setBaseVersion(int baseVersion);
+
+    /** Returns indexes of problems of the base result which were removed. */
+    List<Integer> getRemovedProblems();
+
+    void setRemovedProblems(List<Integer> removedProblems);
+
+    /** Returns indexes of highlighted positions of the base result which were removed. */
+    List<Integer> getRemovedHighlightedPositions();
+
+    void setRemovedHighlightedPositions(List<Integer> removedHighlightedPositions);
 }
@@ -12,15 +12,20 @@ package org.eclipse.che.plugin.maven.server;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 /**
  *
- * Manages and cache MavenServerWrapper instances
+ * Manages and cache MavenServerWrapper instances.
+ * <p/>
+ * Keeps up to {@code che.maven.server.pool_size} idle servers of each {@link ServerType},
+ * so concurrent operations (e.g. resolving of independent modules) don't pay for creating a new maven server every time.
  *
  * @author Evgen Vidolob
  */
@@ -28,36 +33,46 @@ import java.util.Set;
 public class MavenWrapperManager {
 
 
-    private final MavenServerManager    serverManager;
-    private final Map<ServerType, MavenServerWrapper> cache = new HashMap<>();
-    private final Set<MavenServerWrapper> usedServers = new HashSet<>();
+    private final MavenServerManager                         serverManager;
+    private final int                                        poolSize;
+    private final Map<ServerType, Deque<MavenServerWrapper>> idleServers = new EnumMap<>(ServerType.class);
+    private final Map<MavenServerWrapper, ServerType>        usedServers = new HashMap<>();
 
 
     @Inject
-    public MavenWrapperManager(MavenServerManager serverManager) {
+    public MavenWrapperManager(MavenServerManager serverManager, @Named("che.maven.server.pool_size") int poolSize) {
         this.serverManager = serverManager;
+        this.poolSize = Math.max(1, poolSize);
+        for (ServerType type : ServerType.values()) {
+            idleServers.put(type, new ArrayDeque<>());
+        }
+    }
+
+    public MavenWrapperManager(MavenServerManager serverManager) {
+        this(serverManager, 1);
     }
 
     public synchronized MavenServerWrapper getMavenServer(ServerType type) {
-        MavenServerWrapper wrapper = cache.get(type);
+        MavenServerWrapper wrapper = idleServers.get(type).poll();
         if (wrapper == null) {
             wrapper = serverManager.createMavenServer();
-            cache.put(type, wrapper);
         }
 
-        if (usedServers.contains(wrapper)) {
-            //need to warn here
-            return serverManager.createMavenServer();
-        }
-
-        usedServers.add(wrapper);
+        usedServers.put(wrapper, type);
         return wrapper;
     }
 
     public synchronized void release(MavenServerWrapper wrapper) {
-        if (usedServers.contains(wrapper)) {
+        ServerType type = usedServers.remove(wrapper);
+        if (type == null) {
+            wrapper.dispose();
+            return;
+        }
+
+        Deque<MavenServerWrapper> idle = idleServers.get(type);
+        if (idle.size() < poolSize) {
             wrapper.reset();
-            usedServers.remove(wrapper);
+            idle.push(wrapper);
         } else {
             wrapper.dispose();
         }
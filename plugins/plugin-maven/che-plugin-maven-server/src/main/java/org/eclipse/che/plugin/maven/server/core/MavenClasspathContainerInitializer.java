@@ -13,28 +13,52 @@ package org.eclipse.che.plugin.maven.server.core;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import org.eclipse.che.maven.data.MavenArtifact;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
+import org.eclipse.che.plugin.maven.server.core.classpath.DependencyGraphCache;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.core.ClasspathContainerInitializer;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+
+import java.util.List;
 
 /**
+ * Initializes maven classpath container.
+ * <p/>
+ * While maven model of the project isn't resolved yet (e.g. right after agent start) container is built from
+ * the dependencies cached by {@link DependencyGraphCache}, it is replaced when resolution of the project is finished.
+ *
  * @author Evgen Vidolob
  */
 @Singleton
 public class MavenClasspathContainerInitializer extends ClasspathContainerInitializer {
 
-    private final ClasspathManager    classpathManager;
-    private final MavenProjectManager mavenProjectManager;
+    private final ClasspathManager     classpathManager;
+    private final MavenProjectManager  mavenProjectManager;
+    private final MavenProjectResolver projectResolver;
+    private final DependencyGraphCache graphCache;
 
     @Inject
-    public MavenClasspathContainerInitializer(ClasspathManager classpathManager, MavenProjectManager mavenProjectManager) {
+    public MavenClasspathContainerInitializer(ClasspathManager classpathManager,
+                                              MavenProjectManager mavenProjectManager,
+                                              MavenProjectResolver projectResolver,
+                                              DependencyGraphCache graphCache) {
         this.classpathManager = classpathManager;
         this.mavenProjectManager = mavenProjectManager;
+        this.projectResolver = projectResolver;
+        this.graphCache = graphCache;
+    }
+
+    /**
+     * Registers this initializer in java model, {@link ResourcesPlugin} must be initialized before java model is created.
+     */
+    @Inject
+    void register(ResourcesPlugin plugin) {
+        JavaModelManager.getJavaModelManager().containerInitializersCache.put(MavenClasspathContainer.CONTAINER_ID, this);
     }
 
     @Override
@@ -42,12 +66,18 @@ public class MavenClasspathContainerInitializer extends ClasspathContainerInitia
         if (isMaven2ClasspathContainer(containerPath)) {
 
             MavenProject mavenProject = mavenProjectManager.findMavenProject(project.getProject());
-            if (mavenProject != null) {
+            if (mavenProject != null && projectResolver.isResolved(mavenProject)) {
+                classpathManager.updateClasspath(mavenProject);
+                return;
+            }
+
+            List<MavenArtifact> dependencies = graphCache.find(project.getProject().getFullPath().toOSString());
+            if (dependencies != null) {
+                classpathManager.updateClasspath(project, dependencies);
+            } else if (mavenProject != null) {
                 classpathManager.updateClasspath(mavenProject);
-            } else {
-                throw new CoreException(
-                        new Status(IStatus.ERROR, "maven", "Can't find maven project: " + project.getProject().getFullPath().toOSString()));
             }
+            // otherwise project isn't known yet, java model uses failure container until maven workspace updates the project
 
         }
     }
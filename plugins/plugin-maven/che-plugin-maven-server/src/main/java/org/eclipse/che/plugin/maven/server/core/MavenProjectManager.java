@@ -21,6 +21,7 @@ import org.eclipse.che.maven.server.MavenTerminal;
 import org.eclipse.che.plugin.maven.server.MavenServerManager;
 import org.eclipse.che.plugin.maven.server.MavenServerWrapper;
 import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProjectModifications;
 import org.eclipse.core.resources.IProject;
@@ -97,8 +98,12 @@ public class MavenProjectManager {
         return (MavenProjectListener)Proxy.newProxyInstance(Thread.currentThread().getContextClassLoader(),
                                                             new Class[] {MavenProjectListener.class},
                                                             (proxy, method, args) -> {
-                                                                for (MavenProjectListener listener : listeners) {
-                                                                    method.invoke(listener, args);
+                                                                // projects are resolved concurrently, but listeners
+                                                                // are not required to be thread safe
+                                                                synchronized (listeners) {
+                                                                    for (MavenProjectListener listener : listeners) {
+                                                                        method.invoke(listener, args);
+                                                                    }
                                                                 }
                                                                 return null;
                                                             });
@@ -112,14 +117,22 @@ public class MavenProjectManager {
         listeners.remove(listener);
     }
 
-    public void resolveMavenProject(IProject project, MavenProject mavenProject) {
+    /**
+     * Resolves maven project with one of the pooled maven servers, so several projects may be resolved concurrently.
+     * Listeners are notified about resolved projects one at a time.
+     *
+     * @return result of the model resolution which was applied to the given maven project
+     */
+    public MavenModelReaderResult resolveMavenProject(IProject project, MavenProject mavenProject) {
         MavenServerWrapper mavenServer = wrapperManager.getMavenServer(MavenWrapperManager.ServerType.RESOLVE);
         try {
 
             mavenNotifier.setText("Resolving project: " + mavenProject.getName());
             mavenServer.customize(copyWorkspaceCache(), terminal, mavenNotifier, false, true);
-            MavenProjectModifications modifications = mavenProject.resolve(project, mavenServer, serverManager);
+            MavenModelReaderResult modelReaderResult = mavenProject.resolveModel(project, mavenServer, serverManager);
+            MavenProjectModifications modifications = mavenProject.setResolvedModel(modelReaderResult);
             dispatcher.projectResolved(mavenProject, modifications);
+            return modelReaderResult;
 
         } finally {
             wrapperManager.release(mavenServer);
@@ -127,6 +140,17 @@ public class MavenProjectManager {
 
     }
 
+    /**
+     * Applies previously resolved model to the maven project without invoking maven.
+     *
+     * @param mavenProject      project to restore
+     * @param modelReaderResult model which was resolved earlier for the same project
+     */
+    public void restoreMavenProject(MavenProject mavenProject, MavenModelReaderResult modelReaderResult) {
+        MavenProjectModifications modifications = mavenProject.setResolvedModel(modelReaderResult);
+        dispatcher.projectResolved(mavenProject, modifications);
+    }
+
 
     public void update(List<IProject> projects, boolean recursive) {
         if (projects.isEmpty()) {
@@ -407,6 +431,15 @@ public class MavenProjectManager {
         }
     }
 
+    public MavenProject findMavenProject(MavenKey mavenKey) {
+        readLock.lock();
+        try {
+            return keyToProjectMap.get(mavenKey);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     public MavenWorkspaceCache copyWorkspaceCache() {
         readLock.lock();
         try {
@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.core;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.maven.data.MavenArtifact;
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.plugin.maven.server.core.classpath.DependencyGraphCache;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Resolves maven projects of the workspace.
+ * <ul>
+ * <li>Independent modules are resolved concurrently, project is resolved only after the projects
+ * it depends on (parent or dependency from the same batch) have been resolved.</li>
+ * <li>Project is resolved only when fingerprint of its pom files (pom.xml of the project and of its parents from workspace)
+ * has been changed since last resolution, or when one of the projects it depends on is resolved in the same batch.</li>
+ * <li>Resolved models are persisted with {@link MavenProjectStateStorage} and restored on agent restart
+ * without invoking maven. Models with problems or unresolved artifacts are neither remembered nor persisted,
+ * since the failure may be transient (e.g. network or repository is unavailable), such projects are resolved
+ * again next time.</li>
+ * <li>Resolved dependencies are shared through {@link DependencyGraphCache}, so classpath may be attached
+ * before the project is resolved.</li>
+ * </ul>
+ */
+@Singleton
+public class MavenProjectResolver {
+    private static final Logger LOG = LoggerFactory.getLogger(MavenProjectResolver.class);
+
+    private final MavenProjectManager      projectManager;
+    private final MavenProjectStateStorage stateStorage;
+    private final DependencyGraphCache     graphCache;
+    private final ExecutorService          executor;
+
+    /** Fingerprints of projects whose current model is resolved. */
+    private final Map<MavenProject, String> resolvedFingerprints = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Inject
+    public MavenProjectResolver(MavenProjectManager projectManager,
+                                MavenProjectStateStorage stateStorage,
+                                DependencyGraphCache graphCache,
+                                @Named("che.maven.server.pool_size") int poolSize) {
+        this.projectManager = projectManager;
+        this.stateStorage = stateStorage;
+        this.graphCache = graphCache;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, poolSize),
+                                                     new ThreadFactoryBuilder().setNameFormat("Maven Resolver - %d")
+                                                                               .setUncaughtExceptionHandler(
+                                                                                       LoggingUncaughtExceptionHandler.getInstance())
+                                                                               .setDaemon(true)
+                                                                               .build());
+    }
+
+    /**
+     * Resolves given projects, blocks until all of them are resolved.
+     *
+     * @param projects
+     *         projects to resolve
+     * @param force
+     *         if {@code true} projects are resolved even if their pom files weren't changed
+     * @param afterResolve
+     *         called for each project whose model was resolved or restored, invoked sequentially in the caller thread
+     */
+    public void resolve(Collection<MavenProject> projects, boolean force, Consumer<MavenProject> afterResolve) {
+        Map<MavenProject, String> toResolve = new LinkedHashMap<>();
+        List<MavenProject> done = new ArrayList<>();
+        for (MavenProject project : projects) {
+            if (!project.getProject().exists()) {
+                continue;
+            }
+            String fingerprint = fingerprint(project);
+            if (force) {
+                toResolve.put(project, fingerprint);
+            } else if (!fingerprint.equals(resolvedFingerprints.get(project))) {
+                if (restore(project, fingerprint)) {
+                    done.add(project);
+                } else {
+                    toResolve.put(project, fingerprint);
+                }
+            }
+        }
+
+        addDependentProjects(toResolve, projects);
+        // restored project which depends on the resolved one is resolved again and notified once
+        done.removeIf(toResolve::containsKey);
+
+        if (!toResolve.isEmpty()) {
+            Map<MavenProject, CompletableFuture<Boolean>> tasks = new LinkedHashMap<>();
+            for (MavenProject project : sortByDependencies(toResolve.keySet())) {
+                CompletableFuture<?>[] dependencies = toResolve.keySet()
+                                                               .stream()
+                                                               .filter(other -> other != project && dependsOn(project, other))
+                                                               .map(tasks::get)
+                                                               .filter(Objects::nonNull)
+                                                               .toArray(CompletableFuture[]::new);
+                String fingerprint = toResolve.get(project);
+                tasks.put(project, CompletableFuture.allOf(dependencies)
+                                                    .thenApplyAsync(ignored -> doResolve(project, fingerprint), executor));
+            }
+
+            CompletableFuture.allOf(tasks.values().toArray(new CompletableFuture[tasks.size()])).join();
+            tasks.forEach((project, task) -> {
+                if (task.join()) {
+                    done.add(project);
+                }
+            });
+        }
+
+        for (MavenProject project : done) {
+            try {
+                afterResolve.accept(project);
+            } catch (RuntimeException e) {
+                LOG.error("Can't update maven project " + project.getProject().getFullPath(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if model of the project was resolved by maven or restored from previous resolution.
+     */
+    public boolean isResolved(MavenProject project) {
+        return resolvedFingerprints.containsKey(project);
+    }
+
+    /**
+     * Drops resolved state of the removed project.
+     */
+    public void remove(MavenProject project) {
+        resolvedFingerprints.remove(project);
+        stateStorage.remove(projectPath(project));
+        graphCache.remove(projectPath(project));
+    }
+
+    private boolean restore(MavenProject project, String fingerprint) {
+        MavenProjectStateStorage.State state = stateStorage.load(projectPath(project));
+        if (state == null || !fingerprint.equals(state.getFingerprint())) {
+            return false;
+        }
+        MavenModelReaderResult result = state.toModelReaderResult();
+        projectManager.restoreMavenProject(project, result);
+        resolvedFingerprints.put(project, fingerprint);
+        graphCache.store(projectPath(project), pomChain(project), result.getActiveProfiles(), project.getDependencies());
+        return true;
+    }
+
+    private boolean doResolve(MavenProject project, String fingerprint) {
+        try {
+            if (!project.getProject().exists()) {
+                return false;
+            }
+            MavenModelReaderResult result = projectManager.resolveMavenProject(project.getProject(), project);
+            if (!result.getProblems().isEmpty() || !result.getUnresolvedArtifacts().isEmpty()) {
+                resolvedFingerprints.remove(project);
+                stateStorage.remove(projectPath(project));
+                return true;
+            }
+            resolvedFingerprints.put(project, fingerprint);
+            stateStorage.store(projectPath(project), fingerprint, result);
+            graphCache.store(projectPath(project), pomChain(project), result.getActiveProfiles(), project.getDependencies());
+            return true;
+        } catch (Throwable t) {
+            LOG.error("Can't resolve maven project " + project.getProject().getFullPath(), t);
+            return false;
+        }
+    }
+
+    /**
+     * Project which depends on the project that is going to be resolved must be resolved too,
+     * even if its own pom files weren't changed.
+     */
+    private void addDependentProjects(Map<MavenProject, String> toResolve, Collection<MavenProject> projects) {
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (MavenProject project : projects) {
+                if (toResolve.containsKey(project) || !project.getProject().exists()) {
+                    continue;
+                }
+                for (MavenProject changed : new ArrayList<>(toResolve.keySet())) {
+                    if (dependsOn(project, changed)) {
+                        toResolve.put(project, fingerprint(project));
+                        added = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts projects so that each project follows the projects it depends on, cyclic dependencies are ignored.
+     */
+    private List<MavenProject> sortByDependencies(Set<MavenProject> projects) {
+        Set<MavenProject> sorted = new LinkedHashSet<>();
+        Set<MavenProject> visiting = new HashSet<>();
+        for (MavenProject project : projects) {
+            visit(project, projects, visiting, sorted);
+        }
+        return new ArrayList<>(sorted);
+    }
+
+    private void visit(MavenProject project, Set<MavenProject> projects, Set<MavenProject> visiting, Set<MavenProject> sorted) {
+        if (sorted.contains(project) || !visiting.add(project)) {
+            return;
+        }
+        for (MavenProject other : projects) {
+            if (other != project && dependsOn(project, other)) {
+                visit(other, projects, visiting, sorted);
+            }
+        }
+        visiting.remove(project);
+        sorted.add(project);
+    }
+
+    private static boolean dependsOn(MavenProject project, MavenProject other) {
+        MavenKey otherKey = other.getMavenKey();
+        if (otherKey == null) {
+            return false;
+        }
+        if (otherKey.equals(project.getParentKey())) {
+            return true;
+        }
+        List<MavenArtifact> dependencies = project.getDependencies();
+        if (dependencies == null) {
+            return false;
+        }
+        for (MavenArtifact artifact : dependencies) {
+            if (Objects.equals(otherKey.getGroupId(), artifact.getGroupId())
+                && Objects.equals(otherKey.getArtifactId(), artifact.getArtifactId())
+                && Objects.equals(otherKey.getVersion(), artifact.getVersion())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes fingerprint of the files which define effective pom of the project:
+     * pom.xml of the project itself and pom.xml files of its parents which are in the workspace.
+     */
+    private String fingerprint(MavenProject project) {
+        Hasher hasher = Hashing.sha1().newHasher();
+        for (File pomFile : pomChain(project)) {
+            hasher.putString(pomFile.getPath(), UTF_8);
+            hashFile(hasher, pomFile);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Returns pom.xml of the project followed by pom.xml files of its parents which are in the workspace.
+     */
+    private List<File> pomChain(MavenProject project) {
+        List<File> result = new ArrayList<>();
+        Set<MavenProject> visited = new HashSet<>();
+        MavenProject current = project;
+        while (current != null && visited.add(current)) {
+            File pomFile = current.getPomFile();
+            if (pomFile != null) {
+                result.add(pomFile);
+            }
+            MavenKey parentKey = current.getParentKey();
+            current = parentKey == null ? null : projectManager.findMavenProject(parentKey);
+        }
+        return result;
+    }
+
+    private static void hashFile(Hasher hasher, File file) {
+        if (file == null || !file.isFile()) {
+            hasher.putInt(-1);
+            return;
+        }
+        try {
+            hasher.putBytes(Files.readAllBytes(file.toPath()));
+        } catch (IOException e) {
+            LOG.debug(e.getMessage(), e);
+            // unique value, so project will be resolved
+            hasher.putLong(System.nanoTime());
+        }
+    }
+
+    private static String projectPath(MavenProject project) {
+        return project.getProject().getFullPath().toOSString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOG.warn("Maven resolver pool did not terminate");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.core;
+
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
+import org.eclipse.che.maven.data.MavenProjectProblem;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Persists resolved maven models of the workspace projects, so restarted agent can restore
+ * models (and classpath which is built from them) without invoking maven.
+ * <p/>
+ * Each state is stored together with fingerprint of the project's pom files, state is valid only while fingerprint matches.
+ */
+@Singleton
+public class MavenProjectStateStorage {
+    private static final Logger LOG = LoggerFactory.getLogger(MavenProjectStateStorage.class);
+
+    private static final String STATE_FILE_EXTENSION = ".state";
+
+    private final Path storageDir;
+
+    @Inject
+    public MavenProjectStateStorage(@Named("che.maven.storage.dir") String storageDir) {
+        this.storageDir = Paths.get(storageDir, "projects");
+    }
+
+    /**
+     * Loads resolved state of the project.
+     *
+     * @param projectPath
+     *         workspace related path of the project
+     * @return stored state or {@code null} when there is no stored state or it can't be read
+     */
+    public State load(String projectPath) {
+        Path stateFile = getStateFile(projectPath);
+        if (!Files.exists(stateFile)) {
+            return null;
+        }
+
+        try (InputStream in = Files.newInputStream(stateFile);
+             ObjectInputStream objectIn = new ObjectInputStream(in)) {
+            State state = (State)objectIn.readObject();
+            return projectPath.equals(state.projectPath) ? state : null;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            LOG.warn("Can't read resolved state of maven project {}, it will be resolved again", projectPath, e);
+            remove(projectPath);
+            return null;
+        }
+    }
+
+    /**
+     * Stores resolved state of the project, replacing previous state if any.
+     *
+     * @param projectPath
+     *         workspace related path of the project
+     * @param fingerprint
+     *         fingerprint of the pom files which were used for resolution
+     * @param result
+     *         resolved model
+     */
+    public void store(String projectPath, String fingerprint, MavenModelReaderResult result) {
+        Path stateFile = getStateFile(projectPath);
+        try {
+            Files.createDirectories(storageDir);
+            Path tmp = Files.createTempFile(storageDir, stateFile.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp);
+                 ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+                objectOut.writeObject(new State(projectPath, fingerprint, result));
+            }
+            Files.move(tmp, stateFile, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Can't store resolved state of maven project {}", projectPath, e);
+        }
+    }
+
+    /**
+     * Removes stored state of the project if any.
+     *
+     * @param projectPath
+     *         workspace related path of the project
+     */
+    public void remove(String projectPath) {
+        try {
+            Files.deleteIfExists(getStateFile(projectPath));
+        } catch (IOException e) {
+            LOG.warn("Can't remove resolved state of maven project {}", projectPath, e);
+        }
+    }
+
+    private Path getStateFile(String projectPath) {
+        return storageDir.resolve(Hashing.sha1().hashString(projectPath, UTF_8).toString() + STATE_FILE_EXTENSION);
+    }
+
+    /** Resolved state of the maven project. */
+    public static class State implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String                    projectPath;
+        private final String                    fingerprint;
+        private final MavenModel                mavenModel;
+        private final List<String>              activeProfiles;
+        private final List<String>              inactiveProfiles;
+        private final List<MavenProjectProblem> problems;
+        private final Set<MavenKey>             unresolvedArtifacts;
+
+        private State(String projectPath, String fingerprint, MavenModelReaderResult result) {
+            this.projectPath = projectPath;
+            this.fingerprint = fingerprint;
+            this.mavenModel = result.getMavenModel();
+            this.activeProfiles = new ArrayList<>(result.getActiveProfiles());
+            this.inactiveProfiles = new ArrayList<>(result.getInactiveProfiles());
+            this.problems = new ArrayList<>(result.getProblems());
+            this.unresolvedArtifacts = new HashSet<>(result.getUnresolvedArtifacts());
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public MavenModelReaderResult toModelReaderResult() {
+            return new MavenModelReaderResult(mavenModel,
+                                              new ArrayList<>(activeProfiles),
+                                              new ArrayList<>(inactiveProfiles),
+                                              new ArrayList<>(problems),
+                                              new HashSet<>(unresolvedArtifacts));
+        }
+    }
+}
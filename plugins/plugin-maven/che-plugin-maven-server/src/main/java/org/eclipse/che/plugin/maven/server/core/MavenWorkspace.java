@@ -64,9 +64,9 @@ public class MavenWorkspace {
     private final Provider<ProjectRegistry> projectRegistryProvider;
     private final MavenCommunication        communication;
     private final ClasspathManager          classpathManager;
+    private final MavenProjectResolver      projectResolver;
 
     private MavenTaskExecutor resolveExecutor;
-    private MavenTaskExecutor classPathExecutor;
 
     private Set<MavenProject> projectsToResolve = new CopyOnWriteArraySet<>();
 
@@ -78,11 +78,13 @@ public class MavenWorkspace {
                           Provider<ProjectRegistry> projectRegistryProvider,
                           MavenCommunication communication,
                           ClasspathManager classpathManager,
+                          MavenProjectResolver projectResolver,
                           EventService eventService,
                           EclipseWorkspaceProvider workspaceProvider) {
         this.projectRegistryProvider = projectRegistryProvider;
         this.communication = communication;
         this.classpathManager = classpathManager;
+        this.projectResolver = projectResolver;
         this.manager = manager;
         resolveExecutor = new MavenTaskExecutor(executorService, notifier);
         eventService.subscribe(new EventSubscriber<ProjectDeletedEvent>() {
@@ -136,6 +138,7 @@ public class MavenWorkspace {
 
     private void removeProjects(List<MavenProject> removed) {
         removed.forEach(project -> {
+            projectResolver.remove(project);
             try {
                 projectRegistryProvider.get().removeProjectType(project.getProject().getFullPath().toOSString(), MAVEN_ID);
             } catch (ServerException | ForbiddenException | ConflictException | NotFoundException e) {
@@ -144,24 +147,39 @@ public class MavenWorkspace {
         });
     }
 
+    /**
+     * Updates maven projects. Only projects whose pom files have been changed since last resolution are resolved again.
+     */
     public void update(List<IProject> projects) {
+        update(projects, false);
+    }
+
+    /**
+     * Updates maven projects.
+     *
+     * @param projects
+     *         projects to update
+     * @param force
+     *         if {@code true} projects are resolved even if their pom files weren't changed
+     */
+    public void update(List<IProject> projects, boolean force) {
         manager.update(projects, true);
-        runResolve();
+        runResolve(force);
     }
 
-    private void runResolve() {
+    private void runResolve(boolean force) {
         //TODO synchronise on projectsToResolve change
         Set<MavenProject> needResolve = new HashSet<>(projectsToResolve);
         projectsToResolve.clear();
 
-        for (MavenProject mavenProject : needResolve) {
-
-            resolveExecutor.submitTask(new MavenProjectResolveTask(mavenProject, manager, () -> {
-                addSourcesFromBuildHelperPlugin(mavenProject);
-                classpathManager.updateClasspath(mavenProject);
-            }));
+        if (needResolve.isEmpty()) {
+            return;
         }
 
+        resolveExecutor.submitTask(() -> projectResolver.resolve(needResolve, force, mavenProject -> {
+            addSourcesFromBuildHelperPlugin(mavenProject);
+            classpathManager.updateClasspath(mavenProject);
+        }));
     }
 
     private void updateJavaProject(MavenProject project) {
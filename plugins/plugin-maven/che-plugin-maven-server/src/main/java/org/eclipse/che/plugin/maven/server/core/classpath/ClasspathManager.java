@@ -91,9 +91,20 @@ public class ClasspathManager {
     }
 
     public void updateClasspath(MavenProject mavenProject) {
-        IJavaProject javaProject = JavaCore.create(mavenProject.getProject());
+        updateClasspath(JavaCore.create(mavenProject.getProject()), mavenProject.getDependencies());
+    }
+
+    /**
+     * Sets maven classpath container of the java project, built from the given dependencies.
+     *
+     * @param javaProject
+     *         java project to update
+     * @param dependencies
+     *         resolved dependencies of the maven project, e.g. restored from {@link DependencyGraphCache}
+     */
+    public void updateClasspath(IJavaProject javaProject, List<MavenArtifact> dependencies) {
         if (javaProject != null) {
-            IClasspathEntry[] entries = getClasspath(mavenProject);
+            IClasspathEntry[] entries = getClasspath(dependencies);
             MavenClasspathContainer container = new MavenClasspathContainer(entries);
             try {
                 JavaCore.setClasspathContainer(new Path(MavenClasspathContainer.CONTAINER_ID),
@@ -106,10 +117,9 @@ public class ClasspathManager {
         }
     }
 
-    private IClasspathEntry[] getClasspath(MavenProject mavenProject) {
+    private IClasspathEntry[] getClasspath(List<MavenArtifact> dependencies) {
         ClasspathHelper helper = new ClasspathHelper(true);
 
-        List<MavenArtifact> dependencies = mavenProject.getDependencies();
         for (MavenArtifact dependency : dependencies) {
 
             File file = dependency.getFile();
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.core.classpath;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import org.eclipse.che.maven.data.MavenArtifact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * On-disk, content-addressed cache of resolved dependency graphs of maven projects.
+ * <p/>
+ * Graph is addressed by hash of the pom files which define effective pom of the project (project pom.xml and its parents)
+ * and active profiles, so projects with the same effective pom share single graph. Graph is replaced by the result of
+ * the latest resolution with the same poms.
+ * Each project keeps a reference to its graph together with hashes of its pom files,
+ * which allows to attach classpath right after agent start, before maven resolves the project again.
+ */
+@Singleton
+public class DependencyGraphCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DependencyGraphCache.class);
+
+    private final Path graphsDir;
+    private final Path projectsDir;
+
+    private final Map<String, List<MavenArtifact>> loadedGraphs = new ConcurrentHashMap<>();
+
+    @Inject
+    public DependencyGraphCache(@Named("che.maven.storage.dir") String storageDir) {
+        this.graphsDir = Paths.get(storageDir, "graphs");
+        this.projectsDir = Paths.get(storageDir, "graph-refs");
+    }
+
+    /**
+     * Stores dependency graph of the project.
+     *
+     * @param projectPath
+     *         workspace related path of the project
+     * @param pomFiles
+     *         pom files which define effective pom of the project, starting with the project's pom.xml
+     * @param activeProfiles
+     *         profiles which were active during resolution
+     * @param dependencies
+     *         resolved dependencies of the project
+     */
+    public void store(String projectPath, List<File> pomFiles, List<String> activeProfiles, List<MavenArtifact> dependencies) {
+        try {
+            LinkedHashMap<String, String> pomHashes = new LinkedHashMap<>();
+            for (File pomFile : pomFiles) {
+                pomHashes.put(pomFile.getAbsolutePath(), hash(pomFile));
+            }
+            String graphKey = graphKey(pomHashes, activeProfiles);
+
+            // dependencies may change while poms stay the same, e.g. when artifacts of the local repository are updated,
+            // so graph is always rewritten with the latest resolution
+            write(graphsDir.resolve(graphKey), new ArrayList<>(dependencies));
+            loadedGraphs.put(graphKey, Collections.unmodifiableList(new ArrayList<>(dependencies)));
+            write(getReferenceFile(projectPath), new GraphReference(projectPath, graphKey, pomHashes));
+        } catch (IOException e) {
+            LOG.warn("Can't store dependency graph of maven project {}", projectPath, e);
+        }
+    }
+
+    /**
+     * Finds cached dependency graph of the project.
+     *
+     * @param projectPath
+     *         workspace related path of the project
+     * @return cached dependencies or {@code null} if there is no graph for the project or pom files of the project were changed
+     */
+    @SuppressWarnings("unchecked")
+    public List<MavenArtifact> find(String projectPath) {
+        try {
+            Path referenceFile = getReferenceFile(projectPath);
+            if (!Files.exists(referenceFile)) {
+                return null;
+            }
+            GraphReference reference = (GraphReference)read(referenceFile);
+            if (!projectPath.equals(reference.projectPath)) {
+                return null;
+            }
+            for (Map.Entry<String, String> pomHash : reference.pomHashes.entrySet()) {
+                if (!pomHash.getValue().equals(hash(new File(pomHash.getKey())))) {
+                    return null;
+                }
+            }
+
+            List<MavenArtifact> dependencies = loadedGraphs.get(reference.graphKey);
+            if (dependencies == null) {
+                Path graphFile = graphsDir.resolve(reference.graphKey);
+                if (!Files.exists(graphFile)) {
+                    return null;
+                }
+                dependencies = Collections.unmodifiableList((List<MavenArtifact>)read(graphFile));
+                loadedGraphs.put(reference.graphKey, dependencies);
+            }
+            return dependencies;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            LOG.warn("Can't read dependency graph of maven project {}", projectPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Removes reference from the project to its graph, graph itself is kept since it may be shared with other projects.
+     *
+     * @param projectPath
+     *         workspace related path of the project
+     */
+    public void remove(String projectPath) {
+        try {
+            Files.deleteIfExists(getReferenceFile(projectPath));
+        } catch (IOException e) {
+            LOG.warn("Can't remove dependency graph reference of maven project {}", projectPath, e);
+        }
+    }
+
+    private Path getReferenceFile(String projectPath) {
+        return projectsDir.resolve(Hashing.sha1().hashString(projectPath, UTF_8).toString());
+    }
+
+    private static String graphKey(Map<String, String> pomHashes, List<String> activeProfiles) {
+        Hasher hasher = Hashing.sha1().newHasher();
+        pomHashes.values().forEach(pomHash -> hasher.putString(pomHash, UTF_8));
+        if (activeProfiles != null) {
+            List<String> profiles = new ArrayList<>(activeProfiles);
+            Collections.sort(profiles);
+            profiles.forEach(profile -> hasher.putChar('\0').putString(profile, UTF_8));
+        }
+        return hasher.hash().toString();
+    }
+
+    private static String hash(File file) throws IOException {
+        if (!file.isFile()) {
+            return "";
+        }
+        return Hashing.sha1().hashBytes(Files.readAllBytes(file.toPath())).toString();
+    }
+
+    private static void write(Path file, Serializable object) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp);
+             ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+            objectOut.writeObject(object);
+        }
+        Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    private static Object read(Path file) throws IOException, ClassNotFoundException {
+        try (InputStream in = Files.newInputStream(file);
+             ObjectInputStream objectIn = new ObjectInputStream(in)) {
+            return objectIn.readObject();
+        }
+    }
+
+    private static class GraphReference implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String                        projectPath;
+        private final String                        graphKey;
+        private final LinkedHashMap<String, String> pomHashes;
+
+        private GraphReference(String projectPath, String graphKey, LinkedHashMap<String, String> pomHashes) {
+            this.projectPath = projectPath;
+            this.graphKey = graphKey;
+            this.pomHashes = pomHashes;
+        }
+    }
+}
@@ -106,6 +106,10 @@ public class MavenProject {
         throw new UnsupportedOperationException();
     }
 
+    public List<String> getActiveProfiles() {
+        return info.activeProfiles;
+    }
+
     public List<String> getModules() {
         return new ArrayList<>(info.modulesNameToPath.keySet());
     }
@@ -161,11 +165,28 @@ public class MavenProject {
      * @return the modification types that applied to this project
      */
     public MavenProjectModifications resolve(IProject project, MavenServerWrapper mavenServer, MavenServerManager serverManager) {
-        MavenModelReader reader = new MavenModelReader();
+        return setResolvedModel(resolveModel(project, mavenServer, serverManager));
+    }
 
-        MavenModelReaderResult modelReaderResult =
-                reader.resolveMavenProject(getPom(project), mavenServer, info.activeProfiles, info.inactiveProfiles, serverManager);
+    /**
+     * Invoke maven to build project model without applying it to this project.
+     *
+     * @param project     to resolve
+     * @param mavenServer the maven server
+     * @return result of the model resolution
+     */
+    public MavenModelReaderResult resolveModel(IProject project, MavenServerWrapper mavenServer, MavenServerManager serverManager) {
+        MavenModelReader reader = new MavenModelReader();
+        return reader.resolveMavenProject(getPom(project), mavenServer, info.activeProfiles, info.inactiveProfiles, serverManager);
+    }
 
+    /**
+     * Applies model that was built by maven, e.g. by {@link #resolveModel} or restored from previous resolution.
+     *
+     * @param modelReaderResult resolved model
+     * @return the modification types that applied to this project
+     */
+    public MavenProjectModifications setResolvedModel(MavenModelReaderResult modelReaderResult) {
         return setModel(modelReaderResult, modelReaderResult.getProblems().isEmpty(), false);
     }
 
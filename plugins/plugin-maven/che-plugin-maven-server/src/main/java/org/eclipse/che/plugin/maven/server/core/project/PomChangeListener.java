@@ -44,7 +44,8 @@ public class PomChangeListener {
     private final MavenWorkspace           mavenWorkspace;
     private final EclipseWorkspaceProvider eclipseWorkspaceProvider;
     private final String                   workspacePath;
-    private CopyOnWriteArraySet<String> projectToUpdate = new CopyOnWriteArraySet<>();
+    // pom files are validated in the scheduler thread, event listeners only collect paths
+    private CopyOnWriteArraySet<String> pomsToUpdate = new CopyOnWriteArraySet<>();
 
     @Inject
     public PomChangeListener(EventService eventService,
@@ -65,9 +66,7 @@ public class PomChangeListener {
                 if (!event.isFolder() && eventPath.endsWith("pom.xml")) {
                     //TODO update only pom file that in root of project
 //                    if(event.getProject().equals(eventPath.substring(0, eventPath.lastIndexOf("pom.xml") - 1))) {
-                    if (pomIsValid(eventPath)) {
-                        projectToUpdate.add(new Path(eventPath).removeLastSegments(1).toOSString());
-                    }
+                    pomsToUpdate.add(eventPath);
 //                    }
                 }
             }
@@ -76,10 +75,7 @@ public class PomChangeListener {
         eventService.subscribe(new EventSubscriber<PomModifiedEventDto>() {
             @Override
             public void onEvent(PomModifiedEventDto event) {
-                String eventPath = event.getPath();
-                if (pomIsValid(eventPath)) {
-                    projectToUpdate.add(new Path(eventPath).removeLastSegments(1).toOSString());
-                }
+                pomsToUpdate.add(event.getPath());
             }
         });
     }
@@ -97,11 +93,18 @@ public class PomChangeListener {
     //    @ScheduleDelay(initialDelay = 30, delay = 3)
     protected void updateProms() {
         try {
-            if (projectToUpdate.size() == 0) {
+            if (pomsToUpdate.size() == 0) {
+                return;
+            }
+            Set<String> poms = new HashSet<>(pomsToUpdate);
+            pomsToUpdate.removeAll(poms);
+            Set<String> projects = poms.stream()
+                                       .filter(this::pomIsValid)
+                                       .map(pom -> new Path(pom).removeLastSegments(1).toOSString())
+                                       .collect(Collectors.toSet());
+            if (projects.isEmpty()) {
                 return;
             }
-            Set<String> projects = new HashSet<>(projectToUpdate);
-            projectToUpdate.clear();
             IWorkspace workspace = eclipseWorkspaceProvider.get();
             List<IProject> projectsList =
                     projects.stream().map(project -> workspace.getRoot().getProject(project)).collect(Collectors.toList());
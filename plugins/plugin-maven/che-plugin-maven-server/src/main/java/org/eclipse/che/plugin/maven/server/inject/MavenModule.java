@@ -11,8 +11,10 @@
 package org.eclipse.che.plugin.maven.server.inject;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Named;
 
 import org.eclipse.che.api.project.server.handlers.ProjectHandler;
 import org.eclipse.che.api.project.server.type.ProjectTypeDef;
@@ -20,6 +22,7 @@ import org.eclipse.che.api.project.server.type.ValueProviderFactory;
 import org.eclipse.che.inject.DynaModule;
 import org.eclipse.che.maven.server.MavenTerminal;
 import org.eclipse.che.plugin.maven.server.PomModificationDetector;
+import org.eclipse.che.plugin.maven.server.core.MavenClasspathContainerInitializer;
 import org.eclipse.che.plugin.maven.server.core.MavenProgressNotifier;
 import org.eclipse.che.plugin.maven.server.core.MavenServerNotifier;
 import org.eclipse.che.plugin.maven.server.core.MavenTerminalImpl;
@@ -33,6 +36,8 @@ import org.eclipse.che.plugin.maven.server.projecttype.handler.MavenProjectInitH
 import org.eclipse.che.plugin.maven.server.projecttype.handler.SimpleGeneratorStrategy;
 import org.eclipse.che.plugin.maven.server.rest.MavenServerService;
 
+import java.nio.file.Paths;
+
 import static com.google.inject.multibindings.Multibinder.newSetBinder;
 
 /** @author Artem Zatsarynnyi */
@@ -63,5 +68,13 @@ public class MavenModule extends AbstractModule {
 
         bind(PomChangeListener.class).asEagerSingleton();
         bind(PomModificationDetector.class).asEagerSingleton();
+        bind(MavenClasspathContainerInitializer.class).asEagerSingleton();
+    }
+
+    @Provides
+    @Named("che.maven.storage.dir")
+    @Singleton
+    protected String provideStorageDir(@Named("che.workspace.metadata") String wsMetadata) {
+        return Paths.get(System.getProperty("user.home"), wsMetadata, "maven").toString();
     }
 }
@@ -66,19 +66,34 @@ public class MavenValueProviderFactory implements ValueProviderFactory {
         return new MavenValueProvider(projectFolder);
     }
 
+    @Override
+    public List<String> getDependencies() {
+        return Collections.singletonList("pom.xml");
+    }
+
     protected class MavenValueProvider extends ReadonlyValueProvider {
 
         protected FolderEntry projectFolder;
 
+        /** pom.xml is parsed once for all the attributes of the project. */
+        private Model model;
+
         protected MavenValueProvider(FolderEntry projectFolder) {
             this.projectFolder = projectFolder;
         }
 
+        private Model getModel() throws ValueStorageException, ServerException, ForbiddenException, IOException {
+            if (model == null) {
+                model = readModel(projectFolder);
+            }
+            return model;
+        }
+
         @Override
         public List<String> getValues(String attributeName) throws ValueStorageException {
             try {
                 String value = "";
-                final Model model = readModel(projectFolder);
+                final Model model = getModel();
                 if (attributeName.equals(ARTIFACT_ID)) {
                     value = model.getArtifactId();
                 } else if (attributeName.equals(GROUP_ID)) {
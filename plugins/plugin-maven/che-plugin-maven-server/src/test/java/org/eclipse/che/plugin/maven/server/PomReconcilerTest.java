@@ -21,8 +21,11 @@ import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenCommunication;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectResolver;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectStateStorage;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
+import org.eclipse.che.plugin.maven.server.core.classpath.DependencyGraphCache;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
 import org.eclipse.che.plugin.maven.server.rest.MavenServerService;
 import org.eclipse.che.plugin.maven.server.rmi.MavenServerManagerTest;
@@ -35,6 +38,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.rmi.RemoteException;
 import java.util.Collections;
 import java.util.List;
@@ -80,6 +84,7 @@ public class PomReconcilerTest extends BaseTest {
         ClasspathManager classpathManager =
                 new ClasspathManager(root.getAbsolutePath(), wrapperManager, projectManager, terminal, mavenNotifier);
 
+        String stateDir = Files.createTempDirectory("maven-state").toString();
         mavenWorkspace = new MavenWorkspace(projectManager, mavenNotifier, new MavenExecutorService(), projectRegistryProvider,
                                             new MavenCommunication() {
                                                 @Override
@@ -96,7 +101,9 @@ public class PomReconcilerTest extends BaseTest {
                                                 public void send(JsonObject object, MessageType type) {
 
                                                 }
-                                            }, classpathManager, eventService, new EclipseWorkspaceProvider());
+                                            }, classpathManager, new MavenProjectResolver(projectManager, new MavenProjectStateStorage(stateDir),
+                                                                    new DependencyGraphCache(stateDir), 1),
+                                            eventService, new EclipseWorkspaceProvider());
 
     }
 
@@ -25,8 +25,11 @@ import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenCommunication;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectResolver;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectStateStorage;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
+import org.eclipse.che.plugin.maven.server.core.classpath.DependencyGraphCache;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
 import org.eclipse.che.plugin.maven.server.rmi.MavenServerManagerTest;
 import org.eclipse.che.plugin.maven.shared.MessageType;
@@ -45,6 +48,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -88,6 +92,7 @@ public class WorkspaceTest extends BaseTest {
         MavenWrapperManager wrapperManager = new MavenWrapperManager(mavenServerManager);
         mavenProjectManager =
                 new MavenProjectManager(wrapperManager, mavenServerManager, terminal, mavenNotifier, new EclipseWorkspaceProvider());
+        String stateDir = Files.createTempDirectory("maven-state").toString();
         mavenWorkspace = new MavenWorkspace(mavenProjectManager,
                                             mavenNotifier,
                                             new MavenExecutorService(),
@@ -108,7 +113,9 @@ public class WorkspaceTest extends BaseTest {
 
                                                 }
                                             }, new ClasspathManager(root.getAbsolutePath(), wrapperManager, mavenProjectManager, terminal,
-                                                                    mavenNotifier), eventService, new EclipseWorkspaceProvider());
+                                                                    mavenNotifier), new MavenProjectResolver(mavenProjectManager, new MavenProjectStateStorage(stateDir),
+                                                                    new DependencyGraphCache(stateDir), 1),
+                                            eventService, new EclipseWorkspaceProvider());
     }
 
 
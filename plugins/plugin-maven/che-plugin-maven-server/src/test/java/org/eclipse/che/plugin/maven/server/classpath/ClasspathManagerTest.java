@@ -21,8 +21,11 @@ import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenCommunication;
 import org.eclipse.che.plugin.maven.server.core.MavenExecutorService;
 import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectResolver;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectStateStorage;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
 import org.eclipse.che.plugin.maven.server.core.classpath.ClasspathManager;
+import org.eclipse.che.plugin.maven.server.core.classpath.DependencyGraphCache;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
 import org.eclipse.che.plugin.maven.server.rmi.MavenServerManagerTest;
 import org.eclipse.che.plugin.maven.shared.MessageType;
@@ -39,6 +42,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -79,6 +83,7 @@ public class ClasspathManagerTest extends BaseTest {
         mavenProjectManager =
                 new MavenProjectManager(wrapperManager, mavenServerManager, terminal, mavenNotifier, new EclipseWorkspaceProvider());
         classpathManager = new ClasspathManager(root.getAbsolutePath(), wrapperManager, mavenProjectManager, terminal, mavenNotifier);
+        String stateDir = Files.createTempDirectory("maven-state").toString();
         mavenWorkspace = new MavenWorkspace(mavenProjectManager, mavenNotifier, new MavenExecutorService(), projectRegistryProvider,
                                             new MavenCommunication() {
                                                 @Override
@@ -95,7 +100,9 @@ public class ClasspathManagerTest extends BaseTest {
                                                 public void send(JsonObject object, MessageType type) {
 
                                                 }
-                                            }, classpathManager, eventService, new EclipseWorkspaceProvider());
+                                            }, classpathManager, new MavenProjectResolver(mavenProjectManager, new MavenProjectStateStorage(stateDir),
+                                                                    new DependencyGraphCache(stateDir), 1),
+                                            eventService, new EclipseWorkspaceProvider());
     }
 
     @AfterMethod
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.classpath;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.maven.data.MavenArtifact;
+import org.eclipse.che.plugin.maven.server.core.classpath.DependencyGraphCache;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests for {@link DependencyGraphCache}.
+ */
+public class DependencyGraphCacheTest {
+
+    private File                 root;
+    private DependencyGraphCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("graph-cache").toFile();
+        cache = new DependencyGraphCache(new File(root, "storage").getAbsolutePath());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void shouldFindStoredGraph() throws Exception {
+        File pom = createPom("project", "<project/>");
+        List<MavenArtifact> dependencies = asList(artifact("junit"), artifact("hamcrest-core"));
+
+        cache.store("/project", asList(pom), asList("default"), dependencies);
+
+        assertEquals(cache.find("/project"), dependencies);
+    }
+
+    @Test
+    public void shouldNotFindGraphWhenPomChanged() throws Exception {
+        File pom = createPom("project", "<project/>");
+        cache.store("/project", asList(pom), Collections.emptyList(), asList(artifact("junit")));
+
+        Files.write(pom.toPath(), "<project><packaging>jar</packaging></project>".getBytes());
+
+        assertNull(cache.find("/project"));
+    }
+
+    @Test
+    public void shouldShareGraphBetweenProjectsWithSamePoms() throws Exception {
+        File first = createPom("first", "<project/>");
+        File second = createPom("second", "<project/>");
+        cache.store("/first", asList(first), Collections.emptyList(), asList(artifact("junit")));
+        cache.store("/second", asList(second), Collections.emptyList(), asList(artifact("junit")));
+
+        File[] graphs = new File(root, "storage/graphs").listFiles();
+        assertNotNull(graphs);
+        assertEquals(graphs.length, 1);
+        assertEquals(cache.find("/second"), asList(artifact("junit")));
+    }
+
+    @Test
+    public void shouldPersistGraphResolvedAgainWithSamePoms() throws Exception {
+        File pom = createPom("project", "<project/>");
+        cache.store("/project", asList(pom), Collections.emptyList(), asList(artifact("junit")));
+        cache.store("/project", asList(pom), Collections.emptyList(), asList(artifact("junit"), artifact("hamcrest-core")));
+
+        DependencyGraphCache restarted = new DependencyGraphCache(new File(root, "storage").getAbsolutePath());
+
+        assertEquals(restarted.find("/project"), asList(artifact("junit"), artifact("hamcrest-core")));
+    }
+
+    @Test
+    public void shouldNotFindRemovedProject() throws Exception {
+        File pom = createPom("project", "<project/>");
+        cache.store("/project", asList(pom), Collections.emptyList(), asList(artifact("junit")));
+
+        cache.remove("/project");
+
+        assertNull(cache.find("/project"));
+    }
+
+    private File createPom(String project, String content) throws Exception {
+        File projectDir = new File(root, project);
+        projectDir.mkdirs();
+        File pom = new File(projectDir, "pom.xml");
+        Files.write(pom.toPath(), content.getBytes());
+        return pom;
+    }
+
+    private MavenArtifact artifact(String artifactId) {
+        return new MavenArtifact("test", artifactId, "1.0", "1.0", "jar", null, "compile", false, "jar",
+                                 new File(root, artifactId + ".jar"), new File(root, "repository"), true, false);
+    }
+}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.core;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
+import org.eclipse.che.plugin.maven.server.core.classpath.DependencyGraphCache;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link MavenProjectResolver}.
+ */
+public class MavenProjectResolverTest {
+
+    private File                     workDir;
+    private MavenProjectManager      projectManager;
+    private MavenProjectStateStorage stateStorage;
+    private DependencyGraphCache     graphCache;
+    private MavenProjectResolver     resolver;
+    private List<String>             resolutionOrder;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("maven-resolver").toFile();
+        projectManager = mock(MavenProjectManager.class);
+        stateStorage = new MavenProjectStateStorage(new File(workDir, "storage").getAbsolutePath());
+        graphCache = new DependencyGraphCache(new File(workDir, "storage").getAbsolutePath());
+        resolver = new MavenProjectResolver(projectManager, stateStorage, graphCache, 4);
+        resolutionOrder = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        resolver.shutdown();
+        IoUtil.deleteRecursive(workDir);
+    }
+
+    @Test
+    public void shouldResolveParentBeforeModule() throws Exception {
+        MavenProject parent = project("parent", null);
+        MavenProject module = project("module", parent.getMavenKey());
+        // parent is slow, so module would be resolved first if it didn't wait for parent
+        resolveWith(parent, 200);
+        resolveWith(module, 0);
+
+        List<MavenProject> resolved = new ArrayList<>();
+        resolver.resolve(asList(module, parent), true, resolved::add);
+
+        assertEquals(resolutionOrder, asList("parent", "module"));
+        assertEquals(resolved, asList(parent, module));
+    }
+
+    @Test
+    public void shouldNotResolveProjectWhosePomIsNotChanged() throws Exception {
+        MavenProject project = project("project", null);
+        resolveWith(project, 0);
+        resolver.resolve(singleton(project), false, p -> {});
+
+        List<MavenProject> resolved = new ArrayList<>();
+        resolver.resolve(singleton(project), false, resolved::add);
+
+        assertTrue(resolved.isEmpty());
+        verify(projectManager, times(1)).resolveMavenProject(any(), eq(project));
+    }
+
+    @Test
+    public void shouldResolveProjectAgainWhenPomIsChanged() throws Exception {
+        MavenProject project = project("project", null);
+        resolveWith(project, 0);
+        resolver.resolve(singleton(project), false, p -> {});
+
+        Files.write(project.getPomFile().toPath(), "<project>changed</project>".getBytes());
+        resolver.resolve(singleton(project), false, p -> {});
+
+        verify(projectManager, times(2)).resolveMavenProject(any(), eq(project));
+    }
+
+    @Test
+    public void shouldNotNotifyAboutProjectWhichFailedToResolve() throws Exception {
+        MavenProject failing = project("failing", null);
+        MavenProject other = project("other", null);
+        when(projectManager.resolveMavenProject(any(), eq(failing))).thenThrow(new RuntimeException("resolution failed"));
+        resolveWith(other, 0);
+
+        List<MavenProject> resolved = new ArrayList<>();
+        resolver.resolve(asList(failing, other), false, resolved::add);
+
+        assertEquals(resolved, singleton(other));
+        assertFalse(resolver.isResolved(failing));
+        assertTrue(resolver.isResolved(other));
+    }
+
+    @Test
+    public void shouldRetryResolutionOfFailedProject() throws Exception {
+        MavenProject project = project("project", null);
+        when(projectManager.resolveMavenProject(any(), eq(project))).thenThrow(new RuntimeException("resolution failed"))
+                                                                    .thenReturn(result(project));
+        resolver.resolve(singleton(project), false, p -> {});
+
+        List<MavenProject> resolved = new ArrayList<>();
+        resolver.resolve(singleton(project), false, resolved::add);
+
+        assertEquals(resolved, singleton(project));
+        verify(projectManager, times(2)).resolveMavenProject(any(), eq(project));
+    }
+
+    @Test
+    public void shouldRestoreResolvedProjectWithoutMaven() throws Exception {
+        MavenProject project = project("project", null);
+        resolveWith(project, 0);
+        resolver.resolve(singleton(project), false, p -> {});
+
+        // the same storage is used after agent restart
+        MavenProjectManager restartedManager = mock(MavenProjectManager.class);
+        MavenProjectResolver restarted = new MavenProjectResolver(restartedManager, stateStorage, graphCache, 1);
+        List<MavenProject> restored = new ArrayList<>();
+        try {
+            restarted.resolve(singleton(project), false, restored::add);
+        } finally {
+            restarted.shutdown();
+        }
+
+        assertEquals(restored, singleton(project));
+        assertTrue(restarted.isResolved(project));
+        verify(restartedManager).restoreMavenProject(eq(project), any());
+        verify(restartedManager, never()).resolveMavenProject(any(), any());
+    }
+
+    @Test
+    public void shouldNotRestoreProjectWhosePomIsChangedSinceResolution() throws Exception {
+        MavenProject project = project("project", null);
+        resolveWith(project, 0);
+        resolver.resolve(singleton(project), false, p -> {});
+        Files.write(project.getPomFile().toPath(), "<project>changed</project>".getBytes());
+
+        MavenProjectManager restartedManager = mock(MavenProjectManager.class);
+        when(restartedManager.resolveMavenProject(any(), eq(project))).thenReturn(result(project));
+        MavenProjectResolver restarted = new MavenProjectResolver(restartedManager, stateStorage, graphCache, 1);
+        try {
+            restarted.resolve(singleton(project), false, p -> {});
+        } finally {
+            restarted.shutdown();
+        }
+
+        verify(restartedManager, never()).restoreMavenProject(any(), any());
+        verify(restartedManager).resolveMavenProject(any(), eq(project));
+    }
+
+    @Test
+    public void shouldNotPersistResultWithUnresolvedArtifacts() throws Exception {
+        MavenProject project = project("project", null);
+        MavenModelReaderResult failed = new MavenModelReaderResult(result(project).getMavenModel(),
+                                                                   Collections.emptyList(),
+                                                                   Collections.emptyList(),
+                                                                   Collections.emptyList(),
+                                                                   Collections.singleton(new MavenKey("test", "missing", "1.0")));
+        when(projectManager.resolveMavenProject(any(), eq(project))).thenReturn(failed);
+
+        List<MavenProject> resolved = new ArrayList<>();
+        resolver.resolve(singleton(project), false, resolved::add);
+
+        assertEquals(resolved, singleton(project));
+        assertFalse(resolver.isResolved(project));
+        assertNull(stateStorage.load("/project"));
+        assertNull(graphCache.find("/project"));
+
+        resolver.resolve(singleton(project), false, p -> {});
+        verify(projectManager, times(2)).resolveMavenProject(any(), eq(project));
+    }
+
+    @Test
+    public void shouldNotifyOnceAboutRestoredProjectWhichIsResolvedAgain() throws Exception {
+        MavenProject parent = project("parent", null);
+        MavenProject module = project("module", parent.getMavenKey());
+        resolveWith(parent, 0);
+        resolveWith(module, 0);
+        resolver.resolve(asList(parent, module), false, p -> {});
+        Files.write(parent.getPomFile().toPath(), "<project>changed</project>".getBytes());
+
+        MavenProjectManager restartedManager = mock(MavenProjectManager.class);
+        when(restartedManager.resolveMavenProject(any(), eq(parent))).thenReturn(result(parent));
+        when(restartedManager.resolveMavenProject(any(), eq(module))).thenReturn(result(module));
+        MavenProjectResolver restarted = new MavenProjectResolver(restartedManager, stateStorage, graphCache, 1);
+        List<MavenProject> resolved = new ArrayList<>();
+        try {
+            restarted.resolve(asList(module, parent), false, resolved::add);
+        } finally {
+            restarted.shutdown();
+        }
+
+        assertEquals(resolved, asList(parent, module));
+        verify(restartedManager).resolveMavenProject(any(), eq(module));
+    }
+
+    private MavenProject project(String name, MavenKey parentKey) throws Exception {
+        File pomFile = new File(workDir, name + "/pom.xml");
+        pomFile.getParentFile().mkdirs();
+        Files.write(pomFile.toPath(), ("<project>" + name + "</project>").getBytes());
+
+        IPath path = mock(IPath.class);
+        when(path.toOSString()).thenReturn('/' + name);
+        IProject project = mock(IProject.class);
+        when(project.exists()).thenReturn(true);
+        when(project.getFullPath()).thenReturn(path);
+
+        MavenProject mavenProject = mock(MavenProject.class);
+        when(mavenProject.getProject()).thenReturn(project);
+        when(mavenProject.getPomFile()).thenReturn(pomFile);
+        when(mavenProject.getName()).thenReturn(name);
+        when(mavenProject.getMavenKey()).thenReturn(new MavenKey("test", name, "1.0"));
+        when(mavenProject.getParentKey()).thenReturn(parentKey);
+        when(mavenProject.getDependencies()).thenReturn(Collections.emptyList());
+        return mavenProject;
+    }
+
+    private void resolveWith(MavenProject project, long delayMs) {
+        when(projectManager.resolveMavenProject(any(), eq(project))).thenAnswer(invocation -> {
+            Thread.sleep(delayMs);
+            resolutionOrder.add(project.getName());
+            return result(project);
+        });
+    }
+
+    private static MavenModelReaderResult result(MavenProject project) {
+        MavenModel model = new MavenModel();
+        model.setMavenKey(project.getMavenKey());
+        return new MavenModelReaderResult(model,
+                                          Collections.emptyList(),
+                                          Collections.emptyList(),
+                                          Collections.emptyList(),
+                                          Collections.emptySet());
+    }
+
+    private static List<MavenProject> singleton(MavenProject project) {
+        return Collections.singletonList(project);
+    }
+}
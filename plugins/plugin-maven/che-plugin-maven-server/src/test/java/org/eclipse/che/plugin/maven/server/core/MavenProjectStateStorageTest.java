@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.core;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
+import org.eclipse.che.maven.data.MavenProjectProblem;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests for {@link MavenProjectStateStorage}.
+ */
+public class MavenProjectStateStorageTest {
+
+    private File                     storageDir;
+    private MavenProjectStateStorage storage;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        storageDir = Files.createTempDirectory("maven-state").toFile();
+        storage = new MavenProjectStateStorage(storageDir.getAbsolutePath());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(storageDir);
+    }
+
+    @Test
+    public void shouldRestoreStoredState() throws Exception {
+        MavenModel model = new MavenModel();
+        model.setMavenKey(new MavenKey("test", "artifact", "1.0"));
+        MavenModelReaderResult result =
+                new MavenModelReaderResult(model,
+                                           asList("profile"),
+                                           Collections.emptyList(),
+                                           asList(MavenProjectProblem.newStructureProblem("/project/pom.xml", "problem")),
+                                           new HashSet<>(asList(new MavenKey("test", "missing", "1.0"))));
+
+        storage.store("/project", "fingerprint", result);
+        MavenProjectStateStorage.State state = storage.load("/project");
+
+        assertNotNull(state);
+        assertEquals(state.getFingerprint(), "fingerprint");
+        MavenModelReaderResult restored = state.toModelReaderResult();
+        assertEquals(restored.getMavenModel().getMavenKey(), new MavenKey("test", "artifact", "1.0"));
+        assertEquals(restored.getActiveProfiles(), asList("profile"));
+        assertEquals(restored.getProblems().size(), 1);
+        assertEquals(restored.getUnresolvedArtifacts(), Collections.singleton(new MavenKey("test", "missing", "1.0")));
+    }
+
+    @Test
+    public void shouldReturnNullWhenStateIsMissing() throws Exception {
+        assertNull(storage.load("/project"));
+    }
+
+    @Test
+    public void shouldRemoveState() throws Exception {
+        storage.store("/project", "fingerprint", new MavenModelReaderResult(new MavenModel(),
+                                                                            Collections.emptyList(),
+                                                                            Collections.emptyList(),
+                                                                            Collections.emptyList(),
+                                                                            Collections.emptySet()));
+
+        storage.remove("/project");
+
+        assertNull(storage.load("/project"));
+    }
+
+    @Test
+    public void shouldIgnoreCorruptedState() throws Exception {
+        storage.store("/project", "fingerprint", new MavenModelReaderResult(new MavenModel(),
+                                                                            Collections.emptyList(),
+                                                                            Collections.emptyList(),
+                                                                            Collections.emptyList(),
+                                                                            Collections.emptySet()));
+        File[] stateFiles = new File(storageDir, "projects").listFiles();
+        assertNotNull(stateFiles);
+        Files.write(stateFiles[0].toPath(), "corrupted".getBytes());
+
+        assertNull(storage.load("/project"));
+    }
+}
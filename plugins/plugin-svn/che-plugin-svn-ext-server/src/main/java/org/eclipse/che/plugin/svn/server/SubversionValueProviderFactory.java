@@ -66,6 +66,12 @@ public class SubversionValueProviderFactory implements ValueProviderFactory {
         };
     }
 
+    @Override
+    public List<String> getDependencies() {
+        // svn switch and relocate update working copy database
+        return Collections.singletonList(".svn/wc.db");
+    }
+
     private List<String> getRepositoryUrl(final FolderEntry project) throws ValueStorageException {
         try {
             if (isSvn(project)) {
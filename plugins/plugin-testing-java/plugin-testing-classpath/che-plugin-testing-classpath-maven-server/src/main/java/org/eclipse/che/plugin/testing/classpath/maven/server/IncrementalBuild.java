@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.classpath.maven.server;
+
+import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Brings output directories of a project up to date with its sources and resources.
+ *
+ * <p>Keeps stamps of the sources and resources processed by the previous builds, so each build compiles only
+ * new and changed sources together with the sources which mention simple names of the changed or deleted types,
+ * and copies only new and changed resources. When output directory doesn't exist anymore, e.g. after
+ * {@code mvn clean}, whole unit is built again.
+ */
+class IncrementalBuild {
+    /** Compiles sources in-process with the JDT batch compiler. */
+    static final Compiler ECJ = (arguments, output) -> BatchCompiler.compile(arguments.toArray(new String[arguments.size()]),
+                                                                             output,
+                                                                             output,
+                                                                             null);
+
+    private static final String JAVA = ".java";
+
+    private final Compiler          compiler;
+    private final List<String>      options;
+    private final Map<Path, String> sourceStamps;
+    private final Map<Path, String> resourceStamps;
+
+    private int compiledSources;
+
+    /**
+     * @param compiler
+     *         compiler of the sources
+     * @param options
+     *         compiler options which are the same for all units of the project, e.g. source level and encoding
+     */
+    IncrementalBuild(Compiler compiler, List<String> options) {
+        this.compiler = compiler;
+        this.options = options;
+        this.sourceStamps = new HashMap<>();
+        this.resourceStamps = new HashMap<>();
+    }
+
+    /**
+     * Brings output directory of the unit up to date.
+     *
+     * @param unit
+     *         unit to build
+     * @param upstreamChanges
+     *         simple names of the types changed by the builds of the units this one depends on
+     * @return simple names of the types which sources were changed or deleted since the previous build of the unit
+     * @throws Exception
+     *         when sources can't be compiled or resources can't be copied
+     */
+    Set<String> build(Unit unit, Set<String> upstreamChanges) throws Exception {
+        if (!Files.isDirectory(unit.outputDirectory)) {
+            Files.createDirectories(unit.outputDirectory);
+            forget(sourceStamps, unit.sourceRoots);
+            forget(resourceStamps, unit.resourceRoots.keySet());
+        }
+        copyResources(unit);
+
+        final Map<Path, String> sources = scan(unit.sourceRoots, true);
+        final Set<String> changedTypes = new HashSet<>();
+        final Set<Path> toCompile = new LinkedHashSet<>();
+        for (Map.Entry<Path, String> source : sources.entrySet()) {
+            if (!source.getValue().equals(sourceStamps.get(source.getKey()))) {
+                toCompile.add(source.getKey());
+                changedTypes.add(typeName(source.getKey()));
+            }
+        }
+        for (Path deleted : deleted(sourceStamps, unit.sourceRoots, sources.keySet())) {
+            sourceStamps.remove(deleted);
+            changedTypes.add(typeName(deleted));
+            deleteClasses(unit, deleted);
+        }
+
+        final Set<String> referenced = new HashSet<>(changedTypes);
+        referenced.addAll(upstreamChanges);
+        if (!referenced.isEmpty()) {
+            toCompile.addAll(findReferences(sources.keySet(), toCompile, referenced));
+        }
+        if (!toCompile.isEmpty()) {
+            compile(unit, toCompile);
+            for (Path source : toCompile) {
+                sourceStamps.put(source, sources.get(source));
+            }
+        }
+        return changedTypes;
+    }
+
+    /** Returns number of sources compiled by this build since it was created. */
+    int getCompiledSources() {
+        return compiledSources;
+    }
+
+    private void compile(Unit unit, Set<Path> sources) throws Exception {
+        final List<String> arguments = new ArrayList<>(options);
+        arguments.add("-d");
+        arguments.add(unit.outputDirectory.toString());
+        arguments.add("-cp");
+        arguments.add(String.join(File.pathSeparator, unit.classpath));
+        for (Path source : sources) {
+            arguments.add(source.toString());
+        }
+
+        final StringWriter output = new StringWriter();
+        final boolean succeed;
+        try (PrintWriter writer = new PrintWriter(output)) {
+            succeed = compiler.compile(arguments, writer);
+        }
+        if (!succeed) {
+            throw new Exception("Compilation of " + unit.outputDirectory + " failed:\n" + output);
+        }
+        compiledSources += sources.size();
+    }
+
+    private void copyResources(Unit unit) throws IOException {
+        for (Map.Entry<Path, Path> root : unit.resourceRoots.entrySet()) {
+            final Set<Path> roots = Collections.singleton(root.getKey());
+            final Map<Path, String> resources = scan(roots, false);
+            for (Map.Entry<Path, String> resource : resources.entrySet()) {
+                if (!resource.getValue().equals(resourceStamps.get(resource.getKey()))) {
+                    final Path target = root.getValue().resolve(root.getKey().relativize(resource.getKey()));
+                    Files.createDirectories(target.getParent());
+                    Files.copy(resource.getKey(), target, REPLACE_EXISTING);
+                    resourceStamps.put(resource.getKey(), resource.getValue());
+                }
+            }
+            for (Path deleted : deleted(resourceStamps, roots, resources.keySet())) {
+                resourceStamps.remove(deleted);
+                Files.deleteIfExists(root.getValue().resolve(root.getKey().relativize(deleted)));
+            }
+        }
+    }
+
+    /** Deletes class files of the top level type declared in the source and of its nested types. */
+    private static void deleteClasses(Unit unit, Path source) throws IOException {
+        for (Path root : unit.sourceRoots) {
+            if (source.startsWith(root)) {
+                final Path packageDirectory = unit.outputDirectory.resolve(root.relativize(source)).getParent();
+                if (Files.isDirectory(packageDirectory)) {
+                    final String name = typeName(source);
+                    try (DirectoryStream<Path> classes = Files.newDirectoryStream(packageDirectory,
+                                                                                  "{" + name + ".class," + name + "$*.class}")) {
+                        for (Path classFile : classes) {
+                            Files.deleteIfExists(classFile);
+                        }
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /** Returns sources which are not compiled yet and mention any of the given simple type names. */
+    private static Set<Path> findReferences(Set<Path> sources, Set<Path> excluded, Set<String> names) throws IOException {
+        final Pattern pattern = Pattern.compile(names.stream()
+                                                     .map(Pattern::quote)
+                                                     .collect(Collectors.joining("|", "\\b(?:", ")\\b")));
+        final Set<Path> references = new HashSet<>();
+        for (Path source : sources) {
+            // identifiers which may be found by the pattern are ASCII, so there is no need to know encoding
+            if (!excluded.contains(source)
+                && pattern.matcher(new String(Files.readAllBytes(source), StandardCharsets.ISO_8859_1)).find()) {
+                references.add(source);
+            }
+        }
+        return references;
+    }
+
+    private static Set<Path> deleted(Map<Path, String> stamps, Iterable<Path> roots, Set<Path> existing) {
+        final Set<Path> deleted = new HashSet<>();
+        for (Path path : stamps.keySet()) {
+            if (!existing.contains(path) && isUnder(path, roots)) {
+                deleted.add(path);
+            }
+        }
+        return deleted;
+    }
+
+    private static void forget(Map<Path, String> stamps, Iterable<Path> roots) {
+        stamps.keySet().removeIf(path -> isUnder(path, roots));
+    }
+
+    private static boolean isUnder(Path path, Iterable<Path> roots) {
+        for (Path root : roots) {
+            if (path.startsWith(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<Path, String> scan(Iterable<Path> roots, boolean sources) throws IOException {
+        final Map<Path, String> stamps = new HashMap<>();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile() && (!sources || file.getFileName().toString().endsWith(JAVA))) {
+                        stamps.put(file, attributes.lastModifiedTime().to(NANOSECONDS) + ":" + attributes.size());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        return stamps;
+    }
+
+    private static String typeName(Path source) {
+        final String fileName = source.getFileName().toString();
+        return fileName.substring(0, fileName.length() - JAVA.length());
+    }
+
+    /** Compiles sources with the given command line arguments. */
+    interface Compiler {
+        /**
+         * Compiles sources.
+         *
+         * @param arguments
+         *         command line arguments of the batch compiler, sources to compile are the last ones
+         * @param output
+         *         writer for the compiler messages
+         * @return {@code true} when all the sources were compiled successfully
+         */
+        boolean compile(List<String> arguments, PrintWriter output);
+    }
+
+    /** Sources, resources and output directory of a part of the project, e.g. main or test code. */
+    static class Unit {
+        final List<Path>      sourceRoots;
+        final Map<Path, Path> resourceRoots;
+        final Path            outputDirectory;
+        final List<String>    classpath;
+
+        /**
+         * @param sourceRoots
+         *         directories of the sources
+         * @param resourceRoots
+         *         directories of the resources mapped to the directories they are copied to
+         * @param outputDirectory
+         *         directory of the compiled classes
+         * @param classpath
+         *         classpath of the compilation, includes output directory
+         */
+        Unit(List<Path> sourceRoots, Map<Path, Path> resourceRoots, Path outputDirectory, List<String> classpath) {
+            this.sourceRoots = sourceRoots;
+            this.resourceRoots = resourceRoots;
+            this.outputDirectory = outputDirectory;
+            this.classpath = classpath;
+        }
+    }
+}
@@ -20,24 +20,43 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.inject.Inject;
+
 import org.eclipse.che.api.core.util.CommandLine;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.core.util.ProcessUtil;
 import org.eclipse.che.plugin.testing.classpath.server.TestClasspathProvider;
 
 /**
- * Maven implementation for the test classpath provider.
+ * Maven implementation for the test classpath provider. Classpath is provided by
+ * {@link MavenTestClasspathService}, maven is run only for the projects which
+ * are not resolved by the maven plugin yet.
  *
  * @author Mirage Abeysekara
  */
 public class MavenTestClasspathProvider implements TestClasspathProvider {
 
+    private final MavenTestClasspathService classpathService;
+
+    @Inject
+    public MavenTestClasspathProvider(MavenTestClasspathService classpathService) {
+        this.classpathService = classpathService;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public ClassLoader getClassLoader(String projectPath, boolean updateClasspath) throws Exception {
         List<URL> classUrls;
+        List<String> classpath = classpathService.getClasspath(projectPath, updateClasspath);
+        if (classpath != null) {
+            classUrls = new ArrayList<>();
+            for (String entry : classpath) {
+                classUrls.add(new File(entry).toURI().toURL());
+            }
+            return new URLClassLoader(classUrls.toArray(new URL[classUrls.size()]), null);
+        }
         try {
             if (updateClasspath) {
                 buildClasspath(projectPath);
@@ -49,6 +68,29 @@ public class MavenTestClasspathProvider implements TestClasspathProvider {
         return new URLClassLoader(classUrls.toArray(new URL[classUrls.size()]), null);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getClasspath(String projectPath, boolean updateClasspath) throws Exception {
+        List<String> classpath = classpathService.getClasspath(projectPath, updateClasspath);
+        if (classpath != null) {
+            return classpath;
+        }
+        classpath = new ArrayList<>();
+        try {
+            if (updateClasspath) {
+                buildClasspath(projectPath);
+            }
+            for (URL url : getProjectClasspath(projectPath)) {
+                classpath.add(Paths.get(url.toURI()).toString());
+            }
+        } catch (IOException | InterruptedException e) {
+            throw new Exception("Failed to build Maven classpath.", e);
+        }
+        return classpath;
+    }
+
     /**
      * {@inheritDoc}
      */
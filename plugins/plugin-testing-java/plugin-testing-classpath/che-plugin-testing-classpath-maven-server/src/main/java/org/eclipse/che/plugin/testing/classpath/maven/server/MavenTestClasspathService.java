@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.classpath.maven.server;
+
+import org.eclipse.che.api.vfs.watcher.FileWatcherManager;
+import org.eclipse.che.maven.data.MavenResource;
+import org.eclipse.che.plugin.maven.server.core.MavenClasspathContainer;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectListener;
+import org.eclipse.che.plugin.maven.server.core.MavenProjectManager;
+import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
+import org.eclipse.che.plugin.maven.server.core.project.MavenProjectModifications;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.IClasspathContainer;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * Provides test classpath of the maven projects without running maven.
+ *
+ * <p>Dependencies of the project are taken from the classpath container already resolved by the maven plugin,
+ * sources of the project and of the workspace projects it depends on are compiled in-process by the JDT compiler
+ * incrementally, see {@link IncrementalBuild}. Resolved dependencies are cached per project until the pom.xml
+ * of the project is changed or maven plugin reports update of the project, builds are skipped until file watcher
+ * reports change of any source or resource.
+ */
+@Singleton
+public class MavenTestClasspathService {
+    private static final Logger LOG = LoggerFactory.getLogger(MavenTestClasspathService.class);
+
+    private static final String MAIN_OUTPUT = "target/classes";
+    private static final String TEST_OUTPUT = "target/test-classes";
+
+    private final MavenProjectManager       projectManager;
+    private final FileWatcherManager        fileWatcherManager;
+    private final IncrementalBuild.Compiler compiler;
+    private final Map<String, ProjectState> projects;
+    private final MavenProjectListener      projectListener;
+    private final LongAdder                 hits;
+    private final LongAdder                 builds;
+    private final LongAdder                 invalidations;
+
+    private int watcherId = -1;
+
+    @Inject
+    public MavenTestClasspathService(MavenProjectManager projectManager, FileWatcherManager fileWatcherManager) {
+        this.projectManager = projectManager;
+        this.fileWatcherManager = fileWatcherManager;
+        this.compiler = IncrementalBuild.ECJ;
+        this.projects = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.builds = new LongAdder();
+        this.invalidations = new LongAdder();
+        this.projectListener = new MavenProjectListener() {
+            @Override
+            public void projectResolved(MavenProject project, MavenProjectModifications modifications) {
+                invalidate(project.getProject().getFullPath().toString());
+            }
+
+            @Override
+            public void projectUpdated(Map<MavenProject, MavenProjectModifications> updated, List<MavenProject> removed) {
+                updated.keySet().forEach(project -> invalidate(project.getProject().getFullPath().toString()));
+                removed.forEach(project -> projects.remove(project.getProject().getFullPath().toString()));
+            }
+        };
+    }
+
+    @PostConstruct
+    public void start() {
+        projectManager.addListener(projectListener);
+        watcherId = fileWatcherManager.registerByMatcher(MavenTestClasspathService::isWatched,
+                                                         this::onChange,
+                                                         this::onChange,
+                                                         this::onChange);
+    }
+
+    @PreDestroy
+    public void stop() {
+        projectManager.removeListener(projectListener);
+        if (watcherId != -1) {
+            fileWatcherManager.unRegisterByMatcher(watcherId);
+            watcherId = -1;
+        }
+    }
+
+    /**
+     * Returns test classpath of the project, compiles changed sources of the project when needed.
+     *
+     * @param projectAbsolutePath
+     *         absolute path of the project location
+     * @param update
+     *         compile changed sources if true, otherwise return classpath computed by the previous call if any
+     * @return absolute paths of the classpath entries or {@code null} when the project is not resolved
+     * by the maven plugin yet
+     * @throws Exception
+     *         when sources of the project can't be compiled
+     */
+    public List<String> getClasspath(String projectAbsolutePath, boolean update) throws Exception {
+        final String workspace = ResourcesPlugin.getPathToWorkspace();
+        if (!projectAbsolutePath.startsWith(workspace)) {
+            return null;
+        }
+        final String projectPath = projectAbsolutePath.substring(workspace.length());
+        final ProjectState state = projects.get(projectPath);
+        if (state != null && state.classpath != null && (!update || !state.mainDirty && !state.testDirty)) {
+            hits.increment();
+            return new ArrayList<>(state.classpath);
+        }
+        return build(projectPath, true);
+    }
+
+    /** Drops resolved dependencies of the project, so they are taken from the maven plugin on the next build. */
+    public void invalidate(String projectPath) {
+        final ProjectState state = projects.get(projectPath);
+        if (state != null) {
+            state.dependencies = null;
+            invalidations.increment();
+        }
+        markDirty();
+    }
+
+    /** Returns statistics of the service usage. */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new TreeMap<>();
+        statistics.put("hits", hits.sum());
+        statistics.put("builds", builds.sum());
+        statistics.put("invalidations", invalidations.sum());
+        statistics.put("projects", (long)projects.size());
+        statistics.put("compiled_sources", projects.values()
+                                                   .stream()
+                                                   .filter(state -> state.build != null)
+                                                   .mapToLong(state -> state.build.getCompiledSources())
+                                                   .sum());
+        return statistics;
+    }
+
+    private List<String> build(String projectPath, boolean withTests) throws Exception {
+        final MavenProject mavenProject = projectManager.findMavenProject(ResourcesPlugin.getWorkspace()
+                                                                                         .getRoot()
+                                                                                         .getProject(projectPath));
+        if (mavenProject == null) {
+            return null;
+        }
+        final ProjectState state = projects.computeIfAbsent(projectPath, path -> new ProjectState());
+        // workspace projects depend on each other without cycles, so nested locks can't deadlock
+        synchronized (state) {
+            List<String> dependencies = state.dependencies;
+            if (dependencies == null && (dependencies = resolve(projectPath, mavenProject, state)) == null) {
+                return null;
+            }
+            final Path projectLocation = Paths.get(ResourcesPlugin.getPathToWorkspace(), projectPath);
+            final Path mainOutput = projectLocation.resolve(MAIN_OUTPUT);
+            final Path testOutput = projectLocation.resolve(TEST_OUTPUT);
+
+            if (state.mainDirty) {
+                state.mainDirty = false;
+                try {
+                    for (String upstream : state.upstreamProjects) {
+                        build(upstream, false);
+                    }
+                    final List<String> classpath = new ArrayList<>(dependencies);
+                    classpath.add(mainOutput.toString());
+                    final IncrementalBuild.Unit main = new IncrementalBuild.Unit(roots(projectLocation, mavenProject.getSources()),
+                                                                                 resources(projectLocation,
+                                                                                           mainOutput,
+                                                                                           mavenProject.getResources()),
+                                                                                 mainOutput,
+                                                                                 classpath);
+                    state.pendingTypes.addAll(state.build.build(main, emptySet()));
+                    builds.increment();
+                } catch (Exception e) {
+                    state.mainDirty = true;
+                    throw e;
+                }
+            }
+            if (withTests && state.testDirty) {
+                state.testDirty = false;
+                try {
+                    final List<String> classpath = new ArrayList<>(dependencies);
+                    classpath.add(mainOutput.toString());
+                    classpath.add(testOutput.toString());
+                    final IncrementalBuild.Unit test = new IncrementalBuild.Unit(roots(projectLocation, mavenProject.getTestSources()),
+                                                                                 resources(projectLocation,
+                                                                                           testOutput,
+                                                                                           mavenProject.getTestResources()),
+                                                                                 testOutput,
+                                                                                 classpath);
+                    state.build.build(test, state.pendingTypes);
+                    state.pendingTypes.clear();
+                    state.classpath = classpath;
+                    builds.increment();
+                } catch (Exception e) {
+                    state.testDirty = true;
+                    throw e;
+                }
+            }
+            return state.classpath == null ? null : new ArrayList<>(state.classpath);
+        }
+    }
+
+    /** Takes dependencies of the project from the maven classpath container, returns null if it is not resolved yet. */
+    private List<String> resolve(String projectPath, MavenProject mavenProject, ProjectState state) throws JavaModelException {
+        final IJavaProject javaProject = JavaModelManager.getJavaModelManager().getJavaModel().getJavaProject(projectPath);
+        final IClasspathContainer container =
+                JavaCore.getClasspathContainer(new org.eclipse.core.runtime.Path(MavenClasspathContainer.CONTAINER_ID), javaProject);
+        if (container == null) {
+            return null;
+        }
+        final List<String> dependencies = new ArrayList<>();
+        final List<String> upstreamProjects = new ArrayList<>();
+        for (IClasspathEntry entry : container.getClasspathEntries()) {
+            if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
+                dependencies.add(entry.getPath().toOSString());
+            } else if (entry.getEntryKind() == IClasspathEntry.CPE_PROJECT) {
+                upstreamProjects.add(entry.getPath().toString());
+                dependencies.add(Paths.get(ResourcesPlugin.getPathToWorkspace(), entry.getPath().toString(), MAIN_OUTPUT).toString());
+            }
+        }
+
+        final String encoding = mavenProject.getProperties() == null
+                                ? null
+                                : mavenProject.getProperties().getProperty("project.build.sourceEncoding");
+        final List<String> options = Arrays.asList("-source", javaProject.getOption(JavaCore.COMPILER_SOURCE, true),
+                                                   "-target", javaProject.getOption(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, true),
+                                                   "-encoding", encoding == null ? "UTF-8" : encoding,
+                                                   "-g",
+                                                   "-nowarn",
+                                                   "-proc:none");
+        // dependencies may be changed, so classes compiled against the previous ones are not trusted anymore
+        state.build = new IncrementalBuild(compiler, options);
+        state.dependencies = dependencies;
+        state.upstreamProjects = upstreamProjects;
+        state.pendingTypes.clear();
+        state.classpath = null;
+        state.mainDirty = true;
+        state.testDirty = true;
+        LOG.debug("Test classpath of project {} is resolved, {} dependencies", projectPath, dependencies.size());
+        return dependencies;
+    }
+
+    private void markDirty() {
+        for (ProjectState state : projects.values()) {
+            state.mainDirty = true;
+            state.testDirty = true;
+        }
+    }
+
+    private void onChange(String path) {
+        // change of a project may affect the projects which depend on it, stamps are checked for each of them anyway
+        markDirty();
+        if (path.endsWith("/pom.xml")) {
+            invalidate(path.substring(0, path.length() - "/pom.xml".length()));
+        }
+    }
+
+    private static boolean isWatched(Path path) {
+        final String fileName = path.getFileName() == null ? "" : path.getFileName().toString();
+        if (fileName.endsWith(".java") || fileName.equals("pom.xml")) {
+            return !Files.isDirectory(path);
+        }
+        for (Path segment : path) {
+            if (segment.toString().equals("resources")) {
+                return !Files.isDirectory(path);
+            }
+        }
+        return false;
+    }
+
+    private static List<Path> roots(Path projectLocation, List<String> roots) {
+        final List<Path> result = new ArrayList<>();
+        if (roots != null) {
+            for (String root : roots) {
+                result.add(projectLocation.resolve(root));
+            }
+        }
+        return result;
+    }
+
+    private static Map<Path, Path> resources(Path projectLocation, Path output, List<MavenResource> resources) {
+        final Map<Path, Path> result = new LinkedHashMap<>();
+        if (resources != null) {
+            for (MavenResource resource : resources) {
+                result.put(projectLocation.resolve(resource.getDirectory()),
+                           resource.getTargetPath() == null ? output : output.resolve(resource.getTargetPath()));
+            }
+        }
+        return result;
+    }
+
+    private static class ProjectState {
+        final Set<String> pendingTypes = new HashSet<>();
+
+        volatile boolean mainDirty = true;
+        volatile boolean testDirty = true;
+        volatile List<String> dependencies;
+        volatile List<String> classpath;
+
+        List<String>     upstreamProjects;
+        IncrementalBuild build;
+    }
+}
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.classpath.maven.server;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonMap;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests for {@link IncrementalBuild}.
+ */
+public class IncrementalBuildTest {
+    private Path                  root;
+    private Path                  sources;
+    private Path                  resources;
+    private Path                  output;
+    private IncrementalBuild.Unit unit;
+    private List<Set<String>>     compilations;
+    private boolean               failCompilation;
+    private IncrementalBuild      build;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("incremental-build");
+        sources = Files.createDirectories(root.resolve("src/main/java"));
+        resources = Files.createDirectories(root.resolve("src/main/resources"));
+        output = root.resolve("target/classes");
+        unit = new IncrementalBuild.Unit(Collections.singletonList(sources),
+                                         singletonMap(resources, output),
+                                         output,
+                                         Collections.singletonList(output.toString()));
+        compilations = new ArrayList<>();
+        failCompilation = false;
+        build = new IncrementalBuild(this::compile, asList("-source", "1.8"));
+
+        write(sources.resolve("Calculator.java"), "class Calculator {}");
+        write(sources.resolve("Service.java"), "class Service { Calculator calculator; }");
+        write(sources.resolve("Other.java"), "class Other {}");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void shouldCompileNothingWhenSourcesAreNotChanged() throws Exception {
+        build.build(unit, emptySet());
+        build.build(unit, emptySet());
+
+        assertEquals(compilations.size(), 1);
+        assertEquals(compilations.get(0), names("Calculator", "Service", "Other"));
+        assertEquals(build.getCompiledSources(), 3);
+    }
+
+    @Test
+    public void shouldCompileChangedSourceAndSourcesWhichReferenceIt() throws Exception {
+        build.build(unit, emptySet());
+        touch(sources.resolve("Calculator.java"));
+
+        final Set<String> changed = build.build(unit, emptySet());
+
+        assertEquals(changed, names("Calculator"));
+        assertEquals(compilations.get(1), names("Calculator", "Service"));
+    }
+
+    @Test
+    public void shouldDeleteClassesOfDeletedSourceAndCompileSourcesWhichReferenceIt() throws Exception {
+        write(sources.resolve("Other.java"), "class Other { Calculator calculator; }");
+        build.build(unit, emptySet());
+        Files.write(output.resolve("Calculator$Inner.class"), new byte[0]);
+        Files.delete(sources.resolve("Calculator.java"));
+
+        build.build(unit, emptySet());
+
+        assertFalse(Files.exists(output.resolve("Calculator.class")));
+        assertFalse(Files.exists(output.resolve("Calculator$Inner.class")));
+        assertEquals(compilations.get(1), names("Service", "Other"));
+    }
+
+    @Test
+    public void shouldCompileSourcesWhichReferenceTypesChangedUpstream() throws Exception {
+        build.build(unit, emptySet());
+
+        build.build(unit, names("Other"));
+
+        assertEquals(compilations.get(1), names("Other"));
+    }
+
+    @Test
+    public void shouldCopyChangedResourcesAndDeleteRemovedOnes() throws Exception {
+        write(resources.resolve("app.properties"), "a=1");
+        write(resources.resolve("log.xml"), "<log/>");
+        build.build(unit, emptySet());
+        write(resources.resolve("app.properties"), "a=2");
+        touch(resources.resolve("app.properties"));
+        Files.delete(resources.resolve("log.xml"));
+
+        build.build(unit, emptySet());
+
+        assertEquals(new String(Files.readAllBytes(output.resolve("app.properties"))), "a=2");
+        assertFalse(Files.exists(output.resolve("log.xml")));
+    }
+
+    @Test
+    public void shouldRebuildWholeUnitWhenOutputIsDeleted() throws Exception {
+        build.build(unit, emptySet());
+        tearDownOutput();
+
+        build.build(unit, emptySet());
+
+        assertEquals(compilations.get(1), names("Calculator", "Service", "Other"));
+        assertTrue(Files.exists(output.resolve("Service.class")));
+    }
+
+    @Test
+    public void shouldCompileSourcesAgainWhenCompilationFailed() throws Exception {
+        failCompilation = true;
+        try {
+            build.build(unit, emptySet());
+            fail("Compilation failure expected");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("broken"));
+        }
+        failCompilation = false;
+
+        build.build(unit, emptySet());
+
+        assertEquals(compilations.get(1), names("Calculator", "Service", "Other"));
+    }
+
+    private boolean compile(List<String> arguments, PrintWriter writer) {
+        final Set<String> compiled = new HashSet<>();
+        final Path destination = Paths.get(arguments.get(arguments.indexOf("-d") + 1));
+        for (String argument : arguments) {
+            if (argument.endsWith(".java")) {
+                final String name = argument.substring(argument.lastIndexOf('/') + 1, argument.length() - ".java".length());
+                compiled.add(name);
+                try {
+                    Files.write(destination.resolve(name + ".class"), new byte[0]);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        compilations.add(compiled);
+        if (failCompilation) {
+            writer.print("broken");
+            return false;
+        }
+        return true;
+    }
+
+    private void tearDownOutput() throws IOException {
+        try (Stream<Path> files = Files.walk(output)) {
+            files.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static Set<String> names(String... names) {
+        return new HashSet<>(asList(names));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes());
+    }
+
+    private static void touch(Path file) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10_000));
+    }
+}
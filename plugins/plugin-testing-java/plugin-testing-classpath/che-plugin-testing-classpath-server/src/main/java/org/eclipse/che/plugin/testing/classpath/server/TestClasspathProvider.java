@@ -10,6 +10,12 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.testing.classpath.server;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Interface for defining test classpath providers for the test runner. All test
  * classpath provider implementations should implement this interface in order
@@ -33,6 +39,30 @@ public interface TestClasspathProvider {
      */
     ClassLoader getClassLoader(String projectPath, boolean updateClasspath) throws Exception;
 
+    /**
+     * Returns the project classpath for executing test cases in a separate JVM.
+     *
+     * @param projectPath
+     *            absolute path for the project location.
+     * @param updateClasspath
+     *            calculate the classpath if true. otherwise return existing
+     *            classpath.
+     * @return absolute paths of the classpath entries.
+     * @throws Exception
+     *             when classpath calculation failed.
+     */
+    default List<String> getClasspath(String projectPath, boolean updateClasspath) throws Exception {
+        ClassLoader classLoader = getClassLoader(projectPath, updateClasspath);
+        if (!(classLoader instanceof URLClassLoader)) {
+            throw new Exception("Classpath of the project " + projectPath + " is not available.");
+        }
+        List<String> classpath = new ArrayList<>();
+        for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+            classpath.add(Paths.get(url.toURI()).toString());
+        }
+        return classpath;
+    }
+
     /**
      * String representation of the project type.
      *
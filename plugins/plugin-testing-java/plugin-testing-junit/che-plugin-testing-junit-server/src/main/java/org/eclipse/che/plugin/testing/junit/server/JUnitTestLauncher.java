@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.junit.server;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestListener;
+import junit.framework.TestSuite;
+
+import org.eclipse.che.api.testing.server.execution.TestLauncher;
+import org.junit.Ignore;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Main class of the JVM forked to run JUnit tests. JUnit 4 is used when it is available
+ * in the project classpath, otherwise tests are run by JUnit 3.
+ */
+public class JUnitTestLauncher extends TestLauncher {
+
+    public static void main(String[] args) {
+        new JUnitTestLauncher().launch(args);
+    }
+
+    @Override
+    protected void list(Set<String> classNames) throws Exception {
+        if (isJUnit4Available()) {
+            new JUnit4(this).list(classNames);
+        } else {
+            new JUnit3(this).list(classNames);
+        }
+    }
+
+    @Override
+    protected void run(Map<String, Set<String>> tests) throws Exception {
+        if (isJUnit4Available()) {
+            new JUnit4(this).run(tests);
+        } else {
+            new JUnit3(this).run(tests);
+        }
+    }
+
+    private static boolean isJUnit4Available() {
+        try {
+            Class.forName("org.junit.runner.JUnitCore");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static Class<?> loadTestClass(String className) {
+        try {
+            Class<?> clazz = Class.forName(className, false, JUnitTestLauncher.class.getClassLoader());
+            return Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface() ? null : clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /** Runs tests with JUnit 4, classes are not referenced by launcher unless JUnit 4 is available. */
+    private static class JUnit4 extends RunListener {
+        private final JUnitTestLauncher      launcher;
+        private final Map<Description, Long> started;
+        private final Map<Description, Long> finished;
+
+        JUnit4(JUnitTestLauncher launcher) {
+            this.launcher = launcher;
+            this.started = new HashMap<>();
+            this.finished = new HashMap<>();
+        }
+
+        void list(Set<String> classNames) {
+            for (String className : classNames) {
+                Class<?> clazz = loadTestClass(className);
+                if (clazz != null && isTestable(clazz)) {
+                    for (Description description : leaves(Request.aClass(clazz).getRunner().getDescription())) {
+                        launcher.found(className, description.getMethodName());
+                    }
+                }
+            }
+        }
+
+        void run(Map<String, Set<String>> tests) {
+            JUnitCore core = new JUnitCore();
+            core.addListener(this);
+            for (Map.Entry<String, Set<String>> entry : tests.entrySet()) {
+                Class<?> clazz = loadTestClass(entry.getKey());
+                if (clazz == null || !isTestable(clazz)) {
+                    continue;
+                }
+                Set<String> methods = entry.getValue();
+                Request request = Request.aClass(clazz);
+                if (!methods.isEmpty()) {
+                    request = request.filterWith(new Filter() {
+                        @Override
+                        public boolean shouldRun(Description description) {
+                            if (description.isTest()) {
+                                return methods.contains(description.getMethodName());
+                            }
+                            for (Description child : description.getChildren()) {
+                                if (shouldRun(child)) {
+                                    return true;
+                                }
+                            }
+                            return false;
+                        }
+
+                        @Override
+                        public String describe() {
+                            return "methods " + methods;
+                        }
+                    });
+                }
+                core.run(request);
+            }
+        }
+
+        @Override
+        public void testStarted(Description description) {
+            started.put(description, System.currentTimeMillis());
+            launcher.started(description.getClassName(), description.getMethodName());
+        }
+
+        @Override
+        public void testFailure(Failure failure) {
+            Description description = failure.getDescription();
+            if (description.isTest() && started.containsKey(description)) {
+                finished.put(description, System.currentTimeMillis());
+                launcher.failed(description.getClassName(), description.getMethodName(), duration(description),
+                                failure.getException());
+            } else {
+                // failure of the whole class, e.g. in @BeforeClass
+                launcher.failed(description.getClassName(), description.getMethodName(), 0, failure.getException());
+            }
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            Description description = failure.getDescription();
+            finished.put(description, System.currentTimeMillis());
+            launcher.skipped(description.getClassName(), description.getMethodName(), failure.getMessage());
+        }
+
+        @Override
+        public void testIgnored(Description description) {
+            Ignore ignore = description.getAnnotation(Ignore.class);
+            launcher.skipped(description.getClassName(),
+                             description.getMethodName(),
+                             ignore == null || ignore.value().isEmpty() ? null : ignore.value());
+        }
+
+        @Override
+        public void testFinished(Description description) {
+            if (!finished.containsKey(description)) {
+                launcher.passed(description.getClassName(), description.getMethodName(), duration(description));
+            }
+            started.remove(description);
+            finished.remove(description);
+        }
+
+        private long duration(Description description) {
+            Long start = started.get(description);
+            return start == null ? 0 : System.currentTimeMillis() - start;
+        }
+
+        private static List<Description> leaves(Description description) {
+            List<Description> leaves = new ArrayList<>();
+            if (description.isTest()) {
+                leaves.add(description);
+            } else {
+                for (Description child : description.getChildren()) {
+                    leaves.addAll(leaves(child));
+                }
+            }
+            return leaves;
+        }
+
+        private static boolean isTestable(Class<?> clazz) {
+            if (TestCase.class.isAssignableFrom(clazz)) {
+                return true;
+            }
+            for (Annotation annotation : clazz.getAnnotations()) {
+                if (annotation.annotationType().getName().equals("org.junit.runner.RunWith")) {
+                    return true;
+                }
+            }
+            for (Method method : clazz.getMethods()) {
+                if (method.isAnnotationPresent(org.junit.Test.class)) {
+                    return true;
+                }
+            }
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(org.junit.Test.class)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Runs tests with JUnit 3. */
+    private static class JUnit3 implements TestListener {
+        private final JUnitTestLauncher launcher;
+        private final Map<Test, Long>   started;
+        private final Map<Test, Long>   failed;
+
+        JUnit3(JUnitTestLauncher launcher) {
+            this.launcher = launcher;
+            this.started = new HashMap<>();
+            this.failed = new HashMap<>();
+        }
+
+        void list(Set<String> classNames) {
+            for (String className : classNames) {
+                Class<?> clazz = loadTestClass(className);
+                if (clazz != null && TestCase.class.isAssignableFrom(clazz)) {
+                    TestSuite suite = new TestSuite(clazz.asSubclass(TestCase.class));
+                    for (int i = 0; i < suite.testCount(); i++) {
+                        Test test = suite.testAt(i);
+                        if (test instanceof TestCase) {
+                            launcher.found(className, ((TestCase)test).getName());
+                        }
+                    }
+                }
+            }
+        }
+
+        void run(Map<String, Set<String>> tests) {
+            junit.framework.TestResult result = new junit.framework.TestResult();
+            result.addListener(this);
+            for (Map.Entry<String, Set<String>> entry : tests.entrySet()) {
+                Class<?> clazz = loadTestClass(entry.getKey());
+                if (clazz == null || !TestCase.class.isAssignableFrom(clazz)) {
+                    continue;
+                }
+                TestSuite suite;
+                if (entry.getValue().isEmpty()) {
+                    suite = new TestSuite(clazz.asSubclass(TestCase.class));
+                } else {
+                    suite = new TestSuite();
+                    for (String method : entry.getValue()) {
+                        suite.addTest(TestSuite.createTest(clazz, method));
+                    }
+                }
+                suite.run(result);
+            }
+        }
+
+        @Override
+        public void startTest(Test test) {
+            started.put(test, System.currentTimeMillis());
+            launcher.started(test.getClass().getName(), name(test));
+        }
+
+        @Override
+        public void addError(Test test, Throwable error) {
+            failed.put(test, System.currentTimeMillis());
+            launcher.failed(test.getClass().getName(), name(test), duration(test), error);
+        }
+
+        @Override
+        public void addFailure(Test test, AssertionFailedError error) {
+            addError(test, error);
+        }
+
+        @Override
+        public void endTest(Test test) {
+            if (failed.remove(test) == null) {
+                launcher.passed(test.getClass().getName(), name(test), duration(test));
+            }
+            started.remove(test);
+        }
+
+        private long duration(Test test) {
+            Long start = started.get(test);
+            return start == null ? 0 : System.currentTimeMillis() - start;
+        }
+
+        private static String name(Test test) {
+            return test instanceof TestCase ? ((TestCase)test).getName() : test.toString();
+        }
+    }
+}
@@ -17,15 +17,21 @@ import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.inject.Inject;
 
 import org.eclipse.che.api.project.server.ProjectManager;
+import org.eclipse.che.api.testing.server.execution.ForkedTestExecutor;
+import org.eclipse.che.api.testing.server.execution.TestExecutionPlan;
 import org.eclipse.che.api.testing.server.framework.TestRunner;
 import org.eclipse.che.api.testing.shared.Failure;
+import org.eclipse.che.api.testing.shared.TestCaseResult;
 import org.eclipse.che.api.testing.shared.TestResult;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.plugin.testing.classpath.server.TestClasspathProvider;
@@ -42,6 +48,8 @@ import org.eclipse.che.plugin.testing.classpath.server.TestClasspathRegistry;
  * <em>runClass</em> : A boolean indicating whether the test runner should execute all the test cases or a test class
  *            indicated by <em>fqn</em> parameter.
  * <em>fqn</em> : Fully qualified class name of the test class if the <em>runClass</em> is true.
+ * <em>fork</em> : A boolean indicating whether tests should be run in separate JVMs, true by default.
+ *          Forked execution accepts parameters described in {@link TestExecutionPlan#withParameters(Map)}.
  * </pre>
  *
  * @author Mirage Abeysekara
@@ -53,12 +61,15 @@ public class JUnitTestRunner implements TestRunner {
     private ClassLoader projectClassLoader;
     private ProjectManager projectManager;
     private TestClasspathRegistry classpathRegistry;
+    private ForkedTestExecutor forkedTestExecutor;
 
     @Inject
     public JUnitTestRunner(ProjectManager projectManager,
-                           TestClasspathRegistry classpathRegistry) {
+                           TestClasspathRegistry classpathRegistry,
+                           ForkedTestExecutor forkedTestExecutor) {
         this.projectManager = projectManager;
         this.classpathRegistry = classpathRegistry;
+        this.forkedTestExecutor = forkedTestExecutor;
     }
 
     /**
@@ -66,6 +77,14 @@ public class JUnitTestRunner implements TestRunner {
      */
     @Override
     public TestResult execute(Map<String, String> testParameters) throws Exception {
+        return execute(testParameters, testCase -> {});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TestResult execute(Map<String, String> testParameters, Consumer<TestCaseResult> listener) throws Exception {
         String projectAbsolutePath = testParameters.get("absoluteProjectPath");
         boolean updateClasspath = Boolean.valueOf(testParameters.get("updateClasspath"));
         boolean runClass = Boolean.valueOf(testParameters.get("runClass"));
@@ -75,6 +94,19 @@ public class JUnitTestRunner implements TestRunner {
             projectType = projectManager.getProject(projectPath).getType();
         }
         TestClasspathProvider classpathProvider = classpathRegistry.getTestClasspathProvider(projectType);
+        if (!"false".equals(testParameters.get("fork"))) {
+            TestExecutionPlan plan = new TestExecutionPlan("JUnit", JUnitTestLauncher.class)
+                    .withParameters(testParameters)
+                    .withClasspath(classpathProvider.getClasspath(projectAbsolutePath, updateClasspath))
+                    .withWorkingDirectory(Paths.get(projectAbsolutePath))
+                    .withTestClassesDirectory(Paths.get(projectAbsolutePath, "target", "test-classes"))
+                    .withOutputDirectories(Arrays.asList(Paths.get(projectAbsolutePath, "target", "classes"),
+                                                         Paths.get(projectAbsolutePath, "target", "test-classes")));
+            if (runClass) {
+                plan.withTestClasses(Collections.singletonList(testParameters.get("fqn")));
+            }
+            return forkedTestExecutor.execute(plan, listener);
+        }
         projectClassLoader = classpathProvider.getClassLoader(projectAbsolutePath, updateClasspath);
         TestResult testResult;
         try {
@@ -19,14 +19,20 @@ import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.inject.Inject;
 
 import org.eclipse.che.api.project.server.ProjectManager;
+import org.eclipse.che.api.testing.server.execution.ForkedTestExecutor;
+import org.eclipse.che.api.testing.server.execution.TestExecutionPlan;
 import org.eclipse.che.api.testing.server.framework.TestRunner;
 import org.eclipse.che.api.testing.shared.Failure;
+import org.eclipse.che.api.testing.shared.TestCaseResult;
 import org.eclipse.che.api.testing.shared.TestResult;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.plugin.testing.classpath.server.TestClasspathProvider;
@@ -47,6 +53,9 @@ import org.eclipse.core.resources.ResourcesPlugin;
  * <em>testngXML</em> : Relative path to the testng.xml file. If this parameter is set, the TestNG test runner will
  *             execute given testng.xml test suite, otherwise all the test classes are get executed.
  *             (Note: If the <em>runClass</em> parameter is true then <em>testngXML</em> parameter gets ignored.)
+ * <em>fork</em> : A boolean indicating whether tests should be run in separate JVMs, true by default.
+ *          Forked execution accepts parameters described in {@link TestExecutionPlan#withParameters(Map)},
+ *          testng.xml suite is always run by a single JVM.
  *
  * </pre>
  * 
@@ -57,11 +66,15 @@ public class TestNGRunner implements TestRunner {
     private ClassLoader projectClassLoader;
     private ProjectManager projectManager;
     private TestClasspathRegistry classpathRegistry;
+    private ForkedTestExecutor forkedTestExecutor;
 
     @Inject
-    public TestNGRunner(ProjectManager projectManager, TestClasspathRegistry classpathRegistry) {
+    public TestNGRunner(ProjectManager projectManager,
+                        TestClasspathRegistry classpathRegistry,
+                        ForkedTestExecutor forkedTestExecutor) {
         this.projectManager = projectManager;
         this.classpathRegistry = classpathRegistry;
+        this.forkedTestExecutor = forkedTestExecutor;
     }
 
     /**
@@ -69,6 +82,14 @@ public class TestNGRunner implements TestRunner {
      */
     @Override
     public TestResult execute(Map<String, String> testParameters) throws Exception {
+        return execute(testParameters, testCase -> {});
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TestResult execute(Map<String, String> testParameters, Consumer<TestCaseResult> listener) throws Exception {
         String projectAbsolutePath = testParameters.get("absoluteProjectPath");
         String xmlPath = testParameters.get("testngXML");
         boolean updateClasspath = Boolean.valueOf(testParameters.get("updateClasspath"));
@@ -79,6 +100,23 @@ public class TestNGRunner implements TestRunner {
             projectType = projectManager.getProject(projectPath).getType();
         }
         TestClasspathProvider classpathProvider = classpathRegistry.getTestClasspathProvider(projectType);
+        if (!"false".equals(testParameters.get("fork"))) {
+            TestExecutionPlan plan = new TestExecutionPlan("TestNG", TestNGTestLauncher.class)
+                    .withParameters(testParameters)
+                    .withClasspath(classpathProvider.getClasspath(projectAbsolutePath, updateClasspath))
+                    .withWorkingDirectory(Paths.get(projectAbsolutePath))
+                    .withTestClassesDirectory(Paths.get(projectAbsolutePath, "target", "test-classes"))
+                    .withOutputDirectories(Arrays.asList(Paths.get(projectAbsolutePath, "target", "classes"),
+                                                         Paths.get(projectAbsolutePath, "target", "test-classes")));
+            if (runClass) {
+                plan.withTestClasses(Collections.singletonList(testParameters.get("fqn")));
+            } else if (xmlPath != null) {
+                plan.withTestClasses(Collections.singletonList(ResourcesPlugin.getPathToWorkspace() + xmlPath))
+                    .withForks(1)
+                    .withAffectedOnly(false);
+            }
+            return forkedTestExecutor.execute(plan, listener);
+        }
         projectClassLoader = classpathProvider.getClassLoader(projectAbsolutePath, updateClasspath);
         TestResult testResult;
         if (runClass) {
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.testing.testng.server;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.che.api.testing.server.execution.TestLauncher;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Main class of the JVM forked to run TestNG tests. Tests are either classes and methods
+ * or paths to the testng.xml suites.
+ */
+public class TestNGTestLauncher extends TestLauncher {
+
+    public static void main(String[] args) {
+        new TestNGTestLauncher().launch(args);
+    }
+
+    @Override
+    protected void list(Set<String> classNames) throws Exception {
+        for (String className : classNames) {
+            Class<?> clazz = loadTestClass(className);
+            if (clazz != null) {
+                for (String method : testMethods(clazz)) {
+                    found(className, method);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void run(Map<String, Set<String>> tests) throws Exception {
+        TestNG testNG = new TestNG(false);
+        testNG.setOutputDirectory(Paths.get("target", "testng-out").toString());
+        testNG.addListener((ITestListener)new Listener());
+        List<String> suites = new ArrayList<>();
+        List<XmlClass> classes = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : tests.entrySet()) {
+            if (entry.getKey().endsWith(".xml")) {
+                suites.add(entry.getKey());
+                continue;
+            }
+            Class<?> clazz = loadTestClass(entry.getKey());
+            if (clazz == null || testMethods(clazz).isEmpty()) {
+                continue;
+            }
+            XmlClass xmlClass = new XmlClass(entry.getKey(), false);
+            List<XmlInclude> includes = new ArrayList<>();
+            for (String method : entry.getValue()) {
+                includes.add(new XmlInclude(method));
+            }
+            xmlClass.setIncludedMethods(includes);
+            classes.add(xmlClass);
+        }
+        if (!suites.isEmpty()) {
+            testNG.setTestSuites(suites);
+        } else if (!classes.isEmpty()) {
+            XmlSuite suite = new XmlSuite();
+            suite.setName("Che");
+            XmlTest test = new XmlTest(suite);
+            test.setName("Che");
+            test.setXmlClasses(classes);
+            testNG.setXmlSuites(Collections.singletonList(suite));
+        } else {
+            return;
+        }
+        testNG.run();
+    }
+
+    private static Class<?> loadTestClass(String className) {
+        try {
+            Class<?> clazz = Class.forName(className, false, TestNGTestLauncher.class.getClassLoader());
+            return Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface() ? null : clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /** Returns methods annotated with {@link Test} and public methods of the classes annotated with it. */
+    private static Set<String> testMethods(Class<?> clazz) {
+        boolean testClass = clazz.isAnnotationPresent(Test.class);
+        Set<String> methods = new LinkedHashSet<>();
+        for (Method method : clazz.getMethods()) {
+            if (method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            if (method.isAnnotationPresent(Test.class) || testClass && !isConfiguration(method)) {
+                methods.add(method.getName());
+            }
+        }
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(Test.class)) {
+                methods.add(method.getName());
+            }
+        }
+        return methods;
+    }
+
+    private static boolean isConfiguration(Method method) {
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation.annotationType().getPackage().getName().equals("org.testng.annotations")) {
+                return true;
+            }
+        }
+        return Modifier.isStatic(method.getModifiers());
+    }
+
+    private class Listener extends TestListenerAdapter {
+        @Override
+        public void onTestStart(ITestResult result) {
+            started(result.getTestClass().getName(), result.getMethod().getMethodName());
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            passed(result.getTestClass().getName(), result.getMethod().getMethodName(), duration(result));
+        }
+
+        @Override
+        public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+            onTestSuccess(result);
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            failed(result.getTestClass().getName(), result.getMethod().getMethodName(), duration(result), result.getThrowable());
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            Throwable reason = result.getThrowable();
+            skipped(result.getTestClass().getName(),
+                    result.getMethod().getMethodName(),
+                    reason == null ? null : reason.getMessage());
+        }
+
+        @Override
+        public void onConfigurationFailure(ITestResult result) {
+            // failure of a configuration method, e.g. @BeforeClass, tests which depend on it are skipped
+            failed(result.getTestClass().getName(), null, duration(result), result.getThrowable());
+        }
+
+        private long duration(ITestResult result) {
+            return Math.max(0, result.getEndMillis() - result.getStartMillis());
+        }
+    }
+}
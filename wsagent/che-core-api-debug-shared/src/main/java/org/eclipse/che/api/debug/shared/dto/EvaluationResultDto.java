@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.debug.shared.dto;
+
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
+import org.eclipse.che.dto.shared.DTO;
+
+@DTO
+public interface EvaluationResultDto extends EvaluationResult {
+    String getValue();
+
+    void setValue(String value);
+
+    EvaluationResultDto withValue(String value);
+
+    String getError();
+
+    void setError(String error);
+
+    EvaluationResultDto withError(String error);
+}
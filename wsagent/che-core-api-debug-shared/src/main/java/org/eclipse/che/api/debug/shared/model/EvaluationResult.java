@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.debug.shared.model;
+
+/**
+ * Result of the evaluation of an expression, either its value or the reason why it can't be evaluated.
+ */
+public interface EvaluationResult {
+    /**
+     * The value of the expression or {@code null} if the expression can't be evaluated.
+     */
+    String getValue();
+
+    /**
+     * The error message or {@code null} if the expression is evaluated successfully.
+     */
+    String getError();
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.debug.shared.model.impl;
+
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
+
+import java.util.Objects;
+
+public class EvaluationResultImpl implements EvaluationResult {
+    private final String value;
+    private final String error;
+
+    public EvaluationResultImpl(String value, String error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public EvaluationResultImpl(EvaluationResult result) {
+        this(result.getValue(), result.getError());
+    }
+
+    /** Creates result of the expression which is evaluated successfully. */
+    public static EvaluationResultImpl value(String value) {
+        return new EvaluationResultImpl(value, null);
+    }
+
+    /** Creates result of the expression which can't be evaluated. */
+    public static EvaluationResultImpl error(String error) {
+        return new EvaluationResultImpl(null, error);
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EvaluationResultImpl)) return false;
+
+        EvaluationResultImpl that = (EvaluationResultImpl)o;
+        return Objects.equals(value, that.value) && Objects.equals(error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value, error);
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluationResultImpl{value='" + value + "', error='" + error + "'}";
+    }
+}
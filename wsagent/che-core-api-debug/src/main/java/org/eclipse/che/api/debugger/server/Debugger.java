@@ -14,6 +14,7 @@ import org.eclipse.che.api.debug.shared.model.SimpleValue;
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 import org.eclipse.che.api.debug.shared.model.Breakpoint;
 import org.eclipse.che.api.debug.shared.model.DebuggerInfo;
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
 import org.eclipse.che.api.debug.shared.model.Location;
 import org.eclipse.che.api.debug.shared.model.StackFrameDump;
 import org.eclipse.che.api.debug.shared.model.Variable;
@@ -27,7 +28,10 @@ import org.eclipse.che.api.debug.shared.model.event.BreakpointActivatedEvent;
 import org.eclipse.che.api.debug.shared.model.event.DebuggerEvent;
 import org.eclipse.che.api.debug.shared.model.event.DisconnectEvent;
 import org.eclipse.che.api.debug.shared.model.event.SuspendEvent;
+import org.eclipse.che.api.debug.shared.model.impl.EvaluationResultImpl;
+import org.eclipse.che.api.debug.shared.model.impl.SimpleValueImpl;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -128,6 +132,31 @@ public interface Debugger {
      */
     SimpleValue getValue(VariablePath variablePath) throws DebuggerException;
 
+    /**
+     * Gets the current value of the given variable with a page of its nested variables.
+     * Is used to expand variables with lots of nested ones, e.g. arrays, page by page.
+     *
+     * @param variablePath
+     *      the path to the variable
+     * @param skipCount
+     *      number of nested variables to skip
+     * @param maxItems
+     *      max number of nested variables to return, negative value means no limit
+     * @return {@link SimpleValue}
+     * @throws DebuggerException
+     *      if any error occur
+     */
+    default SimpleValue getValue(VariablePath variablePath, int skipCount, int maxItems) throws DebuggerException {
+        SimpleValue value = getValue(variablePath);
+        if (value == null || (skipCount == 0 && maxItems < 0)) {
+            return value;
+        }
+        List<? extends Variable> variables = value.getVariables();
+        int from = Math.min(skipCount, variables.size());
+        int to = maxItems < 0 ? variables.size() : (int)Math.min((long)from + maxItems, variables.size());
+        return new SimpleValueImpl(new ArrayList<>(variables.subList(from, to)), value.getValue());
+    }
+
     /**
      * Sets the new value {@link Variable#getValue()} of the variable {@link Variable#getVariablePath()}.
      *
@@ -149,6 +178,28 @@ public interface Debugger {
      */
     String evaluate(String expression) throws DebuggerException;
 
+    /**
+     * Evaluates the given expressions, e.g. watch expressions when process stops.
+     *
+     * @param expressions
+     *      the expressions to evaluate
+     * @return results in the same order as the expressions, the result of an expression which can't be evaluated
+     * holds the error message
+     * @throws DebuggerException
+     *      if any error occur which prevents evaluation of all the expressions
+     */
+    default List<EvaluationResult> evaluateAll(List<String> expressions) throws DebuggerException {
+        List<EvaluationResult> results = new ArrayList<>(expressions.size());
+        for (String expression : expressions) {
+            try {
+                results.add(EvaluationResultImpl.value(evaluate(expression)));
+            } catch (DebuggerException e) {
+                results.add(EvaluationResultImpl.error(e.getMessage()));
+            }
+        }
+        return results;
+    }
+
     /**
      * Performs step over action.
      * When process stops then {@link SuspendEvent} must be fired.
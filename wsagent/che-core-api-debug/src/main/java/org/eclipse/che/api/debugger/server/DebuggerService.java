@@ -17,6 +17,7 @@ import org.eclipse.che.api.debugger.server.exceptions.DebuggerException;
 import org.eclipse.che.api.debugger.server.exceptions.DebuggerNotFoundException;
 import org.eclipse.che.api.debug.shared.dto.BreakpointDto;
 import org.eclipse.che.api.debug.shared.dto.DebugSessionDto;
+import org.eclipse.che.api.debug.shared.dto.EvaluationResultDto;
 import org.eclipse.che.api.debug.shared.dto.StackFrameDumpDto;
 import org.eclipse.che.api.debug.shared.dto.VariableDto;
 import org.eclipse.che.api.debug.shared.dto.action.ActionDto;
@@ -51,6 +52,7 @@ import java.util.Map;
 
 import static org.eclipse.che.api.debugger.server.DtoConverter.asBreakpointsDto;
 import static org.eclipse.che.api.debugger.server.DtoConverter.asDto;
+import static org.eclipse.che.api.debugger.server.DtoConverter.asEvaluationResultsDto;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 /**
@@ -169,7 +171,13 @@ public class DebuggerService {
     @GET
     @Path("{id}/value")
     @Produces(MediaType.APPLICATION_JSON)
-    public SimpleValueDto getValue(@PathParam("id") String sessionId, @Context UriInfo uriInfo) throws DebuggerException {
+    public SimpleValueDto getValue(@PathParam("id") String sessionId,
+                                   @QueryParam("skipCount") @DefaultValue("0") int skipCount,
+                                   @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
+                                   @Context UriInfo uriInfo) throws DebuggerException {
+        if (skipCount < 0) {
+            throw new DebuggerException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
+        }
         List<String> path = new ArrayList<>();
 
         MultivaluedMap<String, String> parameters = uriInfo.getQueryParameters();
@@ -181,7 +189,7 @@ public class DebuggerService {
         }
 
         VariablePath variablePath = new VariablePathImpl(path);
-        return asDto(debuggerManager.getDebugger(sessionId).getValue(variablePath));
+        return asDto(debuggerManager.getDebugger(sessionId).getValue(variablePath, skipCount, maxItems));
     }
 
     @PUT
@@ -198,4 +206,12 @@ public class DebuggerService {
                              @QueryParam("expression") String expression) throws DebuggerException {
         return debuggerManager.getDebugger(sessionId).evaluate(expression);
     }
+
+    @POST
+    @Path("{id}/evaluation")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<EvaluationResultDto> evaluateAll(@PathParam("id") String sessionId, List<String> expressions) throws DebuggerException {
+        return asEvaluationResultsDto(debuggerManager.getDebugger(sessionId).evaluateAll(expressions));
+    }
 }
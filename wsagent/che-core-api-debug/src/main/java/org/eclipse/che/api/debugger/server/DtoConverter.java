@@ -14,6 +14,7 @@ package org.eclipse.che.api.debugger.server;
 import org.eclipse.che.api.debug.shared.dto.BreakpointDto;
 import org.eclipse.che.api.debug.shared.dto.DebugSessionDto;
 import org.eclipse.che.api.debug.shared.dto.DebuggerInfoDto;
+import org.eclipse.che.api.debug.shared.dto.EvaluationResultDto;
 import org.eclipse.che.api.debug.shared.dto.FieldDto;
 import org.eclipse.che.api.debug.shared.dto.LocationDto;
 import org.eclipse.che.api.debug.shared.dto.SimpleValueDto;
@@ -27,6 +28,7 @@ import org.eclipse.che.api.debug.shared.dto.event.SuspendEventDto;
 import org.eclipse.che.api.debug.shared.model.Breakpoint;
 import org.eclipse.che.api.debug.shared.model.DebugSession;
 import org.eclipse.che.api.debug.shared.model.DebuggerInfo;
+import org.eclipse.che.api.debug.shared.model.EvaluationResult;
 import org.eclipse.che.api.debug.shared.model.Field;
 import org.eclipse.che.api.debug.shared.model.Location;
 import org.eclipse.che.api.debug.shared.model.StackFrameDump;
@@ -126,6 +128,15 @@ public final class DtoConverter {
         return newDto(VariablePathDto.class).withPath(variablePath.getPath());
     }
 
+    public static EvaluationResultDto asDto(EvaluationResult result) {
+        return newDto(EvaluationResultDto.class).withValue(result.getValue())
+                                                .withError(result.getError());
+    }
+
+    public static List<EvaluationResultDto> asEvaluationResultsDto(List<? extends EvaluationResult> results) {
+        return results.stream().map(DtoConverter::asDto).collect(Collectors.toList());
+    }
+
     public static StackFrameDumpDto asDto(StackFrameDump stackFrameDump) {
         return newDto(StackFrameDumpDto.class).withVariables(asVariablesDto(stackFrameDump.getVariables()))
                                               .withFields(asFieldsDto(stackFrameDump.getFields()));
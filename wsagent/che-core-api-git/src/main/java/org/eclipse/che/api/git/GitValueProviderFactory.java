@@ -21,8 +21,11 @@ import org.eclipse.che.api.project.server.type.ValueProviderFactory;
 import org.eclipse.che.api.project.server.type.ValueStorageException;
 
 import javax.inject.Singleton;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.eclipse.che.api.git.GitProjectType.GIT_CURRENT_BRANCH_NAME;
@@ -41,37 +44,47 @@ public class GitValueProviderFactory implements ValueProviderFactory {
     @Override
     public ValueProvider newInstance(final FolderEntry folder) {
         return new ReadonlyValueProvider() {
+            /** All the attributes are read with single connection on first request. */
+            private Map<String, List<String>> values;
+
             @Override
             public List<String> getValues(String attributeName) throws ValueStorageException {
                 if (folder == null) {
                     return Collections.emptyList();
                 }
-                try (GitConnection gitConnection = gitConnectionFactory.getConnection(resolveLocalPath(folder))) {
-                    //check whether the folder belongs to git repository
-                    if (!gitConnection.isInsideWorkTree()) {
-                        return Collections.emptyList();
-                    }
-
-                    switch (attributeName) {
-                        case VCS_PROVIDER_NAME:
-                            return Collections.singletonList("git");
-                        case GIT_CURRENT_BRANCH_NAME:
-                            return Collections.singletonList(gitConnection.getCurrentBranch());
-                        case GIT_REPOSITORY_REMOTES:
-                            return gitConnection.remoteList(null, false)
-                                                .stream()
-                                                .map(Remote::getUrl)
-                                                .collect(Collectors.toList());
-                        default:
-                            return Collections.emptyList();
-                    }
-                } catch (ApiException e) {
-                    throw new ValueStorageException(e.getMessage());
+                if (values == null) {
+                    values = readValues(folder);
                 }
+                return values.getOrDefault(attributeName, Collections.emptyList());
             }
         };
     }
 
+    @Override
+    public List<String> getDependencies() {
+        // checkout changes HEAD, remotes are stored in config
+        return Arrays.asList(".git/HEAD", ".git/config");
+    }
+
+    private Map<String, List<String>> readValues(FolderEntry folder) throws ValueStorageException {
+        try (GitConnection gitConnection = gitConnectionFactory.getConnection(resolveLocalPath(folder))) {
+            //check whether the folder belongs to git repository
+            if (!gitConnection.isInsideWorkTree()) {
+                return Collections.emptyMap();
+            }
+            final Map<String, List<String>> values = new HashMap<>();
+            values.put(VCS_PROVIDER_NAME, Collections.singletonList("git"));
+            values.put(GIT_CURRENT_BRANCH_NAME, Collections.singletonList(gitConnection.getCurrentBranch()));
+            values.put(GIT_REPOSITORY_REMOTES, gitConnection.remoteList(null, false)
+                                                            .stream()
+                                                            .map(Remote::getUrl)
+                                                            .collect(Collectors.toList()));
+            return values;
+        } catch (ApiException e) {
+            throw new ValueStorageException(e.getMessage());
+        }
+    }
+
     private String resolveLocalPath(FolderEntry folder) throws ApiException {
         return folder.getVirtualFile().toIoFile().getAbsolutePath();
     }
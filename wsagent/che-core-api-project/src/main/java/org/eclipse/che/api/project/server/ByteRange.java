@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+/**
+ * Single range of bytes requested with the HTTP {@code Range} header, e.g. {@code bytes=0-499}, {@code bytes=500-}
+ * or {@code bytes=-500}. Lists of ranges are not supported, such requests are answered with the whole content.
+ */
+class ByteRange {
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long first;
+    private final long last;
+    private final long length;
+
+    private ByteRange(long first, long last, long length) {
+        this.first = first;
+        this.last = last;
+        this.length = length;
+    }
+
+    /**
+     * Parses value of the {@code Range} header.
+     *
+     * @param header
+     *         value of the header, may be {@code null}
+     * @param length
+     *         length of the whole content
+     * @return requested range clipped to the content or {@code null} if the header is absent, malformed or requests
+     * several ranges, so that the whole content should be returned
+     */
+    static ByteRange parse(String header, long length) {
+        if (header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        final String spec = header.substring(BYTES_UNIT.length()).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                final long suffix = Long.parseLong(spec.substring(1));
+                if (suffix < 0) {
+                    return null;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length - 1, length);
+            }
+            final long first = Long.parseLong(spec.substring(0, dash));
+            final long last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+            if (first < 0 || last < first) {
+                return null;
+            }
+            return new ByteRange(first, Math.min(last, length - 1), length);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Returns {@code false} when the range doesn't overlap the content, e.g. starts after its end. */
+    boolean isSatisfiable() {
+        return first <= last;
+    }
+
+    long getFirst() {
+        return first;
+    }
+
+    /** Returns number of bytes in the range. */
+    long size() {
+        return last - first + 1;
+    }
+
+    /** Returns value of the {@code Content-Range} header for this range. */
+    String toContentRange() {
+        return isSatisfiable() ? "bytes " + first + '-' + last + '/' + length : "bytes */" + length;
+    }
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.ServerException;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.core.EntityTag;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.google.common.hash.Funnels.asOutputStream;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Keeps entity tags of the files, tag of the small file is MD5 sum of its content, larger files get weak tag built
+ * from their last modification date and length, so they are never read for computing of the tag.
+ *
+ * <p>Content of the small file is hashed only when the file is requested first time or after its modification, the
+ * file is considered to be modified when its last modification date or length differs from the ones of the cached tag.
+ */
+@Singleton
+public class FileEntityTagCache {
+    /** Max length of the file which content is hashed. */
+    static final long MAX_HASHED_LENGTH = 1024 * 1024;
+
+    private final long               maxHashedLength;
+    private final Cache<String, Tag> tags;
+
+    @Inject
+    public FileEntityTagCache() {
+        this(MAX_HASHED_LENGTH);
+    }
+
+    FileEntityTagCache(long maxHashedLength) {
+        this.maxHashedLength = maxHashedLength;
+        tags = CacheBuilder.newBuilder()
+                           .concurrencyLevel(8)
+                           .maximumSize(1024)
+                           .expireAfterAccess(10, MINUTES)
+                           .build();
+    }
+
+    /**
+     * Returns entity tag of the given file.
+     *
+     * @throws IOException
+     *         if an i/o error occurs while reading of the file content
+     * @throws ServerException
+     *         if other error occurs
+     */
+    public EntityTag getTag(FileEntry file) throws IOException, ServerException {
+        final String path = file.getPath().toString();
+        final long modified = file.getModified();
+        final long length = file.getVirtualFile().getLength();
+        if (length > maxHashedLength) {
+            return new EntityTag(Long.toHexString(modified) + '-' + Long.toHexString(length), true);
+        }
+        final Tag cached = tags.getIfPresent(path);
+        if (cached != null && cached.modified == modified && cached.length == length) {
+            return cached.entityTag;
+        }
+        final Hasher hasher = Hashing.md5().newHasher();
+        try (InputStream content = file.getInputStream()) {
+            ByteStreams.copy(content, asOutputStream(hasher));
+        }
+        final Tag tag = new Tag(modified, length, new EntityTag(hasher.hash().toString()));
+        tags.put(path, tag);
+        return tag.entityTag;
+    }
+
+    private static class Tag {
+        final long      modified;
+        final long      length;
+        final EntityTag entityTag;
+
+        Tag(long modified, long length, EntityTag entityTag) {
+            this.modified = modified;
+            this.length = length;
+            this.entityTag = entityTag;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.project.server.type.ValueProvider;
+import org.eclipse.che.api.project.server.type.ValueProviderFactory;
+import org.eclipse.che.api.project.server.type.ValueStorageException;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.watcher.FileWatcherManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Caches values of the project attributes computed by read-only value providers.
+ *
+ * <p>Values are cached per project and {@link ValueProviderFactory} only when the factory declares
+ * {@link ValueProviderFactory#getDependencies() files} its values are computed from. Cached values are dropped
+ * when file watcher reports a change of any of these files. Since watcher notifies about changes with a delay,
+ * entry is also validated against modification time and size of the files each time project is initialized.
+ */
+@Singleton
+public class ProjectAttributesCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ProjectAttributesCache.class);
+
+    private final FileWatcherManager                                   fileWatcherManager;
+    private final Map<String, Map<ValueProviderFactory, CachedValues>> projects;
+    private final Set<String>                                          dependencies;
+    private final LongAdder                                            hits;
+    private final LongAdder                                            misses;
+    private final LongAdder                                            invalidations;
+
+    private int watcherId = -1;
+
+    /** Creates cache which entries are validated only by the state of the files they depend on. */
+    public ProjectAttributesCache() {
+        this(null);
+    }
+
+    @Inject
+    public ProjectAttributesCache(FileWatcherManager fileWatcherManager) {
+        this.fileWatcherManager = fileWatcherManager;
+        this.projects = new ConcurrentHashMap<>();
+        this.dependencies = ConcurrentHashMap.newKeySet();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.invalidations = new LongAdder();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (fileWatcherManager != null) {
+            // single matcher for all the factories, so the tree is walked once per watcher cycle
+            watcherId = fileWatcherManager.registerByMatcher(this::isDependency, this::onChange, this::onChange, this::onChange);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watcherId != -1) {
+            fileWatcherManager.unRegisterByMatcher(watcherId);
+            watcherId = -1;
+        }
+    }
+
+    /**
+     * Returns value provider of the given factory for the project folder.
+     * Values of the read-only providers which factory declares dependencies are served from cache when possible.
+     */
+    public ValueProvider newValueProvider(FolderEntry folder, ValueProviderFactory factory) {
+        final ValueProvider provider = factory.newInstance(folder);
+        final List<String> factoryDependencies = factory.getDependencies();
+        if (folder == null || factoryDependencies.isEmpty() || provider.isSettable()) {
+            return provider;
+        }
+        dependencies.addAll(factoryDependencies);
+
+        final List<String> stamps = stamps(folder, factoryDependencies);
+        if (stamps == null) {
+            // some of the files is absent or unreadable, values may come from somewhere else
+            return provider;
+        }
+        final CachedValues cached = projects.computeIfAbsent(folder.getPath().toString(), path -> new ConcurrentHashMap<>())
+                                            .compute(factory, (f, existing) -> existing != null && existing.stamps.equals(stamps)
+                                                                               ? existing
+                                                                               : new CachedValues(stamps));
+        return new CachingValueProvider(provider, cached);
+    }
+
+    /** Drops cached values of the project with given path and of all the projects under it. */
+    public void invalidate(String projectPath) {
+        final String prefix = projectPath.endsWith("/") ? projectPath : projectPath + '/';
+        projects.keySet().removeIf(path -> {
+            if (path.equals(projectPath) || path.startsWith(prefix)) {
+                invalidations.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /** Returns statistics of the cache usage. */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new TreeMap<>();
+        statistics.put("hits", hits.sum());
+        statistics.put("misses", misses.sum());
+        statistics.put("invalidations", invalidations.sum());
+        statistics.put("projects", (long)projects.size());
+        return statistics;
+    }
+
+    private boolean isDependency(java.nio.file.Path path) {
+        return !Files.isDirectory(path) && dependencies.stream().anyMatch(path::endsWith);
+    }
+
+    private void onChange(String path) {
+        for (String dependency : dependencies) {
+            if (path.endsWith('/' + dependency)) {
+                final String projectPath = path.substring(0, path.length() - dependency.length() - 1);
+                if (projects.remove(projectPath) != null) {
+                    invalidations.increment();
+                    LOG.debug("Attributes of project {} invalidated by change of {}", projectPath, path);
+                }
+            }
+        }
+    }
+
+    private static List<String> stamps(FolderEntry folder, List<String> dependencies) {
+        final List<String> stamps = new ArrayList<>(dependencies.size());
+        for (String dependency : dependencies) {
+            try {
+                final VirtualFile file = folder.getVirtualFile().getChild(Path.of(dependency));
+                if (file == null || !file.isFile()) {
+                    return null;
+                }
+                final File ioFile = file.toIoFile();
+                if (ioFile != null) {
+                    final BasicFileAttributes attributes = Files.readAttributes(ioFile.toPath(), BasicFileAttributes.class);
+                    stamps.add(attributes.lastModifiedTime().to(NANOSECONDS) + ":" + attributes.size());
+                } else {
+                    stamps.add(file.getLastModificationDate() + ":" + file.getLength());
+                }
+            } catch (ServerException | IOException e) {
+                return null;
+            }
+        }
+        return stamps;
+    }
+
+    private static class CachedValues {
+        final List<String>              stamps;
+        final Map<String, List<String>> values;
+
+        CachedValues(List<String> stamps) {
+            this.stamps = stamps;
+            this.values = new ConcurrentHashMap<>();
+        }
+    }
+
+    private class CachingValueProvider implements ValueProvider {
+        private final ValueProvider delegate;
+        private final CachedValues  cached;
+
+        CachingValueProvider(ValueProvider delegate, CachedValues cached) {
+            this.delegate = delegate;
+            this.cached = cached;
+        }
+
+        @Override
+        public List<String> getValues(String attributeName) throws ValueStorageException {
+            final List<String> values = cached.values.get(attributeName);
+            if (values != null) {
+                hits.increment();
+                return new ArrayList<>(values);
+            }
+            misses.increment();
+            final List<String> computed = delegate.getValues(attributeName);
+            if (computed != null) {
+                cached.values.put(attributeName, new ArrayList<>(computed));
+            }
+            return computed;
+        }
+
+        @Override
+        public void setValues(String attributeName, List<String> values) throws ValueStorageException {
+            cached.values.clear();
+            delegate.setValues(attributeName, values);
+        }
+
+        @Override
+        public boolean isSettable() {
+            return delegate.isSettable();
+        }
+    }
+}
@@ -54,16 +54,27 @@ public class ProjectRegistry {
     private final ProjectHandlerRegistry         handlers;
     private final FolderEntry                    root;
     private final EventService                   eventService;
+    private final ProjectAttributesCache         attributesCache;
 
     private boolean initialized;
 
-    @Inject
     public ProjectRegistry(WorkspaceProjectsSyncer workspaceHolder,
                            VirtualFileSystemProvider vfsProvider,
                            ProjectTypeRegistry projectTypeRegistry,
                            ProjectHandlerRegistry handlers,
                            EventService eventService) throws ServerException {
+        this(workspaceHolder, vfsProvider, projectTypeRegistry, handlers, eventService, new ProjectAttributesCache());
+    }
+
+    @Inject
+    public ProjectRegistry(WorkspaceProjectsSyncer workspaceHolder,
+                           VirtualFileSystemProvider vfsProvider,
+                           ProjectTypeRegistry projectTypeRegistry,
+                           ProjectHandlerRegistry handlers,
+                           EventService eventService,
+                           ProjectAttributesCache attributesCache) throws ServerException {
         this.eventService = eventService;
+        this.attributesCache = attributesCache;
         this.projects = new ConcurrentHashMap<>();
         this.workspaceHolder = workspaceHolder;
         this.vfs = vfsProvider.getVirtualFileSystem();
@@ -189,7 +200,12 @@ public class ProjectRegistry {
                                  boolean updated,
                                  boolean detected) throws ServerException {
 
-        final RegisteredProject project = new RegisteredProject(folder, config, updated, detected, this.projectTypeRegistry);
+        final RegisteredProject project = new RegisteredProject(folder,
+                                                                config,
+                                                                updated,
+                                                                detected,
+                                                                this.projectTypeRegistry,
+                                                                this.attributesCache);
         projects.put(project.getPath(), project);
 
         return project;
@@ -208,6 +224,7 @@ public class ProjectRegistry {
         Optional.ofNullable(projects.remove(path)).ifPresent(removed::add);
         getProjects(path).forEach(p -> Optional.ofNullable(projects.remove(p))
                                                .ifPresent(removed::add));
+        attributesCache.invalidate(path);
 
         removed.forEach(registeredProject -> eventService.publish(new ProjectDeletedEvent(registeredProject.getPath())));
     }
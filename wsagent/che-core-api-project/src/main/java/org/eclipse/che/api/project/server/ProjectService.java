@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server;
 
+import com.google.common.io.ByteStreams;
+
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -59,6 +61,7 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -66,9 +69,11 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.io.IOException;
@@ -83,6 +88,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.google.common.net.HttpHeaders.ACCEPT_RANGES;
+import static com.google.common.net.HttpHeaders.CONTENT_RANGE;
+import static com.google.common.net.HttpHeaders.IF_RANGE;
+import static com.google.common.net.HttpHeaders.RANGE;
 import static org.eclipse.che.api.project.server.DtoConverter.asDto;
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_CREATE_BATCH_PROJECTS;
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_CREATE_PROJECT;
@@ -108,15 +117,18 @@ public class ProjectService extends Service {
     private final ProjectManager              projectManager;
     private final EventService                eventService;
     private final ProjectServiceLinksInjector projectServiceLinksInjector;
+    private final FileEntityTagCache          fileEntityTags;
     private final String                      workspace;
 
     @Inject
     public ProjectService(ProjectManager projectManager,
                           EventService eventService,
-                          ProjectServiceLinksInjector projectServiceLinksInjector) {
+                          ProjectServiceLinksInjector projectServiceLinksInjector,
+                          FileEntityTagCache fileEntityTags) {
         this.projectManager = projectManager;
         this.eventService = eventService;
         this.projectServiceLinksInjector = projectServiceLinksInjector;
+        this.fileEntityTags = fileEntityTags;
         this.workspace = WorkspaceIdProvider.getWorkspaceId();
     }
 
@@ -479,20 +491,66 @@ public class ProjectService extends Service {
     }
 
     @ApiOperation(value = "Get file content",
-                  notes = "Get file content by its name")
+                  notes = "Get file content by its name. Supports conditional requests with ETag and Last-Modified " +
+                          "headers and requests of a single range of bytes")
     @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 206, message = "Requested range of the file content"),
+                   @ApiResponse(code = 304, message = "File is not modified"),
                    @ApiResponse(code = 403, message = "User not authorized to call this operation"),
                    @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 416, message = "Requested range is out of the file content"),
                    @ApiResponse(code = 500, message = "Internal Server Error")})
     @GET
     @Path("/file/{path:.*}")
     public Response getFile(@ApiParam(value = "Path to a file", required = true)
-                            @PathParam("path") String path) throws IOException, NotFoundException, ForbiddenException, ServerException {
+                            @PathParam("path") String path,
+                            @HeaderParam(RANGE) String range,
+                            @HeaderParam(IF_RANGE) String ifRange,
+                            @Context Request request) throws IOException, NotFoundException, ForbiddenException, ServerException {
         final FileEntry file = projectManager.asFile(path);
         if (file == null) {
             throw new NotFoundException("File not found for " + path);
         }
-        return Response.ok().entity(file.getInputStream()).type(TIKA.detect(file.getName())).build();
+        final EntityTag tag = fileEntityTags.getTag(file);
+        final Date modified = new Date(file.getModified());
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(modified, tag);
+        if (notModified != null) {
+            return notModified.tag(tag).build();
+        }
+        final String type = TIKA.detect(file.getName());
+        // range is applied only if client has the same version of the file, weak tag can't prove that
+        final ByteRange byteRange = ifRange == null || !tag.isWeak() && ifRange.equals('"' + tag.getValue() + '"')
+                                    ? ByteRange.parse(range, file.getVirtualFile().getLength())
+                                    : null;
+        if (byteRange == null) {
+            return Response.ok()
+                           .entity(file.getInputStream())
+                           .type(type)
+                           .tag(tag)
+                           .lastModified(modified)
+                           .header(ACCEPT_RANGES, "bytes")
+                           .build();
+        }
+        if (!byteRange.isSatisfiable()) {
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                           .header(CONTENT_RANGE, byteRange.toContentRange())
+                           .build();
+        }
+        final InputStream content = file.getInputStream();
+        try {
+            ByteStreams.skipFully(content, byteRange.getFirst());
+        } catch (IOException e) {
+            content.close();
+            throw e;
+        }
+        return Response.status(Response.Status.PARTIAL_CONTENT)
+                       .entity(ByteStreams.limit(content, byteRange.size()))
+                       .type(type)
+                       .tag(tag)
+                       .lastModified(modified)
+                       .header(ACCEPT_RANGES, "bytes")
+                       .header(CONTENT_RANGE, byteRange.toContentRange())
+                       .build();
     }
 
     @PUT
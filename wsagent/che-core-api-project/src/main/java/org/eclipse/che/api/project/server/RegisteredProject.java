@@ -19,6 +19,7 @@ import org.eclipse.che.api.project.server.type.AttributeValue;
 import org.eclipse.che.api.project.server.type.ProjectTypeDef;
 import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
 import org.eclipse.che.api.project.server.type.ValueProvider;
+import org.eclipse.che.api.project.server.type.ValueProviderFactory;
 import org.eclipse.che.api.project.server.type.ValueStorageException;
 import org.eclipse.che.api.project.server.type.Variable;
 import org.eclipse.che.api.vfs.Path;
@@ -61,6 +62,8 @@ public class RegisteredProject implements ProjectConfig {
      *         if this project was detected, initialized when "parent" project initialized
      * @param projectTypeRegistry
      *         project type registry
+     * @param attributesCache
+     *         cache of the provided attribute values
      * @throws ServerException
      *         when path for project is undefined
      */
@@ -68,7 +71,8 @@ public class RegisteredProject implements ProjectConfig {
                       ProjectConfig config,
                       boolean updated,
                       boolean detected,
-                      ProjectTypeRegistry projectTypeRegistry) throws ServerException {
+                      ProjectTypeRegistry projectTypeRegistry,
+                      ProjectAttributesCache attributesCache) throws ServerException {
         problems = new ArrayList<>();
         attributes = new HashMap<>();
 
@@ -102,7 +106,7 @@ public class RegisteredProject implements ProjectConfig {
         types.addTransient(folder);
 
         // 3. initialize attributes
-        initAttributes();
+        initAttributes(attributesCache);
     }
 
 
@@ -110,7 +114,9 @@ public class RegisteredProject implements ProjectConfig {
      * Initialize project attributes.
      * Note: the problem with {@link Problem#code} = 13 will be added when a value for some attribute is not initialized
      */
-    private void initAttributes() {
+    private void initAttributes(ProjectAttributesCache attributesCache) {
+        // one provider per factory, so providers may reuse data read for other attributes
+        final Map<ValueProviderFactory, ValueProvider> providers = new HashMap<>();
 
         // we take only defined attributes, others ignored
         for (Map.Entry<String, Attribute> entry : types.getAttributeDefs().entrySet()) {
@@ -128,7 +134,9 @@ public class RegisteredProject implements ProjectConfig {
                 // value provided
                 if (variable.isValueProvided()) {
 
-                    final ValueProvider valueProvider = variable.getValueProviderFactory().newInstance(folder);
+                    final ValueProvider valueProvider =
+                            providers.computeIfAbsent(variable.getValueProviderFactory(),
+                                                      factory -> attributesCache.newValueProvider(folder, factory));
 
                     if (folder != null) {
 
@@ -12,6 +12,9 @@ package org.eclipse.che.api.project.server.type;
 
 import org.eclipse.che.api.project.server.FolderEntry;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Factory for {@link ValueProvider}.
  *
@@ -25,4 +28,13 @@ public interface ValueProviderFactory {
      * @param projectFolder
      */
     ValueProvider newInstance(FolderEntry projectFolder);
+
+    /**
+     * Returns paths of the files, relative to the project folder, values of the provider are computed from,
+     * e.g. {@code pom.xml}. Values of read-only providers which declare their files are cached per project
+     * until any of these files is changed. Empty list means values are computed each time.
+     */
+    default List<String> getDependencies() {
+        return Collections.emptyList();
+    }
 }
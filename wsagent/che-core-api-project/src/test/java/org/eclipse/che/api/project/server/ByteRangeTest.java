@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests for {@link ByteRange}.
+ */
+public class ByteRangeTest {
+
+    @DataProvider(name = "ranges")
+    public Object[][] ranges() {
+        return new Object[][] {
+                {"bytes=0-9", 0L, 10L, "bytes 0-9/100"},
+                {"bytes=90-", 90L, 10L, "bytes 90-99/100"},
+                {"bytes=-10", 90L, 10L, "bytes 90-99/100"},
+                {"bytes=95-200", 95L, 5L, "bytes 95-99/100"},
+                {"bytes=-200", 0L, 100L, "bytes 0-99/100"}
+        };
+    }
+
+    @Test(dataProvider = "ranges")
+    public void shouldParseRange(String header, long first, long size, String contentRange) {
+        final ByteRange range = ByteRange.parse(header, 100);
+
+        assertEquals(range.getFirst(), first);
+        assertEquals(range.size(), size);
+        assertEquals(range.toContentRange(), contentRange);
+    }
+
+    @DataProvider(name = "ignoredRanges")
+    public Object[][] ignoredRanges() {
+        return new Object[][] {{null}, {"items=0-9"}, {"bytes=0-9,20-29"}, {"bytes=9-0"}, {"bytes=a-b"}, {"bytes=10"}, {"bytes=--1"}};
+    }
+
+    @Test(dataProvider = "ignoredRanges")
+    public void shouldIgnoreMalformedOrMultipleRanges(String header) {
+        assertNull(ByteRange.parse(header, 100));
+    }
+
+    @Test
+    public void shouldNotSatisfyRangeOutOfContent() {
+        final ByteRange range = ByteRange.parse("bytes=100-", 100);
+
+        assertFalse(range.isSatisfiable());
+        assertEquals(range.toContentRange(), "bytes */100");
+    }
+}
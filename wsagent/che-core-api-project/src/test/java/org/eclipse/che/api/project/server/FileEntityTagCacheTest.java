@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.EntityTag;
+import java.io.ByteArrayInputStream;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link FileEntityTagCache}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class FileEntityTagCacheTest {
+    private static final byte[] CONTENT = "to be or not to be".getBytes();
+
+    @Mock
+    private FileEntry   file;
+    @Mock
+    private VirtualFile virtualFile;
+
+    private FileEntityTagCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(file.getPath()).thenReturn(Path.of("/project/test.txt"));
+        when(file.getVirtualFile()).thenReturn(virtualFile);
+        when(file.getModified()).thenReturn(1000L);
+        when(virtualFile.getLength()).thenReturn((long)CONTENT.length);
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(CONTENT), new ByteArrayInputStream(CONTENT));
+
+        cache = new FileEntityTagCache(CONTENT.length);
+    }
+
+    @Test
+    public void shouldHashContentOfSmallFileOnce() throws Exception {
+        final EntityTag tag = cache.getTag(file);
+
+        assertFalse(tag.isWeak());
+        assertEquals(cache.getTag(file), tag);
+        verify(file, times(1)).getInputStream();
+    }
+
+    @Test
+    public void shouldHashContentAgainWhenFileIsModified() throws Exception {
+        final EntityTag tag = cache.getTag(file);
+        when(file.getModified()).thenReturn(2000L);
+
+        assertEquals(cache.getTag(file), tag);
+        verify(file, times(2)).getInputStream();
+    }
+
+    @Test
+    public void shouldNotReadContentOfLargeFile() throws Exception {
+        when(virtualFile.getLength()).thenReturn(CONTENT.length + 1L);
+
+        final EntityTag tag = cache.getTag(file);
+        when(file.getModified()).thenReturn(2000L);
+
+        assertTrue(tag.isWeak());
+        assertEquals(tag.getValue(), "3e8-13");
+        assertNotEquals(cache.getTag(file), tag);
+        verify(file, never()).getInputStream();
+    }
+}
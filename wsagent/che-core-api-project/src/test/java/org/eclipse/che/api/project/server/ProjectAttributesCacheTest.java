@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.project.server.type.ValueProvider;
+import org.eclipse.che.api.project.server.type.ValueProviderFactory;
+import org.eclipse.che.api.project.server.type.ValueStorageException;
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link ProjectAttributesCache}.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class ProjectAttributesCacheTest {
+    @Mock
+    private FolderEntry          folder;
+    @Mock
+    private VirtualFile          folderFile;
+    @Mock
+    private VirtualFile          pomFile;
+    @Mock
+    private ValueProviderFactory factory;
+    @Mock
+    private ValueProvider        provider;
+
+    private ProjectAttributesCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        when(folder.getPath()).thenReturn(Path.of("/project"));
+        when(folder.getVirtualFile()).thenReturn(folderFile);
+        when(folderFile.getChild(Path.of("pom.xml"))).thenReturn(pomFile);
+        when(pomFile.isFile()).thenReturn(true);
+        when(pomFile.getLastModificationDate()).thenReturn(1L);
+        when(pomFile.getLength()).thenReturn(10L);
+        when(factory.newInstance(any())).thenReturn(provider);
+        when(factory.getDependencies()).thenReturn(Collections.singletonList("pom.xml"));
+        when(provider.getValues("artifactId")).thenReturn(Collections.singletonList("app"));
+
+        cache = new ProjectAttributesCache();
+    }
+
+    @Test
+    public void shouldServeValuesFromCacheWhileDependencyIsNotChanged() throws Exception {
+        assertEquals(cache.newValueProvider(folder, factory).getValues("artifactId"), Collections.singletonList("app"));
+        assertEquals(cache.newValueProvider(folder, factory).getValues("artifactId"), Collections.singletonList("app"));
+
+        verify(provider).getValues("artifactId");
+        assertEquals((long)cache.getStatistics().get("hits"), 1);
+    }
+
+    @Test
+    public void shouldRecomputeValuesWhenDependencyIsModified() throws Exception {
+        cache.newValueProvider(folder, factory).getValues("artifactId");
+        when(pomFile.getLastModificationDate()).thenReturn(2L);
+
+        cache.newValueProvider(folder, factory).getValues("artifactId");
+
+        verify(provider, times(2)).getValues("artifactId");
+    }
+
+    @Test
+    public void shouldRecomputeValuesOfSubProjectsWhenProjectIsInvalidated() throws Exception {
+        cache.newValueProvider(folder, factory).getValues("artifactId");
+
+        cache.invalidate("/");
+        cache.newValueProvider(folder, factory).getValues("artifactId");
+
+        verify(provider, times(2)).getValues("artifactId");
+        assertEquals((long)cache.getStatistics().get("invalidations"), 1);
+    }
+
+    @Test
+    public void shouldNotCacheValuesWhenDependencyIsAbsent() throws Exception {
+        when(folderFile.getChild(Path.of("pom.xml"))).thenReturn(null);
+
+        cache.newValueProvider(folder, factory).getValues("artifactId");
+        cache.newValueProvider(folder, factory).getValues("artifactId");
+
+        verify(provider, times(2)).getValues("artifactId");
+    }
+
+    @Test(expectedExceptions = ValueStorageException.class)
+    public void shouldNotCacheFailures() throws Exception {
+        when(provider.getValues("artifactId")).thenThrow(new ValueStorageException("broken pom.xml"));
+        try {
+            cache.newValueProvider(folder, factory).getValues("artifactId");
+        } catch (ValueStorageException ignored) {
+        }
+
+        cache.newValueProvider(folder, factory).getValues("artifactId");
+    }
+}
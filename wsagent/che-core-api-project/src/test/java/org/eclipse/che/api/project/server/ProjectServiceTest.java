@@ -279,6 +279,7 @@ public class ProjectServiceTest {
         dependencies.addInstance(ProjectHandlerRegistry.class, phRegistry);
         dependencies.addInstance(EventService.class, eventService);
         dependencies.addInstance(ProjectServiceLinksInjector.class, projectServiceLinksInjector);
+        dependencies.addInstance(FileEntityTagCache.class, new FileEntityTagCache());
 
         ResourceBinder resources = new ResourceBinderImpl();
         ProviderBinder providers = ProviderBinder.getInstance();
@@ -895,6 +896,88 @@ public class ProjectServiceTest {
         assertEquals(new String(writer.getBody()), myContent);
     }
 
+    @Test
+    public void shouldNotReturnFileContentWhenETagMatches() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes(Charset.defaultCharset()));
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", null, null, new ByteArrayContainerResponseWriter(), null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        String eTag = response.getHttpHeaders().getFirst("ETag").toString();
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("If-None-Match", singletonList(eTag));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/file/my_project/test.txt",
+                                    "http://localhost:8080/api", headers, null, writer, null);
+
+        assertEquals(response.getStatus(), 304);
+        assertEquals(response.getHttpHeaders().getFirst("ETag").toString(), eTag);
+        assertEquals(writer.getBody().length, 0);
+    }
+
+    @Test
+    public void shouldReturnFileContentWhenETagDoesNotMatch() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes(Charset.defaultCharset()));
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("If-None-Match", singletonList("\"outdated\""));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, writer, null);
+
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        assertEquals(new String(writer.getBody()), "to be or not to be");
+    }
+
+    @Test
+    public void shouldReturnRequestedRangeOfFileContent() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes(Charset.defaultCharset()));
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=6-11"));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, writer, null);
+
+        assertEquals(response.getStatus(), 206, "Error: " + response.getEntity());
+        assertEquals(response.getHttpHeaders().getFirst("Content-Range"), "bytes 6-11/18");
+        assertEquals(new String(writer.getBody()), "or not");
+    }
+
+    @Test
+    public void shouldReturnWholeFileContentWhenIfRangeDoesNotMatch() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes(Charset.defaultCharset()));
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=6-11"));
+        headers.put("If-Range", singletonList("\"outdated\""));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, writer, null);
+
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        assertEquals(new String(writer.getBody()), "to be or not to be");
+    }
+
+    @Test
+    public void shouldRespondWithRangeNotSatisfiableWhenRangeIsOutOfFileContent() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes(Charset.defaultCharset()));
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=100-"));
+
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/file/my_project/test.txt",
+                                                      "http://localhost:8080/api", headers, null, null);
+
+        assertEquals(response.getStatus(), 416);
+        assertEquals(response.getHttpHeaders().getFirst("Content-Range"), "bytes */18");
+    }
+
     @Test
     public void testUpdateFileContent() throws Exception {
         String myContent = "<test>hello</test>";
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.shared;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * DTO for representing the state of a single test case of the running test execution.
+ * Instances are sent to the client as soon as the state of the test case changes.
+ */
+@DTO
+public interface TestCaseResult {
+
+    /**
+     * Returns the identifier of the test execution this test case belongs to.
+     *
+     * @return the identifier of the test execution
+     */
+    String getExecutionId();
+
+    /**
+     * Sets the identifier of the test execution this test case belongs to.
+     *
+     * @param executionId
+     */
+    void setExecutionId(String executionId);
+
+    /**
+     * Returns the fully qualified class name of the test class.
+     *
+     * @return fully qualified class name of the test class
+     */
+    String getClassName();
+
+    /**
+     * Sets the fully qualified class name of the test class.
+     *
+     * @param className
+     */
+    void setClassName(String className);
+
+    /**
+     * Returns the method name of the test case.
+     *
+     * @return the method name of the test case
+     */
+    String getMethodName();
+
+    /**
+     * Sets the method name of the test case.
+     *
+     * @param methodName
+     */
+    void setMethodName(String methodName);
+
+    /**
+     * Returns the state of the test case.
+     *
+     * @return the state of the test case
+     */
+    Status getStatus();
+
+    /**
+     * Sets the state of the test case.
+     *
+     * @param status
+     */
+    void setStatus(Status status);
+
+    /**
+     * Returns how long the test case was running in milliseconds, zero for the started test case.
+     *
+     * @return the duration of the test case
+     */
+    long getDuration();
+
+    /**
+     * Sets how long the test case was running in milliseconds.
+     *
+     * @param duration
+     */
+    void setDuration(long duration);
+
+    /**
+     * Returns the details of the failure if the test case is failed, otherwise null.
+     *
+     * @return the details of the failure
+     */
+    Failure getFailure();
+
+    /**
+     * Sets the details of the failure.
+     *
+     * @param failure
+     */
+    void setFailure(Failure failure);
+
+    enum Status {
+        STARTED,
+        PASSED,
+        FAILED,
+        SKIPPED
+    }
+}
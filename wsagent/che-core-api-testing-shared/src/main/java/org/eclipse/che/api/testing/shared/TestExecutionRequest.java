@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.shared;
+
+import java.util.Map;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * DTO for requesting the test execution which results are streamed to the client.
+ */
+@DTO
+public interface TestExecutionRequest {
+
+    /**
+     * Returns the name of the test framework the tests should be run on.
+     *
+     * @return the name of the test framework
+     */
+    String getTestFramework();
+
+    /**
+     * Sets the name of the test framework the tests should be run on.
+     *
+     * @param testFramework
+     */
+    void setTestFramework(String testFramework);
+
+    /**
+     * Returns the relative path to the project directory.
+     *
+     * @return the relative path to the project directory
+     */
+    String getProjectPath();
+
+    /**
+     * Sets the relative path to the project directory.
+     *
+     * @param projectPath
+     */
+    void setProjectPath(String projectPath);
+
+    /**
+     * Returns the parameters which are passed to the test framework implementation.
+     *
+     * @return the parameters of the test execution
+     */
+    Map<String, String> getParameters();
+
+    /**
+     * Sets the parameters which are passed to the test framework implementation.
+     *
+     * @param parameters
+     */
+    void setParameters(Map<String, String> parameters);
+}
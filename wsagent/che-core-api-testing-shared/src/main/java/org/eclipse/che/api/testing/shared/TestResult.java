@@ -77,4 +77,18 @@ public interface TestResult {
      * @param count
      */
     void setFailureCount(int count);
+
+    /**
+     * Returns the identifier of the test execution if results were streamed to the client, otherwise null.
+     *
+     * @return the identifier of the test execution
+     */
+    String getExecutionId();
+
+    /**
+     * Sets the identifier of the test execution.
+     *
+     * @param executionId
+     */
+    void setExecutionId(String executionId);
 }
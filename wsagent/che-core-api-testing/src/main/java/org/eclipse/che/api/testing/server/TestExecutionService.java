@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.jsonrpc.RequestHandlerConfigurator;
+import org.eclipse.che.api.core.jsonrpc.RequestTransmitter;
+import org.eclipse.che.api.testing.server.framework.TestFrameworkRegistry;
+import org.eclipse.che.api.testing.server.framework.TestRunner;
+import org.eclipse.che.api.testing.shared.Failure;
+import org.eclipse.che.api.testing.shared.TestExecutionRequest;
+import org.eclipse.che.api.testing.shared.TestResult;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.slf4j.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Runs tests requested over JSON-RPC and streams results of each test case to the requesting endpoint
+ * as soon as the test case ends. Request returns identifier of the execution right away, results of
+ * the test cases are sent with {@value #RESULT_METHOD} and the summary with {@value #FINISHED_METHOD}.
+ */
+@Singleton
+public class TestExecutionService {
+    private static final Logger LOG = getLogger(TestExecutionService.class);
+
+    private static final String INCOMING_METHOD = "testing:run";
+    private static final String RESULT_METHOD   = "event:testing-case-result";
+    private static final String FINISHED_METHOD = "event:testing-finished";
+
+    private final TestFrameworkRegistry frameworkRegistry;
+    private final RequestTransmitter    transmitter;
+    private final ExecutorService       executor;
+
+    @Inject
+    public TestExecutionService(TestFrameworkRegistry frameworkRegistry, RequestTransmitter transmitter) {
+        this.frameworkRegistry = frameworkRegistry;
+        this.transmitter = transmitter;
+        this.executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("TestExecutionService-%d")
+                                                                                .setUncaughtExceptionHandler(
+                                                                                        LoggingUncaughtExceptionHandler.getInstance())
+                                                                                .setDaemon(true)
+                                                                                .build());
+    }
+
+    @Inject
+    public void configureHandler(RequestHandlerConfigurator configurator) {
+        configurator.newConfiguration()
+                    .methodName(INCOMING_METHOD)
+                    .paramsAsDto(TestExecutionRequest.class)
+                    .resultAsString()
+                    .withFunction(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /** Starts the test execution and returns its identifier. */
+    String run(String endpointId, TestExecutionRequest request) {
+        String executionId = NameGenerator.generate("testing-", 16);
+        Map<String, String> parameters = new HashMap<>();
+        if (request.getParameters() != null) {
+            parameters.putAll(request.getParameters());
+        }
+        parameters.put("projectPath", request.getProjectPath());
+        parameters.put("absoluteProjectPath", ResourcesPlugin.getPathToWorkspace() + request.getProjectPath());
+        parameters.put("testFramework", request.getTestFramework());
+        executor.execute(() -> {
+            TestResult result = execute(endpointId, executionId, request.getTestFramework(), parameters);
+            result.setExecutionId(executionId);
+            transmitter.transmitOneToNone(endpointId, FINISHED_METHOD, result);
+        });
+        return executionId;
+    }
+
+    private TestResult execute(String endpointId, String executionId, String testFramework, Map<String, String> parameters) {
+        TestRunner runner = frameworkRegistry.getTestRunner(testFramework);
+        if (runner == null) {
+            return failedResult(testFramework, "No test frameworks found: " + testFramework);
+        }
+        try {
+            TestResult result = runner.execute(parameters, testCase -> {
+                testCase.setExecutionId(executionId);
+                transmitter.transmitOneToNone(endpointId, RESULT_METHOD, testCase);
+            });
+            return result != null ? result : failedResult(testFramework, "Test framework is not available in the project");
+        } catch (Exception e) {
+            LOG.error("Test execution {} failed. {}", executionId, e.getLocalizedMessage(), e);
+            return failedResult(testFramework, e.getLocalizedMessage());
+        }
+    }
+
+    private static TestResult failedResult(String testFramework, String message) {
+        Failure failure = newDto(Failure.class);
+        failure.setMessage(message);
+        TestResult result = newDto(TestResult.class);
+        result.setTestFramework(testFramework);
+        result.setSuccess(false);
+        result.setFailureCount(1);
+        result.setFailures(Collections.singletonList(failure));
+        return result;
+    }
+}
@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.execution;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Selects test classes affected by the changes of the compiled classes of a project since the previous run.
+ *
+ * <p>Test class is affected when any class it depends on transitively is added, changed or removed,
+ * or when the test class has failed during the previous run. Dependencies are read from the constant pools
+ * of the class files, classes are considered changed only if their content is changed, so recompilation
+ * of unchanged sources doesn't make tests affected. Class files are re-read only when their modification
+ * time or size is changed.
+ */
+class AffectedTestsDetector {
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+
+    private final Map<Path, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Scans output directories and selects affected test classes.
+     * Selection must be {@link #commit(Selection, Collection) committed} when tests are run,
+     * otherwise the next selection is computed against the same previous state.
+     *
+     * @param key
+     *         key of the project
+     * @param outputDirectories
+     *         directories with compiled classes of the project including test classes
+     * @param testClasses
+     *         candidate test classes
+     */
+    Selection select(Path key, List<Path> outputDirectories, List<String> testClasses) throws IOException {
+        Snapshot previous = snapshots.get(key);
+        Map<String, ClassInfo> current = scan(outputDirectories, previous == null ? Collections.emptyMap() : previous.classes);
+        if (previous == null) {
+            return new Selection(key, testClasses, current, Collections.emptySet());
+        }
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, ClassInfo> entry : current.entrySet()) {
+            ClassInfo old = previous.classes.get(entry.getKey());
+            if (old == null || old.hash != entry.getValue().hash) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String name : previous.classes.keySet()) {
+            if (!current.containsKey(name)) {
+                changed.add(name);
+            }
+        }
+        List<String> affected = new ArrayList<>();
+        for (String testClass : testClasses) {
+            if (previous.failed.contains(testClass) || dependsOn(internalName(testClass), current, changed)) {
+                affected.add(testClass);
+            }
+        }
+        return new Selection(key, affected, current, previous.failed);
+    }
+
+    /**
+     * Remembers state of the classes the selection was made against.
+     *
+     * @param selection
+     *         selection which tests has been run
+     * @param failed
+     *         names of the failed test classes
+     */
+    void commit(Selection selection, Collection<String> failed) {
+        Set<String> stillFailed = new HashSet<>(selection.previouslyFailed);
+        stillFailed.removeAll(selection.tests);
+        stillFailed.addAll(failed);
+        snapshots.put(selection.key, new Snapshot(selection.classes, stillFailed));
+    }
+
+    /** Forgets state of the project, so all the tests are selected next time. */
+    void reset(Path key) {
+        snapshots.remove(key);
+    }
+
+    private static boolean dependsOn(String className, Map<String, ClassInfo> classes, Set<String> changed) {
+        Set<String> visited = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(className);
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            if (!visited.add(name)) {
+                continue;
+            }
+            if (changed.contains(name)) {
+                return true;
+            }
+            ClassInfo info = classes.get(name);
+            if (info != null) {
+                queue.addAll(info.dependencies);
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, ClassInfo> scan(List<Path> directories, Map<String, ClassInfo> previous) throws IOException {
+        Map<String, ClassInfo> classes = new HashMap<>();
+        for (Path directory : directories) {
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>)files::iterator) {
+                    String fileName = file.getFileName().toString();
+                    if (!fileName.endsWith(".class")) {
+                        continue;
+                    }
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (!attributes.isRegularFile()) {
+                        continue;
+                    }
+                    String relative = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                    String name = relative.substring(0, relative.length() - ".class".length());
+                    String stamp = attributes.lastModifiedTime().to(NANOSECONDS) + ":" + attributes.size();
+                    ClassInfo old = previous.get(name);
+                    if (old != null && old.stamp.equals(stamp)) {
+                        classes.put(name, old);
+                        continue;
+                    }
+                    byte[] bytes = Files.readAllBytes(file);
+                    CRC32 crc = new CRC32();
+                    crc.update(bytes);
+                    long hash = crc.getValue() << 32 | bytes.length;
+                    if (old != null && old.hash == hash) {
+                        classes.put(name, new ClassInfo(stamp, hash, old.dependencies));
+                    } else {
+                        classes.put(name, new ClassInfo(stamp, hash, readDependencies(bytes)));
+                    }
+                }
+            }
+        }
+        return classes;
+    }
+
+    /** Returns internal names of the classes referenced from the constant pool of the class file. */
+    static Set<String> readDependencies(byte[] classFile) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+        if (in.readInt() != CLASS_FILE_MAGIC) {
+            return Collections.emptySet();
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classes = new int[count];
+        int classesCount = 0;
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classes[classesCount++] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    in.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    in.skipBytes(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.skipBytes(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    in.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+        Set<String> dependencies = new HashSet<>();
+        for (int i = 0; i < classesCount; i++) {
+            String name = utf8[classes[i]];
+            if (name != null) {
+                if (name.startsWith("[")) {
+                    addDescriptorTypes(name, dependencies);
+                } else {
+                    dependencies.add(name);
+                }
+            }
+        }
+        // types used only in signatures of fields and methods don't have class entries
+        for (String value : utf8) {
+            if (value != null && (value.startsWith("(") || value.startsWith("L") || value.startsWith("[") || value.startsWith("<"))) {
+                addDescriptorTypes(value, dependencies);
+            }
+        }
+        return dependencies;
+    }
+
+    private static void addDescriptorTypes(String descriptor, Set<String> dependencies) {
+        int start = descriptor.indexOf('L');
+        while (start != -1) {
+            int end = start + 1;
+            while (end < descriptor.length() && descriptor.charAt(end) != ';' && descriptor.charAt(end) != '<') {
+                end++;
+            }
+            if (end == descriptor.length()) {
+                return;
+            }
+            dependencies.add(descriptor.substring(start + 1, end));
+            start = descriptor.indexOf('L', end);
+        }
+    }
+
+    private static String internalName(String className) {
+        return className.replace('.', '/');
+    }
+
+    /** Test classes selected for the run. */
+    static class Selection {
+        private final Path                   key;
+        private final List<String>           tests;
+        private final Map<String, ClassInfo> classes;
+        private final Set<String>            previouslyFailed;
+
+        private Selection(Path key, List<String> tests, Map<String, ClassInfo> classes, Set<String> previouslyFailed) {
+            this.key = key;
+            this.tests = tests;
+            this.classes = classes;
+            this.previouslyFailed = previouslyFailed;
+        }
+
+        List<String> getTests() {
+            return tests;
+        }
+    }
+
+    private static class Snapshot {
+        final Map<String, ClassInfo> classes;
+        final Set<String>            failed;
+
+        Snapshot(Map<String, ClassInfo> classes, Set<String> failed) {
+            this.classes = classes;
+            this.failed = failed;
+        }
+    }
+
+    private static class ClassInfo {
+        final String      stamp;
+        final long        hash;
+        final Set<String> dependencies;
+
+        ClassInfo(String stamp, long hash, Set<String> dependencies) {
+            this.stamp = stamp;
+            this.hash = hash;
+            this.dependencies = dependencies;
+        }
+    }
+}
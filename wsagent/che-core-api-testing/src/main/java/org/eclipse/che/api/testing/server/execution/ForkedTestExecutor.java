@@ -0,0 +1,471 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.execution;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.util.AbstractLineConsumer;
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.api.core.util.ProcessExecutor;
+import org.eclipse.che.api.core.util.ProcessUtil;
+import org.eclipse.che.api.testing.shared.Failure;
+import org.eclipse.che.api.testing.shared.TestCaseResult;
+import org.eclipse.che.api.testing.shared.TestCaseResult.Status;
+import org.eclipse.che.api.testing.shared.TestResult;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+/**
+ * Runs tests in separate JVMs, so tests don't block the agent and their classes are unloaded when tests end.
+ *
+ * <p>Test classes or methods, depending on {@link TestExecutionPlan#getParallelism()}, are distributed among
+ * {@link TestExecutionPlan#getForks()} JVMs which run simultaneously. Forked JVM is started with
+ * a {@link TestLauncher} which reports results of each test case as soon as the test case ends,
+ * the results are passed to the listener of the execution right away. Number of simultaneously running
+ * JVMs is also limited for all the executions by the number of available processors.
+ */
+@Singleton
+public class ForkedTestExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(ForkedTestExecutor.class);
+
+    private static final String COMMAND           = "test-fork";
+    private static final int    STDERR_TAIL_LINES = 20;
+
+    private final ExecutorService       executor;
+    private final int                   maxForks;
+    private final AffectedTestsDetector affectedTestsDetector;
+    private final LongAdder             forks;
+    private final LongAdder             testCases;
+    private final LongAdder             failedForks;
+
+    @Inject
+    public ForkedTestExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    ForkedTestExecutor(int maxForks) {
+        this.maxForks = Math.max(1, maxForks);
+        this.executor = Executors.newFixedThreadPool(this.maxForks,
+                                                     new ThreadFactoryBuilder().setNameFormat("ForkedTestExecutor-%d")
+                                                                               .setUncaughtExceptionHandler(
+                                                                                       LoggingUncaughtExceptionHandler.getInstance())
+                                                                               .setDaemon(true)
+                                                                               .build());
+        this.affectedTestsDetector = new AffectedTestsDetector();
+        this.forks = new LongAdder();
+        this.testCases = new LongAdder();
+        this.failedForks = new LongAdder();
+    }
+
+    /** Returns maximum number of JVMs which run tests simultaneously. */
+    public int getMaxForks() {
+        return maxForks;
+    }
+
+    /**
+     * Runs the tests and waits until they end.
+     *
+     * @param plan
+     *         describes tests to run
+     * @param listener
+     *         consumer of the test case results, never called concurrently
+     * @return summary of the execution
+     * @throws IOException
+     *         when test classes can't be read or JVM can't be started
+     * @throws InterruptedException
+     *         when thread is interrupted, forked JVMs are killed in this case
+     */
+    public TestResult execute(TestExecutionPlan plan, Consumer<TestCaseResult> listener) throws IOException, InterruptedException {
+        List<String> classes = plan.getTestClasses() != null ? plan.getTestClasses() : findClasses(plan.getTestClassesDirectory());
+        AffectedTestsDetector.Selection selection = null;
+        if (plan.isAffectedOnly()) {
+            selection = affectedTestsDetector.select(plan.getTestClassesDirectory(), plan.getOutputDirectories(), classes);
+            LOG.debug("{} of {} test classes are affected by changes", selection.getTests().size(), classes.size());
+            classes = selection.getTests();
+        }
+        Execution execution = new Execution(plan, listener);
+        if (!classes.isEmpty()) {
+            List<String> units = classes;
+            int forksNumber = Math.min(plan.getForks(), maxForks);
+            if (plan.getParallelism() == TestExecutionPlan.Parallelism.METHODS && forksNumber > 1) {
+                units = execution.list(classes);
+            }
+            execution.run(partition(units, Math.min(forksNumber, units.size())));
+        }
+        if (selection != null) {
+            affectedTestsDetector.commit(selection, execution.getFailedClasses());
+        }
+        return execution.getResult();
+    }
+
+    /** Forgets results of the previous runs of the tests from the directory, so all of them are affected next time. */
+    public void resetAffected(Path testClassesDirectory) {
+        affectedTestsDetector.reset(testClassesDirectory);
+    }
+
+    /** Returns number of started JVMs, reported test cases and JVMs which ended abnormally. */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new TreeMap<>();
+        statistics.put("forks", forks.sum());
+        statistics.put("test_cases", testCases.sum());
+        statistics.put("failed_forks", failedForks.sum());
+        return statistics;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private static List<String> findClasses(Path directory) throws IOException {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".class")
+                                        && !file.getFileName().toString().contains("$")
+                                        && Files.isRegularFile(file))
+                        .map(file -> {
+                            String relative = directory.relativize(file).toString();
+                            return relative.substring(0, relative.length() - ".class".length())
+                                           .replace(file.getFileSystem().getSeparator(), ".");
+                        })
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    /** Distributes units among the parts in turn, so each part gets tests from all the packages. */
+    private static List<List<String>> partition(List<String> units, int parts) {
+        List<List<String>> partitions = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < units.size(); i++) {
+            partitions.get(i % parts).add(units.get(i));
+        }
+        return partitions;
+    }
+
+    private static String classpathOf(Class<?> aClass) {
+        try {
+            return Paths.get(aClass.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e.getLocalizedMessage(), e);
+        }
+    }
+
+    /** Returns line of the method in the trace, null if the method is not in the trace. */
+    static Integer findFailingLine(String trace, String className, String methodName) {
+        if (trace == null || className == null) {
+            return null;
+        }
+        Pattern pattern = Pattern.compile("at " + Pattern.quote(className + '.' + (methodName == null ? "" : methodName))
+                                          + (methodName == null ? "[^(]*" : "") + "\\([^:)]+:(\\d+)\\)");
+        Matcher matcher = pattern.matcher(trace);
+        return matcher.find() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    /** State of the single test execution. */
+    private class Execution {
+        private final TestExecutionPlan        plan;
+        private final Consumer<TestCaseResult> listener;
+        private final List<String>             command;
+        private final String                   classpath;
+        private final List<Failure>            failures;
+        private final Set<Process>             processes;
+
+        private boolean forkFailed;
+
+        Execution(TestExecutionPlan plan, Consumer<TestCaseResult> listener) {
+            this.plan = plan;
+            this.listener = listener;
+            this.failures = new ArrayList<>();
+            this.processes = ConcurrentHashMap.newKeySet();
+            Set<String> entries = new LinkedHashSet<>(plan.getClasspath());
+            entries.add(classpathOf(plan.getLauncher()));
+            entries.add(classpathOf(TestLauncher.class));
+            this.classpath = String.join(File.pathSeparator, entries);
+            this.command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(plan.getJvmOptions());
+            command.add(plan.getLauncher().getName());
+        }
+
+        /** Lists test methods of the classes in a single JVM. */
+        List<String> list(List<String> classes) throws IOException, InterruptedException {
+            Fork fork = new Fork(TestLauncher.LIST, classes);
+            fork.run();
+            return fork.found;
+        }
+
+        /** Runs each part of the tests in its own JVM and waits until all of them end. */
+        void run(List<List<String>> parts) throws IOException, InterruptedException {
+            List<Future<?>> futures = new ArrayList<>(parts.size());
+            for (List<String> part : parts) {
+                Fork fork = new Fork(TestLauncher.RUN, part);
+                futures.add(executor.submit(() -> {
+                    fork.run();
+                    return null;
+                }));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                processes.forEach(ProcessUtil::kill);
+                throw e;
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                processes.forEach(ProcessUtil::kill);
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException)e.getCause();
+                }
+                throw new IOException(e.getCause().getLocalizedMessage(), e.getCause());
+            }
+        }
+
+        synchronized Set<String> getFailedClasses() {
+            return failures.stream()
+                           .map(Failure::getFailingClass)
+                           .filter(Objects::nonNull)
+                           .collect(Collectors.toSet());
+        }
+
+        synchronized TestResult getResult() {
+            TestResult result = newDto(TestResult.class);
+            result.setTestFramework(plan.getFramework());
+            result.setSuccess(failures.isEmpty() && !forkFailed);
+            result.setFailureCount(failures.size());
+            result.setFailures(new ArrayList<>(failures));
+            return result;
+        }
+
+        synchronized void report(String className, String methodName, Status status, long duration, Failure failure) {
+            if (status != Status.STARTED) {
+                testCases.increment();
+            }
+            if (failure != null) {
+                failures.add(failure);
+            }
+            TestCaseResult result = newDto(TestCaseResult.class);
+            result.setClassName(className);
+            result.setMethodName(methodName);
+            result.setStatus(status);
+            result.setDuration(duration);
+            result.setFailure(failure);
+            try {
+                listener.accept(result);
+            } catch (RuntimeException e) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+        }
+
+        /** Single forked JVM. */
+        private class Fork extends AbstractLineConsumer {
+            private final String        mode;
+            private final List<String>  tests;
+            private final List<String>  found;
+            private final Set<String>   running;
+            private final Set<String>   reported;
+            private final Deque<String> stderrTail;
+
+            Fork(String mode, List<String> tests) {
+                this.mode = mode;
+                this.tests = tests;
+                this.found = new ArrayList<>();
+                this.running = new LinkedHashSet<>();
+                this.reported = new LinkedHashSet<>();
+                this.stderrTail = new ArrayDeque<>(STDERR_TAIL_LINES);
+            }
+
+            void run() throws IOException, InterruptedException {
+                Path testsFile = Files.createTempFile("che-tests-", ".txt");
+                try {
+                    Files.write(testsFile, tests, StandardCharsets.UTF_8);
+                    List<String> forkCommand = new ArrayList<>(command);
+                    forkCommand.add(mode);
+                    forkCommand.add(testsFile.toString());
+                    ProcessBuilder builder = new ProcessBuilder(forkCommand);
+                    if (plan.getWorkingDirectory() != null) {
+                        builder.directory(plan.getWorkingDirectory().toFile());
+                    }
+                    // classpath may be too long for the command line
+                    builder.environment().put("CLASSPATH", classpath);
+                    Process process = builder.start();
+                    processes.add(process);
+                    forks.increment();
+                    LineConsumer stderr = new AbstractLineConsumer() {
+                        @Override
+                        public void writeLine(String line) {
+                            writeStderrLine(line);
+                        }
+                    };
+                    try {
+                        ProcessExecutor.Execution output = ProcessExecutor.execute(process,
+                                                                                   COMMAND,
+                                                                                   this,
+                                                                                   stderr,
+                                                                                   plan.getTimeoutMillis(),
+                                                                                   TimeUnit.MILLISECONDS);
+                        int exitCode = output.waitFor();
+                        if (exitCode != 0) {
+                            onAbnormalExit(output.isTimedOut() ? "Tests timed out after " + plan.getTimeoutMillis() + "ms"
+                                                               : "Forked JVM exited with code " + exitCode);
+                        }
+                    } finally {
+                        processes.remove(process);
+                        ProcessUtil.kill(process);
+                    }
+                } finally {
+                    Files.deleteIfExists(testsFile);
+                }
+            }
+
+            @Override
+            public void writeLine(String line) {
+                String[] event = TestEventProtocol.parse(line);
+                if (event == null) {
+                    LOG.debug("Unexpected output of the forked JVM: {}", line);
+                    return;
+                }
+                String type = event[0];
+                String className = event[1];
+                String methodName = event[2];
+                long duration = event[3] == null ? 0 : Long.parseLong(event[3]);
+                String test = className + '#' + methodName;
+                if (!TestEventProtocol.FOUND.equals(type)) {
+                    reported.add(className);
+                    reported.add(test);
+                }
+                switch (type) {
+                    case TestEventProtocol.FOUND:
+                        found.add(test);
+                        break;
+                    case TestEventProtocol.STARTED:
+                        running.add(test);
+                        report(className, methodName, Status.STARTED, 0, null);
+                        break;
+                    case TestEventProtocol.PASSED:
+                        running.remove(test);
+                        report(className, methodName, Status.PASSED, duration, null);
+                        break;
+                    case TestEventProtocol.SKIPPED:
+                        running.remove(test);
+                        report(className, methodName, Status.SKIPPED, duration, null);
+                        break;
+                    case TestEventProtocol.FAILED:
+                        running.remove(test);
+                        report(className, methodName, Status.FAILED, duration, failure(className, methodName, event[4], event[5]));
+                        break;
+                    default:
+                        LOG.debug("Unknown event of the forked JVM: {}", line);
+                }
+            }
+
+            private void writeStderrLine(String line) {
+                LOG.debug("Forked JVM: {}", line);
+                if (stderrTail.size() == STDERR_TAIL_LINES) {
+                    stderrTail.removeFirst();
+                }
+                stderrTail.addLast(line);
+            }
+
+            /** Fails the tests interrupted by the end of JVM and the classes which haven't been reported at all. */
+            private void onAbnormalExit(String reason) {
+                failedForks.increment();
+                synchronized (Execution.this) {
+                    forkFailed = true;
+                }
+                String message = stderrTail.isEmpty() ? reason : reason + ":\n" + String.join("\n", stderrTail);
+                for (String test : running) {
+                    int separator = test.indexOf('#');
+                    String className = test.substring(0, separator);
+                    String methodName = test.substring(separator + 1);
+                    report(className, methodName, Status.FAILED, 0, failure(className, methodName, message, null));
+                }
+                running.clear();
+                if (TestLauncher.LIST.equals(mode)) {
+                    LOG.warn("Listing of the tests failed. {}", message);
+                    return;
+                }
+                List<String> notRun = new ArrayList<>();
+                for (String test : tests) {
+                    int separator = test.indexOf('#');
+                    if (separator != -1) {
+                        String className = test.substring(0, separator);
+                        String methodName = test.substring(separator + 1);
+                        if (!reported.contains(test)) {
+                            report(className, methodName, Status.FAILED, 0, failure(className, methodName, message, null));
+                        }
+                    } else if (!reported.contains(test)) {
+                        // classes which are not tests are never reported, so they can't be told apart from the tests
+                        notRun.add(test);
+                    }
+                }
+                if (!notRun.isEmpty()) {
+                    Failure failure = failure(null, null, message + "\nClasses which tests were not run: " + notRun, null);
+                    synchronized (Execution.this) {
+                        failures.add(failure);
+                    }
+                }
+            }
+
+            private Failure failure(String className, String methodName, String message, String trace) {
+                Failure failure = newDto(Failure.class);
+                failure.setFailingClass(className);
+                failure.setFailingMethod(methodName == null ? "" : methodName);
+                failure.setFailingLine(findFailingLine(trace, className, methodName));
+                failure.setMessage(message);
+                failure.setTrace(trace);
+                return failure;
+            }
+        }
+    }
+}
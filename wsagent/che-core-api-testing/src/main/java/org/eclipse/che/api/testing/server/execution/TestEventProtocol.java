@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.execution;
+
+import java.io.PrintStream;
+
+/**
+ * Line based protocol of the events which forked test JVM writes into its stdout.
+ *
+ * <p>Each event is a single line which starts with {@link #PREFIX} followed by tab separated fields:
+ * type of the event, class name, method name, duration in milliseconds, message and stack trace.
+ * Tabs, line separators and backslashes in the fields are escaped, so output of the tests themselves
+ * can't break the event. Lines without prefix are not events.
+ *
+ * <p>This class is loaded by the forked JVM, so it must not depend on anything but JDK.
+ */
+public final class TestEventProtocol {
+    public static final String PREFIX = "@@che-test@@";
+
+    /** Test method is found, sent in response to the list command. */
+    public static final String FOUND   = "found";
+    public static final String STARTED = "started";
+    public static final String PASSED  = "passed";
+    public static final String FAILED  = "failed";
+    public static final String SKIPPED = "skipped";
+
+    private static final int FIELDS = 6;
+
+    /** Writes an event into the stream and flushes it, so event reaches the agent immediately. */
+    public static void write(PrintStream out,
+                             String type,
+                             String className,
+                             String methodName,
+                             long duration,
+                             String message,
+                             String trace) {
+        StringBuilder sb = new StringBuilder(PREFIX);
+        sb.append(type).append('\t');
+        escape(sb, className);
+        sb.append('\t');
+        escape(sb, methodName);
+        sb.append('\t').append(duration).append('\t');
+        escape(sb, message);
+        sb.append('\t');
+        escape(sb, trace);
+        synchronized (out) {
+            out.println(sb);
+            out.flush();
+        }
+    }
+
+    /**
+     * Parses event line.
+     *
+     * @return fields of the event: type, class name, method name, duration, message and trace
+     * or null if the line is not an event, empty fields are null
+     */
+    public static String[] parse(String line) {
+        if (line == null || !line.startsWith(PREFIX)) {
+            return null;
+        }
+        String[] fields = new String[FIELDS];
+        StringBuilder sb = new StringBuilder();
+        int field = 0;
+        for (int i = PREFIX.length(); i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                if (field == FIELDS - 1) {
+                    return null;
+                }
+                fields[field++] = sb.length() == 0 ? null : sb.toString();
+                sb.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                sb.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                sb.append(c);
+            }
+        }
+        if (field != FIELDS - 1) {
+            return null;
+        }
+        fields[field] = sb.length() == 0 ? null : sb.toString();
+        return fields[0] == null ? null : fields;
+    }
+
+    private static void escape(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+
+    private TestEventProtocol() {
+    }
+}
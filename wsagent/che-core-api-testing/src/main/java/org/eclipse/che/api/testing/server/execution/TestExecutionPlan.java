@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.execution;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes how {@link ForkedTestExecutor} should run tests of a project.
+ */
+public class TestExecutionPlan {
+
+    /** Defines units of the tests which are distributed among forked JVMs. */
+    public enum Parallelism {
+        /** Test classes are distributed among forks, methods of a class are run by the same JVM. */
+        CLASSES,
+        /** Test methods are distributed among forks. */
+        METHODS
+    }
+
+    private final String                        framework;
+    private final Class<? extends TestLauncher> launcher;
+
+    private List<String> classpath         = Collections.emptyList();
+    private List<String> jvmOptions        = Collections.emptyList();
+    private List<Path>   outputDirectories = Collections.emptyList();
+    private Parallelism  parallelism       = Parallelism.CLASSES;
+    private int          forks             = Integer.MAX_VALUE;
+    private List<String> testClasses;
+    private Path         testClassesDirectory;
+    private Path         workingDirectory;
+    private boolean      affectedOnly;
+    private long         timeoutMillis;
+
+    /**
+     * @param framework
+     *         name of the test framework reported in the test result
+     * @param launcher
+     *         main class of the forked JVMs
+     */
+    public TestExecutionPlan(String framework, Class<? extends TestLauncher> launcher) {
+        this.framework = framework;
+        this.launcher = launcher;
+    }
+
+    public String getFramework() {
+        return framework;
+    }
+
+    public Class<? extends TestLauncher> getLauncher() {
+        return launcher;
+    }
+
+    /** Returns classpath of the tests, launcher classes are added by the executor. */
+    public List<String> getClasspath() {
+        return classpath;
+    }
+
+    public TestExecutionPlan withClasspath(List<String> classpath) {
+        this.classpath = new ArrayList<>(classpath);
+        return this;
+    }
+
+    public List<String> getJvmOptions() {
+        return jvmOptions;
+    }
+
+    public TestExecutionPlan withJvmOptions(List<String> jvmOptions) {
+        this.jvmOptions = new ArrayList<>(jvmOptions);
+        return this;
+    }
+
+    /** Returns names of the classes to run or null if all the classes of the test classes directory should be run. */
+    public List<String> getTestClasses() {
+        return testClasses;
+    }
+
+    public TestExecutionPlan withTestClasses(List<String> testClasses) {
+        this.testClasses = testClasses == null ? null : new ArrayList<>(testClasses);
+        return this;
+    }
+
+    /** Returns directories with compiled classes of the project, they are checked for changes when only affected tests run. */
+    public List<Path> getOutputDirectories() {
+        return outputDirectories;
+    }
+
+    public TestExecutionPlan withOutputDirectories(List<Path> outputDirectories) {
+        this.outputDirectories = new ArrayList<>(outputDirectories);
+        return this;
+    }
+
+    public Path getTestClassesDirectory() {
+        return testClassesDirectory;
+    }
+
+    public TestExecutionPlan withTestClassesDirectory(Path testClassesDirectory) {
+        this.testClassesDirectory = testClassesDirectory;
+        return this;
+    }
+
+    public Path getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    public TestExecutionPlan withWorkingDirectory(Path workingDirectory) {
+        this.workingDirectory = workingDirectory;
+        return this;
+    }
+
+    public Parallelism getParallelism() {
+        return parallelism;
+    }
+
+    public TestExecutionPlan withParallelism(Parallelism parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Returns maximum number of JVMs which run tests of this plan simultaneously,
+     * by default it is limited by {@link ForkedTestExecutor#getMaxForks()} only.
+     */
+    public int getForks() {
+        return forks;
+    }
+
+    public TestExecutionPlan withForks(int forks) {
+        this.forks = Math.max(1, forks);
+        return this;
+    }
+
+    /** Returns true if only tests affected by classes changed since the previous run should be run. */
+    public boolean isAffectedOnly() {
+        return affectedOnly;
+    }
+
+    public TestExecutionPlan withAffectedOnly(boolean affectedOnly) {
+        this.affectedOnly = affectedOnly;
+        return this;
+    }
+
+    /** Returns timeout of a single forked JVM, zero means no timeout. */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public TestExecutionPlan withTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        return this;
+    }
+
+    /**
+     * Applies parameters of the test runner service.
+     *
+     * <pre>
+     * <em>parallel</em> : Either {@code classes} or {@code methods}, see {@link Parallelism}.
+     * <em>forks</em> : Maximum number of JVMs which run tests simultaneously.
+     * <em>affectedOnly</em> : A boolean indicating whether only tests affected by changes since the previous run should be run.
+     * <em>timeout</em> : Timeout of a single JVM in seconds.
+     * <em>jvmOptions</em> : Space separated options of the JVMs.
+     * </pre>
+     */
+    public TestExecutionPlan withParameters(Map<String, String> parameters) {
+        String parallel = parameters.get("parallel");
+        if (parallel != null && !parallel.isEmpty()) {
+            withParallelism(Parallelism.valueOf(parallel.toUpperCase(Locale.ENGLISH)));
+        }
+        String forks = parameters.get("forks");
+        if (forks != null && !forks.isEmpty()) {
+            withForks(Integer.parseInt(forks));
+        }
+        withAffectedOnly(Boolean.parseBoolean(parameters.get("affectedOnly")));
+        String timeout = parameters.get("timeout");
+        if (timeout != null && !timeout.isEmpty()) {
+            withTimeoutMillis(TimeUnit.SECONDS.toMillis(Long.parseLong(timeout)));
+        }
+        String jvmOptions = parameters.get("jvmOptions");
+        if (jvmOptions != null && !jvmOptions.trim().isEmpty()) {
+            withJvmOptions(Arrays.asList(jvmOptions.trim().split("\\s+")));
+        }
+        return this;
+    }
+}
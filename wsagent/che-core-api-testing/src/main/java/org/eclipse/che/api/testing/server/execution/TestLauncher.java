@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.execution;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class of the main classes of forked test JVMs.
+ *
+ * <p>Launcher is started with two arguments: the command, {@link #LIST} or {@link #RUN}, and path to the file
+ * with tests, one per line, either a class name or a class name and a method name separated by {@code #}.
+ * Results are written into stdout using {@link TestEventProtocol}, output of the tests is redirected to stderr.
+ *
+ * <p>This class is loaded by the forked JVM, so it must not depend on anything but JDK.
+ */
+public abstract class TestLauncher {
+    /** Command which lists test methods of the classes without running them. */
+    public static final String LIST = "list";
+    /** Command which runs the tests. */
+    public static final String RUN  = "run";
+
+    /** Exit code of the launcher when it can't run tests at all. */
+    public static final int LAUNCH_ERROR = 3;
+
+    private PrintStream events;
+
+    /**
+     * Lists test methods of the given classes with {@link #found(String, String)}, classes which are not tests are skipped.
+     */
+    protected abstract void list(Set<String> classNames) throws Exception;
+
+    /**
+     * Runs the tests.
+     *
+     * @param tests
+     *         test methods to run mapped by their classes, empty set means all the methods of the class
+     */
+    protected abstract void run(Map<String, Set<String>> tests) throws Exception;
+
+    /** Parses arguments, executes the command and terminates JVM. */
+    protected void launch(String[] args) {
+        int exitCode = 0;
+        try {
+            events = new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8.name());
+            // tests output must not be mixed with events
+            System.setOut(System.err);
+            if (args.length != 2) {
+                throw new IllegalArgumentException("Usage: " + getClass().getName() + " list|run <tests file>");
+            }
+            Map<String, Set<String>> tests = readTests(args[1]);
+            if (LIST.equals(args[0])) {
+                list(tests.keySet());
+            } else if (RUN.equals(args[0])) {
+                run(tests);
+            } else {
+                throw new IllegalArgumentException("Unknown command " + args[0]);
+            }
+        } catch (Throwable e) {
+            e.printStackTrace();
+            exitCode = LAUNCH_ERROR;
+        } finally {
+            if (events != null) {
+                events.flush();
+            }
+        }
+        // threads left by tests must not keep JVM alive
+        System.exit(exitCode);
+    }
+
+    protected void found(String className, String methodName) {
+        TestEventProtocol.write(events, TestEventProtocol.FOUND, className, methodName, 0, null, null);
+    }
+
+    protected void started(String className, String methodName) {
+        TestEventProtocol.write(events, TestEventProtocol.STARTED, className, methodName, 0, null, null);
+    }
+
+    protected void passed(String className, String methodName, long duration) {
+        TestEventProtocol.write(events, TestEventProtocol.PASSED, className, methodName, duration, null, null);
+    }
+
+    protected void skipped(String className, String methodName, String reason) {
+        TestEventProtocol.write(events, TestEventProtocol.SKIPPED, className, methodName, 0, reason, null);
+    }
+
+    protected void failed(String className, String methodName, long duration, Throwable error) {
+        String message = error == null ? null : error.getMessage() != null ? error.getMessage() : error.toString();
+        String trace = null;
+        if (error != null) {
+            StringWriter sw = new StringWriter();
+            error.printStackTrace(new PrintWriter(sw));
+            trace = sw.toString();
+        }
+        TestEventProtocol.write(events, TestEventProtocol.FAILED, className, methodName, duration, message, trace);
+    }
+
+    private static Map<String, Set<String>> readTests(String path) throws IOException {
+        Map<String, Set<String>> tests = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int separator = line.indexOf('#');
+            if (separator == -1) {
+                tests.computeIfAbsent(line, name -> new LinkedHashSet<>());
+            } else {
+                tests.computeIfAbsent(line.substring(0, separator), name -> new LinkedHashSet<>())
+                     .add(line.substring(separator + 1));
+            }
+        }
+        return tests;
+    }
+}
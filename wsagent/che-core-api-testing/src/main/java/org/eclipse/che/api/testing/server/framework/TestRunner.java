@@ -11,7 +11,9 @@
 package org.eclipse.che.api.testing.server.framework;
 
 import java.util.Map;
+import java.util.function.Consumer;
 
+import org.eclipse.che.api.testing.shared.TestCaseResult;
 import org.eclipse.che.api.testing.shared.TestResult;
 
 /**
@@ -38,6 +40,24 @@ public interface TestRunner {
      */
     TestResult execute(Map<String, String> testParameters) throws Exception;
 
+    /**
+     * Executes the test cases and notifies the listener about the state of each
+     * test case as soon as it changes. Frameworks which are not able to report
+     * separate test cases return the whole result only.
+     *
+     * @param testParameters
+     *            Map of parameters for executing the test cases.
+     * @param listener
+     *            consumer of the test case results, may be called from
+     *            different threads but never concurrently.
+     * @return the test results.
+     * @throws Exception
+     *             when test runner execution fails.
+     */
+    default TestResult execute(Map<String, String> testParameters, Consumer<TestCaseResult> listener) throws Exception {
+        return execute(testParameters);
+    }
+
     /**
      * The test runner framework will call this method to get the framework name
      * for registration.
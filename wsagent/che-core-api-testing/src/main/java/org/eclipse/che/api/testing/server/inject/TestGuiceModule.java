@@ -12,6 +12,7 @@ package org.eclipse.che.api.testing.server.inject;
 
 import static com.google.inject.multibindings.Multibinder.newSetBinder;
 
+import org.eclipse.che.api.testing.server.TestExecutionService;
 import org.eclipse.che.api.testing.server.TestingService;
 import org.eclipse.che.api.testing.server.framework.TestRunner;
 import org.eclipse.che.inject.DynaModule;
@@ -27,5 +28,6 @@ public class TestGuiceModule extends AbstractModule {
     protected void configure() {
         newSetBinder(binder(), TestRunner.class);
         bind(TestingService.class);
+        bind(TestExecutionService.class).asEagerSingleton();
     }
 }
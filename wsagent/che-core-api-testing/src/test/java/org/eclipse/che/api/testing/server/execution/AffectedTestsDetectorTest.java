@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.execution;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link AffectedTestsDetector}.
+ */
+public class AffectedTestsDetectorTest {
+    private static final String DEPENDENT_TEST   = DependentTest.class.getName();
+    private static final String INDEPENDENT_TEST = IndependentTest.class.getName();
+
+    private Path                  classes;
+    private List<String>          tests;
+    private AffectedTestsDetector detector;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        classes = Files.createTempDirectory("classes");
+        copyClass(DependentTest.class);
+        copyClass(IndependentTest.class);
+        copyClass(Dependency.class);
+        tests = Arrays.asList(DEPENDENT_TEST, INDEPENDENT_TEST);
+        detector = new AffectedTestsDetector();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(classes)) {
+            files.sorted(Collections.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void shouldSelectAllTestsOnFirstRun() throws Exception {
+        assertEquals(detector.select(classes, Collections.singletonList(classes), tests).getTests(), tests);
+    }
+
+    @Test
+    public void shouldSelectNothingWhenClassesAreNotChanged() throws Exception {
+        detector.commit(detector.select(classes, Collections.singletonList(classes), tests), Collections.emptyList());
+
+        // recompilation without changes
+        Files.setLastModifiedTime(classFile(Dependency.class), FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        assertTrue(detector.select(classes, Collections.singletonList(classes), tests).getTests().isEmpty());
+    }
+
+    @Test
+    public void shouldSelectTestsWhichDependOnChangedClass() throws Exception {
+        detector.commit(detector.select(classes, Collections.singletonList(classes), tests), Collections.emptyList());
+
+        Files.write(classFile(Dependency.class), new byte[] {0}, StandardOpenOption.APPEND);
+
+        assertEquals(detector.select(classes, Collections.singletonList(classes), tests).getTests(),
+                     Collections.singletonList(DEPENDENT_TEST));
+    }
+
+    @Test
+    public void shouldSelectTestsWhichDependOnRemovedClass() throws Exception {
+        detector.commit(detector.select(classes, Collections.singletonList(classes), tests), Collections.emptyList());
+
+        Files.delete(classFile(Dependency.class));
+
+        assertEquals(detector.select(classes, Collections.singletonList(classes), tests).getTests(),
+                     Collections.singletonList(DEPENDENT_TEST));
+    }
+
+    @Test
+    public void shouldSelectTestsFailedPreviously() throws Exception {
+        detector.commit(detector.select(classes, Collections.singletonList(classes), tests),
+                        Collections.singletonList(INDEPENDENT_TEST));
+
+        AffectedTestsDetector.Selection selection = detector.select(classes, Collections.singletonList(classes), tests);
+        assertEquals(selection.getTests(), Collections.singletonList(INDEPENDENT_TEST));
+
+        detector.commit(selection, Collections.emptyList());
+        assertTrue(detector.select(classes, Collections.singletonList(classes), tests).getTests().isEmpty());
+    }
+
+    @Test
+    public void shouldReadDependenciesFromConstantPool() throws Exception {
+        assertTrue(AffectedTestsDetector.readDependencies(Files.readAllBytes(classFile(DependentTest.class)))
+                                        .contains(internalName(Dependency.class)));
+    }
+
+    private void copyClass(Class<?> aClass) throws IOException {
+        Path target = classFile(aClass);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = aClass.getResourceAsStream(fileName(aClass))) {
+            Files.write(target, toByteArray(in));
+        }
+    }
+
+    private Path classFile(Class<?> aClass) {
+        return classes.resolve(internalName(aClass) + ".class");
+    }
+
+    private static String fileName(Class<?> aClass) {
+        String name = aClass.getName();
+        return name.substring(name.lastIndexOf('.') + 1) + ".class";
+    }
+
+    private static String internalName(Class<?> aClass) {
+        return aClass.getName().replace('.', '/');
+    }
+
+    static class Dependency {
+    }
+
+    static class DependentTest {
+        Dependency dependency;
+    }
+
+    static class IndependentTest {
+    }
+}
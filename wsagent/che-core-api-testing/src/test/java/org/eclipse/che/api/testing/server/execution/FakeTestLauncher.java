@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.execution;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Launcher used by {@link ForkedTestExecutorTest}. Each class has test methods {@code first} and {@code second},
+ * method {@code second} of the classes which names contain {@code Failing} fails, classes which names
+ * contain {@code Crashing} terminate JVM while {@code first} method runs.
+ */
+public class FakeTestLauncher extends TestLauncher {
+    static final String FAILURE_MESSAGE = "expected:\t<1>\nbut was:\t<2>";
+
+    public static void main(String[] args) {
+        new FakeTestLauncher().launch(args);
+    }
+
+    @Override
+    protected void list(Set<String> classNames) {
+        for (String className : classNames) {
+            found(className, "first");
+            found(className, "second");
+        }
+    }
+
+    @Override
+    protected void run(Map<String, Set<String>> tests) {
+        for (Map.Entry<String, Set<String>> entry : tests.entrySet()) {
+            String className = entry.getKey();
+            Iterable<String> methods = entry.getValue().isEmpty() ? Arrays.asList("first", "second") : entry.getValue();
+            for (String method : methods) {
+                started(className, method);
+                // output of the tests must not be taken for events
+                System.out.println("running " + className + '#' + method);
+                if (className.contains("Crashing")) {
+                    Runtime.getRuntime().halt(1);
+                }
+                if (className.contains("Failing") && method.equals("second")) {
+                    failed(className, method, 1, new AssertionError(FAILURE_MESSAGE));
+                } else {
+                    passed(className, method, 1);
+                }
+            }
+        }
+    }
+}
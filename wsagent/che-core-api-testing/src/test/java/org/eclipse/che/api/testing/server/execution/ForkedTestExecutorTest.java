@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.testing.server.execution;
+
+import org.eclipse.che.api.testing.shared.Failure;
+import org.eclipse.che.api.testing.shared.TestCaseResult;
+import org.eclipse.che.api.testing.shared.TestCaseResult.Status;
+import org.eclipse.che.api.testing.shared.TestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link ForkedTestExecutor}.
+ */
+public class ForkedTestExecutorTest {
+    private ForkedTestExecutor   executor;
+    private List<TestCaseResult> results;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = new ForkedTestExecutor(2);
+        results = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.stop();
+    }
+
+    @Test(timeOut = 60_000)
+    public void shouldStreamResultOfEachTestCase() throws Exception {
+        TestResult result = executor.execute(plan().withTestClasses(Arrays.asList("org.acme.PassingTest", "org.acme.FailingTest")),
+                                             results::add);
+
+        assertEquals(statuses("org.acme.PassingTest"), Arrays.asList("first STARTED", "first PASSED",
+                                                                     "second STARTED", "second PASSED"));
+        assertEquals(statuses("org.acme.FailingTest"), Arrays.asList("first STARTED", "first PASSED",
+                                                                     "second STARTED", "second FAILED"));
+        assertFalse(result.isSuccess());
+        assertEquals(result.getTestFramework(), "Fake");
+        assertEquals(result.getFailureCount(), 1);
+        Failure failure = result.getFailures().get(0);
+        assertEquals(failure.getFailingClass(), "org.acme.FailingTest");
+        assertEquals(failure.getFailingMethod(), "second");
+        assertEquals(failure.getMessage(), FakeTestLauncher.FAILURE_MESSAGE);
+        assertTrue(failure.getTrace().startsWith("java.lang.AssertionError: " + FakeTestLauncher.FAILURE_MESSAGE));
+        assertEquals((long)executor.getStatistics().get("forks"), 2);
+        assertEquals((long)executor.getStatistics().get("test_cases"), 4);
+    }
+
+    @Test(timeOut = 60_000)
+    public void shouldDistributeTestMethodsAmongForks() throws Exception {
+        TestResult result = executor.execute(plan().withParallelism(TestExecutionPlan.Parallelism.METHODS)
+                                                   .withTestClasses(Collections.singletonList("org.acme.PassingTest")),
+                                             results::add);
+
+        assertTrue(result.isSuccess());
+        assertEquals(results.stream().filter(r -> r.getStatus() == Status.PASSED).count(), 2);
+        // one JVM lists methods and one JVM per method runs them
+        assertEquals((long)executor.getStatistics().get("forks"), 3);
+    }
+
+    @Test(timeOut = 60_000)
+    public void shouldFailTestsInterruptedByEndOfForkedJvm() throws Exception {
+        TestResult result = executor.execute(plan().withForks(1)
+                                                   .withTestClasses(Arrays.asList("org.acme.CrashingTest", "org.acme.PassingTest")),
+                                             results::add);
+
+        assertFalse(result.isSuccess());
+        assertEquals(statuses("org.acme.CrashingTest"), Arrays.asList("first STARTED", "first FAILED"));
+        assertTrue(result.getFailures().get(0).getMessage().startsWith("Forked JVM exited with code 1"));
+        // tests of the class which hasn't been started are reported without method
+        assertNull(result.getFailures().get(1).getFailingClass());
+        assertTrue(result.getFailures().get(1).getMessage().contains("org.acme.PassingTest"));
+        assertEquals((long)executor.getStatistics().get("failed_forks"), 1);
+    }
+
+    @Test
+    public void shouldFindFailingLineInTrace() {
+        String trace = "java.lang.AssertionError: expected\n" +
+                       "\tat org.testng.Assert.fail(Assert.java:94)\n" +
+                       "\tat org.acme.FailingTest.second(FailingTest.java:42)\n" +
+                       "\tat sun.reflect.NativeMethodAccessorImpl.invoke0(Native Method)\n";
+
+        assertEquals(ForkedTestExecutor.findFailingLine(trace, "org.acme.FailingTest", "second"), Integer.valueOf(42));
+        assertEquals(ForkedTestExecutor.findFailingLine(trace, "org.acme.FailingTest", null), Integer.valueOf(42));
+        assertNull(ForkedTestExecutor.findFailingLine(trace, "org.acme.FailingTest", "first"));
+    }
+
+    private TestExecutionPlan plan() {
+        return new TestExecutionPlan("Fake", FakeTestLauncher.class).withClasspath(Collections.emptyList());
+    }
+
+    private List<String> statuses(String className) {
+        return results.stream()
+                      .filter(result -> result.getClassName().equals(className))
+                      .map(result -> result.getMethodName() + ' ' + result.getStatus())
+                      .collect(Collectors.toList());
+    }
+}
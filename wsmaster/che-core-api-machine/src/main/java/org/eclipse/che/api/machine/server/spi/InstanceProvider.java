@@ -20,6 +20,7 @@ import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.exception.SnapshotException;
 import org.eclipse.che.api.machine.server.exception.SourceNotFoundException;
 import org.eclipse.che.api.machine.server.exception.UnsupportedRecipeException;
+import org.eclipse.che.api.machine.server.model.impl.SnapshotImpl;
 
 import java.util.Set;
 
@@ -79,4 +80,17 @@ public interface InstanceProvider {
      *         if exception occurs on instance snapshot removal
      */
     void removeInstanceSnapshot(MachineSource machineSource) throws SnapshotException;
+
+    /**
+     * Removes snapshot of the instance in implementation specific way.
+     * Unlike {@link #removeInstanceSnapshot(MachineSource)} tells which machine the snapshot belongs to.
+     *
+     * @param snapshot
+     *         snapshot that should be removed
+     * @throws SnapshotException
+     *         if exception occurs on instance snapshot removal
+     */
+    default void removeInstanceSnapshot(SnapshotImpl snapshot) throws SnapshotException {
+        removeInstanceSnapshot(snapshot.getMachineSource());
+    }
 }
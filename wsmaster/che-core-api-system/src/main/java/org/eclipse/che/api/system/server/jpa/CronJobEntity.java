@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.system.server.jpa;
+
+import org.eclipse.che.commons.schedule.executor.CronJobState;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+/**
+ * Persistent state of the cron job, see {@link JpaCronJobStore}.
+ */
+@Entity(name = "CronJob")
+@NamedQueries(
+        {
+                @NamedQuery(name = "CronJob.reschedule",
+                            query = "UPDATE CronJob job " +
+                                    "SET job.cron = :cron, " +
+                                    "    job.nextFireTime = :nextFireTime, " +
+                                    "    job.leaseOwner = NULL, " +
+                                    "    job.leaseExpiration = NULL " +
+                                    "WHERE job.id = :id " +
+                                    "  AND job.nextFireTime = :expectedFireTime " +
+                                    "  AND (job.leaseOwner IS NULL OR job.leaseExpiration < :now)"),
+                @NamedQuery(name = "CronJob.acquire",
+                            query = "UPDATE CronJob job " +
+                                    "SET job.leaseOwner = :owner, " +
+                                    "    job.leaseExpiration = :leaseExpiration " +
+                                    "WHERE job.id = :id " +
+                                    "  AND job.nextFireTime = :fireTime " +
+                                    "  AND (job.leaseOwner IS NULL OR job.leaseOwner = :owner OR job.leaseExpiration < :now)"),
+                @NamedQuery(name = "CronJob.renew",
+                            query = "UPDATE CronJob job " +
+                                    "SET job.leaseExpiration = :leaseExpiration " +
+                                    "WHERE job.id = :id " +
+                                    "  AND job.leaseOwner = :owner"),
+                @NamedQuery(name = "CronJob.release",
+                            query = "UPDATE CronJob job " +
+                                    "SET job.nextFireTime = :nextFireTime, " +
+                                    "    job.lastStartTime = :startTime, " +
+                                    "    job.lastEndTime = :endTime, " +
+                                    "    job.leaseOwner = NULL, " +
+                                    "    job.leaseExpiration = NULL " +
+                                    "WHERE job.id = :id " +
+                                    "  AND job.leaseOwner = :owner")
+        }
+)
+@Table(name = "cron_job")
+public class CronJobEntity {
+    @Id
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "cron", nullable = false)
+    private String cron;
+
+    @Column(name = "next_fire_time", nullable = false)
+    private long nextFireTime;
+
+    @Column(name = "last_start_time")
+    private Long lastStartTime;
+
+    @Column(name = "last_end_time")
+    private Long lastEndTime;
+
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    @Column(name = "lease_expiration")
+    private Long leaseExpiration;
+
+    public CronJobEntity() {
+    }
+
+    public CronJobEntity(String id, String cron, long nextFireTime) {
+        this.id = id;
+        this.cron = cron;
+        this.nextFireTime = nextFireTime;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public long getNextFireTime() {
+        return nextFireTime;
+    }
+
+    public Long getLastStartTime() {
+        return lastStartTime;
+    }
+
+    public Long getLastEndTime() {
+        return lastEndTime;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public Long getLeaseExpiration() {
+        return leaseExpiration;
+    }
+
+    public CronJobState asState() {
+        return new CronJobState(id, cron, nextFireTime, lastStartTime, lastEndTime, leaseOwner, leaseExpiration);
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.system.server.jpa;
+
+import com.google.inject.persist.Transactional;
+
+import org.eclipse.che.commons.schedule.executor.CronJobState;
+import org.eclipse.che.commons.schedule.executor.CronJobStore;
+import org.eclipse.che.core.db.jpa.DuplicateKeyException;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.EntityManager;
+import java.util.Collections;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * JPA based implementation of {@link CronJobStore}, makes states of the cron jobs survive restarts and shares them
+ * between the nodes which use the same database. Lease of the job is taken with a conditional update, so only one
+ * node wins it even when all of them fire the job at the same time.
+ */
+@Singleton
+public class JpaCronJobStore implements CronJobStore {
+    private static final String RETRIEVE_MODE = "javax.persistence.cache.retrieveMode";
+
+    @Inject
+    private Provider<EntityManager> managerProvider;
+
+    @Override
+    @Transactional
+    public CronJobState get(String jobId) {
+        requireNonNull(jobId, "Required non-null job id");
+        final CronJobEntity entity = find(jobId);
+        return entity == null ? null : entity.asState();
+    }
+
+    @Override
+    public CronJobState create(String jobId, String cron, long nextFireTime) {
+        requireNonNull(jobId, "Required non-null job id");
+        requireNonNull(cron, "Required non-null cron expression");
+        try {
+            return doCreate(new CronJobEntity(jobId, cron, nextFireTime)).asState();
+        } catch (DuplicateKeyException e) {
+            // another node has created the job concurrently
+            return get(jobId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean reschedule(String jobId, long expectedFireTime, String cron, long nextFireTime, long now) {
+        return managerProvider.get()
+                              .createNamedQuery("CronJob.reschedule")
+                              .setParameter("id", jobId)
+                              .setParameter("expectedFireTime", expectedFireTime)
+                              .setParameter("cron", cron)
+                              .setParameter("nextFireTime", nextFireTime)
+                              .setParameter("now", now)
+                              .executeUpdate() == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean acquire(String jobId, long fireTime, String owner, long now, long leaseExpiration) {
+        return managerProvider.get()
+                              .createNamedQuery("CronJob.acquire")
+                              .setParameter("id", jobId)
+                              .setParameter("fireTime", fireTime)
+                              .setParameter("owner", owner)
+                              .setParameter("now", now)
+                              .setParameter("leaseExpiration", leaseExpiration)
+                              .executeUpdate() == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean renew(String jobId, String owner, long leaseExpiration) {
+        return managerProvider.get()
+                              .createNamedQuery("CronJob.renew")
+                              .setParameter("id", jobId)
+                              .setParameter("owner", owner)
+                              .setParameter("leaseExpiration", leaseExpiration)
+                              .executeUpdate() == 1;
+    }
+
+    @Override
+    @Transactional
+    public boolean release(String jobId, String owner, long startTime, long endTime, long nextFireTime) {
+        return managerProvider.get()
+                              .createNamedQuery("CronJob.release")
+                              .setParameter("id", jobId)
+                              .setParameter("owner", owner)
+                              .setParameter("startTime", startTime)
+                              .setParameter("endTime", endTime)
+                              .setParameter("nextFireTime", nextFireTime)
+                              .executeUpdate() == 1;
+    }
+
+    @Transactional
+    protected CronJobEntity doCreate(CronJobEntity entity) {
+        final EntityManager manager = managerProvider.get();
+        manager.persist(entity);
+        manager.flush();
+        return entity;
+    }
+
+    /** Reads the job from the database, states cached by the persistence context may be changed by other nodes. */
+    private CronJobEntity find(String jobId) {
+        return managerProvider.get().find(CronJobEntity.class,
+                                          jobId,
+                                          Collections.singletonMap(RETRIEVE_MODE, CacheRetrieveMode.BYPASS));
+    }
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.system.server.jpa;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.persist.jpa.JpaPersistModule;
+
+import org.eclipse.che.commons.test.db.H2TestHelper;
+import org.eclipse.che.core.db.DBInitializer;
+import org.eclipse.che.core.db.schema.SchemaInitializer;
+import org.eclipse.che.core.db.schema.impl.flyway.FlywaySchemaInitializer;
+
+/**
+ * Binds {@link JpaCronJobStore} to the in memory H2 database initialized with che schema.
+ */
+public class CronJobJpaTestModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        install(new JpaPersistModule("main"));
+        bind(DBInitializer.class).asEagerSingleton();
+        bind(SchemaInitializer.class).toInstance(new FlywaySchemaInitializer(H2TestHelper.inMemoryDefault(), "che-schema"));
+    }
+}
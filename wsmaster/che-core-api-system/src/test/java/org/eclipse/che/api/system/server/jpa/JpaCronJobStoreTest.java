@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2017 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.system.server.jpa;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import org.eclipse.che.commons.schedule.executor.CronJobState;
+import org.eclipse.che.commons.test.db.H2JpaCleaner;
+import org.eclipse.che.commons.test.tck.JpaCleaner;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests conditional updates of {@link JpaCronJobStore} against the real schema.
+ */
+public class JpaCronJobStoreTest {
+    private static final String JOB_ID     = "job";
+    private static final String CRON       = "0 0 * * * ?";
+    private static final long   FIRE_TIME  = 1000L;
+    private static final long   EXPIRATION = 2000L;
+
+    private EntityManager   manager;
+    private JpaCronJobStore store;
+    private JpaCleaner      cleaner;
+
+    @BeforeMethod
+    private void setUp() {
+        final Injector injector = Guice.createInjector(new CronJobJpaTestModule());
+        manager = injector.getInstance(EntityManager.class);
+        store = injector.getInstance(JpaCronJobStore.class);
+        cleaner = injector.getInstance(H2JpaCleaner.class);
+        store.create(JOB_ID, CRON, FIRE_TIME);
+    }
+
+    @AfterMethod
+    private void cleanup() {
+        manager.getTransaction().begin();
+        for (Object entity : manager.createQuery("SELECT job FROM CronJob job").getResultList()) {
+            manager.remove(entity);
+        }
+        manager.getTransaction().commit();
+        cleaner.clean();
+    }
+
+    @Test
+    public void shouldReturnExistingJobWhenItIsCreatedConcurrently() {
+        final CronJobState state = store.create(JOB_ID, "0 30 * * * ?", FIRE_TIME + 1);
+
+        assertEquals(state.getCron(), CRON);
+        assertEquals(state.getNextFireTime(), FIRE_TIME);
+    }
+
+    @Test
+    public void shouldGiveLeaseToOnlyOneOwnerOfTheSameFireTime() {
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node1", FIRE_TIME, EXPIRATION));
+        assertFalse(store.acquire(JOB_ID, FIRE_TIME, "node2", FIRE_TIME, EXPIRATION));
+
+        final CronJobState state = state();
+        assertEquals(state.getLeaseOwner(), "node1");
+        assertEquals(state.getLeaseExpiration(), Long.valueOf(EXPIRATION));
+    }
+
+    @Test
+    public void shouldGiveLeaseToOnlyOneOfConcurrentOwners() throws Exception {
+        final int owners = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(owners);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < owners; i++) {
+                final String owner = "node" + i;
+                final Callable<Boolean> acquire = () -> {
+                    start.await();
+                    return store.acquire(JOB_ID, FIRE_TIME, owner, FIRE_TIME, EXPIRATION);
+                };
+                results.add(executor.submit(acquire));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    winners++;
+                }
+            }
+            assertEquals(winners, 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldNotAcquireLeaseOfAlreadyExecutedFireTime() {
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node1", FIRE_TIME, EXPIRATION));
+        assertTrue(store.release(JOB_ID, "node1", FIRE_TIME, FIRE_TIME + 10, 5000L));
+
+        assertFalse(store.acquire(JOB_ID, FIRE_TIME, "node2", FIRE_TIME + 20, EXPIRATION));
+        assertNull(state().getLeaseOwner());
+    }
+
+    @Test
+    public void shouldTakeOverExpiredLease() {
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node1", FIRE_TIME, EXPIRATION));
+
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node2", EXPIRATION + 1, EXPIRATION + 1000));
+        assertEquals(state().getLeaseOwner(), "node2");
+    }
+
+    @Test
+    public void shouldRenewLeaseOnlyByItsOwner() {
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node1", FIRE_TIME, EXPIRATION));
+
+        assertTrue(store.renew(JOB_ID, "node1", EXPIRATION + 1000));
+        assertFalse(store.renew(JOB_ID, "node2", EXPIRATION + 5000));
+        assertEquals(state().getLeaseExpiration(), Long.valueOf(EXPIRATION + 1000));
+    }
+
+    @Test
+    public void shouldNotRenewLeaseTakenOverByAnotherOwner() {
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node1", FIRE_TIME, EXPIRATION));
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node2", EXPIRATION + 1, EXPIRATION + 1000));
+
+        assertFalse(store.renew(JOB_ID, "node1", EXPIRATION + 5000));
+        assertEquals(state().getLeaseExpiration(), Long.valueOf(EXPIRATION + 1000));
+    }
+
+    @Test
+    public void shouldReleaseLeaseAndMoveToNextFireTime() {
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node1", FIRE_TIME, EXPIRATION));
+
+        assertTrue(store.release(JOB_ID, "node1", FIRE_TIME, FIRE_TIME + 10, 5000L));
+
+        final CronJobState state = state();
+        assertEquals(state.getNextFireTime(), 5000L);
+        assertEquals(state.getLastStartTime(), Long.valueOf(FIRE_TIME));
+        assertEquals(state.getLastEndTime(), Long.valueOf(FIRE_TIME + 10));
+        assertNull(state.getLeaseOwner());
+        assertNull(state.getLeaseExpiration());
+    }
+
+    @Test
+    public void shouldNotReleaseLeaseTakenOverByAnotherOwner() {
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node1", FIRE_TIME, EXPIRATION));
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node2", EXPIRATION + 1, EXPIRATION + 1000));
+
+        assertFalse(store.release(JOB_ID, "node1", FIRE_TIME, EXPIRATION + 10, 5000L));
+
+        final CronJobState state = state();
+        assertEquals(state.getNextFireTime(), FIRE_TIME);
+        assertEquals(state.getLeaseOwner(), "node2");
+    }
+
+    @Test
+    public void shouldRescheduleJobWithoutLease() {
+        assertTrue(store.reschedule(JOB_ID, FIRE_TIME, "0 30 * * * ?", 3000L, FIRE_TIME));
+
+        final CronJobState state = state();
+        assertEquals(state.getCron(), "0 30 * * * ?");
+        assertEquals(state.getNextFireTime(), 3000L);
+    }
+
+    @Test
+    public void shouldNotRescheduleJobWhileItIsLeased() {
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node1", FIRE_TIME, EXPIRATION));
+
+        assertFalse(store.reschedule(JOB_ID, FIRE_TIME, "0 30 * * * ?", 3000L, FIRE_TIME + 10));
+
+        final CronJobState state = state();
+        assertEquals(state.getCron(), CRON);
+        assertEquals(state.getLeaseOwner(), "node1");
+    }
+
+    @Test
+    public void shouldRescheduleJobWithExpiredLease() {
+        assertTrue(store.acquire(JOB_ID, FIRE_TIME, "node1", FIRE_TIME, EXPIRATION));
+
+        assertTrue(store.reschedule(JOB_ID, FIRE_TIME, "0 30 * * * ?", 3000L, EXPIRATION + 1));
+
+        final CronJobState state = state();
+        assertEquals(state.getNextFireTime(), 3000L);
+        assertNull(state.getLeaseOwner());
+        assertFalse(store.release(JOB_ID, "node1", FIRE_TIME, EXPIRATION + 10, 5000L));
+    }
+
+    @Test
+    public void shouldNotRescheduleJobWhenAnotherNodeHasAlreadyMovedIt() {
+        assertTrue(store.reschedule(JOB_ID, FIRE_TIME, "0 30 * * * ?", 3000L, FIRE_TIME));
+
+        assertFalse(store.reschedule(JOB_ID, FIRE_TIME, "0 45 * * * ?", 4000L, FIRE_TIME));
+        assertEquals(state().getCron(), "0 30 * * * ?");
+    }
+
+    /** Reads the job state bypassing the entities which are cached by the persistence context of the test thread. */
+    private CronJobState state() {
+        manager.clear();
+        return store.get(JOB_ID);
+    }
+}
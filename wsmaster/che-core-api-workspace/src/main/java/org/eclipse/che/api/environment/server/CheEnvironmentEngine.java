@@ -552,7 +552,7 @@ public class CheEnvironmentEngine {
     public void removeSnapshot(SnapshotImpl snapshot) throws ServerException, NotFoundException {
         final String instanceType = snapshot.getType();
         final InstanceProvider instanceProvider = machineInstanceProviders.getProvider(instanceType);
-        instanceProvider.removeInstanceSnapshot(snapshot.getMachineSource());
+        instanceProvider.removeInstanceSnapshot(snapshot);
     }
 
     private void initializeEnvironment(String namespace,
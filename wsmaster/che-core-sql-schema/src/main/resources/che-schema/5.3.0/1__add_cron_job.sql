@@ -0,0 +1,24 @@
+--
+-- Copyright (c) 2012-2017 Codenvy, S.A.
+-- All rights reserved. This program and the accompanying materials
+-- are made available under the terms of the Eclipse Public License v1.0
+-- which accompanies this distribution, and is available at
+-- http://www.eclipse.org/legal/epl-v10.html
+--
+-- Contributors:
+--   Codenvy, S.A. - initial API and implementation
+--
+
+-- Cron jobs ---------------------------------------------------------------------
+CREATE TABLE cron_job (
+    id                  VARCHAR(255)    NOT NULL,
+    cron                VARCHAR(255)    NOT NULL,
+    next_fire_time      BIGINT          NOT NULL,
+    last_start_time     BIGINT,
+    last_end_time       BIGINT,
+    lease_owner         VARCHAR(255),
+    lease_expiration    BIGINT,
+
+    PRIMARY KEY (id)
+);
+--------------------------------------------------------------------------------